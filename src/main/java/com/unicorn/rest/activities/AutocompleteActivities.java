@@ -0,0 +1,64 @@
+package com.unicorn.rest.activities;
+
+import java.util.List;
+
+import javax.inject.Inject;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.unicorn.rest.activities.exception.BadRequestException;
+import com.unicorn.rest.activities.exception.InternalServerErrorException;
+import com.unicorn.rest.activities.exception.InvalidRequestException;
+import com.unicorn.rest.activity.model.AutocompleteResponse;
+import com.unicorn.rest.repository.AutocompleteRepository;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.AutocompleteSuggestion;
+import com.unicorn.rest.server.filter.dynamic.PublicEndpoint;
+
+/**
+ * Suggest the restaurant and dish names as the diner types, from the in-memory index of AutocompleteRepository
+ */
+@Path("/v1/autocomplete")
+public class AutocompleteActivities {
+    private static final Logger LOG = LogManager.getLogger(AutocompleteActivities.class);
+
+    private static final String QUERY = "q";
+    private static final String LIMIT = "limit";
+    private static final String DEFAULT_LIMIT = "10";
+
+    private static final String SUGGEST_ERROR_MESSAGE = "Failed while attempting to fulfill autocomplete request due to %s: ";
+
+    private AutocompleteRepository autocompleteRepository;
+
+    @Inject
+    public AutocompleteActivities(AutocompleteRepository autocompleteRepository) {
+        this.autocompleteRepository = autocompleteRepository;
+    }
+
+    @GET
+    @PublicEndpoint
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response suggest(@QueryParam(QUERY) String query, @QueryParam(LIMIT) @DefaultValue(DEFAULT_LIMIT) int limit)
+            throws BadRequestException, InternalServerErrorException {
+        try {
+            List<AutocompleteSuggestion> suggestions = autocompleteRepository.suggest(query, limit);
+            return Response.status(Status.OK).entity(new AutocompleteResponse(query, suggestions)).build();
+
+        } catch (ValidationException error) {
+            LOG.info(String.format(SUGGEST_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), error);
+            throw new InvalidRequestException(error);
+        } catch (Exception internalFailure) {
+            LOG.error(String.format(SUGGEST_ERROR_MESSAGE, InternalServerErrorException.INTERNAL_FAILURE), internalFailure);
+            throw new InternalServerErrorException(internalFailure);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.unicorn.rest.activities;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+import com.unicorn.rest.server.ServerReadiness;
+import com.unicorn.rest.server.filter.dynamic.PublicEndpoint;
+
+@PublicEndpoint
+@Path("/v1/health")
+public class HealthCheckActivities {
+    
+    private static final String READY = "READY";
+    private static final String NOT_READY = "NOT_READY";
+
+    /**
+     * The load balancer should only route traffic to the server once this returns 200 OK
+     */
+    @GET
+    @Path("/readiness")
+    @Produces(MediaType.TEXT_PLAIN)
+    public Response checkReadiness() {
+        if (ServerReadiness.isReady()) {
+            return Response.ok(READY).build();
+        }
+        return Response.status(Status.SERVICE_UNAVAILABLE).entity(NOT_READY).build();
+    }
+}
@@ -0,0 +1,677 @@
+package com.unicorn.rest.activities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.PUT;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.glassfish.grizzly.http.server.Request;
+
+import com.unicorn.rest.activities.exception.BadRequestException;
+import com.unicorn.rest.activities.exception.InternalServerErrorException;
+import com.unicorn.rest.activities.exception.InvalidRequestException;
+import com.unicorn.rest.activities.exception.ResourceNotFoundException;
+import com.unicorn.rest.activities.exception.SlowDownException;
+import com.unicorn.rest.activities.utils.ContentNegotiator;
+import com.unicorn.rest.activity.model.AvailabilityWindowRequest;
+import com.unicorn.rest.activity.model.AvailableMenuResponse;
+import com.unicorn.rest.activity.model.CartLineRequest;
+import com.unicorn.rest.activity.model.ItemAvailabilitiesResponse;
+import com.unicorn.rest.activity.model.ItemAvailabilityRequest;
+import com.unicorn.rest.activity.model.ItemAvailabilityResponse;
+import com.unicorn.rest.activity.model.ItemEventRequest;
+import com.unicorn.rest.activity.model.ItemEventsRequest;
+import com.unicorn.rest.activity.model.MenuDeltaResponse;
+import com.unicorn.rest.activity.model.MenuImageRequest;
+import com.unicorn.rest.activity.model.MenuItemRequest;
+import com.unicorn.rest.activity.model.MenuRequest;
+import com.unicorn.rest.activity.model.ModifierGroupRequest;
+import com.unicorn.rest.activity.model.ModifierOptionRequest;
+import com.unicorn.rest.activity.model.PopularItemsResponse;
+import com.unicorn.rest.activity.model.QuoteRequest;
+import com.unicorn.rest.activity.model.QuoteResponse;
+import com.unicorn.rest.activity.model.StockAdjustmentRequest;
+import com.unicorn.rest.repository.ItemAvailabilityRepository;
+import com.unicorn.rest.repository.MenuRepository;
+import com.unicorn.rest.repository.PopularityRepository;
+import com.unicorn.rest.repository.exception.ItemNotFoundException;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.StaleDataException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.AvailabilityWindow;
+import com.unicorn.rest.repository.model.CartLine;
+import com.unicorn.rest.repository.model.ItemAvailability;
+import com.unicorn.rest.repository.model.ItemEvent;
+import com.unicorn.rest.repository.model.Menu;
+import com.unicorn.rest.repository.model.MenuDelta;
+import com.unicorn.rest.repository.model.MenuImage;
+import com.unicorn.rest.repository.model.MenuItem;
+import com.unicorn.rest.repository.model.MenuPricing;
+import com.unicorn.rest.repository.model.MenuSchedule;
+import com.unicorn.rest.repository.model.MenuSnapshot;
+import com.unicorn.rest.repository.model.MenuTranslation;
+import com.unicorn.rest.repository.model.ModifierGroup;
+import com.unicorn.rest.repository.model.ModifierOption;
+import com.unicorn.rest.repository.model.RenderedMenu;
+import com.unicorn.rest.server.filter.dynamic.PublicEndpoint;
+import com.unicorn.rest.server.filter.dynamic.RequiresPermission;
+import com.unicorn.rest.server.limiter.ItemEventRateLimiter;
+import com.unicorn.rest.utils.SimpleFlakeKeyGenerator;
+import com.unicorn.rest.utils.TimeUtils;
+
+/**
+ * The menu is read from the in-memory snapshot of MenuRepository, and replaced as a whole by the restaurant owner.
+ * The response body is rendered when the menu is published, once for each locale it is translated into,
+ * so the menu is served in the language negotiated by Accept-Language without serialization.
+ * The items sold out or out of stock are taken off the available menu and the quote by the real-time availability, without a new version.
+ * The views and orders of the items reported by the clients are counted across the servers and rank the popular items periodically,
+ * which are rendered into the menu the same way on every server, and are also served on their own.
+ */
+@Path("/v1/resturants/{restaurant_id}/menu")
+public class MenuActivities {
+    private static final Logger LOG = LogManager.getLogger(MenuActivities.class);
+
+    private static final String GET_MENU_ERROR_MESSAGE = "Failed while attempting to fulfill getting menu request due to %s: ";
+    private static final String PUBLISH_MENU_ERROR_MESSAGE = "Failed while attempting to fulfill publishing menu request due to %s: ";
+    private static final String GET_AVAILABLE_MENU_ERROR_MESSAGE = "Failed while attempting to fulfill getting available menu request due to %s: ";
+    private static final String QUOTE_MENU_ERROR_MESSAGE = "Failed while attempting to fulfill quoting cart request due to %s: ";
+    private static final String GET_ITEM_AVAILABILITY_ERROR_MESSAGE = "Failed while attempting to fulfill getting item availability request due to %s: ";
+    private static final String UPDATE_ITEM_AVAILABILITY_ERROR_MESSAGE = "Failed while attempting to fulfill updating item availability request due to %s: ";
+    private static final String ADJUST_STOCK_ERROR_MESSAGE = "Failed while attempting to fulfill adjusting stock request due to %s: ";
+    private static final String RECORD_ITEM_EVENTS_ERROR_MESSAGE = "Failed while attempting to fulfill recording item events request due to %s: ";
+    private static final String GET_POPULAR_ITEMS_ERROR_MESSAGE = "Failed while attempting to fulfill getting popular items request due to %s: ";
+
+    private static final String SINCE_VERSION = "since";
+    private static final String AT = "at";
+    private static final String ITEM_ID = "item_id";
+    private static final String X_FORWARDED_FOR = "X-Forwarded-For";
+    private static final CacheControl MENU_CACHE_CONTROL = CacheControl.valueOf("no-cache");
+    /*
+     * The popular items are materialized every minute, see PopularityRepositoryFactory
+     */
+    private static final CacheControl POPULAR_ITEMS_CACHE_CONTROL = CacheControl.valueOf("max-age=60");
+    private static final String LOCALIZED_MENU_VARY = HttpHeaders.ACCEPT_ENCODING + ", " + HttpHeaders.ACCEPT_LANGUAGE;
+
+    private MenuRepository menuRepository;
+    private ItemAvailabilityRepository itemAvailabilityRepository;
+    private PopularityRepository popularityRepository;
+    private ItemEventRateLimiter itemEventRateLimiter;
+
+    @Inject
+    public MenuActivities(MenuRepository menuRepository, ItemAvailabilityRepository itemAvailabilityRepository,
+            PopularityRepository popularityRepository, ItemEventRateLimiter itemEventRateLimiter) {
+        this.menuRepository = menuRepository;
+        this.itemAvailabilityRepository = itemAvailabilityRepository;
+        this.popularityRepository = popularityRepository;
+        this.itemEventRateLimiter = itemEventRateLimiter;
+    }
+
+    /**
+     * Write the body rendered at publish time as it is, or nothing if the client already has the current version.
+     *
+     * The client having a version asks with since for only the items added, changed or removed after that version, as menu_delta.
+     * The full menu is written instead if the delta since that version is no longer known, or is larger than the menu itself.
+     * The delta is only in the language published, since the translations can change without any item changing,
+     * so the client negotiating any other locale always gets the full menu.
+     */
+    @GET
+    @PublicEndpoint
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getMenu(@PathParam(RestuarantActivities.RESTAURANT_ID) Long restaurantId, @QueryParam(SINCE_VERSION) Long sinceVersion,
+            @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch, @HeaderParam(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding,
+            @HeaderParam(HttpHeaders.ACCEPT_LANGUAGE) String acceptLanguage)
+            throws BadRequestException, InternalServerErrorException {
+        try {
+            try {
+                MenuSnapshot menuSnapshot = menuRepository.getMenu(restaurantId);
+                Menu menu = menuSnapshot.getMenu();
+                String locale = ContentNegotiator.negotiateLanguage(acceptLanguage, menu.getLanguage(), menu.getTranslations().keySet());
+                MenuDelta menuDelta = sinceVersion == null || menu.getTranslation(locale) != null ? null : menuSnapshot.getDelta(sinceVersion);
+                if (menuDelta != null) {
+                    return Response.ok(new MenuDeltaResponse(menuDelta)).cacheControl(MENU_CACHE_CONTROL).build();
+                }
+                return buildRenderedMenuResponse(menuSnapshot, locale, ifNoneMatch, acceptEncoding);
+            } catch (ItemNotFoundException error) {
+                throw new ResourceNotFoundException();
+            }
+
+        } catch (ValidationException error) {
+            LOG.info(String.format(GET_MENU_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), error);
+            throw new InvalidRequestException(error);
+        } catch (BadRequestException badRequest) {
+            LOG.info(String.format(GET_MENU_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), badRequest);
+            throw badRequest;
+        } catch (Exception internalFailure) {
+            LOG.error(String.format(GET_MENU_ERROR_MESSAGE, InternalServerErrorException.INTERNAL_FAILURE), internalFailure);
+            throw new InternalServerErrorException(internalFailure);
+        }
+    }
+
+    /**
+     * Write the items available at the epoch time in millis, now if it is not provided, from the schedule compiled with the menu snapshot.
+     * The time the available items change next is written as well, until which the client can keep the response
+     * unless any of the items is sold out meanwhile.
+     */
+    @GET
+    @Path("/available")
+    @PublicEndpoint
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getAvailableMenu(@PathParam(RestuarantActivities.RESTAURANT_ID) Long restaurantId, @QueryParam(AT) Long at,
+            @HeaderParam(HttpHeaders.ACCEPT_LANGUAGE) String acceptLanguage)
+            throws BadRequestException, InternalServerErrorException {
+        try {
+            try {
+                MenuSnapshot menuSnapshot = menuRepository.getMenu(restaurantId);
+                Menu menu = menuSnapshot.getMenu();
+                String locale = ContentNegotiator.negotiateLanguage(acceptLanguage, menu.getLanguage(), menu.getTranslations().keySet());
+                long timeInMills = at == null ? TimeUtils.getEpochTimeNowInUTC() : at;
+                MenuSchedule menuSchedule = menuSnapshot.getSchedule();
+                List<MenuItem> availableItems = itemAvailabilityRepository.filterAvailableItems(restaurantId,
+                        menuSchedule.getAvailableItems(timeInMills));
+                ResponseBuilder responseBuilder = Response.ok(new AvailableMenuResponse(menuSnapshot, timeInMills, availableItems,
+                        menuSchedule.getNextChangeAt(timeInMills), menu.getTranslation(locale))).cacheControl(MENU_CACHE_CONTROL);
+                if (!menu.getTranslations().isEmpty()) {
+                    responseBuilder.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_LANGUAGE);
+                }
+                if (locale != null) {
+                    responseBuilder.header(HttpHeaders.CONTENT_LANGUAGE, locale);
+                }
+                return responseBuilder.build();
+            } catch (ItemNotFoundException error) {
+                throw new ResourceNotFoundException();
+            }
+
+        } catch (ValidationException error) {
+            LOG.info(String.format(GET_AVAILABLE_MENU_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), error);
+            throw new InvalidRequestException(error);
+        } catch (BadRequestException badRequest) {
+            LOG.info(String.format(GET_AVAILABLE_MENU_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), badRequest);
+            throw badRequest;
+        } catch (Exception internalFailure) {
+            LOG.error(String.format(GET_AVAILABLE_MENU_ERROR_MESSAGE, InternalServerErrorException.INTERNAL_FAILURE), internalFailure);
+            throw new InternalServerErrorException(internalFailure);
+        }
+    }
+
+    /**
+     * Quote all the lines of the cart against the price plans compiled with the current menu version in one call.
+     * The quote is not persisted, so the version is written for the checkout to detect the menu changed since.
+     * The cart with any item sold out or out of stock is rejected as a whole.
+     */
+    @POST
+    @Path("/quote")
+    @PublicEndpoint
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response quoteMenu(@PathParam(RestuarantActivities.RESTAURANT_ID) Long restaurantId, QuoteRequest quoteRequest)
+            throws BadRequestException, InternalServerErrorException {
+        try {
+            try {
+                if (quoteRequest == null) {
+                    throw new ValidationException("Expecting non-null request paramter for quoteMenu, but received: quoteRequest=null");
+                }
+                List<CartLine> cartLines = buildCartLines(quoteRequest.getLines());
+                MenuSnapshot menuSnapshot = menuRepository.getMenu(restaurantId);
+                for (CartLine cartLine : cartLines) {
+                    if (!itemAvailabilityRepository.isItemAvailable(restaurantId, cartLine.getItemId())) {
+                        throw new ValidationException(String.format("Invalid item_id %s. The item is sold out", cartLine.getItemId()));
+                    }
+                }
+                return Response.ok(new QuoteResponse(menuSnapshot.getPricing().quote(cartLines))).build();
+            } catch (ItemNotFoundException error) {
+                throw new ResourceNotFoundException();
+            }
+
+        } catch (ValidationException error) {
+            LOG.info(String.format(QUOTE_MENU_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), error);
+            throw new InvalidRequestException(error);
+        } catch (BadRequestException badRequest) {
+            LOG.info(String.format(QUOTE_MENU_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), badRequest);
+            throw badRequest;
+        } catch (Exception internalFailure) {
+            LOG.error(String.format(QUOTE_MENU_ERROR_MESSAGE, InternalServerErrorException.INTERNAL_FAILURE), internalFailure);
+            throw new InternalServerErrorException(internalFailure);
+        }
+    }
+
+    /**
+     * Write the real-time availability of the items of the restaurant, i.e. those ever marked sold out or tracking the stock.
+     * The items not written are available as far as the menu schedule goes.
+     */
+    @GET
+    @Path("/item_availability")
+    @PublicEndpoint
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getItemAvailabilities(@PathParam(RestuarantActivities.RESTAURANT_ID) Long restaurantId)
+            throws BadRequestException, InternalServerErrorException {
+        try {
+            Map<Long, ItemAvailability> itemAvailabilities = itemAvailabilityRepository.getItemAvailabilities(restaurantId);
+            return Response.ok(new ItemAvailabilitiesResponse(restaurantId, itemAvailabilities.values())).cacheControl(MENU_CACHE_CONTROL).build();
+
+        } catch (ValidationException error) {
+            LOG.info(String.format(GET_ITEM_AVAILABILITY_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), error);
+            throw new InvalidRequestException(error);
+        } catch (Exception internalFailure) {
+            LOG.error(String.format(GET_ITEM_AVAILABILITY_ERROR_MESSAGE, InternalServerErrorException.INTERNAL_FAILURE), internalFailure);
+            throw new InternalServerErrorException(internalFailure);
+        }
+    }
+
+    /**
+     * Mark the item sold out or back, and set or stop tracking its stock, which takes effect on this server at once
+     * and on the other servers by their next poll of the change feed.
+     */
+    @PUT
+    @Path("/items/{item_id}/availability")
+    @RequiresPermission(action = RestuarantActivities.MANAGE_RESTAURANT_ACTION, resource = RestuarantActivities.RESTAURANT_RESOURCE)
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response updateItemAvailability(@PathParam(RestuarantActivities.RESTAURANT_ID) Long restaurantId, @PathParam(ITEM_ID) Long itemId,
+            ItemAvailabilityRequest itemAvailabilityRequest)
+            throws BadRequestException, InternalServerErrorException {
+        try {
+            if (itemAvailabilityRequest == null) {
+                throw new ValidationException("Expecting non-null request paramter for updateItemAvailability, but received: itemAvailabilityRequest=null");
+            }
+            verifyMenuItem(restaurantId, itemId);
+            ItemAvailability itemAvailability = itemAvailabilityRepository.updateItemAvailability(restaurantId, itemId,
+                    itemAvailabilityRequest.getSoldOut(), itemAvailabilityRequest.getStock());
+            return Response.ok(new ItemAvailabilityResponse(itemAvailability)).build();
+
+        } catch (ValidationException error) {
+            LOG.info(String.format(UPDATE_ITEM_AVAILABILITY_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), error);
+            throw new InvalidRequestException(error);
+        } catch (BadRequestException badRequest) {
+            LOG.info(String.format(UPDATE_ITEM_AVAILABILITY_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), badRequest);
+            throw badRequest;
+        } catch (Exception internalFailure) {
+            LOG.error(String.format(UPDATE_ITEM_AVAILABILITY_ERROR_MESSAGE, InternalServerErrorException.INTERNAL_FAILURE), internalFailure);
+            throw new InternalServerErrorException(internalFailure);
+        }
+    }
+
+    /**
+     * Add to or take from the stock of the item atomically across the servers, where the item runs out once its stock reaches zero.
+     */
+    @POST
+    @Path("/items/{item_id}/availability/stock")
+    @RequiresPermission(action = RestuarantActivities.MANAGE_RESTAURANT_ACTION, resource = RestuarantActivities.RESTAURANT_RESOURCE)
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response adjustStock(@PathParam(RestuarantActivities.RESTAURANT_ID) Long restaurantId, @PathParam(ITEM_ID) Long itemId,
+            StockAdjustmentRequest stockAdjustmentRequest)
+            throws BadRequestException, InternalServerErrorException {
+        try {
+            if (stockAdjustmentRequest == null) {
+                throw new ValidationException("Expecting non-null request paramter for adjustStock, but received: stockAdjustmentRequest=null");
+            }
+            verifyMenuItem(restaurantId, itemId);
+            try {
+                ItemAvailability itemAvailability = itemAvailabilityRepository.adjustStock(restaurantId, itemId, stockAdjustmentRequest.getDelta());
+                return Response.ok(new ItemAvailabilityResponse(itemAvailability)).build();
+            } catch (StaleDataException error) {
+                throw new ValidationException(String.format("Invalid stock delta %s. The item %s does not track the stock or has less stock than taken",
+                        stockAdjustmentRequest.getDelta(), itemId));
+            }
+
+        } catch (ValidationException error) {
+            LOG.info(String.format(ADJUST_STOCK_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), error);
+            throw new InvalidRequestException(error);
+        } catch (BadRequestException badRequest) {
+            LOG.info(String.format(ADJUST_STOCK_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), badRequest);
+            throw badRequest;
+        } catch (Exception internalFailure) {
+            LOG.error(String.format(ADJUST_STOCK_ERROR_MESSAGE, InternalServerErrorException.INTERNAL_FAILURE), internalFailure);
+            throw new InternalServerErrorException(internalFailure);
+        }
+    }
+
+    /**
+     * Write the items in descending order of popularity as materialized into the menu snapshot, which is the same on every server.
+     * The ranking is only materialized every interval, so it is cached for the interval instead of revalidated.
+     */
+    @GET
+    @Path("/popular")
+    @PublicEndpoint
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getPopularItems(@PathParam(RestuarantActivities.RESTAURANT_ID) Long restaurantId)
+            throws BadRequestException, InternalServerErrorException {
+        try {
+            try {
+                List<Long> popularItemIds = popularityRepository.getPopularItems(restaurantId);
+                return Response.ok(new PopularItemsResponse(restaurantId, popularItemIds)).cacheControl(POPULAR_ITEMS_CACHE_CONTROL).build();
+            } catch (ItemNotFoundException error) {
+                throw new ResourceNotFoundException();
+            }
+
+        } catch (ValidationException error) {
+            LOG.info(String.format(GET_POPULAR_ITEMS_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), error);
+            throw new InvalidRequestException(error);
+        } catch (BadRequestException badRequest) {
+            LOG.info(String.format(GET_POPULAR_ITEMS_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), badRequest);
+            throw badRequest;
+        } catch (Exception internalFailure) {
+            LOG.error(String.format(GET_POPULAR_ITEMS_ERROR_MESSAGE, InternalServerErrorException.INTERNAL_FAILURE), internalFailure);
+            throw new InternalServerErrorException(internalFailure);
+        }
+    }
+
+    /**
+     * Count the views and orders of the items towards their popularity. The events are counted in memory and added to the counts
+     * shared by all the servers by the next materialization, so the request is accepted without waiting for the ranking to change.
+     * The events of the items no longer on the menu are dropped.
+     *
+     * The events are reported without any principal, so the requests are rate limited by client address before anything is counted.
+     */
+    @POST
+    @Path("/events")
+    @PublicEndpoint
+    @Consumes(MediaType.APPLICATION_JSON)
+    public Response recordItemEvents(@PathParam(RestuarantActivities.RESTAURANT_ID) Long restaurantId, ItemEventsRequest itemEventsRequest,
+            @Context HttpHeaders headers, @Context Request grizzlyRequest)
+            throws BadRequestException, InternalServerErrorException {
+        try {
+            try {
+                String clientAddress = itemEventRateLimiter.resolveClientAddress(headers.getHeaderString(X_FORWARDED_FOR),
+                        grizzlyRequest == null ? null : grizzlyRequest.getRemoteAddr());
+                if (!itemEventRateLimiter.tryAcquireForClient(clientAddress)) {
+                    throw new SlowDownException(clientAddress);
+                }
+                if (itemEventsRequest == null) {
+                    throw new ValidationException("Expecting non-null request paramter for recordItemEvents, but received: itemEventsRequest=null");
+                }
+                popularityRepository.recordItemEvents(restaurantId, buildItemEvents(itemEventsRequest.getEvents()));
+                return Response.status(Response.Status.ACCEPTED).build();
+            } catch (ItemNotFoundException error) {
+                throw new ResourceNotFoundException();
+            }
+
+        } catch (ValidationException error) {
+            LOG.info(String.format(RECORD_ITEM_EVENTS_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), error);
+            throw new InvalidRequestException(error);
+        } catch (BadRequestException badRequest) {
+            LOG.info(String.format(RECORD_ITEM_EVENTS_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), badRequest);
+            throw badRequest;
+        } catch (Exception internalFailure) {
+            LOG.error(String.format(RECORD_ITEM_EVENTS_ERROR_MESSAGE, InternalServerErrorException.INTERNAL_FAILURE), internalFailure);
+            throw new InternalServerErrorException(internalFailure);
+        }
+    }
+
+    /**
+     * Publish the menu as the new version, which replaces the whole menu.
+     * The item without item_id is a new item, and the item_id is generated for it.
+     * The availability of the menu and its items is in the local time of the time_zone, and all the time if not provided.
+     * The translations are the string tables of the texts on the menu by locale, and the texts no longer on the menu are dropped.
+     */
+    @PUT
+    @RequiresPermission(action = RestuarantActivities.MANAGE_RESTAURANT_ACTION, resource = RestuarantActivities.RESTAURANT_RESOURCE)
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response publishMenu(@PathParam(RestuarantActivities.RESTAURANT_ID) Long restaurantId, MenuRequest menuRequest,
+            @HeaderParam(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding)
+            throws BadRequestException, InternalServerErrorException {
+        try {
+            if (menuRequest == null) {
+                throw new ValidationException("Expecting non-null request paramter for publishMenu, but received: menuRequest=null");
+            }
+            List<MenuItem> menuItems = buildMenuItems(menuRequest.getItems());
+            String timeZone = Menu.validateTimeZone(menuRequest.getTimeZone());
+            List<AvailabilityWindow> availability = buildAvailability(menuRequest.getAvailability());
+            String language = menuRequest.getLanguage() == null ? null : MenuTranslation.validateLocale(menuRequest.getLanguage());
+            List<MenuTranslation> translations = buildTranslations(menuRequest.getTranslations());
+            MenuSnapshot menuSnapshot = menuRepository.publishMenu(restaurantId, timeZone, availability, language, translations, menuItems);
+            return buildRenderedMenuResponse(menuSnapshot, language, null, acceptEncoding);
+
+        } catch (ValidationException error) {
+            LOG.info(String.format(PUBLISH_MENU_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), error);
+            throw new InvalidRequestException(error);
+        } catch (BadRequestException badRequest) {
+            LOG.info(String.format(PUBLISH_MENU_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), badRequest);
+            throw badRequest;
+        } catch (Exception internalFailure) {
+            LOG.error(String.format(PUBLISH_MENU_ERROR_MESSAGE, InternalServerErrorException.INTERNAL_FAILURE), internalFailure);
+            throw new InternalServerErrorException(internalFailure);
+        }
+    }
+
+    /**
+     * The gzipped body is chosen if the client accepts it, and each of the bodies is validated by its own strong entity tag.
+     * The menu can be stored by any cache, but has to be revalidated before every use, which costs no body once it is not modified.
+     * The body rendered in each locale has its own entity tags as well, and the translated menu varies by Accept-Language.
+     *
+     * @param menuSnapshot @Nonnull
+     * @param locale the locale negotiated, NULL if the language published is not declared @Nullable
+     * @param ifNoneMatch @Nullable
+     * @param acceptEncoding @Nullable
+     * @return @Nonnull
+     */
+    protected static @Nonnull Response buildRenderedMenuResponse(@Nonnull MenuSnapshot menuSnapshot, @Nullable String locale,
+            @Nullable String ifNoneMatch, @Nullable String acceptEncoding) {
+        RenderedMenu renderedMenu = menuSnapshot.getRenderedMenu(locale);
+        boolean gzipped = renderedMenu.getGzippedBody() != null && ContentNegotiator.acceptsGzip(acceptEncoding);
+        EntityTag entityTag = new EntityTag(gzipped ? renderedMenu.getGzippedEntityTag() : renderedMenu.getEntityTag());
+        ResponseBuilder responseBuilder;
+        if (ContentNegotiator.matchesIfNoneMatch(ifNoneMatch, entityTag.getValue())) {
+            responseBuilder = Response.notModified(entityTag);
+        } else {
+            responseBuilder = Response.ok(gzipped ? renderedMenu.getGzippedBody() : renderedMenu.getBody(), MediaType.APPLICATION_JSON_TYPE)
+                    .tag(entityTag);
+            if (gzipped) {
+                responseBuilder.header(HttpHeaders.CONTENT_ENCODING, ContentNegotiator.GZIP_ENCODING);
+            }
+        }
+        if (locale != null) {
+            responseBuilder.header(HttpHeaders.CONTENT_LANGUAGE, locale);
+        }
+        return responseBuilder.cacheControl(MENU_CACHE_CONTROL).header(HttpHeaders.VARY,
+                menuSnapshot.getMenu().getTranslations().isEmpty() ? HttpHeaders.ACCEPT_ENCODING : LOCALIZED_MENU_VARY).build();
+    }
+
+    /**
+     * The owner is already checked by PermissionCheckFilter against the policy of the restaurant
+     *
+     * @throws ResourceNotFoundException if the item is not on the current menu of the restaurant
+     */
+    protected void verifyMenuItem(@Nullable Long restaurantId, @Nullable Long itemId)
+            throws ValidationException, ResourceNotFoundException, RepositoryServerException {
+        try {
+            for (MenuItem menuItem : menuRepository.getMenu(restaurantId).getMenu().getItems()) {
+                if (menuItem.getItemId().equals(itemId)) {
+                    return;
+                }
+            }
+        } catch (ItemNotFoundException error) {
+            throw new ResourceNotFoundException();
+        }
+        throw new ResourceNotFoundException();
+    }
+
+    private static @Nonnull List<MenuItem> buildMenuItems(@Nullable List<MenuItemRequest> menuItemRequests)
+            throws ValidationException {
+        if (menuItemRequests == null) {
+            return Collections.emptyList();
+        }
+        if (menuItemRequests.size() > Menu.MAX_MENU_ITEMS) {
+            throw new ValidationException(String.format("Invalid menu. The number of items should be no more than %s", Menu.MAX_MENU_ITEMS));
+        }
+        List<MenuItem> menuItems = new ArrayList<>(menuItemRequests.size());
+        for (MenuItemRequest menuItemRequest : menuItemRequests) {
+            if (menuItemRequest == null) {
+                throw new ValidationException("Expecting non-null menu item, but received: item=null");
+            }
+            menuItems.add(MenuItem.buildMenuItem()
+                    .itemId(menuItemRequest.getItemId() == null ? SimpleFlakeKeyGenerator.generateKey() : menuItemRequest.getItemId())
+                    .itemName(MenuItem.validateItemName(menuItemRequest.getItemName()))
+                    .itemDescription(MenuItem.validateItemDescription(menuItemRequest.getItemDescription()))
+                    .price(MenuItem.validatePrice(menuItemRequest.getPrice()))
+                    .tags(MenuItem.validateTags(menuItemRequest.getTags()))
+                    .availability(buildAvailability(menuItemRequest.getAvailability()))
+                    .modifierGroups(buildModifierGroups(menuItemRequest.getModifierGroups()))
+                    .images(buildImages(menuItemRequest.getImages()))
+                    .build());
+        }
+        return menuItems;
+    }
+
+    private static @Nonnull List<MenuImage> buildImages(@Nullable List<MenuImageRequest> menuImageRequests)
+            throws ValidationException {
+        if (menuImageRequests == null || menuImageRequests.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (menuImageRequests.size() > MenuImage.MAX_ITEM_IMAGES) {
+            throw new ValidationException(String.format("Invalid menu item images. The number of images should be no more than %s",
+                    MenuImage.MAX_ITEM_IMAGES));
+        }
+        List<MenuImage> images = new ArrayList<>(menuImageRequests.size());
+        for (MenuImageRequest menuImageRequest : menuImageRequests) {
+            if (menuImageRequest == null) {
+                throw new ValidationException("Expecting non-null menu image, but received: image=null");
+            }
+            images.add(MenuImage.validateMenuImage(menuImageRequest.getContentHash(), menuImageRequest.getContentType(),
+                    menuImageRequest.getWidth(), menuImageRequest.getHeight()));
+        }
+        return images;
+    }
+
+    private static @Nonnull List<AvailabilityWindow> buildAvailability(@Nullable List<AvailabilityWindowRequest> availabilityWindowRequests)
+            throws ValidationException {
+        if (availabilityWindowRequests == null || availabilityWindowRequests.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (availabilityWindowRequests.size() > AvailabilityWindow.MAX_AVAILABILITY_WINDOWS) {
+            throw new ValidationException(String.format("Invalid availability. The number of availability windows should be no more than %s",
+                    AvailabilityWindow.MAX_AVAILABILITY_WINDOWS));
+        }
+        List<AvailabilityWindow> availability = new ArrayList<>(availabilityWindowRequests.size());
+        for (AvailabilityWindowRequest availabilityWindowRequest : availabilityWindowRequests) {
+            if (availabilityWindowRequest == null) {
+                throw new ValidationException("Expecting non-null availability window, but received: availability_window=null");
+            }
+            availability.add(AvailabilityWindow.validateAvailabilityWindow(availabilityWindowRequest.getDays(),
+                    availabilityWindowRequest.getStartTime(), availabilityWindowRequest.getEndTime()));
+        }
+        return availability;
+    }
+
+    private static @Nonnull List<MenuTranslation> buildTranslations(@Nullable Map<String, Map<String, String>> translationRequests)
+            throws ValidationException {
+        if (translationRequests == null || translationRequests.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (translationRequests.size() > MenuTranslation.MAX_MENU_LOCALES) {
+            throw new ValidationException(String.format("Invalid menu. The number of locales should be no more than %s", MenuTranslation.MAX_MENU_LOCALES));
+        }
+        List<MenuTranslation> translations = new ArrayList<>(translationRequests.size());
+        for (Map.Entry<String, Map<String, String>> translationRequest : translationRequests.entrySet()) {
+            translations.add(MenuTranslation.validateMenuTranslation(translationRequest.getKey(), translationRequest.getValue()));
+        }
+        return translations;
+    }
+
+    private static @Nonnull List<ModifierGroup> buildModifierGroups(@Nullable List<ModifierGroupRequest> modifierGroupRequests)
+            throws ValidationException {
+        if (modifierGroupRequests == null || modifierGroupRequests.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (modifierGroupRequests.size() > ModifierGroup.MAX_MODIFIER_GROUPS) {
+            throw new ValidationException(String.format("Invalid modifier groups. The number of modifier groups should be no more than %s",
+                    ModifierGroup.MAX_MODIFIER_GROUPS));
+        }
+        List<ModifierGroup> modifierGroups = new ArrayList<>(modifierGroupRequests.size());
+        for (ModifierGroupRequest modifierGroupRequest : modifierGroupRequests) {
+            if (modifierGroupRequest == null || modifierGroupRequest.getOptions() == null || modifierGroupRequest.getOptions().isEmpty()) {
+                throw new ValidationException(String.format("Expecting non-null modifier group with options, but received: modifier_group=%s",
+                        modifierGroupRequest));
+            }
+            if (modifierGroupRequest.getOptions().size() > ModifierGroup.MAX_MODIFIER_OPTIONS) {
+                throw new ValidationException(String.format("Invalid modifier group. The number of options should be no more than %s",
+                        ModifierGroup.MAX_MODIFIER_OPTIONS));
+            }
+            List<ModifierOption> modifierOptions = new ArrayList<>(modifierGroupRequest.getOptions().size());
+            for (ModifierOptionRequest modifierOptionRequest : modifierGroupRequest.getOptions()) {
+                if (modifierOptionRequest == null) {
+                    throw new ValidationException("Expecting non-null modifier option, but received: modifier_option=null");
+                }
+                modifierOptions.add(ModifierOption.buildModifierOption()
+                        .optionId(modifierOptionRequest.getOptionId() == null ? SimpleFlakeKeyGenerator.generateKey() : modifierOptionRequest.getOptionId())
+                        .optionName(ModifierGroup.validateModifierName(modifierOptionRequest.getOptionName()))
+                        .priceDelta(ModifierOption.validatePriceDelta(modifierOptionRequest.getPriceDelta()))
+                        .modifierGroups(buildModifierGroups(modifierOptionRequest.getModifierGroups()))
+                        .build());
+            }
+            int[] selections = ModifierGroup.validateSelections(modifierGroupRequest.getMinSelections(), modifierGroupRequest.getMaxSelections(),
+                    modifierOptions.size());
+            modifierGroups.add(ModifierGroup.buildModifierGroup()
+                    .groupId(modifierGroupRequest.getGroupId() == null ? SimpleFlakeKeyGenerator.generateKey() : modifierGroupRequest.getGroupId())
+                    .groupName(ModifierGroup.validateModifierName(modifierGroupRequest.getGroupName()))
+                    .minSelections(selections[0])
+                    .maxSelections(selections[1])
+                    .options(modifierOptions)
+                    .build());
+        }
+        return modifierGroups;
+    }
+
+    private static @Nonnull List<CartLine> buildCartLines(@Nullable List<CartLineRequest> cartLineRequests)
+            throws ValidationException {
+        if (cartLineRequests == null || cartLineRequests.isEmpty() || cartLineRequests.size() > MenuPricing.MAX_CART_LINES) {
+            throw new ValidationException(String.format("Invalid cart. The number of lines should be at least 1 and no more than %s",
+                    MenuPricing.MAX_CART_LINES));
+        }
+        List<CartLine> cartLines = new ArrayList<>(cartLineRequests.size());
+        for (CartLineRequest cartLineRequest : cartLineRequests) {
+            if (cartLineRequest == null || cartLineRequest.getItemId() == null) {
+                throw new ValidationException(String.format("Expecting non-null request paramter for quoteMenu, but received: line=%s", cartLineRequest));
+            }
+            List<Long> optionIdList = cartLineRequest.getOptionIds();
+            long[] optionIds = new long[optionIdList == null ? 0 : optionIdList.size()];
+            for (int i = 0; i < optionIds.length; i++) {
+                if (optionIdList.get(i) == null) {
+                    throw new ValidationException("Expecting non-null option_id, but received: option_id=null");
+                }
+                optionIds[i] = optionIdList.get(i);
+            }
+            cartLines.add(new CartLine(cartLineRequest.getItemId(), cartLineRequest.getQuantity() == null ? 1 : cartLineRequest.getQuantity(), optionIds));
+        }
+        return cartLines;
+    }
+
+    private static @Nonnull List<ItemEvent> buildItemEvents(@Nullable List<ItemEventRequest> itemEventRequests)
+            throws ValidationException {
+        if (itemEventRequests == null || itemEventRequests.isEmpty() || itemEventRequests.size() > ItemEvent.MAX_ITEM_EVENTS) {
+            throw new ValidationException(String.format("Invalid item events. The number of events should be at least 1 and no more than %s",
+                    ItemEvent.MAX_ITEM_EVENTS));
+        }
+        List<ItemEvent> itemEvents = new ArrayList<>(itemEventRequests.size());
+        for (ItemEventRequest itemEventRequest : itemEventRequests) {
+            if (itemEventRequest == null) {
+                throw new ValidationException("Expecting non-null request paramter for recordItemEvents, but received: event=null");
+            }
+            itemEvents.add(ItemEvent.validateItemEvent(itemEventRequest.getItemId(), itemEventRequest.getType(), itemEventRequest.getQuantity()));
+        }
+        return itemEvents;
+    }
+}
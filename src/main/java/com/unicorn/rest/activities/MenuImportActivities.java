@@ -0,0 +1,136 @@
+package com.unicorn.rest.activities;
+
+import java.io.InputStream;
+
+import javax.inject.Inject;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.SecurityContext;
+import javax.ws.rs.core.UriInfo;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.unicorn.rest.activities.exception.BadRequestException;
+import com.unicorn.rest.activities.exception.InternalServerErrorException;
+import com.unicorn.rest.activities.exception.InvalidRequestException;
+import com.unicorn.rest.activities.exception.ResourceNotFoundException;
+import com.unicorn.rest.activities.utils.CSVMenuImportReader;
+import com.unicorn.rest.activities.utils.JSONMenuImportReader;
+import com.unicorn.rest.activity.model.MenuImportJobResponse;
+import com.unicorn.rest.repository.MenuImportReader;
+import com.unicorn.rest.repository.MenuImportRepository;
+import com.unicorn.rest.repository.exception.ItemNotFoundException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.MenuImportJob;
+import com.unicorn.rest.server.filter.dynamic.RequiresPermission;
+
+/**
+ * Import the menus of many restaurants of the owner from one CSV or JSON upload, which is read as a stream rather than bound as an entity.
+ * The import is accepted once the whole upload is read, and the menus still being published are tracked by the job resource.
+ */
+@Path("/v1/menu_imports")
+public class MenuImportActivities {
+    private static final Logger LOG = LogManager.getLogger(MenuImportActivities.class);
+
+    /*
+     * The policy is provisioned once by the operators, e.g. "principal_type == CUSTOMER", 
+     * and the import only publishes the menus of the restaurants owned by the principal
+     */
+    public static final String IMPORT_MENUS_ACTION = "import_menus";
+    public static final String MENU_IMPORTS_RESOURCE = "menu_imports";
+
+    private static final String JOB_ID = "job_id";
+    private static final CacheControl IMPORT_JOB_CACHE_CONTROL = CacheControl.valueOf("no-store");
+
+    private static final String IMPORT_MENUS_ERROR_MESSAGE = "Failed while attempting to fulfill importing menus request due to %s: ";
+    private static final String GET_IMPORT_JOB_ERROR_MESSAGE = "Failed while attempting to fulfill getting menu import request due to %s: ";
+
+    private MenuImportRepository menuImportRepository;
+
+    @Inject
+    public MenuImportActivities(MenuImportRepository menuImportRepository) {
+        this.menuImportRepository = menuImportRepository;
+    }
+
+    /**
+     * The header of the CSV names the columns restaurant_id, item_id, item_name, item_description, price and tags,
+     * where the tags are separated by semicolons.
+     */
+    @POST
+    @RequiresPermission(action = IMPORT_MENUS_ACTION, resource = MENU_IMPORTS_RESOURCE)
+    @Consumes(CSVMenuImportReader.TEXT_CSV)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response importCSVMenus(InputStream upload, @Context UriInfo uriInfo, @Context SecurityContext securityContext)
+            throws BadRequestException, InternalServerErrorException {
+        return importMenus(new CSVMenuImportReader(upload), uriInfo, securityContext);
+    }
+
+    /**
+     * The JSON is the array of the menu items, each of which has restaurant_id as well.
+     */
+    @POST
+    @RequiresPermission(action = IMPORT_MENUS_ACTION, resource = MENU_IMPORTS_RESOURCE)
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response importJSONMenus(InputStream upload, @Context UriInfo uriInfo, @Context SecurityContext securityContext)
+            throws BadRequestException, InternalServerErrorException {
+        return importMenus(new JSONMenuImportReader(upload), uriInfo, securityContext);
+    }
+
+    @GET
+    @Path("/{job_id}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getImportJob(@PathParam(JOB_ID) Long jobId, @Context SecurityContext securityContext)
+            throws BadRequestException, InternalServerErrorException {
+        try {
+            try {
+                Long ownerPrincipal = RestuarantActivities.getSubjectPrincipal(securityContext);
+                MenuImportJob menuImportJob = menuImportRepository.getImportJob(jobId, ownerPrincipal);
+                return Response.status(Status.OK).entity(new MenuImportJobResponse(menuImportJob)).cacheControl(IMPORT_JOB_CACHE_CONTROL).build();
+            } catch (ItemNotFoundException error) {
+                throw new ResourceNotFoundException();
+            }
+
+        } catch (ValidationException error) {
+            LOG.info(String.format(GET_IMPORT_JOB_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), error);
+            throw new InvalidRequestException(error);
+        } catch (BadRequestException badRequest) {
+            LOG.info(String.format(GET_IMPORT_JOB_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), badRequest);
+            throw badRequest;
+        } catch (Exception internalFailure) {
+            LOG.error(String.format(GET_IMPORT_JOB_ERROR_MESSAGE, InternalServerErrorException.INTERNAL_FAILURE), internalFailure);
+            throw new InternalServerErrorException(internalFailure);
+        }
+    }
+
+    private Response importMenus(MenuImportReader menuImportReader, UriInfo uriInfo, SecurityContext securityContext)
+            throws BadRequestException, InternalServerErrorException {
+        try {
+            Long ownerPrincipal = RestuarantActivities.getSubjectPrincipal(securityContext);
+            MenuImportJob menuImportJob = menuImportRepository.importMenus(ownerPrincipal, menuImportReader);
+            return Response.status(Status.ACCEPTED).entity(new MenuImportJobResponse(menuImportJob))
+                    .location(uriInfo.getAbsolutePathBuilder().path(String.valueOf(menuImportJob.getJobId())).build())
+                    .cacheControl(IMPORT_JOB_CACHE_CONTROL).build();
+
+        } catch (ValidationException error) {
+            LOG.info(String.format(IMPORT_MENUS_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), error);
+            throw new InvalidRequestException(error);
+        } catch (BadRequestException badRequest) {
+            LOG.info(String.format(IMPORT_MENUS_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), badRequest);
+            throw badRequest;
+        } catch (Exception internalFailure) {
+            LOG.error(String.format(IMPORT_MENUS_ERROR_MESSAGE, InternalServerErrorException.INTERNAL_FAILURE), internalFailure);
+            throw new InternalServerErrorException(internalFailure);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.unicorn.rest.activities;
+
+import java.util.List;
+
+import javax.inject.Inject;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.unicorn.rest.activities.exception.BadRequestException;
+import com.unicorn.rest.activities.exception.InternalServerErrorException;
+import com.unicorn.rest.activities.exception.InvalidRequestException;
+import com.unicorn.rest.activity.model.MenuSearchResponse;
+import com.unicorn.rest.repository.MenuSearchRepository;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.MenuSearchHit;
+import com.unicorn.rest.server.filter.dynamic.PublicEndpoint;
+
+/**
+ * Search the menu items across all the restaurants from the in-memory index of MenuSearchRepository
+ */
+@Path("/v1/menus")
+public class MenuSearchActivities {
+    private static final Logger LOG = LogManager.getLogger(MenuSearchActivities.class);
+
+    private static final String QUERY = "q";
+    private static final String PREFIX = "prefix";
+    private static final String LIMIT = "limit";
+    private static final String DEFAULT_LIMIT = "20";
+
+    private static final String SEARCH_MENU_ITEMS_ERROR_MESSAGE = "Failed while attempting to fulfill searching menu items request due to %s: ";
+
+    private MenuSearchRepository menuSearchRepository;
+
+    @Inject
+    public MenuSearchActivities(MenuSearchRepository menuSearchRepository) {
+        this.menuSearchRepository = menuSearchRepository;
+    }
+
+    /**
+     * The last term of the query matches as a prefix with prefix=true, for the search as the diner types
+     */
+    @GET
+    @Path("/search")
+    @PublicEndpoint
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response searchMenuItems(@QueryParam(QUERY) String query, @QueryParam(PREFIX) boolean prefix,
+            @QueryParam(LIMIT) @DefaultValue(DEFAULT_LIMIT) int limit)
+            throws BadRequestException, InternalServerErrorException {
+        try {
+            List<MenuSearchHit> menuSearchHits = menuSearchRepository.searchMenuItems(query, prefix, limit);
+            return Response.status(Status.OK).entity(new MenuSearchResponse(query, menuSearchHits)).build();
+
+        } catch (ValidationException error) {
+            LOG.info(String.format(SEARCH_MENU_ITEMS_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), error);
+            throw new InvalidRequestException(error);
+        } catch (Exception internalFailure) {
+            LOG.error(String.format(SEARCH_MENU_ITEMS_ERROR_MESSAGE, InternalServerErrorException.INTERNAL_FAILURE), internalFailure);
+            throw new InternalServerErrorException(internalFailure);
+        }
+    }
+}
@@ -1,22 +1,393 @@
 package com.unicorn.rest.activities;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
 import javax.ws.rs.Consumes;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
 import javax.ws.rs.POST;
+import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.SecurityContext;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
+import com.unicorn.rest.activities.exception.AccessDeniedException;
 import com.unicorn.rest.activities.exception.BadRequestException;
 import com.unicorn.rest.activities.exception.InternalServerErrorException;
+import com.unicorn.rest.activities.exception.InvalidRequestException;
+import com.unicorn.rest.activities.exception.ResourceNotFoundException;
+import com.unicorn.rest.activity.model.NearbyRestaurantsResponse;
+import com.unicorn.rest.activity.model.RestaurantRequest;
+import com.unicorn.rest.activity.model.RestaurantResponse;
+import com.unicorn.rest.activity.model.RestaurantsResponse;
+import com.unicorn.rest.repository.AccessControlPolicyRepository;
+import com.unicorn.rest.repository.AutocompleteRepository;
+import com.unicorn.rest.repository.MenuRepository;
+import com.unicorn.rest.repository.RestaurantLocationRepository;
+import com.unicorn.rest.repository.RestaurantRepository;
+import com.unicorn.rest.repository.exception.DuplicateKeyException;
+import com.unicorn.rest.repository.exception.ItemNotFoundException;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.GeoLocation;
+import com.unicorn.rest.repository.model.Restaurant;
+import com.unicorn.rest.repository.model.RestaurantDistance;
+import com.unicorn.rest.server.filter.AccessControlPolicyEvaluator;
+import com.unicorn.rest.server.filter.dynamic.PublicEndpoint;
+import com.unicorn.rest.server.filter.dynamic.RequiresPermission;
+import com.unicorn.rest.server.filter.model.AccessControlPolicy;
+import com.unicorn.rest.server.filter.model.Permission;
+import com.unicorn.rest.server.filter.model.PrincipalSecurityContext;
+import com.unicorn.rest.server.filter.model.PrincipalType;
+import com.unicorn.rest.server.filter.model.SubjectPrincipal;
+
 @Path("/v1/resturants")
 public class RestuarantActivities {
+    private static final Logger LOG = LogManager.getLogger(RestuarantActivities.class);
+
+    public static final String RESTAURANT_ID = "restaurant_id";
+    /*
+     * The policy on restaurants is provisioned once by the operators, e.g. "principal_type == CUSTOMER",
+     * while the policy on each restaurant is created for its owner on registration and revoked on deletion
+     */
+    public static final String REGISTER_RESTAURANT_ACTION = "register_restaurant";
+    public static final String RESTAURANTS_RESOURCE = "restaurants";
+    public static final String MANAGE_RESTAURANT_ACTION = "manage_restaurant";
+    public static final String RESTAURANT_RESOURCE = "restaurant:{" + RESTAURANT_ID + "}";
+    private static final String RESTAURANT_RESOURCE_PREFIX = "restaurant:";
+    private static final String RESTAURANT_OWNER_CONDITION = "principal_type == " + PrincipalType.CUSTOMER + " and principal == %s";
+    private static final String LATITUDE = "latitude";
+    private static final String LONGITUDE = "longitude";
+    private static final String RADIUS_METERS = "radius_meters";
+    private static final String LIMIT = "limit";
+    private static final String DEFAULT_LIMIT = "20";
+    private static final int MAX_LOCATION_UPDATE_ATTEMPTS = 3;
+
+    private static final String REGISTER_RESTAURANT_ERROR_MESSAGE = "Failed while attempting to fulfill registering restaurant request due to %s: ";
+    private static final String LIST_RESTAURANTS_ERROR_MESSAGE = "Failed while attempting to fulfill listing restaurants request due to %s: ";
+    private static final String GET_RESTAURANT_ERROR_MESSAGE = "Failed while attempting to fulfill getting restaurant request due to %s: ";
+    private static final String UPDATE_RESTAURANT_ERROR_MESSAGE = "Failed while attempting to fulfill updating restaurant request due to %s: ";
+    private static final String DELETE_RESTAURANT_ERROR_MESSAGE = "Failed while attempting to fulfill deleting restaurant request due to %s: ";
+    private static final String FIND_NEARBY_RESTAURANTS_ERROR_MESSAGE = "Failed while attempting to fulfill finding nearby restaurants request due to %s: ";
+
+    private RestaurantRepository restaurantRepository;
+    private MenuRepository menuRepository;
+    private RestaurantLocationRepository restaurantLocationRepository;
+    private AutocompleteRepository autocompleteRepository;
+    private AccessControlPolicyRepository accessControlPolicyRepository;
+    private AccessControlPolicyEvaluator accessControlPolicyEvaluator;
 
+    @Inject
+    public RestuarantActivities(RestaurantRepository restaurantRepository, MenuRepository menuRepository, 
+            RestaurantLocationRepository restaurantLocationRepository, AutocompleteRepository autocompleteRepository,
+            AccessControlPolicyRepository accessControlPolicyRepository, AccessControlPolicyEvaluator accessControlPolicyEvaluator) {
+        this.restaurantRepository = restaurantRepository;
+        this.menuRepository = menuRepository;
+        this.restaurantLocationRepository = restaurantLocationRepository;
+        this.autocompleteRepository = autocompleteRepository;
+        this.accessControlPolicyRepository = accessControlPolicyRepository;
+        this.accessControlPolicyEvaluator = accessControlPolicyEvaluator;
+    }
+
+    /**
+     * Register the restaurant, and grant its owner the permission to manage it
+     */
     @POST
+    @RequiresPermission(action = REGISTER_RESTAURANT_ACTION, resource = RESTAURANTS_RESOURCE)
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response register(RestaurantRequest restaurantRequest, @Context SecurityContext securityContext) 
+            throws BadRequestException, InternalServerErrorException {
+        try {
+            Long ownerPrincipal = getSubjectPrincipal(securityContext);
+            if (restaurantRequest == null) {
+                throw new ValidationException("Expecting non-null request paramter for register, but received: restaurantRequest=null");
+            }
+            Restaurant restaurant = restaurantRepository.registerRestaurant(ownerPrincipal, 
+                    restaurantRequest.getRestaurantName(), restaurantRequest.getRestaurantDescription(), 
+                    GeoLocation.validateGeoLocation(restaurantRequest.getLatitude(), restaurantRequest.getLongitude()));
+            try {
+                grantRestaurantOwner(ownerPrincipal, restaurant.getRestaurantId());
+                if (restaurant.getLocation() != null) {
+                    updateRestaurantLocation(restaurant.getRestaurantId(), restaurant.getLocation());
+                }
+            } catch (DuplicateKeyException | RepositoryServerException error) {
+                unregisterRestaurant(ownerPrincipal, restaurant.getRestaurantId());
+                throw error;
+            }
+            return Response.status(Status.OK).entity(new RestaurantResponse(restaurant)).build();
+
+        } catch (ValidationException error) {
+            LOG.info(String.format(REGISTER_RESTAURANT_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), error);
+            throw new InvalidRequestException(error);
+        } catch (BadRequestException badRequest) {
+            LOG.info(String.format(REGISTER_RESTAURANT_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), badRequest);
+            throw badRequest;
+        } catch (Exception internalFailure) {
+            LOG.error(String.format(REGISTER_RESTAURANT_ERROR_MESSAGE, InternalServerErrorException.INTERNAL_FAILURE), internalFailure);
+            throw new InternalServerErrorException(internalFailure);
+        }
+    }
+
+    /**
+     * List the restaurants owned by the customer in one Query
+     */
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response listRestaurants(@Context SecurityContext securityContext) 
+            throws BadRequestException, InternalServerErrorException {
+        try {
+            Long ownerPrincipal = getSubjectPrincipal(securityContext);
+            return Response.status(Status.OK).entity(new RestaurantsResponse(restaurantRepository.getRestaurantsForOwner(ownerPrincipal))).build();
+
+        } catch (ValidationException error) {
+            LOG.info(String.format(LIST_RESTAURANTS_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), error);
+            throw new InvalidRequestException(error);
+        } catch (BadRequestException badRequest) {
+            LOG.info(String.format(LIST_RESTAURANTS_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), badRequest);
+            throw badRequest;
+        } catch (Exception internalFailure) {
+            LOG.error(String.format(LIST_RESTAURANTS_ERROR_MESSAGE, InternalServerErrorException.INTERNAL_FAILURE), internalFailure);
+            throw new InternalServerErrorException(internalFailure);
+        }
+    }
+
+    @GET
+    @PublicEndpoint
+    @Path("/{restaurant_id}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getRestaurant(@PathParam(RESTAURANT_ID) Long restaurantId) 
+            throws BadRequestException, InternalServerErrorException {
+        try {
+            try {
+                return Response.status(Status.OK).entity(new RestaurantResponse(restaurantRepository.getRestaurant(restaurantId))).build();
+            } catch (ItemNotFoundException error) {
+                throw new ResourceNotFoundException();
+            }
+
+        } catch (ValidationException error) {
+            LOG.info(String.format(GET_RESTAURANT_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), error);
+            throw new InvalidRequestException(error);
+        } catch (BadRequestException badRequest) {
+            LOG.info(String.format(GET_RESTAURANT_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), badRequest);
+            throw badRequest;
+        } catch (Exception internalFailure) {
+            LOG.error(String.format(GET_RESTAURANT_ERROR_MESSAGE, InternalServerErrorException.INTERNAL_FAILURE), internalFailure);
+            throw new InternalServerErrorException(internalFailure);
+        }
+    }
+
+    @PUT
+    @Path("/{restaurant_id}")
+    @RequiresPermission(action = MANAGE_RESTAURANT_ACTION, resource = RESTAURANT_RESOURCE)
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public Response register() 
+    public Response updateRestaurant(@PathParam(RESTAURANT_ID) Long restaurantId, RestaurantRequest restaurantRequest, 
+            @Context SecurityContext securityContext) 
             throws BadRequestException, InternalServerErrorException {
-        return null;
+        try {
+            Long ownerPrincipal = getSubjectPrincipal(securityContext);
+            if (restaurantRequest == null) {
+                throw new ValidationException("Expecting non-null request paramter for updateRestaurant, but received: restaurantRequest=null");
+            }
+            try {
+                Restaurant restaurant = restaurantRepository.updateRestaurant(ownerPrincipal, restaurantId, 
+                        restaurantRequest.getRestaurantName(), restaurantRequest.getRestaurantDescription(), 
+                        GeoLocation.validateGeoLocation(restaurantRequest.getLatitude(), restaurantRequest.getLongitude()));
+                updateRestaurantLocation(restaurantId, restaurant.getLocation());
+                autocompleteRepository.updateRestaurantName(restaurantId, restaurant.getRestaurantName());
+                return Response.status(Status.OK).entity(new RestaurantResponse(restaurant)).build();
+            } catch (ItemNotFoundException error) {
+                throw new ResourceNotFoundException();
+            }
+
+        } catch (ValidationException error) {
+            LOG.info(String.format(UPDATE_RESTAURANT_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), error);
+            throw new InvalidRequestException(error);
+        } catch (BadRequestException badRequest) {
+            LOG.info(String.format(UPDATE_RESTAURANT_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), badRequest);
+            throw badRequest;
+        } catch (Exception internalFailure) {
+            LOG.error(String.format(UPDATE_RESTAURANT_ERROR_MESSAGE, InternalServerErrorException.INTERNAL_FAILURE), internalFailure);
+            throw new InternalServerErrorException(internalFailure);
+        }
+    }
+
+    @DELETE
+    @Path("/{restaurant_id}")
+    @RequiresPermission(action = MANAGE_RESTAURANT_ACTION, resource = RESTAURANT_RESOURCE)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response deleteRestaurant(@PathParam(RESTAURANT_ID) Long restaurantId, @Context SecurityContext securityContext) 
+            throws BadRequestException, InternalServerErrorException {
+        try {
+            Long ownerPrincipal = getSubjectPrincipal(securityContext);
+            try {
+                /*
+                 * The location is cleared before the restaurant is deleted, so the request failing to clear it leaves the restaurant
+                 * for the owner to retry rather than the deleted restaurant left behind in the nearby search
+                 */
+                updateRestaurantLocation(restaurantId, null);
+                restaurantRepository.deleteRestaurant(ownerPrincipal, restaurantId);
+                deleteMenu(restaurantId);
+                revokeRestaurantOwner(ownerPrincipal, restaurantId);
+                return Response.status(Status.OK).build();
+            } catch (ItemNotFoundException error) {
+                throw new ResourceNotFoundException();
+            }
+
+        } catch (ValidationException error) {
+            LOG.info(String.format(DELETE_RESTAURANT_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), error);
+            throw new InvalidRequestException(error);
+        } catch (BadRequestException badRequest) {
+            LOG.info(String.format(DELETE_RESTAURANT_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), badRequest);
+            throw badRequest;
+        } catch (Exception internalFailure) {
+            LOG.error(String.format(DELETE_RESTAURANT_ERROR_MESSAGE, InternalServerErrorException.INTERNAL_FAILURE), internalFailure);
+            throw new InternalServerErrorException(internalFailure);
+        }
+    }
+
+    /**
+     * Find the restaurants within the radius of the location, or the nearest restaurants if the radius is not provided
+     */
+    @GET
+    @PublicEndpoint
+    @Path("/nearby")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response findNearbyRestaurants(@QueryParam(LATITUDE) Double latitude, @QueryParam(LONGITUDE) Double longitude, 
+            @QueryParam(RADIUS_METERS) Double radiusInMeters, @QueryParam(LIMIT) @DefaultValue(DEFAULT_LIMIT) int limit) 
+            throws BadRequestException, InternalServerErrorException {
+        try {
+            GeoLocation center = GeoLocation.validateGeoLocation(latitude, longitude);
+            List<RestaurantDistance> restaurantDistances = radiusInMeters == null ? 
+                    restaurantLocationRepository.findNearestRestaurants(center, limit) : 
+                    restaurantLocationRepository.findRestaurantsWithinRadius(center, radiusInMeters, limit);
+            List<Long> restaurantIds = new ArrayList<>(restaurantDistances.size());
+            for (RestaurantDistance restaurantDistance : restaurantDistances) {
+                restaurantIds.add(restaurantDistance.getRestaurantId());
+            }
+            Map<Long, Restaurant> restaurants = new HashMap<>();
+            for (Restaurant restaurant : restaurantRepository.getRestaurants(restaurantIds)) {
+                restaurants.put(restaurant.getRestaurantId(), restaurant);
+            }
+            return Response.status(Status.OK).entity(new NearbyRestaurantsResponse(restaurantDistances, restaurants)).build();
+
+        } catch (ValidationException error) {
+            LOG.info(String.format(FIND_NEARBY_RESTAURANTS_ERROR_MESSAGE, BadRequestException.BAD_REQUEST), error);
+            throw new InvalidRequestException(error);
+        } catch (Exception internalFailure) {
+            LOG.error(String.format(FIND_NEARBY_RESTAURANTS_ERROR_MESSAGE, InternalServerErrorException.INTERNAL_FAILURE), internalFailure);
+            throw new InternalServerErrorException(internalFailure);
+        }
+    }
+
+    /*
+     * The restaurant is already deleted, so failing to delete its menu must not fail the request.
+     * The menu left behind is no longer reachable by the owner and is only served until it is deleted.
+     */
+    private void deleteMenu(@Nonnull Long restaurantId) {
+        try {
+            menuRepository.deleteMenu(restaurantId);
+        } catch (ItemNotFoundException notFound) {
+            // the restaurant does not have menu
+        } catch (Exception error) {
+            LOG.warn(String.format("Failed while attempting to delete menu of deleted restaurant %s", restaurantId), error);
+        }
+    }
+
+    /*
+     * The nearby search is indexed only from the RESTAURANT_LOCATION table, so the restaurant whose location is not written
+     * would be missing from it until the next update. The write is retried, and fails the request if it still fails,
+     * so that the owner retries the request rather than the restaurant silently dropping out of the search.
+     */
+    private void updateRestaurantLocation(@Nonnull Long restaurantId, @Nullable GeoLocation location)
+            throws ValidationException, RepositoryServerException {
+        int numOfAttempts = 1;
+        while (true) {
+            try {
+                restaurantLocationRepository.updateRestaurantLocation(restaurantId, location);
+                return;
+            } catch (RepositoryServerException error) {
+                if (numOfAttempts++ >= MAX_LOCATION_UPDATE_ATTEMPTS) {
+                    throw error;
+                }
+                LOG.warn(String.format("Failed while attempting to update location of restaurant %s to %s, retrying", restaurantId, location), error);
+            }
+        }
+    }
+
+    /*
+     * The owner is the only one allowed to manage the restaurant, which takes effect on this server at once.
+     * The other servers have not loaded the policy of the restaurant just registered, so they load it on the first request.
+     */
+    private void grantRestaurantOwner(@Nonnull Long ownerPrincipal, @Nonnull Long restaurantId) 
+            throws ValidationException, DuplicateKeyException, RepositoryServerException {
+        Permission permission = new Permission(MANAGE_RESTAURANT_ACTION, RESTAURANT_RESOURCE_PREFIX + restaurantId, ownerPrincipal);
+        accessControlPolicyRepository.createAccessControlPolicy(new AccessControlPolicy(permission, 
+                Collections.singletonList(String.format(RESTAURANT_OWNER_CONDITION, ownerPrincipal))));
+        accessControlPolicyEvaluator.invalidate(permission.getAction(), permission.getResourceIdentifier());
+    }
+
+    /*
+     * The restaurant is already deleted, so failing to revoke its policy must not fail the request.
+     * The policy left behind only permits the owner to manage the restaurant which no longer exists.
+     */
+    private void revokeRestaurantOwner(@Nonnull Long ownerPrincipal, @Nonnull Long restaurantId) {
+        Permission permission = new Permission(MANAGE_RESTAURANT_ACTION, RESTAURANT_RESOURCE_PREFIX + restaurantId, ownerPrincipal);
+        try {
+            accessControlPolicyRepository.revokeAccessControlPolicy(permission);
+        } catch (ItemNotFoundException notFound) {
+            // the restaurant does not have policy
+        } catch (Exception error) {
+            LOG.warn(String.format("Failed while attempting to revoke policy of deleted restaurant %s", restaurantId), error);
+        }
+        accessControlPolicyEvaluator.invalidate(permission.getAction(), permission.getResourceIdentifier());
+    }
+
+    /*
+     * The registration failed to grant the owner or to index the location is undone, so that the owner retrying the registration does not end up with two restaurants.
+     * The restaurant left behind if the undo fails as well is still listed to the owner, who can update or delete it.
+     */
+    private void unregisterRestaurant(@Nonnull Long ownerPrincipal, @Nonnull Long restaurantId) {
+        try {
+            restaurantRepository.deleteRestaurant(ownerPrincipal, restaurantId);
+        } catch (Exception error) {
+            LOG.warn(String.format("Failed while attempting to undo registering restaurant %s", restaurantId), error);
+        }
+        revokeRestaurantOwner(ownerPrincipal, restaurantId);
+    }
+
+    /**
+     * Who is permitted to call the resource method is decided by the policy required with RequiresPermission, 
+     * so only the principal authenticated is needed here
+     * 
+     * @throws AccessDeniedException if the request is not authenticated
+     */
+    protected static @Nonnull Long getSubjectPrincipal(@Nullable SecurityContext securityContext) throws AccessDeniedException {
+        if (!(securityContext instanceof PrincipalSecurityContext)) {
+            throw new AccessDeniedException();
+        }
+        SubjectPrincipal subjectPrincipal = ((PrincipalSecurityContext) securityContext).getSubjectPrincipal();
+        if (subjectPrincipal == null) {
+            throw new AccessDeniedException();
+        }
+        return subjectPrincipal.getPrincipal();
     }
 }
@@ -11,6 +11,7 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
@@ -18,6 +19,7 @@ import javax.ws.rs.core.UriInfo;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.glassfish.grizzly.http.server.Request;
 
 import com.unicorn.rest.activities.exception.BadRequestException;
 import com.unicorn.rest.activities.exception.InternalServerErrorException;
@@ -40,9 +42,12 @@ import com.unicorn.rest.repository.exception.ValidationException;
 import com.unicorn.rest.repository.model.AuthorizationToken;
 import com.unicorn.rest.repository.model.AuthorizationToken.AuthorizationTokenType;
 import com.unicorn.rest.repository.model.PrincipalAuthenticationInfo;
+import com.unicorn.rest.server.filter.dynamic.PublicEndpoint;
 import com.unicorn.rest.server.filter.model.PrincipalType;
+import com.unicorn.rest.server.limiter.TokenRateLimiter;
 import com.unicorn.rest.utils.AuthenticationSecretUtils;
 
+@PublicEndpoint
 @Path("/v1/tokens")
 public class TokenActivities {
     private static final Logger LOG = LogManager.getLogger(TokenActivities.class);
@@ -50,24 +55,40 @@ public class TokenActivities {
     private static final String GENERATE_TOKEN_ERROR_MESSAGE = "Failed while attempting to fulfill generating token request due to %s: ";
     private static final String REVOKE_TOKEN_ERROR_MESSAGE = "Failed while attempting to fulfill revoking token request due to %s: ";
 
+    private static final String X_FORWARDED_FOR = "X-Forwarded-For";
+
     private AuthorizationTokenRepository tokenRepository;
     private UserRepository userRepository;
     private CustomerRepository customerrRepository;
+    private TokenRateLimiter tokenRateLimiter;
 
     @Inject
     public TokenActivities(AuthorizationTokenRepository tokenRepository, 
-            UserRepository userRepository, CustomerRepository customerrRepository) {
+            UserRepository userRepository, CustomerRepository customerrRepository, TokenRateLimiter tokenRateLimiter) {
         this.tokenRepository = tokenRepository;
         this.userRepository = userRepository;
         this.customerrRepository = customerrRepository;
+        this.tokenRateLimiter = tokenRateLimiter;
     }
 
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public Response generateToken(@Context UriInfo uriInfo) 
+    public Response generateToken(@Context UriInfo uriInfo, @Context HttpHeaders headers, @Context Request grizzlyRequest) 
             throws BadRequestException, InternalServerErrorException {
         try {
+            /*
+             * Rate limit before touching the repositories or hashing the secret
+             */
+            String clientAddress = getClientAddress(headers, grizzlyRequest);
+            if (!tokenRateLimiter.tryAcquireForClient(clientAddress)) {
+                throw new BadTokenRequestException(TokenErrCode.SLOW_DOWN, 
+                        String.format(TokenErrDescFormatter.SLOW_DOWN_CLIENT.toString(), clientAddress));
+            }
             GenerateTokenRequest tokenRequest = GenerateTokenRequest.validateGenerateTokenRequest(uriInfo.getQueryParameters());
+            if (!tokenRateLimiter.tryAcquireForLoginName(tokenRequest.getLoginName())) {
+                throw new BadTokenRequestException(TokenErrCode.SLOW_DOWN, 
+                        String.format(TokenErrDescFormatter.SLOW_DOWN_LOGIN_NAME.toString(), tokenRequest.getLoginName()));
+            }
 
             GrantType grantType = tokenRequest.getGrantType();
             AuthorizationToken accessToken = null;
@@ -134,6 +155,14 @@ public class TokenActivities {
         }
     }
 
+    /**
+     * X-Forwarded-For is only honored for the requests from the trusted proxies, see TokenRateLimiter.resolveClientAddress
+     */
+    private @Nullable String getClientAddress(@Nonnull HttpHeaders headers, @Nullable Request grizzlyRequest) {
+        return tokenRateLimiter.resolveClientAddress(headers.getHeaderString(X_FORWARDED_FOR), 
+                grizzlyRequest == null ? null : grizzlyRequest.getRemoteAddr());
+    }
+
     private Long authenticate(@Nonnull String loginName, @Nonnull String clientSecret,  
             @Nonnull AuthenticationRepository authorizationRepository, @Nonnull TokenErrDescFormatter tokenErrDescFormatter) 
                     throws BadTokenRequestException, ValidationException, RepositoryServerException, UnsupportedEncodingException, NoSuchAlgorithmException {
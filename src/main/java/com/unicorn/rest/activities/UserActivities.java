@@ -28,6 +28,7 @@ import com.unicorn.rest.repository.exception.DuplicateKeyException;
 import com.unicorn.rest.repository.exception.ValidationException;
 import com.unicorn.rest.repository.model.DisplayName;
 import com.unicorn.rest.repository.model.Name;
+import com.unicorn.rest.server.filter.dynamic.PublicEndpoint;
 import com.unicorn.rest.server.filter.model.PrincipalSecurityContext;
 import com.unicorn.rest.server.filter.model.SubjectPrincipal;
 import com.unicorn.rest.utils.AuthenticationSecretUtils;
@@ -49,6 +50,7 @@ public class UserActivities {
     }
 
     @POST
+    @PublicEndpoint
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
     public Response register(UserRequest userRequest) 
@@ -0,0 +1,53 @@
+package com.unicorn.rest.activities.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = -2180384937431620153L;
+
+    public static final String SERVICE_UNAVAILABLE = "Service Unavailable";
+    private static final String ERROR_CODE = "service_unavailable";
+    private static final String ERROR_DESCRIPTION = "The server is currently unable to handle the request due to overload, please retry after %s seconds.";
+
+    private final String errorCode;
+    private final String errorDescription;
+    private final int retryAfterInSeconds;
+
+    public ServiceUnavailableException(int retryAfterInSeconds) {
+        super();
+        this.errorCode = ERROR_CODE;
+        this.errorDescription = String.format(ERROR_DESCRIPTION, retryAfterInSeconds);
+        this.retryAfterInSeconds = retryAfterInSeconds;
+    }
+
+    public String getErrorCode() {
+        return errorCode;
+    }
+
+    public String getErrorDescription() {
+        return errorDescription;
+    }
+
+    public int getRetryAfterInSeconds() {
+        return retryAfterInSeconds;
+    }
+
+    /**
+     * Shedding is on the hot path under overload, so skip filling in the stack trace
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "ServiceUnavailable [errorCode=" + errorCode
+                + ", errorDescription=" + errorDescription 
+                + ", retryAfterInSeconds=" + retryAfterInSeconds + "]";
+    }
+
+    @Override
+    public String getMessage() {
+        return "[" + errorCode + "] " + errorDescription;
+    }
+}
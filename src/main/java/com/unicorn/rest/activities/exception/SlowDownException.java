@@ -0,0 +1,13 @@
+package com.unicorn.rest.activities.exception;
+
+public class SlowDownException extends BadRequestException {
+
+    private static final long serialVersionUID = -6204418791383046237L;
+
+    private static final String ERROR_CODE = "slow_down";
+    private static final String ERROR_DESCRIPTION = "Too many requests from client %s, please slow down and retry later.";
+
+    public SlowDownException(String clientAddress) {
+        super(ERROR_CODE, String.format(ERROR_DESCRIPTION, clientAddress));
+    }
+}
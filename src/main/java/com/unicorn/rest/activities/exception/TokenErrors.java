@@ -5,7 +5,8 @@ public class TokenErrors {
     public enum TokenErrCode {
         UNSUPPORTED_GRANT_TYPE("unsupported_grant_type"),
         INVALID_GRANT("invalid_grant"),
-        UNRECOGNIZED_TOKEN("unrecognized_token");
+        UNRECOGNIZED_TOKEN("unrecognized_token"),
+        SLOW_DOWN("slow_down");
         
         private String errCode;
 
@@ -23,7 +24,9 @@ public class TokenErrors {
         UNSUPPORTED_GRANT_TYPE ("The authorization grant type %s is not supported by the authorization server."),
         INVALID_GRANT_USER_PASSWORD ("The authentication failed on user %s due to unknown login name or invalid password."),
         INVALID_GRANT_CUSTOMER_CREDENTIAL ("The authentication failed on customer %s due to unknown login name or invalid password."),
-        UNRECOGNIZED_TOKEN("The authorization token %s with token type %s does not exist or is already expired.");
+        UNRECOGNIZED_TOKEN("The authorization token %s with token type %s does not exist or is already expired."),
+        SLOW_DOWN_CLIENT("Too many token requests from client %s, please slow down and retry later."),
+        SLOW_DOWN_LOGIN_NAME("Too many token requests for login name %s, please slow down and retry later.");
 
         private String errDesc;
 
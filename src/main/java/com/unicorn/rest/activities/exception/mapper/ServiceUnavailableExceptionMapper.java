@@ -0,0 +1,28 @@
+package com.unicorn.rest.activities.exception.mapper;
+
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.ext.ExceptionMapper;
+import javax.ws.rs.ext.Provider;
+
+import com.unicorn.rest.activities.exception.ServiceUnavailableException;
+import com.unicorn.rest.activity.model.ErrorResponse;
+
+@Provider
+public class ServiceUnavailableExceptionMapper implements ExceptionMapper<ServiceUnavailableException> {
+
+    @Context
+    private HttpHeaders headers;
+
+    @Override
+    public Response toResponse(ServiceUnavailableException unavailable) {
+        return Response.status(Status.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, unavailable.getRetryAfterInSeconds())
+                .type(headers.getMediaType())
+                .entity(new ErrorResponse(unavailable.getClass().getSimpleName(), 
+                        unavailable.getErrorCode(), unavailable.getErrorDescription()))
+                .build();
+    }
+}
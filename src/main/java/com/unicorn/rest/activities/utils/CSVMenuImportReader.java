@@ -0,0 +1,182 @@
+package com.unicorn.rest.activities.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.unicorn.rest.activities.RestuarantActivities;
+import com.unicorn.rest.activity.model.MenuItemRequest;
+import com.unicorn.rest.repository.MenuImportReader;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.MenuImportRow;
+
+/**
+ * Read the bulk menu import from CSV (RFC 4180) one record at a time, where the header names the columns
+ * restaurant_id, item_id, item_name, item_description, price and tags in any order, and the tags are separated by semicolons.
+ * The quoted field may contain commas, line breaks and the doubled quotes.
+ */
+public class CSVMenuImportReader implements MenuImportReader {
+
+    public static final String TEXT_CSV = "text/csv";
+    public static final int MAX_FIELD_LENGTH = 4096;
+    public static final int MAX_FIELDS = 64;
+    private static final char TAG_SEPARATOR = ';';
+
+    private final Reader reader;
+    private Map<String, Integer> columns = null;
+    private long rowNumber = 0;
+
+    public CSVMenuImportReader(@Nonnull InputStream inputStream) {
+        this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public @Nullable MenuImportRow readRow() throws ValidationException {
+        if (columns == null) {
+            columns = readHeader();
+        }
+        List<String> record;
+        do {
+            record = readRecord();
+            if (record == null) {
+                return null;
+            }
+        } while (record.size() == 1 && record.get(0).isEmpty());
+        rowNumber++;
+
+        String invalidReason = null;
+        Long restaurantId = null;
+        Long itemId = null;
+        Long price = null;
+        try {
+            restaurantId = parseLong(record, RestuarantActivities.RESTAURANT_ID);
+            itemId = parseLong(record, MenuItemRequest.ITEM_ID);
+            price = parseLong(record, MenuItemRequest.PRICE);
+        } catch (ValidationException error) {
+            invalidReason = error.getMessage();
+        }
+        return new MenuImportRow(rowNumber, restaurantId, itemId, getField(record, MenuItemRequest.ITEM_NAME),
+                getField(record, MenuItemRequest.ITEM_DESCRIPTION), price, parseTags(getField(record, MenuItemRequest.TAGS)), invalidReason);
+    }
+
+    private @Nonnull Map<String, Integer> readHeader() throws ValidationException {
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new ValidationException("Invalid CSV upload. The header is missing");
+        }
+        Map<String, Integer> headerColumns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            headerColumns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String requiredColumn : new String[] {RestuarantActivities.RESTAURANT_ID, MenuItemRequest.ITEM_NAME, MenuItemRequest.PRICE}) {
+            if (!headerColumns.containsKey(requiredColumn)) {
+                throw new ValidationException(String.format("Invalid CSV upload. The header should have the column %s", requiredColumn));
+            }
+        }
+        return headerColumns;
+    }
+
+    /*
+     * @return NULL at the end of the upload
+     */
+    private @Nullable List<String> readRecord() throws ValidationException {
+        try {
+            int character = reader.read();
+            if (character < 0) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean wasQuoted = false;
+            while (true) {
+                if (quoted) {
+                    if (character < 0) {
+                        throw new ValidationException(String.format("Invalid CSV upload. The quoted field of row %s is not closed", rowNumber + 1));
+                    }
+                    if (character == '"') {
+                        character = reader.read();
+                        if (character != '"') {
+                            quoted = false;
+                            continue;
+                        }
+                    }
+                    field.append((char) character);
+                } else if (character == '"' && field.length() == 0 && !wasQuoted) {
+                    quoted = true;
+                    wasQuoted = true;
+                } else if (character == ',' || character == '\n' || character < 0) {
+                    fields.add(field.toString());
+                    if (character != ',') {
+                        return fields;
+                    }
+                    if (fields.size() >= MAX_FIELDS) {
+                        throw new ValidationException(String.format("Invalid CSV upload. The row %s has more than %s fields", rowNumber + 1, MAX_FIELDS));
+                    }
+                    field.setLength(0);
+                    wasQuoted = false;
+                } else if (character != '\r') {
+                    field.append((char) character);
+                }
+                if (field.length() > MAX_FIELD_LENGTH) {
+                    throw new ValidationException(String.format("Invalid CSV upload. The field of row %s is longer than %s characters", rowNumber + 1,
+                            MAX_FIELD_LENGTH));
+                }
+                character = reader.read();
+            }
+        } catch (IOException error) {
+            throw new ValidationException(String.format("Invalid CSV upload. The upload cannot be read after row %s: %s", rowNumber, error.getMessage()));
+        }
+    }
+
+    /*
+     * @return NULL if the column is absent or blank
+     */
+    private @Nullable String getField(@Nonnull List<String> record, @Nonnull String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size() || record.get(index).trim().isEmpty()) {
+            return null;
+        }
+        return record.get(index).trim();
+    }
+
+    private @Nullable Long parseLong(@Nonnull List<String> record, @Nonnull String column) throws ValidationException {
+        String value = getField(record, column);
+        try {
+            return value == null ? null : Long.valueOf(value);
+        } catch (NumberFormatException error) {
+            throw new ValidationException(String.format("Invalid %s: %s. The %s should be an integer", column, value, column));
+        }
+    }
+
+    private static @Nullable List<String> parseTags(@Nullable String value) {
+        if (value == null) {
+            return null;
+        }
+        List<String> tags = new ArrayList<>();
+        int start = 0;
+        while (start <= value.length()) {
+            int end = value.indexOf(TAG_SEPARATOR, start);
+            if (end < 0) {
+                end = value.length();
+            }
+            String tag = value.substring(start, end).trim();
+            if (!tag.isEmpty()) {
+                tags.add(tag);
+            }
+            start = end + 1;
+        }
+        return tags;
+    }
+}
@@ -0,0 +1,234 @@
+package com.unicorn.rest.activities.utils;
+
+import java.util.Collection;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Parse the request headers of content negotiation and conditional requests in place, without splitting them into strings
+ */
+public class ContentNegotiator {
+
+    public static final String GZIP_ENCODING = "gzip";
+    private static final String ANY_ENTITY_TAG = "*";
+    private static final String WEAK_ENTITY_TAG_PREFIX = "W/";
+    private static final String QUALITY_PARAMETER = "q=";
+    private static final String ANY_LANGUAGE = "*";
+    private static final int MAX_QUALITY = 1000;
+
+    /**
+     * @param acceptEncoding the value of Accept-Encoding header @Nullable
+     * @return true if gzip is listed and not refused with q=0
+     */
+    public static boolean acceptsGzip(@Nullable String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        int start = 0;
+        while (start < acceptEncoding.length()) {
+            int end = acceptEncoding.indexOf(',', start);
+            if (end < 0) {
+                end = acceptEncoding.length();
+            }
+            int parameterStart = acceptEncoding.indexOf(';', start);
+            int codingEnd = parameterStart < 0 || parameterStart > end ? end : parameterStart;
+            if (equalsIgnoreCaseTrimmed(acceptEncoding, start, codingEnd, GZIP_ENCODING)) {
+                return codingEnd == end || !isZeroQuality(acceptEncoding, codingEnd + 1, end);
+            }
+            start = end + 1;
+        }
+        return false;
+    }
+
+    /**
+     * The weak comparison is used as required for If-None-Match, i.e. W/"tag" matches "tag"
+     *
+     * @param ifNoneMatch the value of If-None-Match header @Nullable
+     * @param entityTag the opaque tag of the current representation without quotes @Nullable
+     * @return true if the client already has the current representation
+     */
+    public static boolean matchesIfNoneMatch(@Nullable String ifNoneMatch, @Nullable String entityTag) {
+        if (ifNoneMatch == null || entityTag == null) {
+            return false;
+        }
+        int start = 0;
+        while (start < ifNoneMatch.length()) {
+            int end = ifNoneMatch.indexOf(',', start);
+            if (end < 0) {
+                end = ifNoneMatch.length();
+            }
+            int tagStart = skipWhitespace(ifNoneMatch, start, end);
+            int tagEnd = end;
+            while (tagEnd > tagStart && Character.isWhitespace(ifNoneMatch.charAt(tagEnd - 1))) {
+                tagEnd--;
+            }
+            if (tagEnd - tagStart == ANY_ENTITY_TAG.length() && ifNoneMatch.startsWith(ANY_ENTITY_TAG, tagStart)) {
+                return true;
+            }
+            if (ifNoneMatch.startsWith(WEAK_ENTITY_TAG_PREFIX, tagStart)) {
+                tagStart += WEAK_ENTITY_TAG_PREFIX.length();
+            }
+            if (tagEnd - tagStart == entityTag.length() + 2 && ifNoneMatch.charAt(tagStart) == '"' && ifNoneMatch.charAt(tagEnd - 1) == '"'
+                    && ifNoneMatch.regionMatches(tagStart + 1, entityTag, 0, entityTag.length())) {
+                return true;
+            }
+            start = end + 1;
+        }
+        return false;
+    }
+
+    /**
+     * The language ranges are taken in descending order of quality, the earlier one first among the same quality.
+     * A range matches the locale of the same tag first, then the most specific locale it is a prefix of, e.g. zh matches zh-Hant,
+     * and then the longest locale which is a prefix of it, e.g. zh-Hant-TW matches zh-Hant, as the lookup of RFC 4647 falls back.
+     *
+     * @param acceptLanguage the value of Accept-Language header @Nullable
+     * @param language the locale the menu is published in, which the wildcard matches @Nullable
+     * @param locales the locales the menu is translated into @Nonnull
+     * @return the locale to respond in, or NULL if none is acceptable and the language published is responded
+     */
+    public static @Nullable String negotiateLanguage(@Nullable String acceptLanguage, @Nullable String language, @Nonnull Collection<String> locales) {
+        if (acceptLanguage == null || locales.isEmpty()) {
+            return language;
+        }
+        String negotiatedLocale = null;
+        int negotiatedQuality = 0;
+        int start = 0;
+        while (start < acceptLanguage.length()) {
+            int end = acceptLanguage.indexOf(',', start);
+            if (end < 0) {
+                end = acceptLanguage.length();
+            }
+            int parameterStart = acceptLanguage.indexOf(';', start);
+            int rangeEnd = parameterStart < 0 || parameterStart > end ? end : parameterStart;
+            int quality = rangeEnd == end ? MAX_QUALITY : parseQuality(acceptLanguage, rangeEnd + 1, end);
+            if (quality > negotiatedQuality) {
+                if (equalsIgnoreCaseTrimmed(acceptLanguage, start, rangeEnd, ANY_LANGUAGE)) {
+                    negotiatedLocale = language;
+                    negotiatedQuality = quality;
+                } else {
+                    String matchedLocale = matchLanguageRange(acceptLanguage, start, rangeEnd, language, locales);
+                    if (matchedLocale != null) {
+                        negotiatedLocale = matchedLocale;
+                        negotiatedQuality = quality;
+                    }
+                }
+            }
+            start = end + 1;
+        }
+        return negotiatedQuality > 0 ? negotiatedLocale : language;
+    }
+
+    private static @Nullable String matchLanguageRange(@Nonnull String header, int start, int end, @Nullable String language,
+            @Nonnull Collection<String> locales) {
+        int rangeStart = skipWhitespace(header, start, end);
+        int rangeEnd = end;
+        while (rangeEnd > rangeStart && Character.isWhitespace(header.charAt(rangeEnd - 1))) {
+            rangeEnd--;
+        }
+        int rangeLength = rangeEnd - rangeStart;
+        if (rangeLength == 0) {
+            return null;
+        }
+        String extendedLocale = null;
+        String truncatedLocale = null;
+        int matchedLength = matchLength(header, rangeStart, rangeLength, language);
+        if (matchedLength == rangeLength) {
+            return language;
+        } else if (matchedLength > rangeLength) {
+            extendedLocale = language;
+        } else if (matchedLength > 0) {
+            truncatedLocale = language;
+        }
+        for (String locale : locales) {
+            matchedLength = matchLength(header, rangeStart, rangeLength, locale);
+            if (matchedLength == rangeLength) {
+                return locale;
+            } else if (matchedLength > rangeLength) {
+                if (extendedLocale == null || locale.length() < extendedLocale.length()) {
+                    extendedLocale = locale;
+                }
+            } else if (matchedLength > 0 && (truncatedLocale == null || locale.length() > truncatedLocale.length())) {
+                truncatedLocale = locale;
+            }
+        }
+        return extendedLocale != null ? extendedLocale : truncatedLocale;
+    }
+
+    /*
+     * @return the length of the locale if either of the range and the locale is the other one or its prefix up to a subtag,
+     * otherwise 0
+     */
+    private static int matchLength(@Nonnull String header, int rangeStart, int rangeLength, @Nullable String locale) {
+        if (locale == null) {
+            return 0;
+        }
+        int commonLength = Math.min(rangeLength, locale.length());
+        if (!header.regionMatches(true, rangeStart, locale, 0, commonLength)) {
+            return 0;
+        }
+        if (rangeLength == locale.length()) {
+            return locale.length();
+        }
+        char next = rangeLength < locale.length() ? locale.charAt(commonLength) : header.charAt(rangeStart + commonLength);
+        return next == '-' ? locale.length() : 0;
+    }
+
+    /*
+     * @return the quality in thousandths, 0 if the parameter is not the quality or is malformed
+     */
+    private static int parseQuality(@Nonnull String header, int start, int end) {
+        int parameterStart = skipWhitespace(header, start, end);
+        if (!header.regionMatches(true, parameterStart, QUALITY_PARAMETER, 0, QUALITY_PARAMETER.length())) {
+            return MAX_QUALITY;
+        }
+        int quality = 0;
+        int scale = MAX_QUALITY;
+        boolean fraction = false;
+        for (int i = parameterStart + QUALITY_PARAMETER.length(); i < end; i++) {
+            char c = header.charAt(i);
+            if (c == '.' && !fraction) {
+                fraction = true;
+            } else if (c >= '0' && c <= '9' && scale > 0) {
+                if (fraction) {
+                    scale /= 10;
+                }
+                quality += (c - '0') * scale;
+            } else if (!Character.isWhitespace(c)) {
+                return 0;
+            }
+        }
+        return Math.min(quality, MAX_QUALITY);
+    }
+
+    private static boolean isZeroQuality(@Nonnull String header, int start, int end) {
+        int parameterStart = skipWhitespace(header, start, end);
+        if (!header.regionMatches(true, parameterStart, QUALITY_PARAMETER, 0, QUALITY_PARAMETER.length())) {
+            return false;
+        }
+        for (int i = parameterStart + QUALITY_PARAMETER.length(); i < end; i++) {
+            char c = header.charAt(i);
+            if (c != '0' && c != '.' && !Character.isWhitespace(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean equalsIgnoreCaseTrimmed(@Nonnull String header, int start, int end, @Nonnull String expected) {
+        int trimmedStart = skipWhitespace(header, start, end);
+        int trimmedEnd = end;
+        while (trimmedEnd > trimmedStart && Character.isWhitespace(header.charAt(trimmedEnd - 1))) {
+            trimmedEnd--;
+        }
+        return trimmedEnd - trimmedStart == expected.length() && header.regionMatches(true, trimmedStart, expected, 0, expected.length());
+    }
+
+    private static int skipWhitespace(@Nonnull String header, int start, int end) {
+        while (start < end && Character.isWhitespace(header.charAt(start))) {
+            start++;
+        }
+        return start;
+    }
+}
@@ -0,0 +1,127 @@
+package com.unicorn.rest.activities.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.unicorn.rest.activities.RestuarantActivities;
+import com.unicorn.rest.activity.model.MenuItemRequest;
+import com.unicorn.rest.repository.MenuImportReader;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.MenuImportRow;
+
+/**
+ * Read the bulk menu import from the JSON array of the items, each with restaurant_id besides the fields of the menu item,
+ * with the streaming parser of Jackson, so that only the item being read is held in memory rather than the tree of the whole upload.
+ */
+public class JSONMenuImportReader implements MenuImportReader {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final InputStream inputStream;
+    private JsonParser parser = null;
+    private long rowNumber = 0;
+
+    public JSONMenuImportReader(@Nonnull InputStream inputStream) {
+        this.inputStream = inputStream;
+    }
+
+    @Override
+    public @Nullable MenuImportRow readRow() throws ValidationException {
+        try {
+            if (parser == null) {
+                parser = JSON_FACTORY.createParser(inputStream);
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new ValidationException("Invalid JSON upload. The upload should be the array of the items");
+                }
+            }
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.END_ARRAY) {
+                return null;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new ValidationException(String.format("Invalid JSON upload. The item of row %s should be an object", rowNumber + 1));
+            }
+            rowNumber++;
+            return readItem();
+        } catch (JsonProcessingException error) {
+            throw new ValidationException(String.format("Invalid JSON upload. The item of row %s is malformed: %s", rowNumber + 1, error.getOriginalMessage()));
+        } catch (IOException error) {
+            throw new ValidationException(String.format("Invalid JSON upload. The upload cannot be read after row %s: %s", rowNumber, error.getMessage()));
+        }
+    }
+
+    /*
+     * The item is always read to its end, so that the invalid field only invalidates the row rather than the upload
+     */
+    private @Nonnull MenuImportRow readItem() throws IOException {
+        String invalidReason = null;
+        Long restaurantId = null;
+        Long itemId = null;
+        String itemName = null;
+        String itemDescription = null;
+        Long price = null;
+        List<String> tags = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (fieldName) {
+            case RestuarantActivities.RESTAURANT_ID:
+            case MenuItemRequest.ITEM_ID:
+            case MenuItemRequest.PRICE:
+                if (token != JsonToken.VALUE_NUMBER_INT || parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+                    invalidReason = String.format("Invalid %s. The %s should be an integer", fieldName, fieldName);
+                    parser.skipChildren();
+                } else if (RestuarantActivities.RESTAURANT_ID.equals(fieldName)) {
+                    restaurantId = parser.getLongValue();
+                } else if (MenuItemRequest.ITEM_ID.equals(fieldName)) {
+                    itemId = parser.getLongValue();
+                } else {
+                    price = parser.getLongValue();
+                }
+                break;
+            case MenuItemRequest.ITEM_NAME:
+            case MenuItemRequest.ITEM_DESCRIPTION:
+                if (token != JsonToken.VALUE_STRING) {
+                    invalidReason = String.format("Invalid %s. The %s should be a string", fieldName, fieldName);
+                    parser.skipChildren();
+                } else if (MenuItemRequest.ITEM_NAME.equals(fieldName)) {
+                    itemName = parser.getText();
+                } else {
+                    itemDescription = parser.getText();
+                }
+                break;
+            case MenuItemRequest.TAGS:
+                if (token != JsonToken.START_ARRAY) {
+                    invalidReason = String.format("Invalid %s. The %s should be an array of strings", fieldName, fieldName);
+                    parser.skipChildren();
+                    break;
+                }
+                tags = new ArrayList<>();
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (token == JsonToken.VALUE_STRING) {
+                        tags.add(parser.getText());
+                    } else {
+                        invalidReason = String.format("Invalid %s. The %s should be an array of strings", fieldName, fieldName);
+                        parser.skipChildren();
+                    }
+                }
+                break;
+            default:
+                parser.skipChildren();
+            }
+        }
+        return new MenuImportRow(rowNumber, restaurantId, itemId, itemName, itemDescription, price, tags, invalidReason);
+    }
+}
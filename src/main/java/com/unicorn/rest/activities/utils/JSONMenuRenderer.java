@@ -0,0 +1,81 @@
+package com.unicorn.rest.activities.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.unicorn.rest.activity.model.MenuResponse;
+import com.unicorn.rest.repository.MenuRenderer;
+import com.unicorn.rest.repository.model.Menu;
+import com.unicorn.rest.repository.model.MenuTranslation;
+import com.unicorn.rest.repository.model.RenderedMenu;
+import com.unicorn.rest.utils.JSONObjectMapperImpl;
+
+/**
+ * Render the menu into the same JSON as Jersey would write for MenuResponse, together with its gzipped form and a strong entity tag.
+ */
+public class JSONMenuRenderer implements MenuRenderer {
+
+    /*
+     * Below this size the gzip header and the CPU of decompression cost more than the bytes saved
+     */
+    public static final int MIN_GZIP_BODY_BYTES = 1024;
+    private static final String ENTITY_TAG_DIGEST_ALGORITHM = "SHA-256";
+    private static final int ENTITY_TAG_BYTES = 16;
+
+    private final ObjectMapper objectMapper = new JSONObjectMapperImpl().getContext(MenuResponse.class);
+
+    @Override
+    public @Nonnull RenderedMenu render(@Nonnull Menu menu) {
+        return render(menu, null);
+    }
+
+    @Override
+    public @Nonnull RenderedMenu render(@Nonnull Menu menu, @Nullable MenuTranslation translation) {
+        return render(menu, translation, Collections.<Long>emptyList());
+    }
+
+    @Override
+    public @Nonnull RenderedMenu render(@Nonnull Menu menu, @Nullable MenuTranslation translation, @Nonnull List<Long> popularItemIds) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(new MenuResponse(menu, translation, popularItemIds));
+            return new RenderedMenu(body, gzip(body), entityTag(body));
+        } catch (IOException error) {
+            throw new IllegalStateException(String.format("Failed while attempting to render menu of restaurant %s version %s in %s",
+                    menu.getRestaurantId(), menu.getVersion(), translation == null ? "the language published" : translation.getLocale()), error);
+        }
+    }
+
+    /**
+     * @return NULL if the body is too small or does not get smaller after gzipped
+     */
+    protected static @Nullable byte[] gzip(@Nonnull byte[] body) throws IOException {
+        if (body.length < MIN_GZIP_BODY_BYTES) {
+            return null;
+        }
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(gzipped)) {
+            gzipOutputStream.write(body);
+        }
+        return gzipped.size() < body.length ? gzipped.toByteArray() : null;
+    }
+
+    protected static @Nonnull String entityTag(@Nonnull byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance(ENTITY_TAG_DIGEST_ALGORITHM).digest(body);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, ENTITY_TAG_BYTES));
+        } catch (NoSuchAlgorithmException error) {
+            throw new IllegalStateException(error);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.unicorn.rest.activity.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.unicorn.rest.repository.model.AutocompleteSuggestion;
+
+@XmlRootElement(name="autocomplete")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class AutocompleteResponse {
+
+    private static final String QUERY = "query";
+    private static final String SUGGESTIONS = "suggestions";
+
+    @JsonProperty(QUERY)
+    @Getter @Setter private String query;
+    @JsonProperty(SUGGESTIONS)
+    @Getter @Setter private List<AutocompleteSuggestionResponse> suggestions;
+
+    public AutocompleteResponse(@Nonnull String query, @Nonnull List<AutocompleteSuggestion> autocompleteSuggestions) {
+        this.query = query;
+        this.suggestions = new ArrayList<>(autocompleteSuggestions.size());
+        for (AutocompleteSuggestion autocompleteSuggestion : autocompleteSuggestions) {
+            this.suggestions.add(new AutocompleteSuggestionResponse(autocompleteSuggestion));
+        }
+    }
+}
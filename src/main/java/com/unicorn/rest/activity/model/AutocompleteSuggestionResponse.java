@@ -0,0 +1,43 @@
+package com.unicorn.rest.activity.model;
+
+import java.util.Locale;
+
+import javax.annotation.Nonnull;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.unicorn.rest.repository.model.AutocompleteSuggestion;
+
+@XmlRootElement(name="suggestion")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class AutocompleteSuggestionResponse {
+
+    private static final String TYPE = "type";
+    private static final String TEXT = "text";
+    private static final String RESTAURANT_ID = "restaurant_id";
+
+    @JsonProperty(TYPE)
+    @Getter @Setter private String type;
+    @JsonProperty(TEXT)
+    @Getter @Setter private String text;
+    @JsonProperty(RESTAURANT_ID)
+    @Getter @Setter private Long restaurantId;
+
+    public AutocompleteSuggestionResponse(@Nonnull AutocompleteSuggestion autocompleteSuggestion) {
+        this.type = autocompleteSuggestion.getSuggestionType().name().toLowerCase(Locale.ROOT);
+        this.text = autocompleteSuggestion.getText();
+        this.restaurantId = autocompleteSuggestion.getRestaurantId();
+    }
+}
@@ -0,0 +1,44 @@
+package com.unicorn.rest.activity.model;
+
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@XmlRootElement(name="availability_window")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class AvailabilityWindowRequest {
+
+    public static final String DAYS = "days";
+    public static final String START_TIME = "start_time";
+    public static final String END_TIME = "end_time";
+
+    /*
+     * mon, tue, wed, thu, fri, sat or sun
+     */
+    @JsonProperty(DAYS)
+    @Getter @Setter private List<String> days;
+    /*
+     * HH:mm in the local time of the restaurant
+     */
+    @JsonProperty(START_TIME)
+    @Getter @Setter private String startTime;
+    /*
+     * HH:mm in the local time of the restaurant, where the end at or before the start is on the next day
+     */
+    @JsonProperty(END_TIME)
+    @Getter @Setter private String endTime;
+}
@@ -0,0 +1,43 @@
+package com.unicorn.rest.activity.model;
+
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.unicorn.rest.repository.model.AvailabilityWindow;
+
+@XmlRootElement(name="availability_window")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class AvailabilityWindowResponse {
+
+    private static final String DAYS = "days";
+    private static final String START_TIME = "start_time";
+    private static final String END_TIME = "end_time";
+
+    @JsonProperty(DAYS)
+    @Getter @Setter private List<String> days;
+    @JsonProperty(START_TIME)
+    @Getter @Setter private String startTime;
+    @JsonProperty(END_TIME)
+    @Getter @Setter private String endTime;
+
+    public AvailabilityWindowResponse(@Nonnull AvailabilityWindow availabilityWindow) {
+        this.days = availabilityWindow.getDayOfWeekNames();
+        this.startTime = AvailabilityWindow.formatMinuteOfDay(availabilityWindow.getStartMinute());
+        this.endTime = AvailabilityWindow.formatMinuteOfDay(availabilityWindow.getEndMinute());
+    }
+}
@@ -0,0 +1,69 @@
+package com.unicorn.rest.activity.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.unicorn.rest.repository.model.MenuItem;
+import com.unicorn.rest.repository.model.MenuSnapshot;
+import com.unicorn.rest.repository.model.MenuTranslation;
+
+@XmlRootElement(name="available_menu")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class AvailableMenuResponse {
+
+    private static final String RESTAURANT_ID = "restaurant_id";
+    private static final String VERSION = "version";
+    private static final String AT = "at";
+    private static final String NEXT_CHANGE_AT = "next_change_at";
+    private static final String ITEMS = "items";
+    private static final String LOCALE = "locale";
+
+    @JsonProperty(RESTAURANT_ID)
+    @Getter @Setter private Long restaurantId;
+    @JsonProperty(VERSION)
+    @Getter @Setter private Long version;
+    @JsonProperty(AT)
+    @Getter @Setter private Long at;
+    /*
+     * NULL if the available items never change
+     */
+    @JsonProperty(NEXT_CHANGE_AT)
+    @Getter @Setter private Long nextChangeAt;
+    @JsonProperty(ITEMS)
+    @Getter @Setter private List<MenuItemResponse> items;
+    /*
+     * The locale the texts are in, NULL if the items are in the language published which is not declared
+     */
+    @JsonProperty(LOCALE)
+    @Getter @Setter private String locale;
+
+    public AvailableMenuResponse(@Nonnull MenuSnapshot menuSnapshot, long at, @Nonnull List<MenuItem> availableItems,
+            @Nullable Long nextChangeAt, @Nullable MenuTranslation translation) {
+        this.restaurantId = menuSnapshot.getRestaurantId();
+        this.version = menuSnapshot.getVersion();
+        this.at = at;
+        this.nextChangeAt = nextChangeAt;
+        this.items = new ArrayList<>(availableItems.size());
+        for (MenuItem menuItem : availableItems) {
+            this.items.add(new MenuItemResponse(menuItem, translation));
+        }
+        this.locale = translation == null ? menuSnapshot.getMenu().getLanguage() : translation.getLocale();
+    }
+}
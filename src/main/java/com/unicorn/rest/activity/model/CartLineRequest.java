@@ -0,0 +1,41 @@
+package com.unicorn.rest.activity.model;
+
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@XmlRootElement(name="line")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class CartLineRequest {
+
+    public static final String ITEM_ID = "item_id";
+    public static final String QUANTITY = "quantity";
+    public static final String OPTION_IDS = "option_ids";
+
+    @JsonProperty(ITEM_ID)
+    @Getter @Setter private Long itemId;
+    /*
+     * 1 if not provided
+     */
+    @JsonProperty(QUANTITY)
+    @Getter @Setter private Integer quantity;
+    /*
+     * The chosen options at all the levels of the modifier groups of the item
+     */
+    @JsonProperty(OPTION_IDS)
+    @Getter @Setter private List<Long> optionIds;
+}
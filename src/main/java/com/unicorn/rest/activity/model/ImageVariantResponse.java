@@ -0,0 +1,41 @@
+package com.unicorn.rest.activity.model;
+
+import javax.annotation.Nonnull;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.unicorn.rest.repository.model.MenuImage;
+
+@XmlRootElement(name="variant")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class ImageVariantResponse {
+
+    private static final String WIDTH = "width";
+    private static final String HEIGHT = "height";
+    private static final String URL = "url";
+
+    @JsonProperty(WIDTH)
+    @Getter @Setter private Integer width;
+    @JsonProperty(HEIGHT)
+    @Getter @Setter private Integer height;
+    @JsonProperty(URL)
+    @Getter @Setter private String url;
+
+    public ImageVariantResponse(@Nonnull MenuImage.ImageVariant imageVariant) {
+        this.width = imageVariant.getWidth();
+        this.height = imageVariant.getHeight();
+        this.url = imageVariant.getUrl();
+    }
+}
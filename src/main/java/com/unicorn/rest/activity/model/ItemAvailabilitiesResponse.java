@@ -0,0 +1,44 @@
+package com.unicorn.rest.activity.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.unicorn.rest.repository.model.ItemAvailability;
+
+@XmlRootElement(name="item_availabilities")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class ItemAvailabilitiesResponse {
+
+    private static final String RESTAURANT_ID = "restaurant_id";
+    private static final String ITEMS = "items";
+
+    @JsonProperty(RESTAURANT_ID)
+    @Getter @Setter private Long restaurantId;
+    @JsonProperty(ITEMS)
+    @Getter @Setter private List<ItemAvailabilityResponse> items;
+
+    public ItemAvailabilitiesResponse(@Nonnull Long restaurantId, @Nonnull Collection<ItemAvailability> itemAvailabilities) {
+        this.restaurantId = restaurantId;
+        this.items = new ArrayList<>(itemAvailabilities.size());
+        for (ItemAvailability itemAvailability : itemAvailabilities) {
+            this.items.add(new ItemAvailabilityResponse(itemAvailability));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.unicorn.rest.activity.model;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@XmlRootElement(name="item_availability")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class ItemAvailabilityRequest {
+
+    public static final String SOLD_OUT = "sold_out";
+    public static final String STOCK = "stock";
+
+    /*
+     * false if not provided
+     */
+    @JsonProperty(SOLD_OUT)
+    @Getter @Setter private Boolean soldOut;
+    /*
+     * The portions left, or not provided to stop tracking the stock
+     */
+    @JsonProperty(STOCK)
+    @Getter @Setter private Long stock;
+}
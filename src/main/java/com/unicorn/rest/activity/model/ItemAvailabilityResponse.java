@@ -0,0 +1,52 @@
+package com.unicorn.rest.activity.model;
+
+import javax.annotation.Nonnull;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.unicorn.rest.repository.model.ItemAvailability;
+
+@XmlRootElement(name="item_availability")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class ItemAvailabilityResponse {
+
+    private static final String ITEM_ID = "item_id";
+    private static final String AVAILABLE = "available";
+    private static final String SOLD_OUT = "sold_out";
+    private static final String STOCK = "stock";
+    private static final String UPDATED_AT = "updated_at";
+
+    @JsonProperty(ITEM_ID)
+    @Getter @Setter private Long itemId;
+    @JsonProperty(AVAILABLE)
+    @Getter @Setter private Boolean available;
+    @JsonProperty(SOLD_OUT)
+    @Getter @Setter private Boolean soldOut;
+    /*
+     * NULL if the stock of the item is not tracked
+     */
+    @JsonProperty(STOCK)
+    @Getter @Setter private Long stock;
+    @JsonProperty(UPDATED_AT)
+    @Getter @Setter private Long updatedAt;
+
+    public ItemAvailabilityResponse(@Nonnull ItemAvailability itemAvailability) {
+        this.itemId = itemAvailability.getItemId();
+        this.available = itemAvailability.isAvailable();
+        this.soldOut = itemAvailability.isSoldOut();
+        this.stock = itemAvailability.getStock();
+        this.updatedAt = itemAvailability.getUpdatedInEpoch();
+    }
+}
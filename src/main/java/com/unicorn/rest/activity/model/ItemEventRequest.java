@@ -0,0 +1,39 @@
+package com.unicorn.rest.activity.model;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@XmlRootElement(name="event")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class ItemEventRequest {
+
+    public static final String ITEM_ID = "item_id";
+    public static final String TYPE = "type";
+    public static final String QUANTITY = "quantity";
+
+    @JsonProperty(ITEM_ID)
+    @Getter @Setter private Long itemId;
+    /*
+     * view or order
+     */
+    @JsonProperty(TYPE)
+    @Getter @Setter private String type;
+    /*
+     * The portions ordered, 1 if not provided
+     */
+    @JsonProperty(QUANTITY)
+    @Getter @Setter private Integer quantity;
+}
@@ -0,0 +1,29 @@
+package com.unicorn.rest.activity.model;
+
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@XmlRootElement(name="events")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class ItemEventsRequest {
+
+    public static final String EVENTS = "events";
+
+    @JsonProperty(EVENTS)
+    @Getter @Setter private List<ItemEventRequest> events;
+}
@@ -0,0 +1,56 @@
+package com.unicorn.rest.activity.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.unicorn.rest.repository.model.MenuDelta;
+import com.unicorn.rest.repository.model.MenuItem;
+
+@XmlRootElement(name="menu_delta")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class MenuDeltaResponse {
+
+    private static final String RESTAURANT_ID = "restaurant_id";
+    private static final String SINCE_VERSION = "since_version";
+    private static final String VERSION = "version";
+    private static final String ITEMS = "items";
+    private static final String REMOVED_ITEM_IDS = "removed_item_ids";
+
+    @JsonProperty(RESTAURANT_ID)
+    @Getter @Setter private Long restaurantId;
+    @JsonProperty(SINCE_VERSION)
+    @Getter @Setter private Long sinceVersion;
+    @JsonProperty(VERSION)
+    @Getter @Setter private Long version;
+    @JsonProperty(ITEMS)
+    @Getter @Setter private List<MenuItemResponse> items;
+    @JsonProperty(REMOVED_ITEM_IDS)
+    @Getter @Setter private List<Long> removedItemIds;
+
+    public MenuDeltaResponse(@Nonnull MenuDelta menuDelta) {
+        this.restaurantId = menuDelta.getRestaurantId();
+        this.sinceVersion = menuDelta.getSinceVersion();
+        this.version = menuDelta.getVersion();
+        this.items = new ArrayList<>(menuDelta.getItems().size());
+        for (MenuItem menuItem : menuDelta.getItems()) {
+            this.items.add(new MenuItemResponse(menuItem));
+        }
+        this.removedItemIds = menuDelta.getRemovedItemIds();
+    }
+}
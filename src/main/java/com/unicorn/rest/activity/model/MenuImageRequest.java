@@ -0,0 +1,45 @@
+package com.unicorn.rest.activity.model;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@XmlRootElement(name="image")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class MenuImageRequest {
+
+    public static final String CONTENT_HASH = "content_hash";
+    public static final String CONTENT_TYPE = "content_type";
+    public static final String WIDTH = "width";
+    public static final String HEIGHT = "height";
+
+    /*
+     * The hex digest of the original image the image host stores it under
+     */
+    @JsonProperty(CONTENT_HASH)
+    @Getter @Setter private String contentHash;
+    /*
+     * image/jpeg, image/png or image/webp
+     */
+    @JsonProperty(CONTENT_TYPE)
+    @Getter @Setter private String contentType;
+    /*
+     * The dimensions of the original image in pixels
+     */
+    @JsonProperty(WIDTH)
+    @Getter @Setter private Integer width;
+    @JsonProperty(HEIGHT)
+    @Getter @Setter private Integer height;
+}
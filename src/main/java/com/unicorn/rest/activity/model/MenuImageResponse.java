@@ -0,0 +1,59 @@
+package com.unicorn.rest.activity.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.unicorn.rest.repository.model.MenuImage;
+
+@XmlRootElement(name="image")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class MenuImageResponse {
+
+    private static final String CONTENT_HASH = "content_hash";
+    private static final String CONTENT_TYPE = "content_type";
+    private static final String WIDTH = "width";
+    private static final String HEIGHT = "height";
+    private static final String URL_TEMPLATE = "url_template";
+    private static final String VARIANTS = "variants";
+
+    @JsonProperty(CONTENT_HASH)
+    @Getter @Setter private String contentHash;
+    @JsonProperty(CONTENT_TYPE)
+    @Getter @Setter private String contentType;
+    @JsonProperty(WIDTH)
+    @Getter @Setter private Integer width;
+    @JsonProperty(HEIGHT)
+    @Getter @Setter private Integer height;
+    @JsonProperty(URL_TEMPLATE)
+    @Getter @Setter private String urlTemplate;
+    @JsonProperty(VARIANTS)
+    @Getter @Setter private List<ImageVariantResponse> variants;
+
+    public MenuImageResponse(@Nonnull MenuImage menuImage) {
+        this.contentHash = menuImage.getContentHash();
+        this.contentType = menuImage.getContentType();
+        this.width = menuImage.getWidth();
+        this.height = menuImage.getHeight();
+        this.urlTemplate = menuImage.getUrlTemplate();
+        this.variants = new ArrayList<>(menuImage.getVariants().size());
+        for (MenuImage.ImageVariant imageVariant : menuImage.getVariants()) {
+            this.variants.add(new ImageVariantResponse(imageVariant));
+        }
+    }
+}
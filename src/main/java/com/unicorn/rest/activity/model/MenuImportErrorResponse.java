@@ -0,0 +1,41 @@
+package com.unicorn.rest.activity.model;
+
+import javax.annotation.Nonnull;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.unicorn.rest.repository.model.MenuImportError;
+
+@XmlRootElement(name="error")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class MenuImportErrorResponse {
+
+    private static final String ROW = "row";
+    private static final String RESTAURANT_ID = "restaurant_id";
+    private static final String MESSAGE = "message";
+
+    @JsonProperty(ROW)
+    @Getter @Setter private Long row;
+    @JsonProperty(RESTAURANT_ID)
+    @Getter @Setter private Long restaurantId;
+    @JsonProperty(MESSAGE)
+    @Getter @Setter private String message;
+
+    public MenuImportErrorResponse(@Nonnull MenuImportError menuImportError) {
+        this.row = menuImportError.getRowNumber();
+        this.restaurantId = menuImportError.getRestaurantId();
+        this.message = menuImportError.getMessage();
+    }
+}
@@ -0,0 +1,88 @@
+package com.unicorn.rest.activity.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import javax.annotation.Nonnull;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.unicorn.rest.repository.model.MenuImportError;
+import com.unicorn.rest.repository.model.MenuImportJob;
+
+@XmlRootElement(name="menu_import")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class MenuImportJobResponse {
+
+    private static final String JOB_ID = "job_id";
+    private static final String STATUS = "status";
+    private static final String CREATED_AT = "created_at";
+    private static final String COMPLETED_AT = "completed_at";
+    private static final String ROWS = "rows";
+    private static final String RESTAURANTS = "restaurants";
+    private static final String PUBLISHED_RESTAURANTS = "published_restaurants";
+    private static final String FAILED_RESTAURANTS = "failed_restaurants";
+    private static final String PUBLISHED_ITEMS = "published_items";
+    private static final String ERROR_COUNT = "error_count";
+    private static final String ERRORS = "errors";
+
+    @JsonProperty(JOB_ID)
+    @Getter @Setter private Long jobId;
+    @JsonProperty(STATUS)
+    @Getter @Setter private String status;
+    @JsonProperty(CREATED_AT)
+    @Getter @Setter private Long createdAt;
+    /*
+     * NULL while the job is in progress
+     */
+    @JsonProperty(COMPLETED_AT)
+    @Getter @Setter private Long completedAt;
+    @JsonProperty(ROWS)
+    @Getter @Setter private Long rows;
+    @JsonProperty(RESTAURANTS)
+    @Getter @Setter private Integer restaurants;
+    @JsonProperty(PUBLISHED_RESTAURANTS)
+    @Getter @Setter private Integer publishedRestaurants;
+    @JsonProperty(FAILED_RESTAURANTS)
+    @Getter @Setter private Integer failedRestaurants;
+    @JsonProperty(PUBLISHED_ITEMS)
+    @Getter @Setter private Long publishedItems;
+    /*
+     * The number of all the errors, of which only the first are listed
+     */
+    @JsonProperty(ERROR_COUNT)
+    @Getter @Setter private Integer errorCount;
+    @JsonProperty(ERRORS)
+    @Getter @Setter private List<MenuImportErrorResponse> errors;
+
+    public MenuImportJobResponse(@Nonnull MenuImportJob menuImportJob) {
+        this.jobId = menuImportJob.getJobId();
+        this.status = menuImportJob.getStatus().name().toLowerCase(Locale.ROOT);
+        this.createdAt = menuImportJob.getCreatedInEpoch();
+        this.completedAt = menuImportJob.getCompletedInEpoch();
+        this.rows = menuImportJob.getNumOfRows();
+        this.restaurants = menuImportJob.getNumOfRestaurants();
+        this.publishedRestaurants = menuImportJob.getNumOfPublishedRestaurants();
+        this.failedRestaurants = menuImportJob.getNumOfFailedRestaurants();
+        this.publishedItems = menuImportJob.getNumOfPublishedItems();
+        this.errorCount = menuImportJob.getNumOfErrors();
+        List<MenuImportError> menuImportErrors = menuImportJob.getErrors();
+        this.errors = new ArrayList<>(menuImportErrors.size());
+        for (MenuImportError menuImportError : menuImportErrors) {
+            this.errors.add(new MenuImportErrorResponse(menuImportError));
+        }
+    }
+}
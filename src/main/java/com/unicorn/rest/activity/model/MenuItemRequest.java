@@ -0,0 +1,62 @@
+package com.unicorn.rest.activity.model;
+
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@XmlRootElement(name="item")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class MenuItemRequest {
+
+    public static final String ITEM_ID = "item_id";
+    public static final String ITEM_NAME = "item_name";
+    public static final String ITEM_DESCRIPTION = "item_description";
+    public static final String PRICE = "price";
+    public static final String TAGS = "tags";
+    public static final String AVAILABILITY = "availability";
+    public static final String MODIFIER_GROUPS = "modifier_groups";
+    public static final String IMAGES = "images";
+
+    /*
+     * NULL for the new item, the item_id is generated when the menu is published
+     */
+    @JsonProperty(ITEM_ID)
+    @Getter @Setter private Long itemId;
+    @JsonProperty(ITEM_NAME)
+    @Getter @Setter private String itemName;
+    @JsonProperty(ITEM_DESCRIPTION)
+    @Getter @Setter private String itemDescription;
+    @JsonProperty(PRICE)
+    @Getter @Setter private Long price;
+    @JsonProperty(TAGS)
+    @Getter @Setter private List<String> tags;
+    /*
+     * NULL or empty if the item is available whenever the menu is
+     */
+    @JsonProperty(AVAILABILITY)
+    @Getter @Setter private List<AvailabilityWindowRequest> availability;
+    /*
+     * NULL or empty if the item has no options to choose, the components of the combo included
+     */
+    @JsonProperty(MODIFIER_GROUPS)
+    @Getter @Setter private List<ModifierGroupRequest> modifierGroups;
+    /*
+     * NULL or empty if the item has no photo, the first of which is the primary one
+     */
+    @JsonProperty(IMAGES)
+    @Getter @Setter private List<MenuImageRequest> images;
+}
@@ -0,0 +1,82 @@
+package com.unicorn.rest.activity.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.unicorn.rest.repository.model.AvailabilityWindow;
+import com.unicorn.rest.repository.model.MenuImage;
+import com.unicorn.rest.repository.model.MenuItem;
+import com.unicorn.rest.repository.model.MenuTranslation;
+import com.unicorn.rest.repository.model.ModifierGroup;
+
+@XmlRootElement(name="item")
+@JsonInclude(value=Include.NON_EMPTY)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class MenuItemResponse {
+
+    private static final String ITEM_ID = "item_id";
+    private static final String ITEM_NAME = "item_name";
+    private static final String ITEM_DESCRIPTION = "item_description";
+    private static final String PRICE = "price";
+    private static final String TAGS = "tags";
+    private static final String AVAILABILITY = "availability";
+    private static final String MODIFIER_GROUPS = "modifier_groups";
+    private static final String IMAGES = "images";
+
+    @JsonProperty(ITEM_ID)
+    @Getter @Setter private Long itemId;
+    @JsonProperty(ITEM_NAME)
+    @Getter @Setter private String itemName;
+    @JsonProperty(ITEM_DESCRIPTION)
+    @Getter @Setter private String itemDescription;
+    @JsonProperty(PRICE)
+    @Getter @Setter private Long price;
+    @JsonProperty(TAGS)
+    @Getter @Setter private List<String> tags;
+    @JsonProperty(AVAILABILITY)
+    @Getter @Setter private List<AvailabilityWindowResponse> availability;
+    @JsonProperty(MODIFIER_GROUPS)
+    @Getter @Setter private List<ModifierGroupResponse> modifierGroups;
+    @JsonProperty(IMAGES)
+    @Getter @Setter private List<MenuImageResponse> images;
+
+    public MenuItemResponse(@Nonnull MenuItem menuItem) {
+        this(menuItem, null);
+    }
+
+    public MenuItemResponse(@Nonnull MenuItem menuItem, @Nullable MenuTranslation translation) {
+        this.itemId = menuItem.getItemId();
+        this.itemName = translation == null ? menuItem.getItemName() : translation.translate(menuItem.getItemName());
+        this.itemDescription = translation == null ? menuItem.getItemDescription() : translation.translate(menuItem.getItemDescription());
+        this.price = menuItem.getPrice();
+        this.tags = menuItem.getTags();
+        this.availability = new ArrayList<>(menuItem.getAvailability().size());
+        for (AvailabilityWindow availabilityWindow : menuItem.getAvailability()) {
+            this.availability.add(new AvailabilityWindowResponse(availabilityWindow));
+        }
+        this.modifierGroups = new ArrayList<>(menuItem.getModifierGroups().size());
+        for (ModifierGroup modifierGroup : menuItem.getModifierGroups()) {
+            this.modifierGroups.add(new ModifierGroupResponse(modifierGroup, translation));
+        }
+        this.images = new ArrayList<>(menuItem.getImages().size());
+        for (MenuImage menuImage : menuItem.getImages()) {
+            this.images.add(new MenuImageResponse(menuImage));
+        }
+    }
+}
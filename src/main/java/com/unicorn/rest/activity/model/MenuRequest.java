@@ -0,0 +1,54 @@
+package com.unicorn.rest.activity.model;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@XmlRootElement(name="menu")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class MenuRequest {
+
+    public static final String ITEMS = "items";
+    public static final String TIME_ZONE = "time_zone";
+    public static final String AVAILABILITY = "availability";
+    public static final String LANGUAGE = "language";
+    public static final String TRANSLATIONS = "translations";
+
+    @JsonProperty(ITEMS)
+    @Getter @Setter private List<MenuItemRequest> items;
+    /*
+     * The time zone ID of the restaurant the availability is in, e.g. America/Los_Angeles, UTC if not provided
+     */
+    @JsonProperty(TIME_ZONE)
+    @Getter @Setter private String timeZone;
+    /*
+     * NULL or empty if the menu is available all the time
+     */
+    @JsonProperty(AVAILABILITY)
+    @Getter @Setter private List<AvailabilityWindowRequest> availability;
+    /*
+     * The locale the texts of the menu are in, e.g. en-US, not declared if not provided
+     */
+    @JsonProperty(LANGUAGE)
+    @Getter @Setter private String language;
+    /*
+     * The locale, e.g. zh-Hant, to the texts on the menu and their translations, NULL or empty if the menu is not translated
+     */
+    @JsonProperty(TRANSLATIONS)
+    @Getter @Setter private Map<String, Map<String, String>> translations;
+}
@@ -0,0 +1,110 @@
+package com.unicorn.rest.activity.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.unicorn.rest.repository.model.AvailabilityWindow;
+import com.unicorn.rest.repository.model.Menu;
+import com.unicorn.rest.repository.model.MenuItem;
+import com.unicorn.rest.repository.model.MenuTranslation;
+
+@XmlRootElement(name="menu")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class MenuResponse {
+
+    private static final String RESTAURANT_ID = "restaurant_id";
+    private static final String VERSION = "version";
+    private static final String ITEMS = "items";
+    private static final String TIME_ZONE = "time_zone";
+    private static final String AVAILABILITY = "availability";
+    private static final String LOCALE = "locale";
+    private static final String LOCALES = "locales";
+    private static final String POPULAR_ITEM_IDS = "popular_item_ids";
+
+    @JsonProperty(RESTAURANT_ID)
+    @Getter @Setter private Long restaurantId;
+    @JsonProperty(VERSION)
+    @Getter @Setter private Long version;
+    @JsonProperty(ITEMS)
+    @Getter @Setter private List<MenuItemResponse> items;
+    @JsonProperty(TIME_ZONE)
+    @Getter @Setter private String timeZone;
+    /*
+     * NULL if the menu is available all the time
+     */
+    @JsonProperty(AVAILABILITY)
+    @Getter @Setter private List<AvailabilityWindowResponse> availability;
+    /*
+     * The locale the texts are in, NULL if the menu is in the language published which is not declared
+     */
+    @JsonProperty(LOCALE)
+    @Getter @Setter private String locale;
+    /*
+     * The language published and the locales translated into, NULL if the menu is not translated
+     */
+    @JsonProperty(LOCALES)
+    @Getter @Setter private List<String> locales;
+    /*
+     * The items in descending order of popularity, NULL until the popularity is first materialized
+     */
+    @JsonProperty(POPULAR_ITEM_IDS)
+    @Getter @Setter private List<Long> popularItemIds;
+
+    public MenuResponse(@Nonnull Menu menu) {
+        this(menu, null);
+    }
+
+    public MenuResponse(@Nonnull Menu menu, @Nullable MenuTranslation translation) {
+        this(menu, translation, Collections.<Long>emptyList());
+    }
+
+    /**
+     * @param menu @Nonnull
+     * @param translation the string table the texts are written in, the language published if NULL @Nullable
+     * @param popularItemIds the items in descending order of popularity @Nonnull
+     */
+    public MenuResponse(@Nonnull Menu menu, @Nullable MenuTranslation translation, @Nonnull List<Long> popularItemIds) {
+        this.restaurantId = menu.getRestaurantId();
+        this.version = menu.getVersion();
+        this.items = new ArrayList<>(menu.getItems().size());
+        for (MenuItem menuItem : menu.getItems()) {
+            this.items.add(new MenuItemResponse(menuItem, translation));
+        }
+        this.timeZone = menu.getTimeZone();
+        if (!menu.getAvailability().isEmpty()) {
+            this.availability = new ArrayList<>(menu.getAvailability().size());
+            for (AvailabilityWindow availabilityWindow : menu.getAvailability()) {
+                this.availability.add(new AvailabilityWindowResponse(availabilityWindow));
+            }
+        }
+        this.locale = translation == null ? menu.getLanguage() : translation.getLocale();
+        if (!menu.getTranslations().isEmpty()) {
+            this.locales = new ArrayList<>(menu.getTranslations().size() + 1);
+            if (menu.getLanguage() != null) {
+                this.locales.add(menu.getLanguage());
+            }
+            this.locales.addAll(menu.getTranslations().keySet());
+        }
+        if (!popularItemIds.isEmpty()) {
+            this.popularItemIds = popularItemIds;
+        }
+    }
+}
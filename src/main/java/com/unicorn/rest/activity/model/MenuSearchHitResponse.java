@@ -0,0 +1,41 @@
+package com.unicorn.rest.activity.model;
+
+import javax.annotation.Nonnull;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.unicorn.rest.repository.model.MenuSearchHit;
+
+@XmlRootElement(name="hit")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class MenuSearchHitResponse {
+
+    private static final String RESTAURANT_ID = "restaurant_id";
+    private static final String SCORE = "score";
+    private static final String ITEM = "item";
+
+    @JsonProperty(RESTAURANT_ID)
+    @Getter @Setter private Long restaurantId;
+    @JsonProperty(SCORE)
+    @Getter @Setter private Double score;
+    @JsonProperty(ITEM)
+    @Getter @Setter private MenuItemResponse item;
+
+    public MenuSearchHitResponse(@Nonnull MenuSearchHit menuSearchHit) {
+        this.restaurantId = menuSearchHit.getRestaurantId();
+        this.score = menuSearchHit.getScore();
+        this.item = new MenuItemResponse(menuSearchHit.getItem());
+    }
+}
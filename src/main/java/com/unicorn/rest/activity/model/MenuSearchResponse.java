@@ -0,0 +1,43 @@
+package com.unicorn.rest.activity.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.unicorn.rest.repository.model.MenuSearchHit;
+
+@XmlRootElement(name="menu_search")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class MenuSearchResponse {
+
+    private static final String QUERY = "query";
+    private static final String HITS = "hits";
+
+    @JsonProperty(QUERY)
+    @Getter @Setter private String query;
+    @JsonProperty(HITS)
+    @Getter @Setter private List<MenuSearchHitResponse> hits;
+
+    public MenuSearchResponse(@Nonnull String query, @Nonnull List<MenuSearchHit> menuSearchHits) {
+        this.query = query;
+        this.hits = new ArrayList<>(menuSearchHits.size());
+        for (MenuSearchHit menuSearchHit : menuSearchHits) {
+            this.hits.add(new MenuSearchHitResponse(menuSearchHit));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.unicorn.rest.activity.model;
+
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@XmlRootElement(name="modifier_group")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class ModifierGroupRequest {
+
+    public static final String GROUP_ID = "group_id";
+    public static final String GROUP_NAME = "group_name";
+    public static final String MIN_SELECTIONS = "min_selections";
+    public static final String MAX_SELECTIONS = "max_selections";
+    public static final String OPTIONS = "options";
+
+    /*
+     * NULL for the new group, the group_id is generated when the menu is published
+     */
+    @JsonProperty(GROUP_ID)
+    @Getter @Setter private Long groupId;
+    @JsonProperty(GROUP_NAME)
+    @Getter @Setter private String groupName;
+    /*
+     * 0 if not provided, i.e. the group is optional
+     */
+    @JsonProperty(MIN_SELECTIONS)
+    @Getter @Setter private Integer minSelections;
+    /*
+     * 1 if not provided
+     */
+    @JsonProperty(MAX_SELECTIONS)
+    @Getter @Setter private Integer maxSelections;
+    @JsonProperty(OPTIONS)
+    @Getter @Setter private List<ModifierOptionRequest> options;
+}
@@ -0,0 +1,62 @@
+package com.unicorn.rest.activity.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.unicorn.rest.repository.model.MenuTranslation;
+import com.unicorn.rest.repository.model.ModifierGroup;
+import com.unicorn.rest.repository.model.ModifierOption;
+
+@XmlRootElement(name="modifier_group")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class ModifierGroupResponse {
+
+    private static final String GROUP_ID = "group_id";
+    private static final String GROUP_NAME = "group_name";
+    private static final String MIN_SELECTIONS = "min_selections";
+    private static final String MAX_SELECTIONS = "max_selections";
+    private static final String OPTIONS = "options";
+
+    @JsonProperty(GROUP_ID)
+    @Getter @Setter private Long groupId;
+    @JsonProperty(GROUP_NAME)
+    @Getter @Setter private String groupName;
+    @JsonProperty(MIN_SELECTIONS)
+    @Getter @Setter private Integer minSelections;
+    @JsonProperty(MAX_SELECTIONS)
+    @Getter @Setter private Integer maxSelections;
+    @JsonProperty(OPTIONS)
+    @Getter @Setter private List<ModifierOptionResponse> options;
+
+    public ModifierGroupResponse(@Nonnull ModifierGroup modifierGroup) {
+        this(modifierGroup, null);
+    }
+
+    public ModifierGroupResponse(@Nonnull ModifierGroup modifierGroup, @Nullable MenuTranslation translation) {
+        this.groupId = modifierGroup.getGroupId();
+        this.groupName = translation == null ? modifierGroup.getGroupName() : translation.translate(modifierGroup.getGroupName());
+        this.minSelections = modifierGroup.getMinSelections();
+        this.maxSelections = modifierGroup.getMaxSelections();
+        this.options = new ArrayList<>(modifierGroup.getOptions().size());
+        for (ModifierOption modifierOption : modifierGroup.getOptions()) {
+            this.options.add(new ModifierOptionResponse(modifierOption, translation));
+        }
+    }
+}
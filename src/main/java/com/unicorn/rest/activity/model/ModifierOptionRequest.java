@@ -0,0 +1,44 @@
+package com.unicorn.rest.activity.model;
+
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@XmlRootElement(name="modifier_option")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class ModifierOptionRequest {
+
+    public static final String OPTION_ID = "option_id";
+    public static final String OPTION_NAME = "option_name";
+    public static final String PRICE_DELTA = "price_delta";
+    public static final String MODIFIER_GROUPS = "modifier_groups";
+
+    /*
+     * NULL for the new option, the option_id is generated when the menu is published
+     */
+    @JsonProperty(OPTION_ID)
+    @Getter @Setter private Long optionId;
+    @JsonProperty(OPTION_NAME)
+    @Getter @Setter private String optionName;
+    /*
+     * In minor units of the currency, 0 if not provided
+     */
+    @JsonProperty(PRICE_DELTA)
+    @Getter @Setter private Long priceDelta;
+    @JsonProperty(MODIFIER_GROUPS)
+    @Getter @Setter private List<ModifierGroupRequest> modifierGroups;
+}
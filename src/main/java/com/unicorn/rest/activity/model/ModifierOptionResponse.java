@@ -0,0 +1,63 @@
+package com.unicorn.rest.activity.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.unicorn.rest.repository.model.MenuTranslation;
+import com.unicorn.rest.repository.model.ModifierGroup;
+import com.unicorn.rest.repository.model.ModifierOption;
+
+@XmlRootElement(name="modifier_option")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class ModifierOptionResponse {
+
+    private static final String OPTION_ID = "option_id";
+    private static final String OPTION_NAME = "option_name";
+    private static final String PRICE_DELTA = "price_delta";
+    private static final String MODIFIER_GROUPS = "modifier_groups";
+
+    @JsonProperty(OPTION_ID)
+    @Getter @Setter private Long optionId;
+    @JsonProperty(OPTION_NAME)
+    @Getter @Setter private String optionName;
+    @JsonProperty(PRICE_DELTA)
+    @Getter @Setter private Long priceDelta;
+    /*
+     * NULL if the option has no further choices
+     */
+    @JsonProperty(MODIFIER_GROUPS)
+    @Getter @Setter private List<ModifierGroupResponse> modifierGroups;
+
+    public ModifierOptionResponse(@Nonnull ModifierOption modifierOption) {
+        this(modifierOption, null);
+    }
+
+    public ModifierOptionResponse(@Nonnull ModifierOption modifierOption, @Nullable MenuTranslation translation) {
+        this.optionId = modifierOption.getOptionId();
+        this.optionName = translation == null ? modifierOption.getOptionName() : translation.translate(modifierOption.getOptionName());
+        this.priceDelta = modifierOption.getPriceDelta();
+        if (!modifierOption.getModifierGroups().isEmpty()) {
+            this.modifierGroups = new ArrayList<>(modifierOption.getModifierGroups().size());
+            for (ModifierGroup modifierGroup : modifierOption.getModifierGroups()) {
+                this.modifierGroups.add(new ModifierGroupResponse(modifierGroup, translation));
+            }
+        }
+    }
+}
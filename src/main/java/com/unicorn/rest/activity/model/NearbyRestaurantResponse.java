@@ -0,0 +1,37 @@
+package com.unicorn.rest.activity.model;
+
+import javax.annotation.Nonnull;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.unicorn.rest.repository.model.Restaurant;
+
+@XmlRootElement(name="nearby_restaurant")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class NearbyRestaurantResponse {
+
+    private static final String DISTANCE_METERS = "distance_meters";
+    private static final String RESTAURANT = "restaurant";
+
+    @JsonProperty(DISTANCE_METERS)
+    @Getter @Setter private Double distanceInMeters;
+    @JsonProperty(RESTAURANT)
+    @Getter @Setter private RestaurantResponse restaurant;
+
+    public NearbyRestaurantResponse(@Nonnull Restaurant restaurant, double distanceInMeters) {
+        this.distanceInMeters = distanceInMeters;
+        this.restaurant = new RestaurantResponse(restaurant);
+    }
+}
@@ -0,0 +1,45 @@
+package com.unicorn.rest.activity.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.unicorn.rest.repository.model.Restaurant;
+import com.unicorn.rest.repository.model.RestaurantDistance;
+
+@XmlRootElement(name="nearby_restaurants")
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class NearbyRestaurantsResponse {
+
+    private static final String RESTAURANTS = "restaurants";
+
+    @JsonProperty(RESTAURANTS)
+    @Getter @Setter private List<NearbyRestaurantResponse> restaurants;
+
+    /**
+     * @param restaurantDistances in ascending order of distance @Nonnull
+     * @param restaurants the restaurants by restaurant_id, where the restaurant no longer exists is skipped @Nonnull
+     */
+    public NearbyRestaurantsResponse(@Nonnull List<RestaurantDistance> restaurantDistances, @Nonnull Map<Long, Restaurant> restaurants) {
+        this.restaurants = new ArrayList<>(restaurantDistances.size());
+        for (RestaurantDistance restaurantDistance : restaurantDistances) {
+            Restaurant restaurant = restaurants.get(restaurantDistance.getRestaurantId());
+            if (restaurant != null) {
+                this.restaurants.add(new NearbyRestaurantResponse(restaurant, restaurantDistance.getDistanceInMeters()));
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.unicorn.rest.activity.model;
+
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@XmlRootElement(name="popular_items")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class PopularItemsResponse {
+
+    private static final String RESTAURANT_ID = "restaurant_id";
+    private static final String ITEM_IDS = "item_ids";
+
+    @JsonProperty(RESTAURANT_ID)
+    @Getter @Setter private Long restaurantId;
+    /*
+     * The items in descending order of popularity
+     */
+    @JsonProperty(ITEM_IDS)
+    @Getter @Setter private List<Long> itemIds;
+
+    public PopularItemsResponse(@Nonnull Long restaurantId, @Nonnull List<Long> itemIds) {
+        this.restaurantId = restaurantId;
+        this.itemIds = itemIds;
+    }
+}
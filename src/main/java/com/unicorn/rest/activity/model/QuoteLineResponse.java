@@ -0,0 +1,45 @@
+package com.unicorn.rest.activity.model;
+
+import javax.annotation.Nonnull;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.unicorn.rest.repository.model.PriceQuoteLine;
+
+@XmlRootElement(name="line")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class QuoteLineResponse {
+
+    private static final String ITEM_ID = "item_id";
+    private static final String QUANTITY = "quantity";
+    private static final String UNIT_PRICE = "unit_price";
+    private static final String LINE_TOTAL = "line_total";
+
+    @JsonProperty(ITEM_ID)
+    @Getter @Setter private Long itemId;
+    @JsonProperty(QUANTITY)
+    @Getter @Setter private Integer quantity;
+    @JsonProperty(UNIT_PRICE)
+    @Getter @Setter private Long unitPrice;
+    @JsonProperty(LINE_TOTAL)
+    @Getter @Setter private Long lineTotal;
+
+    public QuoteLineResponse(@Nonnull PriceQuoteLine priceQuoteLine) {
+        this.itemId = priceQuoteLine.getItemId();
+        this.quantity = priceQuoteLine.getQuantity();
+        this.unitPrice = priceQuoteLine.getUnitPrice();
+        this.lineTotal = priceQuoteLine.getLineTotal();
+    }
+}
@@ -0,0 +1,55 @@
+package com.unicorn.rest.activity.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.unicorn.rest.repository.model.PriceQuote;
+import com.unicorn.rest.repository.model.PriceQuoteLine;
+
+@XmlRootElement(name="quote")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class QuoteResponse {
+
+    private static final String RESTAURANT_ID = "restaurant_id";
+    private static final String VERSION = "version";
+    private static final String LINES = "lines";
+    private static final String SUBTOTAL = "subtotal";
+
+    @JsonProperty(RESTAURANT_ID)
+    @Getter @Setter private Long restaurantId;
+    /*
+     * The menu version the cart is quoted against
+     */
+    @JsonProperty(VERSION)
+    @Getter @Setter private Long version;
+    @JsonProperty(LINES)
+    @Getter @Setter private List<QuoteLineResponse> lines;
+    @JsonProperty(SUBTOTAL)
+    @Getter @Setter private Long subtotal;
+
+    public QuoteResponse(@Nonnull PriceQuote priceQuote) {
+        this.restaurantId = priceQuote.getRestaurantId();
+        this.version = priceQuote.getVersion();
+        this.lines = new ArrayList<>(priceQuote.getLines().size());
+        for (PriceQuoteLine priceQuoteLine : priceQuote.getLines()) {
+            this.lines.add(new QuoteLineResponse(priceQuoteLine));
+        }
+        this.subtotal = priceQuote.getSubtotal();
+    }
+}
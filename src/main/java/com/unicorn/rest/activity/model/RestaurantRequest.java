@@ -0,0 +1,36 @@
+package com.unicorn.rest.activity.model;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@XmlRootElement(name="restaurant")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class RestaurantRequest {
+
+    public static final String RESTAURANT_NAME = "restaurant_name";
+    public static final String RESTAURANT_DESCRIPTION = "restaurant_description";
+    public static final String LATITUDE = "latitude";
+    public static final String LONGITUDE = "longitude";
+
+    @JsonProperty(RESTAURANT_NAME)
+    @Getter @Setter private String restaurantName;
+    @JsonProperty(RESTAURANT_DESCRIPTION)
+    @Getter @Setter private String restaurantDescription;
+    @JsonProperty(LATITUDE)
+    @Getter @Setter private Double latitude;
+    @JsonProperty(LONGITUDE)
+    @Getter @Setter private Double longitude;
+}
@@ -0,0 +1,55 @@
+package com.unicorn.rest.activity.model;
+
+import javax.annotation.Nonnull;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.unicorn.rest.repository.model.Restaurant;
+
+@XmlRootElement(name="restaurant")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class RestaurantResponse {
+
+    private static final String RESTAURANT_ID = "restaurant_id";
+    private static final String OWNER_PRINCIPAL = "owner_principal";
+    private static final String RESTAURANT_NAME = "restaurant_name";
+    private static final String RESTAURANT_DESCRIPTION = "restaurant_description";
+    private static final String LATITUDE = "latitude";
+    private static final String LONGITUDE = "longitude";
+
+    @JsonProperty(RESTAURANT_ID)
+    @Getter @Setter private Long restaurantId;
+    @JsonProperty(OWNER_PRINCIPAL)
+    @Getter @Setter private Long ownerPrincipal;
+    @JsonProperty(RESTAURANT_NAME)
+    @Getter @Setter private String restaurantName;
+    @JsonProperty(RESTAURANT_DESCRIPTION)
+    @Getter @Setter private String restaurantDescription;
+    @JsonProperty(LATITUDE)
+    @Getter @Setter private Double latitude;
+    @JsonProperty(LONGITUDE)
+    @Getter @Setter private Double longitude;
+
+    public RestaurantResponse(@Nonnull Restaurant restaurant) {
+        this.restaurantId = restaurant.getRestaurantId();
+        this.ownerPrincipal = restaurant.getOwnerPrincipal();
+        this.restaurantName = restaurant.getRestaurantName();
+        this.restaurantDescription = restaurant.getRestaurantDescription();
+        if (restaurant.getLocation() != null) {
+            this.latitude = restaurant.getLocation().getLatitude();
+            this.longitude = restaurant.getLocation().getLongitude();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.unicorn.rest.activity.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.unicorn.rest.repository.model.Restaurant;
+
+@XmlRootElement(name="restaurants")
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class RestaurantsResponse {
+
+    private static final String RESTAURANTS = "restaurants";
+
+    @JsonProperty(RESTAURANTS)
+    @Getter @Setter private List<RestaurantResponse> restaurants;
+
+    public RestaurantsResponse(@Nonnull List<Restaurant> restaurants) {
+        this.restaurants = new ArrayList<>(restaurants.size());
+        for (Restaurant restaurant : restaurants) {
+            this.restaurants.add(new RestaurantResponse(restaurant));
+        }
+    }
+}
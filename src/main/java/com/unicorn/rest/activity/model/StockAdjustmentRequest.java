@@ -0,0 +1,30 @@
+package com.unicorn.rest.activity.model;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@XmlRootElement(name="stock_adjustment")
+@JsonInclude(value=Include.NON_NULL)
+
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+public class StockAdjustmentRequest {
+
+    public static final String DELTA = "delta";
+
+    /*
+     * Negative to take the stock
+     */
+    @JsonProperty(DELTA)
+    @Getter @Setter private Long delta;
+}
@@ -2,11 +2,15 @@ package com.unicorn.rest.repository;
 
 import java.util.List;
 
+import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import com.unicorn.rest.repository.exception.DuplicateKeyException;
+import com.unicorn.rest.repository.exception.ItemNotFoundException;
 import com.unicorn.rest.repository.exception.RepositoryServerException;
 import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.server.filter.model.AccessControlPolicy;
+import com.unicorn.rest.server.filter.model.Permission;
 
 public interface AccessControlPolicyRepository {
     /**
@@ -21,4 +25,34 @@ public interface AccessControlPolicyRepository {
      */
     public List<String> getAccessControlPolicy(@Nullable String action, @Nullable String resourceIdentifier) 
             throws ValidationException, DuplicateKeyException, RepositoryServerException;
+
+    /**
+     * Create access control policy for action on resource by requester
+     * 
+     * @param accessControlPolicy @Nullable
+     * @throws ValidationException if request is invalid
+     * @throws DuplicateKeyException if access control policy with same action on same resource already exists
+     * @throws RepositoryServerException internal server error
+     */
+    public void createAccessControlPolicy(@Nullable AccessControlPolicy accessControlPolicy) 
+            throws ValidationException, DuplicateKeyException, RepositoryServerException;
+
+    /**
+     * Revoke existing access control policy for action on resource by requester
+     * 
+     * @param permission @Nullable
+     * @throws ValidationException if request is invalid
+     * @throws ItemNotFoundException if access control policy attempted to revoke does not exist
+     * @throws RepositoryServerException internal server error
+     */
+    public void revokeAccessControlPolicy(@Nullable Permission permission) 
+            throws ValidationException, ItemNotFoundException, RepositoryServerException;
+
+    /**
+     * Invalidate the loaded access control policy for action on resource once it is changed
+     * 
+     * @param action @Nonnull
+     * @param resourceIdentifier @Nonnull
+     */
+    public void invalidateAccessControlPolicy(@Nonnull String action, @Nonnull String resourceIdentifier);
 }
@@ -0,0 +1,32 @@
+package com.unicorn.rest.repository;
+
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.AutocompleteSuggestion;
+
+public interface AutocompleteRepository {
+
+    /**
+     * Suggest the restaurant and dish names any word of which starts with the prefix typed so far,
+     * e.g. both "noodles" and "spicy noo" suggest "Spicy Noodles"
+     *
+     * @param prefix @Nullable
+     * @param limit the max number of suggestions
+     * @return the suggestions in descending order of popularity @Nonnull
+     * @throws ValidationException if request is invalid
+     */
+    public @Nonnull List<AutocompleteSuggestion> suggest(@Nullable String prefix, int limit)
+            throws ValidationException;
+
+    /**
+     * Rename the restaurant suggested, which has no effect if the restaurant does not have menu
+     *
+     * @param restaurantId @Nonnull
+     * @param restaurantName @Nonnull
+     */
+    public void updateRestaurantName(@Nonnull Long restaurantId, @Nonnull String restaurantName);
+}
@@ -0,0 +1,89 @@
+package com.unicorn.rest.repository;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.StaleDataException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.ItemAvailability;
+import com.unicorn.rest.repository.model.MenuItem;
+
+/**
+ * The real-time availability of the menu items, which is held in memory and layered over the menu snapshot at read time,
+ * so that the kitchen marks the item sold out without publishing the menu.
+ */
+public interface ItemAvailabilityRepository {
+
+    /**
+     * Set the status of the item, which is persisted into the ITEM_AVAILABILITY table and applied to this server at once
+     *
+     * @param restaurantId @Nullable
+     * @param itemId @Nullable
+     * @param soldOut false if not provided @Nullable
+     * @param stock the portions left, NULL to stop tracking the stock @Nullable
+     * @return @Nonnull
+     * @throws ValidationException if request is invalid
+     * @throws RepositoryServerException internal server error
+     */
+    public @Nonnull ItemAvailability updateItemAvailability(@Nullable Long restaurantId, @Nullable Long itemId, @Nullable Boolean soldOut,
+            @Nullable Long stock)
+            throws ValidationException, RepositoryServerException;
+
+    /**
+     * Atomically add to or take from the stock of the item, which is shared by all the servers
+     *
+     * @param restaurantId @Nullable
+     * @param itemId @Nullable
+     * @param delta negative to take the stock @Nullable
+     * @return @Nonnull
+     * @throws ValidationException if request is invalid
+     * @throws StaleDataException if the item does not track the stock or has less stock than taken
+     * @throws RepositoryServerException internal server error
+     */
+    public @Nonnull ItemAvailability adjustStock(@Nullable Long restaurantId, @Nullable Long itemId, @Nullable Long delta)
+            throws ValidationException, StaleDataException, RepositoryServerException;
+
+    /**
+     * @param restaurantId @Nullable
+     * @return the unmodifiable view of the availabilities by item_id, empty if the restaurant has none @Nonnull
+     * @throws ValidationException if request is invalid
+     */
+    public @Nonnull Map<Long, ItemAvailability> getItemAvailabilities(@Nullable Long restaurantId)
+            throws ValidationException;
+
+    /**
+     * @param restaurantId @Nonnull
+     * @param items @Nonnull
+     * @return the items available, which is the same list if all of them are @Nonnull
+     */
+    public @Nonnull List<MenuItem> filterAvailableItems(@Nonnull Long restaurantId, @Nonnull List<MenuItem> items);
+
+    /**
+     * @param restaurantId @Nonnull
+     * @param itemId @Nonnull
+     * @return false if the item is sold out or out of stock
+     */
+    public boolean isItemAvailable(@Nonnull Long restaurantId, @Nonnull Long itemId);
+
+    /**
+     * Apply the availabilities updated through other servers since the last poll from the change feed
+     *
+     * @return the number of availabilities applied
+     * @throws RepositoryServerException internal server error
+     */
+    public int pollItemAvailabilities()
+            throws RepositoryServerException;
+
+    /**
+     * Load all the availabilities from the ITEM_AVAILABILITY table, and start the change feed from the time of the load
+     *
+     * @return the number of availabilities loaded
+     * @throws RepositoryServerException internal server error
+     */
+    public int reloadItemAvailabilities()
+            throws RepositoryServerException;
+}
@@ -0,0 +1,20 @@
+package com.unicorn.rest.repository;
+
+import javax.annotation.Nullable;
+
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.MenuImportRow;
+
+/**
+ * Read the rows of the bulk menu import one at a time from the upload, so that the upload is never held in memory as a whole
+ */
+public interface MenuImportReader {
+
+    /**
+     * The row which can be read but not as a menu item is returned with the invalid reason, and the reading goes on after it
+     *
+     * @return NULL if there is no more row
+     * @throws ValidationException if the upload is malformed, after which nothing more can be read
+     */
+    public @Nullable MenuImportRow readRow() throws ValidationException;
+}
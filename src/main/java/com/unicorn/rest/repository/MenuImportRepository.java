@@ -0,0 +1,37 @@
+package com.unicorn.rest.repository;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.unicorn.rest.repository.exception.ItemNotFoundException;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.MenuImportJob;
+
+public interface MenuImportRepository {
+
+    /**
+     * Read the rows of the upload on the calling thread, and publish the menu of each restaurant in the background as soon as its rows are read,
+     * which replaces the whole menu of the restaurant. The rows of one restaurant are expected to be contiguous in the upload.
+     *
+     * @param ownerPrincipal the owner of all the restaurants imported @Nullable
+     * @param menuImportReader @Nullable
+     * @return the job once the whole upload is read, which may still be publishing @Nonnull
+     * @throws ValidationException if request is invalid
+     * @throws RepositoryServerException internal server error
+     */
+    public @Nonnull MenuImportJob importMenus(@Nullable Long ownerPrincipal, @Nullable MenuImportReader menuImportReader)
+            throws ValidationException, RepositoryServerException;
+
+    /**
+     * Get the job started on this server, which is kept for a while after it completes
+     *
+     * @param jobId @Nullable
+     * @param ownerPrincipal @Nullable
+     * @return @Nonnull
+     * @throws ValidationException if request is invalid
+     * @throws ItemNotFoundException if the job does not exist or is started by another owner
+     */
+    public @Nonnull MenuImportJob getImportJob(@Nullable Long jobId, @Nullable Long ownerPrincipal)
+            throws ValidationException, ItemNotFoundException;
+}
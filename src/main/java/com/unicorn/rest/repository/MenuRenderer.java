@@ -0,0 +1,41 @@
+package com.unicorn.rest.repository;
+
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.unicorn.rest.repository.model.Menu;
+import com.unicorn.rest.repository.model.MenuTranslation;
+import com.unicorn.rest.repository.model.RenderedMenu;
+
+/**
+ * Render the response body of the menu version, which is called once when the version is loaded into MenuRepository,
+ * and again only when the popularity of its items is materialized
+ */
+public interface MenuRenderer {
+
+    /**
+     * @param menu @Nonnull
+     * @return @Nonnull
+     * @throws IllegalStateException if the menu cannot be rendered
+     */
+    public @Nonnull RenderedMenu render(@Nonnull Menu menu);
+
+    /**
+     * @param menu @Nonnull
+     * @param translation the string table the texts of the menu are rendered in, the language published if NULL @Nullable
+     * @return @Nonnull
+     * @throws IllegalStateException if the menu cannot be rendered
+     */
+    public @Nonnull RenderedMenu render(@Nonnull Menu menu, @Nullable MenuTranslation translation);
+
+    /**
+     * @param menu @Nonnull
+     * @param translation the string table the texts of the menu are rendered in, the language published if NULL @Nullable
+     * @param popularItemIds the items on the menu in descending order of popularity, empty if not materialized yet @Nonnull
+     * @return @Nonnull
+     * @throws IllegalStateException if the menu cannot be rendered
+     */
+    public @Nonnull RenderedMenu render(@Nonnull Menu menu, @Nullable MenuTranslation translation, @Nonnull List<Long> popularItemIds);
+}
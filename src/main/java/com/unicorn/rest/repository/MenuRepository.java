@@ -0,0 +1,129 @@
+package com.unicorn.rest.repository;
+
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.unicorn.rest.repository.exception.ItemNotFoundException;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.StaleDataException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.AvailabilityWindow;
+import com.unicorn.rest.repository.model.MenuItem;
+import com.unicorn.rest.repository.model.MenuSnapshot;
+import com.unicorn.rest.repository.model.MenuTranslation;
+
+public interface MenuRepository {
+
+    /**
+     * Get the snapshot of the latest menu version in memory, which only reads through the MENU table before the menus are loaded
+     *
+     * @param restaurantId @Nullable
+     * @return @Nonnull
+     * @throws ValidationException if request is invalid
+     * @throws ItemNotFoundException if the restaurant does not have menu
+     * @throws RepositoryServerException internal server error while reading through the MENU table
+     */
+    public @Nonnull MenuSnapshot getMenu(@Nullable Long restaurantId)
+            throws ValidationException, ItemNotFoundException, RepositoryServerException;
+
+    /**
+     * Replace the whole menu of the restaurant with a new version, which is persisted into the MENU table
+     * before it is swapped into memory
+     *
+     * @param restaurantId @Nullable
+     * @param items @Nullable
+     * @return the snapshot of the new version @Nonnull
+     * @throws ValidationException if request is invalid
+     * @throws StaleDataException if the menu keeps being published concurrently
+     * @throws RepositoryServerException internal server error
+     */
+    public @Nonnull MenuSnapshot publishMenu(@Nullable Long restaurantId, @Nullable List<MenuItem> items)
+            throws ValidationException, StaleDataException, RepositoryServerException;
+
+    /**
+     * Replace the whole menu of the restaurant with a new version available within the windows in the local time of the restaurant
+     *
+     * @param restaurantId @Nullable
+     * @param timeZone the time zone ID of the restaurant, UTC if not provided @Nullable
+     * @param availability the windows the menu is available within, all the time if empty @Nullable
+     * @param items @Nullable
+     * @return the snapshot of the new version @Nonnull
+     * @throws ValidationException if request is invalid
+     * @throws StaleDataException if the menu keeps being published concurrently
+     * @throws RepositoryServerException internal server error
+     */
+    public @Nonnull MenuSnapshot publishMenu(@Nullable Long restaurantId, @Nullable String timeZone,
+            @Nullable List<AvailabilityWindow> availability, @Nullable List<MenuItem> items)
+            throws ValidationException, StaleDataException, RepositoryServerException;
+
+    /**
+     * Replace the whole menu of the restaurant with a new version translated into the locales,
+     * whose response bodies are rendered for each of the locales before the version is swapped in
+     *
+     * @param restaurantId @Nullable
+     * @param timeZone the time zone ID of the restaurant, UTC if not provided @Nullable
+     * @param availability the windows the menu is available within, all the time if empty @Nullable
+     * @param language the locale the texts of the menu are in, not declared if not provided @Nullable
+     * @param translations the string tables of the menu by locale, where the texts no longer on the menu are dropped @Nullable
+     * @param items @Nullable
+     * @return the snapshot of the new version @Nonnull
+     * @throws ValidationException if request is invalid
+     * @throws StaleDataException if the menu keeps being published concurrently
+     * @throws RepositoryServerException internal server error
+     */
+    public @Nonnull MenuSnapshot publishMenu(@Nullable Long restaurantId, @Nullable String timeZone,
+            @Nullable List<AvailabilityWindow> availability, @Nullable String language, @Nullable List<MenuTranslation> translations,
+            @Nullable List<MenuItem> items)
+            throws ValidationException, StaleDataException, RepositoryServerException;
+
+    /**
+     * @param restaurantId @Nullable
+     * @throws ValidationException if request is invalid
+     * @throws ItemNotFoundException if the restaurant does not have menu
+     * @throws RepositoryServerException internal server error
+     */
+    public void deleteMenu(@Nullable Long restaurantId)
+            throws ValidationException, ItemNotFoundException, RepositoryServerException;
+
+    /**
+     * Load the latest version of all the menus from the MENU table into memory with a full Scan,
+     * which is only meant for loading the menus at startup.
+     *
+     * @return the number of menus loaded
+     * @throws RepositoryServerException internal server error
+     */
+    public int reloadMenus()
+            throws RepositoryServerException;
+
+    /**
+     * Pick up the menus published or deleted through other servers since the last poll from the change feed of the MENU table,
+     * or load all the menus if they have not been loaded yet
+     *
+     * @return the number of menus changed, or loaded if they have not been loaded yet
+     * @throws RepositoryServerException internal server error
+     */
+    public int pollMenus()
+            throws RepositoryServerException;
+
+    /**
+     * Swap in the current version of the menu rendered again with the popular items, which is held in memory only and is not a new version.
+     * The popular items are carried over to the versions published or reloaded afterwards, minus the items no longer on the menu.
+     *
+     * @param restaurantId @Nullable
+     * @param popularItemIds the items in descending order of popularity, where the items not on the menu are ignored @Nullable
+     * @return false if the popular items are unchanged, or the menu is published or removed meanwhile
+     * @throws ValidationException if request is invalid
+     */
+    public boolean updatePopularItems(@Nullable Long restaurantId, @Nullable List<Long> popularItemIds)
+            throws ValidationException;
+
+    /**
+     * Register the listener to the changes of the menu snapshots.
+     * The snapshots already in memory are delivered to the listener right away.
+     *
+     * @param menuSnapshotListener @Nonnull
+     */
+    public void addMenuSnapshotListener(@Nonnull MenuSnapshotListener menuSnapshotListener);
+}
@@ -0,0 +1,25 @@
+package com.unicorn.rest.repository;
+
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.MenuSearchHit;
+
+public interface MenuSearchRepository {
+
+    /**
+     * Search the items of all the menus by their names, descriptions and tags.
+     * An item matches if it has every term of the query, and the hits are ranked by BM25.
+     *
+     * @param query the free text query @Nullable
+     * @param prefix true if the last term of the query is a prefix of the term to match, e.g. while the diner is still typing it
+     * @param limit the max number of hits
+     * @return the hits in descending order of relevance @Nonnull
+     * @throws ValidationException if request is invalid
+     */
+    public @Nonnull List<MenuSearchHit> searchMenuItems(@Nullable String query, boolean prefix, int limit)
+            throws ValidationException;
+}
@@ -0,0 +1,26 @@
+package com.unicorn.rest.repository;
+
+import java.util.Collection;
+
+import javax.annotation.Nonnull;
+
+import com.unicorn.rest.repository.model.MenuSnapshot;
+
+/**
+ * Keep the in-memory views derived from the menus, e.g. the search index, up to date with the menu snapshots.
+ *
+ * The listener is called after the snapshots are swapped in, on the thread swapping them in. The same snapshot may be delivered more than once,
+ * and the snapshots of the same restaurant may be delivered out of order, so the listener has to ignore the versions older than it has.
+ */
+public interface MenuSnapshotListener {
+
+    /**
+     * @param menuSnapshots the snapshots installed together, at most one per restaurant @Nonnull
+     */
+    public void onMenusInstalled(@Nonnull Collection<MenuSnapshot> menuSnapshots);
+
+    /**
+     * @param restaurantId the restaurant whose menu no longer exists @Nonnull
+     */
+    public void onMenuRemoved(@Nonnull Long restaurantId);
+}
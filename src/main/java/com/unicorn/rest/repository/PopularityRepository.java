@@ -0,0 +1,49 @@
+package com.unicorn.rest.repository;
+
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.unicorn.rest.repository.exception.ItemNotFoundException;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.ItemEvent;
+
+/**
+ * The popularity of the menu items aggregated from the views and orders into time-decayed counts per restaurant shared by all the servers,
+ * which are ranked into the popular items periodically rather than at read time.
+ * The popular items are materialized into the menu snapshot, and are the same on every server, so that the rendered menu and its entity tags are too.
+ */
+public interface PopularityRepository {
+
+    /**
+     * Count the events towards the popularity of the items, where the events of the items no longer on the menu are dropped
+     *
+     * @param restaurantId @Nullable
+     * @param itemEvents @Nullable
+     * @return the number of events counted
+     * @throws ValidationException if request is invalid
+     * @throws ItemNotFoundException if the restaurant does not have menu
+     * @throws RepositoryServerException internal server error
+     */
+    public int recordItemEvents(@Nullable Long restaurantId, @Nullable List<ItemEvent> itemEvents)
+            throws ValidationException, ItemNotFoundException, RepositoryServerException;
+
+    /**
+     * @param restaurantId @Nullable
+     * @return the items on the menu in descending order of popularity as materialized into the menu snapshot, empty if none @Nonnull
+     * @throws ValidationException if request is invalid
+     * @throws ItemNotFoundException if the restaurant does not have menu
+     * @throws RepositoryServerException internal server error
+     */
+    public @Nonnull List<Long> getPopularItems(@Nullable Long restaurantId)
+            throws ValidationException, ItemNotFoundException, RepositoryServerException;
+
+    /**
+     * Add the events counted on this server to the shared counts, and materialize the popular items of every restaurant ranked from them
+     *
+     * @return the number of restaurants whose popular items changed
+     */
+    public int materializePopularItems();
+}
@@ -0,0 +1,54 @@
+package com.unicorn.rest.repository;
+
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.GeoLocation;
+import com.unicorn.rest.repository.model.RestaurantDistance;
+
+public interface RestaurantLocationRepository {
+
+    /**
+     * Put the location of the restaurant into the RESTAURANT_LOCATION table and the spatial index of this server.
+     * The servers other than this one pick up the change with the next reload.
+     *
+     * @param restaurantId @Nullable
+     * @param location the new location, or NULL if the restaurant no longer has location @Nullable
+     * @throws ValidationException if request is invalid
+     * @throws RepositoryServerException internal server error
+     */
+    public void updateRestaurantLocation(@Nullable Long restaurantId, @Nullable GeoLocation location)
+            throws ValidationException, RepositoryServerException;
+
+    /**
+     * @param center @Nullable
+     * @param radiusInMeters no more than MAX_RADIUS_IN_METERS
+     * @param limit the max number of restaurants
+     * @return the restaurants within the radius of the center, in ascending order of distance @Nonnull
+     * @throws ValidationException if request is invalid
+     */
+    public @Nonnull List<RestaurantDistance> findRestaurantsWithinRadius(@Nullable GeoLocation center, double radiusInMeters, int limit)
+            throws ValidationException;
+
+    /**
+     * @param center @Nullable
+     * @param limit the max number of restaurants
+     * @return the nearest restaurants to the center within MAX_RADIUS_IN_METERS, in ascending order of distance @Nonnull
+     * @throws ValidationException if request is invalid
+     */
+    public @Nonnull List<RestaurantDistance> findNearestRestaurants(@Nullable GeoLocation center, int limit)
+            throws ValidationException;
+
+    /**
+     * Rebuild the spatial index from the RESTAURANT_LOCATION table
+     *
+     * @return the number of restaurants indexed
+     * @throws RepositoryServerException internal server error
+     */
+    public int reloadRestaurantLocations()
+            throws RepositoryServerException;
+}
@@ -0,0 +1,89 @@
+package com.unicorn.rest.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.unicorn.rest.repository.exception.DuplicateKeyException;
+import com.unicorn.rest.repository.exception.ItemNotFoundException;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.GeoLocation;
+import com.unicorn.rest.repository.model.Restaurant;
+
+public interface RestaurantRepository {
+
+    /**
+     * Generate universally unique restaurant_id using SimpleflakeKeyGenerator
+     * and create the restaurant owned by the customer principal into the RESTAURANT table
+     * 
+     * @param ownerPrincipal @Nullable
+     * @param restaurantName @Nullable
+     * @param restaurantDescription @Nullable
+     * @param location @Nullable
+     * @return the restaurant created @Nonnull
+     * @throws ValidationException if request is invalid
+     * @throws DuplicateKeyException if the generated restaurant_id already exists
+     * @throws RepositoryServerException internal server error
+     */
+    public @Nonnull Restaurant registerRestaurant(@Nullable Long ownerPrincipal, @Nullable String restaurantName, @Nullable String restaurantDescription, 
+            @Nullable GeoLocation location) 
+            throws ValidationException, DuplicateKeyException, RepositoryServerException;
+
+    /**
+     * @param restaurantId @Nullable
+     * @return @Nonnull
+     * @throws ValidationException if request is invalid
+     * @throws ItemNotFoundException if restaurant_id does not exist
+     * @throws RepositoryServerException internal server error
+     */
+    public @Nonnull Restaurant getRestaurant(@Nullable Long restaurantId) 
+            throws ValidationException, ItemNotFoundException, RepositoryServerException;
+
+    /**
+     * Get the restaurants not cached yet in one batch
+     * 
+     * @param restaurantIds @Nullable
+     * @return the restaurants found, in the order of restaurantIds. The restaurant_id which does not exist is skipped @Nonnull
+     * @throws ValidationException if request is invalid
+     * @throws RepositoryServerException internal server error
+     */
+    public @Nonnull List<Restaurant> getRestaurants(@Nullable Collection<Long> restaurantIds) 
+            throws ValidationException, RepositoryServerException;
+
+    /**
+     * @param ownerPrincipal @Nullable
+     * @return the restaurants owned by the customer principal @Nonnull
+     * @throws ValidationException if request is invalid
+     * @throws RepositoryServerException internal server error
+     */
+    public @Nonnull List<Restaurant> getRestaurantsForOwner(@Nullable Long ownerPrincipal) 
+            throws ValidationException, RepositoryServerException;
+
+    /**
+     * @param ownerPrincipal @Nullable
+     * @param restaurantId @Nullable
+     * @param restaurantName @Nullable
+     * @param restaurantDescription @Nullable
+     * @param location @Nullable
+     * @return the updated restaurant @Nonnull
+     * @throws ValidationException if request is invalid
+     * @throws ItemNotFoundException if restaurant_id does not exist or is not owned by the owner principal
+     * @throws RepositoryServerException internal server error
+     */
+    public @Nonnull Restaurant updateRestaurant(@Nullable Long ownerPrincipal, @Nullable Long restaurantId, 
+            @Nullable String restaurantName, @Nullable String restaurantDescription, @Nullable GeoLocation location) 
+            throws ValidationException, ItemNotFoundException, RepositoryServerException;
+
+    /**
+     * @param ownerPrincipal @Nullable
+     * @param restaurantId @Nullable
+     * @throws ValidationException if request is invalid
+     * @throws ItemNotFoundException if restaurant_id does not exist or is not owned by the owner principal
+     * @throws RepositoryServerException internal server error
+     */
+    public void deleteRestaurant(@Nullable Long ownerPrincipal, @Nullable Long restaurantId) 
+            throws ValidationException, ItemNotFoundException, RepositoryServerException;
+}
@@ -1,31 +1,227 @@
 package com.unicorn.rest.repository.impl;
 
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
+import javax.annotation.Nonnull;
 import javax.inject.Inject;
 
 import com.unicorn.rest.repository.AccessControlPolicyRepository;
 import com.unicorn.rest.repository.exception.DuplicateKeyException;
+import com.unicorn.rest.repository.exception.ItemNotFoundException;
 import com.unicorn.rest.repository.exception.RepositoryServerException;
 import com.unicorn.rest.repository.exception.ValidationException;
 import com.unicorn.rest.repository.table.AccessControlPolicyTable;
+import com.unicorn.rest.server.admin.StatsProvider;
+import com.unicorn.rest.server.filter.model.AccessControlPolicy;
+import com.unicorn.rest.server.filter.model.Permission;
+import com.unicorn.rest.utils.LRUCache;
 
-public class AccessControlPolicyRepositoryImpl implements AccessControlPolicyRepository {
+/**
+ * All the access control policies are preloaded in bulk with a paginated Scan at startup, and refreshed in the background 
+ * by AccessControlPolicyRepositoryFactory, so that the checks on the hot resources, e.g. the restaurants, never read the table.
+ * 
+ * The policy created through other servers since the last refresh is read through from the table and kept until the next refresh.
+ * The policy which does not exist is remembered until the next refresh as well, since most of the resources do not have their own policy
+ * and would otherwise hit the table on every check. Those are bounded LRU caches per action, as any resource can be asked for.
+ * 
+ * Nothing expires here by TTL. AccessControlPolicyEvaluator caches the compiled policies with TTL on top of this repository, 
+ * which is the only TTL layer, and reloads the expired policy from here without reading the table.
+ * 
+ * The changes made through this server invalidate the policy directly. Every invalidation bumps the version, and a policy loaded 
+ * before the invalidation is not kept, so that a slow load cannot bring back the stale policy. 
+ * The policies invalidated while the refresh is scanning the table are dropped from what the refresh has loaded.
+ */
+public class AccessControlPolicyRepositoryImpl implements AccessControlPolicyRepository, StatsProvider {
+
+    public static final int MAX_NOT_PRELOADED_POLICIES_PER_ACTION = 50000;
+    /*
+     * The marker of the policy which does not exist, compared by identity
+     */
+    private static final List<String> NULL_CONDITIONS = Collections.unmodifiableList(new ArrayList<String>(0));
 
     @Inject
     private AccessControlPolicyTable accessControlPolicyTable;
-    
+
+    /*
+     * action -> resourceIdentifier -> allowing conditions, replaced as a whole by every refresh
+     */
+    private volatile ConcurrentMap<String, ConcurrentMap<String, List<String>>> preloadedPolicies = new ConcurrentHashMap<>();
+    /*
+     * action -> resourceIdentifier -> allowing conditions, or NULL_CONDITIONS if the policy does not exist, cleared by every refresh
+     */
+    private final ConcurrentMap<String, LRUCache<String, List<String>>> loadedPolicies = new ConcurrentHashMap<>();
+    /*
+     * NULL unless the refresh is scanning the table
+     */
+    private volatile Set<Map.Entry<String, String>> invalidatedPolicies;
+    private final AtomicLong version = new AtomicLong();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder refreshCount = new LongAdder();
+    private volatile int preloadedCount;
+
     @Inject
     public AccessControlPolicyRepositoryImpl(AccessControlPolicyTable accessControlPolicyTable) {
         this.accessControlPolicyTable = accessControlPolicyTable;
     }
 
     @Override
-    public List<String> getAccessControlPolicy(String action,
-            String resourceIdentifier) throws ValidationException,
-            DuplicateKeyException, RepositoryServerException {
-        // TODO Auto-generated method stub
-        return null;
+    public List<String> getAccessControlPolicy(String action, String resourceIdentifier) 
+            throws ValidationException, DuplicateKeyException, RepositoryServerException {
+        if (action == null || resourceIdentifier == null) {
+            throw new ValidationException(String.format("Expecting non-null request paramter for getAccessControlPolicy, but received: action=%s, resourceIdentifier=%s", 
+                    action, resourceIdentifier));
+        }
+        ConcurrentMap<String, List<String>> preloadedPoliciesForAction = preloadedPolicies.get(action);
+        List<String> allowingConditions = preloadedPoliciesForAction == null ? null : preloadedPoliciesForAction.get(resourceIdentifier);
+        if (allowingConditions == null) {
+            LRUCache<String, List<String>> loadedPoliciesForAction = getLoadedPoliciesForAction(action);
+            allowingConditions = loadedPoliciesForAction.get(resourceIdentifier);
+            if (allowingConditions == null) {
+                missCount.increment();
+                long loadVersion = version.get();
+                try {
+                    allowingConditions = Collections.unmodifiableList(accessControlPolicyTable.getAccessControlPolicy(action, resourceIdentifier));
+                } catch (DuplicateKeyException notFound) {
+                    allowingConditions = NULL_CONDITIONS;
+                }
+                if (version.get() == loadVersion) {
+                    loadedPoliciesForAction.put(resourceIdentifier, allowingConditions);
+                }
+            } else {
+                hitCount.increment();
+            }
+        } else {
+            hitCount.increment();
+        }
+
+        if (allowingConditions == NULL_CONDITIONS) {
+            throw new DuplicateKeyException();
+        }
+        return allowingConditions;
+    }
+
+    /**
+     * Replace all the policies with those scanned from the table
+     * 
+     * @return the number of policies preloaded
+     * @throws RepositoryServerException internal server error, where the policies preloaded before are kept
+     */
+    public synchronized int refreshAccessControlPolicies() throws RepositoryServerException {
+        Set<Map.Entry<String, String>> invalidatedPoliciesDuringRefresh = Collections.newSetFromMap(new ConcurrentHashMap<Map.Entry<String, String>, Boolean>());
+        invalidatedPolicies = invalidatedPoliciesDuringRefresh;
+        try {
+            ConcurrentMap<String, ConcurrentMap<String, List<String>>> refreshedPolicies = new ConcurrentHashMap<>();
+            List<AccessControlPolicy> accessControlPolicies = accessControlPolicyTable.getAccessControlPolicies();
+            for (AccessControlPolicy accessControlPolicy : accessControlPolicies) {
+                Permission permission = accessControlPolicy.getPermission();
+                ConcurrentMap<String, List<String>> refreshedPoliciesForAction = refreshedPolicies.get(permission.getAction());
+                if (refreshedPoliciesForAction == null) {
+                    refreshedPoliciesForAction = new ConcurrentHashMap<>();
+                    refreshedPolicies.put(permission.getAction(), refreshedPoliciesForAction);
+                }
+                refreshedPoliciesForAction.put(permission.getResourceIdentifier(), Collections.unmodifiableList(accessControlPolicy.getAllowingConditions()));
+            }
+            version.incrementAndGet();
+            preloadedPolicies = refreshedPolicies;
+            loadedPolicies.clear();
+            /*
+             * The invalidation removes the policy from the current policies once it is recorded, 
+             * so the one recorded before the replacement has to be removed from the refreshed policies
+             */
+            for (Map.Entry<String, String> invalidatedPolicy : invalidatedPoliciesDuringRefresh) {
+                removePreloadedPolicy(refreshedPolicies, invalidatedPolicy.getKey(), invalidatedPolicy.getValue());
+            }
+            refreshCount.increment();
+            preloadedCount = accessControlPolicies.size();
+            return accessControlPolicies.size();
+        } finally {
+            invalidatedPolicies = null;
+        }
+    }
+
+    @Override
+    public void createAccessControlPolicy(AccessControlPolicy accessControlPolicy) 
+            throws ValidationException, DuplicateKeyException, RepositoryServerException {
+        accessControlPolicyTable.createAccessControlPolicy(accessControlPolicy);
+        Permission permission = accessControlPolicy.getPermission();
+        invalidateAccessControlPolicy(permission.getAction(), permission.getResourceIdentifier());
+    }
+
+    @Override
+    public void revokeAccessControlPolicy(Permission permission) 
+            throws ValidationException, ItemNotFoundException, RepositoryServerException {
+        accessControlPolicyTable.revokeAccessControlPolicy(permission);
+        invalidateAccessControlPolicy(permission.getAction(), permission.getResourceIdentifier());
+    }
+
+    @Override
+    public void invalidateAccessControlPolicy(String action, String resourceIdentifier) {
+        Set<Map.Entry<String, String>> invalidatedPoliciesDuringRefresh = invalidatedPolicies;
+        if (invalidatedPoliciesDuringRefresh != null) {
+            invalidatedPoliciesDuringRefresh.add(new AbstractMap.SimpleImmutableEntry<>(action, resourceIdentifier));
+        }
+        version.incrementAndGet();
+        removePreloadedPolicy(preloadedPolicies, action, resourceIdentifier);
+        LRUCache<String, List<String>> loadedPoliciesForAction = loadedPolicies.get(action);
+        if (loadedPoliciesForAction != null) {
+            loadedPoliciesForAction.remove(resourceIdentifier);
+        }
+    }
+
+    @Override
+    public @Nonnull Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        int preloadedSize = 0;
+        for (ConcurrentMap<String, List<String>> preloadedPoliciesForAction : preloadedPolicies.values()) {
+            preloadedSize += preloadedPoliciesForAction.size();
+        }
+        int loadedSize = 0;
+        long evictionCount = 0;
+        for (LRUCache<String, List<String>> loadedPoliciesForAction : loadedPolicies.values()) {
+            loadedSize += loadedPoliciesForAction.size();
+            evictionCount += loadedPoliciesForAction.getEvictionCount();
+        }
+        stats.put("size", preloadedSize + loadedSize);
+        stats.put("preloaded_size", preloadedSize);
+        stats.put("loaded_size", loadedSize);
+        stats.put("hit_count", hitCount.sum());
+        stats.put("miss_count", missCount.sum());
+        stats.put("eviction_count", evictionCount);
+        stats.put("preload_count", preloadedCount);
+        stats.put("refresh_count", refreshCount.sum());
+        stats.put("version", version.get());
+        return stats;
+    }
+
+    private @Nonnull LRUCache<String, List<String>> getLoadedPoliciesForAction(@Nonnull String action) {
+        LRUCache<String, List<String>> loadedPoliciesForAction = loadedPolicies.get(action);
+        if (loadedPoliciesForAction == null) {
+            loadedPoliciesForAction = new LRUCache<>(MAX_NOT_PRELOADED_POLICIES_PER_ACTION);
+            LRUCache<String, List<String>> existing = loadedPolicies.putIfAbsent(action, loadedPoliciesForAction);
+            if (existing != null) {
+                loadedPoliciesForAction = existing;
+            }
+        }
+        return loadedPoliciesForAction;
+    }
+
+    private static void removePreloadedPolicy(@Nonnull ConcurrentMap<String, ConcurrentMap<String, List<String>>> policies, 
+            @Nonnull String action, @Nonnull String resourceIdentifier) {
+        ConcurrentMap<String, List<String>> policiesForAction = policies.get(action);
+        if (policiesForAction != null) {
+            policiesForAction.remove(resourceIdentifier);
+        }
     }
-    
 }
@@ -0,0 +1,262 @@
+package com.unicorn.rest.repository.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.unicorn.rest.repository.model.AutocompleteSuggestion;
+import com.unicorn.rest.utils.TextTokenizer;
+
+/**
+ * The immutable array-backed trie of the suggestions: the word-start suffixes of the normalized suggestion texts in lexicographic order,
+ * i.e. the leaves of the trie in order, where the suffixes starting with a prefix are one contiguous range found by binary search.
+ *
+ * The suggestions are numbered by rank in descending order of popularity when the index is built, and the segment tree over the ranks
+ * of the suffixes answers the most popular suggestion within any range in O(log n), so that the top k suggestions of a prefix
+ * are popped in O(k log n) no matter how many suggestions share the prefix.
+ */
+class AutocompleteIndex {
+
+    /*
+     * The suggestion matches from any of its first words, e.g. "noo" matches "Spicy Noodles"
+     */
+    public static final int MAX_WORD_STARTS_PER_SUGGESTION = 8;
+
+    protected static final Comparator<AutocompleteSuggestion> BY_POPULARITY = new Comparator<AutocompleteSuggestion>() {
+        @Override
+        public int compare(AutocompleteSuggestion suggestion, AutocompleteSuggestion otherSuggestion) {
+            int comparePopularity = Integer.compare(otherSuggestion.getPopularity(), suggestion.getPopularity());
+            if (comparePopularity != 0) {
+                return comparePopularity;
+            }
+            int compareText = suggestion.getText().compareTo(otherSuggestion.getText());
+            if (compareText != 0) {
+                return compareText;
+            }
+            int compareType = suggestion.getSuggestionType().compareTo(otherSuggestion.getSuggestionType());
+            if (compareType != 0 || suggestion.getRestaurantId() == null || otherSuggestion.getRestaurantId() == null) {
+                return compareType;
+            }
+            return Long.compare(suggestion.getRestaurantId(), otherSuggestion.getRestaurantId());
+        }
+    };
+
+    private static class Suffix implements Comparable<Suffix> {
+        private final String text;
+        private final int rank;
+        private final int offset;
+
+        private Suffix(@Nonnull String text, int rank, int offset) {
+            this.text = text;
+            this.rank = rank;
+            this.offset = offset;
+        }
+
+        @Override
+        public int compareTo(Suffix other) {
+            int compareText = text.compareTo(other.text);
+            return compareText != 0 ? compareText : Integer.compare(rank, other.rank);
+        }
+    }
+
+    private static final AutocompleteIndex EMPTY_INDEX = new AutocompleteIndex(Collections.<AutocompleteSuggestion>emptyList());
+
+    /*
+     * Indexed by rank
+     */
+    private final AutocompleteSuggestion[] suggestions;
+    private final String[] keys;
+    /*
+     * The suffixes in lexicographic order, each of which is the key of the rank starting at the offset
+     */
+    private final int[] suffixRanks;
+    private final int[] suffixOffsets;
+    /*
+     * The bottom-up segment tree of the suffix position with the lowest rank, where the leaves are at [numOfSuffixes, 2 * numOfSuffixes)
+     */
+    private final int[] minRankPositions;
+
+    private AutocompleteIndex(@Nonnull Collection<AutocompleteSuggestion> suggestionsToIndex) {
+        this.suggestions = suggestionsToIndex.toArray(new AutocompleteSuggestion[suggestionsToIndex.size()]);
+        Arrays.sort(suggestions, BY_POPULARITY);
+        this.keys = new String[suggestions.length];
+
+        /*
+         * The suffixes are copied out only while they are sorted, where comparing the strings is much faster than comparing char by char
+         */
+        List<Suffix> suffixes = new ArrayList<>();
+        for (int rank = 0; rank < suggestions.length; rank++) {
+            keys[rank] = normalize(suggestions[rank].getText());
+            int offset = keys[rank].isEmpty() ? -1 : 0;
+            for (int numOfWords = 0; numOfWords < MAX_WORD_STARTS_PER_SUGGESTION && offset >= 0; numOfWords++) {
+                suffixes.add(new Suffix(keys[rank].substring(offset), rank, offset));
+                offset = keys[rank].indexOf(' ', offset);
+                offset = offset < 0 ? -1 : offset + 1;
+            }
+        }
+        Collections.sort(suffixes);
+
+        int numOfSuffixes = suffixes.size();
+        this.suffixRanks = new int[numOfSuffixes];
+        this.suffixOffsets = new int[numOfSuffixes];
+        this.minRankPositions = new int[2 * numOfSuffixes];
+        for (int position = 0; position < numOfSuffixes; position++) {
+            suffixRanks[position] = suffixes.get(position).rank;
+            suffixOffsets[position] = suffixes.get(position).offset;
+            minRankPositions[numOfSuffixes + position] = position;
+        }
+        for (int node = numOfSuffixes - 1; node > 0; node--) {
+            minRankPositions[node] = lowerRankPosition(minRankPositions[2 * node], minRankPositions[2 * node + 1]);
+        }
+    }
+
+    /**
+     * @param suggestionsToIndex the suggestions of distinct identities @Nonnull
+     */
+    public static @Nonnull AutocompleteIndex build(@Nonnull Collection<AutocompleteSuggestion> suggestionsToIndex) {
+        return suggestionsToIndex.isEmpty() ? EMPTY_INDEX : new AutocompleteIndex(suggestionsToIndex);
+    }
+
+    /**
+     * @return the text of the suggestion or the query in the form it is matched, i.e. the case-folded words separated by single spaces @Nonnull
+     */
+    public static @Nonnull String normalize(@Nullable String text) {
+        List<String> terms = TextTokenizer.tokenize(text);
+        StringBuilder normalizedText = new StringBuilder();
+        for (String term : terms) {
+            if (normalizedText.length() > 0) {
+                normalizedText.append(' ');
+            }
+            normalizedText.append(term);
+        }
+        return normalizedText.toString();
+    }
+
+    /**
+     * The suggestion of the same identity replaces one another, e.g. the dish of the same name from another restaurant
+     */
+    public static @Nonnull String getIdentity(@Nonnull AutocompleteSuggestion suggestion) {
+        switch (suggestion.getSuggestionType()) {
+        case RESTAURANT:
+            return "restaurant:" + suggestion.getRestaurantId();
+        default:
+            return "dish:" + normalize(suggestion.getText());
+        }
+    }
+
+    private @Nonnull String getIdentity(int rank) {
+        AutocompleteSuggestion suggestion = suggestions[rank];
+        return suggestion.getRestaurantId() == null ? "dish:" + keys[rank] : getIdentity(suggestion);
+    }
+
+    public int getNumOfSuggestions() {
+        return suggestions.length;
+    }
+
+    public int getNumOfSuffixes() {
+        return suffixRanks.length;
+    }
+
+    /**
+     * @param normalizedPrefix the normalized prefix of any word start of the suggestions @Nonnull
+     * @param limit the max number of suggestions
+     * @param excludedIdentities the identities of the suggestions to skip @Nonnull
+     * @return the suggestions in descending order of popularity @Nonnull
+     */
+    public @Nonnull List<AutocompleteSuggestion> suggest(@Nonnull String normalizedPrefix, int limit, @Nonnull Set<String> excludedIdentities) {
+        int low = searchSuffixes(normalizedPrefix, false);
+        int high = searchSuffixes(normalizedPrefix, true);
+        List<AutocompleteSuggestion> topSuggestions = new ArrayList<>(Math.min(limit, high - low));
+        if (low >= high) {
+            return topSuggestions;
+        }
+        /*
+         * Each range in the queue is split around its most popular suffix once that is popped, so the suffixes are popped in the order of rank
+         */
+        PriorityQueue<int[]> ranges = new PriorityQueue<>(2 * limit + 1, new Comparator<int[]>() {
+            @Override
+            public int compare(int[] range, int[] otherRange) {
+                return Integer.compare(suffixRanks[range[0]], suffixRanks[otherRange[0]]);
+            }
+        });
+        ranges.add(new int[] {minRankPosition(low, high), low, high});
+        Set<Integer> seenRanks = new HashSet<>();
+        while (topSuggestions.size() < limit && !ranges.isEmpty()) {
+            int[] range = ranges.poll();
+            int position = range[0];
+            int rank = suffixRanks[position];
+            if (seenRanks.add(rank) && (excludedIdentities.isEmpty() || !excludedIdentities.contains(getIdentity(rank)))) {
+                topSuggestions.add(suggestions[rank]);
+            }
+            if (range[1] < position) {
+                ranges.add(new int[] {minRankPosition(range[1], position), range[1], position});
+            }
+            if (position + 1 < range[2]) {
+                ranges.add(new int[] {minRankPosition(position + 1, range[2]), position + 1, range[2]});
+            }
+        }
+        return topSuggestions;
+    }
+
+    /*
+     * @return the first position of the suffix starting with the prefix, or after the last such suffix if pastPrefix
+     */
+    private int searchSuffixes(@Nonnull String normalizedPrefix, boolean pastPrefix) {
+        int low = 0;
+        int high = suffixRanks.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int compare = compareToPrefix(keys[suffixRanks[middle]], suffixOffsets[middle], normalizedPrefix);
+            if (compare < 0 || (pastPrefix && compare == 0)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /*
+     * @return zero if the suffix starts with the prefix
+     */
+    private static int compareToPrefix(@Nonnull String key, int offset, @Nonnull String normalizedPrefix) {
+        int length = Math.min(key.length() - offset, normalizedPrefix.length());
+        for (int i = 0; i < length; i++) {
+            int compareChar = Character.compare(key.charAt(offset + i), normalizedPrefix.charAt(i));
+            if (compareChar != 0) {
+                return compareChar;
+            }
+        }
+        return key.length() - offset < normalizedPrefix.length() ? -1 : 0;
+    }
+
+    /*
+     * @return the position of the lowest rank within [low, high)
+     */
+    private int minRankPosition(int low, int high) {
+        int numOfSuffixes = suffixRanks.length;
+        int minPosition = low;
+        for (low += numOfSuffixes, high += numOfSuffixes; low < high; low >>= 1, high >>= 1) {
+            if ((low & 1) == 1) {
+                minPosition = lowerRankPosition(minPosition, minRankPositions[low++]);
+            }
+            if ((high & 1) == 1) {
+                minPosition = lowerRankPosition(minPosition, minRankPositions[--high]);
+            }
+        }
+        return minPosition;
+    }
+
+    private int lowerRankPosition(int position, int otherPosition) {
+        return suffixRanks[otherPosition] < suffixRanks[position] ? otherPosition : position;
+    }
+}
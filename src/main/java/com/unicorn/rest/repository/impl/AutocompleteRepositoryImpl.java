@@ -0,0 +1,396 @@
+package com.unicorn.rest.repository.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.unicorn.rest.repository.AutocompleteRepository;
+import com.unicorn.rest.repository.MenuSnapshotListener;
+import com.unicorn.rest.repository.RestaurantRepository;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.AutocompleteSuggestion;
+import com.unicorn.rest.repository.model.AutocompleteSuggestion.SuggestionType;
+import com.unicorn.rest.repository.model.MenuItem;
+import com.unicorn.rest.repository.model.MenuSnapshot;
+import com.unicorn.rest.repository.model.Restaurant;
+import com.unicorn.rest.server.admin.StatsProvider;
+
+/**
+ * In-memory typeahead over the restaurant names and the dish names of all the menus, which is kept up to date as MenuSnapshotListener.
+ * The popularity of a dish is the number of restaurants offering it, and that of a restaurant is the number of items on its menu,
+ * and only the restaurants with menu are suggested.
+ *
+ * The suggestions are served from the large base index built in full, overlaid by the small delta index of the suggestions changed since then,
+ * so that publishing a menu only rebuilds the delta. Once the delta grows beyond MAX_PENDING_CHANGES, the base index is rebuilt
+ * by the compaction executor, and the changes made meanwhile stay in the delta.
+ *
+ * The suggest reads the current indexes without lock. The updates are serialized by the lock and swap in new indexes.
+ */
+public class AutocompleteRepositoryImpl implements AutocompleteRepository, MenuSnapshotListener, StatsProvider {
+    private static final Logger LOG = LogManager.getLogger(AutocompleteRepositoryImpl.class);
+
+    public static final int MAX_QUERY_LENGTH = 128;
+    public static final int MAX_SUGGEST_LIMIT = 20;
+    public static final int MAX_PENDING_CHANGES = 2048;
+
+    /*
+     * The text of the dish is the name seen first, while the dishes of the same normalized name are counted as one
+     */
+    private static class DishPopularity {
+        private final String text;
+        private int numOfRestaurants = 0;
+
+        private DishPopularity(@Nonnull String text) {
+            this.text = text;
+        }
+    }
+
+    private static class IndexState {
+        private final AutocompleteIndex baseIndex;
+        private final AutocompleteIndex deltaIndex;
+        /*
+         * The identities of the suggestions changed since the base index was built, whose current version if any is in the delta index
+         */
+        private final Set<String> changedIdentities;
+
+        private IndexState(@Nonnull AutocompleteIndex baseIndex, @Nonnull AutocompleteIndex deltaIndex, @Nonnull Set<String> changedIdentities) {
+            this.baseIndex = baseIndex;
+            this.deltaIndex = deltaIndex;
+            this.changedIdentities = changedIdentities;
+        }
+    }
+
+    private final RestaurantRepository restaurantRepository;
+    private final Executor compactionExecutor;
+
+    private volatile IndexState indexState = new IndexState(AutocompleteIndex.build(Collections.<AutocompleteSuggestion>emptyList()),
+            AutocompleteIndex.build(Collections.<AutocompleteSuggestion>emptyList()), Collections.<String>emptySet());
+    private final Map<Long, String> restaurantNames = new ConcurrentHashMap<>();
+    /*
+     * The fields below are guarded by the lock of this object
+     */
+    private final Map<Long, Long> indexedVersions = new HashMap<>();
+    private final Map<Long, Set<String>> restaurantDishKeys = new HashMap<>();
+    private final Map<Long, Integer> restaurantItemCounts = new HashMap<>();
+    private final Map<String, DishPopularity> dishPopularities = new HashMap<>();
+    /*
+     * identity -> the current suggestion, or NULL if it is no longer suggested, for the suggestions changed since the base index was built
+     */
+    private Map<String, AutocompleteSuggestion> pendingChanges = new HashMap<>();
+    /*
+     * The changes made while the base index is being rebuilt, which is NULL unless a compaction is in progress
+     */
+    private Map<String, AutocompleteSuggestion> changesDuringCompaction = null;
+
+    private final LongAdder suggestCount = new LongAdder();
+    private final LongAdder updateCount = new LongAdder();
+    private final LongAdder compactionCount = new LongAdder();
+
+    /**
+     * @param restaurantRepository to resolve the names of the restaurants
+     * @param compactionExecutor to rebuild the base index off the thread publishing the menus
+     */
+    public AutocompleteRepositoryImpl(@Nonnull RestaurantRepository restaurantRepository, @Nonnull Executor compactionExecutor) {
+        this.restaurantRepository = restaurantRepository;
+        this.compactionExecutor = compactionExecutor;
+    }
+
+    @Override
+    public @Nonnull List<AutocompleteSuggestion> suggest(@Nullable String prefix, int limit)
+            throws ValidationException {
+        if (StringUtils.isBlank(prefix) || prefix.length() > MAX_QUERY_LENGTH) {
+            throw new ValidationException(String.format("Invalid prefix. The prefix should be non-blank with no more than %s characters", MAX_QUERY_LENGTH));
+        }
+        if (limit < 1 || limit > MAX_SUGGEST_LIMIT) {
+            throw new ValidationException(String.format("Invalid limit %s. The limit should be between 1 and %s", limit, MAX_SUGGEST_LIMIT));
+        }
+        suggestCount.increment();
+        String normalizedPrefix = AutocompleteIndex.normalize(prefix);
+        if (normalizedPrefix.isEmpty()) {
+            return Collections.emptyList();
+        }
+        IndexState currentIndexState = indexState;
+        List<AutocompleteSuggestion> suggestions = new ArrayList<>(2 * limit);
+        suggestions.addAll(currentIndexState.baseIndex.suggest(normalizedPrefix, limit, currentIndexState.changedIdentities));
+        suggestions.addAll(currentIndexState.deltaIndex.suggest(normalizedPrefix, limit, Collections.<String>emptySet()));
+        Collections.sort(suggestions, AutocompleteIndex.BY_POPULARITY);
+        return suggestions.size() > limit ? new ArrayList<>(suggestions.subList(0, limit)) : suggestions;
+    }
+
+    @Override
+    public void updateRestaurantName(@Nonnull Long restaurantId, @Nonnull String restaurantName) {
+        synchronized (this) {
+            if (!restaurantItemCounts.containsKey(restaurantId)) {
+                return;
+            }
+            restaurantNames.put(restaurantId, restaurantName);
+            changeRestaurant(restaurantId);
+            installDeltaIndex();
+            updateCount.increment();
+        }
+        compactIfNeeded();
+    }
+
+    /*
+     * The names are resolved again for every menu installed, so the restaurant renamed through other servers is suggested by its new name
+     * once its menu is published again, as of the cache of RestaurantRepository
+     */
+    @Override
+    public void onMenusInstalled(@Nonnull Collection<MenuSnapshot> menuSnapshots) {
+        Set<Long> restaurantIds = new LinkedHashSet<>();
+        for (MenuSnapshot menuSnapshot : menuSnapshots) {
+            restaurantIds.add(menuSnapshot.getRestaurantId());
+        }
+        Map<Long, String> resolvedNames = resolveRestaurantNames(restaurantIds);
+
+        synchronized (this) {
+            boolean updated = false;
+            for (MenuSnapshot menuSnapshot : menuSnapshots) {
+                Long restaurantId = menuSnapshot.getRestaurantId();
+                String resolvedName = resolvedNames.get(restaurantId);
+                Long indexedVersion = indexedVersions.get(restaurantId);
+                if (indexedVersion != null && indexedVersion >= menuSnapshot.getVersion()) {
+                    if (resolvedName != null && !resolvedName.equals(restaurantNames.put(restaurantId, resolvedName))) {
+                        changeRestaurant(restaurantId);
+                        updated = true;
+                    }
+                    continue;
+                }
+                if (resolvedName != null) {
+                    restaurantNames.put(restaurantId, resolvedName);
+                }
+                indexedVersions.put(restaurantId, menuSnapshot.getVersion());
+                changeMenu(restaurantId, menuSnapshot.getMenu().getItems());
+                updated = true;
+            }
+            if (!updated) {
+                return;
+            }
+            installDeltaIndex();
+            updateCount.increment();
+        }
+        compactIfNeeded();
+    }
+
+    @Override
+    public void onMenuRemoved(@Nonnull Long restaurantId) {
+        synchronized (this) {
+            if (indexedVersions.remove(restaurantId) == null) {
+                return;
+            }
+            changeMenu(restaurantId, Collections.<MenuItem>emptyList());
+            restaurantNames.remove(restaurantId);
+            installDeltaIndex();
+            updateCount.increment();
+        }
+        compactIfNeeded();
+    }
+
+    /**
+     * Rebuild the base index from all the suggestions on the calling thread, e.g. once the menus already in memory are delivered at startup
+     */
+    public void compact() {
+        List<AutocompleteSuggestion> currentSuggestions;
+        synchronized (this) {
+            if (changesDuringCompaction != null) {
+                return;
+            }
+            changesDuringCompaction = new HashMap<>();
+            currentSuggestions = getCurrentSuggestions();
+        }
+        installBaseIndex(currentSuggestions);
+    }
+
+    @Override
+    public @Nonnull Map<String, Object> getStats() {
+        IndexState currentIndexState = indexState;
+        int numOfPendingChanges;
+        synchronized (this) {
+            numOfPendingChanges = pendingChanges.size();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("num_suggestions", currentIndexState.baseIndex.getNumOfSuggestions() + currentIndexState.deltaIndex.getNumOfSuggestions());
+        stats.put("num_suffixes", currentIndexState.baseIndex.getNumOfSuffixes() + currentIndexState.deltaIndex.getNumOfSuffixes());
+        stats.put("num_pending_changes", numOfPendingChanges);
+        stats.put("suggest_count", suggestCount.sum());
+        stats.put("update_count", updateCount.sum());
+        stats.put("compaction_count", compactionCount.sum());
+        return stats;
+    }
+
+    /*
+     * The restaurant whose name cannot be resolved keeps the name it has, or is not suggested until its name is updated,
+     * rather than failing the menu publish
+     *
+     * @return restaurant_id -> the current name, for the restaurants resolved
+     */
+    private @Nonnull Map<Long, String> resolveRestaurantNames(@Nonnull Collection<Long> restaurantIds) {
+        Map<Long, String> resolvedNames = new HashMap<>();
+        if (restaurantIds.isEmpty()) {
+            return resolvedNames;
+        }
+        try {
+            for (Restaurant restaurant : restaurantRepository.getRestaurants(restaurantIds)) {
+                resolvedNames.put(restaurant.getRestaurantId(), restaurant.getRestaurantName());
+            }
+        } catch (ValidationException | RepositoryServerException | RuntimeException error) {
+            LOG.warn(String.format("Failed while attempting to resolve the names of restaurants %s for autocomplete.", restaurantIds), error);
+        }
+        return resolvedNames;
+    }
+
+    /*
+     * Count the dishes of the new menu in and those of the old menu out, where a dish counts once per restaurant
+     */
+    private void changeMenu(@Nonnull Long restaurantId, @Nonnull List<MenuItem> items) {
+        Map<String, String> dishTexts = new LinkedHashMap<>();
+        for (MenuItem item : items) {
+            String dishKey = AutocompleteIndex.normalize(item.getItemName());
+            if (!dishKey.isEmpty() && !dishTexts.containsKey(dishKey)) {
+                dishTexts.put(dishKey, item.getItemName());
+            }
+        }
+        Set<String> oldDishKeys = restaurantDishKeys.remove(restaurantId);
+        if (oldDishKeys == null) {
+            oldDishKeys = Collections.emptySet();
+        }
+        for (String dishKey : oldDishKeys) {
+            if (!dishTexts.containsKey(dishKey)) {
+                DishPopularity dishPopularity = dishPopularities.get(dishKey);
+                dishPopularity.numOfRestaurants--;
+                if (dishPopularity.numOfRestaurants == 0) {
+                    dishPopularities.remove(dishKey);
+                }
+                changeDish(dishKey);
+            }
+        }
+        for (Map.Entry<String, String> dishText : dishTexts.entrySet()) {
+            if (!oldDishKeys.contains(dishText.getKey())) {
+                DishPopularity dishPopularity = dishPopularities.get(dishText.getKey());
+                if (dishPopularity == null) {
+                    dishPopularity = new DishPopularity(dishText.getValue());
+                    dishPopularities.put(dishText.getKey(), dishPopularity);
+                }
+                dishPopularity.numOfRestaurants++;
+                changeDish(dishText.getKey());
+            }
+        }
+        if (!dishTexts.isEmpty()) {
+            restaurantDishKeys.put(restaurantId, new HashSet<>(dishTexts.keySet()));
+        }
+
+        if (items.isEmpty()) {
+            restaurantItemCounts.remove(restaurantId);
+        } else {
+            restaurantItemCounts.put(restaurantId, items.size());
+        }
+        changeRestaurant(restaurantId);
+    }
+
+    private void changeDish(@Nonnull String dishKey) {
+        DishPopularity dishPopularity = dishPopularities.get(dishKey);
+        recordChange("dish:" + dishKey, dishPopularity == null ? null : buildDishSuggestion(dishPopularity));
+    }
+
+    private void changeRestaurant(@Nonnull Long restaurantId) {
+        Integer numOfItems = restaurantItemCounts.get(restaurantId);
+        String restaurantName = restaurantNames.get(restaurantId);
+        recordChange("restaurant:" + restaurantId, numOfItems == null || restaurantName == null ? null :
+            new AutocompleteSuggestion(SuggestionType.RESTAURANT, restaurantName, restaurantId, numOfItems));
+    }
+
+    private void recordChange(@Nonnull String identity, @Nullable AutocompleteSuggestion suggestion) {
+        pendingChanges.put(identity, suggestion);
+        if (changesDuringCompaction != null) {
+            changesDuringCompaction.put(identity, suggestion);
+        }
+    }
+
+    private void installDeltaIndex() {
+        List<AutocompleteSuggestion> changedSuggestions = new ArrayList<>(pendingChanges.size());
+        for (AutocompleteSuggestion suggestion : pendingChanges.values()) {
+            if (suggestion != null) {
+                changedSuggestions.add(suggestion);
+            }
+        }
+        indexState = new IndexState(indexState.baseIndex, AutocompleteIndex.build(changedSuggestions),
+                Collections.unmodifiableSet(new HashSet<>(pendingChanges.keySet())));
+    }
+
+    private void compactIfNeeded() {
+        final List<AutocompleteSuggestion> currentSuggestions;
+        synchronized (this) {
+            if (pendingChanges.size() <= MAX_PENDING_CHANGES || changesDuringCompaction != null) {
+                return;
+            }
+            changesDuringCompaction = new HashMap<>();
+            currentSuggestions = getCurrentSuggestions();
+        }
+        compactionExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                installBaseIndex(currentSuggestions);
+            }
+        });
+    }
+
+    /*
+     * The changes made while the base index is being built are not in it, and become the pending changes of the new base index
+     */
+    private void installBaseIndex(@Nonnull List<AutocompleteSuggestion> currentSuggestions) {
+        AutocompleteIndex baseIndex;
+        try {
+            baseIndex = AutocompleteIndex.build(currentSuggestions);
+        } catch (RuntimeException error) {
+            LOG.error("Failed while attempting to rebuild the autocomplete index.", error);
+            synchronized (this) {
+                changesDuringCompaction = null;
+            }
+            return;
+        }
+        synchronized (this) {
+            pendingChanges = changesDuringCompaction;
+            changesDuringCompaction = null;
+            indexState = new IndexState(baseIndex, indexState.deltaIndex, indexState.changedIdentities);
+            installDeltaIndex();
+            compactionCount.increment();
+        }
+    }
+
+    private @Nonnull List<AutocompleteSuggestion> getCurrentSuggestions() {
+        List<AutocompleteSuggestion> currentSuggestions = new ArrayList<>(dishPopularities.size() + restaurantItemCounts.size());
+        for (DishPopularity dishPopularity : dishPopularities.values()) {
+            currentSuggestions.add(buildDishSuggestion(dishPopularity));
+        }
+        for (Map.Entry<Long, Integer> restaurantItemCount : restaurantItemCounts.entrySet()) {
+            String restaurantName = restaurantNames.get(restaurantItemCount.getKey());
+            if (restaurantName != null) {
+                currentSuggestions.add(new AutocompleteSuggestion(SuggestionType.RESTAURANT, restaurantName,
+                        restaurantItemCount.getKey(), restaurantItemCount.getValue()));
+            }
+        }
+        return currentSuggestions;
+    }
+
+    private static @Nonnull AutocompleteSuggestion buildDishSuggestion(@Nonnull DishPopularity dishPopularity) {
+        return new AutocompleteSuggestion(SuggestionType.DISH, dishPopularity.text, null, dishPopularity.numOfRestaurants);
+    }
+}
@@ -0,0 +1,315 @@
+package com.unicorn.rest.repository.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.unicorn.rest.repository.ItemAvailabilityRepository;
+import com.unicorn.rest.repository.MenuSnapshotListener;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.StaleDataException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.ItemAvailability;
+import com.unicorn.rest.repository.model.MenuItem;
+import com.unicorn.rest.repository.model.MenuSnapshot;
+import com.unicorn.rest.repository.table.ItemAvailabilityTable;
+import com.unicorn.rest.server.admin.StatsProvider;
+import com.unicorn.rest.utils.TimeUtils;
+
+/**
+ * The availabilities are held in memory by restaurant and by item, and are read on every menu request without lock:
+ * the ConcurrentHashMap stripes the writers by bin with CAS, so that the kitchens of different restaurants never contend.
+ *
+ * The update through this server is written to the ITEM_AVAILABILITY table and applied to memory at once, while the updates
+ * through other servers are pulled from the change feed of the table by the frequent poll. The newer version of the same item always wins,
+ * so the feed re-reading the overlap of the previous poll or delivering the updates out of order never rolls an item back.
+ * The version is counted by the table rather than taken from any clock, so the clocks of the servers only decide where the update lands in the feed.
+ *
+ * The availabilities of the items dropped from the menu, or of the restaurant whose menu is removed, are removed from memory
+ * and deleted from the table by every server once it swaps in the menu, where the delete is conditional on the version,
+ * so the server late to see the menu never deletes the availability updated after the menu changed again.
+ */
+public class ItemAvailabilityRepositoryImpl implements ItemAvailabilityRepository, MenuSnapshotListener, StatsProvider {
+    private static final Logger LOG = LogManager.getLogger(ItemAvailabilityRepositoryImpl.class);
+
+    /*
+     * The poll re-reads the feed this far behind the last poll, for the writes landing on the eventually consistent GSI late,
+     * which is typically well under a second, and for the clocks of the servers updating behind this one kept by NTP.
+     * The updates re-read are dropped by their version, and the overlap is kept short so that most polls read the shards of one minute only.
+     */
+    public static final long FEED_POLL_OVERLAP_IN_MILLS = 5 * 1000L;
+
+    private static final BiFunction<ItemAvailability, ItemAvailability, ItemAvailability> NEWER_WINS =
+            new BiFunction<ItemAvailability, ItemAvailability, ItemAvailability>() {
+        @Override
+        public ItemAvailability apply(ItemAvailability current, ItemAvailability update) {
+            return update.getVersion() >= current.getVersion() ? update : current;
+        }
+    };
+
+    private final ItemAvailabilityTable itemAvailabilityTable;
+    /*
+     * restaurant_id -> item_id -> availability, where the restaurant is removed along with its menu
+     */
+    private final ConcurrentMap<Long, ConcurrentMap<Long, ItemAvailability>> itemAvailabilities = new ConcurrentHashMap<>();
+    /*
+     * restaurant_id -> the latest version of the menu swapped in, to ignore the older snapshots delivered out of order
+     */
+    private final ConcurrentMap<Long, Long> menuVersions = new ConcurrentHashMap<>();
+    /*
+     * The time the feed has been polled until, guarded by the lock of this object along with the poll itself
+     */
+    private long feedWatermarkInEpoch = 0;
+
+    private final LongAdder updateCount = new LongAdder();
+    private final LongAdder stockAdjustmentCount = new LongAdder();
+    private final LongAdder outOfStockCount = new LongAdder();
+    private final LongAdder pollCount = new LongAdder();
+    private final LongAdder polledChangeCount = new LongAdder();
+    private final LongAdder removedCount = new LongAdder();
+
+    public ItemAvailabilityRepositoryImpl(@Nonnull ItemAvailabilityTable itemAvailabilityTable) {
+        this.itemAvailabilityTable = itemAvailabilityTable;
+    }
+
+    @Override
+    public @Nonnull ItemAvailability updateItemAvailability(@Nullable Long restaurantId, @Nullable Long itemId, @Nullable Boolean soldOut,
+            @Nullable Long stock)
+            throws ValidationException, RepositoryServerException {
+        validateItemKey(restaurantId, itemId);
+        if (stock != null && (stock < 0 || stock > ItemAvailability.MAX_STOCK)) {
+            throw new ValidationException(String.format("Invalid stock %s. The stock should be between 0 and %s", stock, ItemAvailability.MAX_STOCK));
+        }
+        ItemAvailability itemAvailability = itemAvailabilityTable.putItemAvailability(restaurantId, itemId, soldOut != null && soldOut, stock,
+                nextUpdatedInEpoch(restaurantId, itemId));
+        applyItemAvailability(itemAvailability);
+        updateCount.increment();
+        return itemAvailability;
+    }
+
+    @Override
+    public @Nonnull ItemAvailability adjustStock(@Nullable Long restaurantId, @Nullable Long itemId, @Nullable Long delta)
+            throws ValidationException, StaleDataException, RepositoryServerException {
+        validateItemKey(restaurantId, itemId);
+        if (delta == null || delta == 0 || Math.abs(delta) > ItemAvailability.MAX_STOCK) {
+            throw new ValidationException(String.format("Invalid stock delta %s. The delta should be non-zero and between -%s and %s",
+                    delta, ItemAvailability.MAX_STOCK, ItemAvailability.MAX_STOCK));
+        }
+        ItemAvailability itemAvailability;
+        try {
+            itemAvailability = itemAvailabilityTable.addStock(restaurantId, itemId, delta, nextUpdatedInEpoch(restaurantId, itemId));
+        } catch (StaleDataException error) {
+            outOfStockCount.increment();
+            throw error;
+        }
+        applyItemAvailability(itemAvailability);
+        stockAdjustmentCount.increment();
+        return itemAvailability;
+    }
+
+    @Override
+    public @Nonnull Map<Long, ItemAvailability> getItemAvailabilities(@Nullable Long restaurantId)
+            throws ValidationException {
+        if (restaurantId == null) {
+            throw new ValidationException("Expecting non-null request paramter for getItemAvailabilities, but received: restaurantId=null");
+        }
+        ConcurrentMap<Long, ItemAvailability> restaurantAvailabilities = itemAvailabilities.get(restaurantId);
+        if (restaurantAvailabilities == null) {
+            return Collections.emptyMap();
+        }
+        return Collections.unmodifiableMap(restaurantAvailabilities);
+    }
+
+    @Override
+    public @Nonnull List<MenuItem> filterAvailableItems(@Nonnull Long restaurantId, @Nonnull List<MenuItem> items) {
+        ConcurrentMap<Long, ItemAvailability> restaurantAvailabilities = itemAvailabilities.get(restaurantId);
+        if (restaurantAvailabilities == null || restaurantAvailabilities.isEmpty()) {
+            return items;
+        }
+        List<MenuItem> availableItems = null;
+        for (int i = 0; i < items.size(); i++) {
+            ItemAvailability itemAvailability = restaurantAvailabilities.get(items.get(i).getItemId());
+            boolean available = itemAvailability == null || itemAvailability.isAvailable();
+            if (!available && availableItems == null) {
+                /*
+                 * The list is copied only once the first unavailable item is found, which is rare
+                 */
+                availableItems = new ArrayList<>(items.subList(0, i));
+            } else if (available && availableItems != null) {
+                availableItems.add(items.get(i));
+            }
+        }
+        return availableItems == null ? items : availableItems;
+    }
+
+    @Override
+    public boolean isItemAvailable(@Nonnull Long restaurantId, @Nonnull Long itemId) {
+        ConcurrentMap<Long, ItemAvailability> restaurantAvailabilities = itemAvailabilities.get(restaurantId);
+        ItemAvailability itemAvailability = restaurantAvailabilities == null ? null : restaurantAvailabilities.get(itemId);
+        return itemAvailability == null || itemAvailability.isAvailable();
+    }
+
+    @Override
+    public synchronized int pollItemAvailabilities()
+            throws RepositoryServerException {
+        long nowInEpoch = TimeUtils.getEpochTimeNowInUTC();
+        List<ItemAvailability> updatedItemAvailabilities = itemAvailabilityTable.getItemAvailabilitiesUpdated(
+                Math.max(0L, feedWatermarkInEpoch - FEED_POLL_OVERLAP_IN_MILLS), nowInEpoch);
+        for (ItemAvailability itemAvailability : updatedItemAvailabilities) {
+            applyItemAvailability(itemAvailability);
+        }
+        feedWatermarkInEpoch = Math.max(feedWatermarkInEpoch, nowInEpoch);
+        pollCount.increment();
+        polledChangeCount.add(updatedItemAvailabilities.size());
+        return updatedItemAvailabilities.size();
+    }
+
+    /*
+     * The feed is started from the time before the scan, so the updates made during the scan are polled again rather than missed
+     */
+    @Override
+    public synchronized int reloadItemAvailabilities()
+            throws RepositoryServerException {
+        long nowInEpoch = TimeUtils.getEpochTimeNowInUTC();
+        List<ItemAvailability> allItemAvailabilities = itemAvailabilityTable.getItemAvailabilities();
+        for (ItemAvailability itemAvailability : allItemAvailabilities) {
+            applyItemAvailability(itemAvailability);
+        }
+        feedWatermarkInEpoch = Math.max(feedWatermarkInEpoch, nowInEpoch);
+        return allItemAvailabilities.size();
+    }
+
+    @Override
+    public void onMenusInstalled(@Nonnull Collection<MenuSnapshot> menuSnapshots) {
+        for (MenuSnapshot menuSnapshot : menuSnapshots) {
+            if (!advanceMenuVersion(menuSnapshot.getRestaurantId(), menuSnapshot.getVersion())) {
+                continue;
+            }
+            ConcurrentMap<Long, ItemAvailability> restaurantAvailabilities = itemAvailabilities.get(menuSnapshot.getRestaurantId());
+            if (restaurantAvailabilities == null) {
+                continue;
+            }
+            for (ItemAvailability itemAvailability : restaurantAvailabilities.values()) {
+                if (!menuSnapshot.containsItem(itemAvailability.getItemId())
+                        && restaurantAvailabilities.remove(itemAvailability.getItemId(), itemAvailability)) {
+                    deleteItemAvailability(itemAvailability);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onMenuRemoved(@Nonnull Long restaurantId) {
+        menuVersions.remove(restaurantId);
+        ConcurrentMap<Long, ItemAvailability> restaurantAvailabilities = itemAvailabilities.remove(restaurantId);
+        if (restaurantAvailabilities == null) {
+            return;
+        }
+        for (ItemAvailability itemAvailability : restaurantAvailabilities.values()) {
+            deleteItemAvailability(itemAvailability);
+        }
+    }
+
+    @Override
+    public @Nonnull Map<String, Object> getStats() {
+        long size = 0;
+        long unavailableCount = 0;
+        for (ConcurrentMap<Long, ItemAvailability> restaurantAvailabilities : itemAvailabilities.values()) {
+            for (ItemAvailability itemAvailability : restaurantAvailabilities.values()) {
+                size++;
+                if (!itemAvailability.isAvailable()) {
+                    unavailableCount++;
+                }
+            }
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size);
+        stats.put("unavailable_count", unavailableCount);
+        stats.put("update_count", updateCount.sum());
+        stats.put("stock_adjustment_count", stockAdjustmentCount.sum());
+        stats.put("out_of_stock_count", outOfStockCount.sum());
+        stats.put("poll_count", pollCount.sum());
+        stats.put("polled_change_count", polledChangeCount.sum());
+        stats.put("removed_count", removedCount.sum());
+        return stats;
+    }
+
+    /*
+     * The availability of the restaurant is created with the first update of any of its items and merged item by item
+     */
+    protected void applyItemAvailability(@Nonnull ItemAvailability itemAvailability) {
+        ConcurrentMap<Long, ItemAvailability> restaurantAvailabilities = itemAvailabilities.get(itemAvailability.getRestaurantId());
+        if (restaurantAvailabilities == null) {
+            ConcurrentMap<Long, ItemAvailability> newRestaurantAvailabilities = new ConcurrentHashMap<>();
+            restaurantAvailabilities = itemAvailabilities.putIfAbsent(itemAvailability.getRestaurantId(), newRestaurantAvailabilities);
+            if (restaurantAvailabilities == null) {
+                restaurantAvailabilities = newRestaurantAvailabilities;
+            }
+        }
+        restaurantAvailabilities.merge(itemAvailability.getItemId(), itemAvailability, NEWER_WINS);
+    }
+
+    /*
+     * The availability updated meanwhile is left in the table, and is removed again the next time the menu is swapped in
+     */
+    private void deleteItemAvailability(@Nonnull ItemAvailability itemAvailability) {
+        removedCount.increment();
+        try {
+            itemAvailabilityTable.deleteItemAvailability(itemAvailability.getRestaurantId(), itemAvailability.getItemId(), itemAvailability.getVersion());
+        } catch (StaleDataException staleData) {
+        } catch (ValidationException | RepositoryServerException error) {
+            LOG.warn(String.format("Failed while attempting to delete the availability of item %s of restaurant %s.",
+                    itemAvailability.getItemId(), itemAvailability.getRestaurantId()), error);
+        }
+    }
+
+    /**
+     * @return false if the menu of the same or a newer version has been swapped in
+     */
+    private boolean advanceMenuVersion(@Nonnull Long restaurantId, long version) {
+        while (true) {
+            Long currentVersion = menuVersions.get(restaurantId);
+            if (currentVersion == null) {
+                if (menuVersions.putIfAbsent(restaurantId, version) == null) {
+                    return true;
+                }
+            } else if (currentVersion >= version) {
+                return false;
+            } else if (menuVersions.replace(restaurantId, currentVersion, version)) {
+                return true;
+            }
+        }
+    }
+
+    /*
+     * The update time of the item only moves forward even if the clock of this server lags behind the server updating it last,
+     * so that the update is not placed into the feed behind the one it replaces
+     */
+    private long nextUpdatedInEpoch(@Nonnull Long restaurantId, @Nonnull Long itemId) {
+        long nowInEpoch = TimeUtils.getEpochTimeNowInUTC();
+        ConcurrentMap<Long, ItemAvailability> restaurantAvailabilities = itemAvailabilities.get(restaurantId);
+        ItemAvailability itemAvailability = restaurantAvailabilities == null ? null : restaurantAvailabilities.get(itemId);
+        return itemAvailability == null ? nowInEpoch : Math.max(nowInEpoch, itemAvailability.getUpdatedInEpoch() + 1);
+    }
+
+    private static void validateItemKey(@Nullable Long restaurantId, @Nullable Long itemId)
+            throws ValidationException {
+        if (restaurantId == null || itemId == null) {
+            throw new ValidationException(String.format("Expecting non-null request paramter for item availability, but received: restaurantId=%s, itemId=%s",
+                    restaurantId, itemId));
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.unicorn.rest.repository.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.unicorn.rest.repository.MenuImportReader;
+import com.unicorn.rest.repository.MenuImportRepository;
+import com.unicorn.rest.repository.MenuRepository;
+import com.unicorn.rest.repository.RestaurantRepository;
+import com.unicorn.rest.repository.exception.ItemNotFoundException;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.StaleDataException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.AvailabilityWindow;
+import com.unicorn.rest.repository.model.Menu;
+import com.unicorn.rest.repository.model.MenuImportJob;
+import com.unicorn.rest.repository.model.MenuImportRow;
+import com.unicorn.rest.repository.model.MenuItem;
+import com.unicorn.rest.repository.model.MenuTranslation;
+import com.unicorn.rest.repository.model.Restaurant;
+import com.unicorn.rest.server.admin.StatsProvider;
+import com.unicorn.rest.server.limiter.TokenBucketRateLimiter;
+import com.unicorn.rest.utils.SimpleFlakeKeyGenerator;
+import com.unicorn.rest.utils.TimeUtils;
+
+/**
+ * The upload is read row by row on the request thread, and the rows of each restaurant are handed to the worker as soon as the rows of
+ * the next restaurant start, so that only the restaurants in flight are held in memory. The workers validate the rows of different
+ * restaurants in parallel and publish each menu through MenuRepository, paced by the rate limiter shared by all the jobs,
+ * so that an import of hundreds of restaurants does not take the write capacity of the MENU table from the owners publishing by hand.
+ *
+ * The reading blocks once MAX_PENDING_RESTAURANTS_PER_JOB restaurants are waiting for the workers, which pushes back on the upload.
+ */
+public class MenuImportRepositoryImpl implements MenuImportRepository, StatsProvider {
+    private static final Logger LOG = LogManager.getLogger(MenuImportRepositoryImpl.class);
+
+    public static final int MAX_IMPORT_RESTAURANTS = 1000;
+    public static final int MAX_PENDING_RESTAURANTS_PER_JOB = 16;
+    public static final long IMPORT_JOB_RETENTION_IN_MILLS = 60 * 60 * 1000L;
+    private static final String PUBLISH_RATE_LIMIT_KEY = "menu_import";
+
+    private final MenuRepository menuRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final Executor importExecutor;
+    private final TokenBucketRateLimiter publishRateLimiter;
+
+    private final Map<Long, MenuImportJob> importJobs = new ConcurrentHashMap<>();
+
+    private final LongAdder importCount = new LongAdder();
+    private final LongAdder rowCount = new LongAdder();
+    private final LongAdder publishedRestaurantCount = new LongAdder();
+    private final LongAdder failedRestaurantCount = new LongAdder();
+    private final LongAdder publishWaitInMills = new LongAdder();
+
+    /**
+     * @param menuRepository to publish the menus imported
+     * @param restaurantRepository to verify the owner of the restaurants imported
+     * @param importExecutor the workers validating and publishing the menus
+     * @param publishRateLimiter the pace of publishing the menus imported
+     */
+    public MenuImportRepositoryImpl(@Nonnull MenuRepository menuRepository, @Nonnull RestaurantRepository restaurantRepository,
+            @Nonnull Executor importExecutor, @Nonnull TokenBucketRateLimiter publishRateLimiter) {
+        this.menuRepository = menuRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.importExecutor = importExecutor;
+        this.publishRateLimiter = publishRateLimiter;
+    }
+
+    @Override
+    public @Nonnull MenuImportJob importMenus(@Nullable Long ownerPrincipal, @Nullable MenuImportReader menuImportReader)
+            throws ValidationException, RepositoryServerException {
+        if (ownerPrincipal == null || menuImportReader == null) {
+            throw new ValidationException(String.format("Expecting non-null request paramter for importMenus, but received: ownerPrincipal=%s, menuImportReader=%s",
+                    ownerPrincipal, menuImportReader));
+        }
+        Set<Long> ownedRestaurantIds = new HashSet<>();
+        for (Restaurant restaurant : restaurantRepository.getRestaurantsForOwner(ownerPrincipal)) {
+            ownedRestaurantIds.add(restaurant.getRestaurantId());
+        }
+        evictExpiredJobs();
+        MenuImportJob importJob = new MenuImportJob(SimpleFlakeKeyGenerator.generateKey(), ownerPrincipal, TimeUtils.getEpochTimeNowInUTC());
+        importJobs.put(importJob.getJobId(), importJob);
+        importCount.increment();
+
+        Semaphore pendingRestaurants = new Semaphore(MAX_PENDING_RESTAURANTS_PER_JOB);
+        Set<Long> seenRestaurantIds = new HashSet<>();
+        Long currentRestaurantId = null;
+        List<MenuImportRow> currentRows = new ArrayList<>();
+        try {
+            MenuImportRow row;
+            while ((row = menuImportReader.readRow()) != null) {
+                importJob.recordRow();
+                rowCount.increment();
+                if (row.getRestaurantId() == null) {
+                    importJob.recordError(row.getRowNumber(), null, row.getInvalidReason() != null ? row.getInvalidReason() : "The restaurant_id is missing");
+                    continue;
+                }
+                if (!row.getRestaurantId().equals(currentRestaurantId)) {
+                    if (currentRestaurantId != null) {
+                        submitRestaurant(importJob, ownedRestaurantIds, currentRestaurantId, currentRows, pendingRestaurants);
+                        currentRestaurantId = null;
+                        currentRows = new ArrayList<>();
+                    }
+                    if (!seenRestaurantIds.add(row.getRestaurantId())) {
+                        importJob.recordError(row.getRowNumber(), row.getRestaurantId(), String.format(
+                                "The rows of restaurant %s should be contiguous, while the menu of the rows before has already been published", row.getRestaurantId()));
+                        continue;
+                    }
+                    if (seenRestaurantIds.size() > MAX_IMPORT_RESTAURANTS) {
+                        throw new ValidationException(String.format("Invalid import. The number of restaurants should be no more than %s", MAX_IMPORT_RESTAURANTS));
+                    }
+                    currentRestaurantId = row.getRestaurantId();
+                }
+                /*
+                 * The rows beyond the max number of items fail the restaurant anyway, so they are not kept
+                 */
+                if (currentRows.size() <= Menu.MAX_MENU_ITEMS) {
+                    currentRows.add(row);
+                }
+            }
+            if (currentRestaurantId != null) {
+                submitRestaurant(importJob, ownedRestaurantIds, currentRestaurantId, currentRows, pendingRestaurants);
+            }
+        } catch (ValidationException error) {
+            /*
+             * The restaurant being read is dropped rather than published with only the rows before the malformed part
+             */
+            LOG.info("Gave up reading the upload of import job {}: {}", importJob.getJobId(), error.getMessage());
+            importJob.recordError(null, currentRestaurantId, error.getMessage());
+        } finally {
+            importJob.finishParsing();
+        }
+        return importJob;
+    }
+
+    @Override
+    public @Nonnull MenuImportJob getImportJob(@Nullable Long jobId, @Nullable Long ownerPrincipal)
+            throws ValidationException, ItemNotFoundException {
+        if (jobId == null || ownerPrincipal == null) {
+            throw new ValidationException(String.format("Expecting non-null request paramter for getImportJob, but received: jobId=%s, ownerPrincipal=%s",
+                    jobId, ownerPrincipal));
+        }
+        MenuImportJob importJob = importJobs.get(jobId);
+        if (importJob == null || !importJob.getOwnerPrincipal().equals(ownerPrincipal)) {
+            throw new ItemNotFoundException();
+        }
+        return importJob;
+    }
+
+    @Override
+    public @Nonnull Map<String, Object> getStats() {
+        int runningCount = 0;
+        for (MenuImportJob importJob : importJobs.values()) {
+            if (!importJob.isCompleted()) {
+                runningCount++;
+            }
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", importJobs.size());
+        stats.put("running_count", runningCount);
+        stats.put("import_count", importCount.sum());
+        stats.put("row_count", rowCount.sum());
+        stats.put("published_restaurant_count", publishedRestaurantCount.sum());
+        stats.put("failed_restaurant_count", failedRestaurantCount.sum());
+        stats.put("publish_wait_mills", publishWaitInMills.sum());
+        return stats;
+    }
+
+    private void submitRestaurant(@Nonnull final MenuImportJob importJob, @Nonnull final Set<Long> ownedRestaurantIds, @Nonnull final Long restaurantId,
+            @Nonnull final List<MenuImportRow> rows, @Nonnull final Semaphore pendingRestaurants) {
+        importJob.recordRestaurantSubmitted();
+        pendingRestaurants.acquireUninterruptibly();
+        try {
+            importExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        publishRestaurant(importJob, ownedRestaurantIds, restaurantId, rows);
+                    } finally {
+                        pendingRestaurants.release();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException error) {
+            pendingRestaurants.release();
+            importJob.recordError(null, restaurantId, "The import is shutting down");
+            importJob.recordRestaurantFailed();
+            failedRestaurantCount.increment();
+        }
+    }
+
+    /*
+     * The restaurant which is not owned is reported as not found, so that the existence of restaurant_id is not disclosed
+     */
+    protected void publishRestaurant(@Nonnull MenuImportJob importJob, @Nonnull Set<Long> ownedRestaurantIds, @Nonnull Long restaurantId,
+            @Nonnull List<MenuImportRow> rows) {
+        try {
+            if (!ownedRestaurantIds.contains(restaurantId)) {
+                throw new ValidationException(String.format("The restaurant %s is not found", restaurantId));
+            }
+            Menu currentMenu = null;
+            try {
+                currentMenu = menuRepository.getMenu(restaurantId).getMenu();
+            } catch (ItemNotFoundException error) {
+                LOG.debug("The restaurant {} of import job {} does not have menu yet.", restaurantId, importJob.getJobId());
+            }
+            List<MenuItem> menuItems = buildMenuItems(importJob, restaurantId, rows, currentMenu);
+            if (menuItems == null) {
+                importJob.recordRestaurantFailed();
+                failedRestaurantCount.increment();
+                return;
+            }
+
+            long waitInNanos = publishRateLimiter.reserveInNanos(PUBLISH_RATE_LIMIT_KEY);
+            if (waitInNanos > 0) {
+                publishWaitInMills.add(TimeUnit.NANOSECONDS.toMillis(waitInNanos));
+                TimeUnit.NANOSECONDS.sleep(waitInNanos);
+            }
+            if (currentMenu == null) {
+                menuRepository.publishMenu(restaurantId, null, Collections.<AvailabilityWindow>emptyList(), null,
+                        Collections.<MenuTranslation>emptyList(), menuItems);
+            } else {
+                menuRepository.publishMenu(restaurantId, currentMenu.getTimeZone(), currentMenu.getAvailability(), currentMenu.getLanguage(),
+                        new ArrayList<>(currentMenu.getTranslations().values()), menuItems);
+            }
+            importJob.recordRestaurantPublished(menuItems.size());
+            publishedRestaurantCount.increment();
+        } catch (ValidationException error) {
+            importJob.recordError(null, restaurantId, error.getMessage());
+            importJob.recordRestaurantFailed();
+            failedRestaurantCount.increment();
+        } catch (StaleDataException error) {
+            importJob.recordError(null, restaurantId, "The menu is being published concurrently");
+            importJob.recordRestaurantFailed();
+            failedRestaurantCount.increment();
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+            importJob.recordError(null, restaurantId, "The import is shutting down");
+            importJob.recordRestaurantFailed();
+            failedRestaurantCount.increment();
+        } catch (RepositoryServerException | RuntimeException error) {
+            LOG.warn(String.format("Failed while attempting to publish menu of restaurant %s for import job %s.", restaurantId, importJob.getJobId()), error);
+            importJob.recordError(null, restaurantId, "The menu cannot be published due to internal failure");
+            importJob.recordRestaurantFailed();
+            failedRestaurantCount.increment();
+        }
+    }
+
+    /**
+     * The item without item_id keeps the item_id of the item of the same name on the current menu, so that importing the same upload again
+     * changes nothing. The item matched on the current menu keeps its availability and modifier groups, which the upload does not carry.
+     *
+     * @return NULL if any row is invalid, each of which is recorded as the error of the job
+     */
+    private @Nullable List<MenuItem> buildMenuItems(@Nonnull MenuImportJob importJob, @Nonnull Long restaurantId, @Nonnull List<MenuImportRow> rows,
+            @Nullable Menu currentMenu) {
+        if (rows.size() > Menu.MAX_MENU_ITEMS) {
+            importJob.recordError(null, restaurantId, String.format("Invalid menu. The number of items should be no more than %s", Menu.MAX_MENU_ITEMS));
+            return null;
+        }
+        Map<Long, MenuItem> currentItemsById = new HashMap<>();
+        Map<String, MenuItem> currentItemsByName = new HashMap<>();
+        if (currentMenu != null) {
+            for (MenuItem currentItem : currentMenu.getItems()) {
+                currentItemsById.put(currentItem.getItemId(), currentItem);
+                if (!currentItemsByName.containsKey(currentItem.getItemName())) {
+                    currentItemsByName.put(currentItem.getItemName(), currentItem);
+                }
+            }
+        }
+
+        List<MenuItem> menuItems = new ArrayList<>(rows.size());
+        boolean valid = true;
+        for (MenuImportRow row : rows) {
+            try {
+                if (row.getInvalidReason() != null) {
+                    throw new ValidationException(row.getInvalidReason());
+                }
+                String itemName = MenuItem.validateItemName(row.getItemName());
+                MenuItem currentItem = row.getItemId() != null ? currentItemsById.get(row.getItemId()) : currentItemsByName.remove(itemName);
+                menuItems.add(MenuItem.buildMenuItem()
+                        .itemId(row.getItemId() != null ? row.getItemId() : currentItem != null ? currentItem.getItemId() : SimpleFlakeKeyGenerator.generateKey())
+                        .itemName(itemName)
+                        .itemDescription(MenuItem.validateItemDescription(row.getItemDescription()))
+                        .price(MenuItem.validatePrice(row.getPrice()))
+                        .tags(MenuItem.validateTags(row.getTags()))
+                        .availability(currentItem == null ? null : currentItem.getAvailability())
+                        .modifierGroups(currentItem == null ? null : currentItem.getModifierGroups())
+                        .images(currentItem == null ? null : currentItem.getImages())
+                        .build());
+            } catch (ValidationException error) {
+                importJob.recordError(row.getRowNumber(), restaurantId, error.getMessage());
+                valid = false;
+            }
+        }
+        return valid ? menuItems : null;
+    }
+
+    private void evictExpiredJobs() {
+        long expiredInEpoch = TimeUtils.getEpochTimeNowInUTC() - IMPORT_JOB_RETENTION_IN_MILLS;
+        Iterator<MenuImportJob> importJobIterator = importJobs.values().iterator();
+        while (importJobIterator.hasNext()) {
+            Long completedInEpoch = importJobIterator.next().getCompletedInEpoch();
+            if (completedInEpoch != null && completedInEpoch < expiredInEpoch) {
+                importJobIterator.remove();
+            }
+        }
+    }
+}
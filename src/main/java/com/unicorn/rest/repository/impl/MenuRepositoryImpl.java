@@ -0,0 +1,461 @@
+package com.unicorn.rest.repository.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.unicorn.rest.repository.MenuRenderer;
+import com.unicorn.rest.repository.MenuRepository;
+import com.unicorn.rest.repository.MenuSnapshotListener;
+import com.unicorn.rest.repository.exception.ItemNotFoundException;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.StaleDataException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.AvailabilityWindow;
+import com.unicorn.rest.repository.model.Menu;
+import com.unicorn.rest.repository.model.MenuChangeLog;
+import com.unicorn.rest.repository.model.MenuItem;
+import com.unicorn.rest.repository.model.MenuSnapshot;
+import com.unicorn.rest.repository.model.MenuTranslation;
+import com.unicorn.rest.repository.model.RenderedMenu;
+import com.unicorn.rest.repository.model.TranslationTable;
+import com.unicorn.rest.repository.table.MenuTable;
+import com.unicorn.rest.server.admin.StatsProvider;
+import com.unicorn.rest.utils.TimeUtils;
+
+/**
+ * Copy-on-write store of the menu snapshots. Each restaurant maps to the immutable snapshot of its latest menu version,
+ * so that reading a menu is a single lookup without lock and without accessing the MENU table.
+ *
+ * Publishing builds the next version aside, persists it with a conditional put on the previous version, and then swaps it in.
+ * A snapshot only replaces an older version, so that a slow reload cannot bring back the version already replaced.
+ * All the menus are loaded once, and the menus published or deleted through other servers are then pulled from the change feed
+ * of the MENU table by the frequent poll, which only reads the menus whose version in the feed is newer than the snapshot.
+ * Until the menus are loaded, the menu missing from memory is read through from the table.
+ *
+ * The response body of every version is rendered by MenuRenderer before the version is swapped in, once for each locale
+ * the menu is translated into, so that serving the menu in any of its languages does not serialize anything.
+ * The change log is carried over from the previous snapshot to the next version, so that the clients can sync only the delta.
+ * The popular items are materialized into the current version by swapping in its copy rendered again, which is not persisted,
+ * and every server materializes the same popular items shared through PopularityCounterTable, so the rendered menu stays the same.
+ * The views derived from the menus are kept up to date by MenuSnapshotListener once the snapshots are swapped in or removed.
+ */
+public class MenuRepositoryImpl implements MenuRepository, StatsProvider {
+    private static final Logger LOG = LogManager.getLogger(MenuRepositoryImpl.class);
+
+    private static final int MAX_PUBLISH_ATTEMPTS = 3;
+    private static final int NUM_OF_LARGEST_MENUS_IN_STATS = 10;
+    /*
+     * The poll re-reads the feed this far behind the last poll, for the writes landing on the eventually consistent GSI late
+     * and for the clocks of the servers publishing behind this one. The feed only carries the versions, so the overlap is cheap,
+     * and the version rather than the time decides whether the menu is read.
+     */
+    public static final long FEED_POLL_OVERLAP_IN_MILLS = 10 * 60 * 1000L;
+
+    private static final BiFunction<MenuSnapshot, MenuSnapshot, MenuSnapshot> NEWER_VERSION =
+            new BiFunction<MenuSnapshot, MenuSnapshot, MenuSnapshot>() {
+        @Override
+        public MenuSnapshot apply(MenuSnapshot existingSnapshot, MenuSnapshot newSnapshot) {
+            return newSnapshot.getVersion() > existingSnapshot.getVersion() ? newSnapshot : existingSnapshot;
+        }
+    };
+
+    private static final Comparator<MenuSnapshot> BY_FOOTPRINT = new Comparator<MenuSnapshot>() {
+        @Override
+        public int compare(MenuSnapshot menuSnapshot, MenuSnapshot otherMenuSnapshot) {
+            return Long.compare(menuSnapshot.getFootprintInBytes(), otherMenuSnapshot.getFootprintInBytes());
+        }
+    };
+
+    private final MenuTable menuTable;
+    private final MenuRenderer menuRenderer;
+    private final ConcurrentMap<Long, MenuSnapshot> menuSnapshots = new ConcurrentHashMap<>();
+    private final List<MenuSnapshotListener> menuSnapshotListeners = new CopyOnWriteArrayList<>();
+    /*
+     * The time the feed has been polled until, guarded by the lock of this object along with the poll itself
+     */
+    private long feedWatermarkInEpoch = 0;
+    private volatile boolean menusLoaded = false;
+
+    private final LongAdder publishCount = new LongAdder();
+    private final LongAdder stalePublishCount = new LongAdder();
+    private final LongAdder reloadCount = new LongAdder();
+    private final LongAdder pollCount = new LongAdder();
+    private final LongAdder polledChangeCount = new LongAdder();
+    private final LongAdder readThroughCount = new LongAdder();
+    private final LongAdder popularityUpdateCount = new LongAdder();
+
+    public MenuRepositoryImpl(MenuTable menuTable, MenuRenderer menuRenderer) {
+        this.menuTable = menuTable;
+        this.menuRenderer = menuRenderer;
+    }
+
+    @Override
+    public MenuSnapshot getMenu(Long restaurantId)
+            throws ValidationException, ItemNotFoundException, RepositoryServerException {
+        if (restaurantId == null) {
+            throw new ValidationException("Expecting non-null request paramter for getMenu, but received: restaurantId=null");
+        }
+        MenuSnapshot menuSnapshot = menuSnapshots.get(restaurantId);
+        if (menuSnapshot == null) {
+            if (!menusLoaded) {
+                return readThrough(restaurantId);
+            }
+            throw new ItemNotFoundException();
+        }
+        return menuSnapshot;
+    }
+
+    @Override
+    public MenuSnapshot publishMenu(Long restaurantId, List<MenuItem> items)
+            throws ValidationException, StaleDataException, RepositoryServerException {
+        return publishMenu(restaurantId, null, null, items);
+    }
+
+    @Override
+    public MenuSnapshot publishMenu(Long restaurantId, String timeZone, List<AvailabilityWindow> availability, List<MenuItem> items)
+            throws ValidationException, StaleDataException, RepositoryServerException {
+        return publishMenu(restaurantId, timeZone, availability, null, null, items);
+    }
+
+    /**
+     * The publish replaces the whole menu, so the publish conflicted with another server is retried on top of the latest version
+     */
+    @Override
+    public MenuSnapshot publishMenu(Long restaurantId, String timeZone, List<AvailabilityWindow> availability, String language,
+            List<MenuTranslation> translations, List<MenuItem> items)
+            throws ValidationException, StaleDataException, RepositoryServerException {
+        if (restaurantId == null) {
+            throw new ValidationException("Expecting non-null request paramter for publishMenu, but received: restaurantId=null");
+        }
+        String validatedTimeZone = Menu.validateTimeZone(timeZone);
+        List<AvailabilityWindow> validatedAvailability = AvailabilityWindow.validateAvailabilityWindows(availability);
+        List<MenuItem> validatedItems = Menu.validateMenuItems(items);
+        String validatedLanguage = language == null ? null : MenuTranslation.validateLocale(language);
+        List<MenuTranslation> validatedTranslations = Menu.validateTranslations(translations, validatedLanguage, validatedItems);
+        MenuSnapshot currentSnapshot = menuSnapshots.get(restaurantId);
+        long previousVersion = currentSnapshot == null ? 0L : currentSnapshot.getVersion();
+        int numOfAttempts = 1;
+        while (true) {
+            Menu menu = Menu.buildMenu().restaurantId(restaurantId)
+                    .version(previousVersion + 1).items(validatedItems)
+                    .timeZone(validatedTimeZone).availability(validatedAvailability).language(validatedLanguage)
+                    .translations(validatedTranslations).build();
+            try {
+                menuTable.putMenu(menu);
+            } catch (StaleDataException error) {
+                stalePublishCount.increment();
+                if (numOfAttempts++ >= MAX_PUBLISH_ATTEMPTS) {
+                    throw error;
+                }
+                previousVersion = refreshMenu(restaurantId);
+                currentSnapshot = menuSnapshots.get(restaurantId);
+                continue;
+            }
+            publishCount.increment();
+            MenuSnapshot menuSnapshot = buildSnapshot(currentSnapshot, menu);
+            MenuSnapshot installedSnapshot = install(menuSnapshot);
+            if (installedSnapshot == menuSnapshot) {
+                notifyInstalled(Collections.singletonList(menuSnapshot));
+            }
+            return installedSnapshot;
+        }
+    }
+
+    @Override
+    public void deleteMenu(Long restaurantId)
+            throws ValidationException, ItemNotFoundException, RepositoryServerException {
+        try {
+            menuTable.deleteMenu(restaurantId);
+        } finally {
+            if (restaurantId != null && menuSnapshots.remove(restaurantId) != null) {
+                notifyRemoved(restaurantId);
+            }
+        }
+    }
+
+    /*
+     * The feed is started from the time before the scan, so the changes made during the scan are polled again rather than missed
+     */
+    @Override
+    public synchronized int reloadMenus()
+            throws RepositoryServerException {
+        long nowInEpoch = TimeUtils.getEpochTimeNowInUTC();
+        Map<Long, MenuSnapshot> snapshotsBeforeReload = new HashMap<>(menuSnapshots);
+        List<Menu> menus = menuTable.getMenus();
+        Set<Long> reloadedRestaurantIds = new HashSet<>();
+        List<MenuSnapshot> installedSnapshots = new ArrayList<>();
+        for (Menu menu : menus) {
+            reloadedRestaurantIds.add(menu.getRestaurantId());
+            MenuSnapshot currentSnapshot = menuSnapshots.get(menu.getRestaurantId());
+            if (currentSnapshot == null || currentSnapshot.getVersion() < menu.getVersion()) {
+                MenuSnapshot menuSnapshot = buildSnapshot(currentSnapshot, menu);
+                if (install(menuSnapshot) == menuSnapshot) {
+                    installedSnapshots.add(menuSnapshot);
+                }
+            }
+        }
+        if (!installedSnapshots.isEmpty()) {
+            notifyInstalled(installedSnapshots);
+        }
+        /*
+         * The menu deleted through other servers is removed only if it has not been published since the reload started
+         */
+        for (Map.Entry<Long, MenuSnapshot> snapshotBeforeReload : snapshotsBeforeReload.entrySet()) {
+            if (!reloadedRestaurantIds.contains(snapshotBeforeReload.getKey())
+                    && menuSnapshots.remove(snapshotBeforeReload.getKey(), snapshotBeforeReload.getValue())) {
+                notifyRemoved(snapshotBeforeReload.getKey());
+            }
+        }
+        feedWatermarkInEpoch = Math.max(feedWatermarkInEpoch, nowInEpoch);
+        menusLoaded = true;
+        reloadCount.increment();
+        return menus.size();
+    }
+
+    @Override
+    public synchronized int pollMenus()
+            throws RepositoryServerException {
+        if (!menusLoaded) {
+            return reloadMenus();
+        }
+        long nowInEpoch = TimeUtils.getEpochTimeNowInUTC();
+        Map<Long, Long> menuVersions = menuTable.getMenuVersionsUpdated(Math.max(0L, feedWatermarkInEpoch - FEED_POLL_OVERLAP_IN_MILLS), nowInEpoch);
+        int numOfChanges = 0;
+        List<MenuSnapshot> installedSnapshots = new ArrayList<>();
+        for (Map.Entry<Long, Long> menuVersion : menuVersions.entrySet()) {
+            Long restaurantId = menuVersion.getKey();
+            MenuSnapshot currentSnapshot = menuSnapshots.get(restaurantId);
+            if (currentSnapshot != null && currentSnapshot.getVersion() >= menuVersion.getValue()) {
+                continue;
+            }
+            numOfChanges++;
+            try {
+                MenuSnapshot menuSnapshot = buildSnapshot(currentSnapshot, menuTable.getMenu(restaurantId));
+                if (install(menuSnapshot) == menuSnapshot) {
+                    installedSnapshots.add(menuSnapshot);
+                }
+            } catch (ItemNotFoundException notFound) {
+                /*
+                 * The menu deleted through other servers is removed only if it has not been published since the poll read it
+                 */
+                if (currentSnapshot != null && menuSnapshots.remove(restaurantId, currentSnapshot)) {
+                    notifyRemoved(restaurantId);
+                }
+            } catch (ValidationException error) {
+                throw new RepositoryServerException(error);
+            }
+        }
+        if (!installedSnapshots.isEmpty()) {
+            notifyInstalled(installedSnapshots);
+        }
+        feedWatermarkInEpoch = Math.max(feedWatermarkInEpoch, nowInEpoch);
+        pollCount.increment();
+        polledChangeCount.add(numOfChanges);
+        return numOfChanges;
+    }
+
+    /*
+     * The snapshot of the same version is not delivered to the listeners, since the menu itself is unchanged
+     */
+    @Override
+    public boolean updatePopularItems(Long restaurantId, List<Long> popularItemIds)
+            throws ValidationException {
+        if (restaurantId == null || popularItemIds == null) {
+            throw new ValidationException(String.format("Expecting non-null request paramter for updatePopularItems, but received: restaurantId=%s, popularItemIds=%s",
+                    restaurantId, popularItemIds));
+        }
+        MenuSnapshot currentSnapshot = menuSnapshots.get(restaurantId);
+        if (currentSnapshot == null) {
+            return false;
+        }
+        List<Long> validatedPopularItemIds = retainItemsOnMenu(currentSnapshot.getMenu(), popularItemIds);
+        if (validatedPopularItemIds.equals(currentSnapshot.getPopularItemIds())) {
+            return false;
+        }
+        Menu menu = currentSnapshot.getMenu();
+        MenuSnapshot menuSnapshot = currentSnapshot.withPopularItems(validatedPopularItemIds,
+                menuRenderer.render(menu, null, validatedPopularItemIds), renderLocalizedMenus(menu, validatedPopularItemIds));
+        if (!menuSnapshots.replace(restaurantId, currentSnapshot, menuSnapshot)) {
+            return false;
+        }
+        popularityUpdateCount.increment();
+        return true;
+    }
+
+    /*
+     * The listener is registered before the snapshots in memory are delivered, so that no snapshot swapped in meanwhile is missed
+     */
+    @Override
+    public void addMenuSnapshotListener(@Nonnull MenuSnapshotListener menuSnapshotListener) {
+        menuSnapshotListeners.add(menuSnapshotListener);
+        List<MenuSnapshot> currentSnapshots = new ArrayList<>(menuSnapshots.values());
+        if (!currentSnapshots.isEmpty()) {
+            menuSnapshotListener.onMenusInstalled(currentSnapshots);
+        }
+    }
+
+    @Override
+    public @Nonnull Map<String, Object> getStats() {
+        long totalFootprintInBytes = 0;
+        PriorityQueue<MenuSnapshot> largestMenus = new PriorityQueue<>(NUM_OF_LARGEST_MENUS_IN_STATS + 1, BY_FOOTPRINT);
+        for (MenuSnapshot menuSnapshot : menuSnapshots.values()) {
+            totalFootprintInBytes += menuSnapshot.getFootprintInBytes();
+            largestMenus.add(menuSnapshot);
+            if (largestMenus.size() > NUM_OF_LARGEST_MENUS_IN_STATS) {
+                largestMenus.poll();
+            }
+        }
+        List<MenuSnapshot> sortedLargestMenus = new ArrayList<>(largestMenus);
+        Collections.sort(sortedLargestMenus, Collections.reverseOrder(BY_FOOTPRINT));
+        Map<String, Long> largestFootprints = new LinkedHashMap<>();
+        for (MenuSnapshot menuSnapshot : sortedLargestMenus) {
+            largestFootprints.put(String.valueOf(menuSnapshot.getRestaurantId()), menuSnapshot.getFootprintInBytes());
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", menuSnapshots.size());
+        stats.put("total_footprint_bytes", totalFootprintInBytes);
+        stats.put("largest_footprint_bytes", largestFootprints);
+        stats.put("publish_count", publishCount.sum());
+        stats.put("stale_publish_count", stalePublishCount.sum());
+        stats.put("reload_count", reloadCount.sum());
+        stats.put("poll_count", pollCount.sum());
+        stats.put("polled_change_count", polledChangeCount.sum());
+        stats.put("read_through_count", readThroughCount.sum());
+        stats.put("popularity_update_count", popularityUpdateCount.sum());
+        stats.put("translation_table_size", TranslationTable.getSizes());
+        return stats;
+    }
+
+    /*
+     * The MENU table is the source of truth once the publish conflicts, so its version replaces the snapshot
+     *
+     * @return the version of the menu in the table, or of its deletion if the menu is deleted
+     */
+    private long refreshMenu(@Nonnull Long restaurantId)
+            throws ValidationException, RepositoryServerException {
+        try {
+            MenuSnapshot menuSnapshot = buildSnapshot(menuSnapshots.get(restaurantId), menuTable.getMenu(restaurantId));
+            MenuSnapshot installedSnapshot = install(menuSnapshot);
+            if (installedSnapshot == menuSnapshot) {
+                notifyInstalled(Collections.singletonList(menuSnapshot));
+            }
+            return installedSnapshot.getVersion();
+        } catch (ItemNotFoundException notFound) {
+            LOG.info("The menu of restaurant {} no longer exists while attempting to refresh it.", restaurantId);
+            if (menuSnapshots.remove(restaurantId) != null) {
+                notifyRemoved(restaurantId);
+            }
+            return menuTable.getMenuVersion(restaurantId);
+        }
+    }
+
+    /*
+     * The server keeps serving while the menus are being loaded, and a failed read fails the request rather than reporting the menu missing,
+     * so that the clients and the caches in front of this server retry instead of taking the menu for deleted
+     */
+    private @Nonnull MenuSnapshot readThrough(@Nonnull Long restaurantId)
+            throws ValidationException, ItemNotFoundException, RepositoryServerException {
+        readThroughCount.increment();
+        Menu menu = menuTable.getMenu(restaurantId);
+        MenuSnapshot menuSnapshot = buildSnapshot(menuSnapshots.get(restaurantId), menu);
+        MenuSnapshot installedSnapshot = install(menuSnapshot);
+        if (installedSnapshot == menuSnapshot) {
+            notifyInstalled(Collections.singletonList(menuSnapshot));
+        }
+        return installedSnapshot;
+    }
+
+    /*
+     * The change log starts over unless the menu is the very next version of the previous snapshot,
+     * while the popular items are carried over until the popularity is materialized again
+     */
+    private @Nonnull MenuSnapshot buildSnapshot(@Nullable MenuSnapshot previousSnapshot, @Nonnull Menu menu) {
+        MenuChangeLog changeLog = previousSnapshot == null ? MenuChangeLog.startAt(menu)
+                : MenuChangeLog.next(previousSnapshot.getMenu(), previousSnapshot.getChangeLog(), menu);
+        List<Long> popularItemIds = previousSnapshot == null ? Collections.<Long>emptyList()
+                : retainItemsOnMenu(menu, previousSnapshot.getPopularItemIds());
+        return new MenuSnapshot(menu, menuRenderer.render(menu, null, popularItemIds), renderLocalizedMenus(menu, popularItemIds), changeLog,
+                popularItemIds);
+    }
+
+    private @Nonnull Map<String, RenderedMenu> renderLocalizedMenus(@Nonnull Menu menu, @Nonnull List<Long> popularItemIds) {
+        Map<String, RenderedMenu> localizedRenderedMenus = new HashMap<>();
+        for (MenuTranslation translation : menu.getTranslations().values()) {
+            localizedRenderedMenus.put(translation.getLocale(), menuRenderer.render(menu, translation, popularItemIds));
+        }
+        return localizedRenderedMenus;
+    }
+
+    /*
+     * @return the distinct items on the menu in the same order, no more than MenuSnapshot.MAX_POPULAR_ITEMS of them
+     */
+    private static @Nonnull List<Long> retainItemsOnMenu(@Nonnull Menu menu, @Nonnull List<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<Long> menuItemIds = new HashSet<>();
+        for (MenuItem item : menu.getItems()) {
+            menuItemIds.add(item.getItemId());
+        }
+        Set<Long> retainedItemIds = new LinkedHashSet<>();
+        for (Long itemId : itemIds) {
+            if (retainedItemIds.size() >= MenuSnapshot.MAX_POPULAR_ITEMS) {
+                break;
+            }
+            if (itemId != null && menuItemIds.contains(itemId)) {
+                retainedItemIds.add(itemId);
+            }
+        }
+        return new ArrayList<>(retainedItemIds);
+    }
+
+    private @Nonnull MenuSnapshot install(@Nonnull MenuSnapshot menuSnapshot) {
+        return menuSnapshots.merge(menuSnapshot.getRestaurantId(), menuSnapshot, NEWER_VERSION);
+    }
+
+    /*
+     * The menu is already swapped in, so a failed listener is logged rather than failing the publish or the reload
+     */
+    private void notifyInstalled(@Nonnull List<MenuSnapshot> installedSnapshots) {
+        for (MenuSnapshotListener menuSnapshotListener : menuSnapshotListeners) {
+            try {
+                menuSnapshotListener.onMenusInstalled(installedSnapshots);
+            } catch (RuntimeException error) {
+                LOG.warn(String.format("Failed while attempting to notify %s of %s installed menus.", 
+                        menuSnapshotListener, installedSnapshots.size()), error);
+            }
+        }
+    }
+
+    private void notifyRemoved(@Nonnull Long restaurantId) {
+        for (MenuSnapshotListener menuSnapshotListener : menuSnapshotListeners) {
+            try {
+                menuSnapshotListener.onMenuRemoved(restaurantId);
+            } catch (RuntimeException error) {
+                LOG.warn(String.format("Failed while attempting to notify %s of removed menu of restaurant %s.", 
+                        menuSnapshotListener, restaurantId), error);
+            }
+        }
+    }
+}
@@ -0,0 +1,601 @@
+package com.unicorn.rest.repository.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.unicorn.rest.repository.MenuSearchRepository;
+import com.unicorn.rest.repository.MenuSnapshotListener;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.impl.MenuSearchSegment.Postings;
+import com.unicorn.rest.repository.model.MenuSearchHit;
+import com.unicorn.rest.repository.model.MenuSnapshot;
+import com.unicorn.rest.server.admin.StatsProvider;
+import com.unicorn.rest.utils.TextTokenizer;
+
+/**
+ * In-memory inverted index over the items of all the menus, which is kept up to date as MenuSnapshotListener.
+ *
+ * The index is a list of immutable segments in the way of log-structured merge: each menu version published is indexed into a new small segment,
+ * and the documents of its previous version are marked deleted in the segment holding them. The segments of similar size are merged
+ * once there are MERGE_FACTOR of them, and the segment with too many deleted documents is rewritten, so that the number of segments
+ * stays logarithmic to the number of items.
+ *
+ * The search reads the current list of segments without lock. The updates are serialized by the lock and swap in a new list.
+ * The merges and rewrites run on the merge executor one at a time, off the thread publishing the menus, and the menus updated
+ * or removed while the merged segment is being built are deleted from it as it is swapped in.
+ */
+public class MenuSearchRepositoryImpl implements MenuSearchRepository, MenuSnapshotListener, StatsProvider {
+    private static final Logger LOG = LogManager.getLogger(MenuSearchRepositoryImpl.class);
+
+    public static final int MAX_QUERY_LENGTH = 256;
+    public static final int MAX_SEARCH_LIMIT = 100;
+    /*
+     * The prefix expands to the most frequent terms starting with it, so that a short prefix does not turn into a scan of the whole index
+     */
+    public static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MERGE_FACTOR = 10;
+    private static final double MAX_DELETED_DOCS_RATIO = 0.3;
+    private static final double BM25_K1 = 1.2;
+    private static final double BM25_B = 0.75;
+
+    private static final Comparator<MenuSearchHit> BY_RELEVANCE = new Comparator<MenuSearchHit>() {
+        @Override
+        public int compare(MenuSearchHit hit, MenuSearchHit otherHit) {
+            int compareScore = Double.compare(hit.getScore(), otherHit.getScore());
+            if (compareScore != 0) {
+                return compareScore;
+            }
+            int compareRestaurant = Long.compare(otherHit.getRestaurantId(), hit.getRestaurantId());
+            return compareRestaurant != 0 ? compareRestaurant : Long.compare(otherHit.getItem().getItemId(), hit.getItem().getItemId());
+        }
+    };
+
+    /*
+     * The segment and the documents deleted from it since it was built, which is replaced rather than modified once in use
+     */
+    private static class LiveSegment {
+        private final MenuSearchSegment segment;
+        private final BitSet deletedDocs;
+        private final int numOfDeletedDocs;
+
+        private LiveSegment(@Nonnull MenuSearchSegment segment, @Nonnull BitSet deletedDocs) {
+            this.segment = segment;
+            this.deletedDocs = deletedDocs;
+            this.numOfDeletedDocs = deletedDocs.cardinality();
+        }
+
+        private int getNumOfLiveDocs() {
+            return segment.getNumOfDocs() - numOfDeletedDocs;
+        }
+    }
+
+    private final Executor mergeExecutor;
+    private volatile List<LiveSegment> liveSegments = Collections.emptyList();
+    /*
+     * The menu version indexed for each restaurant, guarded by the lock of this object
+     */
+    private final Map<Long, Long> indexedVersions = new HashMap<>();
+    /*
+     * The restaurants updated or removed while the merged segment is being built, which is NULL unless a merge is in progress, 
+     * guarded by the lock of this object
+     */
+    private Set<Long> restaurantsChangedDuringMerge = null;
+
+    private final LongAdder searchCount = new LongAdder();
+    private final LongAdder updateCount = new LongAdder();
+    private final LongAdder mergeCount = new LongAdder();
+
+    /**
+     * @param mergeExecutor to merge and rewrite the segments off the thread publishing the menus
+     */
+    public MenuSearchRepositoryImpl(@Nonnull Executor mergeExecutor) {
+        this.mergeExecutor = mergeExecutor;
+    }
+
+    @Override
+    public @Nonnull List<MenuSearchHit> searchMenuItems(@Nullable String query, boolean prefix, int limit)
+            throws ValidationException {
+        if (StringUtils.isBlank(query) || query.length() > MAX_QUERY_LENGTH) {
+            throw new ValidationException(String.format("Invalid query. The query should be non-blank with no more than %s characters", MAX_QUERY_LENGTH));
+        }
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new ValidationException(String.format("Invalid limit %s. The limit should be between 1 and %s", limit, MAX_SEARCH_LIMIT));
+        }
+        searchCount.increment();
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(TextTokenizer.tokenize(query)));
+        if (queryTerms.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<LiveSegment> currentSegments = liveSegments;
+        long numOfDocs = 0;
+        long numOfLiveDocs = 0;
+        long totalDocLength = 0;
+        for (LiveSegment liveSegment : currentSegments) {
+            numOfDocs += liveSegment.segment.getNumOfDocs();
+            numOfLiveDocs += liveSegment.getNumOfLiveDocs();
+            totalDocLength += liveSegment.segment.totalDocLength;
+        }
+        if (numOfLiveDocs == 0) {
+            return Collections.emptyList();
+        }
+        double averageDocLength = (double) totalDocLength / numOfDocs;
+
+        /*
+         * Each clause is the set of the terms any of which the item has to have, i.e. one term, or the terms the prefix expands to
+         */
+        List<String[]> clauses = new ArrayList<>(queryTerms.size());
+        for (int i = 0; i < queryTerms.size(); i++) {
+            boolean isPrefix = prefix && i == queryTerms.size() - 1;
+            clauses.add(isPrefix ? expandPrefix(currentSegments, queryTerms.get(i)) : new String[] {queryTerms.get(i)});
+        }
+        Map<String, Double> inverseDocFrequencies = new HashMap<>();
+        for (String[] clause : clauses) {
+            for (String term : clause) {
+                inverseDocFrequencies.put(term, inverseDocFrequency(currentSegments, term, numOfLiveDocs));
+            }
+        }
+
+        PriorityQueue<MenuSearchHit> topHits = new PriorityQueue<>(limit + 1, BY_RELEVANCE);
+        for (LiveSegment liveSegment : currentSegments) {
+            searchSegment(liveSegment, clauses, inverseDocFrequencies, averageDocLength, limit, topHits);
+        }
+        List<MenuSearchHit> hits = new ArrayList<>(topHits);
+        Collections.sort(hits, Collections.reverseOrder(BY_RELEVANCE));
+        return hits;
+    }
+
+    @Override
+    public void onMenusInstalled(@Nonnull Collection<MenuSnapshot> menuSnapshots) {
+        synchronized (this) {
+            MenuSearchSegment.Builder segmentBuilder = new MenuSearchSegment.Builder();
+            Set<Long> updatedRestaurantIds = new LinkedHashSet<>();
+            for (MenuSnapshot menuSnapshot : menuSnapshots) {
+                Long indexedVersion = indexedVersions.get(menuSnapshot.getRestaurantId());
+                if (indexedVersion != null && indexedVersion >= menuSnapshot.getVersion()) {
+                    continue;
+                }
+                indexedVersions.put(menuSnapshot.getRestaurantId(), menuSnapshot.getVersion());
+                updatedRestaurantIds.add(menuSnapshot.getRestaurantId());
+                segmentBuilder.addMenu(menuSnapshot.getRestaurantId(), menuSnapshot.getMenu().getItems());
+            }
+            if (updatedRestaurantIds.isEmpty()) {
+                return;
+            }
+            List<LiveSegment> updatedSegments = deleteDocs(liveSegments, updatedRestaurantIds);
+            if (!segmentBuilder.isEmpty()) {
+                updatedSegments.add(new LiveSegment(segmentBuilder.build(), new BitSet()));
+            }
+            if (restaurantsChangedDuringMerge != null) {
+                restaurantsChangedDuringMerge.addAll(updatedRestaurantIds);
+            }
+            liveSegments = Collections.unmodifiableList(updatedSegments);
+            updateCount.increment();
+        }
+        mergeIfNeeded();
+    }
+
+    @Override
+    public void onMenuRemoved(@Nonnull Long restaurantId) {
+        synchronized (this) {
+            if (indexedVersions.remove(restaurantId) == null) {
+                return;
+            }
+            if (restaurantsChangedDuringMerge != null) {
+                restaurantsChangedDuringMerge.add(restaurantId);
+            }
+            liveSegments = Collections.unmodifiableList(deleteDocs(liveSegments, Collections.singleton(restaurantId)));
+            updateCount.increment();
+        }
+        mergeIfNeeded();
+    }
+
+    @Override
+    public @Nonnull Map<String, Object> getStats() {
+        List<LiveSegment> currentSegments = liveSegments;
+        long numOfDocs = 0;
+        long numOfDeletedDocs = 0;
+        long numOfPostings = 0;
+        for (LiveSegment liveSegment : currentSegments) {
+            numOfDocs += liveSegment.segment.getNumOfDocs();
+            numOfDeletedDocs += liveSegment.numOfDeletedDocs;
+            for (Postings postings : liveSegment.segment.postings.values()) {
+                numOfPostings += postings.docs.length;
+            }
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("num_segments", currentSegments.size());
+        stats.put("num_documents", numOfDocs);
+        stats.put("num_deleted_documents", numOfDeletedDocs);
+        stats.put("num_postings", numOfPostings);
+        stats.put("search_count", searchCount.sum());
+        stats.put("update_count", updateCount.sum());
+        stats.put("merge_count", mergeCount.sum());
+        return stats;
+    }
+
+    /*
+     * The postings of a clause: the postings of its only term scored as they are read,
+     * or the union of the postings of its terms with the scores summed up front
+     */
+    private static class ClausePostings {
+        private final int[] docs;
+        private final int[] termFrequencies;
+        private final double inverseDocFrequency;
+        private final float[] scores;
+        private int cursor = 0;
+
+        private ClausePostings(@Nonnull int[] docs, @Nullable int[] termFrequencies, double inverseDocFrequency, @Nullable float[] scores) {
+            this.docs = docs;
+            this.termFrequencies = termFrequencies;
+            this.inverseDocFrequency = inverseDocFrequency;
+            this.scores = scores;
+        }
+
+        /*
+         * @return the score of the document, or a negative number if the clause does not have the document
+         */
+        private double score(int doc, double lengthNormalization) {
+            cursor = advance(docs, cursor, doc);
+            if (cursor == docs.length || docs[cursor] != doc) {
+                return -1;
+            }
+            if (scores != null) {
+                return scores[cursor];
+            }
+            return bm25(inverseDocFrequency, termFrequencies[cursor], lengthNormalization);
+        }
+    }
+
+    /*
+     * Score the documents having every clause, driven by the clause with the fewest postings and skipping ahead in the others
+     */
+    private static void searchSegment(@Nonnull LiveSegment liveSegment, @Nonnull List<String[]> clauses, @Nonnull Map<String, Double> inverseDocFrequencies,
+            double averageDocLength, int limit, @Nonnull PriorityQueue<MenuSearchHit> topHits) {
+        MenuSearchSegment segment = liveSegment.segment;
+        ClausePostings[] clausePostings = new ClausePostings[clauses.size()];
+        ClausePostings leadClausePostings = null;
+        for (int i = 0; i < clauses.size(); i++) {
+            clausePostings[i] = buildClausePostings(segment, clauses.get(i), inverseDocFrequencies, averageDocLength);
+            if (clausePostings[i] == null) {
+                return;
+            }
+            if (leadClausePostings == null || clausePostings[i].docs.length < leadClausePostings.docs.length) {
+                leadClausePostings = clausePostings[i];
+            }
+        }
+
+        for (int doc : leadClausePostings.docs) {
+            if (liveSegment.deletedDocs.get(doc)) {
+                continue;
+            }
+            double lengthNormalization = lengthNormalization(segment.docLengths[doc], averageDocLength);
+            double score = 0;
+            for (int i = 0; i < clausePostings.length && score >= 0; i++) {
+                double clauseScore = clausePostings[i].score(doc, lengthNormalization);
+                score = clauseScore < 0 ? -1 : score + clauseScore;
+            }
+            if (score < 0) {
+                continue;
+            }
+            if (topHits.size() < limit || score > topHits.peek().getScore()) {
+                topHits.add(new MenuSearchHit(segment.docRestaurantIds[doc], segment.docItems[doc], score));
+                if (topHits.size() > limit) {
+                    topHits.poll();
+                }
+            }
+        }
+    }
+
+    /*
+     * @return NULL if the segment has none of the terms
+     */
+    private static @Nullable ClausePostings buildClausePostings(@Nonnull MenuSearchSegment segment, @Nonnull String[] terms,
+            @Nonnull Map<String, Double> inverseDocFrequencies, double averageDocLength) {
+        List<Postings> postingsList = new ArrayList<>(terms.length);
+        List<Double> inverseDocFrequencyList = new ArrayList<>(terms.length);
+        for (String term : terms) {
+            Postings postings = segment.getPostings(term);
+            if (postings != null) {
+                postingsList.add(postings);
+                inverseDocFrequencyList.add(inverseDocFrequencies.get(term));
+            }
+        }
+        if (postingsList.isEmpty()) {
+            return null;
+        }
+        if (postingsList.size() == 1) {
+            return new ClausePostings(postingsList.get(0).docs, postingsList.get(0).termFrequencies, inverseDocFrequencyList.get(0), null);
+        }
+        /*
+         * Scoring the union once is much cheaper than skipping ahead in every term of the prefix for every candidate document.
+         * The postings of the terms are merged in pairs, so the union costs the postings it has rather than the documents of the segment
+         */
+        int numOfLists = postingsList.size();
+        int[][] docsList = new int[numOfLists][];
+        float[][] scoresList = new float[numOfLists][];
+        int[] lengths = new int[numOfLists];
+        for (int i = 0; i < numOfLists; i++) {
+            Postings postings = postingsList.get(i);
+            double inverseDocFrequency = inverseDocFrequencyList.get(i);
+            float[] scores = new float[postings.docs.length];
+            for (int j = 0; j < postings.docs.length; j++) {
+                scores[j] = (float) bm25(inverseDocFrequency, postings.termFrequencies[j], 
+                        lengthNormalization(segment.docLengths[postings.docs[j]], averageDocLength));
+            }
+            docsList[i] = postings.docs;
+            scoresList[i] = scores;
+            lengths[i] = postings.docs.length;
+        }
+        while (numOfLists > 1) {
+            int numOfMergedLists = 0;
+            for (int i = 0; i < numOfLists; i += 2) {
+                if (i + 1 < numOfLists) {
+                    mergePostings(docsList, scoresList, lengths, i, i + 1, numOfMergedLists);
+                } else {
+                    docsList[numOfMergedLists] = docsList[i];
+                    scoresList[numOfMergedLists] = scoresList[i];
+                    lengths[numOfMergedLists] = lengths[i];
+                }
+                numOfMergedLists++;
+            }
+            numOfLists = numOfMergedLists;
+        }
+        return new ClausePostings(Arrays.copyOf(docsList[0], lengths[0]), null, 0, Arrays.copyOf(scoresList[0], lengths[0]));
+    }
+
+    /*
+     * Merge the sorted postings at index and otherIndex into mergedIndex, summing up the scores of the documents in both
+     */
+    private static void mergePostings(@Nonnull int[][] docsList, @Nonnull float[][] scoresList, @Nonnull int[] lengths, 
+            int index, int otherIndex, int mergedIndex) {
+        int[] docs = docsList[index];
+        int[] otherDocs = docsList[otherIndex];
+        float[] scores = scoresList[index];
+        float[] otherScores = scoresList[otherIndex];
+        int length = lengths[index];
+        int otherLength = lengths[otherIndex];
+        int[] mergedDocs = new int[length + otherLength];
+        float[] mergedScores = new float[length + otherLength];
+        int cursor = 0;
+        int otherCursor = 0;
+        int mergedLength = 0;
+        while (cursor < length || otherCursor < otherLength) {
+            if (otherCursor == otherLength || (cursor < length && docs[cursor] < otherDocs[otherCursor])) {
+                mergedDocs[mergedLength] = docs[cursor];
+                mergedScores[mergedLength++] = scores[cursor++];
+            } else if (cursor == length || otherDocs[otherCursor] < docs[cursor]) {
+                mergedDocs[mergedLength] = otherDocs[otherCursor];
+                mergedScores[mergedLength++] = otherScores[otherCursor++];
+            } else {
+                mergedDocs[mergedLength] = docs[cursor];
+                mergedScores[mergedLength++] = scores[cursor++] + otherScores[otherCursor++];
+            }
+        }
+        docsList[mergedIndex] = mergedDocs;
+        scoresList[mergedIndex] = mergedScores;
+        lengths[mergedIndex] = mergedLength;
+    }
+
+    private static double lengthNormalization(int docLength, double averageDocLength) {
+        return BM25_K1 * (1 - BM25_B + BM25_B * docLength / averageDocLength);
+    }
+
+    private static double bm25(double inverseDocFrequency, int termFrequency, double lengthNormalization) {
+        return inverseDocFrequency * termFrequency * (BM25_K1 + 1) / (termFrequency + lengthNormalization);
+    }
+
+    /**
+     * Gallop from the cursor to the first document no less than the target
+     *
+     * @return the index of the first document no less than the target, or the length of the documents if there is none
+     */
+    protected static int advance(@Nonnull int[] docs, int cursor, int target) {
+        if (cursor >= docs.length || docs[cursor] >= target) {
+            return cursor;
+        }
+        int bound = 1;
+        while (cursor + bound < docs.length && docs[cursor + bound] < target) {
+            bound <<= 1;
+        }
+        int low = cursor + (bound >> 1) + 1;
+        int high = Math.min(cursor + bound, docs.length);
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (docs[middle] < target) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /*
+     * The deleted documents are counted in the document frequency until they are merged away, which only shifts the score slightly
+     */
+    private static double inverseDocFrequency(@Nonnull List<LiveSegment> currentSegments, @Nonnull String term, long numOfLiveDocs) {
+        long docFrequency = 0;
+        for (LiveSegment liveSegment : currentSegments) {
+            Postings postings = liveSegment.segment.getPostings(term);
+            if (postings != null) {
+                docFrequency += postings.docs.length;
+            }
+        }
+        return Math.log(1 + (numOfLiveDocs - docFrequency + 0.5) / (docFrequency + 0.5));
+    }
+
+    private static @Nonnull String[] expandPrefix(@Nonnull List<LiveSegment> currentSegments, @Nonnull String prefix) {
+        final Map<String, Long> docFrequencies = new HashMap<>();
+        for (LiveSegment liveSegment : currentSegments) {
+            for (String term : liveSegment.segment.expandPrefix(prefix)) {
+                Long docFrequency = docFrequencies.get(term);
+                long segmentDocFrequency = liveSegment.segment.getPostings(term).docs.length;
+                docFrequencies.put(term, docFrequency == null ? segmentDocFrequency : docFrequency + segmentDocFrequency);
+            }
+        }
+        List<String> terms = new ArrayList<>(docFrequencies.keySet());
+        if (terms.size() > MAX_PREFIX_EXPANSIONS) {
+            Collections.sort(terms, new Comparator<String>() {
+                @Override
+                public int compare(String term, String otherTerm) {
+                    return Long.compare(docFrequencies.get(otherTerm), docFrequencies.get(term));
+                }
+            });
+            terms = terms.subList(0, MAX_PREFIX_EXPANSIONS);
+        }
+        return terms.toArray(new String[terms.size()]);
+    }
+
+    /*
+     * Copy the deleted documents of the segments holding the restaurants, and leave the others shared with the current list
+     */
+    private static @Nonnull List<LiveSegment> deleteDocs(@Nonnull List<LiveSegment> currentSegments, @Nonnull Set<Long> restaurantIds) {
+        List<LiveSegment> updatedSegments = new ArrayList<>(currentSegments.size() + 1);
+        for (LiveSegment liveSegment : currentSegments) {
+            BitSet deletedDocs = null;
+            for (Long restaurantId : restaurantIds) {
+                int[] docRange = liveSegment.segment.restaurantDocRanges.get(restaurantId);
+                if (docRange == null || docRange[0] == docRange[1] || liveSegment.deletedDocs.get(docRange[0])) {
+                    continue;
+                }
+                if (deletedDocs == null) {
+                    deletedDocs = (BitSet) liveSegment.deletedDocs.clone();
+                }
+                deletedDocs.set(docRange[0], docRange[1]);
+            }
+            updatedSegments.add(deletedDocs == null ? liveSegment : new LiveSegment(liveSegment.segment, deletedDocs));
+        }
+        return updatedSegments;
+    }
+
+    /*
+     * Pick the segments to merge from the current list, and build the merged segment on the merge executor unless a merge is in progress
+     */
+    private void mergeIfNeeded() {
+        final List<LiveSegment> segmentsToMerge;
+        synchronized (this) {
+            if (restaurantsChangedDuringMerge != null) {
+                return;
+            }
+            segmentsToMerge = pickSegmentsToMerge(liveSegments);
+            if (segmentsToMerge == null) {
+                return;
+            }
+            restaurantsChangedDuringMerge = new HashSet<>();
+        }
+        mergeExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                installMergedSegment(segmentsToMerge);
+            }
+        });
+    }
+
+    /*
+     * The segments merged are replaced by the merged segment, from which the menus changed meanwhile are deleted,
+     * since their documents are deleted from the segments merged only after the merge started. The merged segment may fill up
+     * the next tier, so the next merge is picked right after.
+     */
+    private void installMergedSegment(@Nonnull List<LiveSegment> segmentsToMerge) {
+        LiveSegment mergedSegment;
+        try {
+            mergedSegment = rewrite(segmentsToMerge);
+        } catch (RuntimeException error) {
+            LOG.error("Failed while attempting to merge the menu search segments.", error);
+            synchronized (this) {
+                restaurantsChangedDuringMerge = null;
+            }
+            return;
+        }
+        synchronized (this) {
+            Set<MenuSearchSegment> mergedSegments = Collections.newSetFromMap(new IdentityHashMap<MenuSearchSegment, Boolean>());
+            for (LiveSegment liveSegment : segmentsToMerge) {
+                mergedSegments.add(liveSegment.segment);
+            }
+            List<LiveSegment> updatedSegments = new ArrayList<>(liveSegments.size());
+            for (LiveSegment liveSegment : liveSegments) {
+                if (!mergedSegments.contains(liveSegment.segment)) {
+                    updatedSegments.add(liveSegment);
+                }
+            }
+            if (!restaurantsChangedDuringMerge.isEmpty()) {
+                mergedSegment = deleteDocs(Collections.singletonList(mergedSegment), restaurantsChangedDuringMerge).get(0);
+            }
+            addIfNotEmpty(updatedSegments, mergedSegment);
+            restaurantsChangedDuringMerge = null;
+            liveSegments = Collections.unmodifiableList(updatedSegments);
+        }
+        mergeIfNeeded();
+    }
+
+    /*
+     * The segment with too many deleted documents is rewritten first, otherwise the segments of a full size tier are merged
+     *
+     * @return NULL if no segment needs to be merged
+     */
+    private static @Nullable List<LiveSegment> pickSegmentsToMerge(@Nonnull List<LiveSegment> currentSegments) {
+        for (LiveSegment liveSegment : currentSegments) {
+            if (liveSegment.numOfDeletedDocs > liveSegment.segment.getNumOfDocs() * MAX_DELETED_DOCS_RATIO) {
+                return Collections.singletonList(liveSegment);
+            }
+        }
+        Map<Integer, List<LiveSegment>> tiers = new HashMap<>();
+        for (LiveSegment liveSegment : currentSegments) {
+            int tier = (int) (Math.log(Math.max(1, liveSegment.getNumOfLiveDocs())) / Math.log(MERGE_FACTOR));
+            List<LiveSegment> tierSegments = tiers.get(tier);
+            if (tierSegments == null) {
+                tierSegments = new ArrayList<>();
+                tiers.put(tier, tierSegments);
+            }
+            tierSegments.add(liveSegment);
+            if (tierSegments.size() >= MERGE_FACTOR) {
+                return tierSegments;
+            }
+        }
+        return null;
+    }
+
+    private @Nonnull LiveSegment rewrite(@Nonnull List<LiveSegment> liveSegmentsToMerge) {
+        MenuSearchSegment.Builder segmentBuilder = new MenuSearchSegment.Builder();
+        for (LiveSegment liveSegment : liveSegmentsToMerge) {
+            MenuSearchSegment segment = liveSegment.segment;
+            for (Map.Entry<Long, int[]> restaurantDocRange : segment.restaurantDocRanges.entrySet()) {
+                int[] docRange = restaurantDocRange.getValue();
+                if (docRange[0] < docRange[1] && !liveSegment.deletedDocs.get(docRange[0])) {
+                    segmentBuilder.addMenu(restaurantDocRange.getKey(), Arrays.asList(segment.docItems).subList(docRange[0], docRange[1]));
+                }
+            }
+        }
+        mergeCount.increment();
+        return new LiveSegment(segmentBuilder.build(), new BitSet());
+    }
+
+    private static void addIfNotEmpty(@Nonnull List<LiveSegment> liveSegments, @Nonnull LiveSegment liveSegment) {
+        if (liveSegment.segment.getNumOfDocs() > 0) {
+            liveSegments.add(liveSegment);
+        }
+    }
+}
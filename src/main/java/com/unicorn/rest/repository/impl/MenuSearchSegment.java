@@ -0,0 +1,190 @@
+package com.unicorn.rest.repository.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.unicorn.rest.repository.model.MenuItem;
+import com.unicorn.rest.utils.TextTokenizer;
+
+/**
+ * The immutable inverted index over the items of a set of menus. Each item is a document, numbered from 0 in the order it is added,
+ * and the items of the same menu are numbered consecutively, so that a menu is removed by marking a range of documents as deleted.
+ *
+ * The posting list of each term is a pair of primitive int arrays: the ascending document numbers and the term frequencies.
+ * The terms in the item name and tags weigh more than the terms in the description.
+ */
+class MenuSearchSegment {
+
+    static final int NAME_TERM_WEIGHT = 3;
+    static final int TAG_TERM_WEIGHT = 2;
+    static final int DESCRIPTION_TERM_WEIGHT = 1;
+
+    static class Postings {
+        final int[] docs;
+        final int[] termFrequencies;
+
+        Postings(@Nonnull int[] docs, @Nonnull int[] termFrequencies) {
+            this.docs = docs;
+            this.termFrequencies = termFrequencies;
+        }
+    }
+
+    final long[] docRestaurantIds;
+    final MenuItem[] docItems;
+    /*
+     * The weighted number of terms in each document
+     */
+    final int[] docLengths;
+    final long totalDocLength;
+    final Map<String, Postings> postings;
+    /*
+     * The terms in alphabetical order, for the prefix to find the terms it expands to with binary search
+     */
+    final String[] sortedTerms;
+    /*
+     * The restaurant to the range of its documents, from inclusive to exclusive
+     */
+    final Map<Long, int[]> restaurantDocRanges;
+
+    private MenuSearchSegment(@Nonnull long[] docRestaurantIds, @Nonnull MenuItem[] docItems, @Nonnull int[] docLengths, long totalDocLength,
+            @Nonnull Map<String, Postings> postings, @Nonnull Map<Long, int[]> restaurantDocRanges) {
+        this.docRestaurantIds = docRestaurantIds;
+        this.docItems = docItems;
+        this.docLengths = docLengths;
+        this.totalDocLength = totalDocLength;
+        this.postings = postings;
+        this.sortedTerms = postings.keySet().toArray(new String[postings.size()]);
+        Arrays.sort(this.sortedTerms);
+        this.restaurantDocRanges = restaurantDocRanges;
+    }
+
+    int getNumOfDocs() {
+        return docItems.length;
+    }
+
+    @Nullable Postings getPostings(@Nonnull String term) {
+        return postings.get(term);
+    }
+
+    /**
+     * @return the terms starting with the prefix in alphabetical order @Nonnull
+     */
+    @Nonnull List<String> expandPrefix(@Nonnull String prefix) {
+        int index = Arrays.binarySearch(sortedTerms, prefix);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        List<String> terms = new ArrayList<>();
+        while (index < sortedTerms.length && sortedTerms[index].startsWith(prefix)) {
+            terms.add(sortedTerms[index++]);
+        }
+        return terms;
+    }
+
+    static class Builder {
+        private final List<Long> docRestaurantIds = new ArrayList<>();
+        private final List<MenuItem> docItems = new ArrayList<>();
+        private int[] docLengths = new int[16];
+        private long totalDocLength = 0;
+        private final Map<String, PostingsBuilder> postingsBuilders = new HashMap<>();
+        private final Map<Long, int[]> restaurantDocRanges = new HashMap<>();
+        private final Map<String, int[]> docTermFrequencies = new HashMap<>();
+
+        /**
+         * The menus have to be added at most once per restaurant
+         */
+        @Nonnull Builder addMenu(@Nonnull Long restaurantId, @Nonnull List<MenuItem> items) {
+            int firstDoc = docItems.size();
+            for (MenuItem item : items) {
+                addDoc(restaurantId, item);
+            }
+            restaurantDocRanges.put(restaurantId, new int[] {firstDoc, docItems.size()});
+            return this;
+        }
+
+        boolean isEmpty() {
+            return docItems.isEmpty();
+        }
+
+        @Nonnull MenuSearchSegment build() {
+            long[] restaurantIds = new long[docRestaurantIds.size()];
+            for (int doc = 0; doc < restaurantIds.length; doc++) {
+                restaurantIds[doc] = docRestaurantIds.get(doc);
+            }
+            Map<String, Postings> postings = new HashMap<>(postingsBuilders.size() * 2);
+            for (Map.Entry<String, PostingsBuilder> postingsBuilder : postingsBuilders.entrySet()) {
+                postings.put(postingsBuilder.getKey(), postingsBuilder.getValue().build());
+            }
+            return new MenuSearchSegment(restaurantIds, docItems.toArray(new MenuItem[docItems.size()]),
+                    Arrays.copyOf(docLengths, docItems.size()), totalDocLength, Collections.unmodifiableMap(postings),
+                    Collections.unmodifiableMap(restaurantDocRanges));
+        }
+
+        private void addDoc(@Nonnull Long restaurantId, @Nonnull MenuItem item) {
+            int doc = docItems.size();
+            docRestaurantIds.add(restaurantId);
+            docItems.add(item);
+
+            docTermFrequencies.clear();
+            int docLength = addTerms(item.getItemName(), NAME_TERM_WEIGHT);
+            docLength += addTerms(item.getItemDescription(), DESCRIPTION_TERM_WEIGHT);
+            for (String tag : item.getTags()) {
+                docLength += addTerms(tag, TAG_TERM_WEIGHT);
+            }
+            for (Map.Entry<String, int[]> termFrequency : docTermFrequencies.entrySet()) {
+                PostingsBuilder postingsBuilder = postingsBuilders.get(termFrequency.getKey());
+                if (postingsBuilder == null) {
+                    postingsBuilder = new PostingsBuilder();
+                    postingsBuilders.put(termFrequency.getKey(), postingsBuilder);
+                }
+                postingsBuilder.add(doc, termFrequency.getValue()[0]);
+            }
+
+            if (doc == docLengths.length) {
+                docLengths = Arrays.copyOf(docLengths, doc * 2);
+            }
+            docLengths[doc] = docLength;
+            totalDocLength += docLength;
+        }
+
+        private int addTerms(@Nullable String text, int weight) {
+            int numOfTerms = 0;
+            for (String term : TextTokenizer.tokenize(text)) {
+                int[] termFrequency = docTermFrequencies.get(term);
+                if (termFrequency == null) {
+                    docTermFrequencies.put(term, new int[] {weight});
+                } else {
+                    termFrequency[0] += weight;
+                }
+                numOfTerms += weight;
+            }
+            return numOfTerms;
+        }
+    }
+
+    private static class PostingsBuilder {
+        private int[] docs = new int[4];
+        private int[] termFrequencies = new int[4];
+        private int size = 0;
+
+        private void add(int doc, int termFrequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                termFrequencies = Arrays.copyOf(termFrequencies, size * 2);
+            }
+            docs[size] = doc;
+            termFrequencies[size++] = termFrequency;
+        }
+
+        private @Nonnull Postings build() {
+            return new Postings(Arrays.copyOf(docs, size), Arrays.copyOf(termFrequencies, size));
+        }
+    }
+}
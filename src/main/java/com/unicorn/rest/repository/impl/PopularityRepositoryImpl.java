@@ -0,0 +1,352 @@
+package com.unicorn.rest.repository.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.unicorn.rest.repository.MenuRepository;
+import com.unicorn.rest.repository.MenuSnapshotListener;
+import com.unicorn.rest.repository.PopularityRepository;
+import com.unicorn.rest.repository.exception.ItemNotFoundException;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.StaleDataException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.ItemEvent;
+import com.unicorn.rest.repository.model.MenuSnapshot;
+import com.unicorn.rest.repository.model.PopularityCounter;
+import com.unicorn.rest.repository.model.PopularityCounts;
+import com.unicorn.rest.repository.table.PopularityCounterTable;
+import com.unicorn.rest.server.admin.StatsProvider;
+import com.unicorn.rest.utils.TimeUtils;
+
+/**
+ * The events are counted into the PopularityCounter of the restaurant on this server, which tracks a fixed number of items,
+ * and each materialization flushes the counters as the deltas atomically added to the counts shared by all the servers in PopularityCounterTable,
+ * so the memory is bounded by the number of restaurants with events since the last materialization no matter how many events arrive.
+ *
+ * The shared counts are weighted up from the landmark of their generation, which starts every GENERATION_HALF_LIVES half lives,
+ * so the weights stay well within double, and the generations before the previous one have decayed away and are deleted.
+ * Each materialization ranks the shared counts as of the start of its period, and the first server to store the ranking of the period
+ * wins the conditional put, so that every server materializes the same popular items into the menu snapshot
+ * and the rendered menu and its entity tags stay the same behind the load balancer.
+ */
+public class PopularityRepositoryImpl implements PopularityRepository, MenuSnapshotListener, StatsProvider {
+    private static final Logger LOG = LogManager.getLogger(PopularityRepositoryImpl.class);
+
+    public static final int GENERATION_HALF_LIVES = 4;
+    /*
+     * The item decayed below the weight of a single view is not popular
+     */
+    private static final double MIN_COUNT = 0.5;
+
+    private final MenuRepository menuRepository;
+    private final PopularityCounterTable popularityCounterTable;
+    private final long halfLifeInMills;
+    private final long generationInMills;
+    private final long materializeIntervalInMills;
+    /*
+     * The events recorded since the last flush, only for the restaurants with any
+     */
+    private final ConcurrentMap<Long, PopularityCounter> popularityCounters = new ConcurrentHashMap<>();
+    /*
+     * The restaurants whose popular items are materialized, to clear them once their counts are gone from the table
+     */
+    private final Set<Long> materializedRestaurantIds = Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+
+    private final LongAdder recordedEventCount = new LongAdder();
+    private final LongAdder droppedEventCount = new LongAdder();
+    private final LongAdder flushFailureCount = new LongAdder();
+    private final LongAdder materializeCount = new LongAdder();
+    private final LongAdder materializeFailureCount = new LongAdder();
+    private final LongAdder rankedPopularItemsCount = new LongAdder();
+    private final LongAdder changedPopularItemsCount = new LongAdder();
+
+    public PopularityRepositoryImpl(@Nonnull MenuRepository menuRepository, @Nonnull PopularityCounterTable popularityCounterTable,
+            long halfLifeInMills, long materializeIntervalInMills) {
+        if (halfLifeInMills <= 0) {
+            throw new IllegalArgumentException(String.format("Invalid half life: %s", halfLifeInMills));
+        }
+        if (materializeIntervalInMills <= 0) {
+            throw new IllegalArgumentException(String.format("Invalid materialize interval: %s", materializeIntervalInMills));
+        }
+        this.menuRepository = menuRepository;
+        this.popularityCounterTable = popularityCounterTable;
+        this.halfLifeInMills = halfLifeInMills;
+        this.generationInMills = GENERATION_HALF_LIVES * halfLifeInMills;
+        this.materializeIntervalInMills = materializeIntervalInMills;
+    }
+
+    @Override
+    public int recordItemEvents(@Nullable Long restaurantId, @Nullable List<ItemEvent> itemEvents)
+            throws ValidationException, ItemNotFoundException, RepositoryServerException {
+        return recordItemEvents(restaurantId, itemEvents, TimeUtils.getEpochTimeNowInUTC());
+    }
+
+    /*
+     * This method is protected for unit test
+     *
+     * The events are recorded while the map holds the entry, so the flush removing the counter never misses the events being recorded into it
+     */
+    protected int recordItemEvents(@Nullable Long restaurantId, @Nullable List<ItemEvent> itemEvents, final long timeInMills)
+            throws ValidationException, ItemNotFoundException, RepositoryServerException {
+        if (restaurantId == null || itemEvents == null) {
+            throw new ValidationException(String.format("Expecting non-null request paramter for recordItemEvents, but received: restaurantId=%s, itemEvents=%s",
+                    restaurantId, itemEvents));
+        }
+        if (itemEvents.size() > ItemEvent.MAX_ITEM_EVENTS) {
+            throw new ValidationException(String.format("Invalid item events. The number of events should be no more than %s", ItemEvent.MAX_ITEM_EVENTS));
+        }
+        MenuSnapshot menuSnapshot = menuRepository.getMenu(restaurantId);
+        final List<ItemEvent> eventsOnMenu = new ArrayList<>(itemEvents.size());
+        for (ItemEvent itemEvent : itemEvents) {
+            if (itemEvent != null && menuSnapshot.containsItem(itemEvent.getItemId())) {
+                eventsOnMenu.add(itemEvent);
+            }
+        }
+        if (!eventsOnMenu.isEmpty()) {
+            popularityCounters.compute(restaurantId, new BiFunction<Long, PopularityCounter, PopularityCounter>() {
+                @Override
+                public PopularityCounter apply(Long restaurantId, PopularityCounter popularityCounter) {
+                    if (popularityCounter == null) {
+                        popularityCounter = new PopularityCounter(halfLifeInMills, getLandmarkInMills(timeInMills));
+                    }
+                    for (ItemEvent itemEvent : eventsOnMenu) {
+                        popularityCounter.record(itemEvent.getItemId(), itemEvent.getWeight(), timeInMills);
+                    }
+                    return popularityCounter;
+                }
+            });
+        }
+        recordedEventCount.add(eventsOnMenu.size());
+        droppedEventCount.add(itemEvents.size() - eventsOnMenu.size());
+        return eventsOnMenu.size();
+    }
+
+    @Override
+    public @Nonnull List<Long> getPopularItems(@Nullable Long restaurantId)
+            throws ValidationException, ItemNotFoundException, RepositoryServerException {
+        if (restaurantId == null) {
+            throw new ValidationException("Expecting non-null request paramter for getPopularItems, but received: restaurantId=null");
+        }
+        return menuRepository.getMenu(restaurantId).getPopularItemIds();
+    }
+
+    @Override
+    public int materializePopularItems() {
+        return materializePopularItems(TimeUtils.getEpochTimeNowInUTC());
+    }
+
+    /*
+     * This method is protected for unit test
+     *
+     * A failed scan keeps the popular items materialized last time, which the next materialization catches up
+     */
+    protected int materializePopularItems(long timeInMills) {
+        flushPopularityCounters();
+        List<PopularityCounts> allPopularityCounts;
+        try {
+            allPopularityCounts = popularityCounterTable.getPopularityCounts();
+        } catch (RepositoryServerException error) {
+            LOG.warn("Failed while attempting to get the popularity counts to materialize popular items.", error);
+            materializeFailureCount.increment();
+            return 0;
+        }
+        long materializedInMills = timeInMills - Math.floorMod(timeInMills, materializeIntervalInMills);
+        long landmarkInMills = getLandmarkInMills(materializedInMills);
+        Map<Long, List<PopularityCounts>> restaurantPopularityCounts = new HashMap<>();
+        for (PopularityCounts popularityCounts : allPopularityCounts) {
+            if (popularityCounts.getLandmarkInEpoch() < landmarkInMills - generationInMills) {
+                deleteDecayedCounts(popularityCounts);
+                continue;
+            }
+            List<PopularityCounts> generations = restaurantPopularityCounts.get(popularityCounts.getRestaurantId());
+            if (generations == null) {
+                generations = new ArrayList<>(2);
+                restaurantPopularityCounts.put(popularityCounts.getRestaurantId(), generations);
+            }
+            generations.add(popularityCounts);
+        }
+
+        int numOfChangedRestaurants = 0;
+        Set<Long> restaurantIds = new HashSet<>(materializedRestaurantIds);
+        restaurantIds.addAll(restaurantPopularityCounts.keySet());
+        for (Long restaurantId : restaurantIds) {
+            try {
+                MenuSnapshot menuSnapshot;
+                try {
+                    menuSnapshot = menuRepository.getMenu(restaurantId);
+                } catch (ItemNotFoundException notFound) {
+                    materializedRestaurantIds.remove(restaurantId);
+                    continue;
+                }
+                List<PopularityCounts> generations = restaurantPopularityCounts.get(restaurantId);
+                List<Long> popularItemIds = generations == null ? Collections.<Long>emptyList()
+                        : getOrRankPopularItems(menuSnapshot, generations, landmarkInMills, materializedInMills);
+                if (popularItemIds.isEmpty()) {
+                    materializedRestaurantIds.remove(restaurantId);
+                } else {
+                    materializedRestaurantIds.add(restaurantId);
+                }
+                if (menuRepository.updatePopularItems(restaurantId, popularItemIds)) {
+                    numOfChangedRestaurants++;
+                }
+            } catch (ValidationException | RepositoryServerException | RuntimeException error) {
+                LOG.warn(String.format("Failed while attempting to materialize popular items of restaurant %s.", restaurantId), error);
+            }
+        }
+        materializeCount.increment();
+        changedPopularItemsCount.add(numOfChangedRestaurants);
+        return numOfChangedRestaurants;
+    }
+
+    /*
+     * The counters are created by the events rather than the menus, so the restaurants nobody looks at take no memory
+     */
+    @Override
+    public void onMenusInstalled(@Nonnull Collection<MenuSnapshot> menuSnapshots) {}
+
+    /*
+     * The shared counts of the restaurant are left to decay away, since the menu can be published again
+     */
+    @Override
+    public void onMenuRemoved(@Nonnull Long restaurantId) {
+        popularityCounters.remove(restaurantId);
+        materializedRestaurantIds.remove(restaurantId);
+    }
+
+    @Override
+    public @Nonnull Map<String, Object> getStats() {
+        long trackedItemCount = 0;
+        for (PopularityCounter popularityCounter : popularityCounters.values()) {
+            trackedItemCount += popularityCounter.size();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", popularityCounters.size());
+        stats.put("tracked_item_count", trackedItemCount);
+        stats.put("footprint_bytes", popularityCounters.size() * PopularityCounter.getFootprintInBytes());
+        stats.put("half_life_mills", halfLifeInMills);
+        stats.put("recorded_event_count", recordedEventCount.sum());
+        stats.put("dropped_event_count", droppedEventCount.sum());
+        stats.put("flush_failure_count", flushFailureCount.sum());
+        stats.put("materialize_count", materializeCount.sum());
+        stats.put("materialize_failure_count", materializeFailureCount.sum());
+        stats.put("popular_items_size", materializedRestaurantIds.size());
+        stats.put("ranked_popular_items_count", rankedPopularItemsCount.sum());
+        stats.put("changed_popular_items_count", changedPopularItemsCount.sum());
+        return stats;
+    }
+
+    /*
+     * The counter is removed before its counts are read, so the events recorded afterwards go to a new counter flushed next time.
+     * The counts failed to add are dropped rather than retried, which only undercounts the popularity for one interval.
+     */
+    private void flushPopularityCounters() {
+        for (Long restaurantId : popularityCounters.keySet()) {
+            PopularityCounter popularityCounter = popularityCounters.remove(restaurantId);
+            if (popularityCounter == null) {
+                continue;
+            }
+            Map<Long, Double> itemCounts = popularityCounter.getCounts();
+            if (itemCounts.isEmpty()) {
+                continue;
+            }
+            try {
+                popularityCounterTable.addItemCounts(restaurantId, popularityCounter.getLandmarkInMills(), itemCounts);
+            } catch (ValidationException | RepositoryServerException error) {
+                LOG.warn(String.format("Failed while attempting to flush the popularity counts of restaurant %s.", restaurantId), error);
+                flushFailureCount.increment();
+            }
+        }
+    }
+
+    /*
+     * The popular items of the period are stored in the counts of the current generation, which is created by the put if it has no events yet
+     */
+    private @Nonnull List<Long> getOrRankPopularItems(@Nonnull MenuSnapshot menuSnapshot, @Nonnull List<PopularityCounts> generations,
+            long landmarkInMills, long materializedInMills)
+                    throws ValidationException, RepositoryServerException {
+        Long storedMaterializedInMills = null;
+        for (PopularityCounts popularityCounts : generations) {
+            if (popularityCounts.getLandmarkInEpoch() == landmarkInMills) {
+                if (popularityCounts.getMaterializedInEpoch() != null && popularityCounts.getMaterializedInEpoch() >= materializedInMills) {
+                    return popularityCounts.getPopularItemIds();
+                }
+                storedMaterializedInMills = popularityCounts.getMaterializedInEpoch();
+            }
+        }
+        List<Long> popularItemIds = rankPopularItems(menuSnapshot, generations, materializedInMills);
+        try {
+            popularityCounterTable.putPopularItems(menuSnapshot.getRestaurantId(), landmarkInMills, storedMaterializedInMills,
+                    materializedInMills, popularItemIds);
+            rankedPopularItemsCount.increment();
+            return popularItemIds;
+        } catch (StaleDataException staleData) {
+            try {
+                return popularityCounterTable.getPopularityCounts(menuSnapshot.getRestaurantId(), landmarkInMills).getPopularItemIds();
+            } catch (ItemNotFoundException notFound) {
+                throw new RepositoryServerException(String.format("The popularity counts of restaurant %s at landmark %s stored by other server are gone",
+                        menuSnapshot.getRestaurantId(), landmarkInMills));
+            }
+        }
+    }
+
+    /*
+     * The ties are broken by the item_id, so the rank does not depend on the order the counts are read in
+     */
+    private @Nonnull List<Long> rankPopularItems(@Nonnull MenuSnapshot menuSnapshot, @Nonnull List<PopularityCounts> generations,
+            long materializedInMills) {
+        final Map<Long, Double> decayedCounts = new HashMap<>();
+        for (PopularityCounts popularityCounts : generations) {
+            double decay = Math.pow(2, (double) (popularityCounts.getLandmarkInEpoch() - materializedInMills) / halfLifeInMills);
+            for (Map.Entry<Long, Double> itemCount : popularityCounts.getItemCounts().entrySet()) {
+                Double decayedCount = decayedCounts.get(itemCount.getKey());
+                decayedCounts.put(itemCount.getKey(), (decayedCount == null ? 0 : decayedCount) + itemCount.getValue() * decay);
+            }
+        }
+        List<Long> rankedItemIds = new ArrayList<>(decayedCounts.size());
+        for (Map.Entry<Long, Double> decayedCount : decayedCounts.entrySet()) {
+            if (decayedCount.getValue() >= MIN_COUNT && menuSnapshot.containsItem(decayedCount.getKey())) {
+                rankedItemIds.add(decayedCount.getKey());
+            }
+        }
+        Collections.sort(rankedItemIds, new Comparator<Long>() {
+            @Override
+            public int compare(Long itemId, Long otherItemId) {
+                int compareCount = Double.compare(decayedCounts.get(otherItemId), decayedCounts.get(itemId));
+                return compareCount != 0 ? compareCount : itemId.compareTo(otherItemId);
+            }
+        });
+        return rankedItemIds.size() > MenuSnapshot.MAX_POPULAR_ITEMS ? new ArrayList<>(rankedItemIds.subList(0, MenuSnapshot.MAX_POPULAR_ITEMS))
+                : rankedItemIds;
+    }
+
+    private void deleteDecayedCounts(@Nonnull PopularityCounts popularityCounts) {
+        try {
+            popularityCounterTable.deletePopularityCounts(popularityCounts.getRestaurantId(), popularityCounts.getLandmarkInEpoch());
+        } catch (ValidationException | RepositoryServerException error) {
+            LOG.warn(String.format("Failed while attempting to delete the decayed popularity counts of restaurant %s at landmark %s.",
+                    popularityCounts.getRestaurantId(), popularityCounts.getLandmarkInEpoch()), error);
+        }
+    }
+
+    private long getLandmarkInMills(long timeInMills) {
+        return timeInMills - Math.floorMod(timeInMills, generationInMills);
+    }
+}
@@ -0,0 +1,404 @@
+package com.unicorn.rest.repository.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.unicorn.rest.repository.RestaurantLocationRepository;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.GeoLocation;
+import com.unicorn.rest.repository.model.RestaurantDistance;
+import com.unicorn.rest.repository.model.RestaurantLocation;
+import com.unicorn.rest.repository.table.RestaurantLocationTable;
+import com.unicorn.rest.server.admin.StatsProvider;
+import com.unicorn.rest.utils.Geohash;
+
+/**
+ * In-memory spatial index of the restaurant locations, rebuilt from RESTAURANT_LOCATION table at startup and by the periodic reload.
+ *
+ * The index is the parallel primitive arrays of geohash, restaurant_id, latitude and longitude sorted by geohash, so that every geohash cell
+ * is a contiguous range found by binary search. The radius query picks the level of cells at least as large as the bounding box of the circle,
+ * which is then covered by at most 2 x 2 cells, and only the locations in these cells and the box are measured.
+ *
+ * The queries read the current index without lock. The updates are serialized by the lock and swap in a copy of the index,
+ * which is cheap enough since the restaurants rarely move.
+ */
+public class RestaurantLocationRepositoryImpl implements RestaurantLocationRepository, StatsProvider {
+    private static final Logger LOG = LogManager.getLogger(RestaurantLocationRepositoryImpl.class);
+
+    public static final double MAX_RADIUS_IN_METERS = 50000;
+    public static final int MAX_LIMIT = 100;
+    /*
+     * The nearest query starts from the radius of a few blocks and doubles it until enough restaurants are found
+     */
+    private static final double INITIAL_NEAREST_RADIUS_IN_METERS = 500;
+
+    private static final Comparator<RestaurantDistance> BY_DISTANCE = new Comparator<RestaurantDistance>() {
+        @Override
+        public int compare(RestaurantDistance restaurantDistance, RestaurantDistance otherRestaurantDistance) {
+            int compareDistance = Double.compare(restaurantDistance.getDistanceInMeters(), otherRestaurantDistance.getDistanceInMeters());
+            return compareDistance != 0 ? compareDistance : Long.compare(restaurantDistance.getRestaurantId(), otherRestaurantDistance.getRestaurantId());
+        }
+    };
+
+    /*
+     * The immutable index sorted by geohash and then restaurant_id
+     */
+    private static class LocationIndex {
+        private static final LocationIndex EMPTY = new LocationIndex(new long[0], new long[0], new double[0], new double[0]);
+
+        private final long[] geohashes;
+        private final long[] restaurantIds;
+        private final double[] latitudes;
+        private final double[] longitudes;
+
+        private LocationIndex(@Nonnull long[] geohashes, @Nonnull long[] restaurantIds, @Nonnull double[] latitudes, @Nonnull double[] longitudes) {
+            this.geohashes = geohashes;
+            this.restaurantIds = restaurantIds;
+            this.latitudes = latitudes;
+            this.longitudes = longitudes;
+        }
+
+        private int size() {
+            return geohashes.length;
+        }
+
+        private static @Nonnull LocationIndex build(@Nonnull Collection<RestaurantLocation> restaurantLocations) {
+            final long[] unsortedGeohashes = new long[restaurantLocations.size()];
+            final RestaurantLocation[] unsortedLocations = restaurantLocations.toArray(new RestaurantLocation[restaurantLocations.size()]);
+            Integer[] order = new Integer[unsortedLocations.length];
+            for (int i = 0; i < unsortedLocations.length; i++) {
+                unsortedGeohashes[i] = unsortedLocations[i].getLocation().getGeohash();
+                order[i] = i;
+            }
+            Arrays.sort(order, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer i, Integer j) {
+                    int compareGeohash = Long.compare(unsortedGeohashes[i], unsortedGeohashes[j]);
+                    return compareGeohash != 0 ? compareGeohash : Long.compare(unsortedLocations[i].getRestaurantId(), unsortedLocations[j].getRestaurantId());
+                }
+            });
+            LocationIndex index = new LocationIndex(new long[order.length], new long[order.length], new double[order.length], new double[order.length]);
+            for (int i = 0; i < order.length; i++) {
+                RestaurantLocation restaurantLocation = unsortedLocations[order[i]];
+                index.geohashes[i] = unsortedGeohashes[order[i]];
+                index.restaurantIds[i] = restaurantLocation.getRestaurantId();
+                index.latitudes[i] = restaurantLocation.getLocation().getLatitude();
+                index.longitudes[i] = restaurantLocation.getLocation().getLongitude();
+            }
+            return index;
+        }
+
+        private @Nonnull LocationIndex without(@Nonnull RestaurantLocation restaurantLocation) {
+            long geohash = restaurantLocation.getLocation().getGeohash();
+            int position = lowerBound(geohash, restaurantLocation.getRestaurantId());
+            if (position == size() || geohashes[position] != geohash || restaurantIds[position] != restaurantLocation.getRestaurantId()) {
+                return this;
+            }
+            LocationIndex index = new LocationIndex(new long[size() - 1], new long[size() - 1], new double[size() - 1], new double[size() - 1]);
+            copy(this, 0, index, 0, position);
+            copy(this, position + 1, index, position, size() - position - 1);
+            return index;
+        }
+
+        private @Nonnull LocationIndex with(@Nonnull RestaurantLocation restaurantLocation) {
+            long geohash = restaurantLocation.getLocation().getGeohash();
+            int position = lowerBound(geohash, restaurantLocation.getRestaurantId());
+            LocationIndex index = new LocationIndex(new long[size() + 1], new long[size() + 1], new double[size() + 1], new double[size() + 1]);
+            copy(this, 0, index, 0, position);
+            index.geohashes[position] = geohash;
+            index.restaurantIds[position] = restaurantLocation.getRestaurantId();
+            index.latitudes[position] = restaurantLocation.getLocation().getLatitude();
+            index.longitudes[position] = restaurantLocation.getLocation().getLongitude();
+            copy(this, position, index, position + 1, size() - position);
+            return index;
+        }
+
+        /*
+         * The first position not before the (geohash, restaurant_id)
+         */
+        private int lowerBound(long geohash, long restaurantId) {
+            int low = 0;
+            int high = size();
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (geohashes[middle] < geohash || (geohashes[middle] == geohash && restaurantIds[middle] < restaurantId)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private static void copy(@Nonnull LocationIndex from, int fromPosition, @Nonnull LocationIndex to, int toPosition, int length) {
+            System.arraycopy(from.geohashes, fromPosition, to.geohashes, toPosition, length);
+            System.arraycopy(from.restaurantIds, fromPosition, to.restaurantIds, toPosition, length);
+            System.arraycopy(from.latitudes, fromPosition, to.latitudes, toPosition, length);
+            System.arraycopy(from.longitudes, fromPosition, to.longitudes, toPosition, length);
+        }
+    }
+
+    private final RestaurantLocationTable restaurantLocationTable;
+    private volatile LocationIndex locationIndex = LocationIndex.EMPTY;
+
+    /*
+     * The locations in the index by restaurant_id, guarded by the lock of this object
+     */
+    private Map<Long, RestaurantLocation> restaurantLocations = new HashMap<>();
+    /*
+     * The updates made while the reload is scanning the table, which are applied on top of the locations scanned.
+     * The restaurant without location any more is mapped to NULL. Guarded by the lock of this object
+     */
+    private Map<Long, RestaurantLocation> updatesDuringReload = null;
+    private final Object reloadLock = new Object();
+
+    private final LongAdder radiusQueryCount = new LongAdder();
+    private final LongAdder nearestQueryCount = new LongAdder();
+    private final LongAdder updateCount = new LongAdder();
+    private final LongAdder reloadCount = new LongAdder();
+
+    @Inject
+    public RestaurantLocationRepositoryImpl(RestaurantLocationTable restaurantLocationTable) {
+        this.restaurantLocationTable = restaurantLocationTable;
+    }
+
+    @Override
+    public void updateRestaurantLocation(@Nullable Long restaurantId, @Nullable GeoLocation location)
+            throws ValidationException, RepositoryServerException {
+        if (restaurantId == null) {
+            throw new ValidationException("Expecting non-null request paramter for updateRestaurantLocation, but received: restaurantId=null");
+        }
+        RestaurantLocation previousLocation;
+        synchronized (this) {
+            previousLocation = restaurantLocations.get(restaurantId);
+        }
+        RestaurantLocation restaurantLocation = null;
+        if (location != null) {
+            restaurantLocation = RestaurantLocation.buildRestaurantLocation().restaurantId(restaurantId).location(location).build();
+            restaurantLocationTable.putRestaurantLocation(restaurantLocation);
+        }
+        if (previousLocation != null && (restaurantLocation == null || !previousLocation.getGeohashCell().equals(restaurantLocation.getGeohashCell()))) {
+            restaurantLocationTable.deleteRestaurantLocation(previousLocation);
+        }
+        install(restaurantId, restaurantLocation);
+        updateCount.increment();
+    }
+
+    @Override
+    public @Nonnull List<RestaurantDistance> findRestaurantsWithinRadius(@Nullable GeoLocation center, double radiusInMeters, int limit)
+            throws ValidationException {
+        validateQuery(center, limit);
+        if (!(radiusInMeters > 0 && radiusInMeters <= MAX_RADIUS_IN_METERS)) {
+            throw new ValidationException(String.format("Invalid radius %s. The radius in meters should be greater than 0 and no more than %s",
+                    radiusInMeters, MAX_RADIUS_IN_METERS));
+        }
+        radiusQueryCount.increment();
+        return nearest(findWithinRadius(locationIndex, center, radiusInMeters), limit);
+    }
+
+    /**
+     * All the restaurants within the radius are measured, so the nearest ones found within the radius are the nearest of all
+     * as long as there are enough of them
+     */
+    @Override
+    public @Nonnull List<RestaurantDistance> findNearestRestaurants(@Nullable GeoLocation center, int limit)
+            throws ValidationException {
+        validateQuery(center, limit);
+        nearestQueryCount.increment();
+        LocationIndex currentLocationIndex = locationIndex;
+        double radiusInMeters = INITIAL_NEAREST_RADIUS_IN_METERS;
+        while (true) {
+            List<RestaurantDistance> restaurantDistances = findWithinRadius(currentLocationIndex, center, radiusInMeters);
+            if (restaurantDistances.size() >= limit || radiusInMeters >= MAX_RADIUS_IN_METERS) {
+                return nearest(restaurantDistances, limit);
+            }
+            radiusInMeters = Math.min(radiusInMeters * 2, MAX_RADIUS_IN_METERS);
+        }
+    }
+
+    /**
+     * The restaurant left in more than one cell is indexed at its latest location, and the stale copies are deleted from the table best effort
+     */
+    @Override
+    public int reloadRestaurantLocations()
+            throws RepositoryServerException {
+        synchronized (reloadLock) {
+            synchronized (this) {
+                updatesDuringReload = new HashMap<>();
+            }
+            Map<Long, RestaurantLocation> latestLocations = new HashMap<>();
+            List<RestaurantLocation> staleLocations = new ArrayList<>();
+            try {
+                for (RestaurantLocation restaurantLocation : restaurantLocationTable.getRestaurantLocations()) {
+                    RestaurantLocation latestLocation = latestLocations.get(restaurantLocation.getRestaurantId());
+                    if (latestLocation == null) {
+                        latestLocations.put(restaurantLocation.getRestaurantId(), restaurantLocation);
+                    } else if (latestLocation.getUpdatedAt() < restaurantLocation.getUpdatedAt()) {
+                        latestLocations.put(restaurantLocation.getRestaurantId(), restaurantLocation);
+                        staleLocations.add(latestLocation);
+                    } else {
+                        staleLocations.add(restaurantLocation);
+                    }
+                }
+                synchronized (this) {
+                    for (Map.Entry<Long, RestaurantLocation> update : updatesDuringReload.entrySet()) {
+                        if (update.getValue() == null) {
+                            latestLocations.remove(update.getKey());
+                        } else {
+                            latestLocations.put(update.getKey(), update.getValue());
+                        }
+                    }
+                    restaurantLocations = latestLocations;
+                    locationIndex = LocationIndex.build(latestLocations.values());
+                }
+            } finally {
+                synchronized (this) {
+                    updatesDuringReload = null;
+                }
+            }
+            reloadCount.increment();
+            deleteStaleLocations(staleLocations);
+            return latestLocations.size();
+        }
+    }
+
+    @Override
+    public @Nonnull Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("num_restaurants", locationIndex.size());
+        stats.put("radius_query_count", radiusQueryCount.sum());
+        stats.put("nearest_query_count", nearestQueryCount.sum());
+        stats.put("update_count", updateCount.sum());
+        stats.put("reload_count", reloadCount.sum());
+        return stats;
+    }
+
+    private synchronized void install(@Nonnull Long restaurantId, @Nullable RestaurantLocation restaurantLocation) {
+        RestaurantLocation previousLocation = restaurantLocation == null ?
+                restaurantLocations.remove(restaurantId) : restaurantLocations.put(restaurantId, restaurantLocation);
+        LocationIndex currentLocationIndex = locationIndex;
+        if (previousLocation != null) {
+            currentLocationIndex = currentLocationIndex.without(previousLocation);
+        }
+        if (restaurantLocation != null) {
+            currentLocationIndex = currentLocationIndex.with(restaurantLocation);
+        }
+        locationIndex = currentLocationIndex;
+        if (updatesDuringReload != null) {
+            updatesDuringReload.put(restaurantId, restaurantLocation);
+        }
+    }
+
+    private void deleteStaleLocations(@Nonnull List<RestaurantLocation> staleLocations) {
+        for (RestaurantLocation staleLocation : staleLocations) {
+            try {
+                restaurantLocationTable.deleteRestaurantLocation(staleLocation);
+            } catch (ValidationException | RepositoryServerException | RuntimeException error) {
+                LOG.warn(String.format("Failed while attempting to delete stale location %s.", staleLocation), error);
+            }
+        }
+    }
+
+    private static void validateQuery(@Nullable GeoLocation center, int limit) throws ValidationException {
+        if (center == null) {
+            throw new ValidationException("Expecting non-null request paramter for center, but received: center=null");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ValidationException(String.format("Invalid limit %s. The limit should be between 1 and %s", limit, MAX_LIMIT));
+        }
+    }
+
+    private static @Nonnull List<RestaurantDistance> nearest(@Nonnull List<RestaurantDistance> restaurantDistances, int limit) {
+        Collections.sort(restaurantDistances, BY_DISTANCE);
+        return restaurantDistances.size() > limit ? new ArrayList<>(restaurantDistances.subList(0, limit)) : restaurantDistances;
+    }
+
+    /*
+     * The bounding box of the circle spans latitudeDelta to both sides of the center latitude, and longitudeDelta to both sides of the center longitude,
+     * unless the circle contains a pole, in which case it spans all the longitudes
+     */
+    private static @Nonnull List<RestaurantDistance> findWithinRadius(@Nonnull LocationIndex index, @Nonnull GeoLocation center, double radiusInMeters) {
+        double angularRadius = radiusInMeters / GeoLocation.EARTH_RADIUS_IN_METERS;
+        double latitudeDelta = Math.toDegrees(angularRadius);
+        double minLatitude = center.getLatitude() - latitudeDelta;
+        double maxLatitude = center.getLatitude() + latitudeDelta;
+        double longitudeDelta;
+        if (minLatitude <= -GeoLocation.MAX_LATITUDE || maxLatitude >= GeoLocation.MAX_LATITUDE) {
+            longitudeDelta = GeoLocation.MAX_LONGITUDE;
+        } else {
+            longitudeDelta = Math.toDegrees(Math.asin(Math.min(1.0, Math.sin(angularRadius) / Math.cos(Math.toRadians(center.getLatitude())))));
+        }
+        minLatitude = Math.max(minLatitude, -GeoLocation.MAX_LATITUDE);
+        maxLatitude = Math.min(maxLatitude, GeoLocation.MAX_LATITUDE);
+        boolean allLongitudes = longitudeDelta >= GeoLocation.MAX_LONGITUDE;
+        double minLongitude = wrapLongitude(center.getLongitude() - longitudeDelta);
+        double maxLongitude = wrapLongitude(center.getLongitude() + longitudeDelta);
+
+        int level = 0;
+        while (level < Geohash.BITS_PER_AXIS && 2 * GeoLocation.MAX_LATITUDE / (1 << (level + 1)) >= 2 * latitudeDelta
+                && 2 * GeoLocation.MAX_LONGITUDE / (1 << (level + 1)) >= 2 * longitudeDelta) {
+            level++;
+        }
+        int numOfCells = 1 << level;
+        int shift = 2 * (Geohash.BITS_PER_AXIS - level);
+        int minLatitudeCell = Geohash.toLatitudeCell(minLatitude, level);
+        int maxLatitudeCell = Geohash.toLatitudeCell(maxLatitude, level);
+        int minLongitudeCell = allLongitudes ? 0 : Geohash.toLongitudeCell(minLongitude, level);
+        int maxLongitudeCell = allLongitudes ? numOfCells - 1 : Geohash.toLongitudeCell(maxLongitude, level);
+
+        List<RestaurantDistance> restaurantDistances = new ArrayList<>();
+        for (int latitudeCell = minLatitudeCell; latitudeCell <= maxLatitudeCell; latitudeCell++) {
+            /*
+             * The columns wrap around the antimeridian
+             */
+            int longitudeCell = minLongitudeCell;
+            for (int i = 0; i < numOfCells; i++) {
+                long cell = Geohash.interleave(longitudeCell, latitudeCell);
+                long toGeohash = (cell + 1) << shift;
+                for (int position = index.lowerBound(cell << shift, Long.MIN_VALUE); position < index.size() && index.geohashes[position] < toGeohash; position++) {
+                    double latitude = index.latitudes[position];
+                    double longitude = index.longitudes[position];
+                    if (latitude < minLatitude || latitude > maxLatitude || !(allLongitudes || (minLongitude <= maxLongitude ?
+                            longitude >= minLongitude && longitude <= maxLongitude : longitude >= minLongitude || longitude <= maxLongitude))) {
+                        continue;
+                    }
+                    double distanceInMeters = GeoLocation.distanceInMeters(center.getLatitude(), center.getLongitude(), latitude, longitude);
+                    if (distanceInMeters <= radiusInMeters) {
+                        restaurantDistances.add(new RestaurantDistance(index.restaurantIds[position], distanceInMeters));
+                    }
+                }
+                if (longitudeCell == maxLongitudeCell) {
+                    break;
+                }
+                longitudeCell = (longitudeCell + 1) & (numOfCells - 1);
+            }
+        }
+        return restaurantDistances;
+    }
+
+    private static double wrapLongitude(double longitude) {
+        if (longitude < -GeoLocation.MAX_LONGITUDE) {
+            return longitude + 2 * GeoLocation.MAX_LONGITUDE;
+        }
+        if (longitude > GeoLocation.MAX_LONGITUDE) {
+            return longitude - 2 * GeoLocation.MAX_LONGITUDE;
+        }
+        return longitude;
+    }
+}
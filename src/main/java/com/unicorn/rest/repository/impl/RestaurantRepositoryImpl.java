@@ -0,0 +1,253 @@
+package com.unicorn.rest.repository.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+
+import com.unicorn.rest.repository.RestaurantRepository;
+import com.unicorn.rest.repository.exception.DuplicateKeyException;
+import com.unicorn.rest.repository.exception.ItemNotFoundException;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.GeoLocation;
+import com.unicorn.rest.repository.model.Restaurant;
+import com.unicorn.rest.repository.table.RestaurantTable;
+import com.unicorn.rest.server.admin.StatsProvider;
+import com.unicorn.rest.utils.LRUCache;
+import com.unicorn.rest.utils.SimpleFlakeKeyGenerator;
+
+/**
+ * Read-through cache of restaurants in front of RestaurantTable. The restaurant which does not exist is cached as well, 
+ * so that the requests to an unknown restaurant_id do not hit the table every time.
+ * 
+ * The writes go through this server update the cache directly. The changes made through other servers are picked up 
+ * after the TTL, which is acceptable since the restaurant profile rarely changes. The restaurant which does not exist 
+ * is cached only briefly, since it may have just been registered through another server.
+ * 
+ * The restaurants are evicted in LRU order once the cache is full.
+ */
+public class RestaurantRepositoryImpl implements RestaurantRepository, StatsProvider {
+
+    public static final long DEFAULT_RESTAURANT_TTL_IN_SECONDS = 300;
+    public static final long DEFAULT_NOT_FOUND_TTL_IN_SECONDS = 5;
+    private static final int MAX_CACHED_RESTAURANTS = 100000;
+
+    private static class CachedRestaurant {
+        /*
+         * NULL if the restaurant does not exist
+         */
+        private final @Nullable Restaurant restaurant;
+        private final long expireAtInNanos;
+
+        private CachedRestaurant(@Nullable Restaurant restaurant, long expireAtInNanos) {
+            this.restaurant = restaurant;
+            this.expireAtInNanos = expireAtInNanos;
+        }
+    }
+
+    private final RestaurantTable restaurantTable;
+    private final long restaurantTTLInNanos;
+    private final long notFoundTTLInNanos;
+
+    private final LRUCache<Long, CachedRestaurant> cachedRestaurants = new LRUCache<>(MAX_CACHED_RESTAURANTS);
+    private final AtomicLong version = new AtomicLong();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    @Inject
+    public RestaurantRepositoryImpl(RestaurantTable restaurantTable) {
+        this(restaurantTable, DEFAULT_RESTAURANT_TTL_IN_SECONDS, DEFAULT_NOT_FOUND_TTL_IN_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public RestaurantRepositoryImpl(RestaurantTable restaurantTable, long restaurantTTL, long notFoundTTL, @Nonnull TimeUnit timeUnit) {
+        this.restaurantTable = restaurantTable;
+        this.restaurantTTLInNanos = timeUnit.toNanos(restaurantTTL);
+        this.notFoundTTLInNanos = timeUnit.toNanos(notFoundTTL);
+    }
+
+    @Override
+    public Restaurant registerRestaurant(Long ownerPrincipal, String restaurantName, String restaurantDescription, GeoLocation location) 
+            throws ValidationException, DuplicateKeyException, RepositoryServerException {
+        if (ownerPrincipal == null) {
+            throw new ValidationException("Expecting non-null request paramter for registerRestaurant, but received: ownerPrincipal=null");
+        }
+        Restaurant restaurant = Restaurant.buildRestaurant().restaurantId(SimpleFlakeKeyGenerator.generateKey()).ownerPrincipal(ownerPrincipal)
+                .restaurantName(Restaurant.validateRestaurantName(restaurantName))
+                .restaurantDescription(Restaurant.validateRestaurantDescription(restaurantDescription))
+                .location(location)
+                .build();
+        restaurantTable.createRestaurant(restaurant);
+        refresh(restaurant.getRestaurantId(), restaurant);
+        return restaurant;
+    }
+
+    @Override
+    public Restaurant getRestaurant(Long restaurantId) 
+            throws ValidationException, ItemNotFoundException, RepositoryServerException {
+        if (restaurantId == null) {
+            throw new ValidationException("Expecting non-null request paramter for getRestaurant, but received: restaurantId=null");
+        }
+        long nowInNanos = System.nanoTime();
+        CachedRestaurant cachedRestaurant = cachedRestaurants.get(restaurantId);
+        if (cachedRestaurant == null || cachedRestaurant.expireAtInNanos - nowInNanos < 0) {
+            missCount.increment();
+            long loadVersion = version.get();
+            Restaurant restaurant;
+            try {
+                restaurant = restaurantTable.getRestaurant(restaurantId);
+            } catch (ItemNotFoundException notFound) {
+                restaurant = null;
+            }
+            cachedRestaurant = buildCachedRestaurant(restaurant, nowInNanos);
+            cache(restaurantId, cachedRestaurant, loadVersion);
+        } else {
+            hitCount.increment();
+        }
+
+        if (cachedRestaurant.restaurant == null) {
+            throw new ItemNotFoundException();
+        }
+        return cachedRestaurant.restaurant;
+    }
+
+    @Override
+    public List<Restaurant> getRestaurants(Collection<Long> restaurantIds) 
+            throws ValidationException, RepositoryServerException {
+        if (restaurantIds == null || restaurantIds.contains(null)) {
+            throw new ValidationException(String.format("Expecting non-null request paramter for getRestaurants, but received: restaurantIds=%s", restaurantIds));
+        }
+        long nowInNanos = System.nanoTime();
+        Map<Long, Restaurant> foundRestaurants = new HashMap<>();
+        List<Long> missedRestaurantIds = new ArrayList<>();
+        for (Long restaurantId : restaurantIds) {
+            CachedRestaurant cachedRestaurant = cachedRestaurants.get(restaurantId);
+            if (cachedRestaurant == null || cachedRestaurant.expireAtInNanos - nowInNanos < 0) {
+                missCount.increment();
+                missedRestaurantIds.add(restaurantId);
+            } else {
+                hitCount.increment();
+                if (cachedRestaurant.restaurant != null) {
+                    foundRestaurants.put(restaurantId, cachedRestaurant.restaurant);
+                }
+            }
+        }
+
+        if (!missedRestaurantIds.isEmpty()) {
+            long loadVersion = version.get();
+            for (Restaurant restaurant : restaurantTable.getRestaurants(missedRestaurantIds)) {
+                foundRestaurants.put(restaurant.getRestaurantId(), restaurant);
+            }
+            for (Long restaurantId : missedRestaurantIds) {
+                cache(restaurantId, buildCachedRestaurant(foundRestaurants.get(restaurantId), nowInNanos), loadVersion);
+            }
+        }
+
+        List<Restaurant> restaurants = new ArrayList<>(foundRestaurants.size());
+        for (Long restaurantId : restaurantIds) {
+            Restaurant restaurant = foundRestaurants.get(restaurantId);
+            if (restaurant != null) {
+                restaurants.add(restaurant);
+            }
+        }
+        return restaurants;
+    }
+
+    @Override
+    public List<Restaurant> getRestaurantsForOwner(Long ownerPrincipal) 
+            throws ValidationException, RepositoryServerException {
+        long loadVersion = version.get();
+        List<Restaurant> restaurants = restaurantTable.getRestaurantsForOwner(ownerPrincipal);
+        long expireAtInNanos = System.nanoTime() + restaurantTTLInNanos;
+        for (Restaurant restaurant : restaurants) {
+            cache(restaurant.getRestaurantId(), new CachedRestaurant(restaurant, expireAtInNanos), loadVersion);
+        }
+        return restaurants;
+    }
+
+    @Override
+    public Restaurant updateRestaurant(Long ownerPrincipal, Long restaurantId, String restaurantName, String restaurantDescription, 
+            GeoLocation location) 
+            throws ValidationException, ItemNotFoundException, RepositoryServerException {
+        if (ownerPrincipal == null || restaurantId == null) {
+            throw new ValidationException(String.format("Expecting non-null request paramter for updateRestaurant, but received: ownerPrincipal=%s, restaurantId=%s", 
+                    ownerPrincipal, restaurantId));
+        }
+        Restaurant restaurant = Restaurant.buildRestaurant().restaurantId(restaurantId).ownerPrincipal(ownerPrincipal)
+                .restaurantName(Restaurant.validateRestaurantName(restaurantName))
+                .restaurantDescription(Restaurant.validateRestaurantDescription(restaurantDescription))
+                .location(location)
+                .build();
+        try {
+            Restaurant updatedRestaurant = restaurantTable.updateRestaurant(restaurant);
+            refresh(restaurantId, updatedRestaurant);
+            return updatedRestaurant;
+        } catch (ItemNotFoundException | RepositoryServerException error) {
+            invalidateRestaurant(restaurantId);
+            throw error;
+        }
+    }
+
+    @Override
+    public void deleteRestaurant(Long ownerPrincipal, Long restaurantId) 
+            throws ValidationException, ItemNotFoundException, RepositoryServerException {
+        try {
+            restaurantTable.deleteRestaurant(restaurantId, ownerPrincipal);
+        } finally {
+            if (restaurantId != null) {
+                invalidateRestaurant(restaurantId);
+            }
+        }
+    }
+
+    public void invalidateRestaurant(@Nonnull Long restaurantId) {
+        version.incrementAndGet();
+        cachedRestaurants.remove(restaurantId);
+    }
+
+    @Override
+    public @Nonnull Map<String, Object> getStats() {
+        long hits = hitCount.sum();
+        long misses = missCount.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", cachedRestaurants.size());
+        stats.put("hit_count", hits);
+        stats.put("miss_count", misses);
+        stats.put("hit_rate", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        stats.put("eviction_count", cachedRestaurants.getEvictionCount());
+        stats.put("version", version.get());
+        return stats;
+    }
+
+    /*
+     * The write of this server is cached after bumping the version, so that a concurrent load started before the write cannot overwrite it
+     */
+    private void refresh(@Nonnull Long restaurantId, @Nonnull Restaurant restaurant) {
+        long refreshVersion = version.incrementAndGet();
+        cache(restaurantId, new CachedRestaurant(restaurant, System.nanoTime() + restaurantTTLInNanos), refreshVersion);
+    }
+
+    private @Nonnull CachedRestaurant buildCachedRestaurant(@Nullable Restaurant restaurant, long nowInNanos) {
+        return new CachedRestaurant(restaurant, nowInNanos + (restaurant == null ? notFoundTTLInNanos : restaurantTTLInNanos));
+    }
+
+    /*
+     * The restaurant loaded before any invalidation is dropped, so that a slow load cannot bring back the stale restaurant
+     */
+    private void cache(@Nonnull Long restaurantId, @Nonnull CachedRestaurant cachedRestaurant, long loadVersion) {
+        if (version.get() != loadVersion) {
+            return;
+        }
+        cachedRestaurants.put(restaurantId, cachedRestaurant);
+    }
+}
@@ -0,0 +1,249 @@
+package com.unicorn.rest.repository.impl.dynamodb;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jvnet.hk2.annotations.Service;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.dynamodbv2.model.AttributeDefinition;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.AttributeValueUpdate;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.CreateTableRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteTableRequest;
+import com.amazonaws.services.dynamodbv2.model.ExpectedAttributeValue;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.KeySchemaElement;
+import com.amazonaws.services.dynamodbv2.model.KeyType;
+import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughput;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.ResourceInUseException;
+import com.amazonaws.services.dynamodbv2.model.ResourceNotFoundException;
+import com.amazonaws.services.dynamodbv2.model.ReturnValue;
+import com.amazonaws.services.dynamodbv2.model.ScalarAttributeType;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemResult;
+import com.unicorn.rest.repository.exception.DuplicateKeyException;
+import com.unicorn.rest.repository.exception.ItemNotFoundException;
+import com.unicorn.rest.repository.exception.RepositoryClientException;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.table.AccessControlPolicyTable;
+import com.unicorn.rest.server.filter.model.AccessControlPolicy;
+import com.unicorn.rest.server.filter.model.Permission;
+
+/**
+ * The policies are partitioned by the full resource identifier and sorted by action,
+ * so that the policies of different resources are spread over the partitions rather than piling up under a shared namespace.
+ */
+@Service
+public class DynamoAccessControlPolicyTable implements AccessControlPolicyTable {
+    private static final Logger LOG = LogManager.getLogger(DynamoAccessControlPolicyTable.class);
+
+    private static final String RESOURCE_IDENTIFIER_KEY = "RESOURCE_IDENTIFIER"; //HashKey
+    private static final String ACTION_KEY = "ACTION"; //RangeKey
+    private static final String OWNER_PRINCIPAL_KEY = "OWNER_PRINCIPAL";
+    private static final String ALLOWING_CONDITIONS_KEY = "ALLOWING_CONDITIONS";
+
+    private final DynamoDBDAO awsDynamoDBDAO = DynamoDBDAO.get();
+
+    @Override
+    public void createAccessControlPolicy(AccessControlPolicy accessControlPolicy)
+            throws ValidationException, DuplicateKeyException, RepositoryServerException {
+        validateAccessControlPolicy("createAccessControlPolicy", accessControlPolicy);
+        Permission permission = accessControlPolicy.getPermission();
+
+        Map<String, AttributeValue> item = buildKey(permission.getAction(), permission.getResourceIdentifier());
+        item.put(OWNER_PRINCIPAL_KEY, DynamoAttributeValueUtils.numberAttrValue(permission.getPrincipal()));
+        item.put(ALLOWING_CONDITIONS_KEY, DynamoAttributeValueUtils.stringSetAttrValue(accessControlPolicy.getAllowingConditions()));
+
+        Map<String, ExpectedAttributeValue> expected = new HashMap<>();
+        expected.put(RESOURCE_IDENTIFIER_KEY, DynamoAttributeValueUtils.expectEmpty());
+        expected.put(ACTION_KEY, DynamoAttributeValueUtils.expectEmpty());
+
+        PutItemRequest putItemRequest = new PutItemRequest().withTableName(ACCESS_CONTROL_POLICY_TABLE_NAME).withItem(item).withExpected(expected);
+        try {
+            awsDynamoDBDAO.putItem(putItemRequest);
+        } catch (ConditionalCheckFailedException error) {
+            LOG.info("The access control policy of action {} on resource {} in createAccessControlPolicy request already existed.",
+                    permission.getAction(), permission.getResourceIdentifier());
+            throw new DuplicateKeyException();
+        } catch (AmazonClientException error) {
+            LOG.error( String.format("Failed while attempting to createAccessControlPolicy %s to table %s.", putItemRequest, ACCESS_CONTROL_POLICY_TABLE_NAME), error);
+            throw new RepositoryServerException(error);
+        }
+    }
+
+    @Override
+    public List<String> updateAccessControlPolicy(AccessControlPolicy accessControlPolicy)
+            throws ValidationException, ItemNotFoundException, RepositoryServerException {
+        validateAccessControlPolicy("updateAccessControlPolicy", accessControlPolicy);
+        Permission permission = accessControlPolicy.getPermission();
+
+        Map<String, AttributeValueUpdate> updateItems = new HashMap<>();
+        updateItems.put(ALLOWING_CONDITIONS_KEY, DynamoAttributeValueUtils.updateTo(
+                DynamoAttributeValueUtils.stringSetAttrValue(accessControlPolicy.getAllowingConditions())));
+
+        Map<String, ExpectedAttributeValue> expectedValues = new HashMap<>();
+        expectedValues.put(OWNER_PRINCIPAL_KEY, DynamoAttributeValueUtils.expectEqual(DynamoAttributeValueUtils.numberAttrValue(permission.getPrincipal())));
+
+        UpdateItemRequest updateItemRequest = new UpdateItemRequest().withTableName(ACCESS_CONTROL_POLICY_TABLE_NAME)
+                .withKey(buildKey(permission.getAction(), permission.getResourceIdentifier()))
+                .withAttributeUpdates(updateItems).withExpected(expectedValues).withReturnValues(ReturnValue.UPDATED_NEW);
+        UpdateItemResult updateItemResult;
+        try {
+            updateItemResult = awsDynamoDBDAO.updateItem(updateItemRequest);
+        } catch (ConditionalCheckFailedException error) {
+            LOG.info("The access control policy of action {} on resource {} owned by principal {} in updateAccessControlPolicy request does not exist in the table.",
+                    permission.getAction(), permission.getResourceIdentifier(), permission.getPrincipal());
+            throw new ItemNotFoundException();
+        } catch (AmazonClientException error) {
+            LOG.error( String.format("Failed while attempting to updateAccessControlPolicy %s to table %s.", updateItemRequest, ACCESS_CONTROL_POLICY_TABLE_NAME), error);
+            throw new RepositoryServerException(error);
+        }
+        return DynamoAttributeValueUtils.getRequiredStringSetValue(updateItemResult.getAttributes(), ALLOWING_CONDITIONS_KEY);
+    }
+
+    @Override
+    public void revokeAccessControlPolicy(Permission permission)
+            throws ValidationException, ItemNotFoundException, RepositoryServerException {
+        if (permission == null) {
+            throw new ValidationException("Expecting non-null request paramter for revokeAccessControlPolicy, but received: permission=null");
+        }
+        validatePermission("revokeAccessControlPolicy", permission.getAction(), permission.getResourceIdentifier());
+
+        Map<String, ExpectedAttributeValue> expectedValues = new HashMap<>();
+        expectedValues.put(OWNER_PRINCIPAL_KEY, DynamoAttributeValueUtils.expectEqual(DynamoAttributeValueUtils.numberAttrValue(permission.getPrincipal())));
+
+        DeleteItemRequest deleteItemRequest = new DeleteItemRequest().withTableName(ACCESS_CONTROL_POLICY_TABLE_NAME)
+                .withKey(buildKey(permission.getAction(), permission.getResourceIdentifier())).withExpected(expectedValues);
+        try {
+            awsDynamoDBDAO.deleteItem(deleteItemRequest);
+        } catch (ConditionalCheckFailedException error) {
+            LOG.info("The access control policy of action {} on resource {} owned by principal {} in revokeAccessControlPolicy request does not exist in the table.",
+                    permission.getAction(), permission.getResourceIdentifier(), permission.getPrincipal());
+            throw new ItemNotFoundException();
+        } catch (AmazonClientException error) {
+            LOG.error( String.format("Failed while attempting to revokeAccessControlPolicy %s from table %s.", deleteItemRequest, ACCESS_CONTROL_POLICY_TABLE_NAME), error);
+            throw new RepositoryServerException(error);
+        }
+    }
+
+    @Override
+    public List<String> getAccessControlPolicy(String action, String resourceIdentifier)
+            throws ValidationException, DuplicateKeyException, RepositoryServerException {
+        validatePermission("getAccessControlPolicy", action, resourceIdentifier);
+
+        GetItemRequest getItemRequest = new GetItemRequest().withTableName(ACCESS_CONTROL_POLICY_TABLE_NAME)
+                .withKey(buildKey(action, resourceIdentifier)).withAttributesToGet(ALLOWING_CONDITIONS_KEY);
+        GetItemResult getItemResult;
+        try {
+            getItemResult = awsDynamoDBDAO.consistentGetItem(getItemRequest);
+        } catch (AmazonClientException error) {
+            LOG.error( String.format("Failed while attempting to getAccessControlPolicy %s from table %s.", getItemRequest, ACCESS_CONTROL_POLICY_TABLE_NAME), error);
+            throw new RepositoryServerException(error);
+        }
+        if (CollectionUtils.sizeIsEmpty(getItemResult.getItem())) {
+            LOG.info("The access control policy of action {} on resource {} in getAccessControlPolicy request does not exist in the table.",
+                    action, resourceIdentifier);
+            throw new DuplicateKeyException();
+        }
+        return DynamoAttributeValueUtils.getRequiredStringSetValue(getItemResult.getItem(), ALLOWING_CONDITIONS_KEY);
+    }
+
+    @Override
+    public List<AccessControlPolicy> getAccessControlPolicies()
+            throws RepositoryServerException {
+        List<AccessControlPolicy> accessControlPolicies = new ArrayList<>();
+        Map<String, AttributeValue> exclusiveStartKey = null;
+        do {
+            ScanRequest scanRequest = new ScanRequest().withTableName(ACCESS_CONTROL_POLICY_TABLE_NAME).withExclusiveStartKey(exclusiveStartKey);
+            ScanResult scanResult;
+            try {
+                scanResult = awsDynamoDBDAO.scanOnce(scanRequest);
+            } catch (AmazonClientException error) {
+                LOG.error( String.format("Failed while attempting to getAccessControlPolicies %s from table %s.", scanRequest, ACCESS_CONTROL_POLICY_TABLE_NAME), error);
+                throw new RepositoryServerException(error);
+            }
+            if (scanResult.getItems() != null) {
+                for (Map<String, AttributeValue> item : scanResult.getItems()) {
+                    Permission permission = new Permission(DynamoAttributeValueUtils.getRequiredStringValue(item, ACTION_KEY), 
+                            DynamoAttributeValueUtils.getRequiredStringValue(item, RESOURCE_IDENTIFIER_KEY), 
+                            DynamoAttributeValueUtils.getRequiredLongValue(item, OWNER_PRINCIPAL_KEY));
+                    accessControlPolicies.add(new AccessControlPolicy(permission, 
+                            DynamoAttributeValueUtils.getRequiredStringSetValue(item, ALLOWING_CONDITIONS_KEY)));
+                }
+            }
+            exclusiveStartKey = CollectionUtils.sizeIsEmpty(scanResult.getLastEvaluatedKey()) ? null : scanResult.getLastEvaluatedKey();
+        } while (exclusiveStartKey != null);
+        return accessControlPolicies;
+    }
+
+    private @Nonnull Map<String, AttributeValue> buildKey(@Nonnull String action, @Nonnull String resourceIdentifier) {
+        Map<String, AttributeValue> key = new HashMap<>();
+        key.put(RESOURCE_IDENTIFIER_KEY, DynamoAttributeValueUtils.stringAttrValue(resourceIdentifier));
+        key.put(ACTION_KEY, DynamoAttributeValueUtils.stringAttrValue(action));
+        return key;
+    }
+
+    private static void validateAccessControlPolicy(@Nonnull String operation, @Nullable AccessControlPolicy accessControlPolicy)
+            throws ValidationException {
+        if (accessControlPolicy == null || accessControlPolicy.getPermission() == null || accessControlPolicy.getPermission().getPrincipal() == null
+                || CollectionUtils.isEmpty(accessControlPolicy.getAllowingConditions())) {
+            throw new ValidationException(String.format("Expecting non-null request paramter for %s, but received: accessControlPolicy=%s",
+                    operation, accessControlPolicy));
+        }
+        validatePermission(operation, accessControlPolicy.getPermission().getAction(), accessControlPolicy.getPermission().getResourceIdentifier());
+    }
+
+    private static void validatePermission(@Nonnull String operation, @Nullable String action, @Nullable String resourceIdentifier)
+            throws ValidationException {
+        if (action == null || action.isEmpty() || resourceIdentifier == null || resourceIdentifier.isEmpty()) {
+            throw new ValidationException(String.format("Expecting valid request paramter for %s, but received: action=%s, resourceIdentifier=%s",
+                    operation, action, resourceIdentifier));
+        }
+    }
+
+    public void createTable()
+            throws RepositoryClientException, RepositoryServerException {
+        CreateTableRequest createTableRequest = new CreateTableRequest()
+        .withTableName(ACCESS_CONTROL_POLICY_TABLE_NAME)
+        .withProvisionedThroughput(new ProvisionedThroughput(8L, 1L))
+        .withAttributeDefinitions(
+                new AttributeDefinition(RESOURCE_IDENTIFIER_KEY, ScalarAttributeType.S),
+                new AttributeDefinition(ACTION_KEY, ScalarAttributeType.S))
+                .withKeySchema(new KeySchemaElement(RESOURCE_IDENTIFIER_KEY, KeyType.HASH),
+                        new KeySchemaElement(ACTION_KEY, KeyType.RANGE));
+        try {
+            awsDynamoDBDAO.createTable(createTableRequest);
+        } catch (ResourceInUseException error) {
+            throw new RepositoryClientException(String.format("Table %s attempted to create already exists", ACCESS_CONTROL_POLICY_TABLE_NAME));
+        } catch (AmazonClientException error) {
+            throw new RepositoryServerException(error);
+        }
+    }
+
+    public void deleteTable()
+            throws RepositoryClientException, RepositoryServerException {
+        try {
+            awsDynamoDBDAO.deleteTable(new DeleteTableRequest().withTableName(ACCESS_CONTROL_POLICY_TABLE_NAME));
+        } catch (ResourceNotFoundException error) {
+            throw new RepositoryClientException(String.format("Table %s attempted to delete does not exist", ACCESS_CONTROL_POLICY_TABLE_NAME));
+        } catch (AmazonClientException error) {
+            throw new RepositoryServerException(error);
+        }
+    }
+}
@@ -40,6 +40,10 @@ public class DynamoAttributeValueUtils {
         return new AttributeValueUpdate().withAction(AttributeAction.DELETE);
     }
 
+    public static @Nonnull AttributeValueUpdate deleteFromSet(@Nonnull AttributeValue attrValue) {
+        return new AttributeValueUpdate().withValue(attrValue).withAction(AttributeAction.DELETE);
+    }
+
     public static @Nonnull AttributeValueUpdate updateTo(@Nonnull AttributeValue attrValue) {
         return new AttributeValueUpdate().withValue(attrValue).withAction(AttributeAction.PUT);
     }
@@ -2,6 +2,9 @@ package com.unicorn.rest.repository.impl.dynamodb;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import lombok.Data;
 
@@ -16,6 +19,9 @@ import com.amazonaws.internal.StaticCredentialsProvider;
 import com.amazonaws.regions.Region;
 import com.amazonaws.regions.Regions;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClient;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
 import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
 import com.amazonaws.services.dynamodbv2.model.CreateTableRequest;
 import com.amazonaws.services.dynamodbv2.model.CreateTableResult;
@@ -26,12 +32,15 @@ import com.amazonaws.services.dynamodbv2.model.DeleteTableResult;
 import com.amazonaws.services.dynamodbv2.model.DescribeTableRequest;
 import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
 import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.KeysAndAttributes;
 import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
 import com.amazonaws.services.dynamodbv2.model.PutItemResult;
 import com.amazonaws.services.dynamodbv2.model.QueryRequest;
 import com.amazonaws.services.dynamodbv2.model.QueryResult;
 import com.amazonaws.services.dynamodbv2.model.ResourceInUseException;
 import com.amazonaws.services.dynamodbv2.model.ResourceNotFoundException;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
 import com.amazonaws.services.dynamodbv2.model.TableDescription;
 import com.amazonaws.services.dynamodbv2.model.TableStatus;
 import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
@@ -46,13 +55,14 @@ public class DynamoDBDAO implements Closeable {
     public static final String AWS_ACCESS_KEY = "AWS_ACCESS_KEY";
     public static final String AWS_SECRET_KEY = "AWS_SECRET_KEY";
     public static final String AWS_REGION = "AWS_REGION";
+    public static final int MAX_BATCH_GET_ITEM_KEYS = 100;
 
     private static final int MAX_NUM_OF_ATTEMPTS = 3;
     private static final int SLEEP_IN_MILLS_BETWEEN_ATTEMPS = 100;
 
     private final AmazonDynamoDBClient dynamoDBClient;
 
-    private static DynamoDBDAO instance;
+    private static volatile DynamoDBDAO instance;
     static {
         Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
             @Override
@@ -69,11 +79,24 @@ public class DynamoDBDAO implements Closeable {
         }, "AWSDynamoDBDAO-ShutdownHook"));
     }
 
-    public static synchronized DynamoDBDAO get() {
-        if (instance != null) {
+    /**
+     * The instance is normally created eagerly by the tables at startup, so that the lock is only taken
+     * until the instance is published and the request path never waits on it.
+     */
+    public static DynamoDBDAO get() {
+        DynamoDBDAO currentInstance = instance;
+        if (currentInstance != null) {
+            return currentInstance;
+        }
+        synchronized (DynamoDBDAO.class) {
+            if (instance == null) {
+                instance = createInstance();
+            }
             return instance;
         }
+    }
 
+    private static DynamoDBDAO createInstance() {
         try {
             PropertiesParser dynamodbCredentialsParser = new PropertiesParser(DYNAMODB_CREDENTIALS_FILE);
             String accessKey = dynamodbCredentialsParser.getProperty(AWS_ACCESS_KEY);
@@ -84,7 +107,7 @@ public class DynamoDBDAO implements Closeable {
             AmazonDynamoDBClient client = new AmazonDynamoDBClient(new StaticCredentialsProvider(awsCredential));
             client.setRegion(Region.getRegion(Regions.fromName(region)));
 
-            return instance = new DynamoDBDAO(client);
+            return new DynamoDBDAO(client);
         } catch (Exception error) {
             throw new RuntimeException("Failed while attempting to initialize AWSDynamoDBDAO", error);
         }
@@ -116,6 +139,48 @@ public class DynamoDBDAO implements Closeable {
         }
     }
 
+    /**
+     * Get the items in one batch, retrying the unprocessed keys until all of them are processed or the attempts run out
+     * 
+     * @param tableName
+     * @param keysAndAttributes at most MAX_BATCH_GET_ITEM_KEYS keys
+     * @return the items found, in no particular order
+     */
+    public List<Map<String, AttributeValue>> batchGetItem(String tableName, KeysAndAttributes keysAndAttributes) 
+            throws AmazonServiceException, AmazonClientException {
+        LOG.debug("Attempting to batch get items {} from table {} in dynamodb.", keysAndAttributes, tableName);
+        List<Map<String, AttributeValue>> items = new ArrayList<>();
+        BatchGetItemRequest batchGetItemRequest = new BatchGetItemRequest().addRequestItemsEntry(tableName, keysAndAttributes);
+        int numOfAttempts = 1;
+        while (true) {
+            BatchGetItemResult batchGetItemResult = null;
+            try {
+                batchGetItemResult = dynamoDBClient.batchGetItem(batchGetItemRequest);
+            } catch (AmazonClientException error) { 
+                if (numOfAttempts++ >= MAX_NUM_OF_ATTEMPTS || !error.isRetryable()) {
+                    throw error;
+                }
+            }
+            if (batchGetItemResult != null) {
+                if (batchGetItemResult.getResponses() != null && batchGetItemResult.getResponses().get(tableName) != null) {
+                    items.addAll(batchGetItemResult.getResponses().get(tableName));
+                }
+                Map<String, KeysAndAttributes> unprocessedKeys = batchGetItemResult.getUnprocessedKeys();
+                if (unprocessedKeys == null || unprocessedKeys.isEmpty()) {
+                    return items;
+                }
+                if (numOfAttempts++ >= MAX_NUM_OF_ATTEMPTS) {
+                    throw new AmazonClientException(String.format("Failed to process unprocessed keys of batch get item from table %s after %s attempts", 
+                            tableName, MAX_NUM_OF_ATTEMPTS));
+                }
+                batchGetItemRequest = new BatchGetItemRequest().withRequestItems(unprocessedKeys);
+            }
+            try {
+                Thread.sleep(SLEEP_IN_MILLS_BETWEEN_ATTEMPS);
+            } catch (InterruptedException ignore) {}
+        }
+    }
+
     public PutItemResult putItem(PutItemRequest putItemRequest) throws AmazonServiceException, AmazonClientException {
         LOG.debug("Attempting to put item {} to dynamodb.", putItemRequest);
         int numOfAttempts = 1;
@@ -190,6 +255,23 @@ public class DynamoDBDAO implements Closeable {
         }
     }
 
+    public ScanResult scanOnce(ScanRequest scanRequest) throws AmazonServiceException, AmazonClientException {
+        LOG.debug("Attempting to scan from dynamodb with scan request {}.", scanRequest);
+        int numOfAttempts = 1;
+        while (true) {
+            try {
+                return dynamoDBClient.scan(scanRequest);
+            } catch (AmazonClientException error) { 
+                if (numOfAttempts++ >= MAX_NUM_OF_ATTEMPTS || !error.isRetryable()) {
+                    throw error;
+                }
+            }
+            try {
+                Thread.sleep(SLEEP_IN_MILLS_BETWEEN_ATTEMPS);
+            } catch (InterruptedException ignore) {}
+        }
+    }
+
     public CreateTableResult createTable(CreateTableRequest createTableRequest) 
             throws ResourceInUseException, AmazonServiceException, AmazonClientException {
         LOG.debug("Attempting to create table in dynamodb with create request {}", createTableRequest);
@@ -0,0 +1,311 @@
+package com.unicorn.rest.repository.impl.dynamodb;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jvnet.hk2.annotations.Service;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.dynamodbv2.model.AttributeDefinition;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.AttributeValueUpdate;
+import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
+import com.amazonaws.services.dynamodbv2.model.Condition;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.CreateTableRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteTableRequest;
+import com.amazonaws.services.dynamodbv2.model.ExpectedAttributeValue;
+import com.amazonaws.services.dynamodbv2.model.GlobalSecondaryIndex;
+import com.amazonaws.services.dynamodbv2.model.KeySchemaElement;
+import com.amazonaws.services.dynamodbv2.model.KeyType;
+import com.amazonaws.services.dynamodbv2.model.Projection;
+import com.amazonaws.services.dynamodbv2.model.ProjectionType;
+import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughput;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.ResourceInUseException;
+import com.amazonaws.services.dynamodbv2.model.ResourceNotFoundException;
+import com.amazonaws.services.dynamodbv2.model.ReturnValue;
+import com.amazonaws.services.dynamodbv2.model.ScalarAttributeType;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemResult;
+import com.unicorn.rest.repository.exception.RepositoryClientException;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.StaleDataException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.ItemAvailability;
+import com.unicorn.rest.repository.table.ItemAvailabilityTable;
+
+/**
+ * The availability of each item is one row updated in place. Every update also moves the row into the feed bucket of its update time,
+ * and the GSI on the feed bucket and the update time is the change feed polled by the servers, since the streams are not available to this SDK.
+ * The updates of a minute are spread over the shards of the feed bucket by restaurant, so that the stock adjusted on every order
+ * does not pile up on one hash key of the GSI. Every update also counts up the version of the row, which orders the updates of the item.
+ */
+@Service
+public class DynamoItemAvailabilityTable implements ItemAvailabilityTable {
+    private static final Logger LOG = LogManager.getLogger(DynamoItemAvailabilityTable.class);
+
+    private static final String RESTAURANT_ID_KEY = "RESTAURANT_ID"; //HashKey
+    private static final String ITEM_ID_KEY = "ITEM_ID"; //RangeKey
+    private static final String SOLD_OUT_KEY = "SOLD_OUT";
+    private static final String STOCK_KEY = "STOCK";
+    private static final String UPDATED_IN_EPOCH_KEY = "UPDATED_IN_EPOCH";
+    private static final String FEED_BUCKET_KEY = "FEED_BUCKET";
+    private static final String VERSION_KEY = "VERSION";
+
+    private static final String FEED_BUCKET_UPDATED_IN_EPOCH_GSI_KEY = "FEED_BUCKET-UPDATED_IN_EPOCH-GSI";
+    /*
+     * The updates of one minute are spread over the shards, so the poll reads the shards of one or two minutes
+     */
+    private static final long FEED_BUCKET_IN_MILLS = 60 * 1000L;
+    private static final int NUM_OF_FEED_SHARDS = 8;
+
+    private final DynamoDBDAO awsDynamoDBDAO = DynamoDBDAO.get();
+
+    @Override
+    public ItemAvailability putItemAvailability(Long restaurantId, Long itemId, Boolean soldOut, Long stock, Long updatedInEpoch)
+            throws ValidationException, RepositoryServerException {
+        if (restaurantId == null || itemId == null || soldOut == null || updatedInEpoch == null) {
+            throw new ValidationException(
+                    String.format("Expecting non-null request paramter for putItemAvailability, but received: restaurantId=%s, itemId=%s, soldOut=%s, updatedInEpoch=%s",
+                            restaurantId, itemId, soldOut, updatedInEpoch));
+        }
+        Map<String, AttributeValueUpdate> updateItems = buildFeedUpdates(restaurantId, updatedInEpoch);
+        updateItems.put(SOLD_OUT_KEY, DynamoAttributeValueUtils.updateTo(DynamoAttributeValueUtils.numberAttrValue(soldOut ? 1 : 0)));
+        updateItems.put(STOCK_KEY, stock == null ? DynamoAttributeValueUtils.delete()
+                : DynamoAttributeValueUtils.updateTo(DynamoAttributeValueUtils.numberAttrValue(stock)));
+
+        UpdateItemRequest updateItemRequest = new UpdateItemRequest().withTableName(ITEM_AVAILABILITY_TABLE_NAME)
+                .withKey(buildKey(restaurantId, itemId)).withAttributeUpdates(updateItems).withReturnValues(ReturnValue.ALL_NEW);
+        UpdateItemResult updateItemResult;
+        try {
+            updateItemResult = awsDynamoDBDAO.updateItem(updateItemRequest);
+        } catch (AmazonClientException error) {
+            LOG.error( String.format("Failed while attempting to putItemAvailability %s to table %s.", updateItemRequest, ITEM_AVAILABILITY_TABLE_NAME), error);
+            throw new RepositoryServerException(error);
+        }
+        return buildItemAvailability(updateItemResult.getAttributes());
+    }
+
+    @Override
+    public ItemAvailability addStock(Long restaurantId, Long itemId, Long delta, Long updatedInEpoch)
+            throws ValidationException, StaleDataException, RepositoryServerException {
+        if (restaurantId == null || itemId == null || delta == null || updatedInEpoch == null) {
+            throw new ValidationException(
+                    String.format("Expecting non-null request paramter for addStock, but received: restaurantId=%s, itemId=%s, delta=%s, updatedInEpoch=%s",
+                            restaurantId, itemId, delta, updatedInEpoch));
+        }
+        Map<String, AttributeValueUpdate> updateItems = buildFeedUpdates(restaurantId, updatedInEpoch);
+        updateItems.put(STOCK_KEY, DynamoAttributeValueUtils.atomicAdd(DynamoAttributeValueUtils.numberAttrValue(delta)));
+        /*
+         * The stock exists only if it is tracked, and never goes below zero
+         */
+        Map<String, ExpectedAttributeValue> expected = new HashMap<>();
+        expected.put(STOCK_KEY, DynamoAttributeValueUtils.expectCompare(ComparisonOperator.GE,
+                DynamoAttributeValueUtils.numberAttrValue(Math.max(0L, -delta))));
+
+        UpdateItemRequest updateItemRequest = new UpdateItemRequest().withTableName(ITEM_AVAILABILITY_TABLE_NAME)
+                .withKey(buildKey(restaurantId, itemId)).withAttributeUpdates(updateItems).withExpected(expected)
+                .withReturnValues(ReturnValue.ALL_NEW);
+        UpdateItemResult updateItemResult;
+        try {
+            updateItemResult = awsDynamoDBDAO.updateItem(updateItemRequest);
+        } catch (ConditionalCheckFailedException error) {
+            LOG.info("The item {} of restaurant {} in addStock request does not track the stock or has less stock than {}.", itemId, restaurantId, -delta);
+            throw new StaleDataException();
+        } catch (AmazonClientException error) {
+            LOG.error( String.format("Failed while attempting to addStock %s to table %s.", updateItemRequest, ITEM_AVAILABILITY_TABLE_NAME), error);
+            throw new RepositoryServerException(error);
+        }
+        return buildItemAvailability(updateItemResult.getAttributes());
+    }
+
+    /*
+     * The row written before the version was introduced has no version, which is read as 0
+     */
+    @Override
+    public void deleteItemAvailability(Long restaurantId, Long itemId, Long expectedVersion)
+            throws ValidationException, StaleDataException, RepositoryServerException {
+        if (restaurantId == null || itemId == null || expectedVersion == null) {
+            throw new ValidationException(
+                    String.format("Expecting non-null request paramter for deleteItemAvailability, but received: restaurantId=%s, itemId=%s, expectedVersion=%s",
+                            restaurantId, itemId, expectedVersion));
+        }
+        Map<String, ExpectedAttributeValue> expected = new HashMap<>();
+        expected.put(VERSION_KEY, expectedVersion == 0 ? DynamoAttributeValueUtils.expectEmpty()
+                : DynamoAttributeValueUtils.expectEqual(DynamoAttributeValueUtils.numberAttrValue(expectedVersion)));
+
+        DeleteItemRequest deleteItemRequest = new DeleteItemRequest().withTableName(ITEM_AVAILABILITY_TABLE_NAME)
+                .withKey(buildKey(restaurantId, itemId)).withExpected(expected);
+        try {
+            awsDynamoDBDAO.deleteItem(deleteItemRequest);
+        } catch (ConditionalCheckFailedException error) {
+            LOG.info("The item {} of restaurant {} in deleteItemAvailability request has been updated since version {}.", itemId, restaurantId, expectedVersion);
+            throw new StaleDataException();
+        } catch (AmazonClientException error) {
+            LOG.error( String.format("Failed while attempting to deleteItemAvailability %s from table %s.", deleteItemRequest, ITEM_AVAILABILITY_TABLE_NAME), error);
+            throw new RepositoryServerException(error);
+        }
+    }
+
+    @Override
+    public List<ItemAvailability> getItemAvailabilitiesUpdated(long sinceInEpoch, long untilInEpoch)
+            throws RepositoryServerException {
+        List<ItemAvailability> itemAvailabilities = new ArrayList<>();
+        if (sinceInEpoch >= untilInEpoch) {
+            return itemAvailabilities;
+        }
+        for (long feedMinute = sinceInEpoch / FEED_BUCKET_IN_MILLS; feedMinute <= (untilInEpoch - 1) / FEED_BUCKET_IN_MILLS; feedMinute++) {
+            for (int feedShard = 0; feedShard < NUM_OF_FEED_SHARDS; feedShard++) {
+                itemAvailabilities.addAll(queryFeedBucket(feedMinute * NUM_OF_FEED_SHARDS + feedShard, sinceInEpoch, untilInEpoch));
+            }
+        }
+        return itemAvailabilities;
+    }
+
+    @Override
+    public List<ItemAvailability> getItemAvailabilities()
+            throws RepositoryServerException {
+        List<ItemAvailability> itemAvailabilities = new ArrayList<>();
+        Map<String, AttributeValue> exclusiveStartKey = null;
+        do {
+            ScanRequest scanRequest = new ScanRequest().withTableName(ITEM_AVAILABILITY_TABLE_NAME).withExclusiveStartKey(exclusiveStartKey);
+            ScanResult scanResult;
+            try {
+                scanResult = awsDynamoDBDAO.scanOnce(scanRequest);
+            } catch (AmazonClientException error) {
+                LOG.error( String.format("Failed while attempting to getItemAvailabilities %s from table %s.", scanRequest, ITEM_AVAILABILITY_TABLE_NAME), error);
+                throw new RepositoryServerException(error);
+            }
+            if (scanResult.getItems() != null) {
+                for (Map<String, AttributeValue> item : scanResult.getItems()) {
+                    itemAvailabilities.add(buildItemAvailability(item));
+                }
+            }
+            exclusiveStartKey = CollectionUtils.sizeIsEmpty(scanResult.getLastEvaluatedKey()) ? null : scanResult.getLastEvaluatedKey();
+        } while (exclusiveStartKey != null);
+        return itemAvailabilities;
+    }
+
+    private @Nonnull Map<String, AttributeValue> buildKey(@Nonnull Long restaurantId, @Nonnull Long itemId) {
+        Map<String, AttributeValue> key = new HashMap<>();
+        key.put(RESTAURANT_ID_KEY, DynamoAttributeValueUtils.numberAttrValue(restaurantId));
+        key.put(ITEM_ID_KEY, DynamoAttributeValueUtils.numberAttrValue(itemId));
+        return key;
+    }
+
+    private @Nonnull List<ItemAvailability> queryFeedBucket(long feedBucket, long sinceInEpoch, long untilInEpoch)
+            throws RepositoryServerException {
+        List<ItemAvailability> itemAvailabilities = new ArrayList<>();
+        Map<String, Condition> keyConditions = new HashMap<>();
+        keyConditions.put(FEED_BUCKET_KEY, new Condition().withComparisonOperator(ComparisonOperator.EQ)
+                .withAttributeValueList(DynamoAttributeValueUtils.numberAttrValue(feedBucket)));
+        keyConditions.put(UPDATED_IN_EPOCH_KEY, new Condition().withComparisonOperator(ComparisonOperator.BETWEEN)
+                .withAttributeValueList(DynamoAttributeValueUtils.numberAttrValue(sinceInEpoch),
+                        DynamoAttributeValueUtils.numberAttrValue(untilInEpoch - 1)));
+
+        Map<String, AttributeValue> exclusiveStartKey = null;
+        do {
+            QueryRequest queryRequest = new QueryRequest().withTableName(ITEM_AVAILABILITY_TABLE_NAME)
+                    .withIndexName(FEED_BUCKET_UPDATED_IN_EPOCH_GSI_KEY).withKeyConditions(keyConditions).withExclusiveStartKey(exclusiveStartKey);
+            QueryResult queryResult;
+            try {
+                queryResult = awsDynamoDBDAO.queryOnce(queryRequest);
+            } catch (AmazonClientException error) {
+                LOG.error( String.format("Failed while attempting to getItemAvailabilitiesUpdated %s from table %s.", queryRequest,
+                        ITEM_AVAILABILITY_TABLE_NAME), error);
+                throw new RepositoryServerException(error);
+            }
+            if (queryResult.getItems() != null) {
+                for (Map<String, AttributeValue> item : queryResult.getItems()) {
+                    itemAvailabilities.add(buildItemAvailability(item));
+                }
+            }
+            exclusiveStartKey = CollectionUtils.sizeIsEmpty(queryResult.getLastEvaluatedKey()) ? null : queryResult.getLastEvaluatedKey();
+        } while (exclusiveStartKey != null);
+        return itemAvailabilities;
+    }
+
+    private @Nonnull Map<String, AttributeValueUpdate> buildFeedUpdates(@Nonnull Long restaurantId, @Nonnull Long updatedInEpoch) {
+        long feedBucket = updatedInEpoch / FEED_BUCKET_IN_MILLS * NUM_OF_FEED_SHARDS + Math.floorMod(Long.hashCode(restaurantId), NUM_OF_FEED_SHARDS);
+        Map<String, AttributeValueUpdate> updateItems = new HashMap<>();
+        updateItems.put(UPDATED_IN_EPOCH_KEY, DynamoAttributeValueUtils.updateTo(DynamoAttributeValueUtils.numberAttrValue(updatedInEpoch)));
+        updateItems.put(FEED_BUCKET_KEY, DynamoAttributeValueUtils.updateTo(DynamoAttributeValueUtils.numberAttrValue(feedBucket)));
+        updateItems.put(VERSION_KEY, DynamoAttributeValueUtils.atomicAdd(DynamoAttributeValueUtils.numberAttrValue(1L)));
+        return updateItems;
+    }
+
+    private @Nonnull ItemAvailability buildItemAvailability(@Nonnull Map<String, AttributeValue> item)
+            throws RepositoryServerException {
+        Integer soldOut = DynamoAttributeValueUtils.getIntegerValue(item, SOLD_OUT_KEY);
+        return new ItemAvailability(DynamoAttributeValueUtils.getRequiredLongValue(item, RESTAURANT_ID_KEY),
+                DynamoAttributeValueUtils.getRequiredLongValue(item, ITEM_ID_KEY),
+                soldOut != null && soldOut != 0,
+                DynamoAttributeValueUtils.getLongValue(item, STOCK_KEY),
+                DynamoAttributeValueUtils.getRequiredLongValue(item, UPDATED_IN_EPOCH_KEY),
+                versionOf(item));
+    }
+
+    /*
+     * The row written before the version was introduced counts from 0
+     */
+    private static long versionOf(@Nonnull Map<String, AttributeValue> item)
+            throws RepositoryServerException {
+        Long version = DynamoAttributeValueUtils.getLongValue(item, VERSION_KEY);
+        return version == null ? 0L : version;
+    }
+
+    public void createTable() 
+            throws RepositoryClientException, RepositoryServerException {
+
+        GlobalSecondaryIndex feedBucketUpdatedInEpochGSI = new GlobalSecondaryIndex()
+        .withIndexName(FEED_BUCKET_UPDATED_IN_EPOCH_GSI_KEY)
+        .withProvisionedThroughput(new ProvisionedThroughput(4L, 2L))
+        .withProjection(new Projection().withProjectionType(ProjectionType.ALL))
+        .withKeySchema(
+                new KeySchemaElement(FEED_BUCKET_KEY, KeyType.HASH),
+                new KeySchemaElement(UPDATED_IN_EPOCH_KEY, KeyType.RANGE)
+                );
+
+        CreateTableRequest createTableRequest = new CreateTableRequest()
+        .withTableName(ITEM_AVAILABILITY_TABLE_NAME)
+        .withProvisionedThroughput(new ProvisionedThroughput(2L, 2L))
+        .withAttributeDefinitions(
+                new AttributeDefinition(RESTAURANT_ID_KEY, ScalarAttributeType.N),
+                new AttributeDefinition(ITEM_ID_KEY, ScalarAttributeType.N),
+                new AttributeDefinition(FEED_BUCKET_KEY, ScalarAttributeType.N),
+                new AttributeDefinition(UPDATED_IN_EPOCH_KEY, ScalarAttributeType.N))
+                .withKeySchema(new KeySchemaElement(RESTAURANT_ID_KEY, KeyType.HASH),
+                        new KeySchemaElement(ITEM_ID_KEY, KeyType.RANGE))
+                .withGlobalSecondaryIndexes(feedBucketUpdatedInEpochGSI);
+        try {
+            awsDynamoDBDAO.createTable(createTableRequest);
+        } catch (ResourceInUseException error) {
+            throw new RepositoryClientException(String.format("Table %s attempted to create already exists", ITEM_AVAILABILITY_TABLE_NAME));
+        } catch (AmazonClientException error) {
+            throw new RepositoryServerException(error);
+        }
+    }
+
+    public void deleteTable() 
+            throws RepositoryClientException, RepositoryServerException {
+        try {
+            awsDynamoDBDAO.deleteTable(new DeleteTableRequest().withTableName(ITEM_AVAILABILITY_TABLE_NAME));
+        } catch (ResourceNotFoundException error) {
+            throw new RepositoryClientException(String.format("Table %s attempted to delete does not exist", ITEM_AVAILABILITY_TABLE_NAME));
+        } catch (AmazonClientException error) {
+            throw new RepositoryServerException(error);
+        }
+    }
+}
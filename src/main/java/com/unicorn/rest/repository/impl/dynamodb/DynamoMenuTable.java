@@ -0,0 +1,784 @@
+package com.unicorn.rest.repository.impl.dynamodb;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jvnet.hk2.annotations.Service;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.dynamodbv2.model.AttributeDefinition;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.AttributeValueUpdate;
+import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
+import com.amazonaws.services.dynamodbv2.model.Condition;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.CreateTableRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteTableRequest;
+import com.amazonaws.services.dynamodbv2.model.ExpectedAttributeValue;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.GlobalSecondaryIndex;
+import com.amazonaws.services.dynamodbv2.model.KeySchemaElement;
+import com.amazonaws.services.dynamodbv2.model.KeyType;
+import com.amazonaws.services.dynamodbv2.model.Projection;
+import com.amazonaws.services.dynamodbv2.model.ProjectionType;
+import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughput;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.ResourceInUseException;
+import com.amazonaws.services.dynamodbv2.model.ResourceNotFoundException;
+import com.amazonaws.services.dynamodbv2.model.ScalarAttributeType;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.unicorn.rest.repository.exception.ItemNotFoundException;
+import com.unicorn.rest.repository.exception.RepositoryClientException;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.StaleDataException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.AvailabilityWindow;
+import com.unicorn.rest.repository.model.Menu;
+import com.unicorn.rest.repository.model.MenuImage;
+import com.unicorn.rest.repository.model.MenuItem;
+import com.unicorn.rest.repository.model.MenuTranslation;
+import com.unicorn.rest.repository.model.ModifierGroup;
+import com.unicorn.rest.repository.model.ModifierOption;
+import com.unicorn.rest.repository.table.MenuTable;
+import com.unicorn.rest.utils.TimeUtils;
+
+/**
+ * The whole menu of a restaurant is one item keyed by restaurant_id, so that publishing a new version is a single conditional put
+ * on the previous version, and loading a menu is a single read.
+ *
+ * The menu items are stored as gzipped JSON, since the attribute types of list and map are not available to this SDK
+ * and the menu compresses well below the item size limit of DynamoDB. The availability of the menu is stored as plain JSON,
+ * and the menu stored before the availability was introduced is available all the time in UTC.
+ * The translations of the menu are stored as gzipped JSON of the locale to the string table, within the same item,
+ * so that the menu is still published with a single put no matter how many locales it is translated into.
+ * Only the metadata of the item images is stored, and their variants are derived from it again when the menu is loaded.
+ *
+ * Deleting a menu leaves a tombstone of the next version rather than removing the item, so that the versions of the restaurant
+ * only move forward and the deletion shows up in the change feed like any publish. Every write also moves the item into the feed bucket
+ * of its update time, and the GSI on the feed bucket and the update time projects only the version, so polling the feed never reads a menu.
+ */
+@Service
+public class DynamoMenuTable implements MenuTable {
+    private static final Logger LOG = LogManager.getLogger(DynamoMenuTable.class);
+
+    private static final String RESTAURANT_ID_KEY = "RESTAURANT_ID"; //HashKey
+    private static final String MENU_VERSION_KEY = "MENU_VERSION";
+    private static final String MENU_ITEMS_KEY = "MENU_ITEMS";
+    private static final String MENU_TIME_ZONE_KEY = "MENU_TIME_ZONE";
+    private static final String MENU_AVAILABILITY_KEY = "MENU_AVAILABILITY";
+    private static final String MENU_LANGUAGE_KEY = "MENU_LANGUAGE";
+    private static final String MENU_TRANSLATIONS_KEY = "MENU_TRANSLATIONS";
+    private static final String MENU_DELETED_KEY = "MENU_DELETED";
+    private static final String UPDATED_IN_EPOCH_KEY = "UPDATED_IN_EPOCH";
+    private static final String FEED_BUCKET_KEY = "FEED_BUCKET";
+
+    private static final String FEED_BUCKET_UPDATED_IN_EPOCH_GSI_KEY = "FEED_BUCKET-UPDATED_IN_EPOCH-GSI";
+    /*
+     * The menus are published a few times a day per restaurant, so ten minutes of publishes share the hash key of the feed
+     * without making it hot, and the poll reads one or two buckets
+     */
+    private static final long FEED_BUCKET_IN_MILLS = 10 * 60 * 1000L;
+
+    private static final String ITEM_ID_FIELD = "id";
+    private static final String ITEM_NAME_FIELD = "name";
+    private static final String ITEM_DESCRIPTION_FIELD = "description";
+    private static final String ITEM_PRICE_FIELD = "price";
+    private static final String ITEM_TAGS_FIELD = "tags";
+    private static final String ITEM_AVAILABILITY_FIELD = "availability";
+    private static final String WINDOW_DAYS_FIELD = "days";
+    private static final String WINDOW_START_FIELD = "start";
+    private static final String WINDOW_END_FIELD = "end";
+    private static final String ITEM_MODIFIER_GROUPS_FIELD = "modifier_groups";
+    private static final String MODIFIER_ID_FIELD = "id";
+    private static final String MODIFIER_NAME_FIELD = "name";
+    private static final String GROUP_MIN_FIELD = "min";
+    private static final String GROUP_MAX_FIELD = "max";
+    private static final String GROUP_OPTIONS_FIELD = "options";
+    private static final String OPTION_PRICE_DELTA_FIELD = "price_delta";
+    private static final String ITEM_IMAGES_FIELD = "images";
+    private static final String IMAGE_CONTENT_HASH_FIELD = "hash";
+    private static final String IMAGE_CONTENT_TYPE_FIELD = "type";
+    private static final String IMAGE_WIDTH_FIELD = "width";
+    private static final String IMAGE_HEIGHT_FIELD = "height";
+
+    private static final String ITEM_TOO_LARGE_ERROR_CODE = "ValidationException";
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final DynamoDBDAO awsDynamoDBDAO = DynamoDBDAO.get();
+
+    @Override
+    public void putMenu(@Nullable Menu menu)
+            throws ValidationException, StaleDataException, RepositoryServerException {
+        if (menu == null) {
+            throw new ValidationException("Expecting non-null request paramter for putMenu, but received: menu=null");
+        }
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put(RESTAURANT_ID_KEY, DynamoAttributeValueUtils.numberAttrValue(menu.getRestaurantId()));
+        item.put(MENU_VERSION_KEY, DynamoAttributeValueUtils.numberAttrValue(menu.getVersion()));
+        item.put(MENU_ITEMS_KEY, DynamoAttributeValueUtils.byteBufferAttrValue(encodeMenuItems(menu.getItems())));
+        item.put(MENU_TIME_ZONE_KEY, DynamoAttributeValueUtils.stringAttrValue(menu.getTimeZone()));
+        if (!menu.getAvailability().isEmpty()) {
+            item.put(MENU_AVAILABILITY_KEY, DynamoAttributeValueUtils.stringAttrValue(encodeAvailability(menu.getAvailability())));
+        }
+        if (menu.getLanguage() != null) {
+            item.put(MENU_LANGUAGE_KEY, DynamoAttributeValueUtils.stringAttrValue(menu.getLanguage()));
+        }
+        if (!menu.getTranslations().isEmpty()) {
+            item.put(MENU_TRANSLATIONS_KEY, DynamoAttributeValueUtils.byteBufferAttrValue(encodeTranslations(menu.getTranslations().values())));
+        }
+        long updatedInEpoch = TimeUtils.getEpochTimeNowInUTC();
+        item.put(UPDATED_IN_EPOCH_KEY, DynamoAttributeValueUtils.numberAttrValue(updatedInEpoch));
+        item.put(FEED_BUCKET_KEY, DynamoAttributeValueUtils.numberAttrValue(updatedInEpoch / FEED_BUCKET_IN_MILLS));
+
+        Map<String, ExpectedAttributeValue> expected = new HashMap<>();
+        if (menu.getVersion() <= 1) {
+            expected.put(RESTAURANT_ID_KEY, DynamoAttributeValueUtils.expectEmpty());
+        } else {
+            expected.put(MENU_VERSION_KEY, DynamoAttributeValueUtils.expectEqual(DynamoAttributeValueUtils.numberAttrValue(menu.getVersion() - 1)));
+        }
+
+        PutItemRequest putItemRequest = new PutItemRequest().withTableName(MENU_TABLE_NAME).withItem(item).withExpected(expected);
+        try {
+            awsDynamoDBDAO.putItem(putItemRequest);
+        } catch (ConditionalCheckFailedException error) {
+            LOG.info("The menu of restaurant {} in putMenu request is not the next version of {}.", menu.getRestaurantId(), menu.getVersion() - 1);
+            throw new StaleDataException();
+        } catch (AmazonServiceException error) {
+            if (ITEM_TOO_LARGE_ERROR_CODE.equals(error.getErrorCode())) {
+                throw new ValidationException(String.format("Invalid menu of restaurant %s. The menu is too large to store", menu.getRestaurantId()));
+            }
+            LOG.error( String.format("Failed while attempting to putMenu of restaurant %s to table %s.", menu.getRestaurantId(), MENU_TABLE_NAME), error);
+            throw new RepositoryServerException(error);
+        } catch (AmazonClientException error) {
+            LOG.error( String.format("Failed while attempting to putMenu of restaurant %s to table %s.", menu.getRestaurantId(), MENU_TABLE_NAME), error);
+            throw new RepositoryServerException(error);
+        }
+    }
+
+    @Override
+    public @Nonnull Menu getMenu(@Nullable Long restaurantId)
+            throws ValidationException, ItemNotFoundException, RepositoryServerException {
+        if (restaurantId == null) {
+            throw new ValidationException("Expecting non-null request paramter for getMenu, but received: restaurantId=null");
+        }
+        GetItemRequest getItemRequest = new GetItemRequest().withTableName(MENU_TABLE_NAME).withKey(buildKey(restaurantId));
+        GetItemResult getItemResult;
+        try {
+            getItemResult = awsDynamoDBDAO.consistentGetItem(getItemRequest);
+        } catch (AmazonClientException error) {
+            LOG.error( String.format("Failed while attempting to getMenu %s from table %s.", getItemRequest, MENU_TABLE_NAME), error);
+            throw new RepositoryServerException(error);
+        }
+        if (CollectionUtils.sizeIsEmpty(getItemResult.getItem()) || isDeleted(getItemResult.getItem())) {
+            LOG.info("The menu of restaurant {} in getMenu request does not exist in the table.", restaurantId);
+            throw new ItemNotFoundException();
+        }
+        return buildMenu(getItemResult.getItem());
+    }
+
+    @Override
+    public long getMenuVersion(@Nullable Long restaurantId)
+            throws ValidationException, RepositoryServerException {
+        if (restaurantId == null) {
+            throw new ValidationException("Expecting non-null request paramter for getMenuVersion, but received: restaurantId=null");
+        }
+        GetItemRequest getItemRequest = new GetItemRequest().withTableName(MENU_TABLE_NAME).withKey(buildKey(restaurantId))
+                .withAttributesToGet(MENU_VERSION_KEY);
+        GetItemResult getItemResult;
+        try {
+            getItemResult = awsDynamoDBDAO.consistentGetItem(getItemRequest);
+        } catch (AmazonClientException error) {
+            LOG.error( String.format("Failed while attempting to getMenuVersion %s from table %s.", getItemRequest, MENU_TABLE_NAME), error);
+            throw new RepositoryServerException(error);
+        }
+        if (CollectionUtils.sizeIsEmpty(getItemResult.getItem())) {
+            return 0L;
+        }
+        return DynamoAttributeValueUtils.getRequiredLongValue(getItemResult.getItem(), MENU_VERSION_KEY);
+    }
+
+    @Override
+    public @Nonnull Map<Long, Long> getMenuVersionsUpdated(long sinceInEpoch, long untilInEpoch)
+            throws RepositoryServerException {
+        Map<Long, Long> menuVersions = new HashMap<>();
+        if (sinceInEpoch >= untilInEpoch) {
+            return menuVersions;
+        }
+        for (long feedBucket = sinceInEpoch / FEED_BUCKET_IN_MILLS; feedBucket <= (untilInEpoch - 1) / FEED_BUCKET_IN_MILLS; feedBucket++) {
+            Map<String, Condition> keyConditions = new HashMap<>();
+            keyConditions.put(FEED_BUCKET_KEY, new Condition().withComparisonOperator(ComparisonOperator.EQ)
+                    .withAttributeValueList(DynamoAttributeValueUtils.numberAttrValue(feedBucket)));
+            keyConditions.put(UPDATED_IN_EPOCH_KEY, new Condition().withComparisonOperator(ComparisonOperator.BETWEEN)
+                    .withAttributeValueList(DynamoAttributeValueUtils.numberAttrValue(sinceInEpoch),
+                            DynamoAttributeValueUtils.numberAttrValue(untilInEpoch - 1)));
+
+            Map<String, AttributeValue> exclusiveStartKey = null;
+            do {
+                QueryRequest queryRequest = new QueryRequest().withTableName(MENU_TABLE_NAME)
+                        .withIndexName(FEED_BUCKET_UPDATED_IN_EPOCH_GSI_KEY).withKeyConditions(keyConditions).withExclusiveStartKey(exclusiveStartKey);
+                QueryResult queryResult;
+                try {
+                    queryResult = awsDynamoDBDAO.queryOnce(queryRequest);
+                } catch (AmazonClientException error) {
+                    LOG.error( String.format("Failed while attempting to getMenuVersionsUpdated %s from table %s.", queryRequest, MENU_TABLE_NAME), error);
+                    throw new RepositoryServerException(error);
+                }
+                if (queryResult.getItems() != null) {
+                    for (Map<String, AttributeValue> item : queryResult.getItems()) {
+                        Long restaurantId = DynamoAttributeValueUtils.getRequiredLongValue(item, RESTAURANT_ID_KEY);
+                        Long version = DynamoAttributeValueUtils.getRequiredLongValue(item, MENU_VERSION_KEY);
+                        Long knownVersion = menuVersions.get(restaurantId);
+                        if (knownVersion == null || knownVersion < version) {
+                            menuVersions.put(restaurantId, version);
+                        }
+                    }
+                }
+                exclusiveStartKey = CollectionUtils.sizeIsEmpty(queryResult.getLastEvaluatedKey()) ? null : queryResult.getLastEvaluatedKey();
+            } while (exclusiveStartKey != null);
+        }
+        return menuVersions;
+    }
+
+    @Override
+    public @Nonnull List<Menu> getMenus()
+            throws RepositoryServerException {
+        List<Menu> menus = new ArrayList<>();
+        Map<String, AttributeValue> exclusiveStartKey = null;
+        do {
+            ScanRequest scanRequest = new ScanRequest().withTableName(MENU_TABLE_NAME).withExclusiveStartKey(exclusiveStartKey);
+            ScanResult scanResult;
+            try {
+                scanResult = awsDynamoDBDAO.scanOnce(scanRequest);
+            } catch (AmazonClientException error) {
+                LOG.error( String.format("Failed while attempting to getMenus %s from table %s.", scanRequest, MENU_TABLE_NAME), error);
+                throw new RepositoryServerException(error);
+            }
+            if (scanResult.getItems() != null) {
+                for (Map<String, AttributeValue> item : scanResult.getItems()) {
+                    if (!isDeleted(item)) {
+                        menus.add(buildMenu(item));
+                    }
+                }
+            }
+            exclusiveStartKey = CollectionUtils.sizeIsEmpty(scanResult.getLastEvaluatedKey()) ? null : scanResult.getLastEvaluatedKey();
+        } while (exclusiveStartKey != null);
+        return menus;
+    }
+
+    @Override
+    public void deleteMenu(@Nullable Long restaurantId)
+            throws ValidationException, ItemNotFoundException, RepositoryServerException {
+        if (restaurantId == null) {
+            throw new ValidationException("Expecting non-null request paramter for deleteMenu, but received: restaurantId=null");
+        }
+        long updatedInEpoch = TimeUtils.getEpochTimeNowInUTC();
+        Map<String, AttributeValueUpdate> updateItems = new HashMap<>();
+        updateItems.put(MENU_VERSION_KEY, DynamoAttributeValueUtils.atomicAdd(DynamoAttributeValueUtils.numberAttrValue(1L)));
+        updateItems.put(MENU_DELETED_KEY, DynamoAttributeValueUtils.updateTo(DynamoAttributeValueUtils.numberAttrValue(1)));
+        updateItems.put(MENU_ITEMS_KEY, DynamoAttributeValueUtils.delete());
+        updateItems.put(MENU_TIME_ZONE_KEY, DynamoAttributeValueUtils.delete());
+        updateItems.put(MENU_AVAILABILITY_KEY, DynamoAttributeValueUtils.delete());
+        updateItems.put(MENU_LANGUAGE_KEY, DynamoAttributeValueUtils.delete());
+        updateItems.put(MENU_TRANSLATIONS_KEY, DynamoAttributeValueUtils.delete());
+        updateItems.put(UPDATED_IN_EPOCH_KEY, DynamoAttributeValueUtils.updateTo(DynamoAttributeValueUtils.numberAttrValue(updatedInEpoch)));
+        updateItems.put(FEED_BUCKET_KEY, DynamoAttributeValueUtils.updateTo(DynamoAttributeValueUtils.numberAttrValue(updatedInEpoch / FEED_BUCKET_IN_MILLS)));
+
+        Map<String, ExpectedAttributeValue> expected = new HashMap<>();
+        expected.put(RESTAURANT_ID_KEY, DynamoAttributeValueUtils.expectEqual(DynamoAttributeValueUtils.numberAttrValue(restaurantId)));
+        expected.put(MENU_DELETED_KEY, DynamoAttributeValueUtils.expectEmpty());
+
+        UpdateItemRequest updateItemRequest = new UpdateItemRequest().withTableName(MENU_TABLE_NAME).withKey(buildKey(restaurantId))
+                .withAttributeUpdates(updateItems).withExpected(expected);
+        try {
+            awsDynamoDBDAO.updateItem(updateItemRequest);
+        } catch (ConditionalCheckFailedException error) {
+            LOG.info("The menu of restaurant {} in deleteMenu request does not exist in the table.", restaurantId);
+            throw new ItemNotFoundException();
+        } catch (AmazonClientException error) {
+            LOG.error( String.format("Failed while attempting to deleteMenu %s from table %s.", updateItemRequest, MENU_TABLE_NAME), error);
+            throw new RepositoryServerException(error);
+        }
+    }
+
+    private @Nonnull Map<String, AttributeValue> buildKey(@Nonnull Long restaurantId) {
+        Map<String, AttributeValue> key = new HashMap<>();
+        key.put(RESTAURANT_ID_KEY, DynamoAttributeValueUtils.numberAttrValue(restaurantId));
+        return key;
+    }
+
+    private static boolean isDeleted(@Nonnull Map<String, AttributeValue> item)
+            throws RepositoryServerException {
+        Integer deleted = DynamoAttributeValueUtils.getIntegerValue(item, MENU_DELETED_KEY);
+        return deleted != null && deleted != 0;
+    }
+
+    private @Nonnull Menu buildMenu(@Nonnull Map<String, AttributeValue> item)
+            throws RepositoryServerException {
+        return Menu.buildMenu()
+                .restaurantId(DynamoAttributeValueUtils.getRequiredLongValue(item, RESTAURANT_ID_KEY))
+                .version(DynamoAttributeValueUtils.getRequiredLongValue(item, MENU_VERSION_KEY))
+                .items(decodeMenuItems(DynamoAttributeValueUtils.getRequiredByteBufferValue(item, MENU_ITEMS_KEY)))
+                .timeZone(DynamoAttributeValueUtils.getStringValue(item, MENU_TIME_ZONE_KEY))
+                .availability(decodeAvailability(DynamoAttributeValueUtils.getStringValue(item, MENU_AVAILABILITY_KEY)))
+                .language(DynamoAttributeValueUtils.getStringValue(item, MENU_LANGUAGE_KEY))
+                .translations(decodeTranslations(DynamoAttributeValueUtils.getByteBufferValue(item, MENU_TRANSLATIONS_KEY)))
+                .build();
+    }
+
+    /*
+     * This method is protected for unit test
+     */
+    protected static @Nonnull ByteBuffer encodeMenuItems(@Nonnull List<MenuItem> menuItems) throws RepositoryServerException {
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        try (OutputStream gzipOutputStream = new GZIPOutputStream(encoded);
+                JsonGenerator generator = JSON_FACTORY.createGenerator(gzipOutputStream)) {
+            generator.writeStartArray();
+            for (MenuItem menuItem : menuItems) {
+                generator.writeStartObject();
+                generator.writeNumberField(ITEM_ID_FIELD, menuItem.getItemId());
+                generator.writeStringField(ITEM_NAME_FIELD, menuItem.getItemName());
+                if (menuItem.getItemDescription() != null) {
+                    generator.writeStringField(ITEM_DESCRIPTION_FIELD, menuItem.getItemDescription());
+                }
+                generator.writeNumberField(ITEM_PRICE_FIELD, menuItem.getPrice());
+                if (!menuItem.getTags().isEmpty()) {
+                    generator.writeArrayFieldStart(ITEM_TAGS_FIELD);
+                    for (String tag : menuItem.getTags()) {
+                        generator.writeString(tag);
+                    }
+                    generator.writeEndArray();
+                }
+                if (!menuItem.getAvailability().isEmpty()) {
+                    generator.writeFieldName(ITEM_AVAILABILITY_FIELD);
+                    writeAvailability(generator, menuItem.getAvailability());
+                }
+                if (!menuItem.getModifierGroups().isEmpty()) {
+                    generator.writeFieldName(ITEM_MODIFIER_GROUPS_FIELD);
+                    writeModifierGroups(generator, menuItem.getModifierGroups());
+                }
+                if (!menuItem.getImages().isEmpty()) {
+                    generator.writeFieldName(ITEM_IMAGES_FIELD);
+                    writeImages(generator, menuItem.getImages());
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        } catch (IOException error) {
+            throw new RepositoryServerException(error);
+        }
+        return ByteBuffer.wrap(encoded.toByteArray());
+    }
+
+    /*
+     * This method is protected for unit test
+     */
+    protected static @Nonnull List<MenuItem> decodeMenuItems(@Nonnull ByteBuffer encoded) throws RepositoryServerException {
+        byte[] bytes = new byte[encoded.remaining()];
+        encoded.duplicate().get(bytes);
+        List<MenuItem> menuItems = new ArrayList<>();
+        try (InputStream gzipInputStream = new GZIPInputStream(new ByteArrayInputStream(bytes));
+                JsonParser parser = JSON_FACTORY.createParser(gzipInputStream)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new RepositoryServerException(String.format("Expecting the attribute %s to be JSON array", MENU_ITEMS_KEY));
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                MenuItem.MenuItemBuilder menuItemBuilder = MenuItem.buildMenuItem();
+                List<String> tags = null;
+                List<AvailabilityWindow> availability = null;
+                List<ModifierGroup> modifierGroups = null;
+                List<MenuImage> images = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String fieldName = parser.getCurrentName();
+                    parser.nextToken();
+                    switch (fieldName) {
+                    case ITEM_ID_FIELD:
+                        menuItemBuilder.itemId(parser.getLongValue());
+                        break;
+                    case ITEM_NAME_FIELD:
+                        menuItemBuilder.itemName(parser.getText());
+                        break;
+                    case ITEM_DESCRIPTION_FIELD:
+                        menuItemBuilder.itemDescription(parser.getText());
+                        break;
+                    case ITEM_PRICE_FIELD:
+                        menuItemBuilder.price(parser.getLongValue());
+                        break;
+                    case ITEM_TAGS_FIELD:
+                        tags = new ArrayList<>();
+                        while (parser.nextToken() == JsonToken.VALUE_STRING) {
+                            tags.add(parser.getText());
+                        }
+                        break;
+                    case ITEM_AVAILABILITY_FIELD:
+                        availability = readAvailability(parser);
+                        break;
+                    case ITEM_MODIFIER_GROUPS_FIELD:
+                        modifierGroups = readModifierGroups(parser);
+                        break;
+                    case ITEM_IMAGES_FIELD:
+                        images = readImages(parser);
+                        break;
+                    default:
+                        /*
+                         * The field written by the newer version of the server
+                         */
+                        parser.skipChildren();
+                    }
+                }
+                menuItems.add(menuItemBuilder.tags(tags).availability(availability).modifierGroups(modifierGroups).images(images).build());
+            }
+        } catch (IOException | IllegalArgumentException error) {
+            throw new RepositoryServerException(error);
+        }
+        return menuItems;
+    }
+
+    /*
+     * This method is protected for unit test
+     */
+    protected static @Nonnull ByteBuffer encodeTranslations(@Nonnull Collection<MenuTranslation> translations) throws RepositoryServerException {
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        try (OutputStream gzipOutputStream = new GZIPOutputStream(encoded);
+                JsonGenerator generator = JSON_FACTORY.createGenerator(gzipOutputStream)) {
+            generator.writeStartObject();
+            for (MenuTranslation translation : translations) {
+                generator.writeObjectFieldStart(translation.getLocale());
+                for (Map.Entry<String, String> text : translation.getTexts().entrySet()) {
+                    generator.writeStringField(text.getKey(), text.getValue());
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndObject();
+        } catch (IOException error) {
+            throw new RepositoryServerException(error);
+        }
+        return ByteBuffer.wrap(encoded.toByteArray());
+    }
+
+    /*
+     * This method is protected for unit test
+     */
+    protected static @Nullable List<MenuTranslation> decodeTranslations(@Nullable ByteBuffer encoded) throws RepositoryServerException {
+        if (encoded == null) {
+            return null;
+        }
+        byte[] bytes = new byte[encoded.remaining()];
+        encoded.duplicate().get(bytes);
+        List<MenuTranslation> translations = new ArrayList<>();
+        try (InputStream gzipInputStream = new GZIPInputStream(new ByteArrayInputStream(bytes));
+                JsonParser parser = JSON_FACTORY.createParser(gzipInputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new RepositoryServerException(String.format("Expecting the attribute %s to be JSON object", MENU_TRANSLATIONS_KEY));
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String locale = parser.getCurrentName();
+                parser.nextToken();
+                Map<String, String> texts = new LinkedHashMap<>();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String text = parser.getCurrentName();
+                    parser.nextToken();
+                    texts.put(text, parser.getText());
+                }
+                translations.add(new MenuTranslation(locale, texts));
+            }
+        } catch (IOException | IllegalArgumentException error) {
+            throw new RepositoryServerException(error);
+        }
+        return translations;
+    }
+
+    /*
+     * This method is protected for unit test
+     */
+    protected static @Nonnull String encodeAvailability(@Nonnull List<AvailabilityWindow> availability) throws RepositoryServerException {
+        StringWriter encoded = new StringWriter();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(encoded)) {
+            writeAvailability(generator, availability);
+        } catch (IOException error) {
+            throw new RepositoryServerException(error);
+        }
+        return encoded.toString();
+    }
+
+    /*
+     * This method is protected for unit test
+     */
+    protected static @Nullable List<AvailabilityWindow> decodeAvailability(@Nullable String encoded) throws RepositoryServerException {
+        if (encoded == null) {
+            return null;
+        }
+        try (JsonParser parser = JSON_FACTORY.createParser(encoded)) {
+            parser.nextToken();
+            return readAvailability(parser);
+        } catch (IOException | IllegalArgumentException error) {
+            throw new RepositoryServerException(error);
+        }
+    }
+
+    private static void writeAvailability(@Nonnull JsonGenerator generator, @Nonnull List<AvailabilityWindow> availability) throws IOException {
+        generator.writeStartArray();
+        for (AvailabilityWindow availabilityWindow : availability) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart(WINDOW_DAYS_FIELD);
+            for (int dayOfWeek : availabilityWindow.getDaysOfWeek()) {
+                generator.writeNumber(dayOfWeek);
+            }
+            generator.writeEndArray();
+            generator.writeNumberField(WINDOW_START_FIELD, availabilityWindow.getStartMinute());
+            generator.writeNumberField(WINDOW_END_FIELD, availabilityWindow.getEndMinute());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    /*
+     * The parser is at the start of the array of windows
+     */
+    private static @Nonnull List<AvailabilityWindow> readAvailability(@Nonnull JsonParser parser) throws IOException {
+        if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+            throw new IOException(String.format("Expecting the field %s to be JSON array", ITEM_AVAILABILITY_FIELD));
+        }
+        List<AvailabilityWindow> availability = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            AvailabilityWindow.AvailabilityWindowBuilder availabilityWindowBuilder = AvailabilityWindow.buildAvailabilityWindow();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                parser.nextToken();
+                switch (fieldName) {
+                case WINDOW_DAYS_FIELD:
+                    List<Integer> daysOfWeek = new ArrayList<>();
+                    while (parser.nextToken() == JsonToken.VALUE_NUMBER_INT) {
+                        daysOfWeek.add(parser.getIntValue());
+                    }
+                    availabilityWindowBuilder.daysOfWeek(daysOfWeek);
+                    break;
+                case WINDOW_START_FIELD:
+                    availabilityWindowBuilder.startMinute(parser.getIntValue());
+                    break;
+                case WINDOW_END_FIELD:
+                    availabilityWindowBuilder.endMinute(parser.getIntValue());
+                    break;
+                default:
+                    parser.skipChildren();
+                }
+            }
+            availability.add(availabilityWindowBuilder.build());
+        }
+        return availability;
+    }
+
+    public void createTable()
+            throws RepositoryClientException, RepositoryServerException {
+
+        GlobalSecondaryIndex feedBucketUpdatedInEpochGSI = new GlobalSecondaryIndex()
+        .withIndexName(FEED_BUCKET_UPDATED_IN_EPOCH_GSI_KEY)
+        .withProvisionedThroughput(new ProvisionedThroughput(2L, 2L))
+        .withProjection(new Projection().withProjectionType(ProjectionType.INCLUDE).withNonKeyAttributes(MENU_VERSION_KEY))
+        .withKeySchema(
+                new KeySchemaElement(FEED_BUCKET_KEY, KeyType.HASH),
+                new KeySchemaElement(UPDATED_IN_EPOCH_KEY, KeyType.RANGE)
+                );
+
+        CreateTableRequest createTableRequest = new CreateTableRequest()
+        .withTableName(MENU_TABLE_NAME)
+        .withProvisionedThroughput(new ProvisionedThroughput(4L, 2L))
+        .withAttributeDefinitions(
+                new AttributeDefinition(RESTAURANT_ID_KEY, ScalarAttributeType.N),
+                new AttributeDefinition(FEED_BUCKET_KEY, ScalarAttributeType.N),
+                new AttributeDefinition(UPDATED_IN_EPOCH_KEY, ScalarAttributeType.N))
+        .withKeySchema(new KeySchemaElement(RESTAURANT_ID_KEY, KeyType.HASH))
+        .withGlobalSecondaryIndexes(feedBucketUpdatedInEpochGSI);
+
+        try {
+            awsDynamoDBDAO.createTable(createTableRequest);
+        } catch (ResourceInUseException error) {
+            throw new RepositoryClientException(String.format("Table %s attempted to create already exists", MENU_TABLE_NAME));
+        } catch (AmazonClientException error) {
+            throw new RepositoryServerException(error);
+        }
+    }
+
+    public void deleteTable()
+            throws RepositoryClientException, RepositoryServerException {
+        try {
+            awsDynamoDBDAO.deleteTable(new DeleteTableRequest().withTableName(MENU_TABLE_NAME));
+        } catch (ResourceNotFoundException error) {
+            throw new RepositoryClientException(String.format("Table %s attempted to delete does not exist", MENU_TABLE_NAME));
+        } catch (AmazonClientException error) {
+            throw new RepositoryServerException(error);
+        }
+    }
+
+    private static void writeModifierGroups(@Nonnull JsonGenerator generator, @Nonnull List<ModifierGroup> modifierGroups) throws IOException {
+        generator.writeStartArray();
+        for (ModifierGroup modifierGroup : modifierGroups) {
+            generator.writeStartObject();
+            generator.writeNumberField(MODIFIER_ID_FIELD, modifierGroup.getGroupId());
+            generator.writeStringField(MODIFIER_NAME_FIELD, modifierGroup.getGroupName());
+            generator.writeNumberField(GROUP_MIN_FIELD, modifierGroup.getMinSelections());
+            generator.writeNumberField(GROUP_MAX_FIELD, modifierGroup.getMaxSelections());
+            generator.writeArrayFieldStart(GROUP_OPTIONS_FIELD);
+            for (ModifierOption modifierOption : modifierGroup.getOptions()) {
+                generator.writeStartObject();
+                generator.writeNumberField(MODIFIER_ID_FIELD, modifierOption.getOptionId());
+                generator.writeStringField(MODIFIER_NAME_FIELD, modifierOption.getOptionName());
+                generator.writeNumberField(OPTION_PRICE_DELTA_FIELD, modifierOption.getPriceDelta());
+                if (!modifierOption.getModifierGroups().isEmpty()) {
+                    generator.writeFieldName(ITEM_MODIFIER_GROUPS_FIELD);
+                    writeModifierGroups(generator, modifierOption.getModifierGroups());
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    /*
+     * The parser is at the start of the array of groups
+     */
+    private static @Nonnull List<ModifierGroup> readModifierGroups(@Nonnull JsonParser parser) throws IOException {
+        if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+            throw new IOException(String.format("Expecting the field %s to be JSON array", ITEM_MODIFIER_GROUPS_FIELD));
+        }
+        List<ModifierGroup> modifierGroups = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            ModifierGroup.ModifierGroupBuilder modifierGroupBuilder = ModifierGroup.buildModifierGroup();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                parser.nextToken();
+                switch (fieldName) {
+                case MODIFIER_ID_FIELD:
+                    modifierGroupBuilder.groupId(parser.getLongValue());
+                    break;
+                case MODIFIER_NAME_FIELD:
+                    modifierGroupBuilder.groupName(parser.getText());
+                    break;
+                case GROUP_MIN_FIELD:
+                    modifierGroupBuilder.minSelections(parser.getIntValue());
+                    break;
+                case GROUP_MAX_FIELD:
+                    modifierGroupBuilder.maxSelections(parser.getIntValue());
+                    break;
+                case GROUP_OPTIONS_FIELD:
+                    modifierGroupBuilder.options(readModifierOptions(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+                }
+            }
+            modifierGroups.add(modifierGroupBuilder.build());
+        }
+        return modifierGroups;
+    }
+
+    private static @Nonnull List<ModifierOption> readModifierOptions(@Nonnull JsonParser parser) throws IOException {
+        if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+            throw new IOException(String.format("Expecting the field %s to be JSON array", GROUP_OPTIONS_FIELD));
+        }
+        List<ModifierOption> modifierOptions = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            ModifierOption.ModifierOptionBuilder modifierOptionBuilder = ModifierOption.buildModifierOption();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                parser.nextToken();
+                switch (fieldName) {
+                case MODIFIER_ID_FIELD:
+                    modifierOptionBuilder.optionId(parser.getLongValue());
+                    break;
+                case MODIFIER_NAME_FIELD:
+                    modifierOptionBuilder.optionName(parser.getText());
+                    break;
+                case OPTION_PRICE_DELTA_FIELD:
+                    modifierOptionBuilder.priceDelta(parser.getLongValue());
+                    break;
+                case ITEM_MODIFIER_GROUPS_FIELD:
+                    modifierOptionBuilder.modifierGroups(readModifierGroups(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+                }
+            }
+            modifierOptions.add(modifierOptionBuilder.build());
+        }
+        return modifierOptions;
+    }
+
+    private static void writeImages(@Nonnull JsonGenerator generator, @Nonnull List<MenuImage> images) throws IOException {
+        generator.writeStartArray();
+        for (MenuImage image : images) {
+            generator.writeStartObject();
+            generator.writeStringField(IMAGE_CONTENT_HASH_FIELD, image.getContentHash());
+            generator.writeStringField(IMAGE_CONTENT_TYPE_FIELD, image.getContentType());
+            generator.writeNumberField(IMAGE_WIDTH_FIELD, image.getWidth());
+            generator.writeNumberField(IMAGE_HEIGHT_FIELD, image.getHeight());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    /*
+     * The parser is at the start of the array of images
+     */
+    private static @Nonnull List<MenuImage> readImages(@Nonnull JsonParser parser) throws IOException {
+        if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+            throw new IOException(String.format("Expecting the field %s to be JSON array", ITEM_IMAGES_FIELD));
+        }
+        List<MenuImage> images = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            MenuImage.MenuImageBuilder menuImageBuilder = MenuImage.buildMenuImage();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                parser.nextToken();
+                switch (fieldName) {
+                case IMAGE_CONTENT_HASH_FIELD:
+                    menuImageBuilder.contentHash(parser.getText());
+                    break;
+                case IMAGE_CONTENT_TYPE_FIELD:
+                    menuImageBuilder.contentType(parser.getText());
+                    break;
+                case IMAGE_WIDTH_FIELD:
+                    menuImageBuilder.width(parser.getIntValue());
+                    break;
+                case IMAGE_HEIGHT_FIELD:
+                    menuImageBuilder.height(parser.getIntValue());
+                    break;
+                default:
+                    parser.skipChildren();
+                }
+            }
+            images.add(menuImageBuilder.build());
+        }
+        return images;
+    }
+}
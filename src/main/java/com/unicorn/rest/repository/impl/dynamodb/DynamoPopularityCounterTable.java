@@ -0,0 +1,252 @@
+package com.unicorn.rest.repository.impl.dynamodb;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jvnet.hk2.annotations.Service;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.dynamodbv2.model.AttributeDefinition;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.AttributeValueUpdate;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.CreateTableRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteTableRequest;
+import com.amazonaws.services.dynamodbv2.model.ExpectedAttributeValue;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.KeySchemaElement;
+import com.amazonaws.services.dynamodbv2.model.KeyType;
+import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughput;
+import com.amazonaws.services.dynamodbv2.model.ResourceInUseException;
+import com.amazonaws.services.dynamodbv2.model.ResourceNotFoundException;
+import com.amazonaws.services.dynamodbv2.model.ScalarAttributeType;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.unicorn.rest.repository.exception.ItemNotFoundException;
+import com.unicorn.rest.repository.exception.RepositoryClientException;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.StaleDataException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.PopularityCounts;
+import com.unicorn.rest.repository.table.PopularityCounterTable;
+
+/**
+ * The counter of each restaurant starting at each landmark is one row, with one number attribute per item which the servers add to atomically.
+ * The popular items are stored in the same row as the comma separated item_ids, since the number set is not ordered.
+ */
+@Service
+public class DynamoPopularityCounterTable implements PopularityCounterTable {
+    private static final Logger LOG = LogManager.getLogger(DynamoPopularityCounterTable.class);
+
+    private static final String RESTAURANT_ID_KEY = "RESTAURANT_ID"; //HashKey
+    private static final String LANDMARK_IN_EPOCH_KEY = "LANDMARK_IN_EPOCH"; //RangeKey
+    private static final String ITEM_COUNT_KEY_PREFIX = "ITEM_";
+    private static final String MATERIALIZED_IN_EPOCH_KEY = "MATERIALIZED_IN_EPOCH";
+    private static final String POPULAR_ITEM_IDS_KEY = "POPULAR_ITEM_IDS";
+    private static final String ITEM_ID_SEPARATOR = ",";
+    /*
+     * The counts are written in plain decimal with the precision far beyond the ranking needs
+     */
+    private static final int ITEM_COUNT_SCALE = 3;
+
+    private final DynamoDBDAO awsDynamoDBDAO = DynamoDBDAO.get();
+
+    @Override
+    public void addItemCounts(Long restaurantId, Long landmarkInEpoch, Map<Long, Double> itemCounts)
+            throws ValidationException, RepositoryServerException {
+        if (restaurantId == null || landmarkInEpoch == null || CollectionUtils.sizeIsEmpty(itemCounts)) {
+            throw new ValidationException(
+                    String.format("Expecting non-null request paramter for addItemCounts, but received: restaurantId=%s, landmarkInEpoch=%s, itemCounts=%s",
+                            restaurantId, landmarkInEpoch, itemCounts));
+        }
+        Map<String, AttributeValueUpdate> updateItems = new HashMap<>();
+        for (Map.Entry<Long, Double> itemCount : itemCounts.entrySet()) {
+            updateItems.put(ITEM_COUNT_KEY_PREFIX + itemCount.getKey(), DynamoAttributeValueUtils.atomicAdd(new AttributeValue().withN(
+                    BigDecimal.valueOf(itemCount.getValue()).setScale(ITEM_COUNT_SCALE, RoundingMode.HALF_UP).toPlainString())));
+        }
+        UpdateItemRequest updateItemRequest = new UpdateItemRequest().withTableName(POPULARITY_COUNTER_TABLE_NAME)
+                .withKey(buildKey(restaurantId, landmarkInEpoch)).withAttributeUpdates(updateItems);
+        try {
+            awsDynamoDBDAO.updateItem(updateItemRequest);
+        } catch (AmazonClientException error) {
+            LOG.error( String.format("Failed while attempting to addItemCounts %s to table %s.", updateItemRequest, POPULARITY_COUNTER_TABLE_NAME), error);
+            throw new RepositoryServerException(error);
+        }
+    }
+
+    @Override
+    public PopularityCounts getPopularityCounts(Long restaurantId, Long landmarkInEpoch)
+            throws ValidationException, ItemNotFoundException, RepositoryServerException {
+        if (restaurantId == null || landmarkInEpoch == null) {
+            throw new ValidationException(
+                    String.format("Expecting non-null request paramter for getPopularityCounts, but received: restaurantId=%s, landmarkInEpoch=%s",
+                            restaurantId, landmarkInEpoch));
+        }
+        GetItemRequest getItemRequest = new GetItemRequest().withTableName(POPULARITY_COUNTER_TABLE_NAME).withKey(buildKey(restaurantId, landmarkInEpoch));
+        GetItemResult getItemResult;
+        try {
+            getItemResult = awsDynamoDBDAO.consistentGetItem(getItemRequest);
+        } catch (AmazonClientException error) {
+            LOG.error( String.format("Failed while attempting to getPopularityCounts %s from table %s.", getItemRequest, POPULARITY_COUNTER_TABLE_NAME), error);
+            throw new RepositoryServerException(error);
+        }
+        if (CollectionUtils.sizeIsEmpty(getItemResult.getItem())) {
+            LOG.info("The counter of restaurant {} at landmark {} in getPopularityCounts request does not exist in the table.", restaurantId, landmarkInEpoch);
+            throw new ItemNotFoundException();
+        }
+        return buildPopularityCounts(getItemResult.getItem());
+    }
+
+    @Override
+    public List<PopularityCounts> getPopularityCounts()
+            throws RepositoryServerException {
+        List<PopularityCounts> popularityCounts = new ArrayList<>();
+        Map<String, AttributeValue> exclusiveStartKey = null;
+        do {
+            ScanRequest scanRequest = new ScanRequest().withTableName(POPULARITY_COUNTER_TABLE_NAME).withExclusiveStartKey(exclusiveStartKey);
+            ScanResult scanResult;
+            try {
+                scanResult = awsDynamoDBDAO.scanOnce(scanRequest);
+            } catch (AmazonClientException error) {
+                LOG.error( String.format("Failed while attempting to getPopularityCounts %s from table %s.", scanRequest, POPULARITY_COUNTER_TABLE_NAME), error);
+                throw new RepositoryServerException(error);
+            }
+            if (scanResult.getItems() != null) {
+                for (Map<String, AttributeValue> item : scanResult.getItems()) {
+                    popularityCounts.add(buildPopularityCounts(item));
+                }
+            }
+            exclusiveStartKey = CollectionUtils.sizeIsEmpty(scanResult.getLastEvaluatedKey()) ? null : scanResult.getLastEvaluatedKey();
+        } while (exclusiveStartKey != null);
+        return popularityCounts;
+    }
+
+    @Override
+    public void putPopularItems(Long restaurantId, Long landmarkInEpoch, Long expectedMaterializedInEpoch, Long materializedInEpoch,
+            List<Long> popularItemIds)
+            throws ValidationException, StaleDataException, RepositoryServerException {
+        if (restaurantId == null || landmarkInEpoch == null || materializedInEpoch == null || popularItemIds == null) {
+            throw new ValidationException(
+                    String.format("Expecting non-null request paramter for putPopularItems, but received: restaurantId=%s, landmarkInEpoch=%s, materializedInEpoch=%s, popularItemIds=%s",
+                            restaurantId, landmarkInEpoch, materializedInEpoch, popularItemIds));
+        }
+        Map<String, AttributeValueUpdate> updateItems = new HashMap<>();
+        updateItems.put(MATERIALIZED_IN_EPOCH_KEY, DynamoAttributeValueUtils.updateTo(DynamoAttributeValueUtils.numberAttrValue(materializedInEpoch)));
+        updateItems.put(POPULAR_ITEM_IDS_KEY, popularItemIds.isEmpty() ? DynamoAttributeValueUtils.delete()
+                : DynamoAttributeValueUtils.updateTo(DynamoAttributeValueUtils.stringAttrValue(StringUtils.join(popularItemIds, ITEM_ID_SEPARATOR))));
+        Map<String, ExpectedAttributeValue> expected = new HashMap<>();
+        expected.put(MATERIALIZED_IN_EPOCH_KEY, expectedMaterializedInEpoch == null ? DynamoAttributeValueUtils.expectEmpty()
+                : DynamoAttributeValueUtils.expectEqual(DynamoAttributeValueUtils.numberAttrValue(expectedMaterializedInEpoch)));
+
+        UpdateItemRequest updateItemRequest = new UpdateItemRequest().withTableName(POPULARITY_COUNTER_TABLE_NAME)
+                .withKey(buildKey(restaurantId, landmarkInEpoch)).withAttributeUpdates(updateItems).withExpected(expected);
+        try {
+            awsDynamoDBDAO.updateItem(updateItemRequest);
+        } catch (ConditionalCheckFailedException error) {
+            LOG.info("The popular items of restaurant {} at landmark {} in putPopularItems request have been stored by other server.", restaurantId, landmarkInEpoch);
+            throw new StaleDataException();
+        } catch (AmazonClientException error) {
+            LOG.error( String.format("Failed while attempting to putPopularItems %s to table %s.", updateItemRequest, POPULARITY_COUNTER_TABLE_NAME), error);
+            throw new RepositoryServerException(error);
+        }
+    }
+
+    @Override
+    public void deletePopularityCounts(Long restaurantId, Long landmarkInEpoch)
+            throws ValidationException, RepositoryServerException {
+        if (restaurantId == null || landmarkInEpoch == null) {
+            throw new ValidationException(
+                    String.format("Expecting non-null request paramter for deletePopularityCounts, but received: restaurantId=%s, landmarkInEpoch=%s",
+                            restaurantId, landmarkInEpoch));
+        }
+        DeleteItemRequest deleteItemRequest = new DeleteItemRequest().withTableName(POPULARITY_COUNTER_TABLE_NAME)
+                .withKey(buildKey(restaurantId, landmarkInEpoch));
+        try {
+            awsDynamoDBDAO.deleteItem(deleteItemRequest);
+        } catch (AmazonClientException error) {
+            LOG.error( String.format("Failed while attempting to deletePopularityCounts %s from table %s.", deleteItemRequest, POPULARITY_COUNTER_TABLE_NAME), error);
+            throw new RepositoryServerException(error);
+        }
+    }
+
+    private @Nonnull Map<String, AttributeValue> buildKey(@Nonnull Long restaurantId, @Nonnull Long landmarkInEpoch) {
+        Map<String, AttributeValue> key = new HashMap<>();
+        key.put(RESTAURANT_ID_KEY, DynamoAttributeValueUtils.numberAttrValue(restaurantId));
+        key.put(LANDMARK_IN_EPOCH_KEY, DynamoAttributeValueUtils.numberAttrValue(landmarkInEpoch));
+        return key;
+    }
+
+    private @Nonnull PopularityCounts buildPopularityCounts(@Nonnull Map<String, AttributeValue> item)
+            throws RepositoryServerException {
+        Map<Long, Double> itemCounts = new HashMap<>();
+        for (String attrName : item.keySet()) {
+            if (attrName.startsWith(ITEM_COUNT_KEY_PREFIX)) {
+                try {
+                    itemCounts.put(Long.parseLong(attrName.substring(ITEM_COUNT_KEY_PREFIX.length())),
+                            DynamoAttributeValueUtils.getRequiredDoubleValue(item, attrName));
+                } catch (NumberFormatException error) {
+                    throw DynamoAttributeValueUtils.invalidAttrValueException(attrName, error);
+                }
+            }
+        }
+        List<Long> popularItemIds = new ArrayList<>();
+        String popularItemIdsValue = DynamoAttributeValueUtils.getStringValue(item, POPULAR_ITEM_IDS_KEY);
+        if (popularItemIdsValue != null) {
+            try {
+                for (String popularItemId : popularItemIdsValue.split(ITEM_ID_SEPARATOR)) {
+                    popularItemIds.add(Long.parseLong(popularItemId));
+                }
+            } catch (NumberFormatException error) {
+                throw DynamoAttributeValueUtils.invalidAttrValueException(POPULAR_ITEM_IDS_KEY, error);
+            }
+        }
+        return new PopularityCounts(DynamoAttributeValueUtils.getRequiredLongValue(item, RESTAURANT_ID_KEY),
+                DynamoAttributeValueUtils.getRequiredLongValue(item, LANDMARK_IN_EPOCH_KEY), itemCounts,
+                DynamoAttributeValueUtils.getLongValue(item, MATERIALIZED_IN_EPOCH_KEY),
+                popularItemIds.isEmpty() ? Collections.<Long>emptyList() : popularItemIds);
+    }
+
+    public void createTable()
+            throws RepositoryClientException, RepositoryServerException {
+        CreateTableRequest createTableRequest = new CreateTableRequest()
+        .withTableName(POPULARITY_COUNTER_TABLE_NAME)
+        .withProvisionedThroughput(new ProvisionedThroughput(2L, 8L))
+        .withAttributeDefinitions(
+                new AttributeDefinition(RESTAURANT_ID_KEY, ScalarAttributeType.N),
+                new AttributeDefinition(LANDMARK_IN_EPOCH_KEY, ScalarAttributeType.N))
+                .withKeySchema(new KeySchemaElement(RESTAURANT_ID_KEY, KeyType.HASH),
+                        new KeySchemaElement(LANDMARK_IN_EPOCH_KEY, KeyType.RANGE));
+        try {
+            awsDynamoDBDAO.createTable(createTableRequest);
+        } catch (ResourceInUseException error) {
+            throw new RepositoryClientException(String.format("Table %s attempted to create already exists", POPULARITY_COUNTER_TABLE_NAME));
+        } catch (AmazonClientException error) {
+            throw new RepositoryServerException(error);
+        }
+    }
+
+    public void deleteTable()
+            throws RepositoryClientException, RepositoryServerException {
+        try {
+            awsDynamoDBDAO.deleteTable(new DeleteTableRequest().withTableName(POPULARITY_COUNTER_TABLE_NAME));
+        } catch (ResourceNotFoundException error) {
+            throw new RepositoryClientException(String.format("Table %s attempted to delete does not exist", POPULARITY_COUNTER_TABLE_NAME));
+        } catch (AmazonClientException error) {
+            throw new RepositoryServerException(error);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.unicorn.rest.repository.impl.dynamodb;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jvnet.hk2.annotations.Service;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.dynamodbv2.model.AttributeDefinition;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.AttributeValueUpdate;
+import com.amazonaws.services.dynamodbv2.model.CreateTableRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteTableRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.KeySchemaElement;
+import com.amazonaws.services.dynamodbv2.model.KeyType;
+import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughput;
+import com.amazonaws.services.dynamodbv2.model.ResourceInUseException;
+import com.amazonaws.services.dynamodbv2.model.ResourceNotFoundException;
+import com.amazonaws.services.dynamodbv2.model.ScalarAttributeType;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.unicorn.rest.repository.exception.RepositoryClientException;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.table.PrincipalRoleTable;
+
+@Service
+public class DynamoPrincipalRoleTable implements PrincipalRoleTable {
+    private static final Logger LOG = LogManager.getLogger(DynamoPrincipalRoleTable.class);
+
+    private static final String PRINCIPAL_KEY = "PRINCIPAL"; //HashKey
+    private static final String ROLES_KEY = "ROLES";
+
+    private final DynamoDBDAO awsDynamoDBDAO = DynamoDBDAO.get();
+
+    @Override
+    public void grantRoles(Long principal, List<String> roles) 
+            throws ValidationException, RepositoryServerException {
+        validateRoles("grantRoles", principal, roles);
+        updateRoles("grantRoles", principal, DynamoAttributeValueUtils.atomicAdd(DynamoAttributeValueUtils.stringSetAttrValue(roles)));
+    }
+
+    @Override
+    public void revokeRoles(Long principal, List<String> roles) 
+            throws ValidationException, RepositoryServerException {
+        validateRoles("revokeRoles", principal, roles);
+        updateRoles("revokeRoles", principal, DynamoAttributeValueUtils.deleteFromSet(DynamoAttributeValueUtils.stringSetAttrValue(roles)));
+    }
+
+    @Override
+    public List<String> getRoles(Long principal) 
+            throws ValidationException, RepositoryServerException {
+        if (principal == null) {
+            throw new ValidationException("Expecting non-null request paramter for getRoles, but received: principal=null");
+        }
+        GetItemRequest getItemRequest = new GetItemRequest().withTableName(PRINCIPAL_ROLE_TABLE_NAME)
+                .withKey(buildKey(principal)).withAttributesToGet(ROLES_KEY);
+        GetItemResult getItemResult;
+        try {
+            getItemResult = awsDynamoDBDAO.consistentGetItem(getItemRequest);
+        } catch (AmazonClientException error) {
+            LOG.error( String.format("Failed while attempting to getRoles %s from table %s.", getItemRequest, PRINCIPAL_ROLE_TABLE_NAME), error);
+            throw new RepositoryServerException(error);
+        }
+        /*
+         * DynamoDB removes the string set attribute once all of its elements are deleted
+         */
+        if (CollectionUtils.sizeIsEmpty(getItemResult.getItem())) {
+            return Collections.emptyList();
+        }
+        List<String> roles = DynamoAttributeValueUtils.getStringSetValue(getItemResult.getItem(), ROLES_KEY);
+        return roles == null ? Collections.<String>emptyList() : roles;
+    }
+
+    private void updateRoles(@Nonnull String operation, @Nonnull Long principal, @Nonnull AttributeValueUpdate rolesUpdate) 
+            throws RepositoryServerException {
+        Map<String, AttributeValueUpdate> updateItems = new HashMap<>();
+        updateItems.put(ROLES_KEY, rolesUpdate);
+
+        UpdateItemRequest updateItemRequest = new UpdateItemRequest().withTableName(PRINCIPAL_ROLE_TABLE_NAME)
+                .withKey(buildKey(principal)).withAttributeUpdates(updateItems);
+        try {
+            awsDynamoDBDAO.updateItem(updateItemRequest);
+        } catch (AmazonClientException error) {
+            LOG.error( String.format("Failed while attempting to %s %s to table %s.", operation, updateItemRequest, PRINCIPAL_ROLE_TABLE_NAME), error);
+            throw new RepositoryServerException(error);
+        }
+    }
+
+    private @Nonnull Map<String, AttributeValue> buildKey(@Nonnull Long principal) {
+        Map<String, AttributeValue> key = new HashMap<>();
+        key.put(PRINCIPAL_KEY, DynamoAttributeValueUtils.numberAttrValue(principal));
+        return key;
+    }
+
+    private static void validateRoles(@Nonnull String operation, @Nullable Long principal, @Nullable List<String> roles) 
+            throws ValidationException {
+        if (principal == null || CollectionUtils.isEmpty(roles) || roles.contains(null)) {
+            throw new ValidationException(String.format("Expecting non-null request paramter for %s, but received: principal=%s, roles=%s", 
+                    operation, principal, roles));
+        }
+    }
+
+    public void createTable() 
+            throws RepositoryClientException, RepositoryServerException {
+        CreateTableRequest createTableRequest = new CreateTableRequest()
+        .withTableName(PRINCIPAL_ROLE_TABLE_NAME)
+        .withProvisionedThroughput(new ProvisionedThroughput(8L, 1L))
+        .withAttributeDefinitions(new AttributeDefinition(PRINCIPAL_KEY, ScalarAttributeType.N))
+        .withKeySchema(new KeySchemaElement(PRINCIPAL_KEY, KeyType.HASH));
+        try {
+            awsDynamoDBDAO.createTable(createTableRequest);
+        } catch (ResourceInUseException error) {
+            throw new RepositoryClientException(String.format("Table %s attempted to create already exists", PRINCIPAL_ROLE_TABLE_NAME));
+        } catch (AmazonClientException error) {
+            throw new RepositoryServerException(error);
+        }
+    }
+
+    public void deleteTable() 
+            throws RepositoryClientException, RepositoryServerException {
+        try {
+            awsDynamoDBDAO.deleteTable(new DeleteTableRequest().withTableName(PRINCIPAL_ROLE_TABLE_NAME));
+        } catch (ResourceNotFoundException error) {
+            throw new RepositoryClientException(String.format("Table %s attempted to delete does not exist", PRINCIPAL_ROLE_TABLE_NAME));
+        } catch (AmazonClientException error) {
+            throw new RepositoryServerException(error);
+        }
+    }
+}
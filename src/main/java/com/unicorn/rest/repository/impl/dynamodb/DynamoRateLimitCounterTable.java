@@ -0,0 +1,98 @@
+package com.unicorn.rest.repository.impl.dynamodb;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jvnet.hk2.annotations.Service;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.dynamodbv2.model.AttributeDefinition;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.AttributeValueUpdate;
+import com.amazonaws.services.dynamodbv2.model.CreateTableRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteTableRequest;
+import com.amazonaws.services.dynamodbv2.model.KeySchemaElement;
+import com.amazonaws.services.dynamodbv2.model.KeyType;
+import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughput;
+import com.amazonaws.services.dynamodbv2.model.ResourceInUseException;
+import com.amazonaws.services.dynamodbv2.model.ResourceNotFoundException;
+import com.amazonaws.services.dynamodbv2.model.ReturnValue;
+import com.amazonaws.services.dynamodbv2.model.ScalarAttributeType;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemResult;
+import com.unicorn.rest.repository.exception.RepositoryClientException;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.table.RateLimitCounterTable;
+
+@Service
+public class DynamoRateLimitCounterTable implements RateLimitCounterTable {
+    private static final Logger LOG = LogManager.getLogger(DynamoRateLimitCounterTable.class);
+
+    private static final String COUNTER_KEY = "COUNTER_KEY"; //HashKey
+    private static final String WINDOW_START_IN_EPOCH_KEY = "WINDOW_START_IN_EPOCH"; //RangeKey
+    private static final String COUNT_KEY = "COUNT";
+    private static final String EXPIRED_IN_EPOCH_KEY = "EXPIRED_IN_EPOCH";
+
+    private final DynamoDBDAO awsDynamoDBDAO = DynamoDBDAO.get();
+
+    @Override
+    public long incrementAndGetCount(String counterKey, Long windowStartInEpoch, Long expireInEpoch) 
+            throws ValidationException, RepositoryServerException {
+        if (counterKey == null || windowStartInEpoch == null || expireInEpoch == null) {
+            throw new ValidationException(
+                    String.format("Expecting non-null request paramter for incrementAndGetCount, but received: counterKey=%s, windowStartInEpoch=%s, expireInEpoch=%s", 
+                            counterKey, windowStartInEpoch, expireInEpoch));
+        }
+        Map<String, AttributeValue> key = new HashMap<>();
+        key.put(COUNTER_KEY, DynamoAttributeValueUtils.stringAttrValue(counterKey));
+        key.put(WINDOW_START_IN_EPOCH_KEY, DynamoAttributeValueUtils.numberAttrValue(windowStartInEpoch));
+
+        Map<String, AttributeValueUpdate> updateItems = new HashMap<>();
+        updateItems.put(COUNT_KEY, DynamoAttributeValueUtils.atomicAdd(DynamoAttributeValueUtils.numberAttrValue(1)));
+        updateItems.put(EXPIRED_IN_EPOCH_KEY, DynamoAttributeValueUtils.updateTo(DynamoAttributeValueUtils.numberAttrValue(expireInEpoch)));
+
+        UpdateItemRequest updateItemRequest = new UpdateItemRequest().withTableName(RATE_LIMIT_COUNTER_TABLE_NAME)
+                .withKey(key).withAttributeUpdates(updateItems).withReturnValues(ReturnValue.UPDATED_NEW);
+        UpdateItemResult updateItemResult;
+        try {
+            updateItemResult = awsDynamoDBDAO.updateItem(updateItemRequest);
+        } catch (AmazonClientException error) {
+            LOG.error( String.format("Failed while attempting to incrementAndGetCount %s to table %s.", updateItemRequest, RATE_LIMIT_COUNTER_TABLE_NAME), error);
+            throw new RepositoryServerException(error);
+        }
+        return DynamoAttributeValueUtils.getRequiredLongValue(updateItemResult.getAttributes(), COUNT_KEY);
+    }
+
+    public void createTable() 
+            throws RepositoryClientException, RepositoryServerException {
+        CreateTableRequest createTableRequest = new CreateTableRequest()
+        .withTableName(RATE_LIMIT_COUNTER_TABLE_NAME)
+        .withProvisionedThroughput(new ProvisionedThroughput(1L, 8L))
+        .withAttributeDefinitions(
+                new AttributeDefinition(COUNTER_KEY, ScalarAttributeType.S),
+                new AttributeDefinition(WINDOW_START_IN_EPOCH_KEY, ScalarAttributeType.N))
+                .withKeySchema(new KeySchemaElement(COUNTER_KEY, KeyType.HASH),
+                        new KeySchemaElement(WINDOW_START_IN_EPOCH_KEY, KeyType.RANGE));
+        try {
+            awsDynamoDBDAO.createTable(createTableRequest);
+        } catch (ResourceInUseException error) {
+            throw new RepositoryClientException(String.format("Table %s attempted to create already exists", RATE_LIMIT_COUNTER_TABLE_NAME));
+        } catch (AmazonClientException error) {
+            throw new RepositoryServerException(error);
+        }
+    }
+
+    public void deleteTable() 
+            throws RepositoryClientException, RepositoryServerException {
+        try {
+            awsDynamoDBDAO.deleteTable(new DeleteTableRequest().withTableName(RATE_LIMIT_COUNTER_TABLE_NAME));
+        } catch (ResourceNotFoundException error) {
+            throw new RepositoryClientException(String.format("Table %s attempted to delete does not exist", RATE_LIMIT_COUNTER_TABLE_NAME));
+        } catch (AmazonClientException error) {
+            throw new RepositoryServerException(error);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.unicorn.rest.repository.impl.dynamodb;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jvnet.hk2.annotations.Service;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.dynamodbv2.model.AttributeDefinition;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.CreateTableRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteTableRequest;
+import com.amazonaws.services.dynamodbv2.model.ExpectedAttributeValue;
+import com.amazonaws.services.dynamodbv2.model.KeySchemaElement;
+import com.amazonaws.services.dynamodbv2.model.KeyType;
+import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughput;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.ResourceInUseException;
+import com.amazonaws.services.dynamodbv2.model.ResourceNotFoundException;
+import com.amazonaws.services.dynamodbv2.model.ScalarAttributeType;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.unicorn.rest.repository.exception.RepositoryClientException;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.GeoLocation;
+import com.unicorn.rest.repository.model.RestaurantLocation;
+import com.unicorn.rest.repository.table.RestaurantLocationTable;
+
+/**
+ * The restaurant locations are keyed by the geohash cell they fall into and then restaurant_id,
+ * so that the restaurants nearby are stored together and the table can be queried by cell as well as scanned as a whole.
+ *
+ * Moving a restaurant puts the location into the new cell before deleting it from the old cell,
+ * so that the restaurant is never missing from the table, at the cost of being in two cells for a moment.
+ */
+@Service
+public class DynamoRestaurantLocationTable implements RestaurantLocationTable {
+    private static final Logger LOG = LogManager.getLogger(DynamoRestaurantLocationTable.class);
+
+    private static final String GEOHASH_CELL_KEY = "GEOHASH_CELL"; //HashKey
+    private static final String RESTAURANT_ID_KEY = "RESTAURANT_ID"; //RangeKey
+    private static final String LATITUDE_KEY = "LATITUDE";
+    private static final String LONGITUDE_KEY = "LONGITUDE";
+    private static final String UPDATED_AT_KEY = "UPDATED_AT";
+
+    private final DynamoDBDAO awsDynamoDBDAO = DynamoDBDAO.get();
+
+    @Override
+    public void putRestaurantLocation(@Nullable RestaurantLocation restaurantLocation)
+            throws ValidationException, RepositoryServerException {
+        if (restaurantLocation == null) {
+            throw new ValidationException("Expecting non-null request paramter for putRestaurantLocation, but received: restaurantLocation=null");
+        }
+        Map<String, AttributeValue> item = buildKey(restaurantLocation);
+        item.put(LATITUDE_KEY, DynamoAttributeValueUtils.numberAttrValue(restaurantLocation.getLocation().getLatitude()));
+        item.put(LONGITUDE_KEY, DynamoAttributeValueUtils.numberAttrValue(restaurantLocation.getLocation().getLongitude()));
+        item.put(UPDATED_AT_KEY, DynamoAttributeValueUtils.numberAttrValue(restaurantLocation.getUpdatedAt()));
+
+        PutItemRequest putItemRequest = new PutItemRequest().withTableName(RESTAURANT_LOCATION_TABLE_NAME).withItem(item);
+        try {
+            awsDynamoDBDAO.putItem(putItemRequest);
+        } catch (AmazonClientException error) {
+            LOG.error( String.format("Failed while attempting to putRestaurantLocation %s to table %s.", putItemRequest, RESTAURANT_LOCATION_TABLE_NAME), error);
+            throw new RepositoryServerException(error);
+        }
+    }
+
+    @Override
+    public void deleteRestaurantLocation(@Nullable RestaurantLocation restaurantLocation)
+            throws ValidationException, RepositoryServerException {
+        if (restaurantLocation == null) {
+            throw new ValidationException("Expecting non-null request paramter for deleteRestaurantLocation, but received: restaurantLocation=null");
+        }
+        /*
+         * The restaurant moved back into the same cell since must not be deleted by the stale copy of its location
+         */
+        Map<String, ExpectedAttributeValue> expected = new HashMap<>();
+        expected.put(UPDATED_AT_KEY, DynamoAttributeValueUtils.expectEqual(DynamoAttributeValueUtils.numberAttrValue(restaurantLocation.getUpdatedAt())));
+
+        DeleteItemRequest deleteItemRequest = new DeleteItemRequest().withTableName(RESTAURANT_LOCATION_TABLE_NAME)
+                .withKey(buildKey(restaurantLocation)).withExpected(expected);
+        try {
+            awsDynamoDBDAO.deleteItem(deleteItemRequest);
+        } catch (ConditionalCheckFailedException error) {
+            LOG.info("The location {} in deleteRestaurantLocation request no longer exists or has been updated in the table.", restaurantLocation);
+        } catch (AmazonClientException error) {
+            LOG.error( String.format("Failed while attempting to deleteRestaurantLocation %s from table %s.", deleteItemRequest, RESTAURANT_LOCATION_TABLE_NAME), error);
+            throw new RepositoryServerException(error);
+        }
+    }
+
+    @Override
+    public @Nonnull List<RestaurantLocation> getRestaurantLocations()
+            throws RepositoryServerException {
+        List<RestaurantLocation> restaurantLocations = new ArrayList<>();
+        Map<String, AttributeValue> exclusiveStartKey = null;
+        do {
+            ScanRequest scanRequest = new ScanRequest().withTableName(RESTAURANT_LOCATION_TABLE_NAME).withExclusiveStartKey(exclusiveStartKey);
+            ScanResult scanResult;
+            try {
+                scanResult = awsDynamoDBDAO.scanOnce(scanRequest);
+            } catch (AmazonClientException error) {
+                LOG.error( String.format("Failed while attempting to getRestaurantLocations %s from table %s.", scanRequest, RESTAURANT_LOCATION_TABLE_NAME), error);
+                throw new RepositoryServerException(error);
+            }
+            if (scanResult.getItems() != null) {
+                for (Map<String, AttributeValue> item : scanResult.getItems()) {
+                    restaurantLocations.add(buildRestaurantLocation(item));
+                }
+            }
+            exclusiveStartKey = CollectionUtils.sizeIsEmpty(scanResult.getLastEvaluatedKey()) ? null : scanResult.getLastEvaluatedKey();
+        } while (exclusiveStartKey != null);
+        return restaurantLocations;
+    }
+
+    private @Nonnull Map<String, AttributeValue> buildKey(@Nonnull RestaurantLocation restaurantLocation) {
+        Map<String, AttributeValue> key = new HashMap<>();
+        key.put(GEOHASH_CELL_KEY, DynamoAttributeValueUtils.stringAttrValue(restaurantLocation.getGeohashCell()));
+        key.put(RESTAURANT_ID_KEY, DynamoAttributeValueUtils.numberAttrValue(restaurantLocation.getRestaurantId()));
+        return key;
+    }
+
+    private @Nonnull RestaurantLocation buildRestaurantLocation(@Nonnull Map<String, AttributeValue> item)
+            throws RepositoryServerException {
+        GeoLocation location;
+        try {
+            location = GeoLocation.validateGeoLocation(DynamoAttributeValueUtils.getRequiredDoubleValue(item, LATITUDE_KEY),
+                    DynamoAttributeValueUtils.getRequiredDoubleValue(item, LONGITUDE_KEY));
+        } catch (ValidationException error) {
+            throw new RepositoryServerException(error);
+        }
+        return RestaurantLocation.buildRestaurantLocation()
+                .restaurantId(DynamoAttributeValueUtils.getRequiredLongValue(item, RESTAURANT_ID_KEY))
+                .location(location)
+                .updatedAt(DynamoAttributeValueUtils.getRequiredLongValue(item, UPDATED_AT_KEY))
+                .build();
+    }
+
+    public void createTable()
+            throws RepositoryClientException, RepositoryServerException {
+
+        CreateTableRequest createTableRequest = new CreateTableRequest()
+        .withTableName(RESTAURANT_LOCATION_TABLE_NAME)
+        .withProvisionedThroughput(new ProvisionedThroughput(4L, 2L))
+        .withAttributeDefinitions(
+                new AttributeDefinition(GEOHASH_CELL_KEY, ScalarAttributeType.S),
+                new AttributeDefinition(RESTAURANT_ID_KEY, ScalarAttributeType.N))
+        .withKeySchema(
+                new KeySchemaElement(GEOHASH_CELL_KEY, KeyType.HASH),
+                new KeySchemaElement(RESTAURANT_ID_KEY, KeyType.RANGE));
+
+        try {
+            awsDynamoDBDAO.createTable(createTableRequest);
+        } catch (ResourceInUseException error) {
+            throw new RepositoryClientException(String.format("Table %s attempted to create already exists", RESTAURANT_LOCATION_TABLE_NAME));
+        } catch (AmazonClientException error) {
+            throw new RepositoryServerException(error);
+        }
+    }
+
+    public void deleteTable()
+            throws RepositoryClientException, RepositoryServerException {
+        try {
+            awsDynamoDBDAO.deleteTable(new DeleteTableRequest().withTableName(RESTAURANT_LOCATION_TABLE_NAME));
+        } catch (ResourceNotFoundException error) {
+            throw new RepositoryClientException(String.format("Table %s attempted to delete does not exist", RESTAURANT_LOCATION_TABLE_NAME));
+        } catch (AmazonClientException error) {
+            throw new RepositoryServerException(error);
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.unicorn.rest.repository.impl.dynamodb;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jvnet.hk2.annotations.Service;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.dynamodbv2.model.AttributeDefinition;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.AttributeValueUpdate;
+import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
+import com.amazonaws.services.dynamodbv2.model.Condition;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.CreateTableRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteTableRequest;
+import com.amazonaws.services.dynamodbv2.model.ExpectedAttributeValue;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.GlobalSecondaryIndex;
+import com.amazonaws.services.dynamodbv2.model.KeySchemaElement;
+import com.amazonaws.services.dynamodbv2.model.KeyType;
+import com.amazonaws.services.dynamodbv2.model.KeysAndAttributes;
+import com.amazonaws.services.dynamodbv2.model.Projection;
+import com.amazonaws.services.dynamodbv2.model.ProjectionType;
+import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughput;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.ResourceInUseException;
+import com.amazonaws.services.dynamodbv2.model.ResourceNotFoundException;
+import com.amazonaws.services.dynamodbv2.model.ReturnValue;
+import com.amazonaws.services.dynamodbv2.model.ScalarAttributeType;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemResult;
+import com.unicorn.rest.repository.exception.DuplicateKeyException;
+import com.unicorn.rest.repository.exception.ItemNotFoundException;
+import com.unicorn.rest.repository.exception.RepositoryClientException;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.GeoLocation;
+import com.unicorn.rest.repository.model.Restaurant;
+import com.unicorn.rest.repository.table.RestaurantTable;
+
+/**
+ * The restaurants are keyed by restaurant_id, and the owner index projects all the attributes, 
+ * so that listing the restaurants of an owner is a single Query rather than a Query followed by a GetItem per restaurant.
+ */
+@Service
+public class DynamoRestaurantTable implements RestaurantTable {
+    private static final Logger LOG = LogManager.getLogger(DynamoRestaurantTable.class);
+
+    private static final String RESTAURANT_ID_KEY = "RESTAURANT_ID"; //HashKey
+    private static final String OWNER_PRINCIPAL_KEY = "OWNER_PRINCIPAL";
+    private static final String RESTAURANT_NAME_KEY = "RESTAURANT_NAME";
+    private static final String RESTAURANT_DESCRIPTION_KEY = "RESTAURANT_DESCRIPTION";
+    private static final String LATITUDE_KEY = "LATITUDE";
+    private static final String LONGITUDE_KEY = "LONGITUDE";
+
+    private static final String OWNER_PRINCIPAL_GSI_KEY = "OWNER_PRINCIPAL-GSI";
+
+    private final DynamoDBDAO awsDynamoDBDAO = DynamoDBDAO.get();
+
+    @Override
+    public void createRestaurant(@Nullable Restaurant restaurant) 
+            throws ValidationException, DuplicateKeyException, RepositoryServerException {
+        if (restaurant == null) {
+            throw new ValidationException("Expecting non-null request paramter for createRestaurant, but received: restaurant=null");
+        }
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put(RESTAURANT_ID_KEY, DynamoAttributeValueUtils.numberAttrValue(restaurant.getRestaurantId()));
+        item.put(OWNER_PRINCIPAL_KEY, DynamoAttributeValueUtils.numberAttrValue(restaurant.getOwnerPrincipal()));
+        item.put(RESTAURANT_NAME_KEY, DynamoAttributeValueUtils.stringAttrValue(restaurant.getRestaurantName()));
+        AttributeValue restaurantDescription = DynamoAttributeValueUtils.stringAttrValue(restaurant.getRestaurantDescription());
+        if (restaurantDescription != null) {
+            item.put(RESTAURANT_DESCRIPTION_KEY, restaurantDescription);
+        }
+        GeoLocation location = restaurant.getLocation();
+        if (location != null) {
+            item.put(LATITUDE_KEY, DynamoAttributeValueUtils.numberAttrValue(location.getLatitude()));
+            item.put(LONGITUDE_KEY, DynamoAttributeValueUtils.numberAttrValue(location.getLongitude()));
+        }
+
+        Map<String, ExpectedAttributeValue> expected = new HashMap<>();
+        expected.put(RESTAURANT_ID_KEY, DynamoAttributeValueUtils.expectEmpty());
+
+        PutItemRequest putItemRequest = new PutItemRequest().withTableName(RESTAURANT_TABLE_NAME).withItem(item).withExpected(expected);
+        try {
+            awsDynamoDBDAO.putItem(putItemRequest);
+        } catch (ConditionalCheckFailedException error) {
+            LOG.info("The restaurant {} in createRestaurant request already existed.", restaurant.getRestaurantId());
+            throw new DuplicateKeyException();
+        } catch (AmazonClientException error) {
+            LOG.error( String.format("Failed while attempting to createRestaurant %s to table %s.", putItemRequest, RESTAURANT_TABLE_NAME), error);
+            throw new RepositoryServerException(error);
+        }
+    }
+
+    @Override
+    public @Nonnull Restaurant getRestaurant(@Nullable Long restaurantId) 
+            throws ValidationException, ItemNotFoundException, RepositoryServerException {
+        if (restaurantId == null) {
+            throw new ValidationException("Expecting non-null request paramter for getRestaurant, but received: restaurantId=null");
+        }
+        GetItemRequest getItemRequest = new GetItemRequest().withTableName(RESTAURANT_TABLE_NAME).withKey(buildKey(restaurantId));
+        GetItemResult getItemResult;
+        try {
+            getItemResult = awsDynamoDBDAO.consistentGetItem(getItemRequest);
+        } catch (AmazonClientException error) {
+            LOG.error( String.format("Failed while attempting to getRestaurant %s from table %s.", getItemRequest, RESTAURANT_TABLE_NAME), error);
+            throw new RepositoryServerException(error);
+        }
+        if (CollectionUtils.sizeIsEmpty(getItemResult.getItem())) {
+            LOG.info("The restaurant {} in getRestaurant request does not exist in the table.", restaurantId);
+            throw new ItemNotFoundException();
+        }
+        return buildRestaurant(getItemResult.getItem());
+    }
+
+    @Override
+    public @Nonnull List<Restaurant> getRestaurants(@Nullable Collection<Long> restaurantIds) 
+            throws ValidationException, RepositoryServerException {
+        if (restaurantIds == null || restaurantIds.contains(null)) {
+            throw new ValidationException(String.format("Expecting non-null request paramter for getRestaurants, but received: restaurantIds=%s", restaurantIds));
+        }
+        List<Restaurant> restaurants = new ArrayList<>(restaurantIds.size());
+        /*
+         * BatchGetItem rejects the duplicate keys in the same request
+         */
+        List<Long> distinctRestaurantIds = new ArrayList<>(new LinkedHashSet<>(restaurantIds));
+        for (int start = 0; start < distinctRestaurantIds.size(); start += DynamoDBDAO.MAX_BATCH_GET_ITEM_KEYS) {
+            List<Map<String, AttributeValue>> keys = new ArrayList<>();
+            for (Long restaurantId : distinctRestaurantIds.subList(start, Math.min(start + DynamoDBDAO.MAX_BATCH_GET_ITEM_KEYS, distinctRestaurantIds.size()))) {
+                keys.add(buildKey(restaurantId));
+            }
+            KeysAndAttributes keysAndAttributes = new KeysAndAttributes().withKeys(keys).withConsistentRead(true);
+            List<Map<String, AttributeValue>> items;
+            try {
+                items = awsDynamoDBDAO.batchGetItem(RESTAURANT_TABLE_NAME, keysAndAttributes);
+            } catch (AmazonClientException error) {
+                LOG.error( String.format("Failed while attempting to getRestaurants %s from table %s.", keysAndAttributes, RESTAURANT_TABLE_NAME), error);
+                throw new RepositoryServerException(error);
+            }
+            for (Map<String, AttributeValue> item : items) {
+                restaurants.add(buildRestaurant(item));
+            }
+        }
+        return restaurants;
+    }
+
+    @Override
+    public @Nonnull List<Restaurant> getRestaurantsForOwner(@Nullable Long ownerPrincipal) 
+            throws ValidationException, RepositoryServerException {
+        if (ownerPrincipal == null) {
+            throw new ValidationException("Expecting non-null request paramter for getRestaurantsForOwner, but received: ownerPrincipal=null");
+        }
+        Map<String, Condition> keyConditions = new HashMap<>();
+        keyConditions.put(OWNER_PRINCIPAL_KEY, new Condition().withComparisonOperator(ComparisonOperator.EQ)
+                .withAttributeValueList(DynamoAttributeValueUtils.numberAttrValue(ownerPrincipal)));
+
+        List<Restaurant> restaurants = new ArrayList<>();
+        Map<String, AttributeValue> exclusiveStartKey = null;
+        do {
+            QueryRequest queryRequest = new QueryRequest().withTableName(RESTAURANT_TABLE_NAME).withIndexName(OWNER_PRINCIPAL_GSI_KEY)
+                    .withKeyConditions(keyConditions).withExclusiveStartKey(exclusiveStartKey);
+            QueryResult queryResult;
+            try {
+                queryResult = awsDynamoDBDAO.queryOnce(queryRequest);
+            } catch (AmazonClientException error) {
+                LOG.error( String.format("Failed while attempting to getRestaurantsForOwner %s from table %s.", queryRequest, RESTAURANT_TABLE_NAME), error);
+                throw new RepositoryServerException(error);
+            }
+            if (queryResult.getItems() != null) {
+                for (Map<String, AttributeValue> item : queryResult.getItems()) {
+                    restaurants.add(buildRestaurant(item));
+                }
+            }
+            exclusiveStartKey = CollectionUtils.sizeIsEmpty(queryResult.getLastEvaluatedKey()) ? null : queryResult.getLastEvaluatedKey();
+        } while (exclusiveStartKey != null);
+        return restaurants;
+    }
+
+    @Override
+    public @Nonnull Restaurant updateRestaurant(@Nullable Restaurant restaurant) 
+            throws ValidationException, ItemNotFoundException, RepositoryServerException {
+        if (restaurant == null) {
+            throw new ValidationException("Expecting non-null request paramter for updateRestaurant, but received: restaurant=null");
+        }
+        Map<String, AttributeValueUpdate> updateItems = new HashMap<>();
+        updateItems.put(RESTAURANT_NAME_KEY, DynamoAttributeValueUtils.updateTo(DynamoAttributeValueUtils.stringAttrValue(restaurant.getRestaurantName())));
+        AttributeValue restaurantDescription = DynamoAttributeValueUtils.stringAttrValue(restaurant.getRestaurantDescription());
+        updateItems.put(RESTAURANT_DESCRIPTION_KEY, restaurantDescription == null ? 
+                DynamoAttributeValueUtils.delete() : DynamoAttributeValueUtils.updateTo(restaurantDescription));
+        GeoLocation location = restaurant.getLocation();
+        updateItems.put(LATITUDE_KEY, location == null ? 
+                DynamoAttributeValueUtils.delete() : DynamoAttributeValueUtils.updateTo(DynamoAttributeValueUtils.numberAttrValue(location.getLatitude())));
+        updateItems.put(LONGITUDE_KEY, location == null ? 
+                DynamoAttributeValueUtils.delete() : DynamoAttributeValueUtils.updateTo(DynamoAttributeValueUtils.numberAttrValue(location.getLongitude())));
+
+        Map<String, ExpectedAttributeValue> expectedValues = new HashMap<>();
+        expectedValues.put(OWNER_PRINCIPAL_KEY, DynamoAttributeValueUtils.expectEqual(DynamoAttributeValueUtils.numberAttrValue(restaurant.getOwnerPrincipal())));
+
+        UpdateItemRequest updateItemRequest = new UpdateItemRequest().withTableName(RESTAURANT_TABLE_NAME).withKey(buildKey(restaurant.getRestaurantId()))
+                .withAttributeUpdates(updateItems).withExpected(expectedValues).withReturnValues(ReturnValue.ALL_NEW);
+        UpdateItemResult updateItemResult;
+        try {
+            updateItemResult = awsDynamoDBDAO.updateItem(updateItemRequest);
+        } catch (ConditionalCheckFailedException error) {
+            LOG.info("The restaurant {} owned by principal {} in updateRestaurant request does not exist in the table.", 
+                    restaurant.getRestaurantId(), restaurant.getOwnerPrincipal());
+            throw new ItemNotFoundException();
+        } catch (AmazonClientException error) {
+            LOG.error( String.format("Failed while attempting to updateRestaurant %s to table %s.", updateItemRequest, RESTAURANT_TABLE_NAME), error);
+            throw new RepositoryServerException(error);
+        }
+        return buildRestaurant(updateItemResult.getAttributes());
+    }
+
+    @Override
+    public void deleteRestaurant(@Nullable Long restaurantId, @Nullable Long ownerPrincipal) 
+            throws ValidationException, ItemNotFoundException, RepositoryServerException {
+        if (restaurantId == null || ownerPrincipal == null) {
+            throw new ValidationException(String.format("Expecting non-null request paramter for deleteRestaurant, but received: restaurantId=%s, ownerPrincipal=%s", 
+                    restaurantId, ownerPrincipal));
+        }
+        Map<String, ExpectedAttributeValue> expectedValues = new HashMap<>();
+        expectedValues.put(OWNER_PRINCIPAL_KEY, DynamoAttributeValueUtils.expectEqual(DynamoAttributeValueUtils.numberAttrValue(ownerPrincipal)));
+
+        DeleteItemRequest deleteItemRequest = new DeleteItemRequest().withTableName(RESTAURANT_TABLE_NAME)
+                .withKey(buildKey(restaurantId)).withExpected(expectedValues);
+        try {
+            awsDynamoDBDAO.deleteItem(deleteItemRequest);
+        } catch (ConditionalCheckFailedException error) {
+            LOG.info("The restaurant {} owned by principal {} in deleteRestaurant request does not exist in the table.", restaurantId, ownerPrincipal);
+            throw new ItemNotFoundException();
+        } catch (AmazonClientException error) {
+            LOG.error( String.format("Failed while attempting to deleteRestaurant %s from table %s.", deleteItemRequest, RESTAURANT_TABLE_NAME), error);
+            throw new RepositoryServerException(error);
+        }
+    }
+
+    private @Nonnull Map<String, AttributeValue> buildKey(@Nonnull Long restaurantId) {
+        Map<String, AttributeValue> key = new HashMap<>();
+        key.put(RESTAURANT_ID_KEY, DynamoAttributeValueUtils.numberAttrValue(restaurantId));
+        return key;
+    }
+
+    private @Nonnull Restaurant buildRestaurant(@Nonnull Map<String, AttributeValue> item) 
+            throws RepositoryServerException {
+        Double latitude = DynamoAttributeValueUtils.getDoubleValue(item, LATITUDE_KEY);
+        Double longitude = DynamoAttributeValueUtils.getDoubleValue(item, LONGITUDE_KEY);
+        GeoLocation location;
+        try {
+            location = GeoLocation.validateGeoLocation(latitude, longitude);
+        } catch (ValidationException error) {
+            throw new RepositoryServerException(error);
+        }
+        return Restaurant.buildRestaurant()
+                .restaurantId(DynamoAttributeValueUtils.getRequiredLongValue(item, RESTAURANT_ID_KEY))
+                .ownerPrincipal(DynamoAttributeValueUtils.getRequiredLongValue(item, OWNER_PRINCIPAL_KEY))
+                .restaurantName(DynamoAttributeValueUtils.getRequiredStringValue(item, RESTAURANT_NAME_KEY))
+                .restaurantDescription(DynamoAttributeValueUtils.getStringValue(item, RESTAURANT_DESCRIPTION_KEY))
+                .location(location)
+                .build();
+    }
+
+    public void createTable() 
+            throws RepositoryClientException, RepositoryServerException {
+
+        GlobalSecondaryIndex ownerPrincipalGSI = new GlobalSecondaryIndex()
+        .withIndexName(OWNER_PRINCIPAL_GSI_KEY)
+        .withProvisionedThroughput(new ProvisionedThroughput(4L, 1L))
+        .withProjection(new Projection().withProjectionType(ProjectionType.ALL))
+        .withKeySchema(
+                new KeySchemaElement(OWNER_PRINCIPAL_KEY, KeyType.HASH),
+                new KeySchemaElement(RESTAURANT_ID_KEY, KeyType.RANGE)
+                );
+
+        CreateTableRequest createTableRequest = new CreateTableRequest()
+        .withTableName(RESTAURANT_TABLE_NAME)
+        .withProvisionedThroughput(new ProvisionedThroughput(8L, 2L))
+        .withAttributeDefinitions(
+                new AttributeDefinition(RESTAURANT_ID_KEY, ScalarAttributeType.N),
+                new AttributeDefinition(OWNER_PRINCIPAL_KEY, ScalarAttributeType.N))
+                .withKeySchema(new KeySchemaElement(RESTAURANT_ID_KEY, KeyType.HASH))
+                .withGlobalSecondaryIndexes(ownerPrincipalGSI);
+
+        try {
+            awsDynamoDBDAO.createTable(createTableRequest);
+        } catch (ResourceInUseException error) {
+            throw new RepositoryClientException(String.format("Table %s attempted to create already exists", RESTAURANT_TABLE_NAME));
+        } catch (AmazonClientException error) {
+            throw new RepositoryServerException(error);
+        }
+    }
+
+    public void deleteTable() 
+            throws RepositoryClientException, RepositoryServerException {
+        try {
+            awsDynamoDBDAO.deleteTable(new DeleteTableRequest().withTableName(RESTAURANT_TABLE_NAME));
+        } catch (ResourceNotFoundException error) {
+            throw new RepositoryClientException(String.format("Table %s attempted to delete does not exist", RESTAURANT_TABLE_NAME));
+        } catch (AmazonClientException error) {
+            throw new RepositoryServerException(error);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.unicorn.rest.repository.model;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The dish suggestion stands for all the menu items of the same name across the restaurants,
+ * while the restaurant suggestion stands for one restaurant, since the restaurants of the same name are different places.
+ */
+@EqualsAndHashCode
+@ToString
+@AllArgsConstructor
+public class AutocompleteSuggestion {
+
+    public static enum SuggestionType {
+        RESTAURANT, DISH
+    }
+
+    @Getter @Nonnull private final SuggestionType suggestionType;
+    @Getter @Nonnull private final String text;
+    /*
+     * NULL for the dish suggestion
+     */
+    @Getter @Nullable private final Long restaurantId;
+    /*
+     * The number of restaurants offering the dish, or the number of items on the menu of the restaurant
+     */
+    @Getter private final int popularity;
+}
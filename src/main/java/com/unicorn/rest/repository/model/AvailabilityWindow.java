@@ -0,0 +1,186 @@
+package com.unicorn.rest.repository.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.utils.TimeUtils;
+
+/**
+ * The weekly recurring window in the local time of the restaurant, e.g. breakfast from 07:00 to 11:00 on weekdays.
+ * The window ending at or before its start ends on the next day, e.g. late night from 22:00 to 02:00.
+ */
+@EqualsAndHashCode
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class AvailabilityWindow {
+
+    public static final int MAX_AVAILABILITY_WINDOWS = 8;
+    private static final String[] DAY_OF_WEEK_NAMES = {"mon", "tue", "wed", "thu", "fri", "sat", "sun"};
+
+    /*
+     * Unmodifiable, the distinct ISO days of week in ascending order, from 1 for Monday to 7 for Sunday
+     */
+    @Getter @Nonnull private final List<Integer> daysOfWeek;
+    /*
+     * The minute of day the window starts, within [0, MINUTES_PER_DAY)
+     */
+    @Getter private final int startMinute;
+    /*
+     * The minute of day the window ends exclusively, within (0, MINUTES_PER_DAY]
+     */
+    @Getter private final int endMinute;
+
+    public static AvailabilityWindowBuilder buildAvailabilityWindow() {
+        return new AvailabilityWindowBuilder();
+    }
+
+    /**
+     * @param dayOfWeekNames the days of week as mon, tue, wed, thu, fri, sat or sun @Nullable
+     * @param startTime HH:mm @Nullable
+     * @param endTime HH:mm, where 24:00 is the end of the day @Nullable
+     * @return @Nonnull
+     * @throws ValidationException if any day of week or time is missing or invalid
+     */
+    public static @Nonnull AvailabilityWindow validateAvailabilityWindow(@Nullable List<String> dayOfWeekNames, @Nullable String startTime,
+            @Nullable String endTime) throws ValidationException {
+        if (dayOfWeekNames == null || dayOfWeekNames.isEmpty()) {
+            throw new ValidationException("Invalid availability window. The days of week should not be empty");
+        }
+        List<Integer> daysOfWeek = new ArrayList<>(dayOfWeekNames.size());
+        for (String dayOfWeekName : dayOfWeekNames) {
+            int dayOfWeek = parseDayOfWeek(dayOfWeekName);
+            if (dayOfWeek < 0) {
+                throw new ValidationException(String.format("Invalid day of week: %s. The day of week should be one of mon, tue, wed, thu, fri, sat and sun",
+                        dayOfWeekName));
+            }
+            daysOfWeek.add(dayOfWeek);
+        }
+        int startMinute = parseMinuteOfDay(startTime);
+        int endMinute = parseMinuteOfDay(endTime);
+        if (startMinute < 0 || startMinute >= TimeUtils.MINUTES_PER_DAY || endMinute <= 0 || startMinute == endMinute) {
+            throw new ValidationException(String.format("Invalid availability window from %s to %s. The times should be distinct HH:mm from 00:00 to 24:00",
+                    startTime, endTime));
+        }
+        return buildAvailabilityWindow().daysOfWeek(daysOfWeek).startMinute(startMinute).endMinute(endMinute).build();
+    }
+
+    /**
+     * @param availabilityWindows @Nullable
+     * @return @Nonnull
+     * @throws ValidationException if there are too many windows
+     */
+    public static @Nonnull List<AvailabilityWindow> validateAvailabilityWindows(@Nullable List<AvailabilityWindow> availabilityWindows)
+            throws ValidationException {
+        if (availabilityWindows == null || availabilityWindows.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (availabilityWindows.size() > MAX_AVAILABILITY_WINDOWS) {
+            throw new ValidationException(String.format("Invalid availability. The number of availability windows should be no more than %s",
+                    MAX_AVAILABILITY_WINDOWS));
+        }
+        return availabilityWindows;
+    }
+
+    /**
+     * @return the days of week as mon, tue, wed, thu, fri, sat or sun @Nonnull
+     */
+    public @Nonnull List<String> getDayOfWeekNames() {
+        List<String> dayOfWeekNames = new ArrayList<>(daysOfWeek.size());
+        for (int dayOfWeek : daysOfWeek) {
+            dayOfWeekNames.add(DAY_OF_WEEK_NAMES[dayOfWeek - 1]);
+        }
+        return dayOfWeekNames;
+    }
+
+    /**
+     * @return HH:mm @Nonnull
+     */
+    public static @Nonnull String formatMinuteOfDay(int minuteOfDay) {
+        return String.format(Locale.ROOT, "%02d:%02d", minuteOfDay / 60, minuteOfDay % 60);
+    }
+
+    /**
+     * @return the minutes of week, from 0 at Monday 00:00, the window covers on the day of week, which may end past the end of the week
+     */
+    public int getStartMinuteOfWeek(int dayOfWeek) {
+        return (dayOfWeek - 1) * TimeUtils.MINUTES_PER_DAY + startMinute;
+    }
+
+    public int getEndMinuteOfWeek(int dayOfWeek) {
+        int endMinuteOfWeek = (dayOfWeek - 1) * TimeUtils.MINUTES_PER_DAY + endMinute;
+        return endMinute > startMinute ? endMinuteOfWeek : endMinuteOfWeek + TimeUtils.MINUTES_PER_DAY;
+    }
+
+    private static int parseDayOfWeek(@Nullable String dayOfWeekName) {
+        for (int i = 0; i < DAY_OF_WEEK_NAMES.length; i++) {
+            if (DAY_OF_WEEK_NAMES[i].equalsIgnoreCase(dayOfWeekName == null ? null : dayOfWeekName.trim())) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /*
+     * @return -1 if the time is not HH:mm within [00:00, 24:00]
+     */
+    private static int parseMinuteOfDay(@Nullable String time) {
+        if (time == null || !time.matches("\\d{2}:\\d{2}")) {
+            return -1;
+        }
+        int hour = Integer.parseInt(time.substring(0, 2));
+        int minute = Integer.parseInt(time.substring(3, 5));
+        if (minute >= 60 || hour * 60 + minute > TimeUtils.MINUTES_PER_DAY) {
+            return -1;
+        }
+        return hour * 60 + minute;
+    }
+
+    public static class AvailabilityWindowBuilder {
+        private List<Integer> daysOfWeek;
+        private Integer startMinute;
+        private Integer endMinute;
+
+        public AvailabilityWindowBuilder() {}
+
+        public AvailabilityWindowBuilder daysOfWeek(List<Integer> daysOfWeek) {
+            this.daysOfWeek = daysOfWeek;
+            return this;
+        }
+
+        public AvailabilityWindowBuilder startMinute(Integer startMinute) {
+            this.startMinute = startMinute;
+            return this;
+        }
+
+        public AvailabilityWindowBuilder endMinute(Integer endMinute) {
+            this.endMinute = endMinute;
+            return this;
+        }
+
+        public AvailabilityWindow build() {
+            if (daysOfWeek == null || daysOfWeek.isEmpty() || startMinute == null || endMinute == null
+                    || startMinute < 0 || startMinute >= TimeUtils.MINUTES_PER_DAY || endMinute <= 0 || endMinute > TimeUtils.MINUTES_PER_DAY
+                    || startMinute.equals(endMinute)) {
+                throw new IllegalArgumentException("Failed while attempting to build availability window due to missing or invalid required parameters");
+            }
+            TreeSet<Integer> sortedDaysOfWeek = new TreeSet<>(daysOfWeek);
+            if (sortedDaysOfWeek.first() < 1 || sortedDaysOfWeek.last() > DAY_OF_WEEK_NAMES.length) {
+                throw new IllegalArgumentException("Failed while attempting to build availability window due to invalid days of week");
+            }
+            return new AvailabilityWindow(Collections.unmodifiableList(new ArrayList<>(sortedDaysOfWeek)), startMinute, endMinute);
+        }
+    }
+}
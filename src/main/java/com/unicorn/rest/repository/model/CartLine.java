@@ -0,0 +1,24 @@
+package com.unicorn.rest.repository.model;
+
+import javax.annotation.Nonnull;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The line of the cart to quote, i.e. the quantity of the menu item with the options chosen at all the levels of its modifier groups
+ */
+@EqualsAndHashCode
+@ToString
+@AllArgsConstructor
+public class CartLine {
+
+    @Getter private final long itemId;
+    @Getter private final int quantity;
+    /*
+     * The IDs of the chosen options, kept primitive since the quote runs over them per request
+     */
+    @Getter @Nonnull private final long[] optionIds;
+}
@@ -0,0 +1,108 @@
+package com.unicorn.rest.repository.model;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.utils.Geohash;
+
+/**
+ * The point on the WGS84 ellipsoid, which is treated as a sphere of the mean earth radius for the distances
+ */
+@EqualsAndHashCode
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class GeoLocation {
+
+    public static final double EARTH_RADIUS_IN_METERS = 6371008.8;
+    public static final double MAX_LATITUDE = 90.0;
+    public static final double MAX_LONGITUDE = 180.0;
+
+    @Getter private final double latitude;
+    @Getter private final double longitude;
+
+    public static GeoLocationBuilder buildGeoLocation() {
+        return new GeoLocationBuilder();
+    }
+
+    /**
+     * @param latitude @Nullable
+     * @param longitude @Nullable
+     * @return the location, NULL if neither latitude nor longitude is provided
+     * @throws ValidationException if only one of latitude and longitude is provided, or either of them is out of range
+     */
+    public static @Nullable GeoLocation validateGeoLocation(@Nullable Double latitude, @Nullable Double longitude) throws ValidationException {
+        if (latitude == null && longitude == null) {
+            return null;
+        }
+        if (latitude == null || longitude == null || !isValidLatitude(latitude) || !isValidLongitude(longitude)) {
+            throw new ValidationException(String.format("Invalid location: latitude=%s, longitude=%s. The latitude should be within [-%s, %s] and the longitude within [-%s, %s]",
+                    latitude, longitude, MAX_LATITUDE, MAX_LATITUDE, MAX_LONGITUDE, MAX_LONGITUDE));
+        }
+        return new GeoLocation(latitude, longitude);
+    }
+
+    /**
+     * @return the geohash of the location at full resolution
+     */
+    public long getGeohash() {
+        return Geohash.encode(latitude, longitude);
+    }
+
+    /**
+     * @param other @Nonnull
+     * @return the great-circle distance by the haversine formula
+     */
+    public double distanceInMeters(@Nonnull GeoLocation other) {
+        return distanceInMeters(latitude, longitude, other.latitude, other.longitude);
+    }
+
+    /**
+     * The haversine formula stays accurate for the short distances, where the spherical law of cosines loses precision
+     */
+    public static double distanceInMeters(double fromLatitude, double fromLongitude, double toLatitude, double toLongitude) {
+        double sinHalfDeltaLatitude = Math.sin(Math.toRadians(toLatitude - fromLatitude) / 2);
+        double sinHalfDeltaLongitude = Math.sin(Math.toRadians(toLongitude - fromLongitude) / 2);
+        double haversine = sinHalfDeltaLatitude * sinHalfDeltaLatitude
+                + Math.cos(Math.toRadians(fromLatitude)) * Math.cos(Math.toRadians(toLatitude)) * sinHalfDeltaLongitude * sinHalfDeltaLongitude;
+        return 2 * EARTH_RADIUS_IN_METERS * Math.asin(Math.sqrt(Math.min(1.0, haversine)));
+    }
+
+    private static boolean isValidLatitude(double latitude) {
+        return latitude >= -MAX_LATITUDE && latitude <= MAX_LATITUDE;
+    }
+
+    private static boolean isValidLongitude(double longitude) {
+        return longitude >= -MAX_LONGITUDE && longitude <= MAX_LONGITUDE;
+    }
+
+    public static class GeoLocationBuilder {
+        private Double latitude;
+        private Double longitude;
+
+        public GeoLocationBuilder() {}
+
+        public GeoLocationBuilder latitude(Double latitude) {
+            this.latitude = latitude;
+            return this;
+        }
+
+        public GeoLocationBuilder longitude(Double longitude) {
+            this.longitude = longitude;
+            return this;
+        }
+
+        public GeoLocation build() {
+            if (latitude == null || longitude == null || !isValidLatitude(latitude) || !isValidLongitude(longitude)) {
+                throw new IllegalArgumentException("Failed while attempting to build location due to missing or invalid required parameters");
+            }
+            return new GeoLocation(latitude, longitude);
+        }
+    }
+}
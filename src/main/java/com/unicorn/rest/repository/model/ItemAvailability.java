@@ -0,0 +1,42 @@
+package com.unicorn.rest.repository.model;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The real-time status of the menu item set by the kitchen, which is layered over the immutable menu snapshot,
+ * e.g. the item 86'd for the rest of the day or the item with only a few portions left.
+ */
+@EqualsAndHashCode
+@ToString
+@AllArgsConstructor
+public class ItemAvailability {
+
+    public static final long MAX_STOCK = 1000000L;
+
+    @Getter @Nonnull private final Long restaurantId;
+    @Getter @Nonnull private final Long itemId;
+    @Getter private final boolean soldOut;
+    /*
+     * The portions left, NULL if the stock of the item is not tracked
+     */
+    @Getter @Nullable private final Long stock;
+    /*
+     * The time of the update on the clock of the server making it, which only places the update into the change feed
+     */
+    @Getter private final long updatedInEpoch;
+    /*
+     * Counted up by the table on every update of the item, so the later update replaces the earlier one of the same item
+     * no matter which server made it and in which order they arrive at the server
+     */
+    @Getter private final long version;
+
+    public boolean isAvailable() {
+        return !soldOut && (stock == null || stock > 0);
+    }
+}
@@ -0,0 +1,79 @@
+package com.unicorn.rest.repository.model;
+
+import java.util.Locale;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import com.unicorn.rest.repository.exception.ValidationException;
+
+/**
+ * The view or order of the menu item reported by the client, which counts towards the popularity of the item
+ */
+@EqualsAndHashCode
+@ToString
+@AllArgsConstructor
+public class ItemEvent {
+
+    public static final int MAX_ITEM_EVENTS = 100;
+
+    /*
+     * The order counts as much as several views, since most views do not end up in an order
+     */
+    public static enum ItemEventType {
+        VIEW(1.0), ORDER(5.0);
+
+        @Getter private final double weight;
+
+        private ItemEventType(double weight) {
+            this.weight = weight;
+        }
+    }
+
+    @Getter private final long itemId;
+    @Getter @Nonnull private final ItemEventType eventType;
+    /*
+     * The portions ordered, always 1 for the view
+     */
+    @Getter private final int quantity;
+
+    /**
+     * @return the weight the event adds to the popularity of the item
+     */
+    public double getWeight() {
+        return eventType.getWeight() * quantity;
+    }
+
+    /**
+     * @param itemId @Nullable
+     * @param eventType view or order @Nullable
+     * @param quantity the portions ordered, 1 if not provided @Nullable
+     * @return @Nonnull
+     * @throws ValidationException if the item_id or event type is missing or invalid, or the quantity is out of range
+     */
+    public static @Nonnull ItemEvent validateItemEvent(@Nullable Long itemId, @Nullable String eventType, @Nullable Integer quantity)
+            throws ValidationException {
+        if (itemId == null) {
+            throw new ValidationException("Expecting non-null item_id, but received: item_id=null");
+        }
+        ItemEventType validatedEventType = null;
+        for (ItemEventType itemEventType : ItemEventType.values()) {
+            if (eventType != null && itemEventType.name().equals(eventType.trim().toUpperCase(Locale.ROOT))) {
+                validatedEventType = itemEventType;
+            }
+        }
+        if (validatedEventType == null) {
+            throw new ValidationException(String.format("Invalid item event type: %s. The event type should be either view or order", eventType));
+        }
+        if (quantity != null && (quantity < 1 || quantity > MenuPricing.MAX_QUANTITY || (validatedEventType == ItemEventType.VIEW && quantity != 1))) {
+            throw new ValidationException(String.format("Invalid quantity: %s. The quantity should be 1 for the view, and at least 1 and no more than %s for the order",
+                    quantity, MenuPricing.MAX_QUANTITY));
+        }
+        return new ItemEvent(itemId, validatedEventType, quantity == null ? 1 : quantity);
+    }
+}
@@ -0,0 +1,179 @@
+package com.unicorn.rest.repository.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import com.unicorn.rest.repository.exception.ValidationException;
+
+/**
+ * The modifier tree of one menu item flattened into parallel arrays in depth-first order, so that pricing the chosen options
+ * is a binary search per option and one pass over the groups, with neither recursion nor allocation.
+ */
+class ItemPricePlan {
+
+    private static final int OBJECT_HEADER_BYTES = 16;
+    private static final int REFERENCE_BYTES = 4;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int NUM_OF_ARRAYS = 9;
+
+    private final long itemId;
+    private final long price;
+    /*
+     * Indexed by option
+     */
+    private final long[] optionPriceDeltas;
+    private final int[] optionGroups;
+    /*
+     * The option IDs in ascending order, and the option of each
+     */
+    private final long[] sortedOptionIds;
+    private final int[] sortedOptions;
+    /*
+     * Indexed by group, where the parent option is -1 for the groups of the item itself
+     */
+    private final long[] groupIds;
+    private final int[] groupParentOptions;
+    private final int[] groupMinSelections;
+    private final int[] groupMaxSelections;
+
+    private ItemPricePlan(@Nonnull MenuItem item) {
+        this.itemId = item.getItemId();
+        this.price = item.getPrice();
+        List<ModifierOption> options = new ArrayList<>();
+        List<Integer> optionGroupList = new ArrayList<>();
+        List<ModifierGroup> groups = new ArrayList<>();
+        List<Integer> groupParentOptionList = new ArrayList<>();
+        flatten(item.getModifierGroups(), -1, options, optionGroupList, groups, groupParentOptionList);
+
+        int numOfOptions = options.size();
+        this.optionPriceDeltas = new long[numOfOptions];
+        this.optionGroups = new int[numOfOptions];
+        this.sortedOptionIds = new long[numOfOptions];
+        this.sortedOptions = new int[numOfOptions];
+        long[] optionIdsWithOptions = new long[numOfOptions];
+        for (int option = 0; option < numOfOptions; option++) {
+            optionPriceDeltas[option] = options.get(option).getPriceDelta();
+            optionGroups[option] = optionGroupList.get(option);
+            optionIdsWithOptions[option] = options.get(option).getOptionId();
+        }
+        Integer[] optionsByOptionId = new Integer[numOfOptions];
+        for (int option = 0; option < numOfOptions; option++) {
+            optionsByOptionId[option] = option;
+        }
+        Arrays.sort(optionsByOptionId, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer option, Integer otherOption) {
+                return Long.compare(optionIdsWithOptions[option], optionIdsWithOptions[otherOption]);
+            }
+        });
+        for (int position = 0; position < numOfOptions; position++) {
+            sortedOptions[position] = optionsByOptionId[position];
+            sortedOptionIds[position] = optionIdsWithOptions[optionsByOptionId[position]];
+        }
+
+        int numOfGroups = groups.size();
+        this.groupIds = new long[numOfGroups];
+        this.groupParentOptions = new int[numOfGroups];
+        this.groupMinSelections = new int[numOfGroups];
+        this.groupMaxSelections = new int[numOfGroups];
+        for (int group = 0; group < numOfGroups; group++) {
+            groupIds[group] = groups.get(group).getGroupId();
+            groupParentOptions[group] = groupParentOptionList.get(group);
+            groupMinSelections[group] = groups.get(group).getMinSelections();
+            groupMaxSelections[group] = groups.get(group).getMaxSelections();
+        }
+    }
+
+    /**
+     * @param item @Nonnull
+     * @return @Nonnull
+     */
+    public static @Nonnull ItemPricePlan compile(@Nonnull MenuItem item) {
+        return new ItemPricePlan(item);
+    }
+
+    public long getItemId() {
+        return itemId;
+    }
+
+    public int getNumOfOptions() {
+        return optionPriceDeltas.length;
+    }
+
+    public int getNumOfGroups() {
+        return groupIds.length;
+    }
+
+    /**
+     * @return the estimated bytes retained by the plan, i.e. the two longs and the arrays
+     */
+    public long getFootprintInBytes() {
+        return OBJECT_HEADER_BYTES + 2 * 8 + NUM_OF_ARRAYS * (REFERENCE_BYTES + ARRAY_HEADER_BYTES)
+                + getNumOfOptions() * (8 + 4 + 8 + 4) + getNumOfGroups() * (8 + 4 + 4 + 4);
+    }
+
+    /**
+     * The unit price is the item price plus the price deltas of the chosen options, which never goes below zero.
+     * The options of a group are chosen only along with the option the group belongs to, and then the number chosen
+     * has to be within the selections of the group, while the group of the option not chosen is skipped.
+     *
+     * @param optionIds the chosen option IDs @Nonnull
+     * @param chosenOptions the scratch of at least getNumOfOptions() entries, which is overwritten @Nonnull
+     * @param groupCounts the scratch of at least getNumOfGroups() entries, which is overwritten @Nonnull
+     * @return the unit price in minor units
+     * @throws ValidationException if any option is unknown or chosen twice, or the choices do not fit the groups
+     */
+    public long getUnitPrice(@Nonnull long[] optionIds, @Nonnull boolean[] chosenOptions, @Nonnull int[] groupCounts)
+            throws ValidationException {
+        Arrays.fill(chosenOptions, 0, getNumOfOptions(), false);
+        Arrays.fill(groupCounts, 0, getNumOfGroups(), 0);
+        long unitPrice = price;
+        for (long optionId : optionIds) {
+            int position = Arrays.binarySearch(sortedOptionIds, optionId);
+            if (position < 0) {
+                throw new ValidationException(String.format("Invalid option_id %s. The option is not on the menu item %s", optionId, itemId));
+            }
+            int option = sortedOptions[position];
+            if (chosenOptions[option]) {
+                throw new ValidationException(String.format("Invalid option_id %s. The option is chosen more than once", optionId));
+            }
+            chosenOptions[option] = true;
+            groupCounts[optionGroups[option]]++;
+            unitPrice += optionPriceDeltas[option];
+        }
+        for (int group = 0; group < groupIds.length; group++) {
+            int parentOption = groupParentOptions[group];
+            if (parentOption >= 0 && !chosenOptions[parentOption]) {
+                if (groupCounts[group] > 0) {
+                    throw new ValidationException(String.format("Invalid options of the modifier group %s. The options are chosen without the option they belong to",
+                            groupIds[group]));
+                }
+                continue;
+            }
+            if (groupCounts[group] < groupMinSelections[group] || groupCounts[group] > groupMaxSelections[group]) {
+                throw new ValidationException(String.format("Invalid options of the modifier group %s. The number of options chosen should be from %s to %s, but received: %s",
+                        groupIds[group], groupMinSelections[group], groupMaxSelections[group], groupCounts[group]));
+            }
+        }
+        return Math.max(unitPrice, 0L);
+    }
+
+    private static void flatten(@Nonnull List<ModifierGroup> modifierGroups, int parentOption, @Nonnull List<ModifierOption> options,
+            @Nonnull List<Integer> optionGroups, @Nonnull List<ModifierGroup> groups, @Nonnull List<Integer> groupParentOptions) {
+        for (ModifierGroup modifierGroup : modifierGroups) {
+            int group = groups.size();
+            groups.add(modifierGroup);
+            groupParentOptions.add(parentOption);
+            for (ModifierOption modifierOption : modifierGroup.getOptions()) {
+                int option = options.size();
+                options.add(modifierOption);
+                optionGroups.add(group);
+                flatten(modifierOption.getModifierGroups(), option, options, optionGroups, groups, groupParentOptions);
+            }
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.unicorn.rest.repository.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import org.joda.time.DateTimeZone;
+
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.utils.TimeUtils;
+
+/**
+ * The immutable version of the restaurant menu. Every publish creates a new version with the version number increased by one,
+ * the menu is never modified in place.
+ */
+@EqualsAndHashCode
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class Menu {
+
+    public static final int MAX_MENU_ITEMS = 2000;
+
+    @Getter @Nonnull private final Long restaurantId;
+    @Getter @Nonnull private final Long version;
+    /*
+     * Unmodifiable, in the order published by the owner
+     */
+    @Getter @Nonnull private final List<MenuItem> items;
+    /*
+     * The time zone ID of the restaurant, in whose local time the availability windows of the menu and its items are
+     */
+    @Getter @Nonnull private final String timeZone;
+    /*
+     * Unmodifiable, empty if the menu is available all the time
+     */
+    @Getter @Nonnull private final List<AvailabilityWindow> availability;
+    /*
+     * The locale the texts of the menu are published in, NULL if it is not declared
+     */
+    @Getter @Nullable private final String language;
+    /*
+     * Unmodifiable, the string tables of the menu by locale, empty if the menu is not translated
+     */
+    @Getter @Nonnull private final Map<String, MenuTranslation> translations;
+
+    public static MenuBuilder buildMenu() {
+        return new MenuBuilder();
+    }
+
+    /**
+     * @param items @Nullable
+     * @return @Nonnull
+     * @throws ValidationException if there are too many items, any item_id is duplicated or any modifier groups are invalid
+     */
+    public static @Nonnull List<MenuItem> validateMenuItems(@Nullable List<MenuItem> items) throws ValidationException {
+        if (items == null) {
+            return Collections.emptyList();
+        }
+        if (items.size() > MAX_MENU_ITEMS) {
+            throw new ValidationException(String.format("Invalid menu. The number of items should be no more than %s", MAX_MENU_ITEMS));
+        }
+        Set<Long> itemIds = new HashSet<>();
+        for (MenuItem item : items) {
+            if (item == null || !itemIds.add(item.getItemId())) {
+                throw new ValidationException(String.format("Invalid menu. The item %s is null or its item_id is duplicated", item));
+            }
+            ModifierGroup.validateModifierGroups(item.getModifierGroups());
+        }
+        return items;
+    }
+
+    /**
+     * @param timeZone the time zone ID, e.g. America/Los_Angeles @Nullable
+     * @return the time zone ID, UTC if it is not provided @Nonnull
+     * @throws ValidationException if the time zone ID is unknown
+     */
+    public static @Nonnull String validateTimeZone(@Nullable String timeZone) throws ValidationException {
+        if (timeZone == null || timeZone.trim().isEmpty()) {
+            return TimeUtils.UTC_TIME_ZONE.getID();
+        }
+        try {
+            return DateTimeZone.forID(timeZone.trim()).getID();
+        } catch (IllegalArgumentException error) {
+            throw new ValidationException(String.format("Invalid time zone: %s. The time zone should be an ID like America/Los_Angeles", timeZone));
+        }
+    }
+
+    /**
+     * The texts no longer on the menu are dropped from the translations, so that the string tables do not outgrow the menu
+     * when the items are renamed or removed.
+     *
+     * @param translations @Nullable
+     * @param language the validated locale the menu is published in @Nullable
+     * @param items the validated items @Nonnull
+     * @return @Nonnull
+     * @throws ValidationException if there are too many locales or any locale is duplicated or the language published
+     */
+    public static @Nonnull List<MenuTranslation> validateTranslations(@Nullable List<MenuTranslation> translations, @Nullable String language,
+            @Nonnull List<MenuItem> items)
+            throws ValidationException {
+        if (translations == null || translations.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (translations.size() > MenuTranslation.MAX_MENU_LOCALES) {
+            throw new ValidationException(String.format("Invalid menu. The number of locales should be no more than %s", MenuTranslation.MAX_MENU_LOCALES));
+        }
+        Set<String> menuTexts = new HashSet<>();
+        for (MenuItem item : items) {
+            menuTexts.add(item.getItemName());
+            if (item.getItemDescription() != null) {
+                menuTexts.add(item.getItemDescription());
+            }
+            addModifierTexts(menuTexts, item.getModifierGroups());
+        }
+        Set<String> locales = new HashSet<>();
+        if (language != null) {
+            locales.add(language);
+        }
+        List<MenuTranslation> validatedTranslations = new ArrayList<>(translations.size());
+        for (MenuTranslation translation : translations) {
+            if (translation == null || !locales.add(translation.getLocale())) {
+                throw new ValidationException(String.format("Invalid menu. The translation %s is null or its locale is duplicated or the language published",
+                        translation));
+            }
+            Map<String, String> menuTranslatedTexts = new LinkedHashMap<>();
+            for (Map.Entry<String, String> text : translation.getTexts().entrySet()) {
+                if (menuTexts.contains(text.getKey())) {
+                    menuTranslatedTexts.put(text.getKey(), text.getValue());
+                }
+            }
+            validatedTranslations.add(menuTranslatedTexts.size() == translation.getTexts().size() ? translation
+                    : new MenuTranslation(translation.getLocale(), menuTranslatedTexts));
+        }
+        return validatedTranslations;
+    }
+
+    /**
+     * @param locale @Nullable
+     * @return NULL if the menu is not translated into the locale
+     */
+    public @Nullable MenuTranslation getTranslation(@Nullable String locale) {
+        return locale == null ? null : translations.get(locale);
+    }
+
+    /**
+     * @return the time zone of the availability windows @Nonnull
+     */
+    public @Nonnull DateTimeZone getDateTimeZone() {
+        return DateTimeZone.forID(timeZone);
+    }
+
+    /**
+     * @return true if neither the menu nor any item has availability windows
+     */
+    public boolean isAlwaysAvailable() {
+        if (!availability.isEmpty()) {
+            return false;
+        }
+        for (MenuItem item : items) {
+            if (!item.getAvailability().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void addModifierTexts(@Nonnull Set<String> menuTexts, @Nonnull List<ModifierGroup> modifierGroups) {
+        for (ModifierGroup modifierGroup : modifierGroups) {
+            menuTexts.add(modifierGroup.getGroupName());
+            for (ModifierOption modifierOption : modifierGroup.getOptions()) {
+                menuTexts.add(modifierOption.getOptionName());
+                addModifierTexts(menuTexts, modifierOption.getModifierGroups());
+            }
+        }
+    }
+
+    public static class MenuBuilder {
+        private Long restaurantId;
+        private Long version;
+        private List<MenuItem> items;
+        private String timeZone;
+        private List<AvailabilityWindow> availability;
+        private String language;
+        private List<MenuTranslation> translations;
+
+        public MenuBuilder() {}
+
+        public MenuBuilder restaurantId(Long restaurantId) {
+            this.restaurantId = restaurantId;
+            return this;
+        }
+
+        public MenuBuilder version(Long version) {
+            this.version = version;
+            return this;
+        }
+
+        public MenuBuilder items(List<MenuItem> items) {
+            this.items = items;
+            return this;
+        }
+
+        public MenuBuilder timeZone(String timeZone) {
+            this.timeZone = timeZone;
+            return this;
+        }
+
+        public MenuBuilder availability(List<AvailabilityWindow> availability) {
+            this.availability = availability;
+            return this;
+        }
+
+        public MenuBuilder language(String language) {
+            this.language = language;
+            return this;
+        }
+
+        public MenuBuilder translations(List<MenuTranslation> translations) {
+            this.translations = translations;
+            return this;
+        }
+
+        public Menu build() {
+            if (restaurantId == null || version == null || items == null) {
+                throw new IllegalArgumentException("Failed while attempting to build menu due to missing required parameters");
+            }
+            List<AvailabilityWindow> immutableAvailability = availability == null || availability.isEmpty() ?
+                    Collections.<AvailabilityWindow>emptyList() : Collections.unmodifiableList(new ArrayList<>(availability));
+            Map<String, MenuTranslation> translationsByLocale = new LinkedHashMap<>();
+            if (translations != null) {
+                for (MenuTranslation translation : translations) {
+                    translationsByLocale.put(translation.getLocale(), translation);
+                }
+            }
+            return new Menu(restaurantId, version, Collections.unmodifiableList(new ArrayList<>(items)),
+                    timeZone == null ? TimeUtils.UTC_TIME_ZONE.getID() : timeZone, immutableAvailability, language,
+                    translationsByLocale.isEmpty() ? Collections.<String, MenuTranslation>emptyMap() : Collections.unmodifiableMap(translationsByLocale));
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.unicorn.rest.repository.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The change log of a menu compacted by item: only the version in which each current item was last added or changed,
+ * and the version in which each removed item was removed. The delta since any version covered by the log is a single pass
+ * over the items, no matter how many versions have been published in between.
+ *
+ * The log is built along with the menu snapshot and is immutable as well.
+ */
+@ToString(of = {"oldestVersion"})
+public class MenuChangeLog {
+
+    /*
+     * The removed items beyond this are compacted away, and the versions before them can only be synced with the full menu
+     */
+    public static final int MAX_REMOVED_ITEMS = Menu.MAX_MENU_ITEMS;
+
+    /*
+     * The delta can be computed since any version from the oldest version to the current version
+     */
+    @Getter private final long oldestVersion;
+    /*
+     * The version in which the item at the same index of the menu was last added or changed
+     */
+    private final long[] itemVersions;
+    /*
+     * The removed items in ascending order of the version removed
+     */
+    private final long[] removedItemIds;
+    private final long[] removedVersions;
+
+    private MenuChangeLog(long oldestVersion, @Nonnull long[] itemVersions, @Nonnull long[] removedItemIds, @Nonnull long[] removedVersions) {
+        this.oldestVersion = oldestVersion;
+        this.itemVersions = itemVersions;
+        this.removedItemIds = removedItemIds;
+        this.removedVersions = removedVersions;
+    }
+
+    /**
+     * The log of a menu without its previous version known, e.g. loaded from the MENU table, which covers only the menu version itself
+     */
+    public static @Nonnull MenuChangeLog startAt(@Nonnull Menu menu) {
+        long[] itemVersions = new long[menu.getItems().size()];
+        Arrays.fill(itemVersions, menu.getVersion());
+        return new MenuChangeLog(menu.getVersion(), itemVersions, new long[0], new long[0]);
+    }
+
+    /**
+     * Extend the log of the previous version with the changes of the menu, which has to be the very next version,
+     * otherwise the versions skipped are unknown and the log starts over at the menu.
+     * The log also starts over if the time zone or the availability of the menu changes, since the delta only has the items.
+     *
+     * @param previousMenu @Nullable
+     * @param previousChangeLog @Nullable
+     * @param menu @Nonnull
+     * @return @Nonnull
+     */
+    public static @Nonnull MenuChangeLog next(@Nullable Menu previousMenu, @Nullable MenuChangeLog previousChangeLog, @Nonnull Menu menu) {
+        if (previousMenu == null || previousChangeLog == null || menu.getVersion() != previousMenu.getVersion() + 1
+                || !previousMenu.getTimeZone().equals(menu.getTimeZone()) || !previousMenu.getAvailability().equals(menu.getAvailability())) {
+            return startAt(menu);
+        }
+        long version = menu.getVersion();
+        List<MenuItem> previousItems = previousMenu.getItems();
+        Map<Long, Integer> previousIndexes = new HashMap<>(previousItems.size() * 2);
+        for (int i = 0; i < previousItems.size(); i++) {
+            previousIndexes.put(previousItems.get(i).getItemId(), i);
+        }
+
+        List<MenuItem> items = menu.getItems();
+        long[] itemVersions = new long[items.size()];
+        Set<Long> itemIds = new HashSet<>(items.size() * 2);
+        for (int i = 0; i < items.size(); i++) {
+            MenuItem item = items.get(i);
+            itemIds.add(item.getItemId());
+            Integer previousIndex = previousIndexes.get(item.getItemId());
+            boolean unchanged = previousIndex != null && previousItems.get(previousIndex).equals(item);
+            itemVersions[i] = unchanged ? previousChangeLog.itemVersions[previousIndex] : version;
+        }
+
+        /*
+         * The removed item added back is in the menu again, and is no longer removed
+         */
+        int capacity = previousChangeLog.removedItemIds.length + previousItems.size();
+        long[] removedItemIds = new long[capacity];
+        long[] removedVersions = new long[capacity];
+        int numOfRemovedItems = 0;
+        for (int i = 0; i < previousChangeLog.removedItemIds.length; i++) {
+            if (!itemIds.contains(previousChangeLog.removedItemIds[i])) {
+                removedItemIds[numOfRemovedItems] = previousChangeLog.removedItemIds[i];
+                removedVersions[numOfRemovedItems++] = previousChangeLog.removedVersions[i];
+            }
+        }
+        for (MenuItem previousItem : previousItems) {
+            if (!itemIds.contains(previousItem.getItemId())) {
+                removedItemIds[numOfRemovedItems] = previousItem.getItemId();
+                removedVersions[numOfRemovedItems++] = version;
+            }
+        }
+
+        /*
+         * Compact the oldest removed items, after which the versions before they were removed can no longer get the delta
+         */
+        long oldestVersion = previousChangeLog.oldestVersion;
+        int numOfCompacted = Math.max(0, numOfRemovedItems - MAX_REMOVED_ITEMS);
+        if (numOfCompacted > 0) {
+            oldestVersion = Math.max(oldestVersion, removedVersions[numOfCompacted - 1]);
+        }
+        return new MenuChangeLog(oldestVersion, itemVersions, Arrays.copyOfRange(removedItemIds, numOfCompacted, numOfRemovedItems),
+                Arrays.copyOfRange(removedVersions, numOfCompacted, numOfRemovedItems));
+    }
+
+    /**
+     * @param menu the menu this log is built with @Nonnull
+     * @param sinceVersion the version the client has
+     * @return NULL if the since version is not covered by the log
+     */
+    public @Nullable MenuDelta getDelta(@Nonnull Menu menu, long sinceVersion) {
+        if (sinceVersion < oldestVersion || sinceVersion > menu.getVersion()) {
+            return null;
+        }
+        List<MenuItem> items = menu.getItems();
+        List<MenuItem> changedItems = new ArrayList<>();
+        for (int i = 0; i < itemVersions.length; i++) {
+            if (itemVersions[i] > sinceVersion) {
+                changedItems.add(items.get(i));
+            }
+        }
+        int firstRemoved = removedVersions.length;
+        while (firstRemoved > 0 && removedVersions[firstRemoved - 1] > sinceVersion) {
+            firstRemoved--;
+        }
+        List<Long> removedItemIds = new ArrayList<>(removedVersions.length - firstRemoved);
+        for (int i = firstRemoved; i < removedVersions.length; i++) {
+            removedItemIds.add(this.removedItemIds[i]);
+        }
+        return new MenuDelta(menu.getRestaurantId(), sinceVersion, menu.getVersion(),
+                Collections.unmodifiableList(changedItems), Collections.unmodifiableList(removedItemIds));
+    }
+
+    /**
+     * @return the bytes retained by the version arrays
+     */
+    public long getFootprintInBytes() {
+        return 8L * (itemVersions.length + removedItemIds.length + removedVersions.length);
+    }
+}
@@ -0,0 +1,33 @@
+package com.unicorn.rest.repository.model;
+
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The changes of a menu from the since version to the current version.
+ * Applying the added or changed items and then dropping the removed items to the menu of the since version gives the current menu.
+ */
+@EqualsAndHashCode
+@ToString
+@AllArgsConstructor
+public class MenuDelta {
+
+    @Getter @Nonnull private final Long restaurantId;
+    @Getter private final long sinceVersion;
+    @Getter private final long version;
+    /*
+     * The items added or changed since the since version, in the order of the current menu
+     */
+    @Getter @Nonnull private final List<MenuItem> items;
+    @Getter @Nonnull private final List<Long> removedItemIds;
+
+    public int getNumOfChanges() {
+        return items.size() + removedItemIds.size();
+    }
+}
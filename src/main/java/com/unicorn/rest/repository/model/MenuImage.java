@@ -0,0 +1,177 @@
+package com.unicorn.rest.repository.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import com.unicorn.rest.repository.exception.ValidationException;
+
+/**
+ * The metadata of the photo of the menu item. The image itself is rendered and stored elsewhere under its content hash,
+ * and only its content type and the dimensions of the original are kept with the menu.
+ *
+ * The responsive variants, i.e. the widths the image is served in along with their heights and URLs, are derived from the metadata
+ * when the image is built, so that they are computed once per menu version and rendered into the snapshot rather than per request.
+ */
+@EqualsAndHashCode(of = {"contentHash", "contentType", "width", "height"})
+@ToString(of = {"contentHash", "contentType", "width", "height"})
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class MenuImage {
+
+    public static final int MAX_ITEM_IMAGES = 4;
+    public static final int MAX_IMAGE_DIMENSION = 8192;
+    public static final int MIN_CONTENT_HASH_LENGTH = 32;
+    public static final int MAX_CONTENT_HASH_LENGTH = 64;
+    /*
+     * The widths the images are served in, in ascending order, beyond which the images are never upscaled
+     */
+    public static final int[] VARIANT_WIDTHS = {160, 320, 640, 1280};
+    /*
+     * The path of the variant relative to the image host, by content hash, width and file extension
+     */
+    public static final String URL_TEMPLATE = "/images/%s/%sw.%s";
+    public static final String WIDTH_PLACEHOLDER = "{width}";
+
+    private static final String[] CONTENT_TYPES = {"image/jpeg", "image/png", "image/webp"};
+    private static final String[] FILE_EXTENSIONS = {"jpg", "png", "webp"};
+
+    /*
+     * The lower case hex digest of the original image
+     */
+    @Getter @Nonnull private final String contentHash;
+    @Getter @Nonnull private final String contentType;
+    /*
+     * The dimensions of the original image in pixels
+     */
+    @Getter private final int width;
+    @Getter private final int height;
+    /*
+     * The URL of the variant with WIDTH_PLACEHOLDER in place of the width
+     */
+    @Getter @Nonnull private final String urlTemplate;
+    /*
+     * Unmodifiable, in ascending order of width, the last of which is the original size
+     */
+    @Getter @Nonnull private final List<ImageVariant> variants;
+
+    public static MenuImageBuilder buildMenuImage() {
+        return new MenuImageBuilder();
+    }
+
+    /**
+     * @param contentHash the hex digest of the original image @Nullable
+     * @param contentType image/jpeg, image/png or image/webp @Nullable
+     * @param width in pixels @Nullable
+     * @param height in pixels @Nullable
+     * @return @Nonnull
+     * @throws ValidationException if any of the metadata is missing or invalid
+     */
+    public static @Nonnull MenuImage validateMenuImage(@Nullable String contentHash, @Nullable String contentType, @Nullable Integer width,
+            @Nullable Integer height) throws ValidationException {
+        String trimmedContentHash = contentHash == null ? "" : contentHash.trim().toLowerCase(Locale.ROOT);
+        if (trimmedContentHash.length() < MIN_CONTENT_HASH_LENGTH || trimmedContentHash.length() > MAX_CONTENT_HASH_LENGTH
+                || !trimmedContentHash.matches("[0-9a-f]+")) {
+            throw new ValidationException(String.format("Invalid image content hash: %s. The content hash should be %s to %s hex digits",
+                    contentHash, MIN_CONTENT_HASH_LENGTH, MAX_CONTENT_HASH_LENGTH));
+        }
+        String trimmedContentType = contentType == null ? "" : contentType.trim().toLowerCase(Locale.ROOT);
+        if (indexOfContentType(trimmedContentType) < 0) {
+            throw new ValidationException(String.format("Invalid image content type: %s. The content type should be one of image/jpeg, image/png and image/webp",
+                    contentType));
+        }
+        if (width == null || height == null || width <= 0 || height <= 0 || width > MAX_IMAGE_DIMENSION || height > MAX_IMAGE_DIMENSION) {
+            throw new ValidationException(String.format("Invalid image dimensions: %sx%s. The width and height should be between 1 and %s",
+                    width, height, MAX_IMAGE_DIMENSION));
+        }
+        return buildMenuImage().contentHash(trimmedContentHash).contentType(trimmedContentType).width(width).height(height).build();
+    }
+
+    private static int indexOfContentType(@Nullable String contentType) {
+        for (int i = 0; i < CONTENT_TYPES.length; i++) {
+            if (CONTENT_TYPES[i].equals(contentType)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /*
+     * The variants of the standard widths narrower than the original, followed by the original itself,
+     * with the heights scaled to keep the aspect ratio
+     */
+    private static @Nonnull List<ImageVariant> buildVariants(@Nonnull String contentHash, @Nonnull String fileExtension, int width, int height) {
+        List<ImageVariant> variants = new ArrayList<>(VARIANT_WIDTHS.length + 1);
+        for (int variantWidth : VARIANT_WIDTHS) {
+            if (variantWidth >= width) {
+                break;
+            }
+            int variantHeight = (int) Math.max(1L, Math.round((double) height * variantWidth / width));
+            variants.add(new ImageVariant(variantWidth, variantHeight, String.format(URL_TEMPLATE, contentHash, variantWidth, fileExtension)));
+        }
+        variants.add(new ImageVariant(width, height, String.format(URL_TEMPLATE, contentHash, width, fileExtension)));
+        return Collections.unmodifiableList(variants);
+    }
+
+    /**
+     * The image of the width the client requests, all of which are precomputed along with the image
+     */
+    @EqualsAndHashCode
+    @ToString
+    @AllArgsConstructor
+    public static class ImageVariant {
+        @Getter private final int width;
+        @Getter private final int height;
+        @Getter @Nonnull private final String url;
+    }
+
+    public static class MenuImageBuilder {
+        private String contentHash;
+        private String contentType;
+        private Integer width;
+        private Integer height;
+
+        public MenuImageBuilder() {}
+
+        public MenuImageBuilder contentHash(String contentHash) {
+            this.contentHash = contentHash;
+            return this;
+        }
+
+        public MenuImageBuilder contentType(String contentType) {
+            this.contentType = contentType;
+            return this;
+        }
+
+        public MenuImageBuilder width(Integer width) {
+            this.width = width;
+            return this;
+        }
+
+        public MenuImageBuilder height(Integer height) {
+            this.height = height;
+            return this;
+        }
+
+        public MenuImage build() {
+            int contentTypeIndex = indexOfContentType(contentType);
+            if (contentHash == null || contentHash.isEmpty() || contentTypeIndex < 0 || width == null || height == null
+                    || width <= 0 || height <= 0 || width > MAX_IMAGE_DIMENSION || height > MAX_IMAGE_DIMENSION) {
+                throw new IllegalArgumentException("Failed while attempting to build menu image due to missing or invalid required parameters");
+            }
+            String fileExtension = FILE_EXTENSIONS[contentTypeIndex];
+            return new MenuImage(contentHash, CONTENT_TYPES[contentTypeIndex], width, height,
+                    String.format(URL_TEMPLATE, contentHash, WIDTH_PLACEHOLDER, fileExtension),
+                    buildVariants(contentHash, fileExtension, width, height));
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.unicorn.rest.repository.model;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+@EqualsAndHashCode
+@ToString
+@AllArgsConstructor
+public class MenuImportError {
+
+    /*
+     * NULL if the error is not of any particular row, e.g. the upload is malformed
+     */
+    @Getter @Nullable private final Long rowNumber;
+    @Getter @Nullable private final Long restaurantId;
+    @Getter @Nonnull private final String message;
+}
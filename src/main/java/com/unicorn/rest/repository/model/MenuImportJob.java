@@ -0,0 +1,148 @@
+package com.unicorn.rest.repository.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import com.unicorn.rest.utils.TimeUtils;
+
+/**
+ * The progress of one bulk menu import, which is updated by the thread reading the upload and by the workers publishing the menus.
+ * The counters are read without lock, while the status and the errors are guarded by the lock of the job.
+ */
+@ToString(of = {"jobId", "ownerPrincipal", "status"})
+public class MenuImportJob {
+
+    /*
+     * Only the first errors are kept, the rest are counted
+     */
+    public static final int MAX_IMPORT_ERRORS = 100;
+
+    public enum ImportStatus {
+        PARSING, PUBLISHING, COMPLETED, COMPLETED_WITH_ERRORS
+    }
+
+    @Getter @Nonnull private final Long jobId;
+    @Getter @Nonnull private final Long ownerPrincipal;
+    @Getter private final long createdInEpoch;
+
+    private final AtomicLong numOfRows = new AtomicLong();
+    private final AtomicInteger numOfRestaurants = new AtomicInteger();
+    private final AtomicInteger numOfPublishedRestaurants = new AtomicInteger();
+    private final AtomicInteger numOfFailedRestaurants = new AtomicInteger();
+    private final AtomicLong numOfPublishedItems = new AtomicLong();
+
+    private ImportStatus status = ImportStatus.PARSING;
+    private Long completedInEpoch = null;
+    private int numOfPendingRestaurants = 0;
+    private final List<MenuImportError> errors = new ArrayList<>();
+    private int numOfErrors = 0;
+
+    public MenuImportJob(@Nonnull Long jobId, @Nonnull Long ownerPrincipal, long createdInEpoch) {
+        this.jobId = jobId;
+        this.ownerPrincipal = ownerPrincipal;
+        this.createdInEpoch = createdInEpoch;
+    }
+
+    public void recordRow() {
+        numOfRows.incrementAndGet();
+    }
+
+    /**
+     * The restaurant is counted before it is handed to the worker, so the job never completes while any restaurant is pending
+     */
+    public synchronized void recordRestaurantSubmitted() {
+        numOfRestaurants.incrementAndGet();
+        numOfPendingRestaurants++;
+    }
+
+    public synchronized void recordRestaurantPublished(int numOfItems) {
+        numOfPublishedRestaurants.incrementAndGet();
+        numOfPublishedItems.addAndGet(numOfItems);
+        numOfPendingRestaurants--;
+        completeIfDone();
+    }
+
+    public synchronized void recordRestaurantFailed() {
+        numOfFailedRestaurants.incrementAndGet();
+        numOfPendingRestaurants--;
+        completeIfDone();
+    }
+
+    public synchronized void recordError(@Nullable Long rowNumber, @Nullable Long restaurantId, @Nonnull String message) {
+        numOfErrors++;
+        if (errors.size() < MAX_IMPORT_ERRORS) {
+            errors.add(new MenuImportError(rowNumber, restaurantId, message));
+        }
+    }
+
+    /**
+     * The whole upload has been read, or its reading has been given up
+     */
+    public synchronized void finishParsing() {
+        if (status == ImportStatus.PARSING) {
+            status = ImportStatus.PUBLISHING;
+            completeIfDone();
+        }
+    }
+
+    public long getNumOfRows() {
+        return numOfRows.get();
+    }
+
+    public int getNumOfRestaurants() {
+        return numOfRestaurants.get();
+    }
+
+    public int getNumOfPublishedRestaurants() {
+        return numOfPublishedRestaurants.get();
+    }
+
+    public int getNumOfFailedRestaurants() {
+        return numOfFailedRestaurants.get();
+    }
+
+    public long getNumOfPublishedItems() {
+        return numOfPublishedItems.get();
+    }
+
+    public synchronized @Nonnull ImportStatus getStatus() {
+        return status;
+    }
+
+    public synchronized boolean isCompleted() {
+        return completedInEpoch != null;
+    }
+
+    /**
+     * @return NULL if the job is still in progress
+     */
+    public synchronized @Nullable Long getCompletedInEpoch() {
+        return completedInEpoch;
+    }
+
+    public synchronized int getNumOfErrors() {
+        return numOfErrors;
+    }
+
+    /**
+     * @return the copy of the first MAX_IMPORT_ERRORS errors in the order they occurred @Nonnull
+     */
+    public synchronized @Nonnull List<MenuImportError> getErrors() {
+        return new ArrayList<>(errors);
+    }
+
+    private void completeIfDone() {
+        if (status == ImportStatus.PUBLISHING && numOfPendingRestaurants == 0) {
+            status = numOfErrors == 0 ? ImportStatus.COMPLETED : ImportStatus.COMPLETED_WITH_ERRORS;
+            completedInEpoch = TimeUtils.getEpochTimeNowInUTC();
+        }
+    }
+}
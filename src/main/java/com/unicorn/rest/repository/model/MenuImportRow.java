@@ -0,0 +1,37 @@
+package com.unicorn.rest.repository.model;
+
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * One menu item read from the bulk import as it is, which is validated along with the other rows of its restaurant later
+ */
+@EqualsAndHashCode
+@ToString
+@AllArgsConstructor
+public class MenuImportRow {
+
+    /*
+     * The 1-based position of the row in the upload, the header of CSV excluded
+     */
+    @Getter private final long rowNumber;
+    @Getter @Nullable private final Long restaurantId;
+    /*
+     * NULL to keep the item_id of the item of the same name on the current menu, or to generate a new one
+     */
+    @Getter @Nullable private final Long itemId;
+    @Getter @Nullable private final String itemName;
+    @Getter @Nullable private final String itemDescription;
+    @Getter @Nullable private final Long price;
+    @Getter @Nullable private final List<String> tags;
+    /*
+     * The reason the row cannot be read as a menu item, e.g. a malformed number, NULL if it can
+     */
+    @Getter @Nullable private final String invalidReason;
+}
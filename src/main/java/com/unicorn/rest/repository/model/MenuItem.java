@@ -0,0 +1,205 @@
+package com.unicorn.rest.repository.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import com.unicorn.rest.repository.exception.ValidationException;
+
+/**
+ * The item of the restaurant menu. The price is in the minor units of the currency, e.g. cents,
+ * so that it is exact without floating point or BigDecimal.
+ */
+@EqualsAndHashCode
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class MenuItem {
+
+    public static final int MAX_ITEM_NAME_LENGTH = 128;
+    public static final int MAX_ITEM_DESCRIPTION_LENGTH = 1024;
+    public static final int MAX_ITEM_TAGS = 16;
+    public static final int MAX_ITEM_TAG_LENGTH = 32;
+    public static final long MAX_ITEM_PRICE = 100000000L;
+
+    @Getter @Nonnull private final Long itemId;
+    @Getter @Nonnull private final String itemName;
+    @Getter @Nullable private final String itemDescription;
+    @Getter @Nonnull private final Long price;
+    /*
+     * Unmodifiable, empty if the item is not tagged
+     */
+    @Getter @Nonnull private final List<String> tags;
+    /*
+     * Unmodifiable, empty if the item is available whenever the menu is
+     */
+    @Getter @Nonnull private final List<AvailabilityWindow> availability;
+    /*
+     * Unmodifiable, empty if the item has no options to choose
+     */
+    @Getter @Nonnull private final List<ModifierGroup> modifierGroups;
+    /*
+     * Unmodifiable, empty if the item has no photo, the first of which is the primary one
+     */
+    @Getter @Nonnull private final List<MenuImage> images;
+
+    public static MenuItemBuilder buildMenuItem() {
+        return new MenuItemBuilder();
+    }
+
+    /**
+     * @param itemName @Nullable
+     * @return the trimmed item name @Nonnull
+     * @throws ValidationException if the item name is blank, too long or contains control characters
+     */
+    public static @Nonnull String validateItemName(@Nullable String itemName) throws ValidationException {
+        String trimmedItemName = itemName == null ? "" : itemName.trim();
+        if (trimmedItemName.isEmpty() || trimmedItemName.length() > MAX_ITEM_NAME_LENGTH || containsControlCharacter(trimmedItemName)) {
+            throw new ValidationException(String.format("Invalid menu item name: %s. The number of characters should be at least 1 and no more than %s",
+                    itemName, MAX_ITEM_NAME_LENGTH));
+        }
+        return trimmedItemName;
+    }
+
+    /**
+     * @param itemDescription @Nullable
+     * @return the trimmed item description, NULL if it is blank
+     * @throws ValidationException if the item description is too long
+     */
+    public static @Nullable String validateItemDescription(@Nullable String itemDescription) throws ValidationException {
+        if (itemDescription == null || itemDescription.trim().isEmpty()) {
+            return null;
+        }
+        String trimmedItemDescription = itemDescription.trim();
+        if (trimmedItemDescription.length() > MAX_ITEM_DESCRIPTION_LENGTH) {
+            throw new ValidationException(String.format("Invalid menu item description. The number of characters should be no more than %s",
+                    MAX_ITEM_DESCRIPTION_LENGTH));
+        }
+        return trimmedItemDescription;
+    }
+
+    /**
+     * @param price in minor units of the currency @Nullable
+     * @return @Nonnull
+     * @throws ValidationException if the price is missing, negative or unreasonably large
+     */
+    public static @Nonnull Long validatePrice(@Nullable Long price) throws ValidationException {
+        if (price == null || price < 0 || price > MAX_ITEM_PRICE) {
+            throw new ValidationException(String.format("Invalid menu item price: %s. The price in minor units should be between 0 and %s",
+                    price, MAX_ITEM_PRICE));
+        }
+        return price;
+    }
+
+    /**
+     * @param tags @Nullable
+     * @return the distinct trimmed lower case tags, empty if no tag is provided @Nonnull
+     * @throws ValidationException if there are too many tags or any tag is blank or too long
+     */
+    public static @Nonnull List<String> validateTags(@Nullable List<String> tags) throws ValidationException {
+        if (tags == null || tags.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (tags.size() > MAX_ITEM_TAGS) {
+            throw new ValidationException(String.format("Invalid menu item tags. The number of tags should be no more than %s", MAX_ITEM_TAGS));
+        }
+        LinkedHashSet<String> validatedTags = new LinkedHashSet<>();
+        for (String tag : tags) {
+            String trimmedTag = tag == null ? "" : tag.trim().toLowerCase(Locale.ROOT);
+            if (trimmedTag.isEmpty() || trimmedTag.length() > MAX_ITEM_TAG_LENGTH || containsControlCharacter(trimmedTag)) {
+                throw new ValidationException(String.format("Invalid menu item tag: %s. The number of characters should be at least 1 and no more than %s",
+                        tag, MAX_ITEM_TAG_LENGTH));
+            }
+            validatedTags.add(trimmedTag);
+        }
+        return Collections.unmodifiableList(new ArrayList<>(validatedTags));
+    }
+
+    static boolean containsControlCharacter(@Nonnull String str) {
+        for (int i = 0; i < str.length(); i++) {
+            if (Character.isISOControl(str.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static class MenuItemBuilder {
+        private Long itemId;
+        private String itemName;
+        private String itemDescription;
+        private Long price;
+        private List<String> tags;
+        private List<AvailabilityWindow> availability;
+        private List<ModifierGroup> modifierGroups;
+        private List<MenuImage> images;
+
+        public MenuItemBuilder() {}
+
+        public MenuItemBuilder itemId(Long itemId) {
+            this.itemId = itemId;
+            return this;
+        }
+
+        public MenuItemBuilder itemName(String itemName) {
+            this.itemName = itemName;
+            return this;
+        }
+
+        public MenuItemBuilder itemDescription(String itemDescription) {
+            this.itemDescription = itemDescription;
+            return this;
+        }
+
+        public MenuItemBuilder price(Long price) {
+            this.price = price;
+            return this;
+        }
+
+        public MenuItemBuilder tags(List<String> tags) {
+            this.tags = tags;
+            return this;
+        }
+
+        public MenuItemBuilder availability(List<AvailabilityWindow> availability) {
+            this.availability = availability;
+            return this;
+        }
+
+        public MenuItemBuilder modifierGroups(List<ModifierGroup> modifierGroups) {
+            this.modifierGroups = modifierGroups;
+            return this;
+        }
+
+        public MenuItemBuilder images(List<MenuImage> images) {
+            this.images = images;
+            return this;
+        }
+
+        public MenuItem build() {
+            if (itemId == null || itemName == null || price == null) {
+                throw new IllegalArgumentException("Failed while attempting to build menu item due to missing required parameters");
+            }
+            List<String> immutableTags = tags == null || tags.isEmpty() ?
+                    Collections.<String>emptyList() : Collections.unmodifiableList(new ArrayList<>(tags));
+            List<AvailabilityWindow> immutableAvailability = availability == null || availability.isEmpty() ?
+                    Collections.<AvailabilityWindow>emptyList() : Collections.unmodifiableList(new ArrayList<>(availability));
+            List<ModifierGroup> immutableModifierGroups = modifierGroups == null || modifierGroups.isEmpty() ?
+                    Collections.<ModifierGroup>emptyList() : Collections.unmodifiableList(new ArrayList<>(modifierGroups));
+            List<MenuImage> immutableImages = images == null || images.isEmpty() ?
+                    Collections.<MenuImage>emptyList() : Collections.unmodifiableList(new ArrayList<>(images));
+            return new MenuItem(itemId, itemName, itemDescription, price, immutableTags, immutableAvailability, immutableModifierGroups,
+                    immutableImages);
+        }
+    }
+}
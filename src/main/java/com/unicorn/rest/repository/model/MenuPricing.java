@@ -0,0 +1,135 @@
+package com.unicorn.rest.repository.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import lombok.ToString;
+
+import com.unicorn.rest.repository.exception.ValidationException;
+
+/**
+ * The price plans of the menu items compiled along with the menu snapshot, by which the whole cart is quoted in one call.
+ * The prices are added up in long minor units, where the bounds of the prices, options, quantities and lines keep the subtotal
+ * far below the overflow, so the quote is exact without BigDecimal.
+ *
+ * The pricing is immutable as the snapshot, so the next version published replaces it.
+ */
+@ToString(of = {"restaurantId", "version"})
+public class MenuPricing {
+
+    public static final int MAX_CART_LINES = 100;
+    public static final int MAX_QUANTITY = 999;
+
+    private static final int OBJECT_HEADER_BYTES = 16;
+    private static final int REFERENCE_BYTES = 4;
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    private final Long restaurantId;
+    private final long version;
+    /*
+     * The item IDs in ascending order, and the plan of each
+     */
+    private final long[] sortedItemIds;
+    private final ItemPricePlan[] itemPricePlans;
+    /*
+     * The scratch sizes large enough for any item of the menu
+     */
+    private final int maxNumOfOptions;
+    private final int maxNumOfGroups;
+    private final long footprintInBytes;
+
+    private MenuPricing(@Nonnull Menu menu) {
+        this.restaurantId = menu.getRestaurantId();
+        this.version = menu.getVersion();
+        List<ItemPricePlan> plans = new ArrayList<>(menu.getItems().size());
+        for (MenuItem item : menu.getItems()) {
+            plans.add(ItemPricePlan.compile(item));
+        }
+        Collections.sort(plans, new Comparator<ItemPricePlan>() {
+            @Override
+            public int compare(ItemPricePlan plan, ItemPricePlan otherPlan) {
+                return Long.compare(plan.getItemId(), otherPlan.getItemId());
+            }
+        });
+        this.sortedItemIds = new long[plans.size()];
+        this.itemPricePlans = plans.toArray(new ItemPricePlan[plans.size()]);
+        int maxOptions = 0;
+        int maxGroups = 0;
+        long footprint = OBJECT_HEADER_BYTES + 3 * REFERENCE_BYTES + 8 + 2 * 4 + 8 + 2 * ARRAY_HEADER_BYTES;
+        for (int position = 0; position < itemPricePlans.length; position++) {
+            sortedItemIds[position] = itemPricePlans[position].getItemId();
+            maxOptions = Math.max(maxOptions, itemPricePlans[position].getNumOfOptions());
+            maxGroups = Math.max(maxGroups, itemPricePlans[position].getNumOfGroups());
+            footprint += 8 + REFERENCE_BYTES + itemPricePlans[position].getFootprintInBytes();
+        }
+        this.maxNumOfOptions = maxOptions;
+        this.maxNumOfGroups = maxGroups;
+        this.footprintInBytes = footprint;
+    }
+
+    /**
+     * @param menu @Nonnull
+     * @return @Nonnull
+     */
+    public static @Nonnull MenuPricing compile(@Nonnull Menu menu) {
+        return new MenuPricing(menu);
+    }
+
+    /**
+     * @param cartLines @Nullable
+     * @return the quote of the lines in order @Nonnull
+     * @throws ValidationException if the cart is empty or too large, or any line is not on the menu or has invalid quantity or options
+     */
+    public @Nonnull PriceQuote quote(@Nullable List<CartLine> cartLines) throws ValidationException {
+        if (cartLines == null || cartLines.isEmpty() || cartLines.size() > MAX_CART_LINES) {
+            throw new ValidationException(String.format("Invalid cart. The number of lines should be at least 1 and no more than %s", MAX_CART_LINES));
+        }
+        /*
+         * The scratch is shared by all the lines of the cart, so the lines are priced without allocation
+         */
+        boolean[] chosenOptions = new boolean[maxNumOfOptions];
+        int[] groupCounts = new int[maxNumOfGroups];
+        List<PriceQuoteLine> quoteLines = new ArrayList<>(cartLines.size());
+        long subtotal = 0;
+        for (CartLine cartLine : cartLines) {
+            if (cartLine == null) {
+                throw new ValidationException("Expecting non-null cart line, but received: line=null");
+            }
+            int quantity = cartLine.getQuantity();
+            if (quantity < 1 || quantity > MAX_QUANTITY) {
+                throw new ValidationException(String.format("Invalid quantity: %s. The quantity should be at least 1 and no more than %s",
+                        quantity, MAX_QUANTITY));
+            }
+            int position = Arrays.binarySearch(sortedItemIds, cartLine.getItemId());
+            if (position < 0) {
+                throw new ValidationException(String.format("Invalid item_id %s. The item is not on the menu version %s", cartLine.getItemId(), version));
+            }
+            long unitPrice = itemPricePlans[position].getUnitPrice(cartLine.getOptionIds(), chosenOptions, groupCounts);
+            long lineTotal = unitPrice * quantity;
+            quoteLines.add(new PriceQuoteLine(cartLine.getItemId(), quantity, unitPrice, lineTotal));
+            subtotal += lineTotal;
+        }
+        return new PriceQuote(restaurantId, version, Collections.unmodifiableList(quoteLines), subtotal);
+    }
+
+    /**
+     * @param itemId
+     * @return true if the item is on the menu version
+     */
+    public boolean containsItem(long itemId) {
+        return Arrays.binarySearch(sortedItemIds, itemId) >= 0;
+    }
+
+    /**
+     * @return the estimated bytes retained by the price plans, the items themselves excluded
+     */
+    public long getFootprintInBytes() {
+        return footprintInBytes;
+    }
+}
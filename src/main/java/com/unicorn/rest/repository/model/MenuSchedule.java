@@ -0,0 +1,216 @@
+package com.unicorn.rest.repository.model;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import lombok.ToString;
+
+import org.joda.time.DateTimeZone;
+
+import com.unicorn.rest.utils.TimeUtils;
+
+/**
+ * The availability of the menu items compiled into a weekly interval table in the local time of the restaurant: the week is cut
+ * at every start and end of the availability windows into segments, each of which lists the items available throughout it.
+ * The items available at an instant are found by the binary search for the segment of its local minute of week,
+ * rather than by evaluating the windows of every item per request.
+ *
+ * The schedule is compiled along with the menu snapshot and is immutable as well, so the next version published replaces it.
+ */
+@ToString(of = {"timeZone"})
+public class MenuSchedule {
+
+    private static final int REFERENCE_BYTES = 4;
+    private static final int OBJECT_HEADER_BYTES = 16;
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    private static final Comparator<int[]> BY_MINUTE = new Comparator<int[]>() {
+        @Override
+        public int compare(int[] event, int[] otherEvent) {
+            return Integer.compare(event[0], otherEvent[0]);
+        }
+    };
+
+    private final DateTimeZone timeZone;
+    /*
+     * The local minutes of week the segments start at in ascending order, the first of which is 0
+     */
+    private final int[] segmentStartMinutes;
+    /*
+     * Unmodifiable, the items available in the segment at the same index, where the segments of the same items share the list
+     */
+    private final List<List<MenuItem>> segmentItems;
+    private final long footprintInBytes;
+
+    private MenuSchedule(@Nonnull DateTimeZone timeZone, @Nonnull int[] segmentStartMinutes, @Nonnull List<List<MenuItem>> segmentItems,
+            long footprintInBytes) {
+        this.timeZone = timeZone;
+        this.segmentStartMinutes = segmentStartMinutes;
+        this.segmentItems = segmentItems;
+        this.footprintInBytes = footprintInBytes;
+    }
+
+    /**
+     * @param menu @Nonnull
+     * @return @Nonnull
+     */
+    public static @Nonnull MenuSchedule compile(@Nonnull Menu menu) {
+        DateTimeZone timeZone = menu.getDateTimeZone();
+        if (menu.isAlwaysAvailable()) {
+            return new MenuSchedule(timeZone, new int[] {0}, Collections.singletonList(menu.getItems()), ARRAY_HEADER_BYTES + 4);
+        }
+        List<MenuItem> items = menu.getItems();
+        /*
+         * Each event is {minute of week, index of the item or -1 for the menu, +1 for the start or -1 for the end of a window}
+         */
+        List<int[]> events = new ArrayList<>();
+        addWindowEvents(events, menu.getAvailability(), -1);
+        for (int i = 0; i < items.size(); i++) {
+            addWindowEvents(events, items.get(i).getAvailability(), i);
+        }
+        Collections.sort(events, BY_MINUTE);
+        TreeSet<Integer> boundaries = new TreeSet<>();
+        boundaries.add(0);
+        for (int[] event : events) {
+            boundaries.add(event[0]);
+        }
+
+        int[] windowCounts = new int[items.size()];
+        int menuWindowCount = 0;
+        int nextEvent = 0;
+        List<Integer> segmentStartMinutes = new ArrayList<>();
+        List<List<MenuItem>> segmentItems = new ArrayList<>();
+        Map<BitSet, List<MenuItem>> distinctItems = new HashMap<>();
+        BitSet previousAvailableItems = null;
+        long footprintInBytes = 2 * ARRAY_HEADER_BYTES;
+        for (int boundary : boundaries) {
+            for (; nextEvent < events.size() && events.get(nextEvent)[0] == boundary; nextEvent++) {
+                int[] event = events.get(nextEvent);
+                if (event[1] < 0) {
+                    menuWindowCount += event[2];
+                } else {
+                    windowCounts[event[1]] += event[2];
+                }
+            }
+            BitSet availableItems = new BitSet(items.size());
+            if (menu.getAvailability().isEmpty() || menuWindowCount > 0) {
+                for (int i = 0; i < items.size(); i++) {
+                    if (items.get(i).getAvailability().isEmpty() || windowCounts[i] > 0) {
+                        availableItems.set(i);
+                    }
+                }
+            }
+            if (availableItems.equals(previousAvailableItems)) {
+                continue;
+            }
+            List<MenuItem> availableItemList = distinctItems.get(availableItems);
+            if (availableItemList == null) {
+                List<MenuItem> itemList = new ArrayList<>(availableItems.cardinality());
+                for (int i = availableItems.nextSetBit(0); i >= 0; i = availableItems.nextSetBit(i + 1)) {
+                    itemList.add(items.get(i));
+                }
+                availableItemList = Collections.unmodifiableList(itemList);
+                distinctItems.put(availableItems, availableItemList);
+                footprintInBytes += 2 * OBJECT_HEADER_BYTES + ARRAY_HEADER_BYTES + itemList.size() * REFERENCE_BYTES;
+            }
+            segmentStartMinutes.add(boundary);
+            segmentItems.add(availableItemList);
+            footprintInBytes += 4 + REFERENCE_BYTES;
+            previousAvailableItems = availableItems;
+        }
+
+        int[] segmentStartMinuteArray = new int[segmentStartMinutes.size()];
+        for (int i = 0; i < segmentStartMinuteArray.length; i++) {
+            segmentStartMinuteArray[i] = segmentStartMinutes.get(i);
+        }
+        return new MenuSchedule(timeZone, segmentStartMinuteArray, Collections.unmodifiableList(segmentItems), footprintInBytes);
+    }
+
+    /**
+     * @param timeInMills the epoch time
+     * @return the items available at the time, in the order of the menu @Nonnull
+     */
+    public @Nonnull List<MenuItem> getAvailableItems(long timeInMills) {
+        return segmentItems.get(findSegment(TimeUtils.getLocalMinuteOfWeek(timeInMills, timeZone)));
+    }
+
+    /**
+     * @param timeInMills the epoch time
+     * @return the epoch time the available items change next after the time, NULL if they never change
+     */
+    public @Nullable Long getNextChangeAt(long timeInMills) {
+        int numOfSegments = segmentStartMinutes.length;
+        if (numOfSegments == 1) {
+            return null;
+        }
+        int minuteOfWeek = TimeUtils.getLocalMinuteOfWeek(timeInMills, timeZone);
+        int segment = findSegment(minuteOfWeek);
+        int nextChangeMinute;
+        if (segment + 1 < numOfSegments) {
+            nextChangeMinute = segmentStartMinutes[segment + 1];
+        } else {
+            /*
+             * The last segment of the week continues into the first segment of the next week if they have the same items
+             */
+            boolean continued = segmentItems.get(segment) == segmentItems.get(0);
+            nextChangeMinute = TimeUtils.MINUTES_PER_WEEK + (continued ? segmentStartMinutes[1] : 0);
+        }
+        return TimeUtils.addLocalMinutes(timeInMills, timeZone, nextChangeMinute - minuteOfWeek);
+    }
+
+    public int getNumOfSegments() {
+        return segmentStartMinutes.length;
+    }
+
+    /**
+     * @return the estimated bytes retained by the segments, the items themselves excluded
+     */
+    public long getFootprintInBytes() {
+        return footprintInBytes;
+    }
+
+    /*
+     * @return the index of the last segment starting no later than the minute of week
+     */
+    private int findSegment(int minuteOfWeek) {
+        int low = 0;
+        int high = segmentStartMinutes.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (segmentStartMinutes[middle] <= minuteOfWeek) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /*
+     * The window running past the end of the week wraps to the start of the week
+     */
+    private static void addWindowEvents(@Nonnull List<int[]> events, @Nonnull List<AvailabilityWindow> availabilityWindows, int owner) {
+        for (AvailabilityWindow availabilityWindow : availabilityWindows) {
+            for (int dayOfWeek : availabilityWindow.getDaysOfWeek()) {
+                int startMinuteOfWeek = availabilityWindow.getStartMinuteOfWeek(dayOfWeek);
+                int endMinuteOfWeek = availabilityWindow.getEndMinuteOfWeek(dayOfWeek);
+                events.add(new int[] {startMinuteOfWeek, owner, 1});
+                if (endMinuteOfWeek < TimeUtils.MINUTES_PER_WEEK) {
+                    events.add(new int[] {endMinuteOfWeek, owner, -1});
+                } else if (endMinuteOfWeek > TimeUtils.MINUTES_PER_WEEK) {
+                    events.add(new int[] {0, owner, 1});
+                    events.add(new int[] {endMinuteOfWeek - TimeUtils.MINUTES_PER_WEEK, owner, -1});
+                }
+            }
+        }
+    }
+}
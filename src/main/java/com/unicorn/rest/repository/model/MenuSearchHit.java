@@ -0,0 +1,21 @@
+package com.unicorn.rest.repository.model;
+
+import javax.annotation.Nonnull;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+@EqualsAndHashCode
+@ToString
+@AllArgsConstructor
+public class MenuSearchHit {
+
+    @Getter @Nonnull private final Long restaurantId;
+    @Getter @Nonnull private final MenuItem item;
+    /*
+     * The BM25 relevance of the item to the query, which is only comparable within the same search
+     */
+    @Getter private final double score;
+}
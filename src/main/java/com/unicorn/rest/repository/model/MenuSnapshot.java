@@ -0,0 +1,232 @@
+package com.unicorn.rest.repository.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The immutable in-memory snapshot of one menu version, together with everything derived from it at publish time,
+ * so that the read path only dereferences the snapshot and never computes anything per request.
+ */
+@ToString(of = {"menu", "footprintInBytes"})
+public class MenuSnapshot {
+
+    public static final int MAX_POPULAR_ITEMS = 10;
+
+    /*
+     * The estimation assumes 64-bit JVM with compressed oops, which is what the server runs with
+     */
+    private static final int OBJECT_HEADER_BYTES = 16;
+    private static final int REFERENCE_BYTES = 4;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int BOXED_LONG_BYTES = 16;
+
+    @Getter @Nonnull private final Menu menu;
+    @Getter @Nonnull private final RenderedMenu renderedMenu;
+    /*
+     * Unmodifiable, the bodies rendered in each locale the menu is translated into
+     */
+    @Nonnull private final Map<String, RenderedMenu> localizedRenderedMenus;
+    @Getter @Nonnull private final MenuChangeLog changeLog;
+    @Getter @Nonnull private final MenuSchedule schedule;
+    @Getter @Nonnull private final MenuPricing pricing;
+    /*
+     * Unmodifiable, the items on the menu in descending order of popularity, empty until the popularity is first materialized
+     */
+    @Getter @Nonnull private final List<Long> popularItemIds;
+    /*
+     * The estimated retained heap of the menu, its rendered bodies, change log, schedule and pricing, for capacity planning rather than accounting
+     */
+    @Getter private final long footprintInBytes;
+
+    public MenuSnapshot(@Nonnull Menu menu, @Nonnull RenderedMenu renderedMenu, @Nonnull MenuChangeLog changeLog) {
+        this(menu, renderedMenu, Collections.<String, RenderedMenu>emptyMap(), changeLog);
+    }
+
+    public MenuSnapshot(@Nonnull Menu menu, @Nonnull RenderedMenu renderedMenu, @Nonnull Map<String, RenderedMenu> localizedRenderedMenus,
+            @Nonnull MenuChangeLog changeLog) {
+        this(menu, renderedMenu, localizedRenderedMenus, changeLog, Collections.<Long>emptyList());
+    }
+
+    public MenuSnapshot(@Nonnull Menu menu, @Nonnull RenderedMenu renderedMenu, @Nonnull Map<String, RenderedMenu> localizedRenderedMenus,
+            @Nonnull MenuChangeLog changeLog, @Nonnull List<Long> popularItemIds) {
+        this(menu, renderedMenu, localizedRenderedMenus, changeLog, MenuSchedule.compile(menu), MenuPricing.compile(menu), popularItemIds);
+    }
+
+    private MenuSnapshot(@Nonnull Menu menu, @Nonnull RenderedMenu renderedMenu, @Nonnull Map<String, RenderedMenu> localizedRenderedMenus,
+            @Nonnull MenuChangeLog changeLog, @Nonnull MenuSchedule schedule, @Nonnull MenuPricing pricing, @Nonnull List<Long> popularItemIds) {
+        this.menu = menu;
+        this.renderedMenu = renderedMenu;
+        this.localizedRenderedMenus = localizedRenderedMenus.isEmpty() ? Collections.<String, RenderedMenu>emptyMap()
+                : Collections.unmodifiableMap(new HashMap<>(localizedRenderedMenus));
+        this.changeLog = changeLog;
+        this.schedule = schedule;
+        this.pricing = pricing;
+        this.popularItemIds = popularItemIds.isEmpty() ? Collections.<Long>emptyList()
+                : Collections.unmodifiableList(new ArrayList<>(popularItemIds));
+        long localizedFootprintInBytes = 0;
+        for (RenderedMenu localizedRenderedMenu : this.localizedRenderedMenus.values()) {
+            localizedFootprintInBytes += localizedRenderedMenu.getFootprintInBytes();
+        }
+        this.footprintInBytes = estimateFootprint(menu) + renderedMenu.getFootprintInBytes() + localizedFootprintInBytes
+                + changeLog.getFootprintInBytes() + schedule.getFootprintInBytes() + pricing.getFootprintInBytes()
+                + (this.popularItemIds.isEmpty() ? 0 : 2 * OBJECT_HEADER_BYTES + ARRAY_HEADER_BYTES
+                        + this.popularItemIds.size() * (REFERENCE_BYTES + BOXED_LONG_BYTES));
+    }
+
+    /**
+     * The same version with the popularity materialized again, which shares the schedule, pricing and change log with this snapshot
+     *
+     * @param popularItemIds the items on the menu in descending order of popularity @Nonnull
+     * @param renderedMenu the body rendered with the popular items @Nonnull
+     * @param localizedRenderedMenus the bodies rendered with the popular items in each locale the menu is translated into @Nonnull
+     * @return @Nonnull
+     */
+    public @Nonnull MenuSnapshot withPopularItems(@Nonnull List<Long> popularItemIds, @Nonnull RenderedMenu renderedMenu,
+            @Nonnull Map<String, RenderedMenu> localizedRenderedMenus) {
+        return new MenuSnapshot(menu, renderedMenu, localizedRenderedMenus, changeLog, schedule, pricing, popularItemIds);
+    }
+
+    public @Nonnull Long getRestaurantId() {
+        return menu.getRestaurantId();
+    }
+
+    public long getVersion() {
+        return menu.getVersion();
+    }
+
+    /**
+     * @param locale one of the locales the menu is translated into, NULL for the language published @Nullable
+     * @return the body rendered in the locale, or in the language published if the menu is not translated into the locale @Nonnull
+     */
+    public @Nonnull RenderedMenu getRenderedMenu(@Nullable String locale) {
+        RenderedMenu localizedRenderedMenu = locale == null ? null : localizedRenderedMenus.get(locale);
+        return localizedRenderedMenu == null ? renderedMenu : localizedRenderedMenu;
+    }
+
+    /**
+     * @param itemId
+     * @return true if the item is on the menu version
+     */
+    public boolean containsItem(long itemId) {
+        return pricing.containsItem(itemId);
+    }
+
+    /**
+     * @param sinceVersion the version the client has
+     * @return NULL if the delta since the version is no longer known, or is larger than the menu itself
+     */
+    public @Nullable MenuDelta getDelta(long sinceVersion) {
+        MenuDelta menuDelta = changeLog.getDelta(menu, sinceVersion);
+        if (menuDelta == null || menuDelta.getNumOfChanges() > menu.getItems().size()) {
+            return null;
+        }
+        return menuDelta;
+    }
+
+    /**
+     * @return the estimated bytes retained by the menu on heap
+     */
+    public static long estimateFootprint(@Nonnull Menu menu) {
+        // menu, restaurant_id, version, item list and its backing array, time zone, availability and translations
+        long footprint = OBJECT_HEADER_BYTES + 6 * REFERENCE_BYTES + 2 * BOXED_LONG_BYTES
+                + 2 * OBJECT_HEADER_BYTES + ARRAY_HEADER_BYTES + menu.getItems().size() * REFERENCE_BYTES
+                + estimateFootprint(menu.getTimeZone()) + estimateFootprint(menu.getAvailability()) + estimateTranslationFootprint(menu);
+        for (MenuItem item : menu.getItems()) {
+            footprint += OBJECT_HEADER_BYTES + 8 * REFERENCE_BYTES + 2 * BOXED_LONG_BYTES;
+            footprint += estimateFootprint(item.getItemName()) + estimateFootprint(item.getItemDescription())
+                    + estimateFootprint(item.getAvailability()) + estimateModifierFootprint(item.getModifierGroups())
+                    + estimateImageFootprint(item.getImages());
+            if (!item.getTags().isEmpty()) {
+                footprint += 2 * OBJECT_HEADER_BYTES + ARRAY_HEADER_BYTES + item.getTags().size() * REFERENCE_BYTES;
+                for (String tag : item.getTags()) {
+                    footprint += estimateFootprint(tag);
+                }
+            }
+        }
+        return footprint;
+    }
+
+    /*
+     * The empty availability is the shared empty list, and the days of week are the cached boxed integers
+     */
+    private static long estimateFootprint(@Nonnull List<AvailabilityWindow> availability) {
+        if (availability.isEmpty()) {
+            return 0;
+        }
+        long footprint = 2 * OBJECT_HEADER_BYTES + ARRAY_HEADER_BYTES + availability.size() * REFERENCE_BYTES;
+        for (AvailabilityWindow availabilityWindow : availability) {
+            footprint += OBJECT_HEADER_BYTES + REFERENCE_BYTES + 8
+                    + 2 * OBJECT_HEADER_BYTES + ARRAY_HEADER_BYTES + availabilityWindow.getDaysOfWeek().size() * REFERENCE_BYTES;
+        }
+        return footprint;
+    }
+
+    /*
+     * The entries of the string tables only, since the strings themselves are interned across the menus by TranslationTable
+     */
+    private static long estimateTranslationFootprint(@Nonnull Menu menu) {
+        long footprint = 0;
+        for (MenuTranslation translation : menu.getTranslations().values()) {
+            footprint += OBJECT_HEADER_BYTES + 2 * REFERENCE_BYTES + 3 * OBJECT_HEADER_BYTES + ARRAY_HEADER_BYTES
+                    + translation.getTexts().size() * (OBJECT_HEADER_BYTES + 5 * REFERENCE_BYTES + 2 * REFERENCE_BYTES);
+        }
+        return footprint;
+    }
+
+    /*
+     * The images with their precomputed variants, where the content type is one of the shared constants
+     */
+    private static long estimateImageFootprint(@Nonnull List<MenuImage> images) {
+        if (images.isEmpty()) {
+            return 0;
+        }
+        long footprint = 2 * OBJECT_HEADER_BYTES + ARRAY_HEADER_BYTES + images.size() * REFERENCE_BYTES;
+        for (MenuImage image : images) {
+            footprint += OBJECT_HEADER_BYTES + 4 * REFERENCE_BYTES + 2 * 4 + estimateFootprint(image.getContentHash())
+                    + estimateFootprint(image.getUrlTemplate()) + 2 * OBJECT_HEADER_BYTES + ARRAY_HEADER_BYTES
+                    + image.getVariants().size() * REFERENCE_BYTES;
+            for (MenuImage.ImageVariant variant : image.getVariants()) {
+                footprint += OBJECT_HEADER_BYTES + REFERENCE_BYTES + 2 * 4 + estimateFootprint(variant.getUrl());
+            }
+        }
+        return footprint;
+    }
+
+    /*
+     * The groups and options of all the levels, each with its list of the next level
+     */
+    private static long estimateModifierFootprint(@Nonnull List<ModifierGroup> modifierGroups) {
+        if (modifierGroups.isEmpty()) {
+            return 0;
+        }
+        long footprint = 2 * OBJECT_HEADER_BYTES + ARRAY_HEADER_BYTES + modifierGroups.size() * REFERENCE_BYTES;
+        for (ModifierGroup modifierGroup : modifierGroups) {
+            footprint += OBJECT_HEADER_BYTES + 3 * REFERENCE_BYTES + 2 * 4 + BOXED_LONG_BYTES + estimateFootprint(modifierGroup.getGroupName())
+                    + 2 * OBJECT_HEADER_BYTES + ARRAY_HEADER_BYTES + modifierGroup.getOptions().size() * REFERENCE_BYTES;
+            for (ModifierOption modifierOption : modifierGroup.getOptions()) {
+                footprint += OBJECT_HEADER_BYTES + 4 * REFERENCE_BYTES + 2 * BOXED_LONG_BYTES + estimateFootprint(modifierOption.getOptionName())
+                        + estimateModifierFootprint(modifierOption.getModifierGroups());
+            }
+        }
+        return footprint;
+    }
+
+    /*
+     * String object plus its char array
+     */
+    private static long estimateFootprint(@Nullable String str) {
+        if (str == null) {
+            return 0;
+        }
+        return OBJECT_HEADER_BYTES + REFERENCE_BYTES + 4 + ARRAY_HEADER_BYTES + 2L * str.length();
+    }
+}
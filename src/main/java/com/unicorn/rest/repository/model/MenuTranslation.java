@@ -0,0 +1,141 @@
+package com.unicorn.rest.repository.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IllformedLocaleException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import com.unicorn.rest.repository.exception.ValidationException;
+
+/**
+ * The string table of the menu in one locale. The texts on the menu, i.e. the names and descriptions of the items and the names of
+ * the modifier groups and options, are the string ids the table is keyed by, so the same text is translated once however many
+ * items carry it, and the menu itself is stored and published once rather than once per locale.
+ *
+ * Both the texts and their translations are interned in the TranslationTable of the locale, which shares them across the restaurants.
+ */
+@EqualsAndHashCode
+@ToString(of = {"locale"})
+public class MenuTranslation {
+
+    public static final int MAX_MENU_LOCALES = 8;
+    public static final int MAX_LOCALE_LENGTH = 16;
+    public static final int MAX_TRANSLATED_TEXTS = 4 * Menu.MAX_MENU_ITEMS;
+
+    /*
+     * The locale is made of the languages the JVM has locale data for, the scripts they are commonly written in and the ISO 3166 regions,
+     * so that the locales, and the translation tables interned per locale, are bounded no matter what the clients send
+     */
+    private static final Set<String> KNOWN_LANGUAGES = new HashSet<>();
+    private static final Set<String> KNOWN_SCRIPTS = new HashSet<>(Arrays.asList("Arab", "Cyrl", "Deva", "Grek", "Hans", "Hant", "Hebr", "Latn", "Thai"));
+    private static final Set<String> KNOWN_REGIONS = new HashSet<>(Arrays.asList(Locale.getISOCountries()));
+    static {
+        for (Locale availableLocale : Locale.getAvailableLocales()) {
+            if (!availableLocale.getLanguage().isEmpty()) {
+                KNOWN_LANGUAGES.add(availableLocale.getLanguage());
+            }
+            if (!availableLocale.getScript().isEmpty()) {
+                KNOWN_SCRIPTS.add(availableLocale.getScript());
+            }
+        }
+        /*
+         * Latin America, which the Spanish menus are commonly translated for
+         */
+        KNOWN_REGIONS.add("419");
+    }
+
+    /*
+     * The language tag in its canonical form, e.g. zh-Hant-TW
+     */
+    @Getter @Nonnull private final String locale;
+    /*
+     * Unmodifiable, the text on the menu to its translation
+     */
+    @Getter @Nonnull private final Map<String, String> texts;
+
+    public MenuTranslation(@Nonnull String locale, @Nonnull Map<String, String> texts) {
+        TranslationTable translationTable = TranslationTable.forLocale(locale);
+        Map<String, String> internedTexts = new LinkedHashMap<>();
+        for (Map.Entry<String, String> text : texts.entrySet()) {
+            if (text.getKey() == null || text.getValue() == null) {
+                throw new IllegalArgumentException("Failed while attempting to build menu translation due to null text");
+            }
+            internedTexts.put(translationTable.intern(text.getKey()), translationTable.intern(text.getValue()));
+        }
+        this.locale = locale;
+        this.texts = Collections.unmodifiableMap(internedTexts);
+    }
+
+    /**
+     * @param text the text on the menu @Nullable
+     * @return the translation of the text, or the text itself if it is not translated
+     */
+    public @Nullable String translate(@Nullable String text) {
+        String translatedText = text == null ? null : texts.get(text);
+        return translatedText == null ? text : translatedText;
+    }
+
+    /**
+     * @param locale the language tag with the optional script and region, e.g. fr, zh-Hant or pt-BR @Nullable
+     * @return the language tag in its canonical form @Nonnull
+     * @throws ValidationException if the language tag is malformed, carries anything beyond the script and region, or is not a known locale
+     */
+    public static @Nonnull String validateLocale(@Nullable String locale) throws ValidationException {
+        String trimmedLocale = locale == null ? "" : locale.trim();
+        if (!trimmedLocale.isEmpty() && trimmedLocale.length() <= MAX_LOCALE_LENGTH) {
+            Locale parsedLocale = Locale.forLanguageTag(trimmedLocale);
+            try {
+                String canonicalLocale = new Locale.Builder().setLanguage(parsedLocale.getLanguage()).setScript(parsedLocale.getScript())
+                        .setRegion(parsedLocale.getCountry()).build().toLanguageTag();
+                if (canonicalLocale.equalsIgnoreCase(trimmedLocale) && KNOWN_LANGUAGES.contains(parsedLocale.getLanguage())
+                        && (parsedLocale.getScript().isEmpty() || KNOWN_SCRIPTS.contains(parsedLocale.getScript()))
+                        && (parsedLocale.getCountry().isEmpty() || KNOWN_REGIONS.contains(parsedLocale.getCountry()))) {
+                    return canonicalLocale;
+                }
+            } catch (IllformedLocaleException error) {
+                // fall through to the validation error below
+            }
+        }
+        throw new ValidationException(String.format("Invalid locale: %s. The locale should be a language tag like fr, zh-Hant or pt-BR", locale));
+    }
+
+    /**
+     * @param locale @Nullable
+     * @param texts the text on the menu to its translation @Nullable
+     * @return @Nonnull
+     * @throws ValidationException if the locale is invalid, there are too many texts or any text or translation is blank or too long
+     */
+    public static @Nonnull MenuTranslation validateMenuTranslation(@Nullable String locale, @Nullable Map<String, String> texts)
+            throws ValidationException {
+        String validatedLocale = validateLocale(locale);
+        if (texts == null || texts.isEmpty()) {
+            return new MenuTranslation(validatedLocale, Collections.<String, String>emptyMap());
+        }
+        if (texts.size() > MAX_TRANSLATED_TEXTS) {
+            throw new ValidationException(String.format("Invalid translation of %s. The number of translated texts should be no more than %s",
+                    validatedLocale, MAX_TRANSLATED_TEXTS));
+        }
+        Map<String, String> validatedTexts = new LinkedHashMap<>();
+        for (Map.Entry<String, String> text : texts.entrySet()) {
+            String trimmedText = text.getKey() == null ? "" : text.getKey().trim();
+            String trimmedTranslation = text.getValue() == null ? "" : text.getValue().trim();
+            if (trimmedText.isEmpty() || trimmedTranslation.isEmpty() || trimmedTranslation.length() > MenuItem.MAX_ITEM_DESCRIPTION_LENGTH) {
+                throw new ValidationException(String.format("Invalid translation of %s into %s. The number of characters should be at least 1 and no more than %s",
+                        text.getKey(), validatedLocale, MenuItem.MAX_ITEM_DESCRIPTION_LENGTH));
+            }
+            validatedTexts.put(trimmedText, trimmedTranslation);
+        }
+        return new MenuTranslation(validatedLocale, validatedTexts);
+    }
+}
@@ -0,0 +1,176 @@
+package com.unicorn.rest.repository.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import com.unicorn.rest.repository.exception.ValidationException;
+
+/**
+ * The group of options the customer chooses from for the menu item, e.g. the size, the extras, or the side of a combo,
+ * of which at least minSelections and at most maxSelections distinct options are chosen.
+ *
+ * The combo is the menu item whose modifier groups are the choices of its components, with the price deltas of the components
+ * relative to the combo price, so it is priced the same way as any other item.
+ */
+@EqualsAndHashCode
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ModifierGroup {
+
+    public static final int MAX_MODIFIER_NAME_LENGTH = 64;
+    public static final int MAX_MODIFIER_GROUPS = 8;
+    public static final int MAX_MODIFIER_OPTIONS = 32;
+    /*
+     * The total number of options of the item at all the levels, which bounds the price plan of the item
+     */
+    public static final int MAX_MODIFIER_OPTIONS_PER_ITEM = 256;
+    /*
+     * The item has groups of options, the options of which may have groups of their own, and so on up to this many levels of groups
+     */
+    public static final int MAX_MODIFIER_DEPTH = 3;
+
+    @Getter @Nonnull private final Long groupId;
+    @Getter @Nonnull private final String groupName;
+    @Getter private final int minSelections;
+    @Getter private final int maxSelections;
+    /*
+     * Unmodifiable, in the order published by the owner
+     */
+    @Getter @Nonnull private final List<ModifierOption> options;
+
+    public static ModifierGroupBuilder buildModifierGroup() {
+        return new ModifierGroupBuilder();
+    }
+
+    /**
+     * @param modifierName the name of the group or option @Nullable
+     * @return the trimmed name @Nonnull
+     * @throws ValidationException if the name is blank, too long or contains control characters
+     */
+    public static @Nonnull String validateModifierName(@Nullable String modifierName) throws ValidationException {
+        String trimmedModifierName = modifierName == null ? "" : modifierName.trim();
+        if (trimmedModifierName.isEmpty() || trimmedModifierName.length() > MAX_MODIFIER_NAME_LENGTH
+                || MenuItem.containsControlCharacter(trimmedModifierName)) {
+            throw new ValidationException(String.format("Invalid modifier name: %s. The number of characters should be at least 1 and no more than %s",
+                    modifierName, MAX_MODIFIER_NAME_LENGTH));
+        }
+        return trimmedModifierName;
+    }
+
+    /**
+     * @param minSelections 0 if not provided @Nullable
+     * @param maxSelections 1 if not provided @Nullable
+     * @param numOfOptions
+     * @return {minSelections, maxSelections} @Nonnull
+     * @throws ValidationException if the selections are out of the range of the options
+     */
+    public static @Nonnull int[] validateSelections(@Nullable Integer minSelections, @Nullable Integer maxSelections, int numOfOptions)
+            throws ValidationException {
+        int validatedMinSelections = minSelections == null ? 0 : minSelections;
+        int validatedMaxSelections = maxSelections == null ? 1 : maxSelections;
+        if (validatedMinSelections < 0 || validatedMaxSelections < Math.max(validatedMinSelections, 1) || validatedMaxSelections > numOfOptions) {
+            throw new ValidationException(String.format("Invalid modifier group selections from %s to %s. The selections should be within 0 to %s "
+                    + "and the max selections should be at least 1", minSelections, maxSelections, numOfOptions));
+        }
+        return new int[] {validatedMinSelections, validatedMaxSelections};
+    }
+
+    /**
+     * @param modifierGroups the modifier groups of the item @Nullable
+     * @return @Nonnull
+     * @throws ValidationException if there are too many groups, options or levels, or the group and option IDs are not distinct within the item
+     */
+    public static @Nonnull List<ModifierGroup> validateModifierGroups(@Nullable List<ModifierGroup> modifierGroups) throws ValidationException {
+        if (modifierGroups == null || modifierGroups.isEmpty()) {
+            return Collections.emptyList();
+        }
+        validateModifierGroups(modifierGroups, 1, new HashSet<Long>(), new HashSet<Long>());
+        return modifierGroups;
+    }
+
+    private static void validateModifierGroups(@Nonnull List<ModifierGroup> modifierGroups, int depth, @Nonnull Set<Long> groupIds,
+            @Nonnull Set<Long> optionIds) throws ValidationException {
+        if (depth > MAX_MODIFIER_DEPTH) {
+            throw new ValidationException(String.format("Invalid modifier groups. The modifier groups should be nested no more than %s levels",
+                    MAX_MODIFIER_DEPTH));
+        }
+        if (modifierGroups.size() > MAX_MODIFIER_GROUPS) {
+            throw new ValidationException(String.format("Invalid modifier groups. The number of modifier groups should be no more than %s",
+                    MAX_MODIFIER_GROUPS));
+        }
+        for (ModifierGroup modifierGroup : modifierGroups) {
+            if (!groupIds.add(modifierGroup.getGroupId())) {
+                throw new ValidationException(String.format("Invalid modifier groups. The group_id %s is duplicated", modifierGroup.getGroupId()));
+            }
+            if (modifierGroup.getOptions().size() > MAX_MODIFIER_OPTIONS) {
+                throw new ValidationException(String.format("Invalid modifier group. The number of options should be no more than %s",
+                        MAX_MODIFIER_OPTIONS));
+            }
+            for (ModifierOption modifierOption : modifierGroup.getOptions()) {
+                if (!optionIds.add(modifierOption.getOptionId())) {
+                    throw new ValidationException(String.format("Invalid modifier groups. The option_id %s is duplicated", modifierOption.getOptionId()));
+                }
+                if (optionIds.size() > MAX_MODIFIER_OPTIONS_PER_ITEM) {
+                    throw new ValidationException(String.format("Invalid modifier groups. The number of options of the item should be no more than %s",
+                            MAX_MODIFIER_OPTIONS_PER_ITEM));
+                }
+                validateModifierGroups(modifierOption.getModifierGroups(), depth + 1, groupIds, optionIds);
+            }
+        }
+    }
+
+    public static class ModifierGroupBuilder {
+        private Long groupId;
+        private String groupName;
+        private Integer minSelections;
+        private Integer maxSelections;
+        private List<ModifierOption> options;
+
+        public ModifierGroupBuilder() {}
+
+        public ModifierGroupBuilder groupId(Long groupId) {
+            this.groupId = groupId;
+            return this;
+        }
+
+        public ModifierGroupBuilder groupName(String groupName) {
+            this.groupName = groupName;
+            return this;
+        }
+
+        public ModifierGroupBuilder minSelections(Integer minSelections) {
+            this.minSelections = minSelections;
+            return this;
+        }
+
+        public ModifierGroupBuilder maxSelections(Integer maxSelections) {
+            this.maxSelections = maxSelections;
+            return this;
+        }
+
+        public ModifierGroupBuilder options(List<ModifierOption> options) {
+            this.options = options;
+            return this;
+        }
+
+        public ModifierGroup build() {
+            if (groupId == null || groupName == null || minSelections == null || maxSelections == null || options == null || options.isEmpty()
+                    || minSelections < 0 || maxSelections < Math.max(minSelections, 1) || maxSelections > options.size()) {
+                throw new IllegalArgumentException("Failed while attempting to build modifier group due to missing or invalid required parameters");
+            }
+            return new ModifierGroup(groupId, groupName, minSelections, maxSelections, Collections.unmodifiableList(new ArrayList<>(options)));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.unicorn.rest.repository.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import com.unicorn.rest.repository.exception.ValidationException;
+
+/**
+ * The option of the modifier group, e.g. Large of the size. The price delta is in the minor units of the currency as the item price,
+ * and may be negative, e.g. the discount of choosing a side in a combo.
+ * The option may have modifier groups of its own, e.g. the size of the drink chosen in a combo.
+ */
+@EqualsAndHashCode
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ModifierOption {
+
+    @Getter @Nonnull private final Long optionId;
+    @Getter @Nonnull private final String optionName;
+    @Getter @Nonnull private final Long priceDelta;
+    /*
+     * Unmodifiable, empty if the option has no further choices
+     */
+    @Getter @Nonnull private final List<ModifierGroup> modifierGroups;
+
+    public static ModifierOptionBuilder buildModifierOption() {
+        return new ModifierOptionBuilder();
+    }
+
+    /**
+     * @param priceDelta in minor units of the currency, 0 if not provided @Nullable
+     * @return @Nonnull
+     * @throws ValidationException if the price delta is unreasonably large
+     */
+    public static @Nonnull Long validatePriceDelta(@Nullable Long priceDelta) throws ValidationException {
+        if (priceDelta == null) {
+            return 0L;
+        }
+        if (priceDelta < -MenuItem.MAX_ITEM_PRICE || priceDelta > MenuItem.MAX_ITEM_PRICE) {
+            throw new ValidationException(String.format("Invalid modifier option price delta: %s. The price delta in minor units should be between %s and %s",
+                    priceDelta, -MenuItem.MAX_ITEM_PRICE, MenuItem.MAX_ITEM_PRICE));
+        }
+        return priceDelta;
+    }
+
+    public static class ModifierOptionBuilder {
+        private Long optionId;
+        private String optionName;
+        private Long priceDelta;
+        private List<ModifierGroup> modifierGroups;
+
+        public ModifierOptionBuilder() {}
+
+        public ModifierOptionBuilder optionId(Long optionId) {
+            this.optionId = optionId;
+            return this;
+        }
+
+        public ModifierOptionBuilder optionName(String optionName) {
+            this.optionName = optionName;
+            return this;
+        }
+
+        public ModifierOptionBuilder priceDelta(Long priceDelta) {
+            this.priceDelta = priceDelta;
+            return this;
+        }
+
+        public ModifierOptionBuilder modifierGroups(List<ModifierGroup> modifierGroups) {
+            this.modifierGroups = modifierGroups;
+            return this;
+        }
+
+        public ModifierOption build() {
+            if (optionId == null || optionName == null) {
+                throw new IllegalArgumentException("Failed while attempting to build modifier option due to missing required parameters");
+            }
+            List<ModifierGroup> immutableModifierGroups = modifierGroups == null || modifierGroups.isEmpty() ?
+                    Collections.<ModifierGroup>emptyList() : Collections.unmodifiableList(new ArrayList<>(modifierGroups));
+            return new ModifierOption(optionId, optionName, priceDelta == null ? 0L : priceDelta, immutableModifierGroups);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.unicorn.rest.repository.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+
+import lombok.ToString;
+
+/**
+ * The time-decayed popularity of the menu items of one restaurant, tracked by the Space-Saving algorithm in a fixed number of slots,
+ * so that the memory of the restaurant stays the same no matter how many events or distinct items arrive.
+ *
+ * The item not tracked takes over the slot of the least popular item and inherits its count as the error, so the count of every item
+ * tracked is an overestimate by at most its error, and any item more popular than the least popular slot is guaranteed to be tracked.
+ *
+ * The counts decay exponentially with the half life. Rather than decaying every slot per event, each event is weighted up by
+ * 2^((time - landmark) / half life), i.e. forward decay, which ranks the same as decaying all the counts, and the counts are scaled
+ * back and the landmark moved up only when the items are ranked.
+ */
+@ToString(of = {"size", "landmarkInMills"})
+public class PopularityCounter {
+
+    public static final int MAX_TRACKED_ITEMS = 64;
+    /*
+     * The slot decayed below the weight of a single view is dropped when the items are ranked
+     */
+    private static final double MIN_COUNT = 0.5;
+    /*
+     * The landmark is also moved up by the event arriving this many half lives after it, to keep the weights well within double
+     */
+    private static final double MAX_HALF_LIVES_SINCE_LANDMARK = 64;
+    private static final int OBJECT_HEADER_BYTES = 16;
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    private final long halfLifeInMills;
+    private final long[] itemIds = new long[MAX_TRACKED_ITEMS];
+    private final double[] counts = new double[MAX_TRACKED_ITEMS];
+    private final double[] errors = new double[MAX_TRACKED_ITEMS];
+    private int size;
+    private long landmarkInMills;
+
+    public PopularityCounter(long halfLifeInMills, long landmarkInMills) {
+        if (halfLifeInMills <= 0) {
+            throw new IllegalArgumentException(String.format("Invalid half life: %s", halfLifeInMills));
+        }
+        this.halfLifeInMills = halfLifeInMills;
+        this.landmarkInMills = landmarkInMills;
+    }
+
+    /**
+     * @param itemId
+     * @param weight the weight of the event when it happens
+     * @param timeInMills the epoch time of the event
+     */
+    public synchronized void record(long itemId, double weight, long timeInMills) {
+        if ((timeInMills - landmarkInMills) > MAX_HALF_LIVES_SINCE_LANDMARK * halfLifeInMills) {
+            decayTo(timeInMills);
+        }
+        double decayedWeight = weight * Math.pow(2, (double) (timeInMills - landmarkInMills) / halfLifeInMills);
+        int slot = indexOf(itemId);
+        if (slot >= 0) {
+            counts[slot] += decayedWeight;
+        } else if (size < MAX_TRACKED_ITEMS) {
+            itemIds[size] = itemId;
+            counts[size] = decayedWeight;
+            errors[size] = 0;
+            size++;
+        } else {
+            int leastPopularSlot = 0;
+            for (int i = 1; i < size; i++) {
+                if (counts[i] < counts[leastPopularSlot]) {
+                    leastPopularSlot = i;
+                }
+            }
+            itemIds[leastPopularSlot] = itemId;
+            errors[leastPopularSlot] = counts[leastPopularSlot];
+            counts[leastPopularSlot] += decayedWeight;
+        }
+    }
+
+    /**
+     * Decay the counts to the time and drop the slots decayed away
+     *
+     * @param timeInMills the epoch time to rank the items at
+     * @return the items tracked in descending order of popularity @Nonnull
+     */
+    public synchronized @Nonnull List<Long> rank(long timeInMills) {
+        decayTo(timeInMills);
+        for (int i = size - 1; i >= 0; i--) {
+            if (counts[i] < MIN_COUNT) {
+                removeSlot(i);
+            }
+        }
+        /*
+         * Insertion sort of the slot indexes, since there are no more than MAX_TRACKED_ITEMS of them
+         */
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            int j = i;
+            for (; j > 0 && isMorePopular(i, order[j - 1]); j--) {
+                order[j] = order[j - 1];
+            }
+            order[j] = i;
+        }
+        List<Long> rankedItemIds = new ArrayList<>(size);
+        for (int slot : order) {
+            rankedItemIds.add(itemIds[slot]);
+        }
+        return rankedItemIds;
+    }
+
+    /**
+     * @param itemId the item no longer on the menu
+     */
+    public synchronized void remove(long itemId) {
+        int slot = indexOf(itemId);
+        if (slot >= 0) {
+            removeSlot(slot);
+        }
+    }
+
+    /**
+     * @return the count of the item decayed to the landmark, 0 if the item is not tracked
+     */
+    public synchronized double getCount(long itemId) {
+        int slot = indexOf(itemId);
+        return slot < 0 ? 0 : counts[slot];
+    }
+
+    /**
+     * @return item_id -> the count weighted up to the landmark less its error, i.e. the count guaranteed to be of the item @Nonnull
+     */
+    public synchronized @Nonnull Map<Long, Double> getCounts() {
+        Map<Long, Double> itemCounts = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            if (counts[i] > errors[i]) {
+                itemCounts.put(itemIds[i], counts[i] - errors[i]);
+            }
+        }
+        return itemCounts;
+    }
+
+    public synchronized long getLandmarkInMills() {
+        return landmarkInMills;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the bytes retained by the counter, which is the same no matter how many items are tracked
+     */
+    public static long getFootprintInBytes() {
+        return OBJECT_HEADER_BYTES + 3 * 4 + 4 + 2 * 8 + 3 * ARRAY_HEADER_BYTES + MAX_TRACKED_ITEMS * (8 + 8 + 8);
+    }
+
+    /*
+     * The ties are broken by the error, i.e. the item with more of its count guaranteed, and then by the item_id to make the rank stable
+     */
+    private boolean isMorePopular(int slot, int otherSlot) {
+        if (counts[slot] != counts[otherSlot]) {
+            return counts[slot] > counts[otherSlot];
+        }
+        if (errors[slot] != errors[otherSlot]) {
+            return errors[slot] < errors[otherSlot];
+        }
+        return itemIds[slot] < itemIds[otherSlot];
+    }
+
+    private void decayTo(long timeInMills) {
+        if (timeInMills <= landmarkInMills) {
+            return;
+        }
+        double decay = Math.pow(2, -(double) (timeInMills - landmarkInMills) / halfLifeInMills);
+        for (int i = 0; i < size; i++) {
+            counts[i] *= decay;
+            errors[i] *= decay;
+        }
+        landmarkInMills = timeInMills;
+    }
+
+    private int indexOf(long itemId) {
+        for (int i = 0; i < size; i++) {
+            if (itemIds[i] == itemId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void removeSlot(int slot) {
+        size--;
+        itemIds[slot] = itemIds[size];
+        counts[slot] = counts[size];
+        errors[slot] = errors[size];
+    }
+}
@@ -0,0 +1,37 @@
+package com.unicorn.rest.repository.model;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The counts of the menu items of one restaurant shared by all the servers, where each event is weighted up from the landmark
+ * by forward decay as PopularityCounter does, together with the popular items ranked by the server materializing them first.
+ */
+@EqualsAndHashCode
+@ToString
+@AllArgsConstructor
+public class PopularityCounts {
+
+    @Getter @Nonnull private final Long restaurantId;
+    @Getter private final long landmarkInEpoch;
+    /*
+     * item_id -> the count weighted up to the landmark
+     */
+    @Getter @Nonnull private final Map<Long, Double> itemCounts;
+    /*
+     * The time the popular items stored are ranked at, NULL if none is stored
+     */
+    @Getter @Nullable private final Long materializedInEpoch;
+    /*
+     * The items in descending order of popularity, empty if none is stored
+     */
+    @Getter @Nonnull private final List<Long> popularItemIds;
+}
@@ -0,0 +1,27 @@
+package com.unicorn.rest.repository.model;
+
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The quote of the cart against one menu version, which is exact in the minor units of the currency before taxes and fees
+ */
+@EqualsAndHashCode
+@ToString
+@AllArgsConstructor
+public class PriceQuote {
+
+    @Getter @Nonnull private final Long restaurantId;
+    @Getter private final long version;
+    /*
+     * Unmodifiable, in the order of the cart lines
+     */
+    @Getter @Nonnull private final List<PriceQuoteLine> lines;
+    @Getter private final long subtotal;
+}
@@ -0,0 +1,23 @@
+package com.unicorn.rest.repository.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The prices are in the minor units of the currency as the item price
+ */
+@EqualsAndHashCode
+@ToString
+@AllArgsConstructor
+public class PriceQuoteLine {
+
+    @Getter private final long itemId;
+    @Getter private final int quantity;
+    /*
+     * The item price plus the price deltas of the chosen options
+     */
+    @Getter private final long unitPrice;
+    @Getter private final long lineTotal;
+}
@@ -0,0 +1,46 @@
+package com.unicorn.rest.repository.model;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The response body of a menu version rendered once at publish time, so that serving the menu writes these bytes as they are.
+ *
+ * The byte arrays are shared by all the requests, and must never be modified.
+ */
+@ToString(of = {"entityTag", "gzippedEntityTag"})
+public class RenderedMenu {
+
+    private static final String GZIPPED_ENTITY_TAG_SUFFIX = "-gzip";
+
+    @Getter @Nonnull private final byte[] body;
+    /*
+     * NULL if the body is too small to benefit from compression
+     */
+    @Getter @Nullable private final byte[] gzippedBody;
+    /*
+     * The strong entity tag derived from the content hash of the body
+     */
+    @Getter @Nonnull private final String entityTag;
+    /*
+     * The gzipped body is a different representation, so it has its own strong entity tag
+     */
+    @Getter @Nullable private final String gzippedEntityTag;
+
+    public RenderedMenu(@Nonnull byte[] body, @Nullable byte[] gzippedBody, @Nonnull String entityTag) {
+        this.body = body;
+        this.gzippedBody = gzippedBody;
+        this.entityTag = entityTag;
+        this.gzippedEntityTag = gzippedBody == null ? null : entityTag + GZIPPED_ENTITY_TAG_SUFFIX;
+    }
+
+    /**
+     * @return the bytes retained by the rendered bodies
+     */
+    public long getFootprintInBytes() {
+        return body.length + (gzippedBody == null ? 0 : gzippedBody.length);
+    }
+}
@@ -0,0 +1,116 @@
+package com.unicorn.rest.repository.model;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import com.unicorn.rest.repository.exception.ValidationException;
+
+/**
+ * The restaurant is owned by the customer principal who registered it
+ */
+@EqualsAndHashCode
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class Restaurant {
+
+    public static final int MAX_RESTAURANT_NAME_LENGTH = 64;
+    public static final int MAX_RESTAURANT_DESCRIPTION_LENGTH = 1024;
+
+    @Getter @Nonnull private final Long restaurantId;
+    @Getter @Nonnull private final Long ownerPrincipal;
+    @Getter @Nonnull private final String restaurantName;
+    @Getter @Nullable private final String restaurantDescription;
+    @Getter @Nullable private final GeoLocation location;
+
+    public static RestaurantBuilder buildRestaurant() {
+        return new RestaurantBuilder();
+    }
+
+    /**
+     * @param restaurantName @Nullable
+     * @return the trimmed restaurant name @Nonnull
+     * @throws ValidationException if the restaurant name is blank, too long or contains control characters
+     */
+    public static @Nonnull String validateRestaurantName(@Nullable String restaurantName) throws ValidationException {
+        String trimmedRestaurantName = restaurantName == null ? "" : restaurantName.trim();
+        if (trimmedRestaurantName.isEmpty() || trimmedRestaurantName.length() > MAX_RESTAURANT_NAME_LENGTH || containsControlCharacter(trimmedRestaurantName)) {
+            throw new ValidationException(String.format("Invalid restaurant name: %s. The number of characters should be at least 1 and no more than %s", 
+                    restaurantName, MAX_RESTAURANT_NAME_LENGTH));
+        }
+        return trimmedRestaurantName;
+    }
+
+    /**
+     * @param restaurantDescription @Nullable
+     * @return the trimmed restaurant description, NULL if it is blank
+     * @throws ValidationException if the restaurant description is too long
+     */
+    public static @Nullable String validateRestaurantDescription(@Nullable String restaurantDescription) throws ValidationException {
+        if (restaurantDescription == null || restaurantDescription.trim().isEmpty()) {
+            return null;
+        }
+        String trimmedRestaurantDescription = restaurantDescription.trim();
+        if (trimmedRestaurantDescription.length() > MAX_RESTAURANT_DESCRIPTION_LENGTH) {
+            throw new ValidationException(String.format("Invalid restaurant description. The number of characters should be no more than %s", 
+                    MAX_RESTAURANT_DESCRIPTION_LENGTH));
+        }
+        return trimmedRestaurantDescription;
+    }
+
+    private static boolean containsControlCharacter(@Nonnull String str) {
+        for (int i = 0; i < str.length(); i++) {
+            if (Character.isISOControl(str.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static class RestaurantBuilder {
+        private Long restaurantId;
+        private Long ownerPrincipal;
+        private String restaurantName;
+        private String restaurantDescription;
+        private GeoLocation location;
+
+        public RestaurantBuilder() {}
+
+        public RestaurantBuilder restaurantId(Long restaurantId) {
+            this.restaurantId = restaurantId;
+            return this;
+        }
+
+        public RestaurantBuilder ownerPrincipal(Long ownerPrincipal) {
+            this.ownerPrincipal = ownerPrincipal;
+            return this;
+        }
+
+        public RestaurantBuilder restaurantName(String restaurantName) {
+            this.restaurantName = restaurantName;
+            return this;
+        }
+
+        public RestaurantBuilder restaurantDescription(String restaurantDescription) {
+            this.restaurantDescription = restaurantDescription;
+            return this;
+        }
+
+        public RestaurantBuilder location(GeoLocation location) {
+            this.location = location;
+            return this;
+        }
+
+        public Restaurant build() {
+            if (restaurantId == null || ownerPrincipal == null || restaurantName == null) {
+                throw new IllegalArgumentException("Failed while attempting to build restaurant due to missing required parameters");
+            }
+            return new Restaurant(restaurantId, ownerPrincipal, restaurantName, restaurantDescription, location);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.unicorn.rest.repository.model;
+
+import javax.annotation.Nonnull;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+@EqualsAndHashCode
+@ToString
+@AllArgsConstructor
+public class RestaurantDistance {
+
+    @Getter @Nonnull private final Long restaurantId;
+    @Getter private final double distanceInMeters;
+}
@@ -0,0 +1,70 @@
+package com.unicorn.rest.repository.model;
+
+import javax.annotation.Nonnull;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import com.unicorn.rest.utils.Geohash;
+
+/**
+ * The location of the restaurant as it is stored in the geohash cell it falls into
+ */
+@EqualsAndHashCode
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class RestaurantLocation {
+
+    /*
+     * The cell of 5 geohash characters is about 5 km wide, which spreads a city over many partitions of the table
+     */
+    public static final int GEOHASH_CELL_CHARS = 5;
+
+    @Getter @Nonnull private final Long restaurantId;
+    @Getter @Nonnull private final GeoLocation location;
+    /*
+     * The epoch time in milliseconds, which tells the latest location when the restaurant is left in more than one cell
+     */
+    @Getter private final long updatedAt;
+
+    public static RestaurantLocationBuilder buildRestaurantLocation() {
+        return new RestaurantLocationBuilder();
+    }
+
+    public @Nonnull String getGeohashCell() {
+        return Geohash.toBase32(location.getGeohash(), GEOHASH_CELL_CHARS);
+    }
+
+    public static class RestaurantLocationBuilder {
+        private Long restaurantId;
+        private GeoLocation location;
+        private long updatedAt = System.currentTimeMillis();
+
+        public RestaurantLocationBuilder() {}
+
+        public RestaurantLocationBuilder restaurantId(Long restaurantId) {
+            this.restaurantId = restaurantId;
+            return this;
+        }
+
+        public RestaurantLocationBuilder location(GeoLocation location) {
+            this.location = location;
+            return this;
+        }
+
+        public RestaurantLocationBuilder updatedAt(long updatedAt) {
+            this.updatedAt = updatedAt;
+            return this;
+        }
+
+        public RestaurantLocation build() {
+            if (restaurantId == null || location == null) {
+                throw new IllegalArgumentException("Failed while attempting to build restaurant location due to missing required parameters");
+            }
+            return new RestaurantLocation(restaurantId, location, updatedAt);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.unicorn.rest.repository.model;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nonnull;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The strings of one locale interned across the menus of all the restaurants, so that the text translated the same way on many menus,
+ * e.g. the name of a soft drink, is held once no matter how many restaurants or menu versions carry it.
+ *
+ * The table holds the strings weakly, so that the strings no longer on any menu are collected along with the last menu carrying them.
+ * The strings are only interned when the menu is published or loaded, never on the read path, so the table is simply synchronized.
+ */
+@ToString(of = {"locale"})
+public class TranslationTable {
+
+    /*
+     * The tables are never removed, which is bounded since MenuTranslation.validateLocale only accepts the known locales
+     */
+    private static final ConcurrentMap<String, TranslationTable> TRANSLATION_TABLES = new ConcurrentHashMap<>();
+
+    @Getter @Nonnull private final String locale;
+    private final WeakHashMap<String, WeakReference<String>> strings = new WeakHashMap<>();
+
+    private TranslationTable(@Nonnull String locale) {
+        this.locale = locale;
+    }
+
+    /**
+     * @param locale the validated language tag @Nonnull
+     * @return the table shared by all the menus translated into the locale @Nonnull
+     */
+    public static @Nonnull TranslationTable forLocale(@Nonnull String locale) {
+        TranslationTable translationTable = TRANSLATION_TABLES.get(locale);
+        if (translationTable == null) {
+            TranslationTable newTranslationTable = new TranslationTable(locale);
+            translationTable = TRANSLATION_TABLES.putIfAbsent(locale, newTranslationTable);
+            if (translationTable == null) {
+                translationTable = newTranslationTable;
+            }
+        }
+        return translationTable;
+    }
+
+    /**
+     * @return the number of strings interned per locale, in the order of the locales
+     */
+    public static @Nonnull Map<String, Integer> getSizes() {
+        Map<String, Integer> sizes = new TreeMap<>();
+        for (TranslationTable translationTable : TRANSLATION_TABLES.values()) {
+            sizes.put(translationTable.getLocale(), translationTable.size());
+        }
+        return sizes;
+    }
+
+    /**
+     * @param text @Nonnull
+     * @return the instance equal to the text already in the table, or the text itself once it is added @Nonnull
+     */
+    public synchronized @Nonnull String intern(@Nonnull String text) {
+        WeakReference<String> internedReference = strings.get(text);
+        String interned = internedReference == null ? null : internedReference.get();
+        if (interned == null) {
+            strings.put(text, new WeakReference<>(text));
+            interned = text;
+        }
+        return interned;
+    }
+
+    public synchronized int size() {
+        return strings.size();
+    }
+}
@@ -2,6 +2,7 @@ package com.unicorn.rest.repository.table;
 
 import java.util.List;
 
+import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.inject.Singleton;
 
@@ -32,7 +33,7 @@ public interface AccessControlPolicyTable extends Table {
      * Update existing access control policy for action on resource by requester
      * 
      * @param accessControlPolicy @Nullable
-     * @return
+     * @return the allowing conditions after update
      * @throws ValidationException if request is invalid
      * @throws ItemNotFoundException if access control policy attempted to update does not exist
      * @throws RepositoryServerException internal server error
@@ -54,12 +55,22 @@ public interface AccessControlPolicyTable extends Table {
     /**
      * Get existing access control policy for action on resource
      * 
-     * @param permission @Nullable
+     * @param action @Nullable
+     * @param resourceIdentifier @Nullable
      * @return
      * @throws ValidationException if request is invalid
      * @throws DuplicateKeyException if access control policy attempted to get does not exist
      * @throws RepositoryServerException internal server error
      */
-    public List<String> getAccessControlPolicy(@Nullable Permission permission) 
+    public List<String> getAccessControlPolicy(@Nullable String action, @Nullable String resourceIdentifier) 
             throws ValidationException, DuplicateKeyException, RepositoryServerException;
+
+    /**
+     * Get all the access control policies with a paginated Scan, which is only meant for preloading them in bulk
+     * 
+     * @return @Nonnull
+     * @throws RepositoryServerException internal server error
+     */
+    public @Nonnull List<AccessControlPolicy> getAccessControlPolicies() 
+            throws RepositoryServerException;
 }
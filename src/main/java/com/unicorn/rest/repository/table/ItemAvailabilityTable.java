@@ -0,0 +1,80 @@
+package com.unicorn.rest.repository.table;
+
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Singleton;
+
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.StaleDataException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.ItemAvailability;
+
+@Singleton
+public interface ItemAvailabilityTable extends Table {
+
+    public static final String ITEM_AVAILABILITY_TABLE_NAME = "ITEM_AVAILABILITY_TABLE";
+
+    /**
+     * @param restaurantId @Nullable
+     * @param itemId @Nullable
+     * @param soldOut @Nullable
+     * @param stock NULL to stop tracking the stock @Nullable
+     * @param updatedInEpoch @Nullable
+     * @return the availability after update @Nonnull
+     * @throws ValidationException if request is invalid
+     * @throws RepositoryServerException internal server error
+     */
+    public @Nonnull ItemAvailability putItemAvailability(@Nullable Long restaurantId, @Nullable Long itemId, @Nullable Boolean soldOut,
+            @Nullable Long stock, @Nullable Long updatedInEpoch)
+            throws ValidationException, RepositoryServerException;
+
+    /**
+     * Atomically add the delta to the stock, which is shared by all the servers
+     *
+     * @param restaurantId @Nullable
+     * @param itemId @Nullable
+     * @param delta negative to take the stock @Nullable
+     * @param updatedInEpoch @Nullable
+     * @return the availability after update @Nonnull
+     * @throws ValidationException if request is invalid
+     * @throws StaleDataException if the item does not track the stock or has less stock than taken
+     * @throws RepositoryServerException internal server error
+     */
+    public @Nonnull ItemAvailability addStock(@Nullable Long restaurantId, @Nullable Long itemId, @Nullable Long delta, @Nullable Long updatedInEpoch)
+            throws ValidationException, StaleDataException, RepositoryServerException;
+
+    /**
+     * Delete the availability of the item, only if it has not been updated since the version read
+     *
+     * @param restaurantId @Nullable
+     * @param itemId @Nullable
+     * @param expectedVersion the version of the availability as read @Nullable
+     * @throws ValidationException if request is invalid
+     * @throws StaleDataException if the availability has been updated meanwhile
+     * @throws RepositoryServerException internal server error
+     */
+    public void deleteItemAvailability(@Nullable Long restaurantId, @Nullable Long itemId, @Nullable Long expectedVersion)
+            throws ValidationException, StaleDataException, RepositoryServerException;
+
+    /**
+     * Get the availabilities updated within the time range from the change feed, which is eventually consistent
+     *
+     * @param sinceInEpoch inclusive
+     * @param untilInEpoch exclusive
+     * @return @Nonnull
+     * @throws RepositoryServerException internal server error
+     */
+    public @Nonnull List<ItemAvailability> getItemAvailabilitiesUpdated(long sinceInEpoch, long untilInEpoch)
+            throws RepositoryServerException;
+
+    /**
+     * Get all the availabilities with a paginated Scan, which is only meant for loading them at startup
+     *
+     * @return @Nonnull
+     * @throws RepositoryServerException internal server error
+     */
+    public @Nonnull List<ItemAvailability> getItemAvailabilities()
+            throws RepositoryServerException;
+}
@@ -0,0 +1,82 @@
+package com.unicorn.rest.repository.table;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Singleton;
+
+import com.unicorn.rest.repository.exception.ItemNotFoundException;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.StaleDataException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.Menu;
+
+@Singleton
+public interface MenuTable extends Table {
+
+    public static final String MENU_TABLE_NAME = "MENU_TABLE";
+
+    /**
+     * Put the new version of the menu only if the menu in the table is the previous version,
+     * or the menu does not exist yet if it is the first version
+     *
+     * @param menu @Nullable
+     * @throws ValidationException if request is invalid
+     * @throws StaleDataException if the menu in the table is not the previous version
+     * @throws RepositoryServerException internal server error
+     */
+    public void putMenu(@Nullable Menu menu)
+            throws ValidationException, StaleDataException, RepositoryServerException;
+
+    /**
+     * @param restaurantId @Nullable
+     * @return the latest version of the menu @Nonnull
+     * @throws ValidationException if request is invalid
+     * @throws ItemNotFoundException if the restaurant does not have menu
+     * @throws RepositoryServerException internal server error
+     */
+    public @Nonnull Menu getMenu(@Nullable Long restaurantId)
+            throws ValidationException, ItemNotFoundException, RepositoryServerException;
+
+    /**
+     * @param restaurantId @Nullable
+     * @return the latest version of the menu, or of its deletion if the menu is deleted, 0 if the restaurant never had menu
+     * @throws ValidationException if request is invalid
+     * @throws RepositoryServerException internal server error
+     */
+    public long getMenuVersion(@Nullable Long restaurantId)
+            throws ValidationException, RepositoryServerException;
+
+    /**
+     * Get the versions of the menus published or deleted within the time range from the change feed, which is eventually consistent
+     *
+     * @param sinceInEpoch inclusive
+     * @param untilInEpoch exclusive
+     * @return the restaurant_id to the latest version within the time range @Nonnull
+     * @throws RepositoryServerException internal server error
+     */
+    public @Nonnull Map<Long, Long> getMenuVersionsUpdated(long sinceInEpoch, long untilInEpoch)
+            throws RepositoryServerException;
+
+    /**
+     * Get the latest version of all the menus with a paginated Scan, which is only meant for loading the menus at startup
+     *
+     * @return @Nonnull
+     * @throws RepositoryServerException internal server error
+     */
+    public @Nonnull List<Menu> getMenus()
+            throws RepositoryServerException;
+
+    /**
+     * Replace the menu with the tombstone of the next version, which is published over like any previous version
+     *
+     * @param restaurantId @Nullable
+     * @throws ValidationException if request is invalid
+     * @throws ItemNotFoundException if the restaurant does not have menu
+     * @throws RepositoryServerException internal server error
+     */
+    public void deleteMenu(@Nullable Long restaurantId)
+            throws ValidationException, ItemNotFoundException, RepositoryServerException;
+}
@@ -0,0 +1,76 @@
+package com.unicorn.rest.repository.table;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Singleton;
+
+import com.unicorn.rest.repository.exception.ItemNotFoundException;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.StaleDataException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.PopularityCounts;
+
+@Singleton
+public interface PopularityCounterTable extends Table {
+
+    public static final String POPULARITY_COUNTER_TABLE_NAME = "POPULARITY_COUNTER_TABLE";
+
+    /**
+     * Atomically add the counts of the items to the counter of the restaurant starting at the landmark, which is shared by all the servers
+     *
+     * @param restaurantId @Nullable
+     * @param landmarkInEpoch @Nullable
+     * @param itemCounts item_id -> the count weighted up to the landmark @Nullable
+     * @throws ValidationException if request is invalid
+     * @throws RepositoryServerException internal server error
+     */
+    public void addItemCounts(@Nullable Long restaurantId, @Nullable Long landmarkInEpoch, @Nullable Map<Long, Double> itemCounts)
+            throws ValidationException, RepositoryServerException;
+
+    /**
+     * @param restaurantId @Nullable
+     * @param landmarkInEpoch @Nullable
+     * @return @Nonnull
+     * @throws ValidationException if request is invalid
+     * @throws ItemNotFoundException if the counter does not exist
+     * @throws RepositoryServerException internal server error
+     */
+    public @Nonnull PopularityCounts getPopularityCounts(@Nullable Long restaurantId, @Nullable Long landmarkInEpoch)
+            throws ValidationException, ItemNotFoundException, RepositoryServerException;
+
+    /**
+     * @return the counters of all the restaurants starting at any landmark @Nonnull
+     * @throws RepositoryServerException internal server error
+     */
+    public @Nonnull List<PopularityCounts> getPopularityCounts()
+            throws RepositoryServerException;
+
+    /**
+     * Store the popular items ranked at materializedInEpoch into the counter starting at the landmark, 
+     * only if no other server has stored its popular items since the counter was read
+     *
+     * @param restaurantId @Nullable
+     * @param landmarkInEpoch @Nullable
+     * @param expectedMaterializedInEpoch the time the popular items stored were ranked at as read, NULL if none was stored @Nullable
+     * @param materializedInEpoch @Nullable
+     * @param popularItemIds the items in descending order of popularity @Nullable
+     * @throws ValidationException if request is invalid
+     * @throws StaleDataException if other server has stored its popular items meanwhile
+     * @throws RepositoryServerException internal server error
+     */
+    public void putPopularItems(@Nullable Long restaurantId, @Nullable Long landmarkInEpoch, @Nullable Long expectedMaterializedInEpoch,
+            @Nullable Long materializedInEpoch, @Nullable List<Long> popularItemIds)
+            throws ValidationException, StaleDataException, RepositoryServerException;
+
+    /**
+     * @param restaurantId @Nullable
+     * @param landmarkInEpoch @Nullable
+     * @throws ValidationException if request is invalid
+     * @throws RepositoryServerException internal server error
+     */
+    public void deletePopularityCounts(@Nullable Long restaurantId, @Nullable Long landmarkInEpoch)
+            throws ValidationException, RepositoryServerException;
+}
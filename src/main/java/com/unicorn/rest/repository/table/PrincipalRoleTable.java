@@ -0,0 +1,48 @@
+package com.unicorn.rest.repository.table;
+
+import java.util.List;
+
+import javax.annotation.Nullable;
+import javax.inject.Singleton;
+
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.ValidationException;
+
+@Singleton
+public interface PrincipalRoleTable extends Table {
+
+    public static final String PRINCIPAL_ROLE_TABLE_NAME = "PRINCIPAL_ROLE_TABLE";
+
+    /**
+     * Grant roles or groups to principal, the roles already granted are ignored
+     * 
+     * @param principal @Nullable
+     * @param roles @Nullable
+     * @throws ValidationException if request is invalid
+     * @throws RepositoryServerException internal server error
+     */
+    public void grantRoles(@Nullable Long principal, @Nullable List<String> roles) 
+            throws ValidationException, RepositoryServerException;
+
+    /**
+     * Revoke roles or groups from principal, the roles not granted are ignored
+     * 
+     * @param principal @Nullable
+     * @param roles @Nullable
+     * @throws ValidationException if request is invalid
+     * @throws RepositoryServerException internal server error
+     */
+    public void revokeRoles(@Nullable Long principal, @Nullable List<String> roles) 
+            throws ValidationException, RepositoryServerException;
+
+    /**
+     * Get the roles and groups granted to principal directly, the groups are not expanded
+     * 
+     * @param principal @Nullable
+     * @return empty list if principal has no role @Nonnull
+     * @throws ValidationException if request is invalid
+     * @throws RepositoryServerException internal server error
+     */
+    public List<String> getRoles(@Nullable Long principal) 
+            throws ValidationException, RepositoryServerException;
+}
@@ -0,0 +1,26 @@
+package com.unicorn.rest.repository.table;
+
+import javax.annotation.Nullable;
+import javax.inject.Singleton;
+
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.ValidationException;
+
+@Singleton
+public interface RateLimitCounterTable extends Table {
+
+    public static final String RATE_LIMIT_COUNTER_TABLE_NAME = "RATE_LIMIT_COUNTER_TABLE";
+
+    /**
+     * Atomically increment the counter of the fixed window, which is shared by all the servers
+     * 
+     * @param counterKey @Nullable
+     * @param windowStartInEpoch @Nullable
+     * @param expireInEpoch @Nullable
+     * @return the count after increment
+     * @throws ValidationException if request is invalid
+     * @throws RepositoryServerException internal server error
+     */
+    public long incrementAndGetCount(@Nullable String counterKey, @Nullable Long windowStartInEpoch, @Nullable Long expireInEpoch)
+            throws ValidationException, RepositoryServerException;
+}
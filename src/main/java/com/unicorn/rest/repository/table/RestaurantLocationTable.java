@@ -0,0 +1,49 @@
+package com.unicorn.rest.repository.table;
+
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Singleton;
+
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.RestaurantLocation;
+
+@Singleton
+public interface RestaurantLocationTable extends Table {
+
+    public static final String RESTAURANT_LOCATION_TABLE_NAME = "RESTAURANT_LOCATION_TABLE";
+
+    /**
+     * Put the location of the restaurant into its geohash cell, overwriting the location in the same cell if any
+     *
+     * @param restaurantLocation @Nullable
+     * @throws ValidationException if request is invalid
+     * @throws RepositoryServerException internal server error
+     */
+    public void putRestaurantLocation(@Nullable RestaurantLocation restaurantLocation)
+            throws ValidationException, RepositoryServerException;
+
+    /**
+     * Delete the location of the restaurant from the geohash cell of the location only if it has not been updated since,
+     * which succeeds as well if it does not exist any more or has been updated
+     *
+     * @param restaurantLocation @Nullable
+     * @throws ValidationException if request is invalid
+     * @throws RepositoryServerException internal server error
+     */
+    public void deleteRestaurantLocation(@Nullable RestaurantLocation restaurantLocation)
+            throws ValidationException, RepositoryServerException;
+
+    /**
+     * Get the locations in all the cells with a paginated Scan, which is only meant for building the spatial index at startup.
+     *
+     * Note: The restaurant may be found in more than one cell if its move was interrupted, in which case the latest updated location wins
+     *
+     * @return @Nonnull
+     * @throws RepositoryServerException internal server error
+     */
+    public @Nonnull List<RestaurantLocation> getRestaurantLocations()
+            throws RepositoryServerException;
+}
@@ -0,0 +1,89 @@
+package com.unicorn.rest.repository.table;
+
+import java.util.Collection;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Singleton;
+
+import com.unicorn.rest.repository.exception.DuplicateKeyException;
+import com.unicorn.rest.repository.exception.ItemNotFoundException;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.Restaurant;
+
+@Singleton
+public interface RestaurantTable extends Table {
+
+    public static final String RESTAURANT_TABLE_NAME = "RESTAURANT_TABLE";
+
+    /**
+     * Create new restaurant only if the restaurant_id does not exist yet
+     * 
+     * @param restaurant @Nullable
+     * @throws ValidationException if request is invalid
+     * @throws DuplicateKeyException if the restaurant_id already exists
+     * @throws RepositoryServerException internal server error
+     */
+    public void createRestaurant(@Nullable Restaurant restaurant) 
+            throws ValidationException, DuplicateKeyException, RepositoryServerException;
+
+    /**
+     * @param restaurantId @Nullable
+     * @return @Nonnull
+     * @throws ValidationException if request is invalid
+     * @throws ItemNotFoundException if restaurant_id does not exist
+     * @throws RepositoryServerException internal server error
+     */
+    public @Nonnull Restaurant getRestaurant(@Nullable Long restaurantId) 
+            throws ValidationException, ItemNotFoundException, RepositoryServerException;
+
+    /**
+     * Get the restaurants with BatchGetItem, which takes one request for every MAX_BATCH_GET_ITEM_KEYS restaurants
+     * 
+     * @param restaurantIds @Nullable
+     * @return the restaurants found, in no particular order. The restaurant_id which does not exist is skipped @Nonnull
+     * @throws ValidationException if request is invalid
+     * @throws RepositoryServerException internal server error
+     */
+    public @Nonnull List<Restaurant> getRestaurants(@Nullable Collection<Long> restaurantIds) 
+            throws ValidationException, RepositoryServerException;
+
+    /**
+     * Get all restaurants owned by the principal with one paginated Query against the owner index.
+     * 
+     * Note: The owner index is eventually consistent, so the restaurant just created may not be listed immediately
+     * 
+     * @param ownerPrincipal @Nullable
+     * @return the restaurants in the ascending order of restaurant_id @Nonnull
+     * @throws ValidationException if request is invalid
+     * @throws RepositoryServerException internal server error
+     */
+    public @Nonnull List<Restaurant> getRestaurantsForOwner(@Nullable Long ownerPrincipal) 
+            throws ValidationException, RepositoryServerException;
+
+    /**
+     * Update the name and description of the restaurant only if it is owned by the owner principal of the restaurant provided
+     * 
+     * @param restaurant @Nullable
+     * @return the updated restaurant @Nonnull
+     * @throws ValidationException if request is invalid
+     * @throws ItemNotFoundException if restaurant_id does not exist or is not owned by the owner principal
+     * @throws RepositoryServerException internal server error
+     */
+    public @Nonnull Restaurant updateRestaurant(@Nullable Restaurant restaurant) 
+            throws ValidationException, ItemNotFoundException, RepositoryServerException;
+
+    /**
+     * Delete the restaurant only if it is owned by the owner principal
+     * 
+     * @param restaurantId @Nullable
+     * @param ownerPrincipal @Nullable
+     * @throws ValidationException if request is invalid
+     * @throws ItemNotFoundException if restaurant_id does not exist or is not owned by the owner principal
+     * @throws RepositoryServerException internal server error
+     */
+    public void deleteRestaurant(@Nullable Long restaurantId, @Nullable Long ownerPrincipal) 
+            throws ValidationException, ItemNotFoundException, RepositoryServerException;
+}
@@ -4,6 +4,7 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -22,6 +23,9 @@ import org.glassfish.jersey.server.ContainerFactory;
 import org.glassfish.jersey.server.ResourceConfig;
 
 import com.unicorn.rest.commons.ServiceConstants;
+import com.unicorn.rest.server.StartupPhaseTimer.StartupPhase;
+import com.unicorn.rest.server.admin.AdminServer;
+import com.unicorn.rest.server.injector.AdmissionControlBinder;
 import com.unicorn.rest.server.injector.RepositoryBinder;
 
 public class GrizzlyServerOrchestrator {
@@ -37,18 +41,72 @@ public class GrizzlyServerOrchestrator {
     protected static final String SERVER_TRUSTORE_FILE_PROPERTY = "SERVER_TRUSTORE_FILE";
     protected static final String SERVER_TRUSTORE_PASSWORD_PROPERTY = "SERVER_TRUSTORE_PASSWORD";
 
+    protected static final String RESOURCE_REGISTRATION_MODE_PROPERTY = "RESOURCE_REGISTRATION_MODE";
+
+    public enum ResourceRegistrationMode {
+        /**
+         * Register resources and providers listed in the resource index generated at build time 
+         */
+        INDEXED,
+        /**
+         * Let Jersey scan every class under ServiceConstants.ROOT_PACKAGE for resources and providers
+         */
+        SCANNING
+    }
+
+    protected static final String ADMIN_BASE_URL_PROPERTY = "ADMIN_BASE_URL";
+    protected static final String ADMIN_PORT_PROPERTY = "ADMIN_PORT";
+
+    private static final long WARM_UP_TIMEOUT_IN_SECONDS = 60;
+
     private static volatile boolean terminate = false;
 
     public static void main(String[] args) throws IOException {
 
         HttpServer grizzlyWebServer = null;
+        AdminServer adminServer = null;
         try {
             printWithTimestamp(" [INFO] Starting Grizzly Server...");
+            StartupPhaseTimer startupPhaseTimer = new StartupPhaseTimer();
 
             try {
-                ResourceConfig resourceConfig = createResourceConfig(new RepositoryBinder());
-                grizzlyWebServer = startGrizzlyWebServer(SERVER_PROPERTIES_FILE, resourceConfig);
-                printWithTimestamp(" [INFO] Grizzly Server Started");
+                /*
+                 * Start the admin listener first, so that liveness can be checked while the rest of the server is starting
+                 */
+                startStartupPhase(startupPhaseTimer, "start_admin_server");
+                adminServer = createAdminServer(SERVER_PROPERTIES_FILE);
+                if (adminServer != null) {
+                    adminServer.start();
+                }
+
+                startStartupPhase(startupPhaseTimer, "bind_repositories");
+                RepositoryBinder repositoryBinder = new RepositoryBinder(loadServerProperties(SERVER_PROPERTIES_FILE));
+                
+                /*
+                 * Warm up in background while Jersey builds the application model
+                 */
+                ServerWarmUp serverWarmUp = new ServerWarmUp(ServerWarmUp.WARM_UP_TABLE_NAMES, ServerWarmUp.DEFAULT_JIT_ITERATIONS);
+                serverWarmUp.start();
+                
+                startStartupPhase(startupPhaseTimer, "create_resource_config");
+                ResourceConfig resourceConfig = createResourceConfig(parseResourceRegistrationMode(SERVER_PROPERTIES_FILE), repositoryBinder);
+                
+                /*
+                 * Creating the container is where Jersey builds and validates the application model
+                 */
+                startStartupPhase(startupPhaseTimer, "create_grizzly_server");
+                grizzlyWebServer = createGrizzlyWebServer(SERVER_PROPERTIES_FILE, resourceConfig);
+                
+                startStartupPhase(startupPhaseTimer, "await_warm_up");
+                if (!serverWarmUp.awaitCompletion(WARM_UP_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS)) {
+                    printWithTimestamp(" [WARN] Server warm-up did not complete successfully, the first requests may be slow");
+                }
+                
+                startStartupPhase(startupPhaseTimer, "start_grizzly_server");
+                startGrizzlyWebServer(grizzlyWebServer);
+                completeStartupPhase(startupPhaseTimer);
+                ServerReadiness.markReady();
+                printWithTimestamp(String.format(" [INFO] Grizzly Server Started: %s", startupPhaseTimer.summarize()));
 
             } catch(IllegalArgumentException iae) {
                 printWithTimestamp(String.format(" [ERROR] %s", iae.getMessage()));
@@ -61,6 +119,7 @@ public class GrizzlyServerOrchestrator {
             Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
                 @Override
                 public void run() {
+                    ServerReadiness.markNotReady();
                     terminate = true;
                 }
             }, "GrizzlyServerOrchestrator-ShutdownHook"));
@@ -70,6 +129,7 @@ public class GrizzlyServerOrchestrator {
         } finally {
             printWithTimestamp(" [INFO] Stopping Grizzly Server...");
             shutdownGrizzlyWebServer(grizzlyWebServer);
+            AdminServer.shutdown(adminServer);
         }
     }
     
@@ -110,19 +170,83 @@ public class GrizzlyServerOrchestrator {
     }
     
     /**
+     * Create resource config with the resources and providers registered from the resource index generated at build time
      * @return ResourceConfig @Nonnull
      */
     protected static ResourceConfig createResourceConfig(AbstractBinder... abstractBinders) {
-        /*
-         * create a resource config that scans for JAX-RS resources and providers under ebServiceConstants.ROOT_PACKAGE
-         * Note: All the API and filter should under this ROOT_PACKAGE. Otherwise, we will get 404 Not Found and filters will not get triggered.
-         */
-        ResourceConfig resourceConfig = new ResourceConfig().packages(ServiceConstants.ROOT_PACKAGE).setApplicationName(ServiceConstants.APPLICATION_NAME);
+        return createResourceConfig(ResourceRegistrationMode.INDEXED, abstractBinders);
+    }
+
+    /**
+     * @param resourceRegistrationMode @Nonnull
+     * @return ResourceConfig @Nonnull
+     */
+    protected static ResourceConfig createResourceConfig(@Nonnull ResourceRegistrationMode resourceRegistrationMode, AbstractBinder... abstractBinders) {
+        ResourceConfig resourceConfig = new ResourceConfig().setApplicationName(ServiceConstants.APPLICATION_NAME);
+        
+        ResourceIndex resourceIndex = null;
+        if (ResourceRegistrationMode.INDEXED.equals(resourceRegistrationMode)) {
+            resourceIndex = ResourceIndex.load();
+            if (resourceIndex == null) {
+                printWithTimestamp(String.format(" [WARN] Resource index %s does not exist, falling back to package scanning", ResourceIndex.RESOURCE_INDEX_FILE));
+            }
+        }
+        
+        if (resourceIndex != null) {
+            resourceConfig.registerClasses(resourceIndex.getIndexedClasses());
+        } else {
+            /*
+             * create a resource config that scans for JAX-RS resources and providers under ServiceConstants.ROOT_PACKAGE
+             * Note: All the API and filter should under this ROOT_PACKAGE. Otherwise, we will get 404 Not Found and filters will not get triggered.
+             */
+            resourceConfig.packages(ServiceConstants.ROOT_PACKAGE);
+        }
+        resourceConfig.register(new AdmissionControlBinder());
         for (AbstractBinder abstractBinder : abstractBinders) {
             resourceConfig.register(abstractBinder);
         }
         return resourceConfig;
     }
+    
+    /**
+     * @param serverPropertyFile @Nullable
+     * @return @Nonnull
+     * @throws IllegalArgumentException if failed to get serverPropertyFile
+     * @throws RuntimeException if failed to load serverPropertyFile 
+     */
+    protected static PropertiesParser loadServerProperties(@Nullable String serverPropertyFile) {
+        if (StringUtils.isBlank(serverPropertyFile)) {
+            throw new IllegalArgumentException("Grizzly Server failed while attempting to get server property");
+        }
+        try {
+            return new PropertiesParser(serverPropertyFile);
+        } catch (IOException ioe) {
+            throw new RuntimeException( String.format("Grizzly Server failed while attempting to load %s", serverPropertyFile), ioe);
+        }
+    }
+
+    /**
+     * @param serverPropertyFile @Nullable
+     * @return ResourceRegistrationMode.INDEXED if the property is not provided @Nonnull
+     * @throws IllegalArgumentException if failed to get serverPropertyFile
+     *                                  if the resource registration mode is unrecognized
+     * @throws RuntimeException if failed to load serverPropertyFile 
+     */
+    protected static ResourceRegistrationMode parseResourceRegistrationMode(@Nullable String serverPropertyFile) {
+        if (StringUtils.isBlank(serverPropertyFile)) {
+            throw new IllegalArgumentException("Grizzly Server failed while attempting to get server property");
+        }
+        String resourceRegistrationMode = null;
+        try {
+            PropertiesParser serverPropertiesParser = new PropertiesParser(serverPropertyFile);
+            resourceRegistrationMode = serverPropertiesParser.getProperty(RESOURCE_REGISTRATION_MODE_PROPERTY, ResourceRegistrationMode.INDEXED.name());
+            return ResourceRegistrationMode.valueOf(resourceRegistrationMode.trim().toUpperCase());
+        } catch (IllegalArgumentException iae) {
+            throw new IllegalArgumentException(String.format("Grizzly Server failed while attempting to parse resource registration mode %s", resourceRegistrationMode));
+        } catch (IOException ioe) {
+            throw new RuntimeException( String.format("Grizzly Server failed while attempting to load %s", serverPropertyFile), ioe);
+        }
+    }
 
 
     /**
@@ -238,6 +362,44 @@ public class GrizzlyServerOrchestrator {
         }
     }
 
+    /**
+     * This method is protected for unit test.
+     * @param serverPropertyFile @Nullable
+     * @return NULL if the admin URI and port are not provided
+     * @throws IllegalArgumentException if failed to get serverPropertyFile 
+     *                                  if admin port is not an integer
+     * @throws RuntimeException if failed to load serverPropertyFile 
+     */
+    protected static AdminServer createAdminServer(@Nullable String serverPropertyFile) {
+        if (StringUtils.isBlank(serverPropertyFile)) {
+            throw new IllegalArgumentException("Grizzly Server failed while attempting to get server property");
+        }
+
+        try {
+            PropertiesParser serverPropertiesParser = new PropertiesParser(serverPropertyFile);
+            URI adminURI = buildGrizzlyServerURI(serverPropertiesParser, ADMIN_BASE_URL_PROPERTY, ADMIN_PORT_PROPERTY);
+            if (adminURI == null) {
+                printWithTimestamp(" [WARN] No admin URI and port provided, admin server is disabled");
+                return null;
+            }
+            return new AdminServer(adminURI.getHost(), adminURI.getPort());
+        } catch (IOException ioe) {
+            throw new RuntimeException( String.format("Grizzly Server failed while attempting to load %s", serverPropertyFile), ioe);
+        }
+    }
+
+    private static void startStartupPhase(@Nonnull StartupPhaseTimer startupPhaseTimer, @Nonnull String phaseName) {
+        completeStartupPhase(startupPhaseTimer);
+        startupPhaseTimer.startPhase(phaseName);
+    }
+
+    private static void completeStartupPhase(@Nonnull StartupPhaseTimer startupPhaseTimer) {
+        StartupPhase completedPhase = startupPhaseTimer.completePhase();
+        if (completedPhase != null) {
+            printWithTimestamp(String.format(" [INFO] Startup phase %s completed in %sms", completedPhase.getPhaseName(), completedPhase.getElapsedInMills()));
+        }
+    }
+
     private static void printWithTimestamp(String message) {
         System.out.println(new Date().toString() + message); 
     }
@@ -0,0 +1,78 @@
+package com.unicorn.rest.server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.unicorn.rest.commons.ServiceConstants;
+
+/**
+ * The resource index lists every JAX-RS resource and provider (activities, exception mappers,
+ * dynamic features and context resolvers) under ServiceConstants.ROOT_PACKAGE.
+ *
+ * The index file is generated at build time by ResourceIndexGenerator during the process-classes phase,
+ * so that the server can register these classes explicitly at startup instead of asking Jersey to scan
+ * every class under ServiceConstants.ROOT_PACKAGE.
+ */
+public class ResourceIndex {
+
+    public static final String RESOURCE_INDEX_FILE = "META-INF/unicorn/resource.index";
+    private static final String COMMENT_PREFIX = "#";
+
+    private final Set<Class<?>> indexedClasses;
+
+    private ResourceIndex(@Nonnull Set<Class<?>> indexedClasses) {
+        this.indexedClasses = Collections.unmodifiableSet(indexedClasses);
+    }
+
+    public @Nonnull Set<Class<?>> getIndexedClasses() {
+        return indexedClasses;
+    }
+
+    /**
+     * Load the resource index generated at build time from the class path
+     *
+     * @return NULL if the resource index file does not exist
+     * @throws IllegalStateException if the resource index file refers to class which does not exist
+     * @throws RuntimeException if failed to read the resource index file
+     */
+    public static @Nullable ResourceIndex load() {
+        return load(RESOURCE_INDEX_FILE);
+    }
+
+    /*
+     * This method is protected for unit test
+     */
+    protected static @Nullable ResourceIndex load(@Nonnull String resourceIndexFile) {
+        ClassLoader classLoader = ResourceIndex.class.getClassLoader();
+        InputStream resourceIndexInputStream = classLoader.getResourceAsStream(resourceIndexFile);
+        if (resourceIndexInputStream == null) {
+            return null;
+        }
+
+        Set<Class<?>> indexedClasses = new LinkedHashSet<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resourceIndexInputStream, ServiceConstants.UTF_8_CHARSET))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String className = line.trim();
+                if (className.isEmpty() || className.startsWith(COMMENT_PREFIX)) {
+                    continue;
+                }
+                indexedClasses.add(Class.forName(className, true, classLoader));
+            }
+        } catch (ClassNotFoundException error) {
+            throw new IllegalStateException(String.format("Resource index %s is stale, please rebuild the project: %s",
+                    resourceIndexFile, error.getMessage()), error);
+        } catch (IOException error) {
+            throw new RuntimeException(String.format("Failed while attempting to read resource index %s", resourceIndexFile), error);
+        }
+        return new ResourceIndex(indexedClasses);
+    }
+}
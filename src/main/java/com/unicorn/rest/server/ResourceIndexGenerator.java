@@ -0,0 +1,138 @@
+package com.unicorn.rest.server;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Modifier;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import javax.annotation.Nonnull;
+import javax.ws.rs.Path;
+import javax.ws.rs.ext.Provider;
+
+import com.unicorn.rest.commons.ServiceConstants;
+
+/**
+ * Generate the resource index at build time. This is executed by exec-maven-plugin during the
+ * process-classes phase with the build output directory as the only argument.
+ *
+ * It accepts the same classes ResourceConfig.packages(ServiceConstants.ROOT_PACKAGE) does, i.e. the public top level or static nested
+ * classes annotated with @Path or @Provider, so that the cost of scanning is paid once per build rather than once per server startup.
+ * The class path is walked here rather than through the scanner of Jersey, which is internal to Jersey and changes between versions.
+ */
+public class ResourceIndexGenerator {
+
+    private static final String CLASS_FILE_SUFFIX = ".class";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: ResourceIndexGenerator <build output directory>");
+        }
+        List<String> indexedClassNames = scanResourcesAndProviders(ServiceConstants.ROOT_PACKAGE);
+        File resourceIndexFile = new File(args[0], ResourceIndex.RESOURCE_INDEX_FILE);
+        writeResourceIndex(resourceIndexFile, indexedClassNames);
+        System.out.println(String.format("[INFO] Generated resource index %s with %s classes", resourceIndexFile, indexedClassNames.size()));
+    }
+
+    /**
+     * Scan for the JAX-RS resources and providers under the root package
+     *
+     * @param rootPackage @Nonnull
+     * @return class names sorted in alphabetical order @Nonnull
+     * @throws IOException if failed to read class files
+     */
+    public static @Nonnull List<String> scanResourcesAndProviders(@Nonnull String rootPackage) throws IOException {
+        ClassLoader classLoader = ResourceIndexGenerator.class.getClassLoader();
+        String packagePath = rootPackage.replace('.', '/');
+        TreeSet<String> classNames = new TreeSet<>();
+        Enumeration<URL> packageURLs = classLoader.getResources(packagePath);
+        while (packageURLs.hasMoreElements()) {
+            URL packageURL = packageURLs.nextElement();
+            if ("file".equals(packageURL.getProtocol())) {
+                try {
+                    collectClassNames(new File(packageURL.toURI()), rootPackage, classNames);
+                } catch (URISyntaxException error) {
+                    throw new IOException(String.format("Failed while attempting to scan %s", packageURL), error);
+                }
+            } else if ("jar".equals(packageURL.getProtocol())) {
+                try (JarFile jarFile = ((JarURLConnection) packageURL.openConnection()).getJarFile()) {
+                    collectClassNames(jarFile, packagePath, classNames);
+                }
+            } else {
+                throw new IOException(String.format("Failed while attempting to scan %s due to unsupported protocol", packageURL));
+            }
+        }
+
+        List<String> indexedClassNames = new ArrayList<>();
+        for (String className : classNames) {
+            Class<?> scannedClass;
+            try {
+                scannedClass = Class.forName(className, false, classLoader);
+            } catch (ClassNotFoundException error) {
+                throw new IOException(String.format("Failed while attempting to load scanned class %s", className), error);
+            }
+            if (isResourceOrProvider(scannedClass)) {
+                indexedClassNames.add(className);
+            }
+        }
+        Collections.sort(indexedClassNames);
+        return indexedClassNames;
+    }
+
+    private static boolean isResourceOrProvider(@Nonnull Class<?> scannedClass) {
+        if (!Modifier.isPublic(scannedClass.getModifiers()) || scannedClass.isAnonymousClass() || scannedClass.isLocalClass()
+                || (scannedClass.isMemberClass() && !Modifier.isStatic(scannedClass.getModifiers()))) {
+            return false;
+        }
+        return scannedClass.isAnnotationPresent(Path.class) || scannedClass.isAnnotationPresent(Provider.class);
+    }
+
+    private static void collectClassNames(@Nonnull File directory, @Nonnull String packageName, @Nonnull TreeSet<String> classNames) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.isDirectory()) {
+                collectClassNames(file, packageName + "." + file.getName(), classNames);
+            } else if (file.getName().endsWith(CLASS_FILE_SUFFIX)) {
+                classNames.add(packageName + "." + file.getName().substring(0, file.getName().length() - CLASS_FILE_SUFFIX.length()));
+            }
+        }
+    }
+
+    private static void collectClassNames(@Nonnull JarFile jarFile, @Nonnull String packagePath, @Nonnull TreeSet<String> classNames) {
+        Enumeration<JarEntry> jarEntries = jarFile.entries();
+        while (jarEntries.hasMoreElements()) {
+            String entryName = jarEntries.nextElement().getName();
+            if (entryName.startsWith(packagePath + "/") && entryName.endsWith(CLASS_FILE_SUFFIX)) {
+                classNames.add(entryName.substring(0, entryName.length() - CLASS_FILE_SUFFIX.length()).replace('/', '.'));
+            }
+        }
+    }
+
+    private static void writeResourceIndex(@Nonnull File resourceIndexFile, @Nonnull List<String> indexedClassNames) throws IOException {
+        File parent = resourceIndexFile.getParentFile();
+        if (!parent.exists() && !parent.mkdirs()) {
+            throw new IOException(String.format("Failed while attempting to create directory %s", parent));
+        }
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(resourceIndexFile), ServiceConstants.UTF_8_CHARSET)) {
+            writer.write("# Generated by ResourceIndexGenerator at build time. DO NOT EDIT.\n");
+            for (String indexedClassName : indexedClassNames) {
+                writer.write(indexedClassName);
+                writer.write('\n');
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.unicorn.rest.server;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The server is ready to take traffic only after the warm-up is done, and becomes not ready again once shutdown starts,
+ * so that the load balancer stops routing requests to the host before the listener is closed.
+ */
+public class ServerReadiness {
+
+    private static final AtomicBoolean ready = new AtomicBoolean(false);
+
+    public static boolean isReady() {
+        return ready.get();
+    }
+
+    public static void markReady() {
+        ready.set(true);
+    }
+
+    public static void markNotReady() {
+        ready.set(false);
+    }
+}
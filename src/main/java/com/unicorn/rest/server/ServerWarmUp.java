@@ -0,0 +1,186 @@
+package com.unicorn.rest.server;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.unicorn.rest.activity.model.TokenResponse;
+import com.unicorn.rest.repository.impl.dynamodb.DynamoDBDAO;
+import com.unicorn.rest.repository.model.AuthorizationToken;
+import com.unicorn.rest.repository.table.AccessControlPolicyTable;
+import com.unicorn.rest.repository.table.AuthorizationTokenTable;
+import com.unicorn.rest.repository.table.EmailAddressToPrincipalTable;
+import com.unicorn.rest.repository.table.MenuTable;
+import com.unicorn.rest.repository.table.MobilePhoneToPrincipalTable;
+import com.unicorn.rest.repository.table.NameToPrincipalTable;
+import com.unicorn.rest.repository.table.PrincipalRoleTable;
+import com.unicorn.rest.repository.table.RestaurantLocationTable;
+import com.unicorn.rest.repository.table.RestaurantTable;
+import com.unicorn.rest.repository.table.UserProfileTable;
+import com.unicorn.rest.server.filter.model.PrincipalType;
+import com.unicorn.rest.utils.AuthenticationSecretUtils;
+import com.unicorn.rest.utils.JSONObjectMapperImpl;
+
+/**
+ * Warm up the server before the listener accepts traffic, so that the first requests after deployment
+ * do not pay for the DynamoDB connection setup (TLS handshake included) and the cold JIT of the hot paths.
+ *
+ * All the warm-up tasks run in parallel. The warm-up is best effort: a failed task is logged
+ * and does not prevent the server from starting, since the request path will retry the same work anyway.
+ */
+public class ServerWarmUp {
+    private static final Logger LOG = LogManager.getLogger(ServerWarmUp.class);
+
+    /**
+     * The tables accessed by the request path
+     */
+    public static final List<String> WARM_UP_TABLE_NAMES = Collections.unmodifiableList(Arrays.asList(
+            AuthorizationTokenTable.AUTHORIZATION_TOKEN_TABLE_NAME, 
+            NameToPrincipalTable.NAME_TO_PRINCIPAL_TABLE_NAME, 
+            MobilePhoneToPrincipalTable.MOBILE_PHONE_TO_PRINCIPAL_TABLE_NAME, 
+            EmailAddressToPrincipalTable.EMAIL_ADDRESS_TO_PRINCIPAL_TABLE_NAME,
+            UserProfileTable.USER_PROFILE_TABLE_NAME,
+            AccessControlPolicyTable.ACCESS_CONTROL_POLICY_TABLE_NAME,
+            PrincipalRoleTable.PRINCIPAL_ROLE_TABLE_NAME,
+            RestaurantTable.RESTAURANT_TABLE_NAME,
+            MenuTable.MENU_TABLE_NAME,
+            RestaurantLocationTable.RESTAURANT_LOCATION_TABLE_NAME));
+    
+    /**
+     * Large enough for the hot methods to reach the C2 compile threshold
+     */
+    public static final int DEFAULT_JIT_ITERATIONS = 10000;
+    private static final String WARM_UP_SECRET = "warmUp1234";
+
+    private final List<String> tableNames;
+    private final int jitIterations;
+    private final ExecutorService warmUpExecutor;
+    private final List<WarmUpTask> warmUpTasks = new ArrayList<>();
+
+    public ServerWarmUp(@Nonnull List<String> tableNames, int jitIterations) {
+        this.tableNames = tableNames;
+        this.jitIterations = jitIterations;
+        this.warmUpExecutor = Executors.newFixedThreadPool(tableNames.size() + 2, new ThreadFactory() {
+            private final AtomicInteger threadCount = new AtomicInteger();
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "ServerWarmUp-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Start all the warm-up tasks in background
+     */
+    public void start() {
+        for (final String tableName : tableNames) {
+            /*
+             * Each describe table call runs on its own thread, so that every call opens its own pooled connection to DynamoDB
+             */
+            submit("describe_table_" + tableName, new Runnable() {
+                @Override
+                public void run() {
+                    DynamoDBDAO.get().getTableInformation(tableName);
+                }
+            });
+        }
+        submit("hash_secret", new Runnable() {
+            @Override
+            public void run() {
+                warmUpHashing();
+            }
+        });
+        submit("json_mapping", new Runnable() {
+            @Override
+            public void run() {
+                warmUpJSONMapping();
+            }
+        });
+        warmUpExecutor.shutdown();
+    }
+
+    /**
+     * Wait for all the warm-up tasks to complete. The tasks not completed within the timeout will be cancelled.
+     * 
+     * @param timeout
+     * @param timeUnit @Nonnull
+     * @return true if all the warm-up tasks succeeded
+     */
+    public boolean awaitCompletion(long timeout, @Nonnull TimeUnit timeUnit) {
+        long deadlineInNanos = System.nanoTime() + timeUnit.toNanos(timeout);
+        boolean succeeded = true;
+        for (WarmUpTask warmUpTask : warmUpTasks) {
+            try {
+                warmUpTask.future.get(Math.max(0, deadlineInNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException error) {
+                LOG.warn("Warm-up task {} did not complete in time", warmUpTask.taskName);
+                warmUpTask.future.cancel(true);
+                succeeded = false;
+            } catch (ExecutionException error) {
+                LOG.warn(String.format("Warm-up task %s failed", warmUpTask.taskName), error.getCause());
+                succeeded = false;
+            } catch (InterruptedException error) {
+                Thread.currentThread().interrupt();
+                warmUpExecutor.shutdownNow();
+                return false;
+            }
+        }
+        return succeeded;
+    }
+
+    private void submit(@Nonnull String taskName, @Nonnull Runnable task) {
+        warmUpTasks.add(new WarmUpTask(taskName, warmUpExecutor.submit(task)));
+    }
+
+    private void warmUpHashing() {
+        try {
+            ByteBuffer salt = AuthenticationSecretUtils.generateRandomSalt();
+            ByteBuffer hashedSecret = AuthenticationSecretUtils.generateHashedSecretWithSalt(WARM_UP_SECRET, salt);
+            for (int i = 0; i < jitIterations; i++) {
+                AuthenticationSecretUtils.authenticateSecret(WARM_UP_SECRET, hashedSecret, salt);
+            }
+        } catch (Exception error) {
+            throw new RuntimeException("Failed while attempting to warm up hashing", error);
+        }
+    }
+
+    private void warmUpJSONMapping() {
+        try {
+            ObjectMapper objectMapper = new JSONObjectMapperImpl().getContext(TokenResponse.class);
+            TokenResponse tokenResponse = new TokenResponse(AuthorizationToken.generateAccessToken(1L, PrincipalType.USER));
+            for (int i = 0; i < jitIterations; i++) {
+                objectMapper.readValue(objectMapper.writeValueAsBytes(tokenResponse), TokenResponse.class);
+            }
+        } catch (Exception error) {
+            throw new RuntimeException("Failed while attempting to warm up json mapping", error);
+        }
+    }
+
+    private static class WarmUpTask {
+        private final String taskName;
+        private final Future<?> future;
+
+        private WarmUpTask(@Nonnull String taskName, @Nonnull Future<?> future) {
+            this.taskName = taskName;
+            this.future = future;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.unicorn.rest.server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Time each startup phase of the server so that we can track the cold start latency per release.
+ *
+ * This class is not thread safe, since the startup phases are executed sequentially by the main thread.
+ */
+public class StartupPhaseTimer {
+
+    @EqualsAndHashCode
+    @ToString
+    @Getter
+    public static class StartupPhase {
+        @Nonnull private final String phaseName;
+        private final long elapsedInMills;
+
+        public StartupPhase(@Nonnull String phaseName, long elapsedInMills) {
+            this.phaseName = phaseName;
+            this.elapsedInMills = elapsedInMills;
+        }
+    }
+
+    private final long startInNanos = System.nanoTime();
+    private final List<StartupPhase> completedPhases = new ArrayList<>();
+
+    private String currentPhaseName;
+    private long currentPhaseStartInNanos;
+
+    /**
+     * Start timing a new phase. The phase being timed, if any, will be completed first.
+     * @param phaseName @Nonnull
+     */
+    public void startPhase(@Nonnull String phaseName) {
+        completePhase();
+        this.currentPhaseName = phaseName;
+        this.currentPhaseStartInNanos = System.nanoTime();
+    }
+
+    /**
+     * Complete the phase being timed
+     * @return the completed phase, NULL if there is no phase being timed
+     */
+    public StartupPhase completePhase() {
+        if (currentPhaseName == null) {
+            return null;
+        }
+        StartupPhase completedPhase = new StartupPhase(currentPhaseName,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - currentPhaseStartInNanos));
+        completedPhases.add(completedPhase);
+        currentPhaseName = null;
+        return completedPhase;
+    }
+
+    public @Nonnull List<StartupPhase> getCompletedPhases() {
+        return Collections.unmodifiableList(completedPhases);
+    }
+
+    public long getTotalElapsedInMills() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startInNanos);
+    }
+
+    /**
+     * @return one line summary of all the completed phases, e.g. "total=1234ms [create_resource_config=12ms, ...]"
+     */
+    public @Nonnull String summarize() {
+        StringBuilder summaryBuilder = new StringBuilder();
+        summaryBuilder.append("total=").append(getTotalElapsedInMills()).append("ms [");
+        for (int i = 0; i < completedPhases.size(); i++) {
+            if (i > 0) {
+                summaryBuilder.append(", ");
+            }
+            StartupPhase completedPhase = completedPhases.get(i);
+            summaryBuilder.append(completedPhase.getPhaseName()).append('=').append(completedPhase.getElapsedInMills()).append("ms");
+        }
+        return summaryBuilder.append(']').toString();
+    }
+}
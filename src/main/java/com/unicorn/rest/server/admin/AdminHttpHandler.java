@@ -0,0 +1,145 @@
+package com.unicorn.rest.server.admin;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response.Status;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.glassfish.grizzly.http.Method;
+import org.glassfish.grizzly.http.server.HttpHandler;
+import org.glassfish.grizzly.http.server.Request;
+import org.glassfish.grizzly.http.server.Response;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.unicorn.rest.commons.ServiceConstants;
+
+/**
+ * Serve the admin endpoints directly on Grizzly, without going through Jersey, so that they stay responsive 
+ * even when the Jersey worker pool is saturated. There is no security filter and the JSON is not root wrapped.
+ * The readiness is served by HealthCheckActivities on the listener taking traffic, which is the one the load balancer routes to.
+ * 
+ * GET /liveness   200 OK as long as the process is able to serve requests
+ * GET /metrics    JVM metrics and the metrics registered to AdminStatsRegistry
+ * GET /threads    thread dump 
+ * GET /caches     cache stats registered to AdminStatsRegistry
+ */
+public class AdminHttpHandler extends HttpHandler {
+    private static final Logger LOG = LogManager.getLogger(AdminHttpHandler.class);
+
+    public static final String LIVENESS_PATH = "/liveness";
+    public static final String METRICS_PATH = "/metrics";
+    public static final String THREADS_PATH = "/threads";
+    public static final String CACHES_PATH = "/caches";
+
+    private static final String JVM_METRICS = "jvm";
+    private static final int MAX_STACK_DEPTH = 64;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .configure(SerializationFeature.INDENT_OUTPUT, true)
+        .configure(SerializationFeature.WRAP_ROOT_VALUE, false);
+
+    @Override
+    public void service(Request request, Response response) throws Exception {
+        if (!Method.GET.equals(request.getMethod())) {
+            writeText(response, Status.METHOD_NOT_ALLOWED, Status.METHOD_NOT_ALLOWED.getReasonPhrase());
+            return;
+        }
+        
+        String path = request.getRequestURI();
+        try {
+            switch (path) {
+            case LIVENESS_PATH:
+                writeText(response, Status.OK, "LIVE");
+                break;
+            case METRICS_PATH:
+                Map<String, Object> metrics = new LinkedHashMap<>();
+                metrics.put(JVM_METRICS, getJVMMetrics());
+                metrics.putAll(AdminStatsRegistry.getMetricsSnapshot());
+                writeJSON(response, metrics);
+                break;
+            case THREADS_PATH:
+                writeText(response, Status.OK, dumpThreads());
+                break;
+            case CACHES_PATH:
+                writeJSON(response, AdminStatsRegistry.getCacheStatsSnapshot());
+                break;
+            default:
+                writeText(response, Status.NOT_FOUND, Status.NOT_FOUND.getReasonPhrase());
+            }
+        } catch (Exception error) {
+            LOG.error(String.format("Failed while attempting to serve admin request %s", path), error);
+            writeText(response, Status.INTERNAL_SERVER_ERROR, Status.INTERNAL_SERVER_ERROR.getReasonPhrase());
+        }
+    }
+
+    private static @Nonnull Map<String, Object> getJVMMetrics() {
+        Map<String, Object> jvmMetrics = new LinkedHashMap<>();
+        jvmMetrics.put("uptime_in_mills", ManagementFactory.getRuntimeMXBean().getUptime());
+        
+        MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+        MemoryUsage heapMemoryUsage = memoryMXBean.getHeapMemoryUsage();
+        jvmMetrics.put("heap_used_in_bytes", heapMemoryUsage.getUsed());
+        jvmMetrics.put("heap_committed_in_bytes", heapMemoryUsage.getCommitted());
+        jvmMetrics.put("heap_max_in_bytes", heapMemoryUsage.getMax());
+        jvmMetrics.put("non_heap_used_in_bytes", memoryMXBean.getNonHeapMemoryUsage().getUsed());
+
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        jvmMetrics.put("thread_count", threadMXBean.getThreadCount());
+        jvmMetrics.put("peak_thread_count", threadMXBean.getPeakThreadCount());
+        jvmMetrics.put("loaded_class_count", ManagementFactory.getClassLoadingMXBean().getLoadedClassCount());
+
+        for (GarbageCollectorMXBean garbageCollectorMXBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            String collectorName = garbageCollectorMXBean.getName().replace(' ', '_').toLowerCase();
+            jvmMetrics.put("gc_" + collectorName + "_count", garbageCollectorMXBean.getCollectionCount());
+            jvmMetrics.put("gc_" + collectorName + "_time_in_mills", garbageCollectorMXBean.getCollectionTime());
+        }
+        return jvmMetrics;
+    }
+
+    private static @Nonnull String dumpThreads() {
+        StringBuilder threadDumpBuilder = new StringBuilder();
+        for (ThreadInfo threadInfo : ManagementFactory.getThreadMXBean().dumpAllThreads(false, false)) {
+            threadDumpBuilder.append('"').append(threadInfo.getThreadName()).append("\" id=").append(threadInfo.getThreadId())
+                .append(' ').append(threadInfo.getThreadState());
+            if (threadInfo.getLockName() != null) {
+                threadDumpBuilder.append(" on ").append(threadInfo.getLockName());
+            }
+            if (threadInfo.getLockOwnerName() != null) {
+                threadDumpBuilder.append(" owned by \"").append(threadInfo.getLockOwnerName()).append('"');
+            }
+            threadDumpBuilder.append('\n');
+            StackTraceElement[] stackTrace = threadInfo.getStackTrace();
+            for (int i = 0; i < stackTrace.length && i < MAX_STACK_DEPTH; i++) {
+                threadDumpBuilder.append("\tat ").append(stackTrace[i]).append('\n');
+            }
+            threadDumpBuilder.append('\n');
+        }
+        return threadDumpBuilder.toString();
+    }
+
+    private void writeJSON(@Nonnull Response response, @Nonnull Object entity) throws IOException {
+        response.setStatus(Status.OK.getStatusCode());
+        response.setContentType(MediaType.APPLICATION_JSON);
+        response.setCharacterEncoding(ServiceConstants.UTF_8_CHARSET);
+        objectMapper.writeValue(response.getOutputStream(), entity);
+    }
+
+    private static void writeText(@Nonnull Response response, @Nonnull Status status, @Nonnull String text) throws IOException {
+        response.setStatus(status.getStatusCode());
+        response.setContentType(MediaType.TEXT_PLAIN);
+        response.setCharacterEncoding(ServiceConstants.UTF_8_CHARSET);
+        response.getWriter().write(text);
+    }
+}
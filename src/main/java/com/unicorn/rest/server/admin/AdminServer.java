@@ -0,0 +1,70 @@
+package com.unicorn.rest.server.admin;
+
+import java.io.IOException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.glassfish.grizzly.GrizzlyFuture;
+import org.glassfish.grizzly.http.server.HttpServer;
+import org.glassfish.grizzly.http.server.NetworkListener;
+import org.glassfish.grizzly.nio.transport.TCPNIOTransport;
+import org.glassfish.grizzly.threadpool.ThreadPoolConfig;
+
+/**
+ * The admin listener runs on its own port, with its own selector and worker threads, 
+ * so that health checks and diagnostics are not queued behind the requests on the shared worker pool.
+ */
+public class AdminServer {
+
+    private static final String ADMIN_LISTENER_NAME = "GRIZZLY-ADMIN";
+    private static final int ADMIN_WORKER_THREADS = 2;
+
+    private final HttpServer adminWebServer;
+
+    /**
+     * @param host @Nonnull
+     * @param port
+     */
+    public AdminServer(@Nonnull String host, int port) {
+        this.adminWebServer = new HttpServer();
+        
+        NetworkListener adminListener = new NetworkListener(ADMIN_LISTENER_NAME, host, port);
+        TCPNIOTransport adminTransport = adminListener.getTransport();
+        adminTransport.setSelectorRunnersCount(1);
+        adminTransport.setWorkerThreadPoolConfig(ThreadPoolConfig.defaultConfig()
+                .setPoolName(ADMIN_LISTENER_NAME + "-WORKER")
+                .setCorePoolSize(ADMIN_WORKER_THREADS)
+                .setMaxPoolSize(ADMIN_WORKER_THREADS));
+        
+        adminWebServer.addListener(adminListener);
+        adminWebServer.getServerConfiguration().addHttpHandler(new AdminHttpHandler(), "/");
+        adminWebServer.getServerConfiguration().setJmxEnabled(false);
+    }
+
+    /**
+     * @throws RuntimeException if failed to start the admin listener
+     */
+    public void start() {
+        try {
+            adminWebServer.start();
+        } catch (IOException ioe) {
+            adminWebServer.shutdownNow();
+            throw new RuntimeException("Admin Server failed while attempting to start", ioe);
+        }
+    }
+
+    /**
+     * @param adminServer @Nullable
+     */
+    public static void shutdown(@Nullable AdminServer adminServer) {
+        if (adminServer != null && adminServer.adminWebServer.isStarted()) {
+            GrizzlyFuture<HttpServer> future = adminServer.adminWebServer.shutdown();
+            while (!future.isDone()) {
+                try {
+                    Thread.sleep(500);
+                } catch (InterruptedException ignore){}
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.unicorn.rest.server.admin;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nonnull;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The registry of the stats served by the admin endpoints. 
+ * Metrics are served by /metrics, and cache stats are served by /caches.
+ */
+public class AdminStatsRegistry {
+    private static final Logger LOG = LogManager.getLogger(AdminStatsRegistry.class);
+
+    private static final String STATS_ERROR = "error";
+
+    private static final ConcurrentMap<String, StatsProvider> metricsProviders = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, StatsProvider> cacheStatsProviders = new ConcurrentHashMap<>();
+
+    /**
+     * Register the metrics provider with given name, the existing provider with the same name will be replaced
+     * @param name @Nonnull
+     * @param statsProvider @Nonnull
+     */
+    public static void registerMetrics(@Nonnull String name, @Nonnull StatsProvider statsProvider) {
+        metricsProviders.put(name, statsProvider);
+    }
+
+    /**
+     * Register the cache stats provider with given name, the existing provider with the same name will be replaced
+     * @param name @Nonnull
+     * @param statsProvider @Nonnull
+     */
+    public static void registerCacheStats(@Nonnull String name, @Nonnull StatsProvider statsProvider) {
+        cacheStatsProviders.put(name, statsProvider);
+    }
+
+    public static void unregister(@Nonnull String name) {
+        metricsProviders.remove(name);
+        cacheStatsProviders.remove(name);
+    }
+
+    /**
+     * @return metrics snapshot sorted by name @Nonnull
+     */
+    public static @Nonnull Map<String, Map<String, Object>> getMetricsSnapshot() {
+        return snapshot(metricsProviders);
+    }
+
+    /**
+     * @return cache stats snapshot sorted by name @Nonnull
+     */
+    public static @Nonnull Map<String, Map<String, Object>> getCacheStatsSnapshot() {
+        return snapshot(cacheStatsProviders);
+    }
+
+    private static @Nonnull Map<String, Map<String, Object>> snapshot(@Nonnull Map<String, StatsProvider> statsProviders) {
+        Map<String, Map<String, Object>> snapshot = new TreeMap<>();
+        for (Map.Entry<String, StatsProvider> statsProvider : statsProviders.entrySet()) {
+            try {
+                snapshot.put(statsProvider.getKey(), statsProvider.getValue().getStats());
+            } catch (Exception error) {
+                /*
+                 * One broken provider should not break the whole snapshot
+                 */
+                LOG.warn(String.format("Failed while attempting to get stats %s", statsProvider.getKey()), error);
+                Map<String, Object> errorStats = new TreeMap<>();
+                errorStats.put(STATS_ERROR, String.valueOf(error));
+                snapshot.put(statsProvider.getKey(), errorStats);
+            }
+        }
+        return snapshot;
+    }
+}
@@ -0,0 +1,17 @@
+package com.unicorn.rest.server.admin;
+
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Provide a point-in-time snapshot of the stats, e.g. cache size and hit rate, to the admin endpoints.
+ * The implementation should be cheap and must not block, since it is called by the admin threads.
+ */
+public interface StatsProvider {
+
+    /**
+     * @return @Nonnull
+     */
+    public @Nonnull Map<String, Object> getStats();
+}
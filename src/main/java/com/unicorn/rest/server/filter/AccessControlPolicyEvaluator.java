@@ -1,19 +1,254 @@
 package com.unicorn.rest.server.filter;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
+import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.unicorn.rest.repository.AccessControlPolicyRepository;
+import com.unicorn.rest.repository.exception.DuplicateKeyException;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.server.admin.StatsProvider;
 import com.unicorn.rest.server.filter.model.SubjectPrincipal;
+import com.unicorn.rest.server.filter.policy.CompiledPolicy;
+import com.unicorn.rest.server.filter.policy.ConditionParser;
+import com.unicorn.rest.server.filter.policy.PrincipalCondition;
+import com.unicorn.rest.utils.LRUCache;
+
+/**
+ * Evaluate the access control policies against the subject principal.
+ * 
+ * The allowing conditions are compiled once by ConditionParser, and the compiled policies are cached per (action, resourceIdentifier), 
+ * so that a permission check on the request path is two hash lookups plus the evaluation of the compiled conditions.
+ * 
+ * Both the compiled policies and the compiled conditions are bounded LRU caches, so a wide working set only evicts the coldest entries.
+ * The cached policies expire after the TTL, and the expired policy is removed once it is looked up again,
+ * so that the changes made through other servers are picked up. This is the only cache with TTL in front of the policies, 
+ * the repository preloads all of them and is refreshed in the background, so reloading the expired policy does not read the table. 
+ * The changes made through this server invalidate the cache directly. Every invalidation bumps the version of the cache, 
+ * and a policy loaded before the invalidation is not put into the cache, so that a slow load cannot bring back the stale policy.
+ * 
+ * Optionally the decisions are cached across requests by AuthorizationDecisionCache, which is invalidated together with the policies.
+ */
+public class AccessControlPolicyEvaluator implements StatsProvider {
+    private static final Logger LOG = LogManager.getLogger(AccessControlPolicyEvaluator.class);
+
+    public static final long DEFAULT_POLICY_TTL_IN_SECONDS = 30;
+    public static final int MAX_COMPILED_POLICIES_PER_ACTION = 50000;
+    private static final int MAX_COMPILED_CONDITIONS = 10000;
+    private static final PrincipalCondition[] NO_CONDITION = new PrincipalCondition[0];
+
+    private final AccessControlPolicyRepository accessControlPolicyRepository;
+    private final long policyTTLInNanos;
+    /*
+     * NULL if the decisions are not cached across requests
+     */
+    private final @Nullable AuthorizationDecisionCache authorizationDecisionCache;
 
-public class AccessControlPolicyEvaluator {
-    
-    public static boolean evaluate(@Nullable  SubjectPrincipal subjectPrincipal, @Nullable List<String> allowingConditions) {
-        
-        
-        
+    /*
+     * action -> resourceIdentifier -> compiled policy, nested so that the lookup does not allocate a composite key.
+     * The actions are the fixed set declared by @RequiresPermission, so only the policies of each action need a bound
+     */
+    private final ConcurrentMap<String, LRUCache<String, CompiledPolicy>> compiledPolicies = new ConcurrentHashMap<>();
+    /*
+     * The same condition is usually shared by many policies, e.g. "principal_type == CUSTOMER", so it is compiled only once
+     */
+    private final LRUCache<String, PrincipalCondition> compiledConditions = new LRUCache<>(MAX_COMPILED_CONDITIONS);
+    private final AtomicLong version = new AtomicLong();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder invalidConditionCount = new LongAdder();
+    private final LongAdder expiredCount = new LongAdder();
+
+    public AccessControlPolicyEvaluator(@Nonnull AccessControlPolicyRepository accessControlPolicyRepository) {
+        this(accessControlPolicyRepository, DEFAULT_POLICY_TTL_IN_SECONDS, TimeUnit.SECONDS, null);
+    }
+
+    public AccessControlPolicyEvaluator(@Nonnull AccessControlPolicyRepository accessControlPolicyRepository, long policyTTL, @Nonnull TimeUnit timeUnit) {
+        this(accessControlPolicyRepository, policyTTL, timeUnit, null);
+    }
+
+    public AccessControlPolicyEvaluator(@Nonnull AccessControlPolicyRepository accessControlPolicyRepository, long policyTTL, @Nonnull TimeUnit timeUnit,
+            @Nullable AuthorizationDecisionCache authorizationDecisionCache) {
+        this.accessControlPolicyRepository = accessControlPolicyRepository;
+        this.policyTTLInNanos = timeUnit.toNanos(policyTTL);
+        this.authorizationDecisionCache = authorizationDecisionCache;
+    }
+
+    /**
+     * Compile the allowing conditions and evaluate them without caching, the request path should use isPermitted
+     * 
+     * @param subjectPrincipal @Nullable
+     * @param allowingConditions @Nullable
+     * @return false if subjectPrincipal or allowingConditions is not provided 
+     * @throws ValidationException if any of allowing conditions is malformed
+     */
+    public static boolean evaluate(@Nullable SubjectPrincipal subjectPrincipal, @Nullable List<String> allowingConditions) throws ValidationException {
+        if (subjectPrincipal == null || allowingConditions == null) {
+            return false;
+        }
+        for (String allowingCondition : allowingConditions) {
+            if (ConditionParser.parse(allowingCondition).evaluate(subjectPrincipal)) {
+                return true;
+            }
+        }
         return false;
-        
     }
-    
+
+    /**
+     * @param subjectPrincipal @Nonnull
+     * @param action @Nullable
+     * @param resourceIdentifier @Nullable
+     * @return true if the subject principal is permitted to perform action on resource
+     * @throws ValidationException if request is invalid
+     * @throws RepositoryServerException internal server error
+     */
+    public boolean isPermitted(@Nonnull SubjectPrincipal subjectPrincipal, @Nullable String action, @Nullable String resourceIdentifier) 
+            throws ValidationException, RepositoryServerException {
+        if (action == null || resourceIdentifier == null) {
+            throw new ValidationException(String.format("Expecting non-null request paramter for isPermitted, but received: action=%s, resourceIdentifier=%s", 
+                    action, resourceIdentifier));
+        }
+        if (authorizationDecisionCache == null) {
+            return getCompiledPolicy(action, resourceIdentifier).isPermitted(subjectPrincipal);
+        }
+        Boolean cachedDecision = authorizationDecisionCache.getDecision(subjectPrincipal, action, resourceIdentifier);
+        if (cachedDecision != null) {
+            return cachedDecision;
+        }
+        long decisionVersion = authorizationDecisionCache.getVersion();
+        boolean permitted = getCompiledPolicy(action, resourceIdentifier).isPermitted(subjectPrincipal);
+        authorizationDecisionCache.putDecision(subjectPrincipal, action, resourceIdentifier, permitted, decisionVersion);
+        return permitted;
+    }
+
+    /**
+     * Invalidate the cached policy once it is changed
+     * @param action @Nonnull
+     * @param resourceIdentifier @Nonnull
+     */
+    public void invalidate(@Nonnull String action, @Nonnull String resourceIdentifier) {
+        version.incrementAndGet();
+        accessControlPolicyRepository.invalidateAccessControlPolicy(action, resourceIdentifier);
+        if (authorizationDecisionCache != null) {
+            authorizationDecisionCache.invalidate(action, resourceIdentifier);
+        }
+        LRUCache<String, CompiledPolicy> compiledPoliciesForAction = compiledPolicies.get(action);
+        if (compiledPoliciesForAction != null) {
+            compiledPoliciesForAction.remove(resourceIdentifier);
+        }
+    }
+
+    public void invalidateAll() {
+        version.incrementAndGet();
+        compiledPolicies.clear();
+        if (authorizationDecisionCache != null) {
+            authorizationDecisionCache.invalidateAll();
+        }
+    }
+
+    @Override
+    public @Nonnull Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        int size = 0;
+        long evictionCount = 0;
+        for (LRUCache<String, CompiledPolicy> compiledPoliciesForAction : compiledPolicies.values()) {
+            size += compiledPoliciesForAction.size();
+            evictionCount += compiledPoliciesForAction.getEvictionCount();
+        }
+        stats.put("size", size);
+        stats.put("eviction_count", evictionCount);
+        stats.put("expired_count", expiredCount.sum());
+        stats.put("compiled_conditions", compiledConditions.size());
+        stats.put("compiled_condition_eviction_count", compiledConditions.getEvictionCount());
+        stats.put("hit_count", hitCount.sum());
+        stats.put("miss_count", missCount.sum());
+        stats.put("invalid_condition_count", invalidConditionCount.sum());
+        stats.put("version", version.get());
+        return stats;
+    }
+
+    private @Nonnull CompiledPolicy getCompiledPolicy(@Nonnull String action, @Nonnull String resourceIdentifier) 
+            throws ValidationException, RepositoryServerException {
+        long nowInNanos = System.nanoTime();
+        LRUCache<String, CompiledPolicy> compiledPoliciesForAction = compiledPolicies.get(action);
+        if (compiledPoliciesForAction != null) {
+            CompiledPolicy compiledPolicy = compiledPoliciesForAction.get(resourceIdentifier);
+            if (compiledPolicy != null) {
+                if (!compiledPolicy.isExpired(nowInNanos)) {
+                    hitCount.increment();
+                    return compiledPolicy;
+                }
+                if (compiledPoliciesForAction.remove(resourceIdentifier, compiledPolicy)) {
+                    expiredCount.increment();
+                }
+            }
+        }
+        missCount.increment();
+
+        long loadVersion = version.get();
+        List<String> allowingConditions;
+        try {
+            allowingConditions = accessControlPolicyRepository.getAccessControlPolicy(action, resourceIdentifier);
+        } catch (DuplicateKeyException notFound) {
+            /*
+             * The repository signals the policy does not exist with DuplicateKeyException, which permits nobody
+             */
+            allowingConditions = null;
+        }
+        CompiledPolicy compiledPolicy = new CompiledPolicy(compileConditions(action, resourceIdentifier, allowingConditions), 
+                loadVersion, nowInNanos + policyTTLInNanos);
+
+        if (version.get() == loadVersion) {
+            if (compiledPoliciesForAction == null) {
+                compiledPoliciesForAction = new LRUCache<>(MAX_COMPILED_POLICIES_PER_ACTION);
+                LRUCache<String, CompiledPolicy> existing = compiledPolicies.putIfAbsent(action, compiledPoliciesForAction);
+                if (existing != null) {
+                    compiledPoliciesForAction = existing;
+                }
+            }
+            compiledPoliciesForAction.put(resourceIdentifier, compiledPolicy);
+        }
+        return compiledPolicy;
+    }
+
+    /**
+     * The malformed condition is dropped with error logged, so that one bad condition denies access instead of failing every request
+     */
+    private @Nonnull PrincipalCondition[] compileConditions(@Nonnull String action, @Nonnull String resourceIdentifier, 
+            @Nullable List<String> allowingConditions) {
+        if (allowingConditions == null || allowingConditions.isEmpty()) {
+            return NO_CONDITION;
+        }
+        List<PrincipalCondition> principalConditions = new ArrayList<>(allowingConditions.size());
+        for (String allowingCondition : allowingConditions) {
+            PrincipalCondition principalCondition = allowingCondition == null ? null : compiledConditions.get(allowingCondition);
+            if (principalCondition == null) {
+                try {
+                    principalCondition = ConditionParser.parse(allowingCondition);
+                } catch (ValidationException error) {
+                    invalidConditionCount.increment();
+                    LOG.error(String.format("Failed while attempting to compile allowing condition of action %s on resource %s", 
+                            action, resourceIdentifier), error);
+                    continue;
+                }
+                compiledConditions.put(allowingCondition, principalCondition);
+            }
+            principalConditions.add(principalCondition);
+        }
+        return principalConditions.toArray(new PrincipalCondition[principalConditions.size()]);
+    }
 }
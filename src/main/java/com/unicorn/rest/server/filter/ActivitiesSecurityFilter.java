@@ -3,7 +3,6 @@ package com.unicorn.rest.server.filter;
 import java.io.IOException;
 
 import javax.annotation.Nonnull;
-import javax.annotation.Nullable;
 import javax.annotation.Priority;
 import javax.inject.Inject;
 import javax.ws.rs.Priorities;
@@ -11,27 +10,26 @@ import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.container.ContainerRequestFilter;
 import javax.ws.rs.core.HttpHeaders;
 
-import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.glassfish.jersey.internal.util.Base64;
 
 import com.unicorn.rest.activities.exception.BadRequestException;
 import com.unicorn.rest.activities.exception.InternalServerErrorException;
 import com.unicorn.rest.activities.exception.MissingAuthorizationException;
 import com.unicorn.rest.activities.exception.UnrecognizedAuthorizationSchemeException;
 import com.unicorn.rest.activities.exception.UnrecognizedIdentityException;
-import com.unicorn.rest.repository.AccessControlPolicyRepository;
 import com.unicorn.rest.repository.AuthorizationTokenRepository;
 import com.unicorn.rest.repository.exception.ItemNotFoundException;
 import com.unicorn.rest.repository.exception.RepositoryServerException;
 import com.unicorn.rest.repository.exception.ValidationException;
 import com.unicorn.rest.repository.model.AuthorizationToken.AuthorizationTokenType;
+import com.unicorn.rest.server.filter.AuthorizationHeaderParser.AuthorizationCode;
 import com.unicorn.rest.server.filter.model.CustomerPrincipal;
 import com.unicorn.rest.server.filter.model.PrincipalType;
 import com.unicorn.rest.server.filter.model.SubjectPrincipal;
 import com.unicorn.rest.server.filter.model.PrincipalSecurityContext;
 import com.unicorn.rest.server.filter.model.UserPrincipal;
+import com.unicorn.rest.server.filter.role.PrincipalRoleResolver;
 
 @Priority(Priorities.AUTHENTICATION)
 public class ActivitiesSecurityFilter implements ContainerRequestFilter {
@@ -56,12 +54,15 @@ public class ActivitiesSecurityFilter implements ContainerRequestFilter {
 
     protected static final String AUTHORIZATION_CODE_SEPARATOR = ":";
     private AuthorizationTokenRepository tokenRepository;
-    private AccessControlPolicyRepository accessControlPolicyRepository;
+    private AccessControlPolicyEvaluator accessControlPolicyEvaluator;
+    private PrincipalRoleResolver principalRoleResolver;
 
     @Inject
-    public ActivitiesSecurityFilter(AuthorizationTokenRepository tokenRepository, AccessControlPolicyRepository accessControlPolicyRepository) {
+    public ActivitiesSecurityFilter(AuthorizationTokenRepository tokenRepository, AccessControlPolicyEvaluator accessControlPolicyEvaluator, 
+            PrincipalRoleResolver principalRoleResolver) {
         this.tokenRepository = tokenRepository;
-        this.accessControlPolicyRepository = accessControlPolicyRepository;
+        this.accessControlPolicyEvaluator = accessControlPolicyEvaluator;
+        this.principalRoleResolver = principalRoleResolver;
     }
     
     @Override
@@ -69,9 +70,9 @@ public class ActivitiesSecurityFilter implements ContainerRequestFilter {
             throws IOException {
         try {
             String authorizationHeader = requestContext.getHeaderString(HttpHeaders.AUTHORIZATION);
-            String[] authorizationCode = parseAuthorizationHeader(authorizationHeader);
+            AuthorizationCode authorizationCode = AuthorizationHeaderParser.parseBearerAuthorization(authorizationHeader);
             SubjectPrincipal subjectPrincipal = authenticate(authorizationCode);
-            requestContext.setSecurityContext(new PrincipalSecurityContext(subjectPrincipal, accessControlPolicyRepository));
+            requestContext.setSecurityContext(new PrincipalSecurityContext(subjectPrincipal, accessControlPolicyEvaluator, principalRoleResolver));
             
         } catch (MissingAuthorizationException | UnrecognizedIdentityException | UnrecognizedAuthorizationSchemeException error) {
             LOG.info(String.format("Failed while attempting to fulfill authorization due to %s: ", BadRequestException.BAD_REQUEST), error);
@@ -82,32 +83,11 @@ public class ActivitiesSecurityFilter implements ContainerRequestFilter {
         }
     }
 
-    private String[] parseAuthorizationHeader(@Nullable String authorizationHeader) 
-            throws MissingAuthorizationException, UnrecognizedAuthorizationSchemeException {
-        if (StringUtils.isBlank(authorizationHeader)) {
-            throw new MissingAuthorizationException();
-        }
-        
-        if (!authorizationHeader.startsWith(AuthorizationScheme.BEARER_AUTHENTICATION.toString())) {
-            throw new UnrecognizedAuthorizationSchemeException();
-        }
-        String authorizationCode = authorizationHeader.replaceFirst(AuthorizationScheme.BEARER_AUTHENTICATION.toString(), "");
-        String[] authorization = Base64.decodeAsString(authorizationCode).split(AUTHORIZATION_CODE_SEPARATOR);
-       
-        if (authorization.length != 2 || StringUtils.isBlank(authorization[0]) || StringUtils.isBlank(authorization[1])) {
-            throw new MissingAuthorizationException();
-        }
-        
-        return authorization;
-    }
-
-    private SubjectPrincipal authenticate(@Nonnull String[] authorizationCode) 
+    private SubjectPrincipal authenticate(@Nonnull AuthorizationCode authorizationCode) 
             throws MissingAuthorizationException, UnrecognizedIdentityException, RepositoryServerException {
         try {
-            Long principal = Long.parseLong(authorizationCode[0]);
-            String token = authorizationCode[1];
-            
-            PrincipalType principalType = tokenRepository.findToken(AuthorizationTokenType.ACCESS_TOKEN, token, principal).getPrincipalType();
+            Long principal = authorizationCode.getPrincipal();
+            PrincipalType principalType = tokenRepository.findToken(AuthorizationTokenType.ACCESS_TOKEN, authorizationCode.getToken(), principal).getPrincipalType();
             
             if (PrincipalType.CUSTOMER.equals(principalType)) {
                 return new CustomerPrincipal(principal, AuthorizationScheme.BEARER_AUTHENTICATION);
@@ -118,7 +98,7 @@ public class ActivitiesSecurityFilter implements ContainerRequestFilter {
             
         } catch (ValidationException error) {
             throw new MissingAuthorizationException();
-        } catch (NumberFormatException | ItemNotFoundException error) {
+        } catch (ItemNotFoundException error) {
             throw new UnrecognizedIdentityException();
         }
     }
@@ -0,0 +1,57 @@
+package com.unicorn.rest.server.filter;
+
+import javax.inject.Inject;
+import javax.ws.rs.ext.Provider;
+
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.monitoring.ApplicationEvent;
+import org.glassfish.jersey.server.monitoring.ApplicationEventListener;
+import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.server.monitoring.RequestEventListener;
+
+import com.unicorn.rest.server.limiter.AdaptiveConcurrencyLimiter;
+import com.unicorn.rest.server.limiter.AdaptiveConcurrencyLimiter.Permit;
+
+/**
+ * Release the permit acquired by AdmissionControlFilter once the request is finished. 
+ * Unlike response filters, the FINISHED event is fired for every request, including the ones failed with unmapped exception, 
+ * so the permits never leak.
+ */
+@Provider
+public class AdmissionControlEventListener implements ApplicationEventListener {
+
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final RequestEventListener permitReleasingListener = new RequestEventListener() {
+        @Override
+        public void onEvent(RequestEvent event) {
+            if (event.getType() != RequestEvent.Type.FINISHED) {
+                return;
+            }
+            Object permit = event.getContainerRequest().getProperty(AdmissionControlFilter.ADMISSION_PERMIT_PROPERTY);
+            if (permit instanceof Permit) {
+                concurrencyLimiter.release((Permit) permit, isServerError(event));
+            }
+        }
+    };
+
+    @Inject
+    public AdmissionControlEventListener(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    @Override
+    public void onEvent(ApplicationEvent event) {}
+
+    @Override
+    public RequestEventListener onRequest(RequestEvent requestEvent) {
+        return permitReleasingListener;
+    }
+
+    private static boolean isServerError(RequestEvent event) {
+        if (!event.isSuccess()) {
+            return true;
+        }
+        ContainerResponse containerResponse = event.getContainerResponse();
+        return containerResponse != null && containerResponse.getStatus() >= 500;
+    }
+}
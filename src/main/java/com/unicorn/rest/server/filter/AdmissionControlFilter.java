@@ -0,0 +1,76 @@
+package com.unicorn.rest.server.filter;
+
+import java.io.IOException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Priority;
+import javax.inject.Inject;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.PreMatching;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.ext.Provider;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.unicorn.rest.activities.exception.ServiceUnavailableException;
+import com.unicorn.rest.server.limiter.AdaptiveConcurrencyLimiter;
+import com.unicorn.rest.server.limiter.AdaptiveConcurrencyLimiter.Permit;
+import com.unicorn.rest.server.limiter.AdmissionPriority;
+
+/**
+ * Admission control runs before resource matching and authentication, so that a shed request costs as little as possible.
+ * The permit is released by AdmissionControlEventListener once the request is finished.
+ */
+@Provider
+@PreMatching
+@Priority(Priorities.AUTHENTICATION - 500)
+public class AdmissionControlFilter implements ContainerRequestFilter {
+    private static final Logger LOG = LogManager.getLogger(AdmissionControlFilter.class);
+
+    public static final String ADMISSION_PERMIT_PROPERTY = AdmissionControlFilter.class.getName() + ".permit";
+    public static final int RETRY_AFTER_IN_SECONDS = 1;
+
+    private static final String TOKEN_PATH = "v1/tokens";
+    private static final String HEALTH_PATH = "v1/health";
+
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Inject
+    public AdmissionControlFilter(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+        AdmissionPriority priority = classifyRequest(requestContext);
+        Permit permit = concurrencyLimiter.tryAcquire(priority);
+        if (permit == null) {
+            LOG.info("Request {} {} with priority {} is shed by admission control", 
+                    requestContext.getMethod(), requestContext.getUriInfo().getPath(), priority);
+            throw new ServiceUnavailableException(RETRY_AFTER_IN_SECONDS);
+        }
+        requestContext.setProperty(ADMISSION_PERMIT_PROPERTY, permit);
+    }
+
+    /**
+     * This method is protected for unit test
+     * @param requestContext @Nonnull
+     * @return @Nonnull
+     */
+    protected static @Nonnull AdmissionPriority classifyRequest(@Nonnull ContainerRequestContext requestContext) {
+        String path = requestContext.getUriInfo().getPath();
+        if (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+        if (path.startsWith(TOKEN_PATH) || path.startsWith(HEALTH_PATH)) {
+            return AdmissionPriority.TOKEN;
+        }
+        if (requestContext.getHeaderString(HttpHeaders.AUTHORIZATION) != null) {
+            return AdmissionPriority.AUTHENTICATED;
+        }
+        return AdmissionPriority.REGISTRATION;
+    }
+}
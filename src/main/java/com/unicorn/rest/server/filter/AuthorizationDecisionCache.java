@@ -0,0 +1,202 @@
+package com.unicorn.rest.server.filter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.unicorn.rest.server.admin.StatsProvider;
+import com.unicorn.rest.server.filter.ActivitiesSecurityFilter.AuthorizationScheme;
+import com.unicorn.rest.server.filter.model.PrincipalType;
+import com.unicorn.rest.server.filter.model.SubjectPrincipal;
+import com.unicorn.rest.utils.LRUCache;
+
+/**
+ * Short-lived cache of the authorization decisions across requests, keyed by the subject principal and then the permission.
+ *
+ * The principals are held in a bounded LRU cache, and each principal keeps its few latest decisions in a fixed size array,
+ * so that the lookup on the request path reuses the principal and the permission of the request without allocating any key.
+ * The decision is kept much shorter than the compiled policy since it is cached per principal.
+ *
+ * The change of a policy only removes the decisions on that permission, and the change of a principal only removes the decisions of that principal.
+ */
+public class AuthorizationDecisionCache implements StatsProvider {
+
+    public static final long DEFAULT_DECISION_TTL_IN_MILLS = 5000;
+    public static final int DEFAULT_MAX_PRINCIPALS = 100000;
+    /*
+     * A request checks a handful of permissions, so a principal rarely needs more decisions than this within the TTL
+     */
+    public static final int MAX_DECISIONS_PER_PRINCIPAL = 8;
+
+    private static class CachedDecision {
+        private final String action;
+        private final String resourceIdentifier;
+        private final boolean permitted;
+        private final long expireAtInNanos;
+
+        private CachedDecision(@Nonnull String action, @Nonnull String resourceIdentifier, boolean permitted, long expireAtInNanos) {
+            this.action = action;
+            this.resourceIdentifier = resourceIdentifier;
+            this.permitted = permitted;
+            this.expireAtInNanos = expireAtInNanos;
+        }
+
+        private boolean isFor(@Nonnull String action, @Nonnull String resourceIdentifier) {
+            return this.action.equals(action) && this.resourceIdentifier.equals(resourceIdentifier);
+        }
+    }
+
+    /*
+     * The principal type and the authentication scheme are part of the subject as well,
+     * the decisions made for the same principal under different ones are never shared
+     */
+    private static class PrincipalDecisions {
+        private final PrincipalType principalType;
+        private final AuthorizationScheme authenticationScheme;
+        private final CachedDecision[] cachedDecisions = new CachedDecision[MAX_DECISIONS_PER_PRINCIPAL];
+
+        private PrincipalDecisions(@Nonnull SubjectPrincipal subjectPrincipal) {
+            this.principalType = subjectPrincipal.getPrincipalType();
+            this.authenticationScheme = subjectPrincipal.getAuthenticationScheme();
+        }
+
+        private boolean isFor(@Nonnull SubjectPrincipal subjectPrincipal) {
+            return principalType == subjectPrincipal.getPrincipalType() && authenticationScheme == subjectPrincipal.getAuthenticationScheme();
+        }
+
+        private synchronized @Nullable CachedDecision get(@Nonnull String action, @Nonnull String resourceIdentifier) {
+            for (CachedDecision cachedDecision : cachedDecisions) {
+                if (cachedDecision != null && cachedDecision.isFor(action, resourceIdentifier)) {
+                    return cachedDecision;
+                }
+            }
+            return null;
+        }
+
+        /*
+         * The decisions share the same TTL, so the one expiring first is also the oldest and is replaced once the array is full
+         */
+        private synchronized void put(@Nonnull CachedDecision newDecision) {
+            int replacedIndex = 0;
+            for (int i = 0; i < cachedDecisions.length; i++) {
+                CachedDecision cachedDecision = cachedDecisions[i];
+                if (cachedDecision == null || cachedDecision.isFor(newDecision.action, newDecision.resourceIdentifier)) {
+                    replacedIndex = i;
+                    break;
+                }
+                if (cachedDecision.expireAtInNanos - cachedDecisions[replacedIndex].expireAtInNanos < 0) {
+                    replacedIndex = i;
+                }
+            }
+            cachedDecisions[replacedIndex] = newDecision;
+        }
+
+        private synchronized void remove(@Nonnull String action, @Nonnull String resourceIdentifier) {
+            for (int i = 0; i < cachedDecisions.length; i++) {
+                if (cachedDecisions[i] != null && cachedDecisions[i].isFor(action, resourceIdentifier)) {
+                    cachedDecisions[i] = null;
+                    return;
+                }
+            }
+        }
+    }
+
+    private final long decisionTTLInNanos;
+
+    private final LRUCache<Long, PrincipalDecisions> cachedDecisions;
+    private final AtomicLong version = new AtomicLong();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    public AuthorizationDecisionCache() {
+        this(DEFAULT_DECISION_TTL_IN_MILLS, TimeUnit.MILLISECONDS, DEFAULT_MAX_PRINCIPALS);
+    }
+
+    public AuthorizationDecisionCache(long decisionTTL, @Nonnull TimeUnit timeUnit, int maxPrincipals) {
+        this.decisionTTLInNanos = timeUnit.toNanos(decisionTTL);
+        this.cachedDecisions = new LRUCache<>(maxPrincipals);
+    }
+
+    /**
+     * @return NULL if the decision is not cached or already expired
+     */
+    public @Nullable Boolean getDecision(@Nonnull SubjectPrincipal subjectPrincipal, @Nonnull String action, @Nonnull String resourceIdentifier) {
+        PrincipalDecisions principalDecisions = cachedDecisions.get(subjectPrincipal.getPrincipal());
+        CachedDecision cachedDecision = principalDecisions == null || !principalDecisions.isFor(subjectPrincipal) ?
+                null : principalDecisions.get(action, resourceIdentifier);
+        if (cachedDecision == null || cachedDecision.expireAtInNanos - System.nanoTime() < 0) {
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        return cachedDecision.permitted;
+    }
+
+    /**
+     * The version must be taken by getVersion before the decision is made, the decision made before any invalidation is dropped
+     */
+    public void putDecision(@Nonnull SubjectPrincipal subjectPrincipal, @Nonnull String action, @Nonnull String resourceIdentifier,
+            boolean permitted, long decisionVersion) {
+        if (version.get() != decisionVersion) {
+            return;
+        }
+        PrincipalDecisions principalDecisions = cachedDecisions.get(subjectPrincipal.getPrincipal());
+        if (principalDecisions == null || !principalDecisions.isFor(subjectPrincipal)) {
+            principalDecisions = new PrincipalDecisions(subjectPrincipal);
+            cachedDecisions.put(subjectPrincipal.getPrincipal(), principalDecisions);
+        }
+        principalDecisions.put(new CachedDecision(action, resourceIdentifier, permitted, System.nanoTime() + decisionTTLInNanos));
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Remove the decisions on the permission of every principal once its policy is changed,
+     * which walks all the principals and is meant for the rare policy changes rather than the request path
+     */
+    public void invalidate(@Nonnull final String action, @Nonnull final String resourceIdentifier) {
+        version.incrementAndGet();
+        cachedDecisions.forEach(new BiConsumer<Long, PrincipalDecisions>() {
+            @Override
+            public void accept(Long principal, PrincipalDecisions principalDecisions) {
+                principalDecisions.remove(action, resourceIdentifier);
+            }
+        });
+    }
+
+    /**
+     * Remove all the decisions of the principal once its roles or identity are changed
+     */
+    public void invalidatePrincipal(@Nonnull Long principal) {
+        version.incrementAndGet();
+        cachedDecisions.remove(principal);
+    }
+
+    public void invalidateAll() {
+        version.incrementAndGet();
+        cachedDecisions.clear();
+    }
+
+    @Override
+    public @Nonnull Map<String, Object> getStats() {
+        long hits = hitCount.sum();
+        long misses = missCount.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", cachedDecisions.size());
+        stats.put("hit_count", hits);
+        stats.put("miss_count", misses);
+        stats.put("hit_rate", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        stats.put("eviction_count", cachedDecisions.getEvictionCount());
+        stats.put("version", version.get());
+        return stats;
+    }
+}
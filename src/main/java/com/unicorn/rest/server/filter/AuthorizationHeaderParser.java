@@ -0,0 +1,160 @@
+package com.unicorn.rest.server.filter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import lombok.Getter;
+
+import com.unicorn.rest.activities.exception.MissingAuthorizationException;
+import com.unicorn.rest.activities.exception.UnrecognizedAuthorizationSchemeException;
+import com.unicorn.rest.activities.exception.UnrecognizedIdentityException;
+import com.unicorn.rest.server.filter.ActivitiesSecurityFilter.AuthorizationScheme;
+
+/**
+ * Parse the bearer authorization header "Bearer base64(principal:token)" on the request path.
+ *
+ * The Base64 payload is decoded into a thread local buffer, and the principal digits and the separator are handled
+ * while decoding, so that neither regex nor intermediate string is involved, and only the token string is allocated.
+ * It is equivalent to Base64.decodeAsString(header.replaceFirst("Bearer ", "")).split(":") followed by Long.parseLong,
+ * except that the malformed Base64 payload is rejected rather than decoded leniently.
+ */
+public class AuthorizationHeaderParser {
+
+    @Getter
+    public static class AuthorizationCode {
+        private final long principal;
+        private final @Nonnull String token;
+
+        private AuthorizationCode(long principal, @Nonnull String token) {
+            this.principal = principal;
+            this.token = token;
+        }
+    }
+
+    /*
+     * The access token is far shorter than this, the longer header is rejected before decoding
+     */
+    protected static final int MAX_ENCODED_LENGTH = 512;
+
+    private static final String BEARER_PREFIX = AuthorizationScheme.BEARER_AUTHENTICATION.toString();
+    private static final byte SEPARATOR = ':';
+    private static final char PADDING = '=';
+    private static final byte[] DECODING_TABLE = new byte[128];
+    static {
+        Arrays.fill(DECODING_TABLE, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        for (int i = 0; i < alphabet.length(); i++) {
+            DECODING_TABLE[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    private static final ThreadLocal<byte[]> DECODING_BUFFER = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[MAX_ENCODED_LENGTH / 4 * 3];
+        }
+    };
+
+    /**
+     * @param authorizationHeader @Nullable
+     * @return @Nonnull
+     * @throws MissingAuthorizationException if authorization header is blank or malformed
+     * @throws UnrecognizedAuthorizationSchemeException if authorization scheme is not bearer
+     * @throws UnrecognizedIdentityException if principal is not a number
+     */
+    public static @Nonnull AuthorizationCode parseBearerAuthorization(@Nullable String authorizationHeader)
+            throws MissingAuthorizationException, UnrecognizedAuthorizationSchemeException, UnrecognizedIdentityException {
+        if (authorizationHeader == null || isBlank(authorizationHeader, 0, authorizationHeader.length())) {
+            throw new MissingAuthorizationException();
+        }
+        if (!authorizationHeader.startsWith(BEARER_PREFIX)) {
+            throw new UnrecognizedAuthorizationSchemeException();
+        }
+        int start = BEARER_PREFIX.length();
+        int end = authorizationHeader.length();
+        while (end > start && Character.isWhitespace(authorizationHeader.charAt(end - 1))) {
+            end--;
+        }
+        int encodedLength = end - start;
+        if (encodedLength == 0 || encodedLength > MAX_ENCODED_LENGTH || encodedLength % 4 != 0) {
+            throw new MissingAuthorizationException();
+        }
+
+        byte[] buffer = DECODING_BUFFER.get();
+        int decodedLength = 0;
+        int separatorIndex = -1;
+        long principal = 0;
+        boolean validPrincipal = true;
+
+        for (int i = start; i < end; i += 4) {
+            int numOfBytes = 3;
+            if (i + 4 == end && authorizationHeader.charAt(i + 3) == PADDING) {
+                numOfBytes = authorizationHeader.charAt(i + 2) == PADDING ? 1 : 2;
+            }
+            int group = (decode(authorizationHeader.charAt(i)) << 18) | (decode(authorizationHeader.charAt(i + 1)) << 12);
+            if (numOfBytes > 1) {
+                group |= decode(authorizationHeader.charAt(i + 2)) << 6;
+            }
+            if (numOfBytes > 2) {
+                group |= decode(authorizationHeader.charAt(i + 3));
+            }
+
+            for (int k = 0; k < numOfBytes; k++) {
+                byte decoded = (byte) (group >> (16 - 8 * k));
+                if (decoded == SEPARATOR) {
+                    if (separatorIndex >= 0) {
+                        // more than two parts
+                        throw new MissingAuthorizationException();
+                    }
+                    separatorIndex = decodedLength;
+                } else if (separatorIndex < 0 && validPrincipal) {
+                    int digit = decoded - '0';
+                    if (digit < 0 || digit > 9 || principal > (Long.MAX_VALUE - digit) / 10) {
+                        validPrincipal = false;
+                    } else {
+                        principal = principal * 10 + digit;
+                    }
+                }
+                buffer[decodedLength++] = decoded;
+            }
+        }
+
+        if (separatorIndex < 0 || isBlank(buffer, 0, separatorIndex) || isBlank(buffer, separatorIndex + 1, decodedLength)) {
+            throw new MissingAuthorizationException();
+        }
+        if (!validPrincipal) {
+            throw new UnrecognizedIdentityException();
+        }
+        return new AuthorizationCode(principal,
+                new String(buffer, separatorIndex + 1, decodedLength - separatorIndex - 1, StandardCharsets.UTF_8));
+    }
+
+    private static int decode(char encoded) throws MissingAuthorizationException {
+        int decoded = encoded < DECODING_TABLE.length ? DECODING_TABLE[encoded] : -1;
+        if (decoded < 0) {
+            throw new MissingAuthorizationException();
+        }
+        return decoded;
+    }
+
+    private static boolean isBlank(@Nonnull String str, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(str.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isBlank(@Nonnull byte[] bytes, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(bytes[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,53 @@
+package com.unicorn.rest.server.filter;
+
+import java.io.IOException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Priority;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.core.SecurityContext;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.unicorn.rest.activities.exception.AccessDeniedException;
+import com.unicorn.rest.server.filter.dynamic.SecurityRoute;
+import com.unicorn.rest.server.filter.model.PrincipalSecurityContext;
+
+/**
+ * Check the permission required by the resource method after ActivitiesSecurityFilter has authenticated the request.
+ * 
+ * One instance is registered per resource method by ActivitiesSecurityDynamicFeature with the security route resolved at startup, 
+ * so that nothing is looked up reflectively per request.
+ */
+@Priority(Priorities.AUTHORIZATION)
+public class PermissionCheckFilter implements ContainerRequestFilter {
+    private static final Logger LOG = LogManager.getLogger(PermissionCheckFilter.class);
+
+    private final SecurityRoute securityRoute;
+
+    public PermissionCheckFilter(@Nonnull SecurityRoute securityRoute) {
+        this.securityRoute = securityRoute;
+    }
+
+    /**
+     * @throws AccessDeniedException if the subject principal is not permitted, or the required resource cannot be resolved
+     * @throws InternalServerErrorException if the policy cannot be loaded
+     */
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+        SecurityContext securityContext = requestContext.getSecurityContext();
+        if (!(securityContext instanceof PrincipalSecurityContext)) {
+            LOG.warn("Request {} {} requiring {} is not authenticated", requestContext.getMethod(), requestContext.getUriInfo().getPath(), securityRoute);
+            throw new AccessDeniedException();
+        }
+        String resourceIdentifier = securityRoute.resolveRequiredResource(requestContext.getUriInfo().getPathParameters());
+        if (resourceIdentifier == null) {
+            LOG.info("Request {} {} is missing path parameters required by {}", requestContext.getMethod(), requestContext.getUriInfo().getPath(), securityRoute);
+            throw new AccessDeniedException();
+        }
+        ((PrincipalSecurityContext) securityContext).checkPermission(securityRoute.getRequiredAction(), resourceIdentifier);
+    }
+}
@@ -5,25 +5,26 @@ import javax.ws.rs.container.ResourceInfo;
 import javax.ws.rs.core.FeatureContext;
 import javax.ws.rs.ext.Provider;
 
-import com.unicorn.rest.activities.TokenActivities;
-import com.unicorn.rest.activities.UserActivities;
 import com.unicorn.rest.server.filter.ActivitiesSecurityFilter;
+import com.unicorn.rest.server.filter.PermissionCheckFilter;
 
 @Provider
 public class ActivitiesSecurityDynamicFeature implements DynamicFeature {
             
     @Override
     public void configure(ResourceInfo resourceInfo, FeatureContext context) {
-        Class<?> resourceClass = resourceInfo.getResourceClass();
-        String resourceMethod = resourceInfo.getResourceMethod().getName();
+        SecurityRoute securityRoute = SecurityRouteTable.getSecurityRoute(resourceInfo.getResourceClass(), resourceInfo.getResourceMethod());
         
         /**
-         * If the request is to generate/revoke token, or create new user, do not register the security filter
+         * If the resource method is annotated as @PublicEndpoint, e.g. generate/revoke token, create new user, or check health, 
+         * do not register the security filter
          */
-        if (TokenActivities.class.equals(resourceClass) || 
-                (UserActivities.class.equals(resourceClass) && resourceMethod.equals("register"))) {
+        if (securityRoute.isPublicEndpoint()) {
             return;
         }
         context.register(ActivitiesSecurityFilter.class);
+        if (securityRoute.isPermissionRequired()) {
+            context.register(new PermissionCheckFilter(securityRoute));
+        }
     }
 }
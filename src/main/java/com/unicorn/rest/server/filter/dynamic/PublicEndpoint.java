@@ -0,0 +1,17 @@
+package com.unicorn.rest.server.filter.dynamic;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The annotated resource method, or every resource method of the annotated resource class, is served without authentication, 
+ * so that ActivitiesSecurityFilter is not registered for it at all.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface PublicEndpoint {
+}
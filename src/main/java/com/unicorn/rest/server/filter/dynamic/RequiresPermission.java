@@ -0,0 +1,24 @@
+package com.unicorn.rest.server.filter.dynamic;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The subject principal must be permitted to perform the action on the resource before the annotated resource method is invoked.
+ * The annotation on the resource method takes precedence over the one on the resource class.
+ * 
+ * The resource may refer to the path parameters of the resource method, e.g. "restaurant:{restaurant_id}", 
+ * which are substituted with the values of the request.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface RequiresPermission {
+
+    String action();
+
+    String resource();
+}
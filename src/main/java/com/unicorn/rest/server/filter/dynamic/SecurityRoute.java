@@ -0,0 +1,128 @@
+package com.unicorn.rest.server.filter.dynamic;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.ws.rs.core.MultivaluedMap;
+
+/**
+ * The security decision made once per resource method at startup: public, authenticated only, 
+ * or authenticated and permitted to perform the action on the resource.
+ * 
+ * The resource is compiled into literal and path parameter parts, so that resolving it per request 
+ * only looks up the path parameters and concatenates the parts.
+ */
+public class SecurityRoute {
+
+    public static final SecurityRoute PUBLIC = new SecurityRoute(true, null, null);
+    public static final SecurityRoute AUTHENTICATED = new SecurityRoute(false, null, null);
+
+    private static final char PARAMETER_START = '{';
+    private static final char PARAMETER_END = '}';
+
+    private final boolean publicEndpoint;
+    private final @Nullable String requiredAction;
+    /*
+     * The even parts are literals, and the odd parts are names of path parameters. NULL if no permission is required.
+     */
+    private final @Nullable String[] resourceParts;
+
+    private SecurityRoute(boolean publicEndpoint, @Nullable String requiredAction, @Nullable String[] resourceParts) {
+        this.publicEndpoint = publicEndpoint;
+        this.requiredAction = requiredAction;
+        this.resourceParts = resourceParts;
+    }
+
+    /**
+     * @param action @Nonnull
+     * @param resource @Nonnull
+     * @param pathParameters names of path parameters available to the resource method @Nonnull
+     * @return @Nonnull
+     * @throws IllegalStateException if action or resource is blank, or resource refers to unknown or malformed path parameter
+     */
+    public static @Nonnull SecurityRoute requiresPermission(@Nonnull String action, @Nonnull String resource, 
+            @Nonnull Collection<String> pathParameters) throws IllegalStateException {
+        if (action.trim().isEmpty() || resource.trim().isEmpty()) {
+            throw new IllegalStateException(String.format("Expecting non-blank action and resource for required permission, but received: action=%s, resource=%s", 
+                    action, resource));
+        }
+        List<String> resourceParts = new ArrayList<>();
+        int literalStart = 0;
+        while (true) {
+            int parameterStart = resource.indexOf(PARAMETER_START, literalStart);
+            if (parameterStart < 0) {
+                break;
+            }
+            int parameterEnd = resource.indexOf(PARAMETER_END, parameterStart);
+            if (parameterEnd < 0) {
+                throw new IllegalStateException(String.format("Unclosed path parameter in required resource %s", resource));
+            }
+            String pathParameter = resource.substring(parameterStart + 1, parameterEnd).trim();
+            if (!pathParameters.contains(pathParameter)) {
+                throw new IllegalStateException(String.format("Required resource %s refers to unknown path parameter %s, available path parameters are %s", 
+                        resource, pathParameter, pathParameters));
+            }
+            resourceParts.add(resource.substring(literalStart, parameterStart));
+            resourceParts.add(pathParameter);
+            literalStart = parameterEnd + 1;
+        }
+        resourceParts.add(resource.substring(literalStart));
+        return new SecurityRoute(false, action, resourceParts.toArray(new String[resourceParts.size()]));
+    }
+
+    public boolean isPublicEndpoint() {
+        return publicEndpoint;
+    }
+
+    public boolean isPermissionRequired() {
+        return requiredAction != null;
+    }
+
+    public @Nullable String getRequiredAction() {
+        return requiredAction;
+    }
+
+    /**
+     * @param pathParameters @Nonnull
+     * @return NULL if no permission is required or any of the path parameters is missing
+     */
+    public @Nullable String resolveRequiredResource(@Nonnull MultivaluedMap<String, String> pathParameters) {
+        if (resourceParts == null) {
+            return null;
+        }
+        if (resourceParts.length == 1) {
+            return resourceParts[0];
+        }
+        StringBuilder resource = new StringBuilder(resourceParts[0]);
+        for (int i = 1; i < resourceParts.length; i += 2) {
+            String pathParameterValue = pathParameters.getFirst(resourceParts[i]);
+            if (pathParameterValue == null || pathParameterValue.isEmpty()) {
+                return null;
+            }
+            resource.append(pathParameterValue).append(resourceParts[i + 1]);
+        }
+        return resource.toString();
+    }
+
+    @Override
+    public String toString() {
+        if (publicEndpoint) {
+            return "PUBLIC";
+        }
+        if (resourceParts == null) {
+            return "AUTHENTICATED";
+        }
+        StringBuilder resource = new StringBuilder();
+        for (int i = 0; i < resourceParts.length; i++) {
+            if (i % 2 == 0) {
+                resource.append(resourceParts[i]);
+            } else {
+                resource.append(PARAMETER_START).append(resourceParts[i]).append(PARAMETER_END);
+            }
+        }
+        return String.format("REQUIRES_PERMISSION(%s on %s)", requiredAction, resource);
+    }
+}
@@ -0,0 +1,90 @@
+package com.unicorn.rest.server.filter.dynamic;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.ws.rs.Path;
+
+import org.glassfish.jersey.uri.UriTemplate;
+
+/**
+ * The security routes of resource methods, resolved from @PublicEndpoint and @RequiresPermission once at startup.
+ * 
+ * Any resource method without either annotation requires authentication only.
+ */
+public class SecurityRouteTable {
+
+    private static final ConcurrentMap<Method, SecurityRoute> SECURITY_ROUTES = new ConcurrentHashMap<>();
+
+    /**
+     * @param resourceClass @Nonnull
+     * @param resourceMethod @Nonnull
+     * @return @Nonnull
+     * @throws IllegalStateException if the security annotations of the resource method are invalid
+     */
+    public static @Nonnull SecurityRoute getSecurityRoute(@Nonnull Class<?> resourceClass, @Nonnull Method resourceMethod) 
+            throws IllegalStateException {
+        SecurityRoute securityRoute = SECURITY_ROUTES.get(resourceMethod);
+        if (securityRoute == null) {
+            securityRoute = resolveSecurityRoute(resourceClass, resourceMethod);
+            SECURITY_ROUTES.putIfAbsent(resourceMethod, securityRoute);
+        }
+        return securityRoute;
+    }
+
+    /**
+     * @return resource method -> security route of the resource methods resolved so far @Nonnull
+     */
+    public static @Nonnull Map<Method, SecurityRoute> getSecurityRoutes() {
+        return Collections.unmodifiableMap(SECURITY_ROUTES);
+    }
+
+    private static @Nonnull SecurityRoute resolveSecurityRoute(@Nonnull Class<?> resourceClass, @Nonnull Method resourceMethod) 
+            throws IllegalStateException {
+        SecurityRoute methodSecurityRoute = resolveSecurityRoute(resourceClass, resourceMethod, resourceMethod);
+        if (methodSecurityRoute != null) {
+            return methodSecurityRoute;
+        }
+        SecurityRoute classSecurityRoute = resolveSecurityRoute(resourceClass, resourceMethod, resourceClass);
+        if (classSecurityRoute != null) {
+            return classSecurityRoute;
+        }
+        return SecurityRoute.AUTHENTICATED;
+    }
+
+    private static @Nullable SecurityRoute resolveSecurityRoute(@Nonnull Class<?> resourceClass, @Nonnull Method resourceMethod, 
+            @Nonnull AnnotatedElement annotatedElement) throws IllegalStateException {
+        boolean publicEndpoint = annotatedElement.isAnnotationPresent(PublicEndpoint.class);
+        RequiresPermission requiresPermission = annotatedElement.getAnnotation(RequiresPermission.class);
+        if (publicEndpoint && requiresPermission != null) {
+            throw new IllegalStateException(String.format("%s is annotated with both @PublicEndpoint and @RequiresPermission", annotatedElement));
+        }
+        if (publicEndpoint) {
+            return SecurityRoute.PUBLIC;
+        }
+        if (requiresPermission != null) {
+            return SecurityRoute.requiresPermission(requiresPermission.action(), requiresPermission.resource(), 
+                    getPathParameters(resourceClass, resourceMethod));
+        }
+        return null;
+    }
+
+    private static @Nonnull Set<String> getPathParameters(@Nonnull Class<?> resourceClass, @Nonnull Method resourceMethod) {
+        Set<String> pathParameters = new LinkedHashSet<>();
+        for (AnnotatedElement annotatedElement : new AnnotatedElement[] {resourceClass, resourceMethod}) {
+            Path path = annotatedElement.getAnnotation(Path.class);
+            if (path != null) {
+                pathParameters.addAll(new UriTemplate(path.value()).getTemplateVariables());
+            }
+        }
+        return pathParameters;
+    }
+}
@@ -1,25 +1,87 @@
 package com.unicorn.rest.server.filter.model;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
+import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.ws.rs.core.SecurityContext;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
 import com.unicorn.rest.activities.exception.AccessDeniedException;
-import com.unicorn.rest.repository.AccessControlPolicyRepository;
-import com.unicorn.rest.repository.exception.DuplicateKeyException;
+import com.unicorn.rest.activities.exception.InternalServerErrorException;
 import com.unicorn.rest.repository.exception.RepositoryServerException;
 import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.server.admin.StatsProvider;
 import com.unicorn.rest.server.filter.AccessControlPolicyEvaluator;
+import com.unicorn.rest.server.filter.role.PrincipalRoleResolver;
+import com.unicorn.rest.server.filter.role.PrincipalRoles;
 
 public class PrincipalSecurityContext implements SecurityContext {
+    private static final Logger LOG = LogManager.getLogger(PrincipalSecurityContext.class);
+
+    private static final LongAdder MEMOIZED_DECISION_HIT_COUNT = new LongAdder();
+    private static final LongAdder MEMOIZED_DECISION_MISS_COUNT = new LongAdder();
+
+    /**
+     * Hit rate of the decisions memoized within the requests, aggregated across all the requests
+     */
+    public static final StatsProvider MEMOIZED_DECISION_STATS = new StatsProvider() {
+        @Override
+        public Map<String, Object> getStats() {
+            long hits = MEMOIZED_DECISION_HIT_COUNT.sum();
+            long misses = MEMOIZED_DECISION_MISS_COUNT.sum();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("hit_count", hits);
+            stats.put("miss_count", misses);
+            stats.put("hit_rate", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+            return stats;
+        }
+    };
  
-    private AccessControlPolicyRepository accessControlPolicyRepository;
+    private static class MemoizedDecision {
+        private final String action;
+        private final String resourceIdentifier;
+        private final boolean permitted;
+
+        private MemoizedDecision(@Nonnull String action, @Nonnull String resourceIdentifier, boolean permitted) {
+            this.action = action;
+            this.resourceIdentifier = resourceIdentifier;
+            this.permitted = permitted;
+        }
+    }
+
+    private AccessControlPolicyEvaluator accessControlPolicyEvaluator;
     private SubjectPrincipal subjectPrincipal;
+    /*
+     * The security context lives as long as the request, so the decisions are memoized without expiration.
+     * It is created lazily since most of the requests check at most one permission, 
+     * and is looked up by scanning the few decisions rather than by a key built for every check.
+     */
+    private List<MemoizedDecision> memoizedDecisions;
+    /*
+     * NULL if nobody is supposed to have any role
+     */
+    private PrincipalRoleResolver principalRoleResolver;
+    /*
+     * Loaded lazily on the first role check of the request
+     */
+    private PrincipalRoles principalRoles;
     
-    public PrincipalSecurityContext(SubjectPrincipal subjectPrincipal, AccessControlPolicyRepository accessControlPolicyRepository) {
+    public PrincipalSecurityContext(SubjectPrincipal subjectPrincipal, AccessControlPolicyEvaluator accessControlPolicyEvaluator) {
+        this(subjectPrincipal, accessControlPolicyEvaluator, null);
+    }
+
+    public PrincipalSecurityContext(SubjectPrincipal subjectPrincipal, AccessControlPolicyEvaluator accessControlPolicyEvaluator, 
+            PrincipalRoleResolver principalRoleResolver) {
         this.subjectPrincipal = subjectPrincipal;
-        this.accessControlPolicyRepository = accessControlPolicyRepository;
+        this.accessControlPolicyEvaluator = accessControlPolicyEvaluator;
+        this.principalRoleResolver = principalRoleResolver;
     }
 
     @Override
@@ -39,52 +101,143 @@ public class PrincipalSecurityContext implements SecurityContext {
     /**
      * Check if this Subject is permitted to perform an action or access a resource summarized by the
      * specified permission.
+     * 
+     * @return false if the request is invalid or the policy cannot be loaded
      */
     public boolean isPermitted(@Nullable String action, @Nullable String resourceIdentifier) {
         try {
-            List<String> allowingConditions = accessControlPolicyRepository.getAccessControlPolicy(action, resourceIdentifier);
-            return AccessControlPolicyEvaluator.evaluate(subjectPrincipal, allowingConditions);
-            
-        } catch (ValidationException | DuplicateKeyException
-                | RepositoryServerException e) {
-            // TODO Auto-generated catch block
-            e.printStackTrace();
+            return evaluate(action, resourceIdentifier);
+        } catch (ValidationException | RepositoryServerException error) {
+            LOG.warn(String.format("Failed while attempting to evaluate permission of action %s on resource %s for principal %s", 
+                    action, resourceIdentifier, subjectPrincipal.getPrincipal()), error);
+            return false;
         }
-        return false;
     }
     
-    public boolean isPermitted(Permission permission) {
-        return false;
+    /**
+     * The permission is only checked if it is requested by this Subject
+     */
+    public boolean isPermitted(@Nullable Permission permission) {
+        if (!isRequestedBySubject(permission)) {
+            return false;
+        }
+        return isPermitted(permission.getAction(), permission.getResourceIdentifier());
     }
 
     /**
      * Asserts this Subject is permitted for the specified permission.
      * If not, an Exception will be thrown.
+     * 
+     * @throws AccessDeniedException if this Subject is not permitted
+     * @throws InternalServerErrorException if the policy cannot be loaded
      */
     public void checkPermission(@Nullable String action, @Nullable String resourceIdentifier) throws AccessDeniedException {
-        
+        boolean permitted;
+        try {
+            permitted = evaluate(action, resourceIdentifier);
+        } catch (ValidationException error) {
+            LOG.info(String.format("Failed while attempting to check permission of action %s on resource %s", action, resourceIdentifier), error);
+            throw new AccessDeniedException();
+        } catch (RepositoryServerException error) {
+            LOG.error(String.format("Failed while attempting to check permission of action %s on resource %s", action, resourceIdentifier), error);
+            throw new InternalServerErrorException(error);
+        }
+        if (!permitted) {
+            throw new AccessDeniedException();
+        }
     }
     
-    public void checkPermission(Permission permission) throws AccessDeniedException {
-        
+    public void checkPermission(@Nullable Permission permission) throws AccessDeniedException {
+        if (!isRequestedBySubject(permission)) {
+            throw new AccessDeniedException();
+        }
+        checkPermission(permission.getAction(), permission.getResourceIdentifier());
     }
-    
-    /**
-     * Check if this Subject has the specified role
+
+    /*
+     * The failed evaluation is not memoized, so that the following check in the same request gets another chance
      */
-    public void checkRole(String roleIdentifier) throws AccessDeniedException {
+    private boolean evaluate(@Nullable String action, @Nullable String resourceIdentifier) 
+            throws ValidationException, RepositoryServerException {
+        if (action == null || resourceIdentifier == null) {
+            return accessControlPolicyEvaluator.isPermitted(subjectPrincipal, action, resourceIdentifier);
+        }
+        if (memoizedDecisions == null) {
+            memoizedDecisions = new ArrayList<>(4);
+        } else {
+            for (int i = 0; i < memoizedDecisions.size(); i++) {
+                MemoizedDecision memoizedDecision = memoizedDecisions.get(i);
+                if (memoizedDecision.action.equals(action) && memoizedDecision.resourceIdentifier.equals(resourceIdentifier)) {
+                    MEMOIZED_DECISION_HIT_COUNT.increment();
+                    return memoizedDecision.permitted;
+                }
+            }
+        }
+        MEMOIZED_DECISION_MISS_COUNT.increment();
+        boolean permitted = accessControlPolicyEvaluator.isPermitted(subjectPrincipal, action, resourceIdentifier);
+        memoizedDecisions.add(new MemoizedDecision(action, resourceIdentifier, permitted));
+        return permitted;
+    }
+
+    private boolean isRequestedBySubject(@Nullable Permission permission) {
+        return permission != null && isSubject(permission.getPrincipal());
+    }
+
+    private boolean isSubject(@Nonnull Long principal) {
+        return principal.equals(subjectPrincipal.getPrincipal());
     }
     
     /**
      * Asserts this Subject has the specified role. 
      * If not, an Exception will be thrown.
      *
-     * @param roleIdentifier the application-specific role identifier (usually a role id or role name ).
-     * @throws org.apache.shiro.authz.AuthorizationException
-     *          if this Subject does not have the role.
+     * @param roleIdentifier the application-specific role name, e.g. "menu_editor"
+     * @throws AccessDeniedException if this Subject does not have the role
+     * @throws InternalServerErrorException if the roles cannot be loaded
      */
-    public boolean hasRole(String roleIdentifier) {
-        return false;
+    public void checkRole(@Nullable String roleIdentifier) throws AccessDeniedException {
+        boolean hasRole;
+        try {
+            hasRole = resolveRole(roleIdentifier);
+        } catch (ValidationException error) {
+            LOG.info(String.format("Failed while attempting to check role %s", roleIdentifier), error);
+            throw new AccessDeniedException();
+        } catch (RepositoryServerException error) {
+            LOG.error(String.format("Failed while attempting to check role %s", roleIdentifier), error);
+            throw new InternalServerErrorException(error);
+        }
+        if (!hasRole) {
+            throw new AccessDeniedException();
+        }
+    }
+    
+    /**
+     * Check if this Subject has the specified role, either granted directly or through a group
+     *
+     * @param roleIdentifier the application-specific role name, e.g. "menu_editor"
+     * @return false if the roles cannot be loaded
+     */
+    public boolean hasRole(@Nullable String roleIdentifier) {
+        try {
+            return resolveRole(roleIdentifier);
+        } catch (ValidationException | RepositoryServerException error) {
+            LOG.warn(String.format("Failed while attempting to resolve role %s for principal %s", 
+                    roleIdentifier, subjectPrincipal.getPrincipal()), error);
+            return false;
+        }
+    }
+
+    /*
+     * The roles are loaded before the role id is resolved, since loading the roles interns the role names granted to this Subject
+     */
+    private boolean resolveRole(@Nullable String roleIdentifier) throws ValidationException, RepositoryServerException {
+        if (roleIdentifier == null || principalRoleResolver == null) {
+            return false;
+        }
+        if (principalRoles == null) {
+            principalRoles = principalRoleResolver.getPrincipalRoles(subjectPrincipal.getPrincipal());
+        }
+        return principalRoles.hasRole(principalRoleResolver.getRoleId(roleIdentifier));
     }
 
     /**
@@ -102,6 +255,6 @@ public class PrincipalSecurityContext implements SecurityContext {
     @Deprecated
     @Override
     public boolean isUserInRole(String roleIdentifier) {
-        return false;
+        return hasRole(roleIdentifier);
     }
 }
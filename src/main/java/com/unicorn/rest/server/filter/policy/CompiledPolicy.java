@@ -0,0 +1,55 @@
+package com.unicorn.rest.server.filter.policy;
+
+import java.util.Arrays;
+
+import javax.annotation.Nonnull;
+
+import com.unicorn.rest.server.filter.model.SubjectPrincipal;
+
+/**
+ * The compiled access control policy of one action on one resource. 
+ * The subject principal is permitted if any of the allowing conditions is satisfied.
+ */
+public class CompiledPolicy {
+
+    private final PrincipalCondition[] allowingConditions;
+    private final long version;
+    private final long expireAtInNanos;
+
+    /**
+     * @param allowingConditions @Nonnull the policy without allowing condition permits nobody
+     * @param version the invalidation version of the cache when the policy was loaded
+     * @param expireAtInNanos
+     */
+    public CompiledPolicy(@Nonnull PrincipalCondition[] allowingConditions, long version, long expireAtInNanos) {
+        this.allowingConditions = allowingConditions;
+        this.version = version;
+        this.expireAtInNanos = expireAtInNanos;
+    }
+
+    /**
+     * @param subjectPrincipal @Nonnull
+     * @return true if any of the allowing conditions is satisfied
+     */
+    public boolean isPermitted(@Nonnull SubjectPrincipal subjectPrincipal) {
+        for (int i = 0; i < allowingConditions.length; i++) {
+            if (allowingConditions[i].evaluate(subjectPrincipal)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isExpired(long nowInNanos) {
+        return nowInNanos - expireAtInNanos >= 0;
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledPolicy [allowingConditions=" + Arrays.toString(allowingConditions) + ", version=" + version + "]";
+    }
+}
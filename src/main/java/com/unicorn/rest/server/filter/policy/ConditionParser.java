@@ -0,0 +1,220 @@
+package com.unicorn.rest.server.filter.policy;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.server.filter.ActivitiesSecurityFilter.AuthorizationScheme;
+import com.unicorn.rest.server.filter.model.PrincipalType;
+import com.unicorn.rest.server.filter.policy.PrincipalCondition.AndCondition;
+import com.unicorn.rest.server.filter.policy.PrincipalCondition.AuthenticationSchemeInCondition;
+import com.unicorn.rest.server.filter.policy.PrincipalCondition.NotCondition;
+import com.unicorn.rest.server.filter.policy.PrincipalCondition.OrCondition;
+import com.unicorn.rest.server.filter.policy.PrincipalCondition.PrincipalInCondition;
+import com.unicorn.rest.server.filter.policy.PrincipalCondition.PrincipalTypeInCondition;
+
+/**
+ * Parse the allowing condition into PrincipalCondition. The grammar of the condition is:
+ * 
+ * condition  := and_expr ( "or" and_expr )*
+ * and_expr   := unary ( "and" unary )*
+ * unary      := "not" unary | "(" condition ")" | "true" | "false" | comparison
+ * comparison := attribute ( "==" | "!=" ) value | attribute "in" "[" value ( "," value )* "]"
+ * attribute  := "principal" | "principal_type" | "authentication_scheme"
+ * 
+ * The keywords, attributes and enum values are case insensitive, e.g. 
+ * "principal_type == CUSTOMER and authentication_scheme == BEARER_AUTHENTICATION"
+ * "principal in [1234, 5678] or not (principal_type == user)"
+ */
+public class ConditionParser {
+
+    public static final String PRINCIPAL_ATTRIBUTE = "principal";
+    public static final String PRINCIPAL_TYPE_ATTRIBUTE = "principal_type";
+    public static final String AUTHENTICATION_SCHEME_ATTRIBUTE = "authentication_scheme";
+
+    private final String condition;
+    private int position = 0;
+
+    private ConditionParser(@Nonnull String condition) {
+        this.condition = condition;
+    }
+
+    /**
+     * @param condition @Nullable
+     * @return @Nonnull
+     * @throws ValidationException if condition is blank or malformed
+     */
+    public static @Nonnull PrincipalCondition parse(@Nullable String condition) throws ValidationException {
+        if (condition == null || condition.trim().isEmpty()) {
+            throw new ValidationException("Expecting non-blank allowing condition, but received: condition=" + condition);
+        }
+        ConditionParser conditionParser = new ConditionParser(condition);
+        PrincipalCondition principalCondition = conditionParser.parseOr();
+        conditionParser.skipWhitespaces();
+        if (conditionParser.position < condition.length()) {
+            throw conditionParser.syntaxError("unexpected trailing characters");
+        }
+        return principalCondition;
+    }
+
+    private PrincipalCondition parseOr() throws ValidationException {
+        List<PrincipalCondition> conditions = new ArrayList<>();
+        conditions.add(parseAnd());
+        while (acceptKeyword("or")) {
+            conditions.add(parseAnd());
+        }
+        return conditions.size() == 1 ? conditions.get(0) : new OrCondition(conditions.toArray(new PrincipalCondition[conditions.size()]));
+    }
+
+    private PrincipalCondition parseAnd() throws ValidationException {
+        List<PrincipalCondition> conditions = new ArrayList<>();
+        conditions.add(parseUnary());
+        while (acceptKeyword("and")) {
+            conditions.add(parseUnary());
+        }
+        return conditions.size() == 1 ? conditions.get(0) : new AndCondition(conditions.toArray(new PrincipalCondition[conditions.size()]));
+    }
+
+    private PrincipalCondition parseUnary() throws ValidationException {
+        if (acceptKeyword("not")) {
+            return new NotCondition(parseUnary());
+        }
+        if (acceptSymbol("(")) {
+            PrincipalCondition principalCondition = parseOr();
+            expectSymbol(")");
+            return principalCondition;
+        }
+        if (acceptKeyword("true")) {
+            return PrincipalCondition.ALWAYS;
+        }
+        if (acceptKeyword("false")) {
+            return PrincipalCondition.NEVER;
+        }
+        return parseComparison();
+    }
+
+    private PrincipalCondition parseComparison() throws ValidationException {
+        String attribute = expectWord("attribute").toLowerCase();
+        if (!PRINCIPAL_ATTRIBUTE.equals(attribute) && !PRINCIPAL_TYPE_ATTRIBUTE.equals(attribute) && !AUTHENTICATION_SCHEME_ATTRIBUTE.equals(attribute)) {
+            throw syntaxError("unknown attribute " + attribute);
+        }
+
+        List<String> values = new ArrayList<>();
+        boolean negated = false;
+        if (acceptSymbol("==")) {
+            values.add(expectWord("value"));
+        } else if (acceptSymbol("!=")) {
+            values.add(expectWord("value"));
+            negated = true;
+        } else if (acceptKeyword("in")) {
+            expectSymbol("[");
+            do {
+                values.add(expectWord("value"));
+            } while (acceptSymbol(","));
+            expectSymbol("]");
+        } else {
+            throw syntaxError("expecting ==, != or in");
+        }
+
+        PrincipalCondition principalCondition;
+        switch (attribute) {
+        case PRINCIPAL_ATTRIBUTE:
+            long[] principals = new long[values.size()];
+            for (int i = 0; i < principals.length; i++) {
+                try {
+                    principals[i] = Long.parseLong(values.get(i));
+                } catch (NumberFormatException error) {
+                    throw syntaxError("invalid principal " + values.get(i));
+                }
+            }
+            principalCondition = new PrincipalInCondition(principals);
+            break;
+        case PRINCIPAL_TYPE_ATTRIBUTE:
+            EnumSet<PrincipalType> principalTypes = EnumSet.noneOf(PrincipalType.class);
+            for (String value : values) {
+                principalTypes.add(parseEnum(PrincipalType.class, value));
+            }
+            principalCondition = new PrincipalTypeInCondition(principalTypes);
+            break;
+        default:
+            EnumSet<AuthorizationScheme> authenticationSchemes = EnumSet.noneOf(AuthorizationScheme.class);
+            for (String value : values) {
+                authenticationSchemes.add(parseEnum(AuthorizationScheme.class, value));
+            }
+            principalCondition = new AuthenticationSchemeInCondition(authenticationSchemes);
+        }
+        return negated ? new NotCondition(principalCondition) : principalCondition;
+    }
+
+    private <E extends Enum<E>> E parseEnum(@Nonnull Class<E> enumType, @Nonnull String value) throws ValidationException {
+        try {
+            return Enum.valueOf(enumType, value.toUpperCase());
+        } catch (IllegalArgumentException error) {
+            throw syntaxError(String.format("invalid %s %s", enumType.getSimpleName(), value));
+        }
+    }
+
+    private boolean acceptKeyword(@Nonnull String keyword) {
+        skipWhitespaces();
+        int end = position + keyword.length();
+        if (end > condition.length() || !condition.regionMatches(true, position, keyword, 0, keyword.length())) {
+            return false;
+        }
+        /*
+         * The keyword must not be the prefix of a longer word, e.g. "in" and "int"
+         */
+        if (end < condition.length() && isWordCharacter(condition.charAt(end))) {
+            return false;
+        }
+        position = end;
+        return true;
+    }
+
+    private boolean acceptSymbol(@Nonnull String symbol) {
+        skipWhitespaces();
+        if (condition.startsWith(symbol, position)) {
+            position += symbol.length();
+            return true;
+        }
+        return false;
+    }
+
+    private void expectSymbol(@Nonnull String symbol) throws ValidationException {
+        if (!acceptSymbol(symbol)) {
+            throw syntaxError("expecting " + symbol);
+        }
+    }
+
+    private String expectWord(@Nonnull String expected) throws ValidationException {
+        skipWhitespaces();
+        int start = position;
+        if (position < condition.length() && condition.charAt(position) == '-') {
+            position++;
+        }
+        while (position < condition.length() && isWordCharacter(condition.charAt(position))) {
+            position++;
+        }
+        if (position == start) {
+            throw syntaxError("expecting " + expected);
+        }
+        return condition.substring(start, position);
+    }
+
+    private void skipWhitespaces() {
+        while (position < condition.length() && Character.isWhitespace(condition.charAt(position))) {
+            position++;
+        }
+    }
+
+    private static boolean isWordCharacter(char character) {
+        return Character.isLetterOrDigit(character) || character == '_';
+    }
+
+    private ValidationException syntaxError(@Nonnull String reason) {
+        return new ValidationException(String.format("Invalid allowing condition \"%s\" at position %s: %s", condition, position, reason));
+    }
+}
@@ -0,0 +1,189 @@
+package com.unicorn.rest.server.filter.policy;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+
+import javax.annotation.Nonnull;
+
+import com.unicorn.rest.server.filter.ActivitiesSecurityFilter.AuthorizationScheme;
+import com.unicorn.rest.server.filter.model.PrincipalType;
+import com.unicorn.rest.server.filter.model.SubjectPrincipal;
+
+/**
+ * The compiled form of one allowing condition, e.g. "principal_type == CUSTOMER and principal in [1, 2]".
+ * 
+ * The condition string is parsed once by ConditionParser into a tree of immutable nodes. 
+ * Evaluating the tree only compares primitives and enums, and never allocates.
+ */
+public abstract class PrincipalCondition {
+
+    public static final PrincipalCondition ALWAYS = new ConstantCondition(true);
+    public static final PrincipalCondition NEVER = new ConstantCondition(false);
+
+    /**
+     * @param subjectPrincipal @Nonnull
+     * @return true if the subject principal satisfies this condition
+     */
+    public abstract boolean evaluate(@Nonnull SubjectPrincipal subjectPrincipal);
+
+    static class ConstantCondition extends PrincipalCondition {
+        private final boolean value;
+
+        ConstantCondition(boolean value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean evaluate(SubjectPrincipal subjectPrincipal) {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(value);
+        }
+    }
+
+    static class PrincipalInCondition extends PrincipalCondition {
+        /*
+         * Sorted, so that membership is checked by binary search
+         */
+        private final long[] principals;
+
+        PrincipalInCondition(@Nonnull long[] principals) {
+            this.principals = principals.clone();
+            Arrays.sort(this.principals);
+        }
+
+        @Override
+        public boolean evaluate(SubjectPrincipal subjectPrincipal) {
+            Long principal = subjectPrincipal.getPrincipal();
+            if (principal == null) {
+                return false;
+            }
+            long value = principal.longValue();
+            if (principals.length == 1) {
+                return principals[0] == value;
+            }
+            return Arrays.binarySearch(principals, value) >= 0;
+        }
+
+        @Override
+        public String toString() {
+            return "principal in " + Arrays.toString(principals);
+        }
+    }
+
+    static class PrincipalTypeInCondition extends PrincipalCondition {
+        private final EnumSet<PrincipalType> principalTypes;
+
+        PrincipalTypeInCondition(@Nonnull EnumSet<PrincipalType> principalTypes) {
+            this.principalTypes = principalTypes.clone();
+        }
+
+        @Override
+        public boolean evaluate(SubjectPrincipal subjectPrincipal) {
+            PrincipalType principalType = subjectPrincipal.getPrincipalType();
+            return principalType != null && principalTypes.contains(principalType);
+        }
+
+        @Override
+        public String toString() {
+            return "principal_type in " + principalTypes;
+        }
+    }
+
+    static class AuthenticationSchemeInCondition extends PrincipalCondition {
+        private final EnumSet<AuthorizationScheme> authenticationSchemes;
+
+        AuthenticationSchemeInCondition(@Nonnull EnumSet<AuthorizationScheme> authenticationSchemes) {
+            this.authenticationSchemes = authenticationSchemes.clone();
+        }
+
+        @Override
+        public boolean evaluate(SubjectPrincipal subjectPrincipal) {
+            AuthorizationScheme authenticationScheme = subjectPrincipal.getAuthenticationScheme();
+            return authenticationScheme != null && authenticationSchemes.contains(authenticationScheme);
+        }
+
+        @Override
+        public String toString() {
+            return "authentication_scheme in " + authenticationSchemes;
+        }
+    }
+
+    static class NotCondition extends PrincipalCondition {
+        private final PrincipalCondition condition;
+
+        NotCondition(@Nonnull PrincipalCondition condition) {
+            this.condition = condition;
+        }
+
+        @Override
+        public boolean evaluate(SubjectPrincipal subjectPrincipal) {
+            return !condition.evaluate(subjectPrincipal);
+        }
+
+        @Override
+        public String toString() {
+            return "not (" + condition + ")";
+        }
+    }
+
+    static class AndCondition extends PrincipalCondition {
+        private final PrincipalCondition[] conditions;
+
+        AndCondition(@Nonnull PrincipalCondition[] conditions) {
+            this.conditions = conditions;
+        }
+
+        @Override
+        public boolean evaluate(SubjectPrincipal subjectPrincipal) {
+            for (int i = 0; i < conditions.length; i++) {
+                if (!conditions[i].evaluate(subjectPrincipal)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return join(conditions, " and ");
+        }
+    }
+
+    static class OrCondition extends PrincipalCondition {
+        private final PrincipalCondition[] conditions;
+
+        OrCondition(@Nonnull PrincipalCondition[] conditions) {
+            this.conditions = conditions;
+        }
+
+        @Override
+        public boolean evaluate(SubjectPrincipal subjectPrincipal) {
+            for (int i = 0; i < conditions.length; i++) {
+                if (conditions[i].evaluate(subjectPrincipal)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return join(conditions, " or ");
+        }
+    }
+
+    private static String join(@Nonnull PrincipalCondition[] conditions, @Nonnull String operator) {
+        StringBuilder conditionBuilder = new StringBuilder("(");
+        for (int i = 0; i < conditions.length; i++) {
+            if (i > 0) {
+                conditionBuilder.append(operator);
+            }
+            conditionBuilder.append(conditions[i]);
+        }
+        return conditionBuilder.append(')').toString();
+    }
+}
@@ -0,0 +1,149 @@
+package com.unicorn.rest.server.filter.role;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.table.PrincipalRoleTable;
+import com.unicorn.rest.server.admin.StatsProvider;
+import com.unicorn.rest.utils.LRUCache;
+
+/**
+ * Materialized index of principal -> expanded roles. The roles of a principal are loaded lazily from PrincipalRoleTable 
+ * on the first role check, expanded by RoleHierarchy and cached as PrincipalRoles until the TTL expires.
+ * 
+ * The principals are evicted in LRU order once the cache is full. The roles granted or revoked through grantRoles and revokeRoles
+ * take effect on this server at once, while the changes made elsewhere take effect once the short TTL expires.
+ * Every invalidation bumps the version of the cache, and the roles loaded before the invalidation are not put into the cache,
+ * so that a slow load cannot bring back the revoked roles.
+ */
+public class PrincipalRoleResolver implements StatsProvider {
+
+    public static final long DEFAULT_ROLES_TTL_IN_SECONDS = 30;
+    public static final int DEFAULT_MAX_PRINCIPALS = 100000;
+
+    private static class CachedPrincipalRoles {
+        private final PrincipalRoles principalRoles;
+        private final long expireAtInNanos;
+
+        private CachedPrincipalRoles(@Nonnull PrincipalRoles principalRoles, long expireAtInNanos) {
+            this.principalRoles = principalRoles;
+            this.expireAtInNanos = expireAtInNanos;
+        }
+    }
+
+    private final PrincipalRoleTable principalRoleTable;
+    private final RoleHierarchy roleHierarchy;
+    private final long rolesTTLInNanos;
+
+    private final LRUCache<Long, CachedPrincipalRoles> cachedPrincipalRoles;
+    private final AtomicLong version = new AtomicLong();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    public PrincipalRoleResolver(@Nonnull PrincipalRoleTable principalRoleTable) {
+        this(principalRoleTable, new RoleHierarchy(new RoleRegistry()), DEFAULT_ROLES_TTL_IN_SECONDS, TimeUnit.SECONDS, DEFAULT_MAX_PRINCIPALS);
+    }
+
+    public PrincipalRoleResolver(@Nonnull PrincipalRoleTable principalRoleTable, @Nonnull RoleHierarchy roleHierarchy, 
+            long rolesTTL, @Nonnull TimeUnit timeUnit, int maxPrincipals) {
+        this.principalRoleTable = principalRoleTable;
+        this.roleHierarchy = roleHierarchy;
+        this.rolesTTLInNanos = timeUnit.toNanos(rolesTTL);
+        this.cachedPrincipalRoles = new LRUCache<>(maxPrincipals);
+    }
+
+    /**
+     * @param principal @Nullable
+     * @return the expanded roles of principal @Nonnull
+     * @throws ValidationException if request is invalid
+     * @throws RepositoryServerException internal server error
+     */
+    public @Nonnull PrincipalRoles getPrincipalRoles(@Nullable Long principal) 
+            throws ValidationException, RepositoryServerException {
+        if (principal == null) {
+            throw new ValidationException("Expecting non-null request paramter for getPrincipalRoles, but received: principal=null");
+        }
+        long nowInNanos = System.nanoTime();
+        CachedPrincipalRoles cachedRoles = cachedPrincipalRoles.get(principal);
+        if (cachedRoles != null && cachedRoles.expireAtInNanos - nowInNanos >= 0) {
+            hitCount.increment();
+            return cachedRoles.principalRoles;
+        }
+        missCount.increment();
+        long loadVersion = version.get();
+        PrincipalRoles principalRoles = roleHierarchy.expand(principalRoleTable.getRoles(principal));
+        if (version.get() == loadVersion) {
+            cachedPrincipalRoles.put(principal, new CachedPrincipalRoles(principalRoles, nowInNanos + rolesTTLInNanos));
+        }
+        return principalRoles;
+    }
+
+    /**
+     * Resolve the role id once and test it against PrincipalRoles on the request path
+     * 
+     * @param roleName @Nullable
+     * @return RoleRegistry.UNKNOWN_ROLE_ID if nobody has the role
+     */
+    public int getRoleId(@Nullable String roleName) {
+        return roleHierarchy.getRoleRegistry().getRoleId(roleName);
+    }
+
+    /**
+     * Grant roles or groups to principal, and invalidate the cached roles of principal
+     * 
+     * @param principal @Nullable
+     * @param roles @Nullable
+     * @throws ValidationException if request is invalid
+     * @throws RepositoryServerException internal server error
+     */
+    public void grantRoles(@Nullable Long principal, @Nullable List<String> roles) 
+            throws ValidationException, RepositoryServerException {
+        principalRoleTable.grantRoles(principal, roles);
+        invalidate(principal);
+    }
+
+    /**
+     * Revoke roles or groups from principal, and invalidate the cached roles of principal so that the revoked roles stop working at once
+     * 
+     * @param principal @Nullable
+     * @param roles @Nullable
+     * @throws ValidationException if request is invalid
+     * @throws RepositoryServerException internal server error
+     */
+    public void revokeRoles(@Nullable Long principal, @Nullable List<String> roles) 
+            throws ValidationException, RepositoryServerException {
+        principalRoleTable.revokeRoles(principal, roles);
+        invalidate(principal);
+    }
+
+    /**
+     * Invalidate the cached roles once the roles of principal are changed
+     * @param principal @Nonnull
+     */
+    public void invalidate(@Nonnull Long principal) {
+        version.incrementAndGet();
+        cachedPrincipalRoles.remove(principal);
+    }
+
+    @Override
+    public @Nonnull Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", cachedPrincipalRoles.size());
+        stats.put("roles", roleHierarchy.getRoleRegistry().size());
+        stats.put("hit_count", hitCount.sum());
+        stats.put("miss_count", missCount.sum());
+        stats.put("eviction_count", cachedPrincipalRoles.getEvictionCount());
+        stats.put("version", version.get());
+        return stats;
+    }
+}
@@ -0,0 +1,36 @@
+package com.unicorn.rest.server.filter.role;
+
+import java.util.BitSet;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Immutable set of the roles a principal has after the groups are expanded, stored as a bitset over the role ids 
+ * interned by RoleRegistry, so that a role check is a single bit test.
+ */
+public class PrincipalRoles {
+
+    public static final PrincipalRoles NO_ROLE = new PrincipalRoles(new long[0]);
+
+    private final long[] words;
+
+    private PrincipalRoles(@Nonnull long[] words) {
+        this.words = words;
+    }
+
+    public static @Nonnull PrincipalRoles of(@Nonnull BitSet roleIds) {
+        return roleIds.isEmpty() ? NO_ROLE : new PrincipalRoles(roleIds.toLongArray());
+    }
+
+    public boolean hasRole(int roleId) {
+        if (roleId < 0) {
+            return false;
+        }
+        int wordIndex = roleId >>> 6;
+        return wordIndex < words.length && (words[wordIndex] & (1L << roleId)) != 0;
+    }
+
+    public boolean isEmpty() {
+        return words.length == 0;
+    }
+}
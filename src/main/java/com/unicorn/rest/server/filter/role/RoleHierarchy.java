@@ -0,0 +1,128 @@
+package com.unicorn.rest.server.filter.role;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A group is a role which includes other roles or groups, e.g. "restaurant_owner" includes "restaurant_manager",
+ * which in turn includes "menu_editor". 
+ * 
+ * The transitive closure of every group is computed once at construction, so that expanding the roles assigned 
+ * to a principal is a bitwise OR per assigned role, no matter how deep the groups are nested.
+ * 
+ * Only the configured roles, i.e. the groups, their members and the standalone roles, are interned into RoleRegistry.
+ * The role names read from the table are only looked up, so that garbage role names in the table are ignored
+ * rather than filling up the registry and pushing the real roles out.
+ */
+public class RoleHierarchy {
+
+    public static final Map<String, List<String>> DEFAULT_ROLE_GROUPS;
+    static {
+        Map<String, List<String>> defaultRoleGroups = new LinkedHashMap<>();
+        defaultRoleGroups.put("restaurant_owner", Arrays.asList("restaurant_manager"));
+        defaultRoleGroups.put("restaurant_manager", Arrays.asList("menu_editor"));
+        defaultRoleGroups.put("administrator", Arrays.asList("restaurant_owner"));
+        DEFAULT_ROLE_GROUPS = Collections.unmodifiableMap(defaultRoleGroups);
+    }
+
+    private final RoleRegistry roleRegistry;
+    /*
+     * group role id -> ids of the group itself and all the roles it includes transitively
+     */
+    private final Map<Integer, BitSet> expandedGroups = new HashMap<>();
+
+    public RoleHierarchy(@Nonnull RoleRegistry roleRegistry) {
+        this(roleRegistry, DEFAULT_ROLE_GROUPS);
+    }
+
+    public RoleHierarchy(@Nonnull RoleRegistry roleRegistry, @Nonnull Map<String, ? extends Collection<String>> roleGroups) {
+        this(roleRegistry, roleGroups, Collections.<String>emptyList());
+    }
+
+    /**
+     * @param roleRegistry @Nonnull
+     * @param roleGroups group name -> names of the roles or groups it includes @Nonnull
+     * @param standaloneRoles names of the roles which do not belong to any group @Nonnull
+     */
+    public RoleHierarchy(@Nonnull RoleRegistry roleRegistry, @Nonnull Map<String, ? extends Collection<String>> roleGroups,
+            @Nonnull Collection<String> standaloneRoles) {
+        this.roleRegistry = roleRegistry;
+        for (String standaloneRole : standaloneRoles) {
+            roleRegistry.intern(standaloneRole);
+        }
+        Map<Integer, int[]> groupMembers = new HashMap<>();
+        for (Map.Entry<String, ? extends Collection<String>> roleGroup : roleGroups.entrySet()) {
+            int[] memberIds = new int[roleGroup.getValue().size()];
+            int i = 0;
+            for (String member : roleGroup.getValue()) {
+                memberIds[i++] = roleRegistry.intern(member);
+            }
+            groupMembers.put(roleRegistry.intern(roleGroup.getKey()), memberIds);
+        }
+        for (Integer groupId : groupMembers.keySet()) {
+            expandedGroups.put(groupId, expand(groupId, groupMembers));
+        }
+    }
+
+    /**
+     * @param assignedRoles role and group names assigned to the principal @Nullable
+     * @return @Nonnull
+     */
+    public @Nonnull PrincipalRoles expand(@Nullable Collection<String> assignedRoles) {
+        if (assignedRoles == null || assignedRoles.isEmpty()) {
+            return PrincipalRoles.NO_ROLE;
+        }
+        BitSet roleIds = new BitSet();
+        for (String assignedRole : assignedRoles) {
+            int roleId = roleRegistry.getRoleId(assignedRole);
+            if (roleId == RoleRegistry.UNKNOWN_ROLE_ID) {
+                continue;
+            }
+            BitSet expandedGroup = expandedGroups.get(roleId);
+            if (expandedGroup == null) {
+                roleIds.set(roleId);
+            } else {
+                roleIds.or(expandedGroup);
+            }
+        }
+        return PrincipalRoles.of(roleIds);
+    }
+
+    public @Nonnull RoleRegistry getRoleRegistry() {
+        return roleRegistry;
+    }
+
+    /*
+     * Breadth first traversal with visited set, so that a cycle between groups does not loop forever
+     */
+    private static @Nonnull BitSet expand(int groupId, @Nonnull Map<Integer, int[]> groupMembers) {
+        BitSet expandedGroup = new BitSet();
+        Deque<Integer> pendingIds = new ArrayDeque<>();
+        pendingIds.add(groupId);
+        while (!pendingIds.isEmpty()) {
+            int roleId = pendingIds.poll();
+            if (roleId == RoleRegistry.UNKNOWN_ROLE_ID || expandedGroup.get(roleId)) {
+                continue;
+            }
+            expandedGroup.set(roleId);
+            int[] memberIds = groupMembers.get(roleId);
+            if (memberIds != null) {
+                for (int memberId : memberIds) {
+                    pendingIds.add(memberId);
+                }
+            }
+        }
+        return expandedGroup;
+    }
+}
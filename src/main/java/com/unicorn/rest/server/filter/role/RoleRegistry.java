@@ -0,0 +1,75 @@
+package com.unicorn.rest.server.filter.role;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Intern the role names into dense ids, so that the roles of a principal can be stored as a bitset over the role ids.
+ * 
+ * The role names are case insensitive. The ids are never reused, and the number of roles is capped 
+ * so that the bitsets stay compact. Only the configured roles are interned, the role names from the table are looked up by getRoleId.
+ */
+public class RoleRegistry {
+
+    public static final int MAX_ROLES = 1024;
+    public static final int UNKNOWN_ROLE_ID = -1;
+
+    private final ConcurrentMap<String, Integer> roleIds = new ConcurrentHashMap<>();
+    private final String[] roleNames = new String[MAX_ROLES];
+    private int numOfRoles = 0;
+
+    /**
+     * @param roleName @Nonnull
+     * @return UNKNOWN_ROLE_ID if the registry is already full
+     */
+    public int intern(@Nonnull String roleName) {
+        String normalizedRoleName = normalize(roleName);
+        Integer roleId = roleIds.get(normalizedRoleName);
+        if (roleId != null) {
+            return roleId;
+        }
+        synchronized (this) {
+            roleId = roleIds.get(normalizedRoleName);
+            if (roleId != null) {
+                return roleId;
+            }
+            if (numOfRoles >= MAX_ROLES) {
+                return UNKNOWN_ROLE_ID;
+            }
+            roleNames[numOfRoles] = normalizedRoleName;
+            roleIds.put(normalizedRoleName, numOfRoles);
+            return numOfRoles++;
+        }
+    }
+
+    /**
+     * @param roleName @Nullable
+     * @return UNKNOWN_ROLE_ID if the role has never been interned
+     */
+    public int getRoleId(@Nullable String roleName) {
+        if (roleName == null) {
+            return UNKNOWN_ROLE_ID;
+        }
+        Integer roleId = roleIds.get(normalize(roleName));
+        return roleId == null ? UNKNOWN_ROLE_ID : roleId;
+    }
+
+    /**
+     * @return NULL if the role id is unknown
+     */
+    public synchronized @Nullable String getRoleName(int roleId) {
+        return roleId < 0 || roleId >= numOfRoles ? null : roleNames[roleId];
+    }
+
+    public int size() {
+        return roleIds.size();
+    }
+
+    private static @Nonnull String normalize(@Nonnull String roleName) {
+        return roleName.trim().toLowerCase(Locale.US);
+    }
+}
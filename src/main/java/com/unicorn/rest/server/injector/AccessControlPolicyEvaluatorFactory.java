@@ -0,0 +1,49 @@
+package com.unicorn.rest.server.injector;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+import org.glassfish.hk2.api.Factory;
+
+import com.unicorn.rest.repository.AccessControlPolicyRepository;
+import com.unicorn.rest.server.PropertiesParser;
+import com.unicorn.rest.server.admin.AdminStatsRegistry;
+import com.unicorn.rest.server.filter.AccessControlPolicyEvaluator;
+import com.unicorn.rest.server.filter.AuthorizationDecisionCache;
+import com.unicorn.rest.server.filter.model.PrincipalSecurityContext;
+
+public class AccessControlPolicyEvaluatorFactory implements Factory<AccessControlPolicyEvaluator> {
+
+    public static final String ACCESS_CONTROL_POLICY_CACHE_STATS = "access_control_policy";
+    public static final String AUTHORIZATION_DECISION_CACHE_STATS = "authorization_decision";
+    public static final String MEMOIZED_AUTHORIZATION_DECISION_STATS = "memoized_authorization_decision";
+    /*
+     * The decisions cached across requests outlive the change of the policies made on other servers by up to the decision TTL,
+     * so the cache is off unless the property is true
+     */
+    public static final String AUTHORIZATION_DECISION_CACHE_PROPERTY = "AUTHORIZATION_DECISION_CACHE";
+
+    private final AccessControlPolicyEvaluator accessControlPolicyEvaluator;
+
+    @Inject
+    public AccessControlPolicyEvaluatorFactory(AccessControlPolicyRepository accessControlPolicyRepository, PropertiesParser serverPropertiesParser) {
+        boolean cacheDecisions = Boolean.parseBoolean(serverPropertiesParser.getProperty(AUTHORIZATION_DECISION_CACHE_PROPERTY, "false").trim());
+        AuthorizationDecisionCache authorizationDecisionCache = cacheDecisions ? new AuthorizationDecisionCache() : null;
+        this.accessControlPolicyEvaluator = new AccessControlPolicyEvaluator(accessControlPolicyRepository, 
+                AccessControlPolicyEvaluator.DEFAULT_POLICY_TTL_IN_SECONDS, TimeUnit.SECONDS, authorizationDecisionCache);
+        AdminStatsRegistry.registerCacheStats(ACCESS_CONTROL_POLICY_CACHE_STATS, accessControlPolicyEvaluator);
+        if (authorizationDecisionCache != null) {
+            AdminStatsRegistry.registerCacheStats(AUTHORIZATION_DECISION_CACHE_STATS, authorizationDecisionCache);
+        }
+        AdminStatsRegistry.registerCacheStats(MEMOIZED_AUTHORIZATION_DECISION_STATS, PrincipalSecurityContext.MEMOIZED_DECISION_STATS);
+    }
+
+    @Override
+    public AccessControlPolicyEvaluator provide() {
+        return accessControlPolicyEvaluator;
+    }
+
+    @Override
+    public void dispose(AccessControlPolicyEvaluator instance) {}
+}
@@ -1,27 +1,77 @@
 package com.unicorn.rest.server.injector;
 
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
 import javax.inject.Inject;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.glassfish.hk2.api.Factory;
 
 import com.unicorn.rest.repository.AccessControlPolicyRepository;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
 import com.unicorn.rest.repository.impl.AccessControlPolicyRepositoryImpl;
 import com.unicorn.rest.repository.table.AccessControlPolicyTable;
+import com.unicorn.rest.server.admin.AdminStatsRegistry;
 
 public class AccessControlPolicyRepositoryFactory implements Factory<AccessControlPolicyRepository> {
+    private static final Logger LOG = LogManager.getLogger(AccessControlPolicyRepositoryFactory.class);
+
+    public static final String ACCESS_CONTROL_POLICY_REPOSITORY_CACHE_STATS = "access_control_policy_repository";
+    /*
+     * The policies created through other servers are read through before the refresh, so the refresh only bounds how long 
+     * the policies changed or revoked through other servers are still served, together with the TTL of AccessControlPolicyEvaluator
+     */
+    public static final long ACCESS_CONTROL_POLICY_REFRESH_INTERVAL_IN_SECONDS = 60;
  
     private final AccessControlPolicyRepository accessControlPolicyRepository;
+    private final ScheduledExecutorService accessControlPolicyRefreshExecutor;
     
     @Inject
     public AccessControlPolicyRepositoryFactory(AccessControlPolicyTable accessControlPolicyTable) {
-        this.accessControlPolicyRepository = new AccessControlPolicyRepositoryImpl(accessControlPolicyTable);
+        final AccessControlPolicyRepositoryImpl accessControlPolicyRepositoryImpl = new AccessControlPolicyRepositoryImpl(accessControlPolicyTable);
+        AdminStatsRegistry.registerCacheStats(ACCESS_CONTROL_POLICY_REPOSITORY_CACHE_STATS, accessControlPolicyRepositoryImpl);
+        refreshAccessControlPolicies(accessControlPolicyRepositoryImpl);
+        this.accessControlPolicyRepository = accessControlPolicyRepositoryImpl;
+
+        this.accessControlPolicyRefreshExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "AccessControlPolicyRefresh");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.accessControlPolicyRefreshExecutor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                refreshAccessControlPolicies(accessControlPolicyRepositoryImpl);
+            }
+        }, ACCESS_CONTROL_POLICY_REFRESH_INTERVAL_IN_SECONDS, ACCESS_CONTROL_POLICY_REFRESH_INTERVAL_IN_SECONDS, TimeUnit.SECONDS);
     }
-    
+
+    /*
+     * Failing to preload only costs the checks a table read until the next refresh, so it must not fail the server startup
+     */
+    private static void refreshAccessControlPolicies(AccessControlPolicyRepositoryImpl accessControlPolicyRepositoryImpl) {
+        try {
+            int numOfPolicies = accessControlPolicyRepositoryImpl.refreshAccessControlPolicies();
+            LOG.info("Preloaded {} access control policies.", numOfPolicies);
+        } catch (RepositoryServerException | RuntimeException error) {
+            LOG.warn("Failed while attempting to preload access control policies.", error);
+        }
+    }
+
     @Override
     public AccessControlPolicyRepository provide() {
         return accessControlPolicyRepository;
     }
 
     @Override
-    public void dispose(AccessControlPolicyRepository instance) {}
+    public void dispose(AccessControlPolicyRepository instance) {
+        accessControlPolicyRefreshExecutor.shutdownNow();
+    }
 }
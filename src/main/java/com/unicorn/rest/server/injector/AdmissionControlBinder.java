@@ -0,0 +1,18 @@
+package com.unicorn.rest.server.injector;
+
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+
+import com.unicorn.rest.server.admin.AdminStatsRegistry;
+import com.unicorn.rest.server.limiter.AdaptiveConcurrencyLimiter;
+
+public class AdmissionControlBinder extends AbstractBinder {
+
+    public static final String ADMISSION_CONTROL_STATS = "admission_control";
+
+    @Override
+    protected void configure() {
+        AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter();
+        AdminStatsRegistry.registerMetrics(ADMISSION_CONTROL_STATS, concurrencyLimiter);
+        bind(concurrencyLimiter).to(AdaptiveConcurrencyLimiter.class);
+    }
+}
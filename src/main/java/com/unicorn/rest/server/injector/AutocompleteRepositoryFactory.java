@@ -0,0 +1,53 @@
+package com.unicorn.rest.server.injector;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import javax.inject.Inject;
+
+import org.glassfish.hk2.api.Factory;
+
+import com.unicorn.rest.repository.AutocompleteRepository;
+import com.unicorn.rest.repository.MenuRepository;
+import com.unicorn.rest.repository.RestaurantRepository;
+import com.unicorn.rest.repository.impl.AutocompleteRepositoryImpl;
+import com.unicorn.rest.server.admin.AdminStatsRegistry;
+
+public class AutocompleteRepositoryFactory implements Factory<AutocompleteRepository> {
+
+    public static final String AUTOCOMPLETE_REPOSITORY_CACHE_STATS = "autocomplete_repository";
+
+    private final AutocompleteRepository autocompleteRepository;
+    private final ExecutorService autocompleteCompactionExecutor;
+
+    /*
+     * The menus already in memory are delivered as the changes when the listener is added, and are compacted into the base index right away
+     */
+    @Inject
+    public AutocompleteRepositoryFactory(MenuRepository menuRepository, RestaurantRepository restaurantRepository) {
+        this.autocompleteCompactionExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "AutocompleteCompaction");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        AutocompleteRepositoryImpl autocompleteRepositoryImpl = new AutocompleteRepositoryImpl(restaurantRepository, autocompleteCompactionExecutor);
+        AdminStatsRegistry.registerCacheStats(AUTOCOMPLETE_REPOSITORY_CACHE_STATS, autocompleteRepositoryImpl);
+        menuRepository.addMenuSnapshotListener(autocompleteRepositoryImpl);
+        autocompleteRepositoryImpl.compact();
+        this.autocompleteRepository = autocompleteRepositoryImpl;
+    }
+
+    @Override
+    public AutocompleteRepository provide() {
+        return autocompleteRepository;
+    }
+
+    @Override
+    public void dispose(AutocompleteRepository instance) {
+        autocompleteCompactionExecutor.shutdownNow();
+    }
+}
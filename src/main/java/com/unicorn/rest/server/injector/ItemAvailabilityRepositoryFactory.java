@@ -0,0 +1,85 @@
+package com.unicorn.rest.server.injector;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.glassfish.hk2.api.Factory;
+
+import com.unicorn.rest.repository.ItemAvailabilityRepository;
+import com.unicorn.rest.repository.MenuRepository;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.impl.ItemAvailabilityRepositoryImpl;
+import com.unicorn.rest.repository.table.ItemAvailabilityTable;
+import com.unicorn.rest.server.admin.AdminStatsRegistry;
+
+public class ItemAvailabilityRepositoryFactory implements Factory<ItemAvailabilityRepository> {
+    private static final Logger LOG = LogManager.getLogger(ItemAvailabilityRepositoryFactory.class);
+
+    public static final String ITEM_AVAILABILITY_REPOSITORY_CACHE_STATS = "item_availability_repository";
+    /*
+     * The items sold out through other servers disappear from the menus served by this one within about a second
+     */
+    public static final long ITEM_AVAILABILITY_POLL_INTERVAL_IN_MILLS = 1000;
+
+    private final ItemAvailabilityRepository itemAvailabilityRepository;
+    private final ScheduledExecutorService itemAvailabilityPollExecutor;
+
+    @Inject
+    public ItemAvailabilityRepositoryFactory(ItemAvailabilityTable itemAvailabilityTable, MenuRepository menuRepository) {
+        ItemAvailabilityRepositoryImpl itemAvailabilityRepositoryImpl = new ItemAvailabilityRepositoryImpl(itemAvailabilityTable);
+        AdminStatsRegistry.registerCacheStats(ITEM_AVAILABILITY_REPOSITORY_CACHE_STATS, itemAvailabilityRepositoryImpl);
+        try {
+            int numOfItemAvailabilities = itemAvailabilityRepositoryImpl.reloadItemAvailabilities();
+            LOG.info("Loaded {} item availabilities.", numOfItemAvailabilities);
+        } catch (RepositoryServerException | RuntimeException error) {
+            LOG.warn("Failed while attempting to load item availabilities.", error);
+        }
+        /*
+         * The menus already in memory are delivered right away, which removes the availabilities of the items dropped while this server was down
+         */
+        menuRepository.addMenuSnapshotListener(itemAvailabilityRepositoryImpl);
+        this.itemAvailabilityRepository = itemAvailabilityRepositoryImpl;
+
+        this.itemAvailabilityPollExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "ItemAvailabilityPoll");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.itemAvailabilityPollExecutor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                pollItemAvailabilities(itemAvailabilityRepository);
+            }
+        }, ITEM_AVAILABILITY_POLL_INTERVAL_IN_MILLS, ITEM_AVAILABILITY_POLL_INTERVAL_IN_MILLS, TimeUnit.MILLISECONDS);
+    }
+
+    /*
+     * A failed poll leaves the watermark where it was, so the next poll picks up the changes missed
+     */
+    private static void pollItemAvailabilities(ItemAvailabilityRepository itemAvailabilityRepository) {
+        try {
+            itemAvailabilityRepository.pollItemAvailabilities();
+        } catch (RepositoryServerException | RuntimeException error) {
+            LOG.warn("Failed while attempting to poll item availabilities.", error);
+        }
+    }
+
+    @Override
+    public ItemAvailabilityRepository provide() {
+        return itemAvailabilityRepository;
+    }
+
+    @Override
+    public void dispose(ItemAvailabilityRepository instance) {
+        itemAvailabilityPollExecutor.shutdownNow();
+    }
+}
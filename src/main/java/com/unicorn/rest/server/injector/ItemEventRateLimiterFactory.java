@@ -0,0 +1,34 @@
+package com.unicorn.rest.server.injector;
+
+import javax.inject.Inject;
+
+import org.glassfish.hk2.api.Factory;
+
+import com.unicorn.rest.server.PropertiesParser;
+import com.unicorn.rest.server.admin.AdminStatsRegistry;
+import com.unicorn.rest.server.limiter.ItemEventRateLimiter;
+
+public class ItemEventRateLimiterFactory implements Factory<ItemEventRateLimiter> {
+
+    public static final String ITEM_EVENT_RATE_LIMITER_STATS = "item_event_rate_limiter";
+
+    private final ItemEventRateLimiter itemEventRateLimiter;
+
+    /*
+     * The load balancers are the same as those in front of the token requests
+     */
+    @Inject
+    public ItemEventRateLimiterFactory(PropertiesParser serverPropertiesParser) {
+        this.itemEventRateLimiter = new ItemEventRateLimiter(TokenRateLimiterFactory.parseAddresses(
+                serverPropertiesParser.getProperty(TokenRateLimiterFactory.TRUSTED_PROXY_ADDRESSES_PROPERTY, "")));
+        AdminStatsRegistry.registerMetrics(ITEM_EVENT_RATE_LIMITER_STATS, itemEventRateLimiter);
+    }
+
+    @Override
+    public ItemEventRateLimiter provide() {
+        return itemEventRateLimiter;
+    }
+
+    @Override
+    public void dispose(ItemEventRateLimiter instance) {}
+}
@@ -0,0 +1,58 @@
+package com.unicorn.rest.server.injector;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+
+import org.glassfish.hk2.api.Factory;
+
+import com.unicorn.rest.repository.MenuImportRepository;
+import com.unicorn.rest.repository.MenuRepository;
+import com.unicorn.rest.repository.RestaurantRepository;
+import com.unicorn.rest.repository.impl.MenuImportRepositoryImpl;
+import com.unicorn.rest.server.admin.AdminStatsRegistry;
+import com.unicorn.rest.server.limiter.TokenBucketRateLimiter;
+
+public class MenuImportRepositoryFactory implements Factory<MenuImportRepository> {
+
+    public static final String MENU_IMPORT_REPOSITORY_CACHE_STATS = "menu_import_repository";
+    public static final int MENU_IMPORT_WORKERS = 4;
+    /*
+     * The menus imported by all the jobs of this server, which leaves most of the write capacity of the MENU table to the owners publishing by hand
+     */
+    public static final int MENU_IMPORT_PUBLISHES_PER_MINUTE = 600;
+    public static final int MENU_IMPORT_PUBLISH_BURST_SIZE = 10;
+
+    private final MenuImportRepository menuImportRepository;
+    private final ExecutorService menuImportExecutor;
+
+    @Inject
+    public MenuImportRepositoryFactory(MenuRepository menuRepository, RestaurantRepository restaurantRepository) {
+        final AtomicInteger numOfWorkers = new AtomicInteger();
+        this.menuImportExecutor = Executors.newFixedThreadPool(MENU_IMPORT_WORKERS, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "MenuImport-" + numOfWorkers.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        MenuImportRepositoryImpl menuImportRepositoryImpl = new MenuImportRepositoryImpl(menuRepository, restaurantRepository, menuImportExecutor,
+                new TokenBucketRateLimiter(MENU_IMPORT_PUBLISHES_PER_MINUTE, MENU_IMPORT_PUBLISH_BURST_SIZE, 1));
+        AdminStatsRegistry.registerCacheStats(MENU_IMPORT_REPOSITORY_CACHE_STATS, menuImportRepositoryImpl);
+        this.menuImportRepository = menuImportRepositoryImpl;
+    }
+
+    @Override
+    public MenuImportRepository provide() {
+        return menuImportRepository;
+    }
+
+    @Override
+    public void dispose(MenuImportRepository instance) {
+        menuImportExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,82 @@
+package com.unicorn.rest.server.injector;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.glassfish.hk2.api.Factory;
+
+import com.unicorn.rest.activities.utils.JSONMenuRenderer;
+import com.unicorn.rest.repository.MenuRepository;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.impl.MenuRepositoryImpl;
+import com.unicorn.rest.repository.table.MenuTable;
+import com.unicorn.rest.server.admin.AdminStatsRegistry;
+
+public class MenuRepositoryFactory implements Factory<MenuRepository> {
+    private static final Logger LOG = LogManager.getLogger(MenuRepositoryFactory.class);
+
+    public static final String MENU_REPOSITORY_CACHE_STATS = "menu_repository";
+    /*
+     * The menus published or deleted through other servers show up on this one within about the interval
+     */
+    public static final long MENU_POLL_INTERVAL_IN_SECONDS = 10;
+
+    private final MenuRepository menuRepository;
+    private final ScheduledExecutorService menuPollExecutor;
+
+    /*
+     * The menus are loaded by the first poll in background rather than here, and the menus requested meanwhile are read through
+     */
+    @Inject
+    public MenuRepositoryFactory(MenuTable menuTable) {
+        MenuRepositoryImpl menuRepositoryImpl = new MenuRepositoryImpl(menuTable, new JSONMenuRenderer());
+        AdminStatsRegistry.registerCacheStats(MENU_REPOSITORY_CACHE_STATS, menuRepositoryImpl);
+        this.menuRepository = menuRepositoryImpl;
+
+        this.menuPollExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "MenuPoll");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.menuPollExecutor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                pollMenus(menuRepository);
+            }
+        }, 0, MENU_POLL_INTERVAL_IN_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /*
+     * The menus are served from memory only, so a failed poll keeps serving the menus polled last time rather than failing the server,
+     * and leaves the watermark where it was for the next poll to pick up the changes missed
+     */
+    private static void pollMenus(MenuRepository menuRepository) {
+        try {
+            int numOfMenus = menuRepository.pollMenus();
+            if (numOfMenus > 0) {
+                LOG.info("Polled {} changed menus.", numOfMenus);
+            }
+        } catch (RepositoryServerException | RuntimeException error) {
+            LOG.warn("Failed while attempting to poll menus.", error);
+        }
+    }
+
+    @Override
+    public MenuRepository provide() {
+        return menuRepository;
+    }
+
+    @Override
+    public void dispose(MenuRepository instance) {
+        menuPollExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,52 @@
+package com.unicorn.rest.server.injector;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import javax.inject.Inject;
+
+import org.glassfish.hk2.api.Factory;
+
+import com.unicorn.rest.repository.MenuRepository;
+import com.unicorn.rest.repository.MenuSearchRepository;
+import com.unicorn.rest.repository.impl.MenuSearchRepositoryImpl;
+import com.unicorn.rest.server.admin.AdminStatsRegistry;
+
+public class MenuSearchRepositoryFactory implements Factory<MenuSearchRepository> {
+
+    public static final String MENU_SEARCH_REPOSITORY_CACHE_STATS = "menu_search_repository";
+
+    private final MenuSearchRepository menuSearchRepository;
+    private final ExecutorService menuSearchMergeExecutor;
+
+    /*
+     * The menus already in memory are indexed in one segment when the listener is added, and the index is updated along with the menus afterwards,
+     * with the segments merged in the background
+     */
+    @Inject
+    public MenuSearchRepositoryFactory(MenuRepository menuRepository) {
+        this.menuSearchMergeExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "MenuSearchMerge");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        MenuSearchRepositoryImpl menuSearchRepositoryImpl = new MenuSearchRepositoryImpl(menuSearchMergeExecutor);
+        AdminStatsRegistry.registerCacheStats(MENU_SEARCH_REPOSITORY_CACHE_STATS, menuSearchRepositoryImpl);
+        menuRepository.addMenuSnapshotListener(menuSearchRepositoryImpl);
+        this.menuSearchRepository = menuSearchRepositoryImpl;
+    }
+
+    @Override
+    public MenuSearchRepository provide() {
+        return menuSearchRepository;
+    }
+
+    @Override
+    public void dispose(MenuSearchRepository instance) {
+        menuSearchMergeExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,82 @@
+package com.unicorn.rest.server.injector;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.glassfish.hk2.api.Factory;
+
+import com.unicorn.rest.repository.MenuRepository;
+import com.unicorn.rest.repository.PopularityRepository;
+import com.unicorn.rest.repository.impl.PopularityRepositoryImpl;
+import com.unicorn.rest.repository.table.PopularityCounterTable;
+import com.unicorn.rest.server.admin.AdminStatsRegistry;
+
+public class PopularityRepositoryFactory implements Factory<PopularityRepository> {
+    private static final Logger LOG = LogManager.getLogger(PopularityRepositoryFactory.class);
+
+    public static final String POPULARITY_REPOSITORY_CACHE_STATS = "popularity_repository";
+    /*
+     * The popularity of the items halves every 6 hours without new events, so the dishes trending today outrank those popular last week
+     */
+    public static final long POPULARITY_HALF_LIFE_IN_MILLS = TimeUnit.HOURS.toMillis(6);
+    /*
+     * Each materialization flushes the counters on this server and ranks the shared counts into the popular items once per interval across the servers,
+     * which are served with max-age of the same interval
+     */
+    public static final long POPULARITY_MATERIALIZE_INTERVAL_IN_SECONDS = 60;
+
+    private final PopularityRepository popularityRepository;
+    private final ScheduledExecutorService popularityMaterializeExecutor;
+
+    @Inject
+    public PopularityRepositoryFactory(MenuRepository menuRepository, PopularityCounterTable popularityCounterTable) {
+        PopularityRepositoryImpl popularityRepositoryImpl = new PopularityRepositoryImpl(menuRepository, popularityCounterTable,
+                POPULARITY_HALF_LIFE_IN_MILLS, TimeUnit.SECONDS.toMillis(POPULARITY_MATERIALIZE_INTERVAL_IN_SECONDS));
+        AdminStatsRegistry.registerCacheStats(POPULARITY_REPOSITORY_CACHE_STATS, popularityRepositoryImpl);
+        menuRepository.addMenuSnapshotListener(popularityRepositoryImpl);
+        this.popularityRepository = popularityRepositoryImpl;
+
+        this.popularityMaterializeExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "PopularityMaterialize");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.popularityMaterializeExecutor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                materializePopularItems(popularityRepository);
+            }
+        }, POPULARITY_MATERIALIZE_INTERVAL_IN_SECONDS, POPULARITY_MATERIALIZE_INTERVAL_IN_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /*
+     * A failed materialization keeps the popular items materialized last time, which the next one catches up
+     */
+    private static void materializePopularItems(PopularityRepository popularityRepository) {
+        try {
+            int numOfRestaurants = popularityRepository.materializePopularItems();
+            LOG.info("Materialized popular items, which changed for {} restaurants.", numOfRestaurants);
+        } catch (RuntimeException error) {
+            LOG.warn("Failed while attempting to materialize popular items.", error);
+        }
+    }
+
+    @Override
+    public PopularityRepository provide() {
+        return popularityRepository;
+    }
+
+    @Override
+    public void dispose(PopularityRepository instance) {
+        popularityMaterializeExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,30 @@
+package com.unicorn.rest.server.injector;
+
+import javax.inject.Inject;
+
+import org.glassfish.hk2.api.Factory;
+
+import com.unicorn.rest.repository.table.PrincipalRoleTable;
+import com.unicorn.rest.server.admin.AdminStatsRegistry;
+import com.unicorn.rest.server.filter.role.PrincipalRoleResolver;
+
+public class PrincipalRoleResolverFactory implements Factory<PrincipalRoleResolver> {
+
+    public static final String PRINCIPAL_ROLES_CACHE_STATS = "principal_roles";
+
+    private final PrincipalRoleResolver principalRoleResolver;
+
+    @Inject
+    public PrincipalRoleResolverFactory(PrincipalRoleTable principalRoleTable) {
+        this.principalRoleResolver = new PrincipalRoleResolver(principalRoleTable);
+        AdminStatsRegistry.registerCacheStats(PRINCIPAL_ROLES_CACHE_STATS, principalRoleResolver);
+    }
+
+    @Override
+    public PrincipalRoleResolver provide() {
+        return principalRoleResolver;
+    }
+
+    @Override
+    public void dispose(PrincipalRoleResolver instance) {}
+}
@@ -1,37 +1,94 @@
 package com.unicorn.rest.server.injector;
 
+import javax.annotation.Nonnull;
 import javax.inject.Singleton;
 
 import org.glassfish.hk2.utilities.binding.AbstractBinder;
 
 import com.unicorn.rest.repository.AccessControlPolicyRepository;
 import com.unicorn.rest.repository.AuthorizationTokenRepository;
+import com.unicorn.rest.repository.AutocompleteRepository;
+import com.unicorn.rest.repository.ItemAvailabilityRepository;
+import com.unicorn.rest.repository.MenuImportRepository;
+import com.unicorn.rest.repository.MenuRepository;
+import com.unicorn.rest.repository.MenuSearchRepository;
+import com.unicorn.rest.repository.PopularityRepository;
+import com.unicorn.rest.repository.RestaurantLocationRepository;
+import com.unicorn.rest.repository.RestaurantRepository;
 import com.unicorn.rest.repository.UserRepository;
+import com.unicorn.rest.repository.impl.dynamodb.DynamoAccessControlPolicyTable;
 import com.unicorn.rest.repository.impl.dynamodb.DynamoAuthorizationTokenTable;
 import com.unicorn.rest.repository.impl.dynamodb.DynamoEmailAddressToPrincipalTable;
+import com.unicorn.rest.repository.impl.dynamodb.DynamoItemAvailabilityTable;
+import com.unicorn.rest.repository.impl.dynamodb.DynamoMenuTable;
 import com.unicorn.rest.repository.impl.dynamodb.DynamoMobilePhoneToPrincipalTable;
 import com.unicorn.rest.repository.impl.dynamodb.DynamoNameToPrincipalTable;
+import com.unicorn.rest.repository.impl.dynamodb.DynamoPopularityCounterTable;
+import com.unicorn.rest.repository.impl.dynamodb.DynamoPrincipalRoleTable;
+import com.unicorn.rest.repository.impl.dynamodb.DynamoRestaurantLocationTable;
+import com.unicorn.rest.repository.impl.dynamodb.DynamoRestaurantTable;
 import com.unicorn.rest.repository.impl.dynamodb.DynamoUserProfileTable;
+import com.unicorn.rest.repository.table.AccessControlPolicyTable;
 import com.unicorn.rest.repository.table.AuthorizationTokenTable;
 import com.unicorn.rest.repository.table.EmailAddressToPrincipalTable;
+import com.unicorn.rest.repository.table.ItemAvailabilityTable;
+import com.unicorn.rest.repository.table.MenuTable;
 import com.unicorn.rest.repository.table.MobilePhoneToPrincipalTable;
 import com.unicorn.rest.repository.table.NameToPrincipalTable;
+import com.unicorn.rest.repository.table.PopularityCounterTable;
+import com.unicorn.rest.repository.table.PrincipalRoleTable;
+import com.unicorn.rest.repository.table.RestaurantLocationTable;
+import com.unicorn.rest.repository.table.RestaurantTable;
 import com.unicorn.rest.repository.table.UserProfileTable;
+import com.unicorn.rest.server.PropertiesParser;
+import com.unicorn.rest.server.filter.AccessControlPolicyEvaluator;
+import com.unicorn.rest.server.filter.role.PrincipalRoleResolver;
+import com.unicorn.rest.server.limiter.ItemEventRateLimiter;
+import com.unicorn.rest.server.limiter.TokenRateLimiter;
 
 public class RepositoryBinder extends AbstractBinder {
 
+    private final PropertiesParser serverPropertiesParser;
+
+    /**
+     * @param serverPropertiesParser the server properties the repositories and limiters are configured by @Nonnull
+     */
+    public RepositoryBinder(@Nonnull PropertiesParser serverPropertiesParser) {
+        this.serverPropertiesParser = serverPropertiesParser;
+    }
+
     @Override
     protected void configure() {
+        bind(serverPropertiesParser).to(PropertiesParser.class);
 
         bind(new DynamoAuthorizationTokenTable()).to(AuthorizationTokenTable.class);
+        bind(new DynamoAccessControlPolicyTable()).to(AccessControlPolicyTable.class);
         bind(new DynamoNameToPrincipalTable()).to(NameToPrincipalTable.class);
         bind(new DynamoMobilePhoneToPrincipalTable()).to(MobilePhoneToPrincipalTable.class);
         bind(new DynamoEmailAddressToPrincipalTable()).to(EmailAddressToPrincipalTable.class);
         bind(new DynamoUserProfileTable()).to(UserProfileTable.class);
+        bind(new DynamoPrincipalRoleTable()).to(PrincipalRoleTable.class);
+        bind(new DynamoRestaurantTable()).to(RestaurantTable.class);
+        bind(new DynamoMenuTable()).to(MenuTable.class);
+        bind(new DynamoRestaurantLocationTable()).to(RestaurantLocationTable.class);
+        bind(new DynamoItemAvailabilityTable()).to(ItemAvailabilityTable.class);
+        bind(new DynamoPopularityCounterTable()).to(PopularityCounterTable.class);
         
         bindFactory(AuthorizationTokenRepositoryFactory.class).to(AuthorizationTokenRepository.class).in(Singleton.class);
         bindFactory(UserRepositoryFactory.class).to(UserRepository.class).in(Singleton.class);
         bindFactory(AccessControlPolicyRepositoryFactory.class).to(AccessControlPolicyRepository.class).in(Singleton.class);
+        bindFactory(AccessControlPolicyEvaluatorFactory.class).to(AccessControlPolicyEvaluator.class).in(Singleton.class);
+        bindFactory(PrincipalRoleResolverFactory.class).to(PrincipalRoleResolver.class).in(Singleton.class);
+        bindFactory(RestaurantRepositoryFactory.class).to(RestaurantRepository.class).in(Singleton.class);
+        bindFactory(RestaurantLocationRepositoryFactory.class).to(RestaurantLocationRepository.class).in(Singleton.class);
+        bindFactory(MenuRepositoryFactory.class).to(MenuRepository.class).in(Singleton.class);
+        bindFactory(MenuSearchRepositoryFactory.class).to(MenuSearchRepository.class).in(Singleton.class);
+        bindFactory(AutocompleteRepositoryFactory.class).to(AutocompleteRepository.class).in(Singleton.class);
+        bindFactory(ItemAvailabilityRepositoryFactory.class).to(ItemAvailabilityRepository.class).in(Singleton.class);
+        bindFactory(MenuImportRepositoryFactory.class).to(MenuImportRepository.class).in(Singleton.class);
+        bindFactory(PopularityRepositoryFactory.class).to(PopularityRepository.class).in(Singleton.class);
+        bindFactory(TokenRateLimiterFactory.class).to(TokenRateLimiter.class).in(Singleton.class);
+        bindFactory(ItemEventRateLimiterFactory.class).to(ItemEventRateLimiter.class).in(Singleton.class);
         
     }
 }
@@ -0,0 +1,76 @@
+package com.unicorn.rest.server.injector;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.glassfish.hk2.api.Factory;
+
+import com.unicorn.rest.repository.RestaurantLocationRepository;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.impl.RestaurantLocationRepositoryImpl;
+import com.unicorn.rest.repository.table.RestaurantLocationTable;
+import com.unicorn.rest.server.admin.AdminStatsRegistry;
+
+public class RestaurantLocationRepositoryFactory implements Factory<RestaurantLocationRepository> {
+    private static final Logger LOG = LogManager.getLogger(RestaurantLocationRepositoryFactory.class);
+
+    public static final String RESTAURANT_LOCATION_REPOSITORY_CACHE_STATS = "restaurant_location_repository";
+    /*
+     * The locations updated through other servers are picked up by the periodic reload
+     */
+    public static final long RESTAURANT_LOCATION_RELOAD_INTERVAL_IN_SECONDS = 300;
+
+    private final RestaurantLocationRepository restaurantLocationRepository;
+    private final ScheduledExecutorService restaurantLocationReloadExecutor;
+
+    @Inject
+    public RestaurantLocationRepositoryFactory(RestaurantLocationTable restaurantLocationTable) {
+        RestaurantLocationRepositoryImpl restaurantLocationRepositoryImpl = new RestaurantLocationRepositoryImpl(restaurantLocationTable);
+        AdminStatsRegistry.registerCacheStats(RESTAURANT_LOCATION_REPOSITORY_CACHE_STATS, restaurantLocationRepositoryImpl);
+        reloadRestaurantLocations(restaurantLocationRepositoryImpl);
+        this.restaurantLocationRepository = restaurantLocationRepositoryImpl;
+
+        this.restaurantLocationReloadExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "RestaurantLocationReload");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.restaurantLocationReloadExecutor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                reloadRestaurantLocations(restaurantLocationRepository);
+            }
+        }, RESTAURANT_LOCATION_RELOAD_INTERVAL_IN_SECONDS, RESTAURANT_LOCATION_RELOAD_INTERVAL_IN_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /*
+     * A failed reload keeps serving the locations loaded last time rather than failing the server
+     */
+    private static void reloadRestaurantLocations(RestaurantLocationRepository restaurantLocationRepository) {
+        try {
+            int numOfRestaurants = restaurantLocationRepository.reloadRestaurantLocations();
+            LOG.info("Reloaded locations of {} restaurants.", numOfRestaurants);
+        } catch (RepositoryServerException | RuntimeException error) {
+            LOG.warn("Failed while attempting to reload restaurant locations.", error);
+        }
+    }
+
+    @Override
+    public RestaurantLocationRepository provide() {
+        return restaurantLocationRepository;
+    }
+
+    @Override
+    public void dispose(RestaurantLocationRepository instance) {
+        restaurantLocationReloadExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,32 @@
+package com.unicorn.rest.server.injector;
+
+import javax.inject.Inject;
+
+import org.glassfish.hk2.api.Factory;
+
+import com.unicorn.rest.repository.RestaurantRepository;
+import com.unicorn.rest.repository.impl.RestaurantRepositoryImpl;
+import com.unicorn.rest.repository.table.RestaurantTable;
+import com.unicorn.rest.server.admin.AdminStatsRegistry;
+
+public class RestaurantRepositoryFactory implements Factory<RestaurantRepository> {
+
+    public static final String RESTAURANT_REPOSITORY_CACHE_STATS = "restaurant_repository";
+
+    private final RestaurantRepository restaurantRepository;
+
+    @Inject
+    public RestaurantRepositoryFactory(RestaurantTable restaurantTable) {
+        RestaurantRepositoryImpl restaurantRepositoryImpl = new RestaurantRepositoryImpl(restaurantTable);
+        AdminStatsRegistry.registerCacheStats(RESTAURANT_REPOSITORY_CACHE_STATS, restaurantRepositoryImpl);
+        this.restaurantRepository = restaurantRepositoryImpl;
+    }
+
+    @Override
+    public RestaurantRepository provide() {
+        return restaurantRepository;
+    }
+
+    @Override
+    public void dispose(RestaurantRepository instance) {}
+}
@@ -0,0 +1,55 @@
+package com.unicorn.rest.server.injector;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+
+import org.glassfish.hk2.api.Factory;
+
+import com.unicorn.rest.repository.impl.dynamodb.DynamoRateLimitCounterTable;
+import com.unicorn.rest.server.PropertiesParser;
+import com.unicorn.rest.server.admin.AdminStatsRegistry;
+import com.unicorn.rest.server.limiter.TokenRateLimiter;
+
+public class TokenRateLimiterFactory implements Factory<TokenRateLimiter> {
+
+    public static final String TOKEN_RATE_LIMITER_STATS = "token_rate_limiter";
+    /*
+     * The shared counter costs one DynamoDB write per token request, so it is off unless the table is provisioned and the property is true
+     */
+    public static final String SHARED_TOKEN_RATE_LIMIT_PROPERTY = "SHARED_TOKEN_RATE_LIMIT";
+    /*
+     * The comma separated addresses of the load balancers in front of the server, whose X-Forwarded-For is honored
+     */
+    public static final String TRUSTED_PROXY_ADDRESSES_PROPERTY = "TRUSTED_PROXY_ADDRESSES";
+
+    private final TokenRateLimiter tokenRateLimiter;
+
+    @Inject
+    public TokenRateLimiterFactory(PropertiesParser serverPropertiesParser) {
+        boolean sharedTokenRateLimit = Boolean.parseBoolean(serverPropertiesParser.getProperty(SHARED_TOKEN_RATE_LIMIT_PROPERTY, "false").trim());
+        this.tokenRateLimiter = new TokenRateLimiter(sharedTokenRateLimit ? new DynamoRateLimitCounterTable() : null,
+                parseAddresses(serverPropertiesParser.getProperty(TRUSTED_PROXY_ADDRESSES_PROPERTY, "")));
+        AdminStatsRegistry.registerMetrics(TOKEN_RATE_LIMITER_STATS, tokenRateLimiter);
+    }
+
+    static @Nonnull Set<String> parseAddresses(@Nonnull String addresses) {
+        Set<String> parsedAddresses = new HashSet<>();
+        for (String address : addresses.split(",")) {
+            if (!address.trim().isEmpty()) {
+                parsedAddresses.add(address.trim());
+            }
+        }
+        return parsedAddresses;
+    }
+
+    @Override
+    public TokenRateLimiter provide() {
+        return tokenRateLimiter;
+    }
+
+    @Override
+    public void dispose(TokenRateLimiter instance) {}
+}
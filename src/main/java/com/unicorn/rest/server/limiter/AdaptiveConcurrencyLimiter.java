@@ -0,0 +1,250 @@
+package com.unicorn.rest.server.limiter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.unicorn.rest.server.admin.StatsProvider;
+
+/**
+ * Limit the number of requests being processed concurrently, and adapt the limit to the observed latency: 
+ * 
+ * 1. The lowest latency observed recently is taken as the no-load latency, per AdmissionPriority since the token requests
+ *    are much cheaper than, e.g. publishing a menu, and one baseline would read the slower classes as overload. 
+ * 2. As long as the latency stays within RTT_TOLERANCE of the no-load latency of its class and the limit is actually being used, 
+ *    the limit grows by sqrt(limit), so that we keep a small queue inside the server to absorb bursts.
+ * 3. Once the latency goes beyond that, e.g. DynamoDB slows down, the limit shrinks by the latency gradient, 
+ *    and it is cut multiplicatively whenever a request fails with server error.
+ *    
+ * The requests beyond the limit wait in a bounded queue per AdmissionPriority, and are shed if the queue is full 
+ * or they cannot be admitted within the maximum wait time of the priority.
+ */
+public class AdaptiveConcurrencyLimiter implements StatsProvider {
+
+    public static final int DEFAULT_INITIAL_LIMIT = 20;
+    public static final int DEFAULT_MIN_LIMIT = 4;
+    public static final int DEFAULT_MAX_LIMIT = 200;
+
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF_RATIO = 0.9;
+    /**
+     * Reset the no-load latency periodically, so that it follows the shift of the baseline latency instead of 
+     * sticking to the lowest latency ever observed
+     */
+    private static final int NO_LOAD_RTT_RESET_SAMPLES = 1000;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private final Object lock = new Object();
+    private final List<Deque<Waiter>> waitQueues;
+    private double limit;
+    private int inflight;
+    /*
+     * Indexed by the ordinal of AdmissionPriority
+     */
+    private final long[] noLoadRttsInNanos;
+    private final int[] samplesSinceReset;
+    private long admittedCount;
+    private long shedCount;
+
+    public AdaptiveConcurrencyLimiter() {
+        this(DEFAULT_INITIAL_LIMIT, DEFAULT_MIN_LIMIT, DEFAULT_MAX_LIMIT);
+    }
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit <= 0 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException(String.format("Invalid concurrency limits: initial=%s, min=%s, max=%s", initialLimit, minLimit, maxLimit));
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.waitQueues = new ArrayList<>(AdmissionPriority.values().length);
+        this.noLoadRttsInNanos = new long[AdmissionPriority.values().length];
+        Arrays.fill(noLoadRttsInNanos, Long.MAX_VALUE);
+        this.samplesSinceReset = new int[AdmissionPriority.values().length];
+        for (int i = 0; i < AdmissionPriority.values().length; i++) {
+            waitQueues.add(new ArrayDeque<Waiter>());
+        }
+    }
+
+    /**
+     * Admit the request immediately if the limit is not reached. Otherwise, wait for up to the maximum wait time of the priority. 
+     * 
+     * @param priority @Nonnull
+     * @return NULL if the request should be shed
+     */
+    public @Nullable Permit tryAcquire(@Nonnull AdmissionPriority priority) {
+        Waiter waiter = null;
+        synchronized (lock) {
+            /*
+             * Do not let the new request jump over the requests of same or higher priority which are already waiting
+             */
+            if (inflight < (int) limit && !hasWaiters(priority)) {
+                inflight++;
+                admittedCount++;
+                return new Permit(priority, System.nanoTime());
+            }
+            Deque<Waiter> waitQueue = waitQueues.get(priority.ordinal());
+            if (waitQueue.size() >= priority.getMaxQueueSize()) {
+                shedCount++;
+                return null;
+            }
+            waiter = new Waiter();
+            waitQueue.addLast(waiter);
+        }
+
+        waiter.await(priority.getMaxWaitInMills());
+        synchronized (lock) {
+            /*
+             * The waiter might be granted right after the wait timed out
+             */
+            if (waiter.granted) {
+                admittedCount++;
+                return new Permit(priority, System.nanoTime());
+            }
+            waitQueues.get(priority.ordinal()).remove(waiter);
+            shedCount++;
+            return null;
+        }
+    }
+
+    /**
+     * Release the permit and feed the latency of the request to the limit. Releasing the same permit twice takes no effect.
+     * 
+     * @param permit @Nonnull
+     * @param failed whether the request failed with server error
+     */
+    public void release(@Nonnull Permit permit, boolean failed) {
+        if (!permit.released.compareAndSet(false, true)) {
+            return;
+        }
+        long rttInNanos = System.nanoTime() - permit.admittedInNanos;
+        synchronized (lock) {
+            updateLimit(permit.priority, rttInNanos, inflight, failed);
+            inflight--;
+            grantWaiters();
+        }
+    }
+
+    public double getLimit() {
+        synchronized (lock) {
+            return limit;
+        }
+    }
+
+    public int getInflight() {
+        synchronized (lock) {
+            return inflight;
+        }
+    }
+
+    @Override
+    public @Nonnull Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (lock) {
+            stats.put("limit", (int) limit);
+            stats.put("inflight", inflight);
+            for (AdmissionPriority priority : AdmissionPriority.values()) {
+                stats.put("queued_" + priority.name().toLowerCase(), waitQueues.get(priority.ordinal()).size());
+            }
+            stats.put("admitted_count", admittedCount);
+            stats.put("shed_count", shedCount);
+            for (AdmissionPriority priority : AdmissionPriority.values()) {
+                long noLoadRttInNanos = noLoadRttsInNanos[priority.ordinal()];
+                stats.put("no_load_rtt_in_mills_" + priority.name().toLowerCase(), 
+                        noLoadRttInNanos == Long.MAX_VALUE ? null : TimeUnit.NANOSECONDS.toMillis(noLoadRttInNanos));
+            }
+        }
+        return stats;
+    }
+
+    private void updateLimit(@Nonnull AdmissionPriority priority, long rttInNanos, int inflightAtRelease, boolean failed) {
+        double newLimit;
+        if (failed) {
+            newLimit = limit * BACKOFF_RATIO;
+        } else {
+            int index = priority.ordinal();
+            if (++samplesSinceReset[index] >= NO_LOAD_RTT_RESET_SAMPLES) {
+                samplesSinceReset[index] = 0;
+                noLoadRttsInNanos[index] = rttInNanos;
+            } else {
+                noLoadRttsInNanos[index] = Math.min(noLoadRttsInNanos[index], rttInNanos);
+            }
+            long noLoadRttInNanos = noLoadRttsInNanos[index];
+            double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, RTT_TOLERANCE * noLoadRttInNanos / Math.max(1, rttInNanos)));
+            newLimit = limit * gradient;
+            /*
+             * Only grow the limit when it is actually being used, otherwise it keeps growing while the server is idle
+             */
+            if (gradient >= 1.0 && inflightAtRelease * 2 >= limit) {
+                newLimit += Math.sqrt(limit);
+            }
+            newLimit = (1 - SMOOTHING) * limit + SMOOTHING * newLimit;
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    private boolean hasWaiters(@Nonnull AdmissionPriority priority) {
+        for (int i = 0; i <= priority.ordinal(); i++) {
+            if (!waitQueues.get(i).isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void grantWaiters() {
+        for (int i = 0; i < waitQueues.size() && inflight < (int) limit; i++) {
+            Deque<Waiter> waitQueue = waitQueues.get(i);
+            while (!waitQueue.isEmpty() && inflight < (int) limit) {
+                Waiter waiter = waitQueue.pollFirst();
+                waiter.granted = true;
+                inflight++;
+                waiter.latch.countDown();
+            }
+        }
+    }
+
+    public static class Permit {
+        private final AdmissionPriority priority;
+        private final long admittedInNanos;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        /*
+         * This constructor is package private for unit test
+         */
+        Permit(@Nonnull AdmissionPriority priority, long admittedInNanos) {
+            this.priority = priority;
+            this.admittedInNanos = admittedInNanos;
+        }
+    }
+
+    private static class Waiter {
+        private final CountDownLatch latch = new CountDownLatch(1);
+        /*
+         * Guarded by the lock of the limiter
+         */
+        private boolean granted = false;
+
+        private void await(long maxWaitInMills) {
+            try {
+                latch.await(maxWaitInMills, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException error) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
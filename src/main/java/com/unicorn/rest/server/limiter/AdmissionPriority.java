@@ -0,0 +1,38 @@
+package com.unicorn.rest.server.limiter;
+
+/**
+ * The priority classes of admission control, in the order of decreasing priority.
+ * When the concurrency limit is reached, the waiting requests of higher priority are always admitted first, 
+ * and requests of lower priority get smaller wait queue and shorter wait time, so they are shed first.
+ */
+public enum AdmissionPriority {
+
+    /**
+     * Generating, validating and revoking tokens, since every other authenticated request depends on it
+     */
+    TOKEN(64, 100),
+    /**
+     * Requests carrying authorization header
+     */
+    AUTHENTICATED(32, 50),
+    /**
+     * Registration and other anonymous requests
+     */
+    REGISTRATION(8, 10);
+
+    private final int maxQueueSize;
+    private final long maxWaitInMills;
+
+    private AdmissionPriority(int maxQueueSize, long maxWaitInMills) {
+        this.maxQueueSize = maxQueueSize;
+        this.maxWaitInMills = maxWaitInMills;
+    }
+
+    public int getMaxQueueSize() {
+        return maxQueueSize;
+    }
+
+    public long getMaxWaitInMills() {
+        return maxWaitInMills;
+    }
+}
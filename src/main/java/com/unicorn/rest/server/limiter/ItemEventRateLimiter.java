@@ -0,0 +1,71 @@
+package com.unicorn.rest.server.limiter;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.unicorn.rest.server.admin.StatsProvider;
+
+/**
+ * Rate limit the item events reported by client address, since the events are reported without any principal
+ * and one client flooding the events of its choice would otherwise decide the popular items of the restaurant.
+ *
+ * The client reports the events of a page in one request, so the limit is on the requests rather than the events,
+ * with a burst large enough for the client browsing a few menus at once.
+ */
+public class ItemEventRateLimiter implements StatsProvider {
+
+    public static final int CLIENT_REQUESTS_PER_MINUTE = 60;
+    public static final int CLIENT_BURST_SIZE = 30;
+    public static final int MAX_KEYS = 100000;
+
+    private final TokenBucketRateLimiter clientRateLimiter;
+    private final Set<String> trustedProxyAddresses;
+
+    /**
+     * @param trustedProxyAddresses the addresses of the load balancers whose X-Forwarded-For is honored @Nonnull
+     */
+    public ItemEventRateLimiter(@Nonnull Set<String> trustedProxyAddresses) {
+        this(new TokenBucketRateLimiter(CLIENT_REQUESTS_PER_MINUTE, CLIENT_BURST_SIZE, MAX_KEYS), trustedProxyAddresses);
+    }
+
+    public ItemEventRateLimiter(@Nonnull TokenBucketRateLimiter clientRateLimiter, @Nonnull Set<String> trustedProxyAddresses) {
+        this.clientRateLimiter = clientRateLimiter;
+        this.trustedProxyAddresses = Collections.unmodifiableSet(new HashSet<>(trustedProxyAddresses));
+    }
+
+    /**
+     * @param forwardedFor the X-Forwarded-For header @Nullable
+     * @param remoteAddress the address the request is received from @Nullable
+     * @return the address of the client, NULL if unknown, see TokenRateLimiter.resolveClientAddress
+     */
+    public @Nullable String resolveClientAddress(@Nullable String forwardedFor, @Nullable String remoteAddress) {
+        return TokenRateLimiter.resolveClientAddress(forwardedFor, remoteAddress, trustedProxyAddresses);
+    }
+
+    /**
+     * @param clientAddress @Nullable
+     * @return true if the client is allowed to report events, the client without known address is always allowed
+     */
+    public boolean tryAcquireForClient(@Nullable String clientAddress) {
+        if (clientAddress == null) {
+            return true;
+        }
+        return clientRateLimiter.tryAcquire(clientAddress);
+    }
+
+    @Override
+    public @Nonnull Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("client_keys", clientRateLimiter.size());
+        stats.put("client_acquired_count", clientRateLimiter.getAcquiredCount());
+        stats.put("client_rejected_count", clientRateLimiter.getRejectedCount());
+        stats.put("trusted_proxies", trustedProxyAddresses.size());
+        return stats;
+    }
+}
@@ -0,0 +1,151 @@
+package com.unicorn.rest.server.limiter;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Token bucket rate limiter keyed by arbitrary string, e.g. client address or login name.
+ * 
+ * Each bucket is implemented as the generic cell rate algorithm: instead of the number of tokens left, 
+ * we keep the theoretical arrival time of the next request in a single AtomicLong, and update it with compare-and-set.
+ * The buckets live in a ConcurrentHashMap, so updates on different keys do not contend with each other.
+ * 
+ * A bucket whose theoretical arrival time has passed is full, which is the same as a bucket that does not exist, 
+ * so those idle buckets are evicted once the number of keys reaches maxKeys. If none of the buckets is idle, the limiter fails closed:
+ * the new key is rejected by tryAcquire, and shares one overflow bucket with the other new keys in reserveInNanos,
+ * so that a flood of distinct keys can neither grow the map nor get a fresh burst for each key.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final long MIN_NANOS_BETWEEN_EVICTIONS = TimeUnit.SECONDS.toNanos(1);
+
+    private final long emissionIntervalInNanos;
+    private final long burstToleranceInNanos;
+    private final int maxKeys;
+
+    private final ConcurrentHashMap<String, AtomicLong> theoreticalArrivalsInNanos = new ConcurrentHashMap<>();
+    private final AtomicLong overflowTheoreticalArrivalInNanos = new AtomicLong(System.nanoTime());
+    private final AtomicLong lastEvictionInNanos = new AtomicLong(System.nanoTime());
+    private final LongAdder acquiredCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    /**
+     * @param permitsPerMinute the rate the bucket is refilled
+     * @param burstSize the capacity of the bucket
+     * @param maxKeys the number of keys beyond which idle buckets are evicted
+     */
+    public TokenBucketRateLimiter(int permitsPerMinute, int burstSize, int maxKeys) {
+        if (permitsPerMinute <= 0 || burstSize <= 0 || maxKeys <= 0) {
+            throw new IllegalArgumentException(String.format("Invalid rate limit: permitsPerMinute=%s, burstSize=%s, maxKeys=%s", 
+                    permitsPerMinute, burstSize, maxKeys));
+        }
+        this.emissionIntervalInNanos = TimeUnit.MINUTES.toNanos(1) / permitsPerMinute;
+        this.burstToleranceInNanos = emissionIntervalInNanos * burstSize;
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * @param key @Nonnull
+     * @return true if there is token left in the bucket of the key
+     */
+    public boolean tryAcquire(@Nonnull String key) {
+        long nowInNanos = System.nanoTime();
+        AtomicLong theoreticalArrivalInNanos = getBucket(key, nowInNanos);
+        if (theoreticalArrivalInNanos == null) {
+            rejectedCount.increment();
+            return false;
+        }
+
+        while (true) {
+            long currentInNanos = theoreticalArrivalInNanos.get();
+            long nextInNanos = (currentInNanos - nowInNanos > 0 ? currentInNanos : nowInNanos) + emissionIntervalInNanos;
+            if (nextInNanos - nowInNanos > burstToleranceInNanos) {
+                rejectedCount.increment();
+                return false;
+            }
+            if (theoreticalArrivalInNanos.compareAndSet(currentInNanos, nextInNanos)) {
+                acquiredCount.increment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Take the token even if the bucket is empty, for the background work that waits for its turn rather than being rejected.
+     * The waits of the callers queue up on the theoretical arrival time, so they proceed at the rate no matter how many of them there are.
+     *
+     * @param key @Nonnull
+     * @return the nanoseconds the caller should wait before proceeding, 0 if there was token left in the bucket
+     */
+    public long reserveInNanos(@Nonnull String key) {
+        long nowInNanos = System.nanoTime();
+        AtomicLong theoreticalArrivalInNanos = getBucket(key, nowInNanos);
+        if (theoreticalArrivalInNanos == null) {
+            theoreticalArrivalInNanos = overflowTheoreticalArrivalInNanos;
+        }
+
+        while (true) {
+            long currentInNanos = theoreticalArrivalInNanos.get();
+            long nextInNanos = (currentInNanos - nowInNanos > 0 ? currentInNanos : nowInNanos) + emissionIntervalInNanos;
+            if (theoreticalArrivalInNanos.compareAndSet(currentInNanos, nextInNanos)) {
+                acquiredCount.increment();
+                return Math.max(0L, nextInNanos - nowInNanos - burstToleranceInNanos);
+            }
+        }
+    }
+
+    /*
+     * @return NULL if the key is new and there is no room for its bucket even after evicting the idle buckets
+     */
+    private @Nullable AtomicLong getBucket(@Nonnull String key, long nowInNanos) {
+        AtomicLong theoreticalArrivalInNanos = theoreticalArrivalsInNanos.get(key);
+        if (theoreticalArrivalInNanos != null) {
+            return theoreticalArrivalInNanos;
+        }
+        if (theoreticalArrivalsInNanos.size() >= maxKeys) {
+            evictIdleBuckets(nowInNanos);
+            if (theoreticalArrivalsInNanos.size() >= maxKeys) {
+                return null;
+            }
+        }
+        AtomicLong newTheoreticalArrivalInNanos = new AtomicLong(nowInNanos);
+        theoreticalArrivalInNanos = theoreticalArrivalsInNanos.putIfAbsent(key, newTheoreticalArrivalInNanos);
+        return theoreticalArrivalInNanos == null ? newTheoreticalArrivalInNanos : theoreticalArrivalInNanos;
+    }
+
+    public int size() {
+        return theoreticalArrivalsInNanos.size();
+    }
+
+    public long getAcquiredCount() {
+        return acquiredCount.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    /**
+     * Scanning the buckets is O(n), so it is done at most once per MIN_NANOS_BETWEEN_EVICTIONS 
+     * no matter how many new keys are coming in
+     */
+    private void evictIdleBuckets(long nowInNanos) {
+        long lastInNanos = lastEvictionInNanos.get();
+        if (nowInNanos - lastInNanos < MIN_NANOS_BETWEEN_EVICTIONS || !lastEvictionInNanos.compareAndSet(lastInNanos, nowInNanos)) {
+            return;
+        }
+        Iterator<Map.Entry<String, AtomicLong>> buckets = theoreticalArrivalsInNanos.entrySet().iterator();
+        while (buckets.hasNext()) {
+            if (buckets.next().getValue().get() - nowInNanos <= 0) {
+                buckets.remove();
+            }
+        }
+    }
+}
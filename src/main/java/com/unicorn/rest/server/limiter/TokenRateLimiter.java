@@ -0,0 +1,186 @@
+package com.unicorn.rest.server.limiter;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.table.RateLimitCounterTable;
+import com.unicorn.rest.server.admin.StatsProvider;
+import com.unicorn.rest.utils.TimeUtils;
+
+/**
+ * Rate limit the token requests by client address and by login name, so that the attempts on one login name, 
+ * or from one client, cannot consume the DynamoDB capacity and CPU for hashing.
+ * 
+ * The in-process token buckets are always checked first. If the counter table is provided, the attempts on one login name 
+ * are also counted in fixed windows shared by all the servers, so that spreading the attempts across the servers does not help. 
+ * The shared counter fails open, since losing the DynamoDB counter should not lock everyone out.
+ * 
+ * The client address is taken from X-Forwarded-For only if the request comes from one of the trusted proxies, 
+ * otherwise any client could pick its own address by sending the header.
+ */
+public class TokenRateLimiter implements StatsProvider {
+    private static final Logger LOG = LogManager.getLogger(TokenRateLimiter.class);
+
+    public static final int CLIENT_PERMITS_PER_MINUTE = 60;
+    public static final int CLIENT_BURST_SIZE = 20;
+    public static final int LOGIN_NAME_PERMITS_PER_MINUTE = 10;
+    public static final int LOGIN_NAME_BURST_SIZE = 5;
+    public static final int MAX_KEYS = 100000;
+    public static final int SHARED_LOGIN_NAME_PERMITS_PER_WINDOW = 30;
+    
+    private static final long SHARED_WINDOW_IN_MILLS = TimeUnit.MINUTES.toMillis(1);
+    private static final String SHARED_LOGIN_NAME_COUNTER_PREFIX = "LOGIN_NAME#";
+    /*
+     * The failures of the shared counter are logged at most once per interval, since every token request fails the same way
+     */
+    private static final long SHARED_FAILURE_LOG_INTERVAL_IN_MILLS = TimeUnit.MINUTES.toMillis(1);
+
+    private final TokenBucketRateLimiter clientRateLimiter;
+    private final TokenBucketRateLimiter loginNameRateLimiter;
+    private final RateLimitCounterTable rateLimitCounterTable;
+    private final Set<String> trustedProxyAddresses;
+
+    private final LongAdder sharedFailureCount = new LongAdder();
+    private final AtomicLong sharedFailureLoggedInEpoch = new AtomicLong();
+
+    /**
+     * @param rateLimitCounterTable @Nullable the attempts are only limited in process if not provided
+     */
+    public TokenRateLimiter(@Nullable RateLimitCounterTable rateLimitCounterTable) {
+        this(rateLimitCounterTable, Collections.<String>emptySet());
+    }
+
+    /**
+     * @param rateLimitCounterTable @Nullable the attempts are only limited in process if not provided
+     * @param trustedProxyAddresses the addresses of the load balancers whose X-Forwarded-For is honored @Nonnull
+     */
+    public TokenRateLimiter(@Nullable RateLimitCounterTable rateLimitCounterTable, @Nonnull Set<String> trustedProxyAddresses) {
+        this(new TokenBucketRateLimiter(CLIENT_PERMITS_PER_MINUTE, CLIENT_BURST_SIZE, MAX_KEYS), 
+                new TokenBucketRateLimiter(LOGIN_NAME_PERMITS_PER_MINUTE, LOGIN_NAME_BURST_SIZE, MAX_KEYS),
+                rateLimitCounterTable, trustedProxyAddresses);
+    }
+
+    public TokenRateLimiter(@Nonnull TokenBucketRateLimiter clientRateLimiter, @Nonnull TokenBucketRateLimiter loginNameRateLimiter, 
+            @Nullable RateLimitCounterTable rateLimitCounterTable) {
+        this(clientRateLimiter, loginNameRateLimiter, rateLimitCounterTable, Collections.<String>emptySet());
+    }
+
+    public TokenRateLimiter(@Nonnull TokenBucketRateLimiter clientRateLimiter, @Nonnull TokenBucketRateLimiter loginNameRateLimiter, 
+            @Nullable RateLimitCounterTable rateLimitCounterTable, @Nonnull Set<String> trustedProxyAddresses) {
+        this.clientRateLimiter = clientRateLimiter;
+        this.loginNameRateLimiter = loginNameRateLimiter;
+        this.rateLimitCounterTable = rateLimitCounterTable;
+        this.trustedProxyAddresses = Collections.unmodifiableSet(new HashSet<>(trustedProxyAddresses));
+    }
+
+    /**
+     * Each trusted proxy appends the address it received the request from to X-Forwarded-For, so the entries are walked from the last one
+     * and the first address which is not a trusted proxy is the client. The entries before it are provided by the client and ignored.
+     * 
+     * @param forwardedFor the X-Forwarded-For header @Nullable
+     * @param remoteAddress the address the request is received from @Nullable
+     * @return the address of the client, NULL if unknown
+     */
+    public @Nullable String resolveClientAddress(@Nullable String forwardedFor, @Nullable String remoteAddress) {
+        return resolveClientAddress(forwardedFor, remoteAddress, trustedProxyAddresses);
+    }
+
+    /**
+     * @param forwardedFor the X-Forwarded-For header @Nullable
+     * @param remoteAddress the address the request is received from @Nullable
+     * @param trustedProxyAddresses the addresses of the load balancers whose X-Forwarded-For is honored @Nonnull
+     * @return the address of the client, NULL if unknown
+     */
+    public static @Nullable String resolveClientAddress(@Nullable String forwardedFor, @Nullable String remoteAddress,
+            @Nonnull Set<String> trustedProxyAddresses) {
+        if (remoteAddress == null || forwardedFor == null || !trustedProxyAddresses.contains(remoteAddress)) {
+            return remoteAddress;
+        }
+        String clientAddress = remoteAddress;
+        String[] forwardedAddresses = forwardedFor.split(",");
+        for (int i = forwardedAddresses.length - 1; i >= 0; i--) {
+            String forwardedAddress = forwardedAddresses[i].trim();
+            if (forwardedAddress.isEmpty()) {
+                break;
+            }
+            clientAddress = forwardedAddress;
+            if (!trustedProxyAddresses.contains(forwardedAddress)) {
+                break;
+            }
+        }
+        return clientAddress;
+    }
+
+    /**
+     * @param clientAddress @Nullable
+     * @return true if the client is allowed to request token, the client without known address is always allowed
+     */
+    public boolean tryAcquireForClient(@Nullable String clientAddress) {
+        if (clientAddress == null) {
+            return true;
+        }
+        return clientRateLimiter.tryAcquire(clientAddress);
+    }
+
+    /**
+     * @param loginName @Nonnull
+     * @return true if the login name is allowed to request token
+     */
+    public boolean tryAcquireForLoginName(@Nonnull String loginName) {
+        /*
+         * Login name is case insensitive, otherwise changing the case of the login name bypasses the limit
+         */
+        String loginNameKey = loginName.toLowerCase();
+        if (!loginNameRateLimiter.tryAcquire(loginNameKey)) {
+            return false;
+        }
+        if (rateLimitCounterTable == null) {
+            return true;
+        }
+
+        long nowInEpoch = TimeUtils.getEpochTimeNowInUTC();
+        long windowStartInEpoch = nowInEpoch - nowInEpoch % SHARED_WINDOW_IN_MILLS;
+        try {
+            long count = rateLimitCounterTable.incrementAndGetCount(SHARED_LOGIN_NAME_COUNTER_PREFIX + loginNameKey, 
+                    windowStartInEpoch, windowStartInEpoch + 2 * SHARED_WINDOW_IN_MILLS);
+            return count <= SHARED_LOGIN_NAME_PERMITS_PER_WINDOW;
+        } catch (ValidationException | RepositoryServerException error) {
+            sharedFailureCount.increment();
+            long lastLoggedInEpoch = sharedFailureLoggedInEpoch.get();
+            if (nowInEpoch - lastLoggedInEpoch >= SHARED_FAILURE_LOG_INTERVAL_IN_MILLS 
+                    && sharedFailureLoggedInEpoch.compareAndSet(lastLoggedInEpoch, nowInEpoch)) {
+                LOG.warn("Failed while attempting to count token requests in the shared counter, allowing the requests: {}", error.toString());
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public @Nonnull Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("client_keys", clientRateLimiter.size());
+        stats.put("client_acquired_count", clientRateLimiter.getAcquiredCount());
+        stats.put("client_rejected_count", clientRateLimiter.getRejectedCount());
+        stats.put("login_name_keys", loginNameRateLimiter.size());
+        stats.put("login_name_acquired_count", loginNameRateLimiter.getAcquiredCount());
+        stats.put("login_name_rejected_count", loginNameRateLimiter.getRejectedCount());
+        stats.put("shared", rateLimitCounterTable != null);
+        stats.put("shared_failure_count", sharedFailureCount.sum());
+        stats.put("trusted_proxies", trustedProxyAddresses.size());
+        return stats;
+    }
+}
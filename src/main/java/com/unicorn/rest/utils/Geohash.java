@@ -0,0 +1,92 @@
+package com.unicorn.rest.utils;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Encode the location into the geohash, i.e. the bits of longitude and latitude interleaved in Z-order starting with longitude,
+ * so that the locations in the same cell share the same prefix of the code, and a cell is a contiguous range of the codes.
+ */
+public class Geohash {
+
+    /*
+     * 26 bits per axis is about 0.6 meter of resolution, and the 52 bits of code fit in a long
+     */
+    public static final int BITS_PER_AXIS = 26;
+    public static final int MAX_CELLS_PER_AXIS = 1 << BITS_PER_AXIS;
+    private static final char[] BASE32_CHARS = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+    private static final int BITS_PER_BASE32_CHAR = 5;
+
+    /**
+     * @param latitude in degrees within [-90, 90]
+     * @param longitude in degrees within [-180, 180]
+     * @return the geohash at full resolution
+     */
+    public static long encode(double latitude, double longitude) {
+        return interleave(toLongitudeCell(longitude, BITS_PER_AXIS), toLatitudeCell(latitude, BITS_PER_AXIS));
+    }
+
+    /**
+     * @param longitudeCell the column of the cell at the level
+     * @param latitudeCell the row of the cell at the level
+     * @return the geohash of the cell at the level, which is the prefix of the geohash of any location inside the cell
+     */
+    public static long interleave(int longitudeCell, int latitudeCell) {
+        return (spread(longitudeCell) << 1) | spread(latitudeCell);
+    }
+
+    /**
+     * @param longitude in degrees within [-180, 180]
+     * @param level the number of bits per axis, from 0 for the whole world to BITS_PER_AXIS
+     * @return the column of the cell at the level, where the longitude of 180 falls into the last column
+     */
+    public static int toLongitudeCell(double longitude, int level) {
+        return toCell((longitude + 180.0) / 360.0, level);
+    }
+
+    /**
+     * @param latitude in degrees within [-90, 90]
+     * @param level the number of bits per axis, from 0 for the whole world to BITS_PER_AXIS
+     * @return the row of the cell at the level, where the latitude of 90 falls into the last row
+     */
+    public static int toLatitudeCell(double latitude, int level) {
+        return toCell((latitude + 90.0) / 180.0, level);
+    }
+
+    /**
+     * @param geohash the geohash at full resolution
+     * @param numOfChars the number of base32 characters, no more than 10
+     * @return the conventional base32 geohash string truncated to the number of characters @Nonnull
+     */
+    public static @Nonnull String toBase32(long geohash, int numOfChars) {
+        int numOfBits = numOfChars * BITS_PER_BASE32_CHAR;
+        if (numOfChars < 0 || numOfBits > 2 * BITS_PER_AXIS) {
+            throw new IllegalArgumentException(String.format("Invalid number of geohash characters: %s", numOfChars));
+        }
+        long prefix = geohash >>> (2 * BITS_PER_AXIS - numOfBits);
+        char[] chars = new char[numOfChars];
+        for (int i = numOfChars - 1; i >= 0; i--) {
+            chars[i] = BASE32_CHARS[(int) (prefix & 0x1F)];
+            prefix >>>= BITS_PER_BASE32_CHAR;
+        }
+        return new String(chars);
+    }
+
+    private static int toCell(double fraction, int level) {
+        int numOfCells = 1 << level;
+        int cell = (int) (fraction * numOfCells);
+        return Math.max(0, Math.min(numOfCells - 1, cell));
+    }
+
+    /*
+     * Spread the lower 32 bits apart so that there is a zero bit between every two of them
+     */
+    private static long spread(int value) {
+        long bits = value & 0xFFFFFFFFL;
+        bits = (bits | (bits << 16)) & 0x0000FFFF0000FFFFL;
+        bits = (bits | (bits << 8)) & 0x00FF00FF00FF00FFL;
+        bits = (bits | (bits << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        bits = (bits | (bits << 2)) & 0x3333333333333333L;
+        bits = (bits | (bits << 1)) & 0x5555555555555555L;
+        return bits;
+    }
+}
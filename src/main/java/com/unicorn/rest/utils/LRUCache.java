@@ -0,0 +1,200 @@
+package com.unicorn.rest.utils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * The thread-safe cache bounded by the number of entries, which evicts the least recently used entry once full,
+ * so that a wide working set only pushes out the coldest entries rather than the whole hot set.
+ *
+ * The entries are spread over segments by the hash of the key, each of which is an access ordered LinkedHashMap under its own lock,
+ * so that the lookups of different keys rarely contend. The eviction is LRU within the segment, which is close to LRU overall.
+ * The expiry is up to the caller, which removes the entry found expired on lookup.
+ */
+public class LRUCache<K, V> {
+
+    private static final int MAX_SEGMENTS = 16;
+    /*
+     * The segments are not split below this size, so that a small cache still evicts close to LRU overall
+     */
+    private static final int MIN_SEGMENT_SIZE = 64;
+
+    private final List<Segment<K, V>> segments;
+    private final int maxSize;
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param maxSize the maximum number of entries, which is at least 1
+     */
+    public LRUCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException(String.format("Invalid max size: %s", maxSize));
+        }
+        int numOfSegments = 1;
+        while (numOfSegments < MAX_SEGMENTS && maxSize / (numOfSegments * 2) >= MIN_SEGMENT_SIZE) {
+            numOfSegments *= 2;
+        }
+        this.segments = new ArrayList<>(numOfSegments);
+        for (int i = 0; i < numOfSegments; i++) {
+            /*
+             * The remainder goes to the first segments, so that the segments add up to exactly the max size
+             */
+            segments.add(new Segment<K, V>(maxSize / numOfSegments + (i < maxSize % numOfSegments ? 1 : 0), evictionCount));
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @param key @Nonnull
+     * @return NULL if the key is not cached
+     */
+    public @Nullable V get(@Nonnull K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.get(key);
+        }
+    }
+
+    /**
+     * @param key @Nonnull
+     * @param value @Nonnull
+     */
+    public void put(@Nonnull K key, @Nonnull V value) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, value);
+        }
+    }
+
+    /**
+     * @param key @Nonnull
+     * @return the value removed, NULL if the key is not cached
+     */
+    public @Nullable V remove(@Nonnull K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.remove(key);
+        }
+    }
+
+    /**
+     * Remove the entry only if it is still the given value, so that the expired value removed on lookup never takes out a fresh one
+     *
+     * @param key @Nonnull
+     * @param value @Nonnull
+     * @return true if the entry is removed
+     */
+    public boolean remove(@Nonnull K key, @Nonnull V value) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            if (value.equals(segment.get(key))) {
+                segment.remove(key);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Remove the entries of the keys matching the predicate, which walks every entry and is meant for invalidation rather than the request path
+     *
+     * @param keyPredicate @Nonnull
+     * @return the number of entries removed
+     */
+    public int removeIf(@Nonnull Predicate<? super K> keyPredicate) {
+        int numOfRemoved = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                Iterator<K> keys = segment.keySet().iterator();
+                while (keys.hasNext()) {
+                    if (keyPredicate.test(keys.next())) {
+                        keys.remove();
+                        numOfRemoved++;
+                    }
+                }
+            }
+        }
+        return numOfRemoved;
+    }
+
+    /**
+     * Visit every entry without touching its recency, which walks every entry and is meant for invalidation rather than the request path
+     *
+     * @param visitor @Nonnull
+     */
+    public void forEach(@Nonnull BiConsumer<? super K, ? super V> visitor) {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                for (Map.Entry<K, V> entry : segment.entrySet()) {
+                    visitor.accept(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return the number of entries evicted to make room since the cache is created
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    private @Nonnull Segment<K, V> segmentFor(@Nonnull K key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return segments.get(hash & (segments.size() - 1));
+    }
+
+    private static class Segment<K, V> extends LinkedHashMap<K, V> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maxSize;
+        private final transient LongAdder evictionCount;
+
+        private Segment(int maxSize, @Nonnull LongAdder evictionCount) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+            this.evictionCount = evictionCount;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            if (size() > maxSize) {
+                evictionCount.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
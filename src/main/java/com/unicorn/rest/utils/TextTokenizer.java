@@ -0,0 +1,48 @@
+package com.unicorn.rest.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Split the free text into case-folded terms, where a term is a run of letters or digits in any script
+ */
+public class TextTokenizer {
+
+    /**
+     * @param text @Nullable
+     * @return the terms in the order they appear, duplicates included @Nonnull
+     */
+    public static @Nonnull List<String> tokenize(@Nullable String text) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        /*
+         * Case folding may change the length of the text, so the text is folded as a whole before it is split
+         */
+        String foldedText = text.toLowerCase(Locale.ROOT);
+        List<String> terms = new ArrayList<>();
+        int termStart = -1;
+        int offset = 0;
+        while (offset < foldedText.length()) {
+            int codePoint = foldedText.codePointAt(offset);
+            if (Character.isLetterOrDigit(codePoint)) {
+                if (termStart < 0) {
+                    termStart = offset;
+                }
+            } else if (termStart >= 0) {
+                terms.add(foldedText.substring(termStart, offset));
+                termStart = -1;
+            }
+            offset += Character.charCount(codePoint);
+        }
+        if (termStart >= 0) {
+            terms.add(foldedText.substring(termStart));
+        }
+        return terms;
+    }
+}
@@ -12,6 +12,13 @@ public class TimeUtils {
     
     public static final DateTimeZone UTC_TIME_ZONE = DateTimeZone.UTC;
     public static final DateTimeFormatter DATE_FORMATTER = DateTimeFormat.forPattern("yyyy-MM-dd HH:mm:ss z").withZone(UTC_TIME_ZONE);
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    public static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+    private static final long MILLS_PER_MINUTE = 60 * 1000L;
+    /*
+     * 1970-01-01 is a Thursday, i.e. 3 days into the ISO week starting on Monday
+     */
+    private static final int EPOCH_MINUTE_OF_WEEK = 3 * MINUTES_PER_DAY;
     
     
     /**
@@ -115,4 +122,28 @@ public class TimeUtils {
     public static @Nonnull DateTime convertToDateTimeInUTCWithEpochTime(@Nonnull Long timeInMills) {
         return new DateTime(timeInMills, UTC_TIME_ZONE);
     }
+    
+    /**
+     * Get the minute of week of the epoch time in the local time of the time zone, which follows the daylight saving time of the zone
+     * @param timeInMills
+     * @param timeZone @Nonnull
+     * @return the minutes since Monday 00:00 in local time, within [0, MINUTES_PER_WEEK)
+     */
+    public static int getLocalMinuteOfWeek(long timeInMills, @Nonnull DateTimeZone timeZone) {
+        long localMinutes = Math.floorDiv(timeZone.convertUTCToLocal(timeInMills), MILLS_PER_MINUTE);
+        return (int) Math.floorMod(localMinutes + EPOCH_MINUTE_OF_WEEK, (long) MINUTES_PER_WEEK);
+    }
+    
+    /**
+     * Get the epoch time a number of local minutes after the start of the local minute of the epoch time.
+     * The local time skipped by the daylight saving time transition is moved forward past the transition.
+     * @param timeInMills
+     * @param timeZone @Nonnull
+     * @param localMinutes
+     * @return the epoch time in milliseconds
+     */
+    public static long addLocalMinutes(long timeInMills, @Nonnull DateTimeZone timeZone, int localMinutes) {
+        long localStartOfMinute = Math.floorDiv(timeZone.convertUTCToLocal(timeInMills), MILLS_PER_MINUTE) * MILLS_PER_MINUTE;
+        return timeZone.convertLocalToUTC(localStartOfMinute + localMinutes * MILLS_PER_MINUTE, false);
+    }
 }
@@ -63,6 +63,7 @@ public class TokenActivitiesTest extends GrizzlyServerTestBase {
         Mockito.reset(repositoryBinder.getMockedTokenRepository());
         Mockito.reset(repositoryBinder.getMockedUserRepository());
         Mockito.reset(repositoryBinder.getMockedCustomerRepository());
+        Mockito.reset(repositoryBinder.getSpiedTokenRateLimiter());
     }
 
     private PrincipalAuthenticationInfo createAuthenticationInfo(Long principal, String password) 
@@ -386,6 +387,27 @@ public class TokenActivitiesTest extends GrizzlyServerTestBase {
                 errorResponse.getErrorDescription());
     }
     
+    @Test
+    public void testGenerateTokenForUserPasswordSlowDown() throws Exception {
+        String loginName = "login_name";
+        String password = "1a2b3c";
+        mockUserAuthenticationHappyCase(loginName, password, createAuthenticationInfo(SimpleFlakeKeyGenerator.generateKey(), password));
+        Mockito.doReturn(false).when(repositoryBinder.getSpiedTokenRateLimiter()).tryAcquireForLoginName(loginName);
+
+        Response response = webTarget.queryParam(GenerateTokenRequest.LOGIN_NAME, loginName)
+                .queryParam(GenerateTokenRequest.PASSWORD, password)
+                .queryParam(GenerateTokenRequest.GRANT_TYPE, GrantType.USER_PASSWORD.toString()).request(MediaType.APPLICATION_JSON).get();
+        assertEquals(Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaderString(HttpHeaders.CONTENT_TYPE));
+
+        ErrorResponse errorResponse= response.readEntity(ErrorResponse.class);
+        assertNotNull(errorResponse);
+        assertEquals(BadTokenRequestException.class.getSimpleName(), errorResponse.getErrorType());
+        assertEquals(TokenErrCode.SLOW_DOWN.toString(), errorResponse.getErrorCode());
+        assertEquals(String.format(TokenErrDescFormatter.SLOW_DOWN_LOGIN_NAME.toString(), loginName), errorResponse.getErrorDescription());
+        Mockito.verify(repositoryBinder.getMockedUserRepository(), Mockito.never()).getPrincipalForLoginName(loginName);
+    }
+
     @Test
     public void testGenerateTokenForUserPasswordWrongPassword() throws Exception {
         String loginName = "login_name";
@@ -0,0 +1,74 @@
+package com.unicorn.rest.activities.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class ContentNegotiatorTest {
+
+    private static final String ENTITY_TAG = "a1b2c3";
+    private static final List<String> LOCALES = Arrays.asList("zh-Hans", "zh-Hant", "fr", "pt-BR");
+
+    @Test
+    public void testAcceptsGzip() {
+        assertTrue(ContentNegotiator.acceptsGzip("gzip"));
+        assertTrue(ContentNegotiator.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(ContentNegotiator.acceptsGzip("br ,gzip , deflate"));
+    }
+
+    @Test
+    public void testNotAcceptsGzip() {
+        assertFalse(ContentNegotiator.acceptsGzip(null));
+        assertFalse(ContentNegotiator.acceptsGzip(""));
+        assertFalse(ContentNegotiator.acceptsGzip("deflate, x-gzip"));
+        assertFalse(ContentNegotiator.acceptsGzip("gzip;q=0"));
+        assertFalse(ContentNegotiator.acceptsGzip("deflate, gzip; q=0.000"));
+    }
+
+    @Test
+    public void testMatchesIfNoneMatch() {
+        assertTrue(ContentNegotiator.matchesIfNoneMatch("\"a1b2c3\"", ENTITY_TAG));
+        assertTrue(ContentNegotiator.matchesIfNoneMatch("W/\"a1b2c3\"", ENTITY_TAG));
+        assertTrue(ContentNegotiator.matchesIfNoneMatch("\"x\", \"a1b2c3\"", ENTITY_TAG));
+        assertTrue(ContentNegotiator.matchesIfNoneMatch("*", ENTITY_TAG));
+    }
+
+    @Test
+    public void testNotMatchesIfNoneMatch() {
+        assertFalse(ContentNegotiator.matchesIfNoneMatch(null, ENTITY_TAG));
+        assertFalse(ContentNegotiator.matchesIfNoneMatch("\"a1b2c3\"", null));
+        assertFalse(ContentNegotiator.matchesIfNoneMatch("a1b2c3", ENTITY_TAG));
+        assertFalse(ContentNegotiator.matchesIfNoneMatch("\"a1b2c3-gzip\"", ENTITY_TAG));
+        assertFalse(ContentNegotiator.matchesIfNoneMatch("\"a1b2c\", \"\"", ENTITY_TAG));
+    }
+
+    @Test
+    public void testNegotiateLanguage() {
+        assertEquals("fr", ContentNegotiator.negotiateLanguage("fr", "en", LOCALES));
+        assertEquals("zh-Hant", ContentNegotiator.negotiateLanguage("ZH-hant", "en", LOCALES));
+        assertEquals("pt-BR", ContentNegotiator.negotiateLanguage("de, pt;q=0.8, fr;q=0.5", "en", LOCALES));
+        assertEquals("fr", ContentNegotiator.negotiateLanguage("fr-CA, en;q=0.9", "en", LOCALES));
+        assertEquals("zh-Hant", ContentNegotiator.negotiateLanguage("zh-Hant-TW", "en", LOCALES));
+        assertEquals("zh-Hans", ContentNegotiator.negotiateLanguage("zh;q=0.9, en-US;q=0.8", "en", LOCALES));
+        assertEquals("en", ContentNegotiator.negotiateLanguage("en-US, fr;q=0.9", "en", LOCALES));
+        assertEquals("fr", ContentNegotiator.negotiateLanguage("de;q=1.0, fr ; q=0.7, *;q=0.1", "en", LOCALES));
+    }
+
+    @Test
+    public void testNegotiateLanguageFallsBack() {
+        assertEquals("en", ContentNegotiator.negotiateLanguage(null, "en", LOCALES));
+        assertEquals("en", ContentNegotiator.negotiateLanguage("de, ja", "en", LOCALES));
+        assertEquals("en", ContentNegotiator.negotiateLanguage("*, fr;q=0.5", "en", LOCALES));
+        assertEquals("en", ContentNegotiator.negotiateLanguage("fr;q=0, pt;q=0.0", "en", LOCALES));
+        assertEquals("en", ContentNegotiator.negotiateLanguage("frx, f, fr;q=abc", "en", LOCALES));
+        assertNull(ContentNegotiator.negotiateLanguage("de", null, LOCALES));
+        assertNull(ContentNegotiator.negotiateLanguage("fr", null, Collections.<String>emptyList()));
+    }
+}
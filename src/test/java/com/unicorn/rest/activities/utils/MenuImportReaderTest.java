@@ -0,0 +1,105 @@
+package com.unicorn.rest.activities.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.unicorn.rest.repository.MenuImportReader;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.MenuImportRow;
+
+public class MenuImportReaderTest {
+
+    private static MenuImportReader csvReader(String upload) {
+        return new CSVMenuImportReader(new ByteArrayInputStream(upload.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MenuImportReader jsonReader(String upload) {
+        return new JSONMenuImportReader(new ByteArrayInputStream(upload.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testReadCSVHappyCase() throws Exception {
+        MenuImportReader reader = csvReader("price,restaurant_id,item_name,item_description,tags,unknown\r\n"
+                + "1250,1,Beef Noodles,\"Slow braised, \"\"spicy\"\"\nbroth\",spicy; noodles,x\r\n"
+                + "\n"
+                + "800,1,Dumplings,,,\n"
+                + "900,2,Fried Rice\n");
+        assertEquals(new MenuImportRow(1, 1L, null, "Beef Noodles", "Slow braised, \"spicy\"\nbroth", 1250L, Arrays.asList("spicy", "noodles"), null),
+                reader.readRow());
+        assertEquals(new MenuImportRow(2, 1L, null, "Dumplings", null, 800L, null, null), reader.readRow());
+        assertEquals(new MenuImportRow(3, 2L, null, "Fried Rice", null, 900L, null, null), reader.readRow());
+        assertNull(reader.readRow());
+    }
+
+    @Test
+    public void testReadCSVWithInvalidNumber() throws Exception {
+        MenuImportReader reader = csvReader("restaurant_id,item_id,item_name,price\n1,,Noodles,12.50\n");
+        MenuImportRow row = reader.readRow();
+        assertEquals(Long.valueOf(1L), row.getRestaurantId());
+        assertEquals("Invalid price: 12.50. The price should be an integer", row.getInvalidReason());
+        assertNull(reader.readRow());
+    }
+
+    @Test
+    public void testReadCSVWithMissingColumn() throws Exception {
+        try {
+            csvReader("restaurant_id,item_name\n1,Noodles\n").readRow();
+            fail();
+        } catch (ValidationException error) {
+        }
+    }
+
+    @Test
+    public void testReadCSVWithUnclosedQuote() throws Exception {
+        MenuImportReader reader = csvReader("restaurant_id,item_name,price\n1,Noodles,100\n1,\"Rice,100\n");
+        reader.readRow();
+        try {
+            reader.readRow();
+            fail();
+        } catch (ValidationException error) {
+        }
+    }
+
+    @Test
+    public void testReadJSONHappyCase() throws Exception {
+        MenuImportReader reader = jsonReader("[{\"restaurant_id\": 1, \"item_id\": 7, \"item_name\": \"Beef Noodles\", \"price\": 1250,"
+                + " \"tags\": [\"spicy\"], \"availability\": [{\"days\": [\"mon\"]}]},"
+                + " {\"restaurant_id\": 2, \"item_name\": \"Fried Rice\", \"item_description\": null, \"price\": 900}]");
+        assertEquals(new MenuImportRow(1, 1L, 7L, "Beef Noodles", null, 1250L, Arrays.asList("spicy"), null), reader.readRow());
+        assertEquals(new MenuImportRow(2, 2L, null, "Fried Rice", null, 900L, null, null), reader.readRow());
+        assertNull(reader.readRow());
+    }
+
+    @Test
+    public void testReadJSONWithInvalidField() throws Exception {
+        MenuImportReader reader = jsonReader("[{\"restaurant_id\": 1, \"item_name\": \"Noodles\", \"price\": \"12.50\"},"
+                + " {\"restaurant_id\": 1, \"item_name\": {\"en\": \"Rice\"}, \"price\": 900}, {\"restaurant_id\": 1, \"item_name\": \"Tea\", \"price\": 300}]");
+        assertEquals("Invalid price. The price should be an integer", reader.readRow().getInvalidReason());
+        assertEquals("Invalid item_name. The item_name should be a string", reader.readRow().getInvalidReason());
+        assertEquals(new MenuImportRow(3, 1L, null, "Tea", null, 300L, null, null), reader.readRow());
+        assertNull(reader.readRow());
+    }
+
+    @Test
+    public void testReadJSONWithMalformedUpload() throws Exception {
+        MenuImportReader reader = jsonReader("[{\"restaurant_id\": 1, \"item_name\": \"Noodles\", \"price\": 100}, {\"restaurant_id\": ");
+        reader.readRow();
+        try {
+            reader.readRow();
+            fail();
+        } catch (ValidationException error) {
+        }
+        try {
+            jsonReader("{\"items\": []}").readRow();
+            fail();
+        } catch (ValidationException error) {
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.unicorn.rest.repository.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.unicorn.rest.repository.exception.DuplicateKeyException;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.impl.dynamodb.DynamoAccessControlPolicyTable;
+import com.unicorn.rest.server.filter.model.AccessControlPolicy;
+import com.unicorn.rest.server.filter.model.Permission;
+import com.unicorn.rest.server.injector.TestRepositoryTableBinder;
+
+public class AccessControlPolicyRepositoryImplTest {
+
+    private static final String ACTION = "get_menu";
+    private static final String RESOURCE = "restaurant:1234:menu";
+    private static final List<String> ALLOWING_CONDITIONS = Arrays.asList("principal_type == USER");
+
+    private static TestRepositoryTableBinder testRepositoryTableBinder;
+    private AccessControlPolicyRepositoryImpl accessControlPolicyRepositoryImpl;
+
+    @BeforeClass
+    public static void setUpRepositoryTable() {
+        testRepositoryTableBinder = new TestRepositoryTableBinder();
+    }
+
+    @Before
+    public void setUpRepository() {
+        accessControlPolicyRepositoryImpl = new AccessControlPolicyRepositoryImpl(testRepositoryTableBinder.getMockedDynamoAccessControlPolicyTable());
+    }
+
+    @After
+    public void clearMockedRepository() {
+        /*
+         * Reset the mocking on this object so that the field can be safely re-used between tests.
+         */
+        Mockito.reset(testRepositoryTableBinder.getMockedDynamoAccessControlPolicyTable());
+    }
+
+    @Test
+    public void testGetAccessControlPolicyReadThrough() throws Exception {
+        DynamoAccessControlPolicyTable mockedDynamoAccessControlPolicyTable = testRepositoryTableBinder.getMockedDynamoAccessControlPolicyTable();
+        Mockito.doReturn(ALLOWING_CONDITIONS).when(mockedDynamoAccessControlPolicyTable).getAccessControlPolicy(ACTION, RESOURCE);
+
+        assertEquals(ALLOWING_CONDITIONS, accessControlPolicyRepositoryImpl.getAccessControlPolicy(ACTION, RESOURCE));
+        assertEquals(ALLOWING_CONDITIONS, accessControlPolicyRepositoryImpl.getAccessControlPolicy(ACTION, RESOURCE));
+        Mockito.verify(mockedDynamoAccessControlPolicyTable, Mockito.times(1)).getAccessControlPolicy(ACTION, RESOURCE);
+    }
+
+    @Test
+    public void testGetAccessControlPolicyNotExist() throws Exception {
+        DynamoAccessControlPolicyTable mockedDynamoAccessControlPolicyTable = testRepositoryTableBinder.getMockedDynamoAccessControlPolicyTable();
+        Mockito.doThrow(new DuplicateKeyException()).when(mockedDynamoAccessControlPolicyTable).getAccessControlPolicy(ACTION, RESOURCE);
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                accessControlPolicyRepositoryImpl.getAccessControlPolicy(ACTION, RESOURCE);
+                fail("Failed while running testGetAccessControlPolicyNotExist");
+            } catch (DuplicateKeyException expected) {}
+        }
+        Mockito.verify(mockedDynamoAccessControlPolicyTable, Mockito.times(1)).getAccessControlPolicy(ACTION, RESOURCE);
+    }
+
+    @Test
+    public void testCreateAccessControlPolicyAfterNotExist() throws Exception {
+        DynamoAccessControlPolicyTable mockedDynamoAccessControlPolicyTable = testRepositoryTableBinder.getMockedDynamoAccessControlPolicyTable();
+        Mockito.doThrow(new DuplicateKeyException()).when(mockedDynamoAccessControlPolicyTable).getAccessControlPolicy(ACTION, RESOURCE);
+        try {
+            accessControlPolicyRepositoryImpl.getAccessControlPolicy(ACTION, RESOURCE);
+            fail("Failed while running testCreateAccessControlPolicyAfterNotExist");
+        } catch (DuplicateKeyException expected) {}
+
+        AccessControlPolicy accessControlPolicy = new AccessControlPolicy(new Permission(ACTION, RESOURCE, 1234L), ALLOWING_CONDITIONS);
+        Mockito.doReturn(ALLOWING_CONDITIONS).when(mockedDynamoAccessControlPolicyTable).getAccessControlPolicy(ACTION, RESOURCE);
+        accessControlPolicyRepositoryImpl.createAccessControlPolicy(accessControlPolicy);
+        Mockito.verify(mockedDynamoAccessControlPolicyTable).createAccessControlPolicy(accessControlPolicy);
+        assertEquals(ALLOWING_CONDITIONS, accessControlPolicyRepositoryImpl.getAccessControlPolicy(ACTION, RESOURCE));
+
+        Mockito.doThrow(new DuplicateKeyException()).when(mockedDynamoAccessControlPolicyTable).getAccessControlPolicy(ACTION, RESOURCE);
+        accessControlPolicyRepositoryImpl.revokeAccessControlPolicy(accessControlPolicy.getPermission());
+        try {
+            accessControlPolicyRepositoryImpl.getAccessControlPolicy(ACTION, RESOURCE);
+            fail("Failed while running testCreateAccessControlPolicyAfterNotExist");
+        } catch (DuplicateKeyException expected) {}
+    }
+
+    @Test
+    public void testGetAccessControlPolicyPerAction() throws Exception {
+        DynamoAccessControlPolicyTable mockedDynamoAccessControlPolicyTable = testRepositoryTableBinder.getMockedDynamoAccessControlPolicyTable();
+        Mockito.doReturn(ALLOWING_CONDITIONS).when(mockedDynamoAccessControlPolicyTable).getAccessControlPolicy(ACTION, RESOURCE);
+        Mockito.doThrow(new DuplicateKeyException()).when(mockedDynamoAccessControlPolicyTable).getAccessControlPolicy("update_menu", RESOURCE);
+
+        assertEquals(ALLOWING_CONDITIONS, accessControlPolicyRepositoryImpl.getAccessControlPolicy(ACTION, RESOURCE));
+        try {
+            accessControlPolicyRepositoryImpl.getAccessControlPolicy("update_menu", RESOURCE);
+            fail("Failed while running testGetAccessControlPolicyPerAction");
+        } catch (DuplicateKeyException expected) {}
+        accessControlPolicyRepositoryImpl.invalidateAccessControlPolicy("update_menu", RESOURCE);
+        assertEquals(ALLOWING_CONDITIONS, accessControlPolicyRepositoryImpl.getAccessControlPolicy(ACTION, RESOURCE));
+        Mockito.verify(mockedDynamoAccessControlPolicyTable, Mockito.times(1)).getAccessControlPolicy(ACTION, RESOURCE);
+    }
+
+    @Test
+    public void testGetAccessControlPolicyAfterInvalidate() throws Exception {
+        DynamoAccessControlPolicyTable mockedDynamoAccessControlPolicyTable = testRepositoryTableBinder.getMockedDynamoAccessControlPolicyTable();
+        Mockito.doReturn(ALLOWING_CONDITIONS).when(mockedDynamoAccessControlPolicyTable).getAccessControlPolicy(ACTION, RESOURCE);
+
+        accessControlPolicyRepositoryImpl.getAccessControlPolicy(ACTION, RESOURCE);
+        accessControlPolicyRepositoryImpl.invalidateAccessControlPolicy(ACTION, RESOURCE);
+        accessControlPolicyRepositoryImpl.getAccessControlPolicy(ACTION, RESOURCE);
+        Mockito.verify(mockedDynamoAccessControlPolicyTable, Mockito.times(2)).getAccessControlPolicy(ACTION, RESOURCE);
+    }
+
+    @Test
+    public void testGetAccessControlPolicyPreloaded() throws Exception {
+        DynamoAccessControlPolicyTable mockedDynamoAccessControlPolicyTable = testRepositoryTableBinder.getMockedDynamoAccessControlPolicyTable();
+        Mockito.doReturn(Arrays.asList(new AccessControlPolicy(new Permission(ACTION, RESOURCE, 1234L), ALLOWING_CONDITIONS)))
+                .when(mockedDynamoAccessControlPolicyTable).getAccessControlPolicies();
+        Mockito.doThrow(new DuplicateKeyException()).when(mockedDynamoAccessControlPolicyTable).getAccessControlPolicy("update_menu", RESOURCE);
+
+        assertEquals(1, accessControlPolicyRepositoryImpl.refreshAccessControlPolicies());
+        for (int i = 0; i < 2; i++) {
+            assertEquals(ALLOWING_CONDITIONS, accessControlPolicyRepositoryImpl.getAccessControlPolicy(ACTION, RESOURCE));
+            try {
+                accessControlPolicyRepositoryImpl.getAccessControlPolicy("update_menu", RESOURCE);
+                fail("Failed while running testGetAccessControlPolicyPreloaded");
+            } catch (DuplicateKeyException expected) {}
+        }
+        Mockito.verify(mockedDynamoAccessControlPolicyTable, Mockito.never()).getAccessControlPolicy(ACTION, RESOURCE);
+        Mockito.verify(mockedDynamoAccessControlPolicyTable, Mockito.times(1)).getAccessControlPolicy("update_menu", RESOURCE);
+
+        /*
+         * The policy missing is read through again once the refresh may have brought it
+         */
+        accessControlPolicyRepositoryImpl.refreshAccessControlPolicies();
+        try {
+            accessControlPolicyRepositoryImpl.getAccessControlPolicy("update_menu", RESOURCE);
+            fail("Failed while running testGetAccessControlPolicyPreloaded");
+        } catch (DuplicateKeyException expected) {}
+        Mockito.verify(mockedDynamoAccessControlPolicyTable, Mockito.times(2)).getAccessControlPolicy("update_menu", RESOURCE);
+    }
+
+    @Test
+    public void testGetAccessControlPolicyPreloadedAfterInvalidate() throws Exception {
+        DynamoAccessControlPolicyTable mockedDynamoAccessControlPolicyTable = testRepositoryTableBinder.getMockedDynamoAccessControlPolicyTable();
+        Mockito.doReturn(Arrays.asList(new AccessControlPolicy(new Permission(ACTION, RESOURCE, 1234L), ALLOWING_CONDITIONS)))
+                .when(mockedDynamoAccessControlPolicyTable).getAccessControlPolicies();
+        Mockito.doThrow(new DuplicateKeyException()).when(mockedDynamoAccessControlPolicyTable).getAccessControlPolicy(ACTION, RESOURCE);
+
+        accessControlPolicyRepositoryImpl.refreshAccessControlPolicies();
+        accessControlPolicyRepositoryImpl.invalidateAccessControlPolicy(ACTION, RESOURCE);
+        try {
+            accessControlPolicyRepositoryImpl.getAccessControlPolicy(ACTION, RESOURCE);
+            fail("Failed while running testGetAccessControlPolicyPreloadedAfterInvalidate");
+        } catch (DuplicateKeyException expected) {}
+    }
+
+    @Test
+    public void testRefreshAccessControlPoliciesFailed() throws Exception {
+        DynamoAccessControlPolicyTable mockedDynamoAccessControlPolicyTable = testRepositoryTableBinder.getMockedDynamoAccessControlPolicyTable();
+        Mockito.doReturn(Arrays.asList(new AccessControlPolicy(new Permission(ACTION, RESOURCE, 1234L), ALLOWING_CONDITIONS)))
+                .doThrow(new RepositoryServerException(new Exception())).when(mockedDynamoAccessControlPolicyTable).getAccessControlPolicies();
+
+        accessControlPolicyRepositoryImpl.refreshAccessControlPolicies();
+        try {
+            accessControlPolicyRepositoryImpl.refreshAccessControlPolicies();
+            fail("Failed while running testRefreshAccessControlPoliciesFailed");
+        } catch (RepositoryServerException expected) {}
+        assertEquals(ALLOWING_CONDITIONS, accessControlPolicyRepositoryImpl.getAccessControlPolicy(ACTION, RESOURCE));
+        Mockito.verify(mockedDynamoAccessControlPolicyTable, Mockito.never()).getAccessControlPolicy(ACTION, RESOURCE);
+    }
+
+    @Test(expected = ValidationException.class)
+    public void testGetAccessControlPolicyWithInvalidRequest() throws Exception {
+        accessControlPolicyRepositoryImpl.getAccessControlPolicy(null, RESOURCE);
+    }
+}
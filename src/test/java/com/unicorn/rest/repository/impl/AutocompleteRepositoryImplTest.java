@@ -0,0 +1,263 @@
+package com.unicorn.rest.repository.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.unicorn.rest.activities.utils.JSONMenuRenderer;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.AutocompleteSuggestion;
+import com.unicorn.rest.repository.model.AutocompleteSuggestion.SuggestionType;
+import com.unicorn.rest.repository.model.Menu;
+import com.unicorn.rest.repository.model.MenuChangeLog;
+import com.unicorn.rest.repository.model.MenuItem;
+import com.unicorn.rest.repository.model.MenuSnapshot;
+import com.unicorn.rest.repository.model.Restaurant;
+import com.unicorn.rest.server.injector.TestRepositoryBinder;
+
+public class AutocompleteRepositoryImplTest {
+
+    private static final Long RESTAURANT_ID = 1234L;
+    private static final Long OTHER_RESTAURANT_ID = 5678L;
+
+    private static final JSONMenuRenderer MENU_RENDERER = new JSONMenuRenderer();
+    /*
+     * Compact on the thread publishing the menu, so that the tests see the compacted index right away
+     */
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable runnable) {
+            runnable.run();
+        }
+    };
+
+    private static TestRepositoryBinder testRepositoryBinder;
+    private AutocompleteRepositoryImpl autocompleteRepositoryImpl;
+
+    @BeforeClass
+    public static void setUpRepository() {
+        testRepositoryBinder = new TestRepositoryBinder();
+    }
+
+    @Before
+    public void setUpAutocompleteRepository() throws Exception {
+        Mockito.doAnswer(new Answer<List<Restaurant>>() {
+            @Override
+            public List<Restaurant> answer(InvocationOnMock invocation) throws Throwable {
+                List<Restaurant> restaurants = new ArrayList<>();
+                for (Object restaurantId : (Iterable<?>) invocation.getArguments()[0]) {
+                    restaurants.add(buildRestaurant((Long) restaurantId, getRestaurantName((Long) restaurantId)));
+                }
+                return restaurants;
+            }
+        }).when(testRepositoryBinder.getMockedRestaurantRepository()).getRestaurants(Matchers.anyCollectionOf(Long.class));
+        autocompleteRepositoryImpl = new AutocompleteRepositoryImpl(testRepositoryBinder.getMockedRestaurantRepository(), DIRECT_EXECUTOR);
+    }
+
+    @After
+    public void clearMockedRepository() {
+        /*
+         * Reset the mocking on this object so that the field can be safely re-used between tests.
+         */
+        Mockito.reset(testRepositoryBinder.getMockedRestaurantRepository());
+    }
+
+    private static String getRestaurantName(Long restaurantId) {
+        if (RESTAURANT_ID.equals(restaurantId)) {
+            return "Noodle House";
+        }
+        if (OTHER_RESTAURANT_ID.equals(restaurantId)) {
+            return "Rice Bowl";
+        }
+        return "Restaurant " + restaurantId;
+    }
+
+    private static Restaurant buildRestaurant(Long restaurantId, String restaurantName) {
+        return Restaurant.buildRestaurant().restaurantId(restaurantId).ownerPrincipal(1L).restaurantName(restaurantName).build();
+    }
+
+    private static MenuSnapshot buildSnapshot(Long restaurantId, Long version, String... itemNames) {
+        List<MenuItem> items = new ArrayList<>();
+        for (int i = 0; i < itemNames.length; i++) {
+            items.add(MenuItem.buildMenuItem().itemId((long) i).itemName(itemNames[i]).price(1000L).build());
+        }
+        Menu menu = Menu.buildMenu().restaurantId(restaurantId).version(version).items(items).build();
+        return new MenuSnapshot(menu, MENU_RENDERER.render(menu), MenuChangeLog.startAt(menu));
+    }
+
+    private static List<String> getTexts(List<AutocompleteSuggestion> suggestions) {
+        List<String> texts = new ArrayList<>();
+        for (AutocompleteSuggestion suggestion : suggestions) {
+            texts.add(suggestion.getText());
+        }
+        return texts;
+    }
+
+    @Test
+    public void testSuggestRankedByPopularity() throws Exception {
+        autocompleteRepositoryImpl.onMenusInstalled(Arrays.asList(
+                buildSnapshot(RESTAURANT_ID, 1L, "Spicy Noodles", "Noodle Soup", "Fried Rice"),
+                buildSnapshot(OTHER_RESTAURANT_ID, 1L, "noodle soup", "Fried Rice")));
+
+        List<AutocompleteSuggestion> suggestions = autocompleteRepositoryImpl.suggest("NOO", 10);
+        assertEquals(Arrays.asList("Noodle House", "Noodle Soup", "Spicy Noodles"), getTexts(suggestions));
+        assertEquals(new AutocompleteSuggestion(SuggestionType.RESTAURANT, "Noodle House", RESTAURANT_ID, 3), suggestions.get(0));
+        assertEquals(new AutocompleteSuggestion(SuggestionType.DISH, "Noodle Soup", null, 2), suggestions.get(1));
+
+        assertEquals(Arrays.asList("Noodle House"), getTexts(autocompleteRepositoryImpl.suggest("noo", 1)));
+        assertEquals(Arrays.asList("Fried Rice", "Rice Bowl"), getTexts(autocompleteRepositoryImpl.suggest("rice", 10)));
+        /*
+         * The query matches from any word start, but not from the middle of a word
+         */
+        assertEquals(Arrays.asList("Spicy Noodles"), getTexts(autocompleteRepositoryImpl.suggest("spicy  noo", 10)));
+        assertTrue(autocompleteRepositoryImpl.suggest("oodle", 10).isEmpty());
+    }
+
+    @Test
+    public void testSuggestAfterMenuUpdatedAndRemoved() throws Exception {
+        autocompleteRepositoryImpl.onMenusInstalled(Arrays.asList(
+                buildSnapshot(RESTAURANT_ID, 1L, "Spicy Noodles", "Noodle Soup", "Fried Rice"),
+                buildSnapshot(OTHER_RESTAURANT_ID, 1L, "Noodle Soup", "Fried Rice")));
+        autocompleteRepositoryImpl.compact();
+
+        autocompleteRepositoryImpl.onMenusInstalled(Arrays.asList(buildSnapshot(RESTAURANT_ID, 2L, "Noodle Soup", "Dumplings")));
+        assertTrue(autocompleteRepositoryImpl.suggest("spicy", 10).isEmpty());
+        assertEquals(Arrays.asList("Dumplings"), getTexts(autocompleteRepositoryImpl.suggest("d", 10)));
+        /*
+         * The older version delivered late is ignored
+         */
+        autocompleteRepositoryImpl.onMenusInstalled(Arrays.asList(buildSnapshot(RESTAURANT_ID, 1L, "Spicy Noodles")));
+        assertTrue(autocompleteRepositoryImpl.suggest("spicy", 10).isEmpty());
+
+        autocompleteRepositoryImpl.onMenuRemoved(OTHER_RESTAURANT_ID);
+        assertTrue(autocompleteRepositoryImpl.suggest("rice", 10).isEmpty());
+        assertEquals(Arrays.asList(new AutocompleteSuggestion(SuggestionType.DISH, "Noodle Soup", null, 1)),
+                autocompleteRepositoryImpl.suggest("noodle s", 10));
+    }
+
+    @Test
+    public void testUpdateRestaurantName() throws Exception {
+        autocompleteRepositoryImpl.onMenusInstalled(Arrays.asList(buildSnapshot(RESTAURANT_ID, 1L, "Dumplings")));
+        autocompleteRepositoryImpl.compact();
+
+        autocompleteRepositoryImpl.updateRestaurantName(RESTAURANT_ID, "Dumpling Bar");
+        assertTrue(autocompleteRepositoryImpl.suggest("noodle", 10).isEmpty());
+        assertEquals(Arrays.asList("Dumpling Bar", "Dumplings"), getTexts(autocompleteRepositoryImpl.suggest("dump", 10)));
+        /*
+         * The restaurant without menu is not suggested
+         */
+        autocompleteRepositoryImpl.updateRestaurantName(OTHER_RESTAURANT_ID, "Dumpling Cart");
+        assertEquals(Arrays.asList("Dumpling Bar", "Dumplings"), getTexts(autocompleteRepositoryImpl.suggest("dump", 10)));
+    }
+
+    @Test
+    public void testRestaurantRenamedThroughOtherServer() throws Exception {
+        autocompleteRepositoryImpl.onMenusInstalled(Arrays.asList(buildSnapshot(RESTAURANT_ID, 1L, "Fried Rice")));
+        autocompleteRepositoryImpl.compact();
+        assertEquals(Arrays.asList("Noodle House"), getTexts(autocompleteRepositoryImpl.suggest("noodle", 10)));
+
+        Mockito.doReturn(Arrays.asList(buildRestaurant(RESTAURANT_ID, "Dumpling Bar"))).when(testRepositoryBinder.getMockedRestaurantRepository())
+        .getRestaurants(Matchers.anyCollectionOf(Long.class));
+        autocompleteRepositoryImpl.onMenusInstalled(Arrays.asList(buildSnapshot(RESTAURANT_ID, 2L, "Fried Rice")));
+        assertTrue(autocompleteRepositoryImpl.suggest("noodle", 10).isEmpty());
+        assertEquals(Arrays.asList("Dumpling Bar"), getTexts(autocompleteRepositoryImpl.suggest("dump", 10)));
+
+        /*
+         * The same version delivered again still picks up the name, while the name failed to resolve is kept
+         */
+        Mockito.doReturn(Arrays.asList(buildRestaurant(RESTAURANT_ID, "Rice Bar"))).when(testRepositoryBinder.getMockedRestaurantRepository())
+        .getRestaurants(Matchers.anyCollectionOf(Long.class));
+        autocompleteRepositoryImpl.onMenusInstalled(Arrays.asList(buildSnapshot(RESTAURANT_ID, 2L, "Fried Rice")));
+        assertEquals(Arrays.asList("Rice Bar"), getTexts(autocompleteRepositoryImpl.suggest("rice b", 10)));
+
+        Mockito.doThrow(new RepositoryServerException("Failed to get restaurants")).when(testRepositoryBinder.getMockedRestaurantRepository())
+        .getRestaurants(Matchers.anyCollectionOf(Long.class));
+        autocompleteRepositoryImpl.onMenusInstalled(Arrays.asList(buildSnapshot(RESTAURANT_ID, 3L, "Fried Rice")));
+        assertEquals(Arrays.asList("Rice Bar"), getTexts(autocompleteRepositoryImpl.suggest("rice b", 10)));
+    }
+
+    /*
+     * The index updated incrementally across compactions is checked against matching every current suggestion
+     */
+    @Test
+    public void testSuggestMatchesBruteForce() throws Exception {
+        Random random = new Random(42);
+        List<String> vocabulary = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            vocabulary.add(Integer.toString(i * 7919, 36) + (char) ('a' + random.nextInt(26)));
+        }
+        Map<Long, List<String>> menus = new HashMap<>();
+        long version = 1;
+        for (int update = 0; update < 3000; update++) {
+            Long restaurantId = (long) random.nextInt(200);
+            if (random.nextInt(10) == 0) {
+                menus.remove(restaurantId);
+                autocompleteRepositoryImpl.onMenuRemoved(restaurantId);
+                continue;
+            }
+            List<String> itemNames = new ArrayList<>();
+            for (int i = random.nextInt(6); i >= 0; i--) {
+                itemNames.add(vocabulary.get((int) Math.abs(random.nextGaussian() * 60) % vocabulary.size()) + " "
+                        + vocabulary.get(random.nextInt(vocabulary.size())));
+            }
+            menus.put(restaurantId, itemNames);
+            autocompleteRepositoryImpl.onMenusInstalled(Arrays.asList(buildSnapshot(restaurantId, version++, 
+                    itemNames.toArray(new String[itemNames.size()]))));
+        }
+        assertTrue((Long) autocompleteRepositoryImpl.getStats().get("compaction_count") > 0);
+
+        Map<String, Integer> dishPopularities = new HashMap<>();
+        List<AutocompleteSuggestion> currentSuggestions = new ArrayList<>();
+        for (Map.Entry<Long, List<String>> menu : menus.entrySet()) {
+            for (String itemName : new HashSet<>(menu.getValue())) {
+                Integer popularity = dishPopularities.get(itemName);
+                dishPopularities.put(itemName, popularity == null ? 1 : popularity + 1);
+            }
+            if (!menu.getValue().isEmpty()) {
+                currentSuggestions.add(new AutocompleteSuggestion(SuggestionType.RESTAURANT, getRestaurantName(menu.getKey()),
+                        menu.getKey(), menu.getValue().size()));
+            }
+        }
+        for (Map.Entry<String, Integer> dishPopularity : dishPopularities.entrySet()) {
+            currentSuggestions.add(new AutocompleteSuggestion(SuggestionType.DISH, dishPopularity.getKey(), null, dishPopularity.getValue()));
+        }
+        Collections.sort(currentSuggestions, AutocompleteIndex.BY_POPULARITY);
+
+        for (int query = 0; query < 200; query++) {
+            String word = vocabulary.get(random.nextInt(vocabulary.size()));
+            String prefix = query % 10 == 0 ? "restaurant " + random.nextInt(20) : word.substring(0, 1 + random.nextInt(word.length()));
+            List<AutocompleteSuggestion> expected = new ArrayList<>();
+            for (AutocompleteSuggestion suggestion : currentSuggestions) {
+                String text = suggestion.getText().toLowerCase();
+                if (expected.size() < AutocompleteRepositoryImpl.MAX_SUGGEST_LIMIT && (text.startsWith(prefix) || text.contains(" " + prefix))) {
+                    expected.add(suggestion);
+                }
+            }
+            assertEquals(expected, autocompleteRepositoryImpl.suggest(prefix, AutocompleteRepositoryImpl.MAX_SUGGEST_LIMIT));
+        }
+    }
+
+    @Test(expected = ValidationException.class)
+    public void testSuggestBlankPrefix() throws Exception {
+        autocompleteRepositoryImpl.suggest("  ", 10);
+    }
+}
@@ -0,0 +1,217 @@
+package com.unicorn.rest.repository.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import com.unicorn.rest.activities.utils.JSONMenuRenderer;
+import com.unicorn.rest.repository.exception.StaleDataException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.impl.dynamodb.DynamoItemAvailabilityTable;
+import com.unicorn.rest.repository.model.ItemAvailability;
+import com.unicorn.rest.repository.model.Menu;
+import com.unicorn.rest.repository.model.MenuChangeLog;
+import com.unicorn.rest.repository.model.MenuItem;
+import com.unicorn.rest.repository.model.MenuSnapshot;
+import com.unicorn.rest.server.injector.TestRepositoryTableBinder;
+
+public class ItemAvailabilityRepositoryImplTest {
+
+    private static final Long RESTAURANT_ID = 1L;
+    private static final JSONMenuRenderer MENU_RENDERER = new JSONMenuRenderer();
+
+    private static TestRepositoryTableBinder testRepositoryTableBinder;
+    private ItemAvailabilityRepositoryImpl itemAvailabilityRepositoryImpl;
+
+    @BeforeClass
+    public static void setUpRepositoryTable() {
+        testRepositoryTableBinder = new TestRepositoryTableBinder();
+    }
+
+    @Before
+    public void setUpRepository() {
+        itemAvailabilityRepositoryImpl = new ItemAvailabilityRepositoryImpl(testRepositoryTableBinder.getMockedDynamoItemAvailabilityTable());
+    }
+
+    @After
+    public void clearMockedRepository() {
+        /*
+         * Reset the mocking on this object so that the field can be safely re-used between tests.
+         */
+        Mockito.reset(testRepositoryTableBinder.getMockedDynamoItemAvailabilityTable());
+    }
+
+    private static MenuItem buildMenuItem(Long itemId) {
+        return MenuItem.buildMenuItem().itemId(itemId).itemName("item " + itemId).price(100L).build();
+    }
+
+    private static MenuSnapshot buildSnapshot(Long restaurantId, Long version, MenuItem... items) {
+        Menu menu = Menu.buildMenu().restaurantId(restaurantId).version(version).items(Arrays.asList(items)).build();
+        return new MenuSnapshot(menu, MENU_RENDERER.render(menu), MenuChangeLog.startAt(menu));
+    }
+
+    @Test
+    public void testUpdateItemAvailabilityHappyCase() throws Exception {
+        DynamoItemAvailabilityTable mockedTable = testRepositoryTableBinder.getMockedDynamoItemAvailabilityTable();
+        Mockito.doReturn(new ItemAvailability(RESTAURANT_ID, 11L, true, null, 1000L, 1L)).when(mockedTable)
+                .putItemAvailability(Matchers.eq(RESTAURANT_ID), Matchers.eq(11L), Matchers.eq(true), Matchers.<Long>eq(null), Matchers.anyLong());
+
+        ItemAvailability itemAvailability = itemAvailabilityRepositoryImpl.updateItemAvailability(RESTAURANT_ID, 11L, true, null);
+        assertFalse(itemAvailability.isAvailable());
+        assertFalse(itemAvailabilityRepositoryImpl.isItemAvailable(RESTAURANT_ID, 11L));
+        assertTrue(itemAvailabilityRepositoryImpl.isItemAvailable(RESTAURANT_ID, 12L));
+        assertEquals(Collections.singletonMap(11L, itemAvailability), itemAvailabilityRepositoryImpl.getItemAvailabilities(RESTAURANT_ID));
+        assertTrue(itemAvailabilityRepositoryImpl.getItemAvailabilities(2L).isEmpty());
+    }
+
+    @Test
+    public void testUpdateItemAvailabilityWithInvalidStock() throws Exception {
+        try {
+            itemAvailabilityRepositoryImpl.updateItemAvailability(RESTAURANT_ID, 11L, false, -1L);
+            fail();
+        } catch (ValidationException error) {
+        }
+        try {
+            itemAvailabilityRepositoryImpl.updateItemAvailability(RESTAURANT_ID, null, false, 1L);
+            fail();
+        } catch (ValidationException error) {
+        }
+        Mockito.verifyZeroInteractions(testRepositoryTableBinder.getMockedDynamoItemAvailabilityTable());
+    }
+
+    @Test
+    public void testAdjustStockRunsOut() throws Exception {
+        DynamoItemAvailabilityTable mockedTable = testRepositoryTableBinder.getMockedDynamoItemAvailabilityTable();
+        Mockito.doReturn(new ItemAvailability(RESTAURANT_ID, 11L, false, 0L, 1000L, 1L)).when(mockedTable)
+                .addStock(Matchers.eq(RESTAURANT_ID), Matchers.eq(11L), Matchers.eq(-1L), Matchers.anyLong());
+
+        ItemAvailability itemAvailability = itemAvailabilityRepositoryImpl.adjustStock(RESTAURANT_ID, 11L, -1L);
+        assertEquals(Long.valueOf(0L), itemAvailability.getStock());
+        assertFalse(itemAvailabilityRepositoryImpl.isItemAvailable(RESTAURANT_ID, 11L));
+    }
+
+    @Test
+    public void testAdjustStockWithInsufficientStock() throws Exception {
+        DynamoItemAvailabilityTable mockedTable = testRepositoryTableBinder.getMockedDynamoItemAvailabilityTable();
+        Mockito.doThrow(new StaleDataException()).when(mockedTable)
+                .addStock(Matchers.eq(RESTAURANT_ID), Matchers.eq(11L), Matchers.eq(-5L), Matchers.anyLong());
+        try {
+            itemAvailabilityRepositoryImpl.adjustStock(RESTAURANT_ID, 11L, -5L);
+            fail();
+        } catch (StaleDataException error) {
+        }
+        assertTrue(itemAvailabilityRepositoryImpl.isItemAvailable(RESTAURANT_ID, 11L));
+        try {
+            itemAvailabilityRepositoryImpl.adjustStock(RESTAURANT_ID, 11L, 0L);
+            fail();
+        } catch (ValidationException error) {
+        }
+    }
+
+    @Test
+    public void testPollItemAvailabilitiesNewerWins() throws Exception {
+        DynamoItemAvailabilityTable mockedTable = testRepositoryTableBinder.getMockedDynamoItemAvailabilityTable();
+        Mockito.doReturn(Arrays.asList(new ItemAvailability(RESTAURANT_ID, 11L, true, null, 2000L, 2L))).when(mockedTable).getItemAvailabilities();
+        assertEquals(1, itemAvailabilityRepositoryImpl.reloadItemAvailabilities());
+        assertFalse(itemAvailabilityRepositoryImpl.isItemAvailable(RESTAURANT_ID, 11L));
+
+        /*
+         * The update older than the one applied is delivered late by the feed, and does not roll the item back
+         * even though the clock of the server making it is ahead
+         */
+        Mockito.doReturn(Arrays.asList(new ItemAvailability(RESTAURANT_ID, 11L, false, null, 5000L, 1L),
+                new ItemAvailability(RESTAURANT_ID, 12L, false, 0L, 1500L, 1L))).when(mockedTable)
+                .getItemAvailabilitiesUpdated(Matchers.anyLong(), Matchers.anyLong());
+        assertEquals(2, itemAvailabilityRepositoryImpl.pollItemAvailabilities());
+        assertFalse(itemAvailabilityRepositoryImpl.isItemAvailable(RESTAURANT_ID, 11L));
+        assertFalse(itemAvailabilityRepositoryImpl.isItemAvailable(RESTAURANT_ID, 12L));
+
+        Mockito.doReturn(Arrays.asList(new ItemAvailability(RESTAURANT_ID, 11L, false, null, 3000L, 3L))).when(mockedTable)
+                .getItemAvailabilitiesUpdated(Matchers.anyLong(), Matchers.anyLong());
+        assertEquals(1, itemAvailabilityRepositoryImpl.pollItemAvailabilities());
+        assertTrue(itemAvailabilityRepositoryImpl.isItemAvailable(RESTAURANT_ID, 11L));
+        assertEquals(2, itemAvailabilityRepositoryImpl.getItemAvailabilities(RESTAURANT_ID).size());
+    }
+
+    @Test
+    public void testUpdateItemAvailabilityMovesUpdateTimeForward() throws Exception {
+        DynamoItemAvailabilityTable mockedTable = testRepositoryTableBinder.getMockedDynamoItemAvailabilityTable();
+        long futureInEpoch = Long.MAX_VALUE / 2;
+        Mockito.doReturn(Arrays.asList(new ItemAvailability(RESTAURANT_ID, 11L, true, null, futureInEpoch, 1L))).when(mockedTable).getItemAvailabilities();
+        itemAvailabilityRepositoryImpl.reloadItemAvailabilities();
+
+        Mockito.doReturn(new ItemAvailability(RESTAURANT_ID, 11L, false, null, futureInEpoch + 1, 2L)).when(mockedTable)
+                .putItemAvailability(RESTAURANT_ID, 11L, false, null, futureInEpoch + 1);
+        itemAvailabilityRepositoryImpl.updateItemAvailability(RESTAURANT_ID, 11L, null, null);
+        Mockito.verify(mockedTable).putItemAvailability(RESTAURANT_ID, 11L, false, null, futureInEpoch + 1);
+        assertTrue(itemAvailabilityRepositoryImpl.isItemAvailable(RESTAURANT_ID, 11L));
+    }
+
+    @Test
+    public void testFilterAvailableItems() throws Exception {
+        List<MenuItem> items = Arrays.asList(buildMenuItem(11L), buildMenuItem(12L), buildMenuItem(13L));
+        assertSame(items, itemAvailabilityRepositoryImpl.filterAvailableItems(RESTAURANT_ID, items));
+
+        DynamoItemAvailabilityTable mockedTable = testRepositoryTableBinder.getMockedDynamoItemAvailabilityTable();
+        Mockito.doReturn(Arrays.asList(new ItemAvailability(RESTAURANT_ID, 12L, false, 0L, 1000L, 1L),
+                new ItemAvailability(RESTAURANT_ID, 13L, false, 5L, 1000L, 1L))).when(mockedTable).getItemAvailabilities();
+        itemAvailabilityRepositoryImpl.reloadItemAvailabilities();
+        assertEquals(Arrays.asList(items.get(0), items.get(2)), itemAvailabilityRepositoryImpl.filterAvailableItems(RESTAURANT_ID, items));
+        assertSame(items, itemAvailabilityRepositoryImpl.filterAvailableItems(2L, items));
+
+        Map<String, Object> stats = itemAvailabilityRepositoryImpl.getStats();
+        assertEquals(2L, stats.get("size"));
+        assertEquals(1L, stats.get("unavailable_count"));
+    }
+
+    @Test
+    public void testAvailabilitiesRemovedWithMenuItems() throws Exception {
+        DynamoItemAvailabilityTable mockedTable = testRepositoryTableBinder.getMockedDynamoItemAvailabilityTable();
+        Mockito.doReturn(Arrays.asList(new ItemAvailability(RESTAURANT_ID, 11L, true, null, 1000L, 2L),
+                new ItemAvailability(RESTAURANT_ID, 12L, true, null, 1000L, 0L), new ItemAvailability(2L, 13L, true, null, 1000L, 1L)))
+                .when(mockedTable).getItemAvailabilities();
+        itemAvailabilityRepositoryImpl.reloadItemAvailabilities();
+
+        itemAvailabilityRepositoryImpl.onMenusInstalled(Arrays.asList(buildSnapshot(RESTAURANT_ID, 2L, buildMenuItem(11L)),
+                buildSnapshot(2L, 1L, buildMenuItem(13L))));
+        assertEquals(Collections.singleton(11L), itemAvailabilityRepositoryImpl.getItemAvailabilities(RESTAURANT_ID).keySet());
+        Mockito.verify(mockedTable).deleteItemAvailability(RESTAURANT_ID, 12L, 0L);
+
+        /*
+         * The older version delivered out of order does not remove the items added since
+         */
+        itemAvailabilityRepositoryImpl.onMenusInstalled(Collections.singletonList(buildSnapshot(RESTAURANT_ID, 1L)));
+        assertFalse(itemAvailabilityRepositoryImpl.isItemAvailable(RESTAURANT_ID, 11L));
+
+        itemAvailabilityRepositoryImpl.onMenuRemoved(RESTAURANT_ID);
+        assertTrue(itemAvailabilityRepositoryImpl.getItemAvailabilities(RESTAURANT_ID).isEmpty());
+        Mockito.verify(mockedTable).deleteItemAvailability(RESTAURANT_ID, 11L, 2L);
+        Mockito.verify(mockedTable, Mockito.never()).deleteItemAvailability(Matchers.eq(2L), Matchers.anyLong(), Matchers.anyLong());
+        assertEquals(2L, itemAvailabilityRepositoryImpl.getStats().get("removed_count"));
+    }
+
+    @Test
+    public void testAvailabilityUpdatedMeanwhileKeptInTable() throws Exception {
+        DynamoItemAvailabilityTable mockedTable = testRepositoryTableBinder.getMockedDynamoItemAvailabilityTable();
+        Mockito.doReturn(Arrays.asList(new ItemAvailability(RESTAURANT_ID, 11L, true, null, 1000L, 1L))).when(mockedTable).getItemAvailabilities();
+        itemAvailabilityRepositoryImpl.reloadItemAvailabilities();
+        Mockito.doThrow(new StaleDataException()).when(mockedTable).deleteItemAvailability(RESTAURANT_ID, 11L, 1L);
+
+        itemAvailabilityRepositoryImpl.onMenusInstalled(Collections.singletonList(buildSnapshot(RESTAURANT_ID, 1L)));
+        assertTrue(itemAvailabilityRepositoryImpl.getItemAvailabilities(RESTAURANT_ID).isEmpty());
+    }
+}
@@ -0,0 +1,205 @@
+package com.unicorn.rest.repository.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import com.unicorn.rest.activities.utils.JSONMenuRenderer;
+import com.unicorn.rest.repository.MenuImportReader;
+import com.unicorn.rest.repository.exception.ItemNotFoundException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.AvailabilityWindow;
+import com.unicorn.rest.repository.model.Menu;
+import com.unicorn.rest.repository.model.MenuChangeLog;
+import com.unicorn.rest.repository.model.MenuImportJob;
+import com.unicorn.rest.repository.model.MenuImportJob.ImportStatus;
+import com.unicorn.rest.repository.model.MenuImportRow;
+import com.unicorn.rest.repository.model.MenuItem;
+import com.unicorn.rest.repository.model.MenuSnapshot;
+import com.unicorn.rest.repository.model.MenuTranslation;
+import com.unicorn.rest.repository.model.Restaurant;
+import com.unicorn.rest.server.injector.TestRepositoryBinder;
+import com.unicorn.rest.server.limiter.TokenBucketRateLimiter;
+
+public class MenuImportRepositoryImplTest {
+
+    private static final Long OWNER_PRINCIPAL = 1L;
+    private static final Long RESTAURANT_ID = 1234L;
+    private static final Long OTHER_RESTAURANT_ID = 5678L;
+    private static final Long NOT_OWNED_RESTAURANT_ID = 9999L;
+
+    /*
+     * Publish on the thread reading the upload, so that the tests see the job completed right away
+     */
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable runnable) {
+            runnable.run();
+        }
+    };
+
+    private static TestRepositoryBinder testRepositoryBinder;
+    private MenuImportRepositoryImpl menuImportRepositoryImpl;
+
+    @BeforeClass
+    public static void setUpRepository() {
+        testRepositoryBinder = new TestRepositoryBinder();
+    }
+
+    @Before
+    public void setUpMenuImportRepository() throws Exception {
+        Mockito.doReturn(Arrays.asList(buildRestaurant(RESTAURANT_ID), buildRestaurant(OTHER_RESTAURANT_ID)))
+                .when(testRepositoryBinder.getMockedRestaurantRepository()).getRestaurantsForOwner(OWNER_PRINCIPAL);
+        Mockito.doThrow(new ItemNotFoundException()).when(testRepositoryBinder.getMockedMenuRepository()).getMenu(Matchers.anyLong());
+        menuImportRepositoryImpl = new MenuImportRepositoryImpl(testRepositoryBinder.getMockedMenuRepository(),
+                testRepositoryBinder.getMockedRestaurantRepository(), DIRECT_EXECUTOR, new TokenBucketRateLimiter(6000, 100, 1));
+    }
+
+    @After
+    public void clearMockedRepository() {
+        /*
+         * Reset the mocking on this object so that the field can be safely re-used between tests.
+         */
+        Mockito.reset(testRepositoryBinder.getMockedRestaurantRepository());
+        Mockito.reset(testRepositoryBinder.getMockedMenuRepository());
+    }
+
+    private static Restaurant buildRestaurant(Long restaurantId) {
+        return Restaurant.buildRestaurant().restaurantId(restaurantId).ownerPrincipal(OWNER_PRINCIPAL).restaurantName("Restaurant " + restaurantId).build();
+    }
+
+    private static MenuImportRow buildRow(long rowNumber, Long restaurantId, String itemName, Long price) {
+        return new MenuImportRow(rowNumber, restaurantId, null, itemName, null, price, null, null);
+    }
+
+    private static MenuImportReader buildReader(MenuImportRow... rows) {
+        final Iterator<MenuImportRow> rowIterator = Arrays.asList(rows).iterator();
+        return new MenuImportReader() {
+            @Override
+            public MenuImportRow readRow() {
+                return rowIterator.hasNext() ? rowIterator.next() : null;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<MenuItem> capturePublishedItems(Long restaurantId) throws Exception {
+        @SuppressWarnings("rawtypes")
+        ArgumentCaptor<List> items = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(testRepositoryBinder.getMockedMenuRepository()).publishMenu(Matchers.eq(restaurantId), Matchers.anyString(),
+                Matchers.anyListOf(AvailabilityWindow.class), Matchers.anyString(), Matchers.anyListOf(MenuTranslation.class), items.capture());
+        return items.getValue();
+    }
+
+    @Test
+    public void testImportMenusHappyCase() throws Exception {
+        MenuImportJob menuImportJob = menuImportRepositoryImpl.importMenus(OWNER_PRINCIPAL, buildReader(
+                buildRow(1, RESTAURANT_ID, "Beef Noodles", 1250L), buildRow(2, RESTAURANT_ID, "Dumplings", 800L),
+                buildRow(3, OTHER_RESTAURANT_ID, "Fried Rice", 900L)));
+
+        assertEquals(ImportStatus.COMPLETED, menuImportJob.getStatus());
+        assertEquals(3, menuImportJob.getNumOfRows());
+        assertEquals(2, menuImportJob.getNumOfPublishedRestaurants());
+        assertEquals(3, menuImportJob.getNumOfPublishedItems());
+        assertTrue(menuImportJob.getCompletedInEpoch() != null);
+        assertEquals(2, capturePublishedItems(RESTAURANT_ID).size());
+        assertEquals("Fried Rice", capturePublishedItems(OTHER_RESTAURANT_ID).get(0).getItemName());
+        assertEquals(menuImportJob, menuImportRepositoryImpl.getImportJob(menuImportJob.getJobId(), OWNER_PRINCIPAL));
+    }
+
+    @Test
+    public void testImportMenusKeepsCurrentItems() throws Exception {
+        List<AvailabilityWindow> availability = Arrays.asList(AvailabilityWindow.validateAvailabilityWindow(Arrays.asList("mon"), "07:00", "11:00"));
+        MenuItem currentItem = MenuItem.buildMenuItem().itemId(42L).itemName("Beef Noodles").price(1000L).availability(availability).build();
+        List<MenuTranslation> translations = Arrays.asList(new MenuTranslation("zh-Hans", Collections.singletonMap("Beef Noodles", "Niu Rou Mian")));
+        Menu currentMenu = Menu.buildMenu().restaurantId(RESTAURANT_ID).version(3L).timeZone("America/Los_Angeles").items(Arrays.asList(currentItem))
+                .language("en").translations(translations).build();
+        Mockito.doReturn(new MenuSnapshot(currentMenu, new JSONMenuRenderer().render(currentMenu), MenuChangeLog.startAt(currentMenu)))
+                .when(testRepositoryBinder.getMockedMenuRepository()).getMenu(RESTAURANT_ID);
+
+        menuImportRepositoryImpl.importMenus(OWNER_PRINCIPAL, buildReader(buildRow(1, RESTAURANT_ID, "Beef Noodles", 1250L),
+                buildRow(2, RESTAURANT_ID, "Dumplings", 800L)));
+
+        Mockito.verify(testRepositoryBinder.getMockedMenuRepository()).publishMenu(Matchers.eq(RESTAURANT_ID), Matchers.eq("America/Los_Angeles"),
+                Matchers.anyListOf(AvailabilityWindow.class), Matchers.eq("en"), Matchers.eq(translations), Matchers.anyListOf(MenuItem.class));
+        List<MenuItem> publishedItems = capturePublishedItems(RESTAURANT_ID);
+        assertEquals(Long.valueOf(42L), publishedItems.get(0).getItemId());
+        assertEquals(Long.valueOf(1250L), publishedItems.get(0).getPrice());
+        assertEquals(availability, publishedItems.get(0).getAvailability());
+        assertTrue(publishedItems.get(1).getAvailability().isEmpty());
+    }
+
+    @Test
+    public void testImportMenusWithInvalidRows() throws Exception {
+        MenuImportJob menuImportJob = menuImportRepositoryImpl.importMenus(OWNER_PRINCIPAL, buildReader(
+                buildRow(1, RESTAURANT_ID, "Beef Noodles", 1250L), buildRow(2, RESTAURANT_ID, "Dumplings", -1L),
+                buildRow(3, NOT_OWNED_RESTAURANT_ID, "Fried Rice", 900L),
+                buildRow(4, OTHER_RESTAURANT_ID, "Tea", 300L), buildRow(5, RESTAURANT_ID, "Rice", 300L),
+                buildRow(6, null, "Soup", 300L)));
+
+        assertEquals(ImportStatus.COMPLETED_WITH_ERRORS, menuImportJob.getStatus());
+        assertEquals(6, menuImportJob.getNumOfRows());
+        assertEquals(3, menuImportJob.getNumOfRestaurants());
+        assertEquals(1, menuImportJob.getNumOfPublishedRestaurants());
+        assertEquals(2, menuImportJob.getNumOfFailedRestaurants());
+        assertEquals(4, menuImportJob.getNumOfErrors());
+        assertEquals(Long.valueOf(2L), menuImportJob.getErrors().get(0).getRowNumber());
+        assertEquals(NOT_OWNED_RESTAURANT_ID, menuImportJob.getErrors().get(1).getRestaurantId());
+        assertEquals(Long.valueOf(5L), menuImportJob.getErrors().get(2).getRowNumber());
+        assertNull(menuImportJob.getErrors().get(3).getRestaurantId());
+        Mockito.verify(testRepositoryBinder.getMockedMenuRepository(), Mockito.never()).publishMenu(Matchers.eq(RESTAURANT_ID), Matchers.anyString(),
+                Matchers.anyListOf(AvailabilityWindow.class), Matchers.anyString(), Matchers.anyListOf(MenuTranslation.class),
+                Matchers.anyListOf(MenuItem.class));
+        assertEquals(1, capturePublishedItems(OTHER_RESTAURANT_ID).size());
+    }
+
+    @Test
+    public void testImportMenusWithMalformedUpload() throws Exception {
+        final List<MenuImportRow> rows = new ArrayList<>(Arrays.asList(buildRow(1, RESTAURANT_ID, "Beef Noodles", 1250L),
+                buildRow(2, OTHER_RESTAURANT_ID, "Fried Rice", 900L)));
+        MenuImportJob menuImportJob = menuImportRepositoryImpl.importMenus(OWNER_PRINCIPAL, new MenuImportReader() {
+            @Override
+            public MenuImportRow readRow() throws ValidationException {
+                if (rows.isEmpty()) {
+                    throw new ValidationException("Invalid JSON upload");
+                }
+                return rows.remove(0);
+            }
+        });
+
+        assertEquals(ImportStatus.COMPLETED_WITH_ERRORS, menuImportJob.getStatus());
+        assertEquals(1, menuImportJob.getNumOfPublishedRestaurants());
+        assertEquals(OTHER_RESTAURANT_ID, menuImportJob.getErrors().get(0).getRestaurantId());
+        capturePublishedItems(RESTAURANT_ID);
+        Mockito.verify(testRepositoryBinder.getMockedMenuRepository(), Mockito.never()).publishMenu(Matchers.eq(OTHER_RESTAURANT_ID),
+                Matchers.anyString(), Matchers.anyListOf(AvailabilityWindow.class), Matchers.anyString(), Matchers.anyListOf(MenuTranslation.class),
+                Matchers.anyListOf(MenuItem.class));
+    }
+
+    @Test
+    public void testGetImportJobOfAnotherOwner() throws Exception {
+        MenuImportJob menuImportJob = menuImportRepositoryImpl.importMenus(OWNER_PRINCIPAL, buildReader());
+        assertEquals(ImportStatus.COMPLETED, menuImportJob.getStatus());
+        try {
+            menuImportRepositoryImpl.getImportJob(menuImportJob.getJobId(), 2L);
+            fail();
+        } catch (ItemNotFoundException error) {
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package com.unicorn.rest.repository.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import com.unicorn.rest.activities.utils.JSONMenuRenderer;
+import com.unicorn.rest.repository.MenuSnapshotListener;
+import com.unicorn.rest.repository.exception.ItemNotFoundException;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.StaleDataException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.impl.dynamodb.DynamoMenuTable;
+import com.unicorn.rest.repository.model.Menu;
+import com.unicorn.rest.repository.model.MenuDelta;
+import com.unicorn.rest.repository.model.MenuImage;
+import com.unicorn.rest.repository.model.MenuItem;
+import com.unicorn.rest.repository.model.MenuSnapshot;
+import com.unicorn.rest.repository.model.MenuTranslation;
+import com.unicorn.rest.server.injector.TestRepositoryTableBinder;
+
+public class MenuRepositoryImplTest {
+
+    private static final Long RESTAURANT_ID = 1234L;
+
+    private static TestRepositoryTableBinder testRepositoryTableBinder;
+    private MenuRepositoryImpl menuRepositoryImpl;
+
+    @BeforeClass
+    public static void setUpRepositoryTable() {
+        testRepositoryTableBinder = new TestRepositoryTableBinder();
+    }
+
+    @Before
+    public void setUpRepository() throws Exception {
+        menuRepositoryImpl = new MenuRepositoryImpl(testRepositoryTableBinder.getMockedDynamoMenuTable(), new JSONMenuRenderer());
+        menuRepositoryImpl.reloadMenus();
+    }
+
+    @After
+    public void clearMockedRepository() {
+        /*
+         * Reset the mocking on this object so that the field can be safely re-used between tests.
+         */
+        Mockito.reset(testRepositoryTableBinder.getMockedDynamoMenuTable());
+    }
+
+    private static MenuItem buildMenuItem(Long itemId, String itemName) {
+        return MenuItem.buildMenuItem().itemId(itemId).itemName(itemName).price(1000L).tags(Arrays.asList("noodles")).build();
+    }
+
+    private static Menu buildMenu(Long restaurantId, Long version, MenuItem... items) {
+        return Menu.buildMenu().restaurantId(restaurantId).version(version).items(Arrays.asList(items)).build();
+    }
+
+    @Test
+    public void testPublishMenuHappyCase() throws Exception {
+        DynamoMenuTable mockedDynamoMenuTable = testRepositoryTableBinder.getMockedDynamoMenuTable();
+        List<MenuItem> items = Arrays.asList(buildMenuItem(1L, "Spicy Noodles"), buildMenuItem(2L, "Dumplings"));
+
+        MenuSnapshot firstSnapshot = menuRepositoryImpl.publishMenu(RESTAURANT_ID, items);
+        assertEquals(1L, firstSnapshot.getVersion());
+        assertEquals(items, firstSnapshot.getMenu().getItems());
+        assertTrue(firstSnapshot.getFootprintInBytes() > 0);
+        Mockito.verify(mockedDynamoMenuTable).putMenu(firstSnapshot.getMenu());
+        assertSame(firstSnapshot, menuRepositoryImpl.getMenu(RESTAURANT_ID));
+
+        MenuSnapshot secondSnapshot = menuRepositoryImpl.publishMenu(RESTAURANT_ID, items.subList(0, 1));
+        assertEquals(2L, secondSnapshot.getVersion());
+        assertSame(secondSnapshot, menuRepositoryImpl.getMenu(RESTAURANT_ID));
+        /*
+         * The previous snapshot is never modified in place
+         */
+        assertEquals(items, firstSnapshot.getMenu().getItems());
+
+        /*
+         * The menu is served from memory only
+         */
+        Mockito.verify(mockedDynamoMenuTable, Mockito.never()).getMenu(Matchers.anyLong());
+    }
+
+    @Test
+    public void testPublishMenuRetriedOnStaleVersion() throws Exception {
+        DynamoMenuTable mockedDynamoMenuTable = testRepositoryTableBinder.getMockedDynamoMenuTable();
+        Mockito.doThrow(new StaleDataException()).doNothing().when(mockedDynamoMenuTable).putMenu(Matchers.any(Menu.class));
+        Mockito.doReturn(buildMenu(RESTAURANT_ID, 5L, buildMenuItem(1L, "Spicy Noodles"))).when(mockedDynamoMenuTable).getMenu(RESTAURANT_ID);
+
+        MenuSnapshot menuSnapshot = menuRepositoryImpl.publishMenu(RESTAURANT_ID, Arrays.asList(buildMenuItem(2L, "Dumplings")));
+        assertEquals(6L, menuSnapshot.getVersion());
+        assertEquals(Long.valueOf(2L), menuRepositoryImpl.getMenu(RESTAURANT_ID).getMenu().getItems().get(0).getItemId());
+    }
+
+    @Test
+    public void testPublishMenuOverDeletedMenu() throws Exception {
+        DynamoMenuTable mockedDynamoMenuTable = testRepositoryTableBinder.getMockedDynamoMenuTable();
+        Mockito.doThrow(new StaleDataException()).doNothing().when(mockedDynamoMenuTable).putMenu(Matchers.any(Menu.class));
+        Mockito.doThrow(new ItemNotFoundException()).when(mockedDynamoMenuTable).getMenu(RESTAURANT_ID);
+        Mockito.doReturn(4L).when(mockedDynamoMenuTable).getMenuVersion(RESTAURANT_ID);
+
+        /*
+         * The versions keep moving forward over the deletion
+         */
+        MenuSnapshot menuSnapshot = menuRepositoryImpl.publishMenu(RESTAURANT_ID, Arrays.asList(buildMenuItem(1L, "Spicy Noodles")));
+        assertEquals(5L, menuSnapshot.getVersion());
+    }
+
+    @Test
+    public void testPublishMenuGivesUpOnKeepingStale() throws Exception {
+        DynamoMenuTable mockedDynamoMenuTable = testRepositoryTableBinder.getMockedDynamoMenuTable();
+        Mockito.doThrow(new StaleDataException()).when(mockedDynamoMenuTable).putMenu(Matchers.any(Menu.class));
+        Mockito.doThrow(new ItemNotFoundException()).when(mockedDynamoMenuTable).getMenu(RESTAURANT_ID);
+        try {
+            menuRepositoryImpl.publishMenu(RESTAURANT_ID, Collections.<MenuItem>emptyList());
+            fail("Expecting StaleDataException");
+        } catch (StaleDataException expected) {}
+        try {
+            menuRepositoryImpl.getMenu(RESTAURANT_ID);
+            fail("Expecting ItemNotFoundException");
+        } catch (ItemNotFoundException expected) {}
+    }
+
+    @Test
+    public void testMenuDeltaSincePublishedVersion() throws Exception {
+        MenuItem spicyNoodles = buildMenuItem(1L, "Spicy Noodles");
+        MenuItem dumplings = buildMenuItem(2L, "Dumplings");
+        MenuItem friedRice = buildMenuItem(3L, "Fried Rice");
+        menuRepositoryImpl.publishMenu(RESTAURANT_ID, Arrays.asList(spicyNoodles, dumplings));
+        MenuSnapshot menuSnapshot = menuRepositoryImpl.publishMenu(RESTAURANT_ID, Arrays.asList(spicyNoodles, friedRice));
+
+        MenuDelta menuDelta = menuSnapshot.getDelta(1L);
+        assertEquals(Arrays.asList(friedRice), menuDelta.getItems());
+        assertEquals(Arrays.asList(2L), menuDelta.getRemovedItemIds());
+        /*
+         * The delta larger than the menu falls back to the full menu
+         */
+        menuSnapshot = menuRepositoryImpl.publishMenu(RESTAURANT_ID, Arrays.asList(buildMenuItem(4L, "Soup")));
+        assertNull(menuSnapshot.getDelta(1L));
+    }
+
+    @Test
+    public void testPublishTranslatedMenu() throws Exception {
+        Map<String, String> texts = new LinkedHashMap<>();
+        texts.put("Spicy Noodles", "Nouilles Epicees");
+        texts.put("Fried Rice", "Riz Frit");
+        MenuTranslation translation = MenuTranslation.validateMenuTranslation("FR", texts);
+        assertEquals("fr", translation.getLocale());
+
+        MenuSnapshot menuSnapshot = menuRepositoryImpl.publishMenu(RESTAURANT_ID, null, null, "en", Arrays.asList(translation),
+                Arrays.asList(buildMenuItem(1L, "Spicy Noodles")));
+        /*
+         * The texts no longer on the menu are not kept
+         */
+        assertEquals(Collections.singletonMap("Spicy Noodles", "Nouilles Epicees"), menuSnapshot.getMenu().getTranslation("fr").getTexts());
+        assertEquals("en", menuSnapshot.getMenu().getLanguage());
+
+        String renderedMenu = new String(menuSnapshot.getRenderedMenu(null).getBody(), StandardCharsets.UTF_8);
+        String localizedRenderedMenu = new String(menuSnapshot.getRenderedMenu("fr").getBody(), StandardCharsets.UTF_8);
+        assertTrue(renderedMenu.contains("Spicy Noodles"));
+        assertTrue(localizedRenderedMenu.contains("Nouilles Epicees"));
+        assertFalse(localizedRenderedMenu.contains("Spicy Noodles"));
+        assertSame(menuSnapshot.getRenderedMenu(null), menuSnapshot.getRenderedMenu("de"));
+    }
+
+    @Test
+    public void testPublishMenuRendersImageVariants() throws Exception {
+        MenuImage menuImage = MenuImage.validateMenuImage("9f86d081884c7d659a2feaa0c55ad015", "image/jpeg", 800, 600);
+        MenuItem spicyNoodles = MenuItem.buildMenuItem().itemId(1L).itemName("Spicy Noodles").price(1000L).images(Arrays.asList(menuImage)).build();
+        MenuSnapshot menuSnapshot = menuRepositoryImpl.publishMenu(RESTAURANT_ID, Arrays.asList(spicyNoodles));
+
+        String renderedMenu = new String(menuSnapshot.getRenderedMenu(null).getBody(), StandardCharsets.UTF_8);
+        for (String url : Arrays.asList("{width}w.jpg", "160w.jpg", "320w.jpg", "640w.jpg", "800w.jpg")) {
+            assertTrue(renderedMenu.contains("/images/9f86d081884c7d659a2feaa0c55ad015/" + url));
+        }
+        assertFalse(renderedMenu.contains("1280w.jpg"));
+    }
+
+    @Test
+    public void testPublishTranslatedMenuWithInvalidLocales() throws Exception {
+        List<MenuItem> items = Arrays.asList(buildMenuItem(1L, "Spicy Noodles"));
+        MenuTranslation translation = new MenuTranslation("fr", Collections.singletonMap("Spicy Noodles", "Nouilles Epicees"));
+        try {
+            menuRepositoryImpl.publishMenu(RESTAURANT_ID, null, null, "fr", Arrays.asList(translation), items);
+            fail("Expecting ValidationException");
+        } catch (ValidationException expected) {}
+        try {
+            menuRepositoryImpl.publishMenu(RESTAURANT_ID, null, null, "en", Arrays.asList(translation, translation), items);
+            fail("Expecting ValidationException");
+        } catch (ValidationException expected) {}
+        try {
+            menuRepositoryImpl.publishMenu(RESTAURANT_ID, null, null, "en-US-x-private", null, items);
+            fail("Expecting ValidationException");
+        } catch (ValidationException expected) {}
+        try {
+            MenuTranslation.validateMenuTranslation("fr", Collections.singletonMap("Spicy Noodles", " "));
+            fail("Expecting ValidationException");
+        } catch (ValidationException expected) {}
+    }
+
+    @Test
+    public void testValidateLocaleOnlyAcceptsKnownLocales() throws Exception {
+        assertEquals("zh-Hant-TW", MenuTranslation.validateLocale("zh-hant-tw"));
+        assertEquals("pt-BR", MenuTranslation.validateLocale("pt-BR"));
+        assertEquals("es-419", MenuTranslation.validateLocale("es-419"));
+        for (String unknownLocale : Arrays.asList("qq", "fr-Zzzz", "fr-QQ", "abcd-Latn-US")) {
+            try {
+                MenuTranslation.validateLocale(unknownLocale);
+                fail("Expecting ValidationException for " + unknownLocale);
+            } catch (ValidationException expected) {}
+        }
+    }
+
+    @Test(expected = ValidationException.class)
+    public void testPublishMenuWithDuplicatedItemId() throws Exception {
+        menuRepositoryImpl.publishMenu(RESTAURANT_ID, Arrays.asList(buildMenuItem(1L, "Spicy Noodles"), buildMenuItem(1L, "Dumplings")));
+    }
+
+    @Test(expected = ItemNotFoundException.class)
+    public void testGetMenuNotPublished() throws Exception {
+        menuRepositoryImpl.getMenu(RESTAURANT_ID);
+    }
+
+    @Test
+    public void testReloadMenus() throws Exception {
+        DynamoMenuTable mockedDynamoMenuTable = testRepositoryTableBinder.getMockedDynamoMenuTable();
+        Long deletedRestaurantId = 5678L;
+        menuRepositoryImpl.publishMenu(RESTAURANT_ID, Arrays.asList(buildMenuItem(1L, "Spicy Noodles")));
+        menuRepositoryImpl.publishMenu(RESTAURANT_ID, Arrays.asList(buildMenuItem(1L, "Spicy Noodles")));
+        menuRepositoryImpl.publishMenu(deletedRestaurantId, Arrays.asList(buildMenuItem(2L, "Dumplings")));
+        MenuSnapshot currentSnapshot = menuRepositoryImpl.getMenu(RESTAURANT_ID);
+
+        Long newRestaurantId = 9012L;
+        Mockito.doReturn(Arrays.asList(buildMenu(RESTAURANT_ID, 1L), buildMenu(newRestaurantId, 3L))).when(mockedDynamoMenuTable).getMenus();
+        assertEquals(2, menuRepositoryImpl.reloadMenus());
+
+        /*
+         * The older version does not replace the snapshot
+         */
+        assertSame(currentSnapshot, menuRepositoryImpl.getMenu(RESTAURANT_ID));
+        assertEquals(3L, menuRepositoryImpl.getMenu(newRestaurantId).getVersion());
+        try {
+            menuRepositoryImpl.getMenu(deletedRestaurantId);
+            fail("Expecting ItemNotFoundException");
+        } catch (ItemNotFoundException expected) {}
+    }
+
+    @Test
+    public void testPollMenus() throws Exception {
+        DynamoMenuTable mockedDynamoMenuTable = testRepositoryTableBinder.getMockedDynamoMenuTable();
+        Long deletedRestaurantId = 5678L;
+        Long newRestaurantId = 9012L;
+        MenuSnapshot currentSnapshot = menuRepositoryImpl.publishMenu(RESTAURANT_ID, Arrays.asList(buildMenuItem(1L, "Spicy Noodles")));
+        menuRepositoryImpl.publishMenu(deletedRestaurantId, Arrays.asList(buildMenuItem(2L, "Dumplings")));
+
+        Map<Long, Long> menuVersions = new LinkedHashMap<>();
+        menuVersions.put(RESTAURANT_ID, 1L);
+        menuVersions.put(deletedRestaurantId, 2L);
+        menuVersions.put(newRestaurantId, 3L);
+        Mockito.doReturn(menuVersions).when(mockedDynamoMenuTable).getMenuVersionsUpdated(Matchers.anyLong(), Matchers.anyLong());
+        Mockito.doThrow(new ItemNotFoundException()).when(mockedDynamoMenuTable).getMenu(deletedRestaurantId);
+        Mockito.doReturn(buildMenu(newRestaurantId, 3L)).when(mockedDynamoMenuTable).getMenu(newRestaurantId);
+        assertEquals(2, menuRepositoryImpl.pollMenus());
+
+        /*
+         * The menu of the version already in memory is not read again
+         */
+        Mockito.verify(mockedDynamoMenuTable, Mockito.never()).getMenu(RESTAURANT_ID);
+        assertSame(currentSnapshot, menuRepositoryImpl.getMenu(RESTAURANT_ID));
+        assertEquals(3L, menuRepositoryImpl.getMenu(newRestaurantId).getVersion());
+        try {
+            menuRepositoryImpl.getMenu(deletedRestaurantId);
+            fail("Expecting ItemNotFoundException");
+        } catch (ItemNotFoundException expected) {}
+        Mockito.verify(mockedDynamoMenuTable, Mockito.times(1)).getMenus();
+    }
+
+    @Test
+    public void testGetMenuReadThroughBeforeLoaded() throws Exception {
+        DynamoMenuTable mockedDynamoMenuTable = testRepositoryTableBinder.getMockedDynamoMenuTable();
+        MenuRepositoryImpl loadingMenuRepositoryImpl = new MenuRepositoryImpl(mockedDynamoMenuTable, new JSONMenuRenderer());
+        Mockito.doReturn(buildMenu(RESTAURANT_ID, 2L, buildMenuItem(1L, "Spicy Noodles"))).when(mockedDynamoMenuTable).getMenu(RESTAURANT_ID);
+        assertEquals(2L, loadingMenuRepositoryImpl.getMenu(RESTAURANT_ID).getVersion());
+        assertEquals(2L, loadingMenuRepositoryImpl.getMenu(RESTAURANT_ID).getVersion());
+        Mockito.verify(mockedDynamoMenuTable, Mockito.times(1)).getMenu(RESTAURANT_ID);
+
+        /*
+         * The first poll loads all the menus, after which the menu missing from memory does not exist
+         */
+        Mockito.doReturn(Arrays.asList(buildMenu(RESTAURANT_ID, 2L))).when(mockedDynamoMenuTable).getMenus();
+        assertEquals(1, loadingMenuRepositoryImpl.pollMenus());
+        try {
+            loadingMenuRepositoryImpl.getMenu(5678L);
+            fail("Expecting ItemNotFoundException");
+        } catch (ItemNotFoundException expected) {}
+        Mockito.verify(mockedDynamoMenuTable, Mockito.never()).getMenu(5678L);
+    }
+
+    @Test
+    public void testGetMenuReadThroughFailureBeforeLoaded() throws Exception {
+        DynamoMenuTable mockedDynamoMenuTable = testRepositoryTableBinder.getMockedDynamoMenuTable();
+        MenuRepositoryImpl loadingMenuRepositoryImpl = new MenuRepositoryImpl(mockedDynamoMenuTable, new JSONMenuRenderer());
+        Mockito.doThrow(new RepositoryServerException("unavailable")).when(mockedDynamoMenuTable).getMenu(RESTAURANT_ID);
+        /*
+         * The failed read is not reported as the menu missing
+         */
+        try {
+            loadingMenuRepositoryImpl.getMenu(RESTAURANT_ID);
+            fail("Expecting RepositoryServerException");
+        } catch (RepositoryServerException expected) {}
+    }
+
+    @Test
+    public void testDeleteMenu() throws Exception {
+        DynamoMenuTable mockedDynamoMenuTable = testRepositoryTableBinder.getMockedDynamoMenuTable();
+        menuRepositoryImpl.publishMenu(RESTAURANT_ID, Arrays.asList(buildMenuItem(1L, "Spicy Noodles")));
+        menuRepositoryImpl.deleteMenu(RESTAURANT_ID);
+        Mockito.verify(mockedDynamoMenuTable).deleteMenu(RESTAURANT_ID);
+        try {
+            menuRepositoryImpl.getMenu(RESTAURANT_ID);
+            fail("Expecting ItemNotFoundException");
+        } catch (ItemNotFoundException expected) {}
+    }
+
+    @Test
+    public void testMenuSnapshotListenerNotified() throws Exception {
+        MenuSnapshot firstSnapshot = menuRepositoryImpl.publishMenu(RESTAURANT_ID, Arrays.asList(buildMenuItem(1L, "Spicy Noodles")));
+        MenuSnapshotListener mockedMenuSnapshotListener = Mockito.mock(MenuSnapshotListener.class);
+        menuRepositoryImpl.addMenuSnapshotListener(mockedMenuSnapshotListener);
+        Mockito.verify(mockedMenuSnapshotListener).onMenusInstalled(Arrays.asList(firstSnapshot));
+
+        MenuSnapshot secondSnapshot = menuRepositoryImpl.publishMenu(RESTAURANT_ID, Arrays.asList(buildMenuItem(2L, "Dumplings")));
+        Mockito.verify(mockedMenuSnapshotListener).onMenusInstalled(Arrays.asList(secondSnapshot));
+        menuRepositoryImpl.deleteMenu(RESTAURANT_ID);
+        Mockito.verify(mockedMenuSnapshotListener).onMenuRemoved(RESTAURANT_ID);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testStatsReportFootprintPerRestaurant() throws Exception {
+        menuRepositoryImpl.publishMenu(1L, Arrays.asList(buildMenuItem(1L, "Spicy Noodles")));
+        menuRepositoryImpl.publishMenu(2L, Arrays.asList(buildMenuItem(2L, "Dumplings"), buildMenuItem(3L, "Fried Rice")));
+
+        Map<String, Object> stats = menuRepositoryImpl.getStats();
+        assertEquals(2, stats.get("size"));
+        Map<String, Long> largestFootprints = (Map<String, Long>) stats.get("largest_footprint_bytes");
+        assertEquals(Arrays.asList("2", "1"), Arrays.asList(largestFootprints.keySet().toArray()));
+        assertEquals(Long.valueOf(menuRepositoryImpl.getMenu(2L).getFootprintInBytes()), largestFootprints.get("2"));
+        assertEquals(largestFootprints.get("1") + largestFootprints.get("2"), stats.get("total_footprint_bytes"));
+    }
+}
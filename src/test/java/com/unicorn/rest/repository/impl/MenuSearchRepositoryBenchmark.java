@@ -0,0 +1,143 @@
+package com.unicorn.rest.repository.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.Menu;
+import com.unicorn.rest.repository.model.MenuChangeLog;
+import com.unicorn.rest.repository.model.MenuItem;
+import com.unicorn.rest.repository.model.MenuSnapshot;
+import com.unicorn.rest.repository.model.RenderedMenu;
+
+/**
+ * Search and update MenuSearchRepositoryImpl indexing 1M items, i.e. 5000 menus of 200 items,
+ * with the terms drawn from a skewed vocabulary so that a few terms are in most of the items as real menus do.
+ * 
+ * Run with: java -cp target/test-classes:target/classes:<test class path> com.unicorn.rest.repository.impl.MenuSearchRepositoryBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MenuSearchRepositoryBenchmark {
+
+    private static final int NUM_OF_MENUS = 5000;
+    private static final int NUM_OF_ITEMS_PER_MENU = 200;
+    private static final int VOCABULARY_SIZE = 5000;
+    /*
+     * The menu rendering is irrelevant to the index
+     */
+    private static final RenderedMenu RENDERED_MENU = new RenderedMenu(new byte[0], null, "benchmark");
+    /*
+     * Merge on the thread updating the index, so that the cost of the merges is accounted to the updates
+     */
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable runnable) {
+            runnable.run();
+        }
+    };
+
+    private MenuSearchRepositoryImpl menuSearchRepositoryImpl;
+    private List<String> vocabulary;
+    private Random random;
+    private long version = 1;
+
+    @Setup
+    public void setUp() {
+        random = new Random(1234);
+        vocabulary = new ArrayList<>(VOCABULARY_SIZE);
+        vocabulary.addAll(Arrays.asList("spicy", "noodles", "chicken", "rice", "soup", "fried", "beef", "dumplings", "tofu", "pork"));
+        while (vocabulary.size() < VOCABULARY_SIZE) {
+            vocabulary.add(randomWord());
+        }
+        List<MenuSnapshot> menuSnapshots = new ArrayList<>(NUM_OF_MENUS);
+        for (long restaurantId = 1; restaurantId <= NUM_OF_MENUS; restaurantId++) {
+            menuSnapshots.add(buildSnapshot(restaurantId, version));
+        }
+        menuSearchRepositoryImpl = new MenuSearchRepositoryImpl(DIRECT_EXECUTOR);
+        menuSearchRepositoryImpl.onMenusInstalled(menuSnapshots);
+    }
+
+    @Benchmark
+    public void searchFrequentTerms(Blackhole blackhole) throws ValidationException {
+        blackhole.consume(menuSearchRepositoryImpl.searchMenuItems("spicy noodles", false, 20));
+    }
+
+    @Benchmark
+    public void searchRareTerms(Blackhole blackhole) throws ValidationException {
+        blackhole.consume(menuSearchRepositoryImpl.searchMenuItems(vocabulary.get(VOCABULARY_SIZE - 1) + " rice", false, 20));
+    }
+
+    @Benchmark
+    public void searchPrefix(Blackhole blackhole) throws ValidationException {
+        blackhole.consume(menuSearchRepositoryImpl.searchMenuItems("chicken sp", true, 20));
+    }
+
+    @Benchmark
+    public void publishMenu() {
+        long restaurantId = 1 + random.nextInt(NUM_OF_MENUS);
+        menuSearchRepositoryImpl.onMenusInstalled(Collections.singletonList(buildSnapshot(restaurantId, ++version)));
+    }
+
+    private MenuSnapshot buildSnapshot(long restaurantId, long menuVersion) {
+        List<MenuItem> items = new ArrayList<>(NUM_OF_ITEMS_PER_MENU);
+        for (int i = 0; i < NUM_OF_ITEMS_PER_MENU; i++) {
+            items.add(MenuItem.buildMenuItem().itemId(restaurantId * NUM_OF_ITEMS_PER_MENU + i).itemName(randomText(3))
+                    .itemDescription(randomText(8)).price(1000L).tags(Arrays.asList(randomTerm(), randomTerm())).build());
+        }
+        Menu menu = Menu.buildMenu().restaurantId(restaurantId).version(menuVersion).items(items).build();
+        return new MenuSnapshot(menu, RENDERED_MENU, MenuChangeLog.startAt(menu));
+    }
+
+    private String randomText(int numOfTerms) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < numOfTerms; i++) {
+            text.append(randomTerm()).append(' ');
+        }
+        return text.toString();
+    }
+
+    /*
+     * Roughly Zipfian: the square of a uniform number biases toward the front of the vocabulary
+     */
+    private String randomTerm() {
+        double uniform = random.nextDouble();
+        return vocabulary.get((int) (uniform * uniform * VOCABULARY_SIZE));
+    }
+
+    private String randomWord() {
+        char[] word = new char[4 + random.nextInt(6)];
+        for (int i = 0; i < word.length; i++) {
+            word[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(word);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MenuSearchRepositoryBenchmark.class.getSimpleName()).build()).run();
+    }
+}
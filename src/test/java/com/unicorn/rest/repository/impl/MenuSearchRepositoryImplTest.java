@@ -0,0 +1,180 @@
+package com.unicorn.rest.repository.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.unicorn.rest.activities.utils.JSONMenuRenderer;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.Menu;
+import com.unicorn.rest.repository.model.MenuChangeLog;
+import com.unicorn.rest.repository.model.MenuItem;
+import com.unicorn.rest.repository.model.MenuSearchHit;
+import com.unicorn.rest.repository.model.MenuSnapshot;
+
+public class MenuSearchRepositoryImplTest {
+
+    private static final Long RESTAURANT_ID = 1234L;
+    private static final Long OTHER_RESTAURANT_ID = 5678L;
+
+    private static final JSONMenuRenderer MENU_RENDERER = new JSONMenuRenderer();
+    /*
+     * Merge on the thread publishing the menu, so that the tests see the merged segments right away
+     */
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable runnable) {
+            runnable.run();
+        }
+    };
+    private MenuSearchRepositoryImpl menuSearchRepositoryImpl;
+
+    @Before
+    public void setUpRepository() {
+        menuSearchRepositoryImpl = new MenuSearchRepositoryImpl(DIRECT_EXECUTOR);
+    }
+
+    private static MenuItem buildMenuItem(Long itemId, String itemName, String itemDescription, String... tags) {
+        return MenuItem.buildMenuItem().itemId(itemId).itemName(itemName).itemDescription(itemDescription).price(1000L)
+                .tags(Arrays.asList(tags)).build();
+    }
+
+    private static MenuSnapshot buildSnapshot(Long restaurantId, Long version, MenuItem... items) {
+        Menu menu = Menu.buildMenu().restaurantId(restaurantId).version(version).items(Arrays.asList(items)).build();
+        return new MenuSnapshot(menu, MENU_RENDERER.render(menu), MenuChangeLog.startAt(menu));
+    }
+
+    private static List<Long> getItemIds(List<MenuSearchHit> hits) {
+        List<Long> itemIds = new ArrayList<>();
+        for (MenuSearchHit hit : hits) {
+            itemIds.add(hit.getItem().getItemId());
+        }
+        return itemIds;
+    }
+
+    @Test
+    public void testSearchMenuItemsRankedByRelevance() throws Exception {
+        menuSearchRepositoryImpl.onMenusInstalled(Arrays.asList(
+                buildSnapshot(RESTAURANT_ID, 1L, 
+                        buildMenuItem(1L, "Spicy Noodles", "Hand pulled noodles with chili oil", "spicy"),
+                        buildMenuItem(2L, "Noodle Soup", "Not spicy at all")),
+                buildSnapshot(OTHER_RESTAURANT_ID, 1L, 
+                        buildMenuItem(3L, "Dan Dan Noodles", "Sesame and Sichuan pepper, spicy"),
+                        buildMenuItem(4L, "Fried Rice", null))));
+
+        List<MenuSearchHit> hits = menuSearchRepositoryImpl.searchMenuItems("SPICY noodles", false, 10);
+        /*
+         * Every term has to match, and the terms in the name and tags weigh more than in the description
+         */
+        assertEquals(Arrays.asList(1L, 3L), getItemIds(hits));
+        assertEquals(RESTAURANT_ID, hits.get(0).getRestaurantId());
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+
+        assertEquals(Arrays.asList(1L), getItemIds(menuSearchRepositoryImpl.searchMenuItems("spicy noodles", false, 1)));
+        assertEquals(Collections.<Long>emptyList(), getItemIds(menuSearchRepositoryImpl.searchMenuItems("spicy pizza", false, 10)));
+    }
+
+    @Test
+    public void testSearchMenuItemsWithPrefix() throws Exception {
+        menuSearchRepositoryImpl.onMenusInstalled(Arrays.asList(buildSnapshot(RESTAURANT_ID, 1L, 
+                buildMenuItem(1L, "Spicy Noodles", null), buildMenuItem(2L, "Spinach Salad", null), buildMenuItem(3L, "Noodle Soup", null))));
+
+        assertEquals(Collections.<Long>emptyList(), getItemIds(menuSearchRepositoryImpl.searchMenuItems("spi", false, 10)));
+        assertEquals(Arrays.asList(1L, 2L), sorted(getItemIds(menuSearchRepositoryImpl.searchMenuItems("spi", true, 10))));
+        assertEquals(Arrays.asList(1L, 3L), sorted(getItemIds(menuSearchRepositoryImpl.searchMenuItems("nood", true, 10))));
+        assertEquals(Arrays.asList(1L), getItemIds(menuSearchRepositoryImpl.searchMenuItems("noodles spi", true, 10)));
+    }
+
+    @Test
+    public void testPublishedVersionReplacesIndexedItems() throws Exception {
+        menuSearchRepositoryImpl.onMenusInstalled(Arrays.asList(buildSnapshot(RESTAURANT_ID, 1L, buildMenuItem(1L, "Spicy Noodles", null))));
+        menuSearchRepositoryImpl.onMenusInstalled(Arrays.asList(buildSnapshot(RESTAURANT_ID, 2L, buildMenuItem(2L, "Dumplings", null))));
+        /*
+         * The older version delivered late is ignored
+         */
+        menuSearchRepositoryImpl.onMenusInstalled(Arrays.asList(buildSnapshot(RESTAURANT_ID, 1L, buildMenuItem(1L, "Spicy Noodles", null))));
+
+        assertEquals(Collections.<Long>emptyList(), getItemIds(menuSearchRepositoryImpl.searchMenuItems("noodles", false, 10)));
+        assertEquals(Arrays.asList(2L), getItemIds(menuSearchRepositoryImpl.searchMenuItems("dumplings", false, 10)));
+
+        menuSearchRepositoryImpl.onMenuRemoved(RESTAURANT_ID);
+        assertEquals(Collections.<Long>emptyList(), getItemIds(menuSearchRepositoryImpl.searchMenuItems("dumplings", false, 10)));
+    }
+
+    @Test
+    public void testSegmentsMergedAsMenusPublished() throws Exception {
+        for (long restaurantId = 1; restaurantId <= 100; restaurantId++) {
+            menuSearchRepositoryImpl.onMenusInstalled(Arrays.asList(buildSnapshot(restaurantId, 1L, 
+                    buildMenuItem(restaurantId, "Spicy Noodles", null), buildMenuItem(1000 + restaurantId, "Dumplings", null))));
+        }
+        for (long restaurantId = 1; restaurantId <= 50; restaurantId++) {
+            menuSearchRepositoryImpl.onMenusInstalled(Arrays.asList(buildSnapshot(restaurantId, 2L, 
+                    buildMenuItem(1000 + restaurantId, "Dumplings", null))));
+        }
+
+        assertEquals(50, menuSearchRepositoryImpl.searchMenuItems("noodles", false, 100).size());
+        assertEquals(100, menuSearchRepositoryImpl.searchMenuItems("dumplings", false, 100).size());
+        assertTrue((Integer) menuSearchRepositoryImpl.getStats().get("num_segments") < 20);
+        assertTrue((Long) menuSearchRepositoryImpl.getStats().get("merge_count") > 0);
+    }
+
+    @Test
+    public void testMenusChangedDuringMergeDeletedFromMergedSegment() throws Exception {
+        final List<Runnable> pendingMerges = new ArrayList<>();
+        menuSearchRepositoryImpl = new MenuSearchRepositoryImpl(new Executor() {
+            @Override
+            public void execute(Runnable runnable) {
+                pendingMerges.add(runnable);
+            }
+        });
+        for (long restaurantId = 1; restaurantId <= 10; restaurantId++) {
+            menuSearchRepositoryImpl.onMenusInstalled(Arrays.asList(buildSnapshot(restaurantId, 1L, 
+                    buildMenuItem(restaurantId, "Spicy Noodles", null), buildMenuItem(100 + restaurantId, "Fried Rice", null))));
+        }
+        assertEquals(1, pendingMerges.size());
+        assertEquals(10, menuSearchRepositoryImpl.getStats().get("num_segments"));
+
+        menuSearchRepositoryImpl.onMenusInstalled(Arrays.asList(buildSnapshot(1L, 2L, buildMenuItem(1000L, "Dumplings", null))));
+        menuSearchRepositoryImpl.onMenuRemoved(2L);
+        pendingMerges.remove(0).run();
+
+        assertEquals(2, menuSearchRepositoryImpl.getStats().get("num_segments"));
+        assertEquals(8, menuSearchRepositoryImpl.searchMenuItems("noodles", false, 100).size());
+        assertEquals(Arrays.asList(1000L), getItemIds(menuSearchRepositoryImpl.searchMenuItems("dumplings", false, 100)));
+        assertEquals(Collections.<Runnable>emptyList(), pendingMerges);
+    }
+
+    @Test
+    public void testAdvance() {
+        int[] docs = {1, 3, 5, 7, 9, 11, 13};
+        assertEquals(0, MenuSearchRepositoryImpl.advance(docs, 0, 0));
+        assertEquals(2, MenuSearchRepositoryImpl.advance(docs, 0, 5));
+        assertEquals(3, MenuSearchRepositoryImpl.advance(docs, 1, 6));
+        assertEquals(6, MenuSearchRepositoryImpl.advance(docs, 2, 13));
+        assertEquals(7, MenuSearchRepositoryImpl.advance(docs, 0, 14));
+        assertEquals(7, MenuSearchRepositoryImpl.advance(docs, 7, 1));
+    }
+
+    @Test(expected = ValidationException.class)
+    public void testSearchMenuItemsWithBlankQuery() throws Exception {
+        menuSearchRepositoryImpl.searchMenuItems(" ", false, 10);
+    }
+
+    @Test(expected = ValidationException.class)
+    public void testSearchMenuItemsWithInvalidLimit() throws Exception {
+        menuSearchRepositoryImpl.searchMenuItems("noodles", false, MenuSearchRepositoryImpl.MAX_SEARCH_LIMIT + 1);
+    }
+
+    private static List<Long> sorted(List<Long> itemIds) {
+        Collections.sort(itemIds);
+        return itemIds;
+    }
+}
@@ -0,0 +1,251 @@
+package com.unicorn.rest.repository.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyMapOf;
+import static org.mockito.Matchers.eq;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.unicorn.rest.activities.utils.JSONMenuRenderer;
+import com.unicorn.rest.repository.exception.ItemNotFoundException;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.StaleDataException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.ItemEvent;
+import com.unicorn.rest.repository.model.MenuItem;
+import com.unicorn.rest.repository.model.PopularityCounts;
+import com.unicorn.rest.repository.table.PopularityCounterTable;
+import com.unicorn.rest.server.injector.TestRepositoryTableBinder;
+
+public class PopularityRepositoryImplTest {
+
+    private static final Long RESTAURANT_ID = 1234L;
+    private static final long HALF_LIFE_IN_MILLS = 60 * 60 * 1000L;
+    private static final long GENERATION_IN_MILLS = PopularityRepositoryImpl.GENERATION_HALF_LIVES * HALF_LIFE_IN_MILLS;
+    private static final long MATERIALIZE_INTERVAL_IN_MILLS = 60 * 1000L;
+    /*
+     * The start of a generation, which is also the start of a materialization period
+     */
+    private static final long NOW_IN_MILLS = 97222 * GENERATION_IN_MILLS;
+
+    private static TestRepositoryTableBinder testRepositoryTableBinder;
+    private PopularityCounterTable mockedPopularityCounterTable;
+    private MenuRepositoryImpl menuRepositoryImpl;
+    private PopularityRepositoryImpl popularityRepositoryImpl;
+
+    @BeforeClass
+    public static void setUpRepositoryTable() {
+        testRepositoryTableBinder = new TestRepositoryTableBinder();
+    }
+
+    @Before
+    public void setUpRepository() throws Exception {
+        mockedPopularityCounterTable = testRepositoryTableBinder.getMockedDynamoPopularityCounterTable();
+        Mockito.doReturn(Collections.emptyList()).when(mockedPopularityCounterTable).getPopularityCounts();
+        menuRepositoryImpl = new MenuRepositoryImpl(testRepositoryTableBinder.getMockedDynamoMenuTable(), new JSONMenuRenderer());
+        menuRepositoryImpl.reloadMenus();
+        popularityRepositoryImpl = new PopularityRepositoryImpl(menuRepositoryImpl, mockedPopularityCounterTable, HALF_LIFE_IN_MILLS,
+                MATERIALIZE_INTERVAL_IN_MILLS);
+        menuRepositoryImpl.addMenuSnapshotListener(popularityRepositoryImpl);
+        menuRepositoryImpl.publishMenu(RESTAURANT_ID, Arrays.asList(buildMenuItem(1L, "Spicy Noodles"), buildMenuItem(2L, "Dumplings"),
+                buildMenuItem(3L, "Fried Rice")));
+    }
+
+    @After
+    public void clearMockedRepository() {
+        /*
+         * Reset the mocking on this object so that the field can be safely re-used between tests.
+         */
+        Mockito.reset(testRepositoryTableBinder.getMockedDynamoMenuTable());
+        Mockito.reset(testRepositoryTableBinder.getMockedDynamoPopularityCounterTable());
+    }
+
+    private static MenuItem buildMenuItem(Long itemId, String itemName) {
+        return MenuItem.buildMenuItem().itemId(itemId).itemName(itemName).price(1000L).build();
+    }
+
+    private static ItemEvent buildItemEvent(Long itemId, String eventType, Integer quantity) throws ValidationException {
+        return ItemEvent.validateItemEvent(itemId, eventType, quantity);
+    }
+
+    private static PopularityCounts buildPopularityCounts(long landmarkInEpoch, Long materializedInEpoch, List<Long> popularItemIds,
+            Object... itemCounts) {
+        Map<Long, Double> counts = new HashMap<>();
+        for (int i = 0; i < itemCounts.length; i += 2) {
+            counts.put((Long) itemCounts[i], (Double) itemCounts[i + 1]);
+        }
+        return new PopularityCounts(RESTAURANT_ID, landmarkInEpoch, counts, materializedInEpoch, popularItemIds);
+    }
+
+    private void mockPopularityCounts(PopularityCounts... popularityCounts) throws Exception {
+        Mockito.doReturn(Arrays.asList(popularityCounts)).when(mockedPopularityCounterTable).getPopularityCounts();
+    }
+
+    @Test
+    public void testEventsFlushedToSharedCounts() throws Exception {
+        assertEquals(3, popularityRepositoryImpl.recordItemEvents(RESTAURANT_ID, Arrays.asList(buildItemEvent(1L, "view", null),
+                buildItemEvent(2L, "ORDER", 2), buildItemEvent(1L, "view", 1)), NOW_IN_MILLS + HALF_LIFE_IN_MILLS));
+        assertEquals(1, popularityRepositoryImpl.getStats().get("size"));
+
+        popularityRepositoryImpl.materializePopularItems(NOW_IN_MILLS + HALF_LIFE_IN_MILLS);
+        /*
+         * The counts are weighted up to the landmark of the generation
+         */
+        Map<Long, Double> expectedItemCounts = new HashMap<>();
+        expectedItemCounts.put(1L, 4.0);
+        expectedItemCounts.put(2L, 20.0);
+        Mockito.verify(mockedPopularityCounterTable).addItemCounts(RESTAURANT_ID, NOW_IN_MILLS, expectedItemCounts);
+        assertEquals(0, popularityRepositoryImpl.getStats().get("size"));
+
+        popularityRepositoryImpl.materializePopularItems(NOW_IN_MILLS + HALF_LIFE_IN_MILLS + MATERIALIZE_INTERVAL_IN_MILLS);
+        Mockito.verify(mockedPopularityCounterTable, Mockito.times(1)).addItemCounts(anyLong(), anyLong(), anyMapOf(Long.class, Double.class));
+    }
+
+    @Test
+    public void testMaterializePopularItemsHappyCase() throws Exception {
+        /*
+         * The previous generation has decayed by 2^GENERATION_HALF_LIVES, and the item no longer on the menu is left out
+         */
+        mockPopularityCounts(buildPopularityCounts(NOW_IN_MILLS, null, Collections.<Long>emptyList(), 1L, 3.0, 2L, 5.0, 4L, 10.0),
+                buildPopularityCounts(NOW_IN_MILLS - GENERATION_IN_MILLS, null, Collections.<Long>emptyList(), 3L, 32.0));
+
+        assertEquals(Collections.emptyList(), popularityRepositoryImpl.getPopularItems(RESTAURANT_ID));
+        assertEquals(1, popularityRepositoryImpl.materializePopularItems(NOW_IN_MILLS));
+        assertEquals(Arrays.asList(2L, 1L, 3L), popularityRepositoryImpl.getPopularItems(RESTAURANT_ID));
+        assertEquals(Arrays.asList(2L, 1L, 3L), menuRepositoryImpl.getMenu(RESTAURANT_ID).getPopularItemIds());
+        Mockito.verify(mockedPopularityCounterTable).putPopularItems(RESTAURANT_ID, NOW_IN_MILLS, null, NOW_IN_MILLS, Arrays.asList(2L, 1L, 3L));
+
+        /*
+         * The popular items stored for the period are taken as they are
+         */
+        mockPopularityCounts(buildPopularityCounts(NOW_IN_MILLS, NOW_IN_MILLS, Arrays.asList(2L, 1L, 3L), 1L, 30.0, 2L, 5.0));
+        assertEquals(0, popularityRepositoryImpl.materializePopularItems(NOW_IN_MILLS + 1000L));
+        Mockito.verify(mockedPopularityCounterTable, Mockito.times(1)).putPopularItems(anyLong(), anyLong(), anyLong(), anyLong(),
+                anyListOf(Long.class));
+
+        assertEquals(1, popularityRepositoryImpl.materializePopularItems(NOW_IN_MILLS + MATERIALIZE_INTERVAL_IN_MILLS));
+        assertEquals(Arrays.asList(1L, 2L), popularityRepositoryImpl.getPopularItems(RESTAURANT_ID));
+        Mockito.verify(mockedPopularityCounterTable).putPopularItems(RESTAURANT_ID, NOW_IN_MILLS, NOW_IN_MILLS,
+                NOW_IN_MILLS + MATERIALIZE_INTERVAL_IN_MILLS, Arrays.asList(1L, 2L));
+    }
+
+    @Test
+    public void testPopularItemsStoredByOtherServer() throws Exception {
+        mockPopularityCounts(buildPopularityCounts(NOW_IN_MILLS, NOW_IN_MILLS, Arrays.asList(3L, 1L), 2L, 10.0));
+
+        assertEquals(1, popularityRepositoryImpl.materializePopularItems(NOW_IN_MILLS + 1000L));
+        assertEquals(Arrays.asList(3L, 1L), popularityRepositoryImpl.getPopularItems(RESTAURANT_ID));
+        Mockito.verify(mockedPopularityCounterTable, Mockito.never()).putPopularItems(anyLong(), anyLong(), anyLong(), anyLong(),
+                anyListOf(Long.class));
+    }
+
+    @Test
+    public void testPopularItemsStoredByOtherServerMeanwhile() throws Exception {
+        mockPopularityCounts(buildPopularityCounts(NOW_IN_MILLS, null, Collections.<Long>emptyList(), 2L, 10.0));
+        Mockito.doThrow(new StaleDataException()).when(mockedPopularityCounterTable).putPopularItems(RESTAURANT_ID, NOW_IN_MILLS, null,
+                NOW_IN_MILLS, Arrays.asList(2L));
+        Mockito.doReturn(buildPopularityCounts(NOW_IN_MILLS, NOW_IN_MILLS, Arrays.asList(1L, 2L), 1L, 20.0, 2L, 10.0))
+        .when(mockedPopularityCounterTable).getPopularityCounts(RESTAURANT_ID, NOW_IN_MILLS);
+
+        assertEquals(1, popularityRepositoryImpl.materializePopularItems(NOW_IN_MILLS));
+        assertEquals(Arrays.asList(1L, 2L), popularityRepositoryImpl.getPopularItems(RESTAURANT_ID));
+    }
+
+    @Test
+    public void testPopularItemsKeptOnRepublish() throws Exception {
+        mockPopularityCounts(buildPopularityCounts(NOW_IN_MILLS, null, Collections.<Long>emptyList(), 1L, 5.0, 2L, 1.0, 3L, 1.0));
+        popularityRepositoryImpl.materializePopularItems(NOW_IN_MILLS);
+
+        menuRepositoryImpl.publishMenu(RESTAURANT_ID, Arrays.asList(buildMenuItem(2L, "Dumplings"), buildMenuItem(3L, "Fried Rice")));
+        assertEquals(Arrays.asList(2L, 3L), popularityRepositoryImpl.getPopularItems(RESTAURANT_ID));
+    }
+
+    @Test
+    public void testPopularItemsClearedOnceCountsGone() throws Exception {
+        mockPopularityCounts(buildPopularityCounts(NOW_IN_MILLS, null, Collections.<Long>emptyList(), 1L, 1.0));
+        popularityRepositoryImpl.materializePopularItems(NOW_IN_MILLS);
+        assertEquals(Arrays.asList(1L), popularityRepositoryImpl.getPopularItems(RESTAURANT_ID));
+        assertEquals(1, popularityRepositoryImpl.getStats().get("popular_items_size"));
+
+        mockPopularityCounts();
+        assertEquals(1, popularityRepositoryImpl.materializePopularItems(NOW_IN_MILLS + MATERIALIZE_INTERVAL_IN_MILLS));
+        assertEquals(Collections.emptyList(), popularityRepositoryImpl.getPopularItems(RESTAURANT_ID));
+        assertEquals(0, popularityRepositoryImpl.getStats().get("popular_items_size"));
+    }
+
+    @Test
+    public void testPopularItemsKeptOnFailedScan() throws Exception {
+        mockPopularityCounts(buildPopularityCounts(NOW_IN_MILLS, null, Collections.<Long>emptyList(), 1L, 1.0));
+        popularityRepositoryImpl.materializePopularItems(NOW_IN_MILLS);
+
+        Mockito.doThrow(new RepositoryServerException("Failed to scan")).when(mockedPopularityCounterTable).getPopularityCounts();
+        assertEquals(0, popularityRepositoryImpl.materializePopularItems(NOW_IN_MILLS + MATERIALIZE_INTERVAL_IN_MILLS));
+        assertEquals(Arrays.asList(1L), popularityRepositoryImpl.getPopularItems(RESTAURANT_ID));
+        assertEquals(1L, popularityRepositoryImpl.getStats().get("materialize_failure_count"));
+    }
+
+    @Test
+    public void testDecayedCountsDeleted() throws Exception {
+        mockPopularityCounts(buildPopularityCounts(NOW_IN_MILLS - 2 * GENERATION_IN_MILLS, null, Collections.<Long>emptyList(), 1L, 1000.0),
+                buildPopularityCounts(NOW_IN_MILLS, null, Collections.<Long>emptyList(), 2L, 1.0));
+
+        popularityRepositoryImpl.materializePopularItems(NOW_IN_MILLS);
+        assertEquals(Arrays.asList(2L), popularityRepositoryImpl.getPopularItems(RESTAURANT_ID));
+        Mockito.verify(mockedPopularityCounterTable).deletePopularityCounts(RESTAURANT_ID, NOW_IN_MILLS - 2 * GENERATION_IN_MILLS);
+        Mockito.verify(mockedPopularityCounterTable, Mockito.never()).deletePopularityCounts(RESTAURANT_ID, NOW_IN_MILLS);
+    }
+
+    @Test
+    public void testEventsOfItemsNotOnMenuDropped() throws Exception {
+        assertEquals(1, popularityRepositoryImpl.recordItemEvents(RESTAURANT_ID, Arrays.asList(buildItemEvent(4L, "order", 1),
+                buildItemEvent(3L, "view", 1)), NOW_IN_MILLS));
+
+        popularityRepositoryImpl.materializePopularItems(NOW_IN_MILLS);
+        Mockito.verify(mockedPopularityCounterTable).addItemCounts(RESTAURANT_ID, NOW_IN_MILLS, Collections.singletonMap(3L, 1.0));
+        assertEquals(1L, popularityRepositoryImpl.getStats().get("dropped_event_count"));
+    }
+
+    @Test
+    public void testCounterDroppedWithMenu() throws Exception {
+        popularityRepositoryImpl.recordItemEvents(RESTAURANT_ID, Arrays.asList(buildItemEvent(1L, "view", 1)), NOW_IN_MILLS);
+        assertEquals(1, popularityRepositoryImpl.getStats().get("size"));
+
+        menuRepositoryImpl.deleteMenu(RESTAURANT_ID);
+        assertEquals(0, popularityRepositoryImpl.getStats().get("size"));
+        popularityRepositoryImpl.materializePopularItems(NOW_IN_MILLS);
+        Mockito.verify(mockedPopularityCounterTable, Mockito.never()).addItemCounts(anyLong(), anyLong(), anyMapOf(Long.class, Double.class));
+    }
+
+    @Test(expected = ItemNotFoundException.class)
+    public void testRecordItemEventsWithoutMenu() throws Exception {
+        popularityRepositoryImpl.recordItemEvents(5678L, Arrays.asList(buildItemEvent(1L, "view", 1)), NOW_IN_MILLS);
+    }
+
+    @Test(expected = ItemNotFoundException.class)
+    public void testGetPopularItemsWithoutMenu() throws Exception {
+        popularityRepositoryImpl.getPopularItems(5678L);
+    }
+
+    @Test
+    public void testInvalidItemEvents() throws Exception {
+        for (Object[] invalidEvent : new Object[][] {{null, "view", 1}, {1L, "like", 1}, {1L, null, 1}, {1L, "view", 2}, {1L, "order", 0}}) {
+            try {
+                buildItemEvent((Long) invalidEvent[0], (String) invalidEvent[1], (Integer) invalidEvent[2]);
+                fail("Expecting ValidationException for " + Arrays.toString(invalidEvent));
+            } catch (ValidationException expected) {}
+        }
+    }
+}
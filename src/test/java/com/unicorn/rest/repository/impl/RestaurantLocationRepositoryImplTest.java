@@ -0,0 +1,176 @@
+package com.unicorn.rest.repository.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.impl.dynamodb.DynamoRestaurantLocationTable;
+import com.unicorn.rest.repository.model.GeoLocation;
+import com.unicorn.rest.repository.model.RestaurantDistance;
+import com.unicorn.rest.repository.model.RestaurantLocation;
+import com.unicorn.rest.server.injector.TestRepositoryTableBinder;
+
+public class RestaurantLocationRepositoryImplTest {
+
+    private static final GeoLocation PIKE_PLACE = buildGeoLocation(47.6097, -122.3422);
+    private static final GeoLocation SPACE_NEEDLE = buildGeoLocation(47.6205, -122.3493);
+    private static final GeoLocation BELLEVUE = buildGeoLocation(47.6101, -122.2015);
+
+    private static TestRepositoryTableBinder testRepositoryTableBinder;
+    private RestaurantLocationRepositoryImpl restaurantLocationRepositoryImpl;
+
+    @BeforeClass
+    public static void setUpRepositoryTable() {
+        testRepositoryTableBinder = new TestRepositoryTableBinder();
+    }
+
+    @Before
+    public void setUpRepository() {
+        restaurantLocationRepositoryImpl = new RestaurantLocationRepositoryImpl(testRepositoryTableBinder.getMockedDynamoRestaurantLocationTable());
+    }
+
+    @After
+    public void clearMockedRepository() {
+        /*
+         * Reset the mocking on this object so that the field can be safely re-used between tests.
+         */
+        Mockito.reset(testRepositoryTableBinder.getMockedDynamoRestaurantLocationTable());
+    }
+
+    private static GeoLocation buildGeoLocation(double latitude, double longitude) {
+        return GeoLocation.buildGeoLocation().latitude(latitude).longitude(longitude).build();
+    }
+
+    private static RestaurantLocation buildRestaurantLocation(Long restaurantId, GeoLocation location, long updatedAt) {
+        return RestaurantLocation.buildRestaurantLocation().restaurantId(restaurantId).location(location).updatedAt(updatedAt).build();
+    }
+
+    private static List<Long> getRestaurantIds(List<RestaurantDistance> restaurantDistances) {
+        List<Long> restaurantIds = new ArrayList<>();
+        for (RestaurantDistance restaurantDistance : restaurantDistances) {
+            restaurantIds.add(restaurantDistance.getRestaurantId());
+        }
+        return restaurantIds;
+    }
+
+    @Test
+    public void testFindRestaurantsWithinRadiusHappyCase() throws Exception {
+        restaurantLocationRepositoryImpl.updateRestaurantLocation(1L, PIKE_PLACE);
+        restaurantLocationRepositoryImpl.updateRestaurantLocation(2L, SPACE_NEEDLE);
+        restaurantLocationRepositoryImpl.updateRestaurantLocation(3L, BELLEVUE);
+
+        List<RestaurantDistance> restaurantDistances = restaurantLocationRepositoryImpl.findRestaurantsWithinRadius(
+                buildGeoLocation(47.6090, -122.3400), 2000, 10);
+        assertEquals(Arrays.asList(1L, 2L), getRestaurantIds(restaurantDistances));
+        assertEquals(PIKE_PLACE.distanceInMeters(buildGeoLocation(47.6090, -122.3400)), restaurantDistances.get(0).getDistanceInMeters(), 1e-6);
+        assertEquals(Arrays.asList(1L), getRestaurantIds(restaurantLocationRepositoryImpl.findRestaurantsWithinRadius(
+                buildGeoLocation(47.6090, -122.3400), 2000, 1)));
+    }
+
+    @Test
+    public void testUpdateRestaurantLocationMovesBetweenCells() throws Exception {
+        DynamoRestaurantLocationTable mockedDynamoRestaurantLocationTable = testRepositoryTableBinder.getMockedDynamoRestaurantLocationTable();
+        restaurantLocationRepositoryImpl.updateRestaurantLocation(1L, PIKE_PLACE);
+        restaurantLocationRepositoryImpl.updateRestaurantLocation(1L, BELLEVUE);
+        /*
+         * The location is put into the new cell before it is deleted from the old cell
+         */
+        Mockito.verify(mockedDynamoRestaurantLocationTable, Mockito.times(2)).putRestaurantLocation(Matchers.any(RestaurantLocation.class));
+        Mockito.verify(mockedDynamoRestaurantLocationTable).deleteRestaurantLocation(Matchers.any(RestaurantLocation.class));
+
+        assertTrue(restaurantLocationRepositoryImpl.findRestaurantsWithinRadius(PIKE_PLACE, 1000, 10).isEmpty());
+        assertEquals(Arrays.asList(1L), getRestaurantIds(restaurantLocationRepositoryImpl.findRestaurantsWithinRadius(BELLEVUE, 1000, 10)));
+
+        restaurantLocationRepositoryImpl.updateRestaurantLocation(1L, null);
+        assertTrue(restaurantLocationRepositoryImpl.findRestaurantsWithinRadius(BELLEVUE, 1000, 10).isEmpty());
+        Mockito.verify(mockedDynamoRestaurantLocationTable, Mockito.times(2)).deleteRestaurantLocation(Matchers.any(RestaurantLocation.class));
+    }
+
+    @Test
+    public void testFindRestaurantsAcrossAntimeridian() throws Exception {
+        restaurantLocationRepositoryImpl.updateRestaurantLocation(1L, buildGeoLocation(-16.5, 179.999));
+        restaurantLocationRepositoryImpl.updateRestaurantLocation(2L, buildGeoLocation(-16.5, -179.999));
+
+        assertEquals(Arrays.asList(1L, 2L), getRestaurantIds(restaurantLocationRepositoryImpl.findRestaurantsWithinRadius(
+                buildGeoLocation(-16.5, 179.9995), 1000, 10)));
+    }
+
+    @Test
+    public void testFindNearestRestaurants() throws Exception {
+        restaurantLocationRepositoryImpl.updateRestaurantLocation(1L, PIKE_PLACE);
+        restaurantLocationRepositoryImpl.updateRestaurantLocation(2L, SPACE_NEEDLE);
+        restaurantLocationRepositoryImpl.updateRestaurantLocation(3L, BELLEVUE);
+
+        assertEquals(Arrays.asList(3L, 1L), getRestaurantIds(restaurantLocationRepositoryImpl.findNearestRestaurants(BELLEVUE, 2)));
+        assertEquals(Arrays.asList(3L, 1L, 2L), getRestaurantIds(restaurantLocationRepositoryImpl.findNearestRestaurants(BELLEVUE, 10)));
+    }
+
+    /*
+     * Every query is checked against measuring all the locations
+     */
+    @Test
+    public void testFindRestaurantsMatchesBruteForce() throws Exception {
+        Random random = new Random(42);
+        List<RestaurantLocation> restaurantLocations = new ArrayList<>();
+        for (long restaurantId = 1; restaurantId <= 2000; restaurantId++) {
+            GeoLocation location = buildGeoLocation(47.5 + random.nextDouble() * 0.3, -122.5 + random.nextDouble() * 0.4);
+            restaurantLocations.add(buildRestaurantLocation(restaurantId, location, 1000L));
+        }
+        Mockito.doReturn(restaurantLocations).when(testRepositoryTableBinder.getMockedDynamoRestaurantLocationTable()).getRestaurantLocations();
+        assertEquals(2000, restaurantLocationRepositoryImpl.reloadRestaurantLocations());
+
+        for (int query = 0; query < 50; query++) {
+            GeoLocation center = buildGeoLocation(47.5 + random.nextDouble() * 0.3, -122.5 + random.nextDouble() * 0.4);
+            double radiusInMeters = 100 + random.nextDouble() * 5000;
+            List<RestaurantDistance> expected = new ArrayList<>();
+            for (RestaurantLocation restaurantLocation : restaurantLocations) {
+                double distanceInMeters = center.distanceInMeters(restaurantLocation.getLocation());
+                if (distanceInMeters <= radiusInMeters) {
+                    expected.add(new RestaurantDistance(restaurantLocation.getRestaurantId(), distanceInMeters));
+                }
+            }
+            Collections.sort(expected, new Comparator<RestaurantDistance>() {
+                @Override
+                public int compare(RestaurantDistance restaurantDistance, RestaurantDistance otherRestaurantDistance) {
+                    return Double.compare(restaurantDistance.getDistanceInMeters(), otherRestaurantDistance.getDistanceInMeters());
+                }
+            });
+            List<RestaurantDistance> found = restaurantLocationRepositoryImpl.findRestaurantsWithinRadius(center, radiusInMeters,
+                    RestaurantLocationRepositoryImpl.MAX_LIMIT);
+            assertEquals(getRestaurantIds(expected.subList(0, Math.min(expected.size(), RestaurantLocationRepositoryImpl.MAX_LIMIT))),
+                    getRestaurantIds(found));
+        }
+    }
+
+    @Test
+    public void testReloadKeepsLatestLocation() throws Exception {
+        DynamoRestaurantLocationTable mockedDynamoRestaurantLocationTable = testRepositoryTableBinder.getMockedDynamoRestaurantLocationTable();
+        RestaurantLocation staleLocation = buildRestaurantLocation(1L, PIKE_PLACE, 1000L);
+        Mockito.doReturn(Arrays.asList(buildRestaurantLocation(1L, BELLEVUE, 2000L), staleLocation))
+                .when(mockedDynamoRestaurantLocationTable).getRestaurantLocations();
+        assertEquals(1, restaurantLocationRepositoryImpl.reloadRestaurantLocations());
+
+        assertEquals(Arrays.asList(1L), getRestaurantIds(restaurantLocationRepositoryImpl.findRestaurantsWithinRadius(BELLEVUE, 1000, 10)));
+        assertTrue(restaurantLocationRepositoryImpl.findRestaurantsWithinRadius(PIKE_PLACE, 1000, 10).isEmpty());
+        Mockito.verify(mockedDynamoRestaurantLocationTable).deleteRestaurantLocation(staleLocation);
+    }
+
+    @Test(expected = ValidationException.class)
+    public void testFindRestaurantsWithinRadiusTooLarge() throws Exception {
+        restaurantLocationRepositoryImpl.findRestaurantsWithinRadius(PIKE_PLACE, RestaurantLocationRepositoryImpl.MAX_RADIUS_IN_METERS + 1, 10);
+    }
+}
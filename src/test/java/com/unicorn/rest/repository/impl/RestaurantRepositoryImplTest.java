@@ -0,0 +1,181 @@
+package com.unicorn.rest.repository.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import com.unicorn.rest.repository.exception.ItemNotFoundException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.impl.dynamodb.DynamoRestaurantTable;
+import com.unicorn.rest.repository.model.Restaurant;
+import com.unicorn.rest.server.injector.TestRepositoryTableBinder;
+
+public class RestaurantRepositoryImplTest {
+
+    private static final Long OWNER_PRINCIPAL = 1234L;
+
+    private static TestRepositoryTableBinder testRepositoryTableBinder;
+    private RestaurantRepositoryImpl restaurantRepositoryImpl;
+
+    @BeforeClass
+    public static void setUpRepositoryTable() {
+        testRepositoryTableBinder = new TestRepositoryTableBinder();
+    }
+
+    @Before
+    public void setUpRepository() {
+        restaurantRepositoryImpl = new RestaurantRepositoryImpl(testRepositoryTableBinder.getMockedDynamoRestaurantTable());
+    }
+
+    @After
+    public void clearMockedRepository() {
+        /*
+         * Reset the mocking on this object so that the field can be safely re-used between tests.
+         */
+        Mockito.reset(testRepositoryTableBinder.getMockedDynamoRestaurantTable());
+    }
+
+    private static Restaurant buildRestaurant(Long restaurantId, String restaurantName) {
+        return Restaurant.buildRestaurant().restaurantId(restaurantId).ownerPrincipal(OWNER_PRINCIPAL).restaurantName(restaurantName).build();
+    }
+
+    @Test
+    public void testRegisterRestaurantHappyCase() throws Exception {
+        DynamoRestaurantTable mockedDynamoRestaurantTable = testRepositoryTableBinder.getMockedDynamoRestaurantTable();
+
+        Restaurant restaurant = restaurantRepositoryImpl.registerRestaurant(OWNER_PRINCIPAL, "  Unicorn Noodles ", " ", null);
+        assertEquals(OWNER_PRINCIPAL, restaurant.getOwnerPrincipal());
+        assertEquals("Unicorn Noodles", restaurant.getRestaurantName());
+        assertEquals(null, restaurant.getRestaurantDescription());
+        Mockito.verify(mockedDynamoRestaurantTable).createRestaurant(restaurant);
+
+        /*
+         * The restaurant registered is served from the cache
+         */
+        assertEquals(restaurant, restaurantRepositoryImpl.getRestaurant(restaurant.getRestaurantId()));
+        Mockito.verify(mockedDynamoRestaurantTable, Mockito.never()).getRestaurant(Matchers.anyLong());
+    }
+
+    @Test(expected = ValidationException.class)
+    public void testRegisterRestaurantWithBlankName() throws Exception {
+        restaurantRepositoryImpl.registerRestaurant(OWNER_PRINCIPAL, " ", null, null);
+    }
+
+    @Test
+    public void testGetRestaurantReadThrough() throws Exception {
+        DynamoRestaurantTable mockedDynamoRestaurantTable = testRepositoryTableBinder.getMockedDynamoRestaurantTable();
+        Restaurant restaurant = buildRestaurant(1L, "Unicorn Noodles");
+        Mockito.doReturn(restaurant).when(mockedDynamoRestaurantTable).getRestaurant(1L);
+
+        assertEquals(restaurant, restaurantRepositoryImpl.getRestaurant(1L));
+        assertEquals(restaurant, restaurantRepositoryImpl.getRestaurant(1L));
+        Mockito.verify(mockedDynamoRestaurantTable, Mockito.times(1)).getRestaurant(1L);
+    }
+
+    @Test
+    public void testGetRestaurantNotExist() throws Exception {
+        DynamoRestaurantTable mockedDynamoRestaurantTable = testRepositoryTableBinder.getMockedDynamoRestaurantTable();
+        Mockito.doThrow(new ItemNotFoundException()).when(mockedDynamoRestaurantTable).getRestaurant(1L);
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                restaurantRepositoryImpl.getRestaurant(1L);
+                fail("Failed while running testGetRestaurantNotExist");
+            } catch (ItemNotFoundException expected) {}
+        }
+        Mockito.verify(mockedDynamoRestaurantTable, Mockito.times(1)).getRestaurant(1L);
+    }
+
+    @Test
+    public void testGetRestaurantNotExistExpiresFirst() throws Exception {
+        restaurantRepositoryImpl = new RestaurantRepositoryImpl(testRepositoryTableBinder.getMockedDynamoRestaurantTable(), 1, 0, TimeUnit.HOURS);
+        DynamoRestaurantTable mockedDynamoRestaurantTable = testRepositoryTableBinder.getMockedDynamoRestaurantTable();
+        Mockito.doThrow(new ItemNotFoundException()).when(mockedDynamoRestaurantTable).getRestaurant(1L);
+        try {
+            restaurantRepositoryImpl.getRestaurant(1L);
+            fail("Failed while running testGetRestaurantNotExistExpiresFirst");
+        } catch (ItemNotFoundException expected) {}
+
+        /*
+         * The restaurant registered through another server is found right after the not found result expires
+         */
+        Restaurant restaurant = buildRestaurant(1L, "Unicorn");
+        Mockito.doReturn(restaurant).when(mockedDynamoRestaurantTable).getRestaurant(1L);
+        assertEquals(restaurant, restaurantRepositoryImpl.getRestaurant(1L));
+        assertEquals(restaurant, restaurantRepositoryImpl.getRestaurant(1L));
+        Mockito.verify(mockedDynamoRestaurantTable, Mockito.times(2)).getRestaurant(1L);
+    }
+
+    @Test
+    public void testGetRestaurantsBatchesCacheMisses() throws Exception {
+        DynamoRestaurantTable mockedDynamoRestaurantTable = testRepositoryTableBinder.getMockedDynamoRestaurantTable();
+        Restaurant first = buildRestaurant(1L, "First");
+        Restaurant second = buildRestaurant(2L, "Second");
+        Restaurant third = buildRestaurant(3L, "Third");
+        Mockito.doReturn(first).when(mockedDynamoRestaurantTable).getRestaurant(1L);
+        restaurantRepositoryImpl.getRestaurant(1L);
+
+        Mockito.doReturn(Arrays.asList(third, second)).when(mockedDynamoRestaurantTable).getRestaurants(Arrays.asList(2L, 3L, 4L));
+        List<Restaurant> restaurants = restaurantRepositoryImpl.getRestaurants(Arrays.asList(2L, 1L, 3L, 4L));
+        assertEquals(Arrays.asList(second, first, third), restaurants);
+
+        /*
+         * All of them including the one does not exist are cached now
+         */
+        assertEquals(Arrays.asList(third, second, first), restaurantRepositoryImpl.getRestaurants(Arrays.asList(4L, 3L, 2L, 1L)));
+        Mockito.verify(mockedDynamoRestaurantTable, Mockito.times(1)).getRestaurants(Matchers.anyCollectionOf(Long.class));
+    }
+
+    @Test
+    public void testUpdateRestaurantRefreshesCache() throws Exception {
+        DynamoRestaurantTable mockedDynamoRestaurantTable = testRepositoryTableBinder.getMockedDynamoRestaurantTable();
+        Restaurant restaurant = buildRestaurant(1L, "Unicorn Noodles");
+        Restaurant updatedRestaurant = buildRestaurant(1L, "Unicorn Dumplings");
+        Mockito.doReturn(restaurant).when(mockedDynamoRestaurantTable).getRestaurant(1L);
+        Mockito.doReturn(updatedRestaurant).when(mockedDynamoRestaurantTable).updateRestaurant(updatedRestaurant);
+
+        assertEquals(restaurant, restaurantRepositoryImpl.getRestaurant(1L));
+        assertEquals(updatedRestaurant, restaurantRepositoryImpl.updateRestaurant(OWNER_PRINCIPAL, 1L, "Unicorn Dumplings", null, null));
+        assertEquals(updatedRestaurant, restaurantRepositoryImpl.getRestaurant(1L));
+        Mockito.verify(mockedDynamoRestaurantTable, Mockito.times(1)).getRestaurant(1L);
+    }
+
+    @Test
+    public void testDeleteRestaurantInvalidatesCache() throws Exception {
+        DynamoRestaurantTable mockedDynamoRestaurantTable = testRepositoryTableBinder.getMockedDynamoRestaurantTable();
+        Restaurant restaurant = buildRestaurant(1L, "Unicorn Noodles");
+        Mockito.doReturn(restaurant).when(mockedDynamoRestaurantTable).getRestaurant(1L);
+
+        restaurantRepositoryImpl.getRestaurant(1L);
+        restaurantRepositoryImpl.deleteRestaurant(OWNER_PRINCIPAL, 1L);
+        Mockito.verify(mockedDynamoRestaurantTable).deleteRestaurant(1L, OWNER_PRINCIPAL);
+
+        Mockito.doThrow(new ItemNotFoundException()).when(mockedDynamoRestaurantTable).getRestaurant(1L);
+        try {
+            restaurantRepositoryImpl.getRestaurant(1L);
+            fail("Failed while running testDeleteRestaurantInvalidatesCache");
+        } catch (ItemNotFoundException expected) {}
+    }
+
+    @Test
+    public void testGetRestaurantsForOwnerFillsCache() throws Exception {
+        DynamoRestaurantTable mockedDynamoRestaurantTable = testRepositoryTableBinder.getMockedDynamoRestaurantTable();
+        Restaurant restaurant = buildRestaurant(1L, "Unicorn Noodles");
+        Mockito.doReturn(Collections.singletonList(restaurant)).when(mockedDynamoRestaurantTable).getRestaurantsForOwner(OWNER_PRINCIPAL);
+
+        assertEquals(Collections.singletonList(restaurant), restaurantRepositoryImpl.getRestaurantsForOwner(OWNER_PRINCIPAL));
+        assertEquals(restaurant, restaurantRepositoryImpl.getRestaurant(1L));
+        Mockito.verify(mockedDynamoRestaurantTable, Mockito.never()).getRestaurant(1L);
+    }
+}
@@ -0,0 +1,146 @@
+package com.unicorn.rest.repository.impl.dynamodb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.unicorn.rest.repository.exception.DuplicateKeyException;
+import com.unicorn.rest.repository.exception.ItemNotFoundException;
+import com.unicorn.rest.repository.exception.RepositoryClientException;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.server.filter.model.AccessControlPolicy;
+import com.unicorn.rest.server.filter.model.Permission;
+import com.unicorn.rest.utils.SimpleFlakeKeyGenerator;
+
+public class DynamoAccessControlPolicyTableIntegrationTest {
+
+    private static DynamoAccessControlPolicyTable accessControlPolicyTable;
+
+    @BeforeClass
+    public static void setUpAccessControlPolicyTable() throws RepositoryClientException, RepositoryServerException {
+        accessControlPolicyTable = new DynamoAccessControlPolicyTable();
+        // In case table already exists, exception will be thrown and test will be terminated at this point
+//        accessControlPolicyTable.createTable();
+    }
+
+    @Test
+    public void testCreateAccessControlPolicyHappyCase() 
+            throws ValidationException, DuplicateKeyException, ItemNotFoundException, RepositoryServerException {
+        Long ownerPrincipal = SimpleFlakeKeyGenerator.generateKey();
+        Permission permission = new Permission("get_menu", "restaurant:" + ownerPrincipal + ":menu", ownerPrincipal);
+        List<String> allowingConditions = Arrays.asList("principal_type == USER", "principal == " + ownerPrincipal);
+        try {
+            accessControlPolicyTable.createAccessControlPolicy(new AccessControlPolicy(permission, allowingConditions));
+            assertEquals(new HashSet<>(allowingConditions), 
+                    new HashSet<>(accessControlPolicyTable.getAccessControlPolicy(permission.getAction(), permission.getResourceIdentifier())));
+        } finally {
+            try {
+                accessControlPolicyTable.revokeAccessControlPolicy(permission);
+            } catch (ItemNotFoundException | RepositoryServerException ignore) {}
+        }
+    }
+
+    @Test
+    public void testCreateAccessControlPolicyWithExistedPermission() 
+            throws ValidationException, DuplicateKeyException, ItemNotFoundException, RepositoryServerException {
+        Long ownerPrincipal = SimpleFlakeKeyGenerator.generateKey();
+        Permission permission = new Permission("get_menu", "restaurant:" + ownerPrincipal + ":menu", ownerPrincipal);
+        try {
+            accessControlPolicyTable.createAccessControlPolicy(new AccessControlPolicy(permission, Arrays.asList("true")));
+            try {
+                accessControlPolicyTable.createAccessControlPolicy(new AccessControlPolicy(permission, Arrays.asList("false")));
+            } catch (DuplicateKeyException error) {
+                return;
+            }
+            fail("Failed while running testCreateAccessControlPolicyWithExistedPermission");
+        } finally {
+            try {
+                accessControlPolicyTable.revokeAccessControlPolicy(permission);
+            } catch (ItemNotFoundException | RepositoryServerException ignore) {}
+        }
+    }
+
+    @Test
+    public void testUpdateAccessControlPolicyHappyCase() 
+            throws ValidationException, DuplicateKeyException, ItemNotFoundException, RepositoryServerException {
+        Long ownerPrincipal = SimpleFlakeKeyGenerator.generateKey();
+        Permission permission = new Permission("update_menu", "restaurant:" + ownerPrincipal + ":menu", ownerPrincipal);
+        try {
+            accessControlPolicyTable.createAccessControlPolicy(new AccessControlPolicy(permission, Arrays.asList("false")));
+            List<String> updatedConditions = accessControlPolicyTable.updateAccessControlPolicy(
+                    new AccessControlPolicy(permission, Arrays.asList("principal == " + ownerPrincipal)));
+            assertEquals(Arrays.asList("principal == " + ownerPrincipal), updatedConditions);
+        } finally {
+            try {
+                accessControlPolicyTable.revokeAccessControlPolicy(permission);
+            } catch (ItemNotFoundException | RepositoryServerException ignore) {}
+        }
+    }
+
+    @Test
+    public void testUpdateAccessControlPolicyByOtherPrincipal() 
+            throws ValidationException, DuplicateKeyException, ItemNotFoundException, RepositoryServerException {
+        Long ownerPrincipal = SimpleFlakeKeyGenerator.generateKey();
+        Permission permission = new Permission("update_menu", "restaurant:" + ownerPrincipal + ":menu", ownerPrincipal);
+        try {
+            accessControlPolicyTable.createAccessControlPolicy(new AccessControlPolicy(permission, Arrays.asList("false")));
+            try {
+                accessControlPolicyTable.updateAccessControlPolicy(new AccessControlPolicy(
+                        new Permission(permission.getAction(), permission.getResourceIdentifier(), ownerPrincipal + 1), Arrays.asList("true")));
+            } catch (ItemNotFoundException error) {
+                return;
+            }
+            fail("Failed while running testUpdateAccessControlPolicyByOtherPrincipal");
+        } finally {
+            try {
+                accessControlPolicyTable.revokeAccessControlPolicy(permission);
+            } catch (ItemNotFoundException | RepositoryServerException ignore) {}
+        }
+    }
+
+    @Test
+    public void testGetAccessControlPoliciesHappyCase() 
+            throws ValidationException, DuplicateKeyException, ItemNotFoundException, RepositoryServerException {
+        Long ownerPrincipal = SimpleFlakeKeyGenerator.generateKey();
+        Permission permission = new Permission("get_menu", "restaurant:" + ownerPrincipal + ":menu", ownerPrincipal);
+        AccessControlPolicy accessControlPolicy = new AccessControlPolicy(permission, Arrays.asList("principal == " + ownerPrincipal));
+        try {
+            accessControlPolicyTable.createAccessControlPolicy(accessControlPolicy);
+            assertTrue(accessControlPolicyTable.getAccessControlPolicies().contains(accessControlPolicy));
+        } finally {
+            try {
+                accessControlPolicyTable.revokeAccessControlPolicy(permission);
+            } catch (ItemNotFoundException | RepositoryServerException ignore) {}
+        }
+    }
+
+    @Test
+    public void testGetAccessControlPolicyNotExist() 
+            throws ValidationException, RepositoryServerException {
+        try {
+            accessControlPolicyTable.getAccessControlPolicy("get_menu", "restaurant:" + SimpleFlakeKeyGenerator.generateKey() + ":menu");
+        } catch (DuplicateKeyException error) {
+            return;
+        }
+        fail("Failed while running testGetAccessControlPolicyNotExist");
+    }
+
+    @Test
+    public void testGetAccessControlPolicyWithInvalidRequest() 
+            throws DuplicateKeyException, RepositoryServerException {
+        try {
+            accessControlPolicyTable.getAccessControlPolicy("get#menu", "restaurant:1234:menu");
+        } catch (ValidationException error) {
+            return;
+        }
+        fail("Failed while running testGetAccessControlPolicyWithInvalidRequest");
+    }
+}
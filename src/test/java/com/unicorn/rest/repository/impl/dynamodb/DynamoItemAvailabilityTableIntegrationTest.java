@@ -0,0 +1,69 @@
+package com.unicorn.rest.repository.impl.dynamodb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.unicorn.rest.repository.exception.RepositoryClientException;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.StaleDataException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.ItemAvailability;
+import com.unicorn.rest.utils.SimpleFlakeKeyGenerator;
+import com.unicorn.rest.utils.TimeUtils;
+
+public class DynamoItemAvailabilityTableIntegrationTest {
+
+    private static DynamoItemAvailabilityTable itemAvailabilityTable;
+
+    @BeforeClass
+    public static void setUpItemAvailabilityTable() throws RepositoryClientException, RepositoryServerException {
+        itemAvailabilityTable = new DynamoItemAvailabilityTable();
+        // In case table already exists, exception will be thrown and test will be terminated at this point
+//        itemAvailabilityTable.createTable();
+    }
+
+    @Test
+    public void testPutItemAvailabilityHappyCase() 
+            throws ValidationException, RepositoryServerException {
+        Long restaurantId = SimpleFlakeKeyGenerator.generateKey();
+        Long updatedInEpoch = TimeUtils.getEpochTimeNowInUTC();
+        ItemAvailability itemAvailability = itemAvailabilityTable.putItemAvailability(restaurantId, 1L, true, null, updatedInEpoch);
+        assertEquals(new ItemAvailability(restaurantId, 1L, true, null, updatedInEpoch, 1L), itemAvailability);
+        assertTrue(itemAvailabilityTable.getItemAvailabilitiesUpdated(updatedInEpoch, updatedInEpoch + 1).contains(itemAvailability));
+        assertFalse(itemAvailabilityTable.getItemAvailabilitiesUpdated(updatedInEpoch + 1, updatedInEpoch + 2).contains(itemAvailability));
+    }
+
+    @Test
+    public void testAddStockHappyCase() 
+            throws ValidationException, StaleDataException, RepositoryServerException {
+        Long restaurantId = SimpleFlakeKeyGenerator.generateKey();
+        Long updatedInEpoch = TimeUtils.getEpochTimeNowInUTC();
+        itemAvailabilityTable.putItemAvailability(restaurantId, 1L, false, 2L, updatedInEpoch);
+        assertEquals(Long.valueOf(1L), itemAvailabilityTable.addStock(restaurantId, 1L, -1L, updatedInEpoch + 1).getStock());
+        ItemAvailability itemAvailability = itemAvailabilityTable.addStock(restaurantId, 1L, -1L, updatedInEpoch + 2);
+        assertEquals(new ItemAvailability(restaurantId, 1L, false, 0L, updatedInEpoch + 2, 3L), itemAvailability);
+        assertFalse(itemAvailability.isAvailable());
+    }
+
+    @Test(expected = StaleDataException.class)
+    public void testAddStockWithInsufficientStock() 
+            throws ValidationException, StaleDataException, RepositoryServerException {
+        Long restaurantId = SimpleFlakeKeyGenerator.generateKey();
+        Long updatedInEpoch = TimeUtils.getEpochTimeNowInUTC();
+        itemAvailabilityTable.putItemAvailability(restaurantId, 1L, false, 1L, updatedInEpoch);
+        itemAvailabilityTable.addStock(restaurantId, 1L, -2L, updatedInEpoch + 1);
+    }
+
+    @Test(expected = StaleDataException.class)
+    public void testAddStockWithUntrackedStock() 
+            throws ValidationException, StaleDataException, RepositoryServerException {
+        Long restaurantId = SimpleFlakeKeyGenerator.generateKey();
+        Long updatedInEpoch = TimeUtils.getEpochTimeNowInUTC();
+        itemAvailabilityTable.putItemAvailability(restaurantId, 1L, false, null, updatedInEpoch);
+        itemAvailabilityTable.addStock(restaurantId, 1L, 1L, updatedInEpoch + 1);
+    }
+}
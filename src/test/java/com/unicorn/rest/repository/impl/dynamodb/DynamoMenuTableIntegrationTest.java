@@ -0,0 +1,145 @@
+package com.unicorn.rest.repository.impl.dynamodb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.unicorn.rest.repository.exception.ItemNotFoundException;
+import com.unicorn.rest.repository.exception.RepositoryClientException;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.StaleDataException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.AvailabilityWindow;
+import com.unicorn.rest.repository.model.Menu;
+import com.unicorn.rest.repository.model.MenuImage;
+import com.unicorn.rest.repository.model.MenuItem;
+import com.unicorn.rest.utils.SimpleFlakeKeyGenerator;
+
+public class DynamoMenuTableIntegrationTest {
+
+    private static DynamoMenuTable menuTable;
+
+    @BeforeClass
+    public static void setUpMenuTable() throws RepositoryClientException, RepositoryServerException {
+        menuTable = new DynamoMenuTable();
+        // In case table already exists, exception will be thrown and test will be terminated at this point
+//        menuTable.createTable();
+    }
+
+    private static Menu buildMenu(Long restaurantId, Long version) {
+        MenuItem spicyNoodles = MenuItem.buildMenuItem().itemId(SimpleFlakeKeyGenerator.generateKey()).itemName("Spicy Noodles")
+                .itemDescription("Hand pulled noodles with chili oil").price(1250L).tags(Arrays.asList("spicy", "noodles"))
+                .images(Arrays.asList(MenuImage.buildMenuImage().contentHash("9f86d081884c7d659a2feaa0c55ad015").contentType("image/jpeg")
+                        .width(1600).height(1200).build())).build();
+        AvailabilityWindow lunch = AvailabilityWindow.buildAvailabilityWindow().daysOfWeek(Arrays.asList(1, 2, 3, 4, 5))
+                .startMinute(11 * 60).endMinute(14 * 60).build();
+        MenuItem dumplings = MenuItem.buildMenuItem().itemId(SimpleFlakeKeyGenerator.generateKey()).itemName("Dumplings").price(800L)
+                .availability(Arrays.asList(lunch)).build();
+        AvailabilityWindow allDay = AvailabilityWindow.buildAvailabilityWindow().daysOfWeek(Arrays.asList(1, 2, 3, 4, 5, 6, 7))
+                .startMinute(6 * 60).endMinute(2 * 60).build();
+        return Menu.buildMenu().restaurantId(restaurantId).version(version).items(Arrays.asList(spicyNoodles, dumplings))
+                .timeZone("America/Los_Angeles").availability(Arrays.asList(allDay)).build();
+    }
+
+    @Test
+    public void testPutMenuHappyCase()
+            throws ValidationException, StaleDataException, ItemNotFoundException, RepositoryServerException {
+        Long restaurantId = SimpleFlakeKeyGenerator.generateKey();
+        try {
+            Menu firstVersion = buildMenu(restaurantId, 1L);
+            menuTable.putMenu(firstVersion);
+            assertEquals(firstVersion, menuTable.getMenu(restaurantId));
+
+            Menu secondVersion = Menu.buildMenu().restaurantId(restaurantId).version(2L).items(Collections.<MenuItem>emptyList()).build();
+            menuTable.putMenu(secondVersion);
+            assertEquals(secondVersion, menuTable.getMenu(restaurantId));
+        } finally {
+            try {
+                menuTable.deleteMenu(restaurantId);
+            } catch (ItemNotFoundException | RepositoryServerException ignore) {}
+        }
+    }
+
+    @Test(expected = StaleDataException.class)
+    public void testPutMenuWithExistedVersion()
+            throws ValidationException, StaleDataException, ItemNotFoundException, RepositoryServerException {
+        Long restaurantId = SimpleFlakeKeyGenerator.generateKey();
+        try {
+            menuTable.putMenu(buildMenu(restaurantId, 1L));
+            menuTable.putMenu(buildMenu(restaurantId, 1L));
+        } finally {
+            try {
+                menuTable.deleteMenu(restaurantId);
+            } catch (ItemNotFoundException | RepositoryServerException ignore) {}
+        }
+    }
+
+    @Test(expected = StaleDataException.class)
+    public void testPutMenuSkippingVersion()
+            throws ValidationException, StaleDataException, ItemNotFoundException, RepositoryServerException {
+        Long restaurantId = SimpleFlakeKeyGenerator.generateKey();
+        try {
+            menuTable.putMenu(buildMenu(restaurantId, 1L));
+            menuTable.putMenu(buildMenu(restaurantId, 3L));
+        } finally {
+            try {
+                menuTable.deleteMenu(restaurantId);
+            } catch (ItemNotFoundException | RepositoryServerException ignore) {}
+        }
+    }
+
+    @Test
+    public void testGetMenusHappyCase()
+            throws ValidationException, StaleDataException, ItemNotFoundException, RepositoryServerException {
+        Long restaurantId = SimpleFlakeKeyGenerator.generateKey();
+        try {
+            Menu menu = buildMenu(restaurantId, 1L);
+            menuTable.putMenu(menu);
+            assertEquals(true, menuTable.getMenus().contains(menu));
+        } finally {
+            try {
+                menuTable.deleteMenu(restaurantId);
+            } catch (ItemNotFoundException | RepositoryServerException ignore) {}
+        }
+    }
+
+    @Test
+    public void testPutMenuOverDeletedMenu()
+            throws ValidationException, StaleDataException, ItemNotFoundException, RepositoryServerException {
+        Long restaurantId = SimpleFlakeKeyGenerator.generateKey();
+        try {
+            menuTable.putMenu(buildMenu(restaurantId, 1L));
+            menuTable.deleteMenu(restaurantId);
+            assertEquals(2L, menuTable.getMenuVersion(restaurantId));
+            try {
+                menuTable.getMenu(restaurantId);
+                fail("Expecting ItemNotFoundException");
+            } catch (ItemNotFoundException expected) {}
+
+            Menu menu = buildMenu(restaurantId, 3L);
+            menuTable.putMenu(menu);
+            assertEquals(menu, menuTable.getMenu(restaurantId));
+        } finally {
+            try {
+                menuTable.deleteMenu(restaurantId);
+            } catch (ItemNotFoundException | RepositoryServerException ignore) {}
+        }
+    }
+
+    @Test(expected = ItemNotFoundException.class)
+    public void testGetMenuNotExisted()
+            throws ValidationException, ItemNotFoundException, RepositoryServerException {
+        menuTable.getMenu(SimpleFlakeKeyGenerator.generateKey());
+    }
+
+    @Test(expected = ItemNotFoundException.class)
+    public void testDeleteMenuNotExisted()
+            throws ValidationException, ItemNotFoundException, RepositoryServerException {
+        menuTable.deleteMenu(SimpleFlakeKeyGenerator.generateKey());
+    }
+}
@@ -0,0 +1,61 @@
+package com.unicorn.rest.repository.impl.dynamodb;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.unicorn.rest.repository.exception.RepositoryClientException;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.GeoLocation;
+import com.unicorn.rest.repository.model.RestaurantLocation;
+import com.unicorn.rest.utils.SimpleFlakeKeyGenerator;
+
+public class DynamoRestaurantLocationTableIntegrationTest {
+
+    private static DynamoRestaurantLocationTable restaurantLocationTable;
+
+    @BeforeClass
+    public static void setUpRestaurantLocationTable() throws RepositoryClientException, RepositoryServerException {
+        restaurantLocationTable = new DynamoRestaurantLocationTable();
+        // In case table already exists, exception will be thrown and test will be terminated at this point
+//        restaurantLocationTable.createTable();
+    }
+
+    private static RestaurantLocation buildRestaurantLocation(Long restaurantId, long updatedAt) {
+        return RestaurantLocation.buildRestaurantLocation().restaurantId(restaurantId)
+                .location(GeoLocation.buildGeoLocation().latitude(47.6062).longitude(-122.3321).build()).updatedAt(updatedAt).build();
+    }
+
+    @Test
+    public void testPutRestaurantLocationHappyCase() 
+            throws ValidationException, RepositoryServerException {
+        RestaurantLocation restaurantLocation = buildRestaurantLocation(SimpleFlakeKeyGenerator.generateKey(), 1000L);
+        try {
+            restaurantLocationTable.putRestaurantLocation(restaurantLocation);
+            assertTrue(restaurantLocationTable.getRestaurantLocations().contains(restaurantLocation));
+        } finally {
+            restaurantLocationTable.deleteRestaurantLocation(restaurantLocation);
+        }
+        assertFalse(restaurantLocationTable.getRestaurantLocations().contains(restaurantLocation));
+    }
+
+    @Test
+    public void testDeleteRestaurantLocationUpdatedSince() 
+            throws ValidationException, RepositoryServerException {
+        Long restaurantId = SimpleFlakeKeyGenerator.generateKey();
+        RestaurantLocation updatedLocation = buildRestaurantLocation(restaurantId, 2000L);
+        try {
+            restaurantLocationTable.putRestaurantLocation(updatedLocation);
+            restaurantLocationTable.deleteRestaurantLocation(buildRestaurantLocation(restaurantId, 1000L));
+            List<RestaurantLocation> restaurantLocations = restaurantLocationTable.getRestaurantLocations();
+            assertTrue(restaurantLocations.contains(updatedLocation));
+        } finally {
+            restaurantLocationTable.deleteRestaurantLocation(updatedLocation);
+        }
+    }
+}
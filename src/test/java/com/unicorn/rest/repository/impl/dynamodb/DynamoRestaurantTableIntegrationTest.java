@@ -0,0 +1,156 @@
+package com.unicorn.rest.repository.impl.dynamodb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.unicorn.rest.repository.exception.DuplicateKeyException;
+import com.unicorn.rest.repository.exception.ItemNotFoundException;
+import com.unicorn.rest.repository.exception.RepositoryClientException;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.repository.model.Restaurant;
+import com.unicorn.rest.utils.SimpleFlakeKeyGenerator;
+
+public class DynamoRestaurantTableIntegrationTest {
+
+    private static DynamoRestaurantTable restaurantTable;
+
+    @BeforeClass
+    public static void setUpRestaurantTable() throws RepositoryClientException, RepositoryServerException {
+        restaurantTable = new DynamoRestaurantTable();
+        // In case table already exists, exception will be thrown and test will be terminated at this point
+//        restaurantTable.createTable();
+    }
+
+    private static Restaurant buildRestaurant(Long ownerPrincipal, String restaurantDescription) {
+        return Restaurant.buildRestaurant().restaurantId(SimpleFlakeKeyGenerator.generateKey()).ownerPrincipal(ownerPrincipal)
+                .restaurantName("Unicorn Noodles").restaurantDescription(restaurantDescription).build();
+    }
+
+    @Test
+    public void testCreateRestaurantHappyCase() 
+            throws ValidationException, DuplicateKeyException, ItemNotFoundException, RepositoryServerException {
+        Long ownerPrincipal = SimpleFlakeKeyGenerator.generateKey();
+        Restaurant restaurant = buildRestaurant(ownerPrincipal, "Hand pulled noodles");
+        try {
+            restaurantTable.createRestaurant(restaurant);
+            assertEquals(restaurant, restaurantTable.getRestaurant(restaurant.getRestaurantId()));
+        } finally {
+            try {
+                restaurantTable.deleteRestaurant(restaurant.getRestaurantId(), ownerPrincipal);
+            } catch (ItemNotFoundException | RepositoryServerException ignore) {}
+        }
+    }
+
+    @Test(expected = DuplicateKeyException.class)
+    public void testCreateRestaurantWithExistedRestaurantId() 
+            throws ValidationException, DuplicateKeyException, ItemNotFoundException, RepositoryServerException {
+        Long ownerPrincipal = SimpleFlakeKeyGenerator.generateKey();
+        Restaurant restaurant = buildRestaurant(ownerPrincipal, null);
+        try {
+            restaurantTable.createRestaurant(restaurant);
+            restaurantTable.createRestaurant(restaurant);
+        } finally {
+            try {
+                restaurantTable.deleteRestaurant(restaurant.getRestaurantId(), ownerPrincipal);
+            } catch (ItemNotFoundException | RepositoryServerException ignore) {}
+        }
+    }
+
+    @Test
+    public void testGetRestaurantsHappyCase() 
+            throws ValidationException, DuplicateKeyException, ItemNotFoundException, RepositoryServerException {
+        Long ownerPrincipal = SimpleFlakeKeyGenerator.generateKey();
+        Restaurant first = buildRestaurant(ownerPrincipal, null);
+        Restaurant second = buildRestaurant(ownerPrincipal, "Second");
+        try {
+            restaurantTable.createRestaurant(first);
+            restaurantTable.createRestaurant(second);
+            List<Restaurant> restaurants = restaurantTable.getRestaurants(Arrays.asList(first.getRestaurantId(), 
+                    SimpleFlakeKeyGenerator.generateKey(), second.getRestaurantId(), first.getRestaurantId()));
+            assertEquals(new HashSet<>(Arrays.asList(first, second)), new HashSet<>(restaurants));
+            assertEquals(2, restaurants.size());
+        } finally {
+            try {
+                restaurantTable.deleteRestaurant(first.getRestaurantId(), ownerPrincipal);
+                restaurantTable.deleteRestaurant(second.getRestaurantId(), ownerPrincipal);
+            } catch (ItemNotFoundException | RepositoryServerException ignore) {}
+        }
+    }
+
+    @Test
+    public void testGetRestaurantsForOwnerHappyCase() 
+            throws ValidationException, DuplicateKeyException, ItemNotFoundException, RepositoryServerException, InterruptedException {
+        Long ownerPrincipal = SimpleFlakeKeyGenerator.generateKey();
+        Restaurant restaurant = buildRestaurant(ownerPrincipal, null);
+        try {
+            restaurantTable.createRestaurant(restaurant);
+            /*
+             * The owner index is eventually consistent
+             */
+            Thread.sleep(1000);
+            assertEquals(Arrays.asList(restaurant), restaurantTable.getRestaurantsForOwner(ownerPrincipal));
+            assertTrue(restaurantTable.getRestaurantsForOwner(SimpleFlakeKeyGenerator.generateKey()).isEmpty());
+        } finally {
+            try {
+                restaurantTable.deleteRestaurant(restaurant.getRestaurantId(), ownerPrincipal);
+            } catch (ItemNotFoundException | RepositoryServerException ignore) {}
+        }
+    }
+
+    @Test
+    public void testUpdateRestaurantHappyCase() 
+            throws ValidationException, DuplicateKeyException, ItemNotFoundException, RepositoryServerException {
+        Long ownerPrincipal = SimpleFlakeKeyGenerator.generateKey();
+        Restaurant restaurant = buildRestaurant(ownerPrincipal, "Hand pulled noodles");
+        try {
+            restaurantTable.createRestaurant(restaurant);
+            Restaurant updatedRestaurant = Restaurant.buildRestaurant().restaurantId(restaurant.getRestaurantId()).ownerPrincipal(ownerPrincipal)
+                    .restaurantName("Unicorn Dumplings").build();
+            assertEquals(updatedRestaurant, restaurantTable.updateRestaurant(updatedRestaurant));
+            assertEquals(updatedRestaurant, restaurantTable.getRestaurant(restaurant.getRestaurantId()));
+        } finally {
+            try {
+                restaurantTable.deleteRestaurant(restaurant.getRestaurantId(), ownerPrincipal);
+            } catch (ItemNotFoundException | RepositoryServerException ignore) {}
+        }
+    }
+
+    @Test(expected = ItemNotFoundException.class)
+    public void testUpdateRestaurantNotOwned() 
+            throws ValidationException, DuplicateKeyException, ItemNotFoundException, RepositoryServerException {
+        Long ownerPrincipal = SimpleFlakeKeyGenerator.generateKey();
+        Restaurant restaurant = buildRestaurant(ownerPrincipal, null);
+        try {
+            restaurantTable.createRestaurant(restaurant);
+            restaurantTable.updateRestaurant(Restaurant.buildRestaurant().restaurantId(restaurant.getRestaurantId())
+                    .ownerPrincipal(SimpleFlakeKeyGenerator.generateKey()).restaurantName("Stolen").build());
+        } finally {
+            try {
+                restaurantTable.deleteRestaurant(restaurant.getRestaurantId(), ownerPrincipal);
+            } catch (ItemNotFoundException | RepositoryServerException ignore) {}
+        }
+    }
+
+    @Test(expected = ItemNotFoundException.class)
+    public void testDeleteRestaurantNotOwned() 
+            throws ValidationException, DuplicateKeyException, ItemNotFoundException, RepositoryServerException {
+        Long ownerPrincipal = SimpleFlakeKeyGenerator.generateKey();
+        Restaurant restaurant = buildRestaurant(ownerPrincipal, null);
+        try {
+            restaurantTable.createRestaurant(restaurant);
+            restaurantTable.deleteRestaurant(restaurant.getRestaurantId(), SimpleFlakeKeyGenerator.generateKey());
+        } finally {
+            try {
+                restaurantTable.deleteRestaurant(restaurant.getRestaurantId(), ownerPrincipal);
+            } catch (ItemNotFoundException | RepositoryServerException ignore) {}
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.unicorn.rest.repository.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class MenuChangeLogTest {
+
+    private static final Long RESTAURANT_ID = 1234L;
+
+    private static MenuItem buildMenuItem(Long itemId, Long price) {
+        return MenuItem.buildMenuItem().itemId(itemId).itemName("Item " + itemId).price(price).build();
+    }
+
+    private static Menu buildMenu(Long version, List<MenuItem> items) {
+        return Menu.buildMenu().restaurantId(RESTAURANT_ID).version(version).items(items).build();
+    }
+
+    @Test
+    public void testGetDeltaAcrossVersions() {
+        MenuItem noodles = buildMenuItem(1L, 1000L);
+        MenuItem dumplings = buildMenuItem(2L, 800L);
+        MenuItem friedRice = buildMenuItem(3L, 900L);
+        Menu firstMenu = buildMenu(1L, Arrays.asList(noodles, dumplings, friedRice));
+        MenuChangeLog firstChangeLog = MenuChangeLog.startAt(firstMenu);
+
+        MenuItem cheaperNoodles = buildMenuItem(1L, 950L);
+        Menu secondMenu = buildMenu(2L, Arrays.asList(cheaperNoodles, dumplings));
+        MenuChangeLog secondChangeLog = MenuChangeLog.next(firstMenu, firstChangeLog, secondMenu);
+
+        MenuItem soup = buildMenuItem(4L, 500L);
+        Menu thirdMenu = buildMenu(3L, Arrays.asList(cheaperNoodles, dumplings, soup));
+        MenuChangeLog thirdChangeLog = MenuChangeLog.next(secondMenu, secondChangeLog, thirdMenu);
+
+        MenuDelta deltaSinceFirst = thirdChangeLog.getDelta(thirdMenu, 1L);
+        assertEquals(Arrays.asList(cheaperNoodles, soup), deltaSinceFirst.getItems());
+        assertEquals(Arrays.asList(3L), deltaSinceFirst.getRemovedItemIds());
+        assertEquals(3L, deltaSinceFirst.getVersion());
+
+        MenuDelta deltaSinceSecond = thirdChangeLog.getDelta(thirdMenu, 2L);
+        assertEquals(Arrays.asList(soup), deltaSinceSecond.getItems());
+        assertEquals(Collections.<Long>emptyList(), deltaSinceSecond.getRemovedItemIds());
+
+        assertEquals(0, thirdChangeLog.getDelta(thirdMenu, 3L).getNumOfChanges());
+        assertNull(thirdChangeLog.getDelta(thirdMenu, 0L));
+        assertNull(thirdChangeLog.getDelta(thirdMenu, 4L));
+    }
+
+    @Test
+    public void testRemovedItemAddedBack() {
+        MenuItem noodles = buildMenuItem(1L, 1000L);
+        MenuItem dumplings = buildMenuItem(2L, 800L);
+        Menu firstMenu = buildMenu(1L, Arrays.asList(noodles, dumplings));
+        Menu secondMenu = buildMenu(2L, Arrays.asList(noodles));
+        Menu thirdMenu = buildMenu(3L, Arrays.asList(noodles, dumplings));
+        MenuChangeLog secondChangeLog = MenuChangeLog.next(firstMenu, MenuChangeLog.startAt(firstMenu), secondMenu);
+        MenuChangeLog thirdChangeLog = MenuChangeLog.next(secondMenu, secondChangeLog, thirdMenu);
+
+        MenuDelta menuDelta = thirdChangeLog.getDelta(thirdMenu, 1L);
+        assertEquals(Arrays.asList(dumplings), menuDelta.getItems());
+        assertEquals(Collections.<Long>emptyList(), menuDelta.getRemovedItemIds());
+    }
+
+    @Test
+    public void testSkippedVersionStartsOver() {
+        Menu firstMenu = buildMenu(1L, Arrays.asList(buildMenuItem(1L, 1000L)));
+        Menu thirdMenu = buildMenu(3L, Arrays.asList(buildMenuItem(1L, 1000L)));
+        MenuChangeLog changeLog = MenuChangeLog.next(firstMenu, MenuChangeLog.startAt(firstMenu), thirdMenu);
+        assertEquals(3L, changeLog.getOldestVersion());
+        assertNull(changeLog.getDelta(thirdMenu, 1L));
+    }
+
+    @Test
+    public void testCompactRemovedItems() {
+        List<MenuItem> items = new ArrayList<>();
+        for (long itemId = 1; itemId <= MenuChangeLog.MAX_REMOVED_ITEMS + 1; itemId++) {
+            items.add(buildMenuItem(itemId, 100L));
+        }
+        Menu firstMenu = buildMenu(1L, items);
+        Menu secondMenu = buildMenu(2L, items.subList(0, 1));
+        MenuChangeLog secondChangeLog = MenuChangeLog.next(firstMenu, MenuChangeLog.startAt(firstMenu), secondMenu);
+        assertEquals(1L, secondChangeLog.getOldestVersion());
+
+        Menu thirdMenu = buildMenu(3L, Collections.<MenuItem>emptyList());
+        MenuChangeLog thirdChangeLog = MenuChangeLog.next(secondMenu, secondChangeLog, thirdMenu);
+        /*
+         * The items removed in the second version are compacted away, so only the second version onwards can get the delta
+         */
+        assertEquals(2L, thirdChangeLog.getOldestVersion());
+        assertNull(thirdChangeLog.getDelta(thirdMenu, 1L));
+        assertEquals(Arrays.asList(1L), thirdChangeLog.getDelta(thirdMenu, 2L).getRemovedItemIds());
+    }
+}
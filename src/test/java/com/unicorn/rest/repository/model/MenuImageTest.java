@@ -0,0 +1,67 @@
+package com.unicorn.rest.repository.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.unicorn.rest.repository.exception.ValidationException;
+
+public class MenuImageTest {
+
+    private static final String CONTENT_HASH = "9f86d081884c7d659a2feaa0c55ad015";
+
+    private static MenuImage.ImageVariant buildVariant(int width, int height, String fileExtension) {
+        return new MenuImage.ImageVariant(width, height, "/images/" + CONTENT_HASH + "/" + width + "w." + fileExtension);
+    }
+
+    @Test
+    public void testVariantsScaledDownToOriginal() throws Exception {
+        MenuImage menuImage = MenuImage.validateMenuImage(" " + CONTENT_HASH.toUpperCase() + " ", "IMAGE/JPEG", 1000, 750);
+        assertEquals(CONTENT_HASH, menuImage.getContentHash());
+        assertEquals("image/jpeg", menuImage.getContentType());
+        assertEquals("/images/" + CONTENT_HASH + "/{width}w.jpg", menuImage.getUrlTemplate());
+        assertEquals(Arrays.asList(buildVariant(160, 120, "jpg"), buildVariant(320, 240, "jpg"), buildVariant(640, 480, "jpg"),
+                buildVariant(1000, 750, "jpg")), menuImage.getVariants());
+    }
+
+    @Test
+    public void testVariantsNeverUpscaled() throws Exception {
+        MenuImage menuImage = MenuImage.validateMenuImage(CONTENT_HASH, "image/webp", 160, 90);
+        assertEquals(Arrays.asList(buildVariant(160, 90, "webp")), menuImage.getVariants());
+
+        menuImage = MenuImage.validateMenuImage(CONTENT_HASH, "image/png", 4000, 10);
+        assertEquals(Arrays.asList(buildVariant(160, 1, "png"), buildVariant(320, 1, "png"), buildVariant(640, 2, "png"),
+                buildVariant(1280, 3, "png"), buildVariant(4000, 10, "png")), menuImage.getVariants());
+    }
+
+    @Test
+    public void testVariantsDerivedFromStoredMetadata() throws Exception {
+        MenuImage menuImage = MenuImage.validateMenuImage(CONTENT_HASH, "image/jpeg", 1600, 1200);
+        MenuImage loadedMenuImage = MenuImage.buildMenuImage().contentHash(CONTENT_HASH).contentType("image/jpeg").width(1600).height(1200).build();
+        assertEquals(menuImage, loadedMenuImage);
+        assertEquals(menuImage.getVariants(), loadedMenuImage.getVariants());
+    }
+
+    @Test
+    public void testInvalidMenuImage() {
+        Object[][] invalidMetadata = {
+                {null, "image/jpeg", 100, 100},
+                {"not-a-hex-digest-not-a-hex-digest", "image/jpeg", 100, 100},
+                {CONTENT_HASH.substring(1), "image/jpeg", 100, 100},
+                {CONTENT_HASH, "image/gif", 100, 100},
+                {CONTENT_HASH, null, 100, 100},
+                {CONTENT_HASH, "image/png", null, 100},
+                {CONTENT_HASH, "image/png", 0, 100},
+                {CONTENT_HASH, "image/png", 100, MenuImage.MAX_IMAGE_DIMENSION + 1},
+        };
+        for (Object[] metadata : invalidMetadata) {
+            try {
+                MenuImage.validateMenuImage((String) metadata[0], (String) metadata[1], (Integer) metadata[2], (Integer) metadata[3]);
+                fail("Expecting ValidationException for " + Arrays.toString(metadata));
+            } catch (ValidationException expected) {}
+        }
+    }
+}
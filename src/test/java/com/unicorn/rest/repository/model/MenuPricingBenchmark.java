@@ -0,0 +1,96 @@
+package com.unicorn.rest.repository.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.unicorn.rest.repository.exception.ValidationException;
+
+/**
+ * Quote carts of 1 to 50 lines against a menu of 200 items, each of which has a required size, optional extras
+ * and a required side whose options have a nested required choice, i.e. 4 groups and 24 options per item.
+ * 
+ * Run with: java -cp target/test-classes:target/classes:<test class path> com.unicorn.rest.repository.model.MenuPricingBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MenuPricingBenchmark {
+
+    private static final int NUM_OF_ITEMS = 200;
+
+    @Param({"1", "5", "20", "50"})
+    private int numOfLines;
+
+    private MenuPricing menuPricing;
+    private List<CartLine> cartLines;
+
+    @Setup
+    public void setUp() throws ValidationException {
+        Random random = new Random(1234);
+        List<MenuItem> items = new ArrayList<>(NUM_OF_ITEMS);
+        for (long itemId = 1; itemId <= NUM_OF_ITEMS; itemId++) {
+            long id = itemId * 1000;
+            List<ModifierOption> sides = new ArrayList<>();
+            for (long side = 0; side < 3; side++) {
+                sides.add(buildOption(id + 30 + side * 10, side * 100, buildGroup(id + 3 + side, 1, 1,
+                        buildOption(id + 31 + side * 10, 0L), buildOption(id + 32 + side * 10, 50L), buildOption(id + 33 + side * 10, 90L))));
+            }
+            items.add(MenuItem.buildMenuItem().itemId(itemId).itemName("Item " + itemId).price(500L + random.nextInt(2000)).modifierGroups(Arrays.asList(
+                    buildGroup(id, 1, 1, buildOption(id + 10, 0L), buildOption(id + 11, 50L), buildOption(id + 12, 100L)),
+                    buildGroup(id + 1, 0, 3, buildOption(id + 20, 75L), buildOption(id + 21, 60L), buildOption(id + 22, 25L),
+                            buildOption(id + 23, 40L), buildOption(id + 24, 55L), buildOption(id + 25, 35L)),
+                    buildGroup(id + 2, 1, 1, sides.toArray(new ModifierOption[sides.size()])))).build());
+        }
+        Menu menu = Menu.buildMenu().restaurantId(1L).version(1L).items(Menu.validateMenuItems(items)).build();
+        menuPricing = MenuPricing.compile(menu);
+
+        cartLines = new ArrayList<>(numOfLines);
+        for (int line = 0; line < numOfLines; line++) {
+            long itemId = 1 + random.nextInt(NUM_OF_ITEMS);
+            long id = itemId * 1000;
+            long side = random.nextInt(3);
+            cartLines.add(new CartLine(itemId, 1 + random.nextInt(3), new long[] {id + 10 + random.nextInt(3), id + 20, id + 23,
+                    id + 30 + side * 10, id + 31 + side * 10 + random.nextInt(3)}));
+        }
+    }
+
+    @Benchmark
+    public PriceQuote quoteCart() throws ValidationException {
+        return menuPricing.quote(cartLines);
+    }
+
+    private static ModifierOption buildOption(long optionId, long priceDelta, ModifierGroup... modifierGroups) {
+        return ModifierOption.buildModifierOption().optionId(optionId).optionName("Option " + optionId).priceDelta(priceDelta)
+                .modifierGroups(Arrays.asList(modifierGroups)).build();
+    }
+
+    private static ModifierGroup buildGroup(long groupId, int minSelections, int maxSelections, ModifierOption... options) {
+        return ModifierGroup.buildModifierGroup().groupId(groupId).groupName("Group " + groupId).minSelections(minSelections)
+                .maxSelections(maxSelections).options(Arrays.asList(options)).build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MenuPricingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
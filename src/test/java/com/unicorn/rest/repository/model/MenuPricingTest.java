@@ -0,0 +1,108 @@
+package com.unicorn.rest.repository.model;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.unicorn.rest.repository.exception.ValidationException;
+
+public class MenuPricingTest {
+
+    private static final Long RESTAURANT_ID = 1234L;
+
+    private MenuPricing menuPricing;
+
+    private static ModifierOption buildOption(Long optionId, Long priceDelta, ModifierGroup... modifierGroups) {
+        return ModifierOption.buildModifierOption().optionId(optionId).optionName("Option " + optionId).priceDelta(priceDelta)
+                .modifierGroups(Arrays.asList(modifierGroups)).build();
+    }
+
+    private static ModifierGroup buildGroup(Long groupId, int minSelections, int maxSelections, ModifierOption... options) {
+        return ModifierGroup.buildModifierGroup().groupId(groupId).groupName("Group " + groupId).minSelections(minSelections)
+                .maxSelections(maxSelections).options(Arrays.asList(options)).build();
+    }
+
+    private static CartLine buildLine(long itemId, int quantity, long... optionIds) {
+        return new CartLine(itemId, quantity, optionIds);
+    }
+
+    /*
+     * The coffee has the required size and up to two extras, and the combo has the required side
+     * and the required drink, the size of which is chosen only for the soda
+     */
+    @Before
+    public void setUp() throws ValidationException {
+        MenuItem noodles = MenuItem.buildMenuItem().itemId(1L).itemName("Noodles").price(1250L).build();
+        MenuItem coffee = MenuItem.buildMenuItem().itemId(2L).itemName("Coffee").price(300L).modifierGroups(Arrays.asList(
+                buildGroup(10L, 1, 1, buildOption(100L, 0L), buildOption(101L, 50L), buildOption(102L, 100L)),
+                buildGroup(11L, 0, 2, buildOption(110L, 75L), buildOption(111L, 60L), buildOption(112L, 25L)))).build();
+        MenuItem combo = MenuItem.buildMenuItem().itemId(3L).itemName("Burger Combo").price(999L).modifierGroups(Arrays.asList(
+                buildGroup(20L, 1, 1, buildOption(200L, 0L), buildOption(201L, 150L)),
+                buildGroup(21L, 1, 1, buildOption(210L, -50L, buildGroup(30L, 1, 1, buildOption(300L, 0L), buildOption(301L, 80L))),
+                        buildOption(211L, 0L)))).build();
+        Menu menu = Menu.buildMenu().restaurantId(RESTAURANT_ID).version(3L).items(Menu.validateMenuItems(Arrays.asList(noodles, coffee, combo)))
+                .build();
+        menuPricing = MenuPricing.compile(menu);
+    }
+
+    @Test
+    public void testQuoteCart() throws ValidationException {
+        PriceQuote priceQuote = menuPricing.quote(Arrays.asList(buildLine(1L, 2), buildLine(2L, 1, 102L, 110L, 112L),
+                buildLine(3L, 3, 201L, 210L, 301L), buildLine(3L, 1, 211L, 200L)));
+
+        assertEquals(RESTAURANT_ID, priceQuote.getRestaurantId());
+        assertEquals(3L, priceQuote.getVersion());
+        assertEquals(Arrays.asList(new PriceQuoteLine(1L, 2, 1250L, 2500L), new PriceQuoteLine(2L, 1, 500L, 500L),
+                new PriceQuoteLine(3L, 3, 1179L, 3537L), new PriceQuoteLine(3L, 1, 999L, 999L)), priceQuote.getLines());
+        assertEquals(2500L + 500L + 3537L + 999L, priceQuote.getSubtotal());
+    }
+
+    @Test(expected = ValidationException.class)
+    public void testQuoteMissingRequiredOption() throws ValidationException {
+        menuPricing.quote(Arrays.asList(buildLine(2L, 1, 110L)));
+    }
+
+    @Test(expected = ValidationException.class)
+    public void testQuoteTooManyOptions() throws ValidationException {
+        menuPricing.quote(Arrays.asList(buildLine(2L, 1, 100L, 110L, 111L, 112L)));
+    }
+
+    @Test(expected = ValidationException.class)
+    public void testQuoteNestedOptionWithoutParent() throws ValidationException {
+        menuPricing.quote(Arrays.asList(buildLine(3L, 1, 200L, 211L, 300L)));
+    }
+
+    @Test(expected = ValidationException.class)
+    public void testQuoteMissingNestedOption() throws ValidationException {
+        menuPricing.quote(Arrays.asList(buildLine(3L, 1, 200L, 210L)));
+    }
+
+    @Test(expected = ValidationException.class)
+    public void testQuoteDuplicatedOption() throws ValidationException {
+        menuPricing.quote(Arrays.asList(buildLine(2L, 1, 100L, 110L, 110L)));
+    }
+
+    @Test(expected = ValidationException.class)
+    public void testQuoteOptionOfAnotherItem() throws ValidationException {
+        menuPricing.quote(Arrays.asList(buildLine(1L, 1, 100L)));
+    }
+
+    @Test(expected = ValidationException.class)
+    public void testQuoteItemNotOnMenu() throws ValidationException {
+        menuPricing.quote(Arrays.asList(buildLine(4L, 1)));
+    }
+
+    @Test(expected = ValidationException.class)
+    public void testQuoteInvalidQuantity() throws ValidationException {
+        menuPricing.quote(Arrays.asList(buildLine(1L, 0)));
+    }
+
+    @Test(expected = ValidationException.class)
+    public void testValidateDuplicatedOptionIds() throws ValidationException {
+        ModifierGroup.validateModifierGroups(Arrays.asList(buildGroup(10L, 0, 1, buildOption(100L, 0L)),
+                buildGroup(11L, 0, 1, buildOption(100L, 0L))));
+    }
+}
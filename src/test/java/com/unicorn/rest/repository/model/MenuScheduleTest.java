@@ -0,0 +1,111 @@
+package com.unicorn.rest.repository.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+
+public class MenuScheduleTest {
+
+    private static final Long RESTAURANT_ID = 1234L;
+    private static final String TIME_ZONE = "America/Los_Angeles";
+    private static final DateTimeZone DATE_TIME_ZONE = DateTimeZone.forID(TIME_ZONE);
+    private static final List<Integer> WEEKDAYS = Arrays.asList(1, 2, 3, 4, 5);
+
+    private static AvailabilityWindow buildWindow(List<Integer> daysOfWeek, int startHour, int endHour) {
+        return AvailabilityWindow.buildAvailabilityWindow().daysOfWeek(daysOfWeek).startMinute(startHour * 60).endMinute(endHour * 60).build();
+    }
+
+    private static MenuItem buildMenuItem(Long itemId, AvailabilityWindow... availability) {
+        return MenuItem.buildMenuItem().itemId(itemId).itemName("Item " + itemId).price(1000L).availability(Arrays.asList(availability)).build();
+    }
+
+    private static Menu buildMenu(List<AvailabilityWindow> availability, MenuItem... items) {
+        return Menu.buildMenu().restaurantId(RESTAURANT_ID).version(1L).items(Arrays.asList(items))
+                .timeZone(TIME_ZONE).availability(availability).build();
+    }
+
+    /*
+     * 2014-10-06 is Monday
+     */
+    private static long localTime(int year, int month, int day, int hour, int minute) {
+        return new DateTime(year, month, day, hour, minute, DATE_TIME_ZONE).getMillis();
+    }
+
+    @Test
+    public void testAlwaysAvailable() {
+        MenuItem noodles = buildMenuItem(1L);
+        MenuItem dumplings = buildMenuItem(2L);
+        MenuSchedule menuSchedule = MenuSchedule.compile(buildMenu(null, noodles, dumplings));
+
+        assertEquals(1, menuSchedule.getNumOfSegments());
+        assertEquals(Arrays.asList(noodles, dumplings), menuSchedule.getAvailableItems(localTime(2014, 10, 6, 3, 0)));
+        assertNull(menuSchedule.getNextChangeAt(localTime(2014, 10, 6, 3, 0)));
+    }
+
+    @Test
+    public void testItemWindows() {
+        MenuItem pancakes = buildMenuItem(1L, buildWindow(WEEKDAYS, 7, 11));
+        MenuItem noodles = buildMenuItem(2L, buildWindow(WEEKDAYS, 11, 15), buildWindow(Arrays.asList(6, 7), 9, 15));
+        MenuItem coffee = buildMenuItem(3L);
+        MenuSchedule menuSchedule = MenuSchedule.compile(buildMenu(null, pancakes, noodles, coffee));
+
+        assertEquals(Arrays.asList(pancakes, coffee), menuSchedule.getAvailableItems(localTime(2014, 10, 6, 8, 0)));
+        assertEquals(Arrays.asList(noodles, coffee), menuSchedule.getAvailableItems(localTime(2014, 10, 8, 11, 0)));
+        assertEquals(Arrays.asList(coffee), menuSchedule.getAvailableItems(localTime(2014, 10, 10, 15, 0)));
+        assertEquals(Arrays.asList(coffee), menuSchedule.getAvailableItems(localTime(2014, 10, 11, 8, 59)));
+        assertEquals(Arrays.asList(noodles, coffee), menuSchedule.getAvailableItems(localTime(2014, 10, 11, 9, 0)));
+
+        assertEquals(Long.valueOf(localTime(2014, 10, 6, 11, 0)), menuSchedule.getNextChangeAt(localTime(2014, 10, 6, 8, 30)));
+        assertEquals(Long.valueOf(localTime(2014, 10, 7, 7, 0)), menuSchedule.getNextChangeAt(localTime(2014, 10, 6, 15, 0)));
+        assertEquals(Long.valueOf(localTime(2014, 10, 13, 7, 0)), menuSchedule.getNextChangeAt(localTime(2014, 10, 12, 16, 0)));
+    }
+
+    @Test
+    public void testMenuWindowWrappingPastEndOfWeek() {
+        MenuItem burger = buildMenuItem(1L);
+        MenuItem fries = buildMenuItem(2L, buildWindow(Arrays.asList(7), 23, 1));
+        MenuSchedule menuSchedule = MenuSchedule.compile(buildMenu(Arrays.asList(buildWindow(Arrays.asList(7), 22, 2)), burger, fries));
+
+        assertEquals(Collections.<MenuItem>emptyList(), menuSchedule.getAvailableItems(localTime(2014, 10, 12, 21, 0)));
+        assertEquals(Arrays.asList(burger), menuSchedule.getAvailableItems(localTime(2014, 10, 12, 22, 0)));
+        assertEquals(Arrays.asList(burger, fries), menuSchedule.getAvailableItems(localTime(2014, 10, 12, 23, 30)));
+        assertEquals(Arrays.asList(burger, fries), menuSchedule.getAvailableItems(localTime(2014, 10, 13, 0, 30)));
+        assertEquals(Arrays.asList(burger), menuSchedule.getAvailableItems(localTime(2014, 10, 13, 1, 30)));
+        assertEquals(Collections.<MenuItem>emptyList(), menuSchedule.getAvailableItems(localTime(2014, 10, 13, 2, 0)));
+
+        assertEquals(Long.valueOf(localTime(2014, 10, 13, 1, 0)), menuSchedule.getNextChangeAt(localTime(2014, 10, 12, 23, 30)));
+        assertEquals(Long.valueOf(localTime(2014, 10, 19, 22, 0)), menuSchedule.getNextChangeAt(localTime(2014, 10, 13, 2, 0)));
+    }
+
+    @Test
+    public void testDaylightSavingTime() {
+        MenuItem pancakes = buildMenuItem(1L, buildWindow(Arrays.asList(1, 2, 3, 4, 5, 6, 7), 7, 11));
+        MenuSchedule menuSchedule = MenuSchedule.compile(buildMenu(null, pancakes));
+
+        /*
+         * 2014-03-09 02:00 jumps to 03:00 and 2014-11-02 02:00 falls back to 01:00 in Los Angeles
+         */
+        assertEquals(Arrays.asList(pancakes), menuSchedule.getAvailableItems(localTime(2014, 3, 9, 7, 0)));
+        assertEquals(Arrays.asList(pancakes), menuSchedule.getAvailableItems(localTime(2014, 11, 2, 10, 59)));
+        assertEquals(Collections.<MenuItem>emptyList(), menuSchedule.getAvailableItems(localTime(2014, 11, 2, 11, 0)));
+        assertEquals(Long.valueOf(localTime(2014, 3, 9, 7, 0)), menuSchedule.getNextChangeAt(localTime(2014, 3, 9, 0, 30)));
+        assertEquals(Long.valueOf(localTime(2014, 11, 2, 7, 0)), menuSchedule.getNextChangeAt(localTime(2014, 11, 2, 0, 30)));
+    }
+
+    @Test
+    public void testValidateAvailabilityWindow() throws Exception {
+        AvailabilityWindow lateNight = AvailabilityWindow.validateAvailabilityWindow(Arrays.asList("sun", "Fri", "fri"), "22:00", "02:30");
+        assertEquals(Arrays.asList(5, 7), lateNight.getDaysOfWeek());
+        assertEquals(Arrays.asList("fri", "sun"), lateNight.getDayOfWeekNames());
+        assertEquals(22 * 60, lateNight.getStartMinute());
+        assertEquals(2 * 60 + 30, lateNight.getEndMinute());
+        assertEquals(24 * 60, AvailabilityWindow.validateAvailabilityWindow(Arrays.asList("mon"), "18:00", "24:00").getEndMinute());
+    }
+}
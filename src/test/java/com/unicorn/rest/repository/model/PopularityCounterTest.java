@@ -0,0 +1,114 @@
+package com.unicorn.rest.repository.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class PopularityCounterTest {
+
+    private static final long HALF_LIFE_IN_MILLS = 60 * 60 * 1000L;
+    private static final long NOW_IN_MILLS = 1400000000000L;
+
+    @Test
+    public void testRankByWeight() {
+        PopularityCounter popularityCounter = new PopularityCounter(HALF_LIFE_IN_MILLS, NOW_IN_MILLS);
+        popularityCounter.record(1L, ItemEvent.ItemEventType.VIEW.getWeight(), NOW_IN_MILLS);
+        popularityCounter.record(2L, ItemEvent.ItemEventType.ORDER.getWeight(), NOW_IN_MILLS);
+        popularityCounter.record(3L, ItemEvent.ItemEventType.VIEW.getWeight(), NOW_IN_MILLS);
+        popularityCounter.record(3L, ItemEvent.ItemEventType.VIEW.getWeight(), NOW_IN_MILLS);
+
+        assertEquals(Arrays.asList(2L, 3L, 1L), popularityCounter.rank(NOW_IN_MILLS));
+    }
+
+    @Test
+    public void testNewerEventsRankHigher() {
+        PopularityCounter popularityCounter = new PopularityCounter(HALF_LIFE_IN_MILLS, NOW_IN_MILLS);
+        for (int i = 0; i < 3; i++) {
+            popularityCounter.record(1L, 1.0, NOW_IN_MILLS);
+        }
+        /*
+         * Three views two half lives ago count less than one view now
+         */
+        popularityCounter.record(2L, 1.0, NOW_IN_MILLS + 2 * HALF_LIFE_IN_MILLS);
+
+        assertEquals(Arrays.asList(2L, 1L), popularityCounter.rank(NOW_IN_MILLS + 2 * HALF_LIFE_IN_MILLS));
+        assertEquals(0.75, popularityCounter.getCount(1L), 1e-9);
+        assertEquals(1.0, popularityCounter.getCount(2L), 1e-9);
+    }
+
+    @Test
+    public void testDecayedItemsDropped() {
+        PopularityCounter popularityCounter = new PopularityCounter(HALF_LIFE_IN_MILLS, NOW_IN_MILLS);
+        popularityCounter.record(1L, 1.0, NOW_IN_MILLS);
+        popularityCounter.record(2L, 5.0, NOW_IN_MILLS);
+
+        assertEquals(Arrays.asList(2L), popularityCounter.rank(NOW_IN_MILLS + 2 * HALF_LIFE_IN_MILLS));
+        assertTrue(popularityCounter.rank(NOW_IN_MILLS + 100 * HALF_LIFE_IN_MILLS).isEmpty());
+        assertTrue(popularityCounter.isEmpty());
+    }
+
+    @Test
+    public void testTrackedItemsBounded() {
+        PopularityCounter popularityCounter = new PopularityCounter(HALF_LIFE_IN_MILLS, NOW_IN_MILLS);
+        for (int i = 0; i < 10; i++) {
+            popularityCounter.record(1L, 5.0, NOW_IN_MILLS);
+        }
+        for (long itemId = 100; itemId < 100 + 10 * PopularityCounter.MAX_TRACKED_ITEMS; itemId++) {
+            popularityCounter.record(itemId, 1.0, NOW_IN_MILLS);
+        }
+        assertEquals(PopularityCounter.MAX_TRACKED_ITEMS, popularityCounter.size());
+        /*
+         * The item more popular than the least popular slot all along is never evicted
+         */
+        List<Long> rankedItemIds = popularityCounter.rank(NOW_IN_MILLS);
+        assertEquals(PopularityCounter.MAX_TRACKED_ITEMS, rankedItemIds.size());
+        assertEquals(Long.valueOf(1L), rankedItemIds.get(0));
+        assertEquals(50.0, popularityCounter.getCount(1L), 1e-9);
+    }
+
+    @Test
+    public void testLandmarkMovedUpForLateEvents() {
+        PopularityCounter popularityCounter = new PopularityCounter(HALF_LIFE_IN_MILLS, NOW_IN_MILLS);
+        popularityCounter.record(1L, 1.0, NOW_IN_MILLS);
+        long lateInMills = NOW_IN_MILLS + 10000 * HALF_LIFE_IN_MILLS;
+        popularityCounter.record(2L, 1.0, lateInMills);
+        popularityCounter.record(2L, 1.0, lateInMills);
+
+        assertEquals(2.0, popularityCounter.getCount(2L), 1e-9);
+        assertEquals(Arrays.asList(2L), popularityCounter.rank(lateInMills));
+    }
+
+    @Test
+    public void testRemove() {
+        PopularityCounter popularityCounter = new PopularityCounter(HALF_LIFE_IN_MILLS, NOW_IN_MILLS);
+        popularityCounter.record(1L, 1.0, NOW_IN_MILLS);
+        popularityCounter.record(2L, 1.0, NOW_IN_MILLS);
+        popularityCounter.remove(1L);
+        popularityCounter.remove(3L);
+
+        assertEquals(0, popularityCounter.getCount(1L), 0);
+        assertEquals(Arrays.asList(2L), popularityCounter.rank(NOW_IN_MILLS));
+    }
+
+    @Test
+    public void testGetCountsLessErrors() {
+        PopularityCounter popularityCounter = new PopularityCounter(HALF_LIFE_IN_MILLS, NOW_IN_MILLS);
+        popularityCounter.record(1L, 1.0, NOW_IN_MILLS + HALF_LIFE_IN_MILLS);
+        for (long itemId = 2; itemId <= PopularityCounter.MAX_TRACKED_ITEMS + 1; itemId++) {
+            popularityCounter.record(itemId, 3.0, NOW_IN_MILLS);
+        }
+        /*
+         * The item taking over the slot of item 1 only reports what it has added since
+         */
+        Map<Long, Double> itemCounts = popularityCounter.getCounts();
+        assertEquals(PopularityCounter.MAX_TRACKED_ITEMS, itemCounts.size());
+        assertEquals(null, itemCounts.get(1L));
+        assertEquals(3.0, itemCounts.get(PopularityCounter.MAX_TRACKED_ITEMS + 1L), 1e-9);
+        assertEquals(NOW_IN_MILLS, popularityCounter.getLandmarkInMills());
+    }
+}
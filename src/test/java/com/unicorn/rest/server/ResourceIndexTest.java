@@ -0,0 +1,34 @@
+package com.unicorn.rest.server;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.unicorn.rest.activities.TokenActivities;
+import com.unicorn.rest.activities.UserActivities;
+import com.unicorn.rest.activities.exception.mapper.BadRequestExceptionMapper;
+import com.unicorn.rest.commons.ServiceConstants;
+import com.unicorn.rest.server.filter.dynamic.ActivitiesSecurityDynamicFeature;
+
+public class ResourceIndexTest {
+
+    @Test
+    public void testScanResourcesAndProvidersHappyCase() throws IOException {
+        List<String> indexedClassNames = ResourceIndexGenerator.scanResourcesAndProviders(ServiceConstants.ROOT_PACKAGE);
+        assertTrue(indexedClassNames.contains(TokenActivities.class.getName()));
+        assertTrue(indexedClassNames.contains(UserActivities.class.getName()));
+        assertTrue(indexedClassNames.contains(BadRequestExceptionMapper.class.getName()));
+        assertTrue(indexedClassNames.contains(ActivitiesSecurityDynamicFeature.class.getName()));
+        assertFalse(indexedClassNames.contains(ResourceIndex.class.getName()));
+    }
+
+    @Test
+    public void testLoadResourceIndexNotExist() {
+        assertNull(ResourceIndex.load("META-INF/unicorn/not-exist.index"));
+    }
+}
@@ -0,0 +1,18 @@
+package com.unicorn.rest.server;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class ServerWarmUpTest {
+
+    @Test
+    public void testWarmUpWithoutTablesHappyCase() {
+        ServerWarmUp serverWarmUp = new ServerWarmUp(Collections.<String>emptyList(), 10);
+        serverWarmUp.start();
+        assertTrue(serverWarmUp.awaitCompletion(30, TimeUnit.SECONDS));
+    }
+}
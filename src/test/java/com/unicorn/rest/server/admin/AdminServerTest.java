@@ -0,0 +1,86 @@
+package com.unicorn.rest.server.admin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Scanner;
+
+import javax.annotation.Nonnull;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class AdminServerTest {
+
+    private static final String ADMIN_BASE_URL = "http://localhost:18444";
+    private static AdminServer adminServer;
+
+    @BeforeClass
+    public static void setUpAdminServer() {
+        adminServer = new AdminServer("localhost", 18444);
+        adminServer.start();
+    }
+
+    @AfterClass
+    public static void tearDownAdminServer() {
+        AdminServer.shutdown(adminServer);
+    }
+
+    @Test
+    public void testLivenessHappyCase() throws IOException {
+        assertEquals(200, getResponseCode(AdminHttpHandler.LIVENESS_PATH));
+    }
+
+    @Test
+    public void testMetricsWithRegisteredStats() throws IOException {
+        AdminStatsRegistry.registerMetrics("test_metrics", new StatsProvider() {
+            @Override
+            public Map<String, Object> getStats() {
+                return Collections.<String, Object>singletonMap("test_count", 7);
+            }
+        });
+        try {
+            String metrics = getResponseBody(AdminHttpHandler.METRICS_PATH);
+            assertTrue(metrics.startsWith("{"));
+            assertTrue(metrics.contains("\"jvm\""));
+            assertTrue(metrics.contains("\"test_count\" : 7"));
+        } finally {
+            AdminStatsRegistry.unregister("test_metrics");
+        }
+    }
+
+    @Test
+    public void testThreadDumpHappyCase() throws IOException {
+        assertTrue(getResponseBody(AdminHttpHandler.THREADS_PATH).contains("GRIZZLY-ADMIN-WORKER"));
+    }
+
+    @Test
+    public void testUnknownPath() throws IOException {
+        assertEquals(404, getResponseCode("/unknown"));
+    }
+
+    private static int getResponseCode(@Nonnull String path) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(ADMIN_BASE_URL + path).openConnection();
+        try {
+            return connection.getResponseCode();
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static String getResponseBody(@Nonnull String path) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(ADMIN_BASE_URL + path).openConnection();
+        try (InputStream inputStream = connection.getInputStream(); Scanner scanner = new Scanner(inputStream, "UTF-8")) {
+            return scanner.useDelimiter("\\A").next();
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.unicorn.rest.server.filter;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.glassfish.jersey.internal.util.Base64;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.unicorn.rest.activities.exception.BadRequestException;
+import com.unicorn.rest.activities.exception.MissingAuthorizationException;
+import com.unicorn.rest.repository.model.AuthorizationToken;
+import com.unicorn.rest.server.filter.ActivitiesSecurityFilter.AuthorizationScheme;
+import com.unicorn.rest.server.filter.AuthorizationHeaderParser.AuthorizationCode;
+import com.unicorn.rest.server.filter.model.PrincipalType;
+import com.unicorn.rest.utils.SimpleFlakeKeyGenerator;
+
+/**
+ * Compare AuthorizationHeaderParser against the regex based parsing ActivitiesSecurityFilter used to do.
+ * 
+ * Run with: java -cp target/test-classes:target/classes:<test class path> com.unicorn.rest.server.filter.AuthorizationHeaderParserBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthorizationHeaderParserBenchmark {
+
+    private String authorizationHeader;
+
+    @Setup
+    public void setUp() throws Exception {
+        Long principal = SimpleFlakeKeyGenerator.generateKey();
+        String token = AuthorizationToken.generateAccessToken(principal, PrincipalType.USER).getToken();
+        authorizationHeader = AuthorizationScheme.BEARER_AUTHENTICATION + 
+                Base64.encodeAsString(principal + ActivitiesSecurityFilter.AUTHORIZATION_CODE_SEPARATOR + token);
+    }
+
+    @Benchmark
+    public void regexParse(Blackhole blackhole) throws BadRequestException {
+        if (StringUtils.isBlank(authorizationHeader) || !authorizationHeader.startsWith(AuthorizationScheme.BEARER_AUTHENTICATION.toString())) {
+            throw new MissingAuthorizationException();
+        }
+        String authorizationCode = authorizationHeader.replaceFirst(AuthorizationScheme.BEARER_AUTHENTICATION.toString(), "");
+        String[] authorization = Base64.decodeAsString(authorizationCode).split(ActivitiesSecurityFilter.AUTHORIZATION_CODE_SEPARATOR);
+        if (authorization.length != 2 || StringUtils.isBlank(authorization[0]) || StringUtils.isBlank(authorization[1])) {
+            throw new MissingAuthorizationException();
+        }
+        blackhole.consume(Long.parseLong(authorization[0]));
+        blackhole.consume(authorization[1]);
+    }
+
+    @Benchmark
+    public void singlePassParse(Blackhole blackhole) throws BadRequestException {
+        AuthorizationCode authorizationCode = AuthorizationHeaderParser.parseBearerAuthorization(authorizationHeader);
+        blackhole.consume(authorizationCode.getPrincipal());
+        blackhole.consume(authorizationCode.getToken());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AuthorizationHeaderParserBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,96 @@
+package com.unicorn.rest.server.filter;
+
+import static org.junit.Assert.assertEquals;
+
+import org.glassfish.jersey.internal.util.Base64;
+import org.junit.Test;
+
+import com.unicorn.rest.activities.exception.MissingAuthorizationException;
+import com.unicorn.rest.activities.exception.UnrecognizedAuthorizationSchemeException;
+import com.unicorn.rest.activities.exception.UnrecognizedIdentityException;
+import com.unicorn.rest.server.filter.ActivitiesSecurityFilter.AuthorizationScheme;
+import com.unicorn.rest.server.filter.AuthorizationHeaderParser.AuthorizationCode;
+
+public class AuthorizationHeaderParserTest {
+
+    private static String bearerHeader(String authorizationCode) {
+        return AuthorizationScheme.BEARER_AUTHENTICATION + Base64.encodeAsString(authorizationCode);
+    }
+
+    @Test
+    public void testParseBearerAuthorizationHappyCase() {
+        for (String token : new String[] {"t", "to", "tok", "token", "wMh3bBc4QaCvN0c7Y6S2-Jw_0kE"}) {
+            AuthorizationCode authorizationCode = AuthorizationHeaderParser.parseBearerAuthorization(bearerHeader("1234567890:" + token));
+            assertEquals(1234567890L, authorizationCode.getPrincipal());
+            assertEquals(token, authorizationCode.getToken());
+        }
+        AuthorizationCode authorizationCode = AuthorizationHeaderParser.parseBearerAuthorization(
+                bearerHeader(Long.MAX_VALUE + ":token") + "  ");
+        assertEquals(Long.MAX_VALUE, authorizationCode.getPrincipal());
+        assertEquals("token", authorizationCode.getToken());
+    }
+
+    @Test(expected = MissingAuthorizationException.class)
+    public void testParseNullAuthorization() {
+        AuthorizationHeaderParser.parseBearerAuthorization(null);
+    }
+
+    @Test(expected = MissingAuthorizationException.class)
+    public void testParseBlankAuthorization() {
+        AuthorizationHeaderParser.parseBearerAuthorization("  ");
+    }
+
+    @Test(expected = UnrecognizedAuthorizationSchemeException.class)
+    public void testParseBasicAuthorization() {
+        AuthorizationHeaderParser.parseBearerAuthorization(AuthorizationScheme.BASIC_AUTHENTICATION + Base64.encodeAsString("1234:token"));
+    }
+
+    @Test(expected = MissingAuthorizationException.class)
+    public void testParseEmptyBearerAuthorization() {
+        AuthorizationHeaderParser.parseBearerAuthorization(AuthorizationScheme.BEARER_AUTHENTICATION.toString());
+    }
+
+    @Test(expected = MissingAuthorizationException.class)
+    public void testParseAuthorizationWithoutSeparator() {
+        AuthorizationHeaderParser.parseBearerAuthorization(bearerHeader("1234token"));
+    }
+
+    @Test(expected = MissingAuthorizationException.class)
+    public void testParseAuthorizationWithThreeParts() {
+        AuthorizationHeaderParser.parseBearerAuthorization(bearerHeader("1234:token:token"));
+    }
+
+    @Test(expected = MissingAuthorizationException.class)
+    public void testParseAuthorizationWithBlankToken() {
+        AuthorizationHeaderParser.parseBearerAuthorization(bearerHeader("1234: "));
+    }
+
+    @Test(expected = MissingAuthorizationException.class)
+    public void testParseAuthorizationWithBlankPrincipal() {
+        AuthorizationHeaderParser.parseBearerAuthorization(bearerHeader(":token"));
+    }
+
+    @Test(expected = MissingAuthorizationException.class)
+    public void testParseMalformedBase64Authorization() {
+        AuthorizationHeaderParser.parseBearerAuthorization(AuthorizationScheme.BEARER_AUTHENTICATION + "MTIz*DpO");
+    }
+
+    @Test(expected = MissingAuthorizationException.class)
+    public void testParseTooLongAuthorization() {
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < AuthorizationHeaderParser.MAX_ENCODED_LENGTH; i++) {
+            token.append('t');
+        }
+        AuthorizationHeaderParser.parseBearerAuthorization(bearerHeader("1234:" + token));
+    }
+
+    @Test(expected = UnrecognizedIdentityException.class)
+    public void testParseNonNumericPrincipal() {
+        AuthorizationHeaderParser.parseBearerAuthorization(bearerHeader("user:token"));
+    }
+
+    @Test(expected = UnrecognizedIdentityException.class)
+    public void testParseOverflowPrincipal() {
+        AuthorizationHeaderParser.parseBearerAuthorization(bearerHeader("9223372036854775808:token"));
+    }
+}
@@ -0,0 +1,70 @@
+package com.unicorn.rest.server.filter;
+
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.SecurityContext;
+import javax.ws.rs.core.UriInfo;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.unicorn.rest.activities.exception.AccessDeniedException;
+import com.unicorn.rest.server.filter.dynamic.SecurityRoute;
+import com.unicorn.rest.server.filter.model.PrincipalSecurityContext;
+
+public class PermissionCheckFilterTest {
+
+    private final SecurityRoute securityRoute = SecurityRoute.requiresPermission("update", "restaurant:{restaurant_id}", 
+            Collections.singleton("restaurant_id"));
+    private final MultivaluedMap<String, String> pathParameters = new MultivaluedHashMap<>();
+    private ContainerRequestContext requestContext;
+
+    @Before
+    public void setUp() {
+        UriInfo uriInfo = mock(UriInfo.class);
+        when(uriInfo.getPathParameters()).thenReturn(pathParameters);
+        requestContext = mock(ContainerRequestContext.class);
+        when(requestContext.getUriInfo()).thenReturn(uriInfo);
+    }
+
+    @Test
+    public void testFilterHappyCase() throws Exception {
+        PrincipalSecurityContext securityContext = mock(PrincipalSecurityContext.class);
+        when(requestContext.getSecurityContext()).thenReturn(securityContext);
+        pathParameters.putSingle("restaurant_id", "1234");
+
+        new PermissionCheckFilter(securityRoute).filter(requestContext);
+        verify(securityContext).checkPermission("update", "restaurant:1234");
+    }
+
+    @Test(expected = AccessDeniedException.class)
+    public void testFilterNotPermitted() throws Exception {
+        PrincipalSecurityContext securityContext = mock(PrincipalSecurityContext.class);
+        when(requestContext.getSecurityContext()).thenReturn(securityContext);
+        pathParameters.putSingle("restaurant_id", "1234");
+        doThrow(new AccessDeniedException()).when(securityContext).checkPermission("update", "restaurant:1234");
+
+        new PermissionCheckFilter(securityRoute).filter(requestContext);
+    }
+
+    @Test(expected = AccessDeniedException.class)
+    public void testFilterMissingPathParameter() throws Exception {
+        when(requestContext.getSecurityContext()).thenReturn(mock(PrincipalSecurityContext.class));
+        new PermissionCheckFilter(securityRoute).filter(requestContext);
+    }
+
+    @Test(expected = AccessDeniedException.class)
+    public void testFilterNotAuthenticated() throws Exception {
+        when(requestContext.getSecurityContext()).thenReturn(mock(SecurityContext.class));
+        pathParameters.putSingle("restaurant_id", "1234");
+        new PermissionCheckFilter(securityRoute).filter(requestContext);
+    }
+}
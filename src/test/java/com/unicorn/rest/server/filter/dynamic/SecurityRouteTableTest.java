@@ -0,0 +1,125 @@
+package com.unicorn.rest.server.filter.dynamic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.UriInfo;
+
+import org.junit.Test;
+
+import com.unicorn.rest.activities.HealthCheckActivities;
+import com.unicorn.rest.activities.TokenActivities;
+import com.unicorn.rest.activities.UserActivities;
+import com.unicorn.rest.activity.model.UserRequest;
+
+public class SecurityRouteTableTest {
+
+    @Path("/v1/restaurants")
+    @RequiresPermission(action = "read", resource = "restaurant:all")
+    public static class RestaurantResource {
+        @GET
+        public void listRestaurants() {}
+
+        @GET
+        @PublicEndpoint
+        @Path("/{restaurant_id}/menu")
+        public void getMenu() {}
+
+        @POST
+        @Path("/{restaurant_id}/menu/{menu_id}")
+        @RequiresPermission(action = "update", resource = "restaurant:{restaurant_id}/menu:{ menu_id }")
+        public void updateMenu() {}
+    }
+
+    @Path("/v1/unprotected")
+    public static class UnprotectedResource {
+        @GET
+        public void get() {}
+    }
+
+    public static class InvalidResource {
+        @GET
+        @PublicEndpoint
+        @RequiresPermission(action = "read", resource = "restaurant:all")
+        public void conflicting() {}
+
+        @GET
+        @Path("/{restaurant_id}")
+        @RequiresPermission(action = "read", resource = "restaurant:{menu_id}")
+        public void unknownPathParameter() {}
+
+        @GET
+        @Path("/{restaurant_id}")
+        @RequiresPermission(action = "read", resource = "restaurant:{restaurant_id")
+        public void unclosedPathParameter() {}
+    }
+
+    private static SecurityRoute getSecurityRoute(Class<?> resourceClass, String methodName) throws Exception {
+        Method resourceMethod = resourceClass.getMethod(methodName);
+        return SecurityRouteTable.getSecurityRoute(resourceClass, resourceMethod);
+    }
+
+    @Test
+    public void testActivitiesSecurityRoutes() throws Exception {
+        assertSame(SecurityRoute.PUBLIC, SecurityRouteTable.getSecurityRoute(TokenActivities.class, 
+                TokenActivities.class.getMethod("revokeToken", UriInfo.class)));
+        assertSame(SecurityRoute.PUBLIC, getSecurityRoute(HealthCheckActivities.class, "checkReadiness"));
+        assertSame(SecurityRoute.PUBLIC, SecurityRouteTable.getSecurityRoute(UserActivities.class, 
+                UserActivities.class.getMethod("register", UserRequest.class)));
+        assertSame(SecurityRoute.AUTHENTICATED, getSecurityRoute(UnprotectedResource.class, "get"));
+    }
+
+    @Test
+    public void testMethodAnnotationTakesPrecedence() throws Exception {
+        SecurityRoute listRoute = getSecurityRoute(RestaurantResource.class, "listRestaurants");
+        assertFalse(listRoute.isPublicEndpoint());
+        assertTrue(listRoute.isPermissionRequired());
+        assertEquals("read", listRoute.getRequiredAction());
+        assertEquals("restaurant:all", listRoute.resolveRequiredResource(new MultivaluedHashMap<String, String>()));
+
+        assertSame(SecurityRoute.PUBLIC, getSecurityRoute(RestaurantResource.class, "getMenu"));
+
+        SecurityRoute updateRoute = getSecurityRoute(RestaurantResource.class, "updateMenu");
+        assertEquals("update", updateRoute.getRequiredAction());
+        assertSame(updateRoute, getSecurityRoute(RestaurantResource.class, "updateMenu"));
+        assertTrue(SecurityRouteTable.getSecurityRoutes().containsKey(RestaurantResource.class.getMethod("updateMenu")));
+    }
+
+    @Test
+    public void testResolveRequiredResource() throws Exception {
+        SecurityRoute updateRoute = getSecurityRoute(RestaurantResource.class, "updateMenu");
+        MultivaluedMap<String, String> pathParameters = new MultivaluedHashMap<>();
+        pathParameters.putSingle("restaurant_id", "1234");
+        assertNull(updateRoute.resolveRequiredResource(pathParameters));
+        pathParameters.putSingle("menu_id", "5678");
+        assertEquals("restaurant:1234/menu:5678", updateRoute.resolveRequiredResource(pathParameters));
+        assertEquals("REQUIRES_PERMISSION(update on restaurant:{restaurant_id}/menu:{menu_id})", updateRoute.toString());
+
+        assertNull(SecurityRoute.AUTHENTICATED.resolveRequiredResource(pathParameters));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testConflictingAnnotations() throws Exception {
+        getSecurityRoute(InvalidResource.class, "conflicting");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUnknownPathParameter() throws Exception {
+        getSecurityRoute(InvalidResource.class, "unknownPathParameter");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUnclosedPathParameter() throws Exception {
+        getSecurityRoute(InvalidResource.class, "unclosedPathParameter");
+    }
+}
@@ -0,0 +1,89 @@
+package com.unicorn.rest.server.filter.model;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.unicorn.rest.activities.exception.AccessDeniedException;
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.table.PrincipalRoleTable;
+import com.unicorn.rest.server.filter.AccessControlPolicyEvaluator;
+import com.unicorn.rest.server.filter.ActivitiesSecurityFilter.AuthorizationScheme;
+import com.unicorn.rest.server.filter.role.PrincipalRoleResolver;
+import com.unicorn.rest.server.filter.role.RoleHierarchy;
+import com.unicorn.rest.server.filter.role.RoleRegistry;
+
+public class PrincipalSecurityContextTest {
+
+    private static final String ACTION = "get_menu";
+    private static final String RESOURCE = "restaurant:1234:menu";
+
+    private final SubjectPrincipal subjectPrincipal = new UserPrincipal(1234L, AuthorizationScheme.BEARER_AUTHENTICATION);
+    private AccessControlPolicyEvaluator mockedAccessControlPolicyEvaluator;
+    private PrincipalSecurityContext principalSecurityContext;
+
+    @Before
+    public void setUp() {
+        mockedAccessControlPolicyEvaluator = Mockito.mock(AccessControlPolicyEvaluator.class);
+        principalSecurityContext = new PrincipalSecurityContext(subjectPrincipal, mockedAccessControlPolicyEvaluator);
+    }
+
+    @Test
+    public void testIsPermittedMemoizedWithinRequest() throws Exception {
+        Mockito.doReturn(true).when(mockedAccessControlPolicyEvaluator).isPermitted(subjectPrincipal, ACTION, RESOURCE);
+
+        assertTrue(principalSecurityContext.isPermitted(ACTION, RESOURCE));
+        assertTrue(principalSecurityContext.isPermitted(new Permission(ACTION, RESOURCE, 1234L)));
+        principalSecurityContext.checkPermission(ACTION, RESOURCE);
+        Mockito.verify(mockedAccessControlPolicyEvaluator, Mockito.times(1)).isPermitted(subjectPrincipal, ACTION, RESOURCE);
+    }
+
+    @Test
+    public void testIsPermittedFailureNotMemoized() throws Exception {
+        Mockito.doThrow(new RepositoryServerException("unavailable")).doReturn(true)
+            .when(mockedAccessControlPolicyEvaluator).isPermitted(subjectPrincipal, ACTION, RESOURCE);
+
+        assertFalse(principalSecurityContext.isPermitted(ACTION, RESOURCE));
+        assertTrue(principalSecurityContext.isPermitted(ACTION, RESOURCE));
+        Mockito.verify(mockedAccessControlPolicyEvaluator, Mockito.times(2)).isPermitted(subjectPrincipal, ACTION, RESOURCE);
+    }
+
+    @Test
+    public void testIsPermittedRequestedByOtherPrincipal() throws Exception {
+        assertFalse(principalSecurityContext.isPermitted(new Permission(ACTION, RESOURCE, 5678L)));
+        Mockito.verify(mockedAccessControlPolicyEvaluator, Mockito.never()).isPermitted(subjectPrincipal, ACTION, RESOURCE);
+    }
+
+    @Test(expected = AccessDeniedException.class)
+    public void testCheckPermissionDenied() throws Exception {
+        Mockito.doReturn(false).when(mockedAccessControlPolicyEvaluator).isPermitted(subjectPrincipal, ACTION, RESOURCE);
+
+        assertFalse(principalSecurityContext.isPermitted(ACTION, RESOURCE));
+        principalSecurityContext.checkPermission(ACTION, RESOURCE);
+    }
+
+    @Test
+    public void testHasRoleLoadedOncePerRequest() throws Exception {
+        PrincipalRoleTable mockedPrincipalRoleTable = Mockito.mock(PrincipalRoleTable.class);
+        Mockito.doReturn(Arrays.asList("restaurant_manager")).when(mockedPrincipalRoleTable).getRoles(1234L);
+        principalSecurityContext = new PrincipalSecurityContext(subjectPrincipal, mockedAccessControlPolicyEvaluator, 
+                new PrincipalRoleResolver(mockedPrincipalRoleTable, new RoleHierarchy(new RoleRegistry()), 0, TimeUnit.SECONDS, 10));
+
+        assertTrue(principalSecurityContext.hasRole("menu_editor"));
+        assertFalse(principalSecurityContext.hasRole("restaurant_owner"));
+        principalSecurityContext.checkRole("restaurant_manager");
+        Mockito.verify(mockedPrincipalRoleTable, Mockito.times(1)).getRoles(1234L);
+    }
+
+    @Test(expected = AccessDeniedException.class)
+    public void testCheckRoleWithoutRoleResolver() throws Exception {
+        assertFalse(principalSecurityContext.hasRole("menu_editor"));
+        principalSecurityContext.checkRole("menu_editor");
+    }
+}
@@ -0,0 +1,132 @@
+package com.unicorn.rest.server.filter.policy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.unicorn.rest.repository.AccessControlPolicyRepository;
+import com.unicorn.rest.repository.exception.DuplicateKeyException;
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.server.filter.AccessControlPolicyEvaluator;
+import com.unicorn.rest.server.filter.ActivitiesSecurityFilter.AuthorizationScheme;
+import com.unicorn.rest.server.filter.AuthorizationDecisionCache;
+import com.unicorn.rest.server.filter.model.SubjectPrincipal;
+import com.unicorn.rest.server.filter.model.UserPrincipal;
+
+public class AccessControlPolicyEvaluatorTest {
+
+    private static final String ACTION = "get_user";
+    private static final String RESOURCE = "user:1234";
+
+    private final SubjectPrincipal owner = new UserPrincipal(1234L, AuthorizationScheme.BEARER_AUTHENTICATION);
+    private final SubjectPrincipal stranger = new UserPrincipal(5678L, AuthorizationScheme.BEARER_AUTHENTICATION);
+
+    private AccessControlPolicyRepository mockedAccessControlPolicyRepository;
+    private AccessControlPolicyEvaluator accessControlPolicyEvaluator;
+
+    @Before
+    public void setUp() {
+        mockedAccessControlPolicyRepository = Mockito.mock(AccessControlPolicyRepository.class);
+        accessControlPolicyEvaluator = new AccessControlPolicyEvaluator(mockedAccessControlPolicyRepository, 1, TimeUnit.HOURS);
+    }
+
+    @Test
+    public void testIsPermittedHappyCase() throws Exception {
+        Mockito.doReturn(Arrays.asList("principal == 1234")).when(mockedAccessControlPolicyRepository).getAccessControlPolicy(ACTION, RESOURCE);
+
+        assertTrue(accessControlPolicyEvaluator.isPermitted(owner, ACTION, RESOURCE));
+        assertFalse(accessControlPolicyEvaluator.isPermitted(stranger, ACTION, RESOURCE));
+        Mockito.verify(mockedAccessControlPolicyRepository, Mockito.times(1)).getAccessControlPolicy(ACTION, RESOURCE);
+    }
+
+    @Test
+    public void testIsPermittedAfterInvalidate() throws Exception {
+        Mockito.doReturn(Arrays.asList("principal == 1234")).when(mockedAccessControlPolicyRepository).getAccessControlPolicy(ACTION, RESOURCE);
+        assertFalse(accessControlPolicyEvaluator.isPermitted(stranger, ACTION, RESOURCE));
+
+        Mockito.doReturn(Arrays.asList("principal == 1234", "principal == 5678")).when(mockedAccessControlPolicyRepository).getAccessControlPolicy(ACTION, RESOURCE);
+        assertFalse(accessControlPolicyEvaluator.isPermitted(stranger, ACTION, RESOURCE));
+
+        accessControlPolicyEvaluator.invalidate(ACTION, RESOURCE);
+        assertTrue(accessControlPolicyEvaluator.isPermitted(stranger, ACTION, RESOURCE));
+        Mockito.verify(mockedAccessControlPolicyRepository, Mockito.times(2)).getAccessControlPolicy(ACTION, RESOURCE);
+    }
+
+    @Test
+    public void testIsPermittedWithMalformedCondition() throws Exception {
+        Mockito.doReturn(Arrays.asList("principal === 5678", "principal == 1234")).when(mockedAccessControlPolicyRepository).getAccessControlPolicy(ACTION, RESOURCE);
+
+        assertTrue(accessControlPolicyEvaluator.isPermitted(owner, ACTION, RESOURCE));
+        assertFalse(accessControlPolicyEvaluator.isPermitted(stranger, ACTION, RESOURCE));
+    }
+
+    @Test
+    public void testIsPermittedWithPolicyNotExist() throws Exception {
+        Mockito.doThrow(new DuplicateKeyException()).when(mockedAccessControlPolicyRepository).getAccessControlPolicy(ACTION, RESOURCE);
+
+        assertFalse(accessControlPolicyEvaluator.isPermitted(owner, ACTION, RESOURCE));
+        assertFalse(accessControlPolicyEvaluator.isPermitted(owner, ACTION, RESOURCE));
+        Mockito.verify(mockedAccessControlPolicyRepository, Mockito.times(1)).getAccessControlPolicy(ACTION, RESOURCE);
+    }
+
+    @Test
+    public void testIsPermittedWithDecisionCache() throws Exception {
+        AuthorizationDecisionCache authorizationDecisionCache = new AuthorizationDecisionCache(1, TimeUnit.HOURS, 10);
+        accessControlPolicyEvaluator = new AccessControlPolicyEvaluator(mockedAccessControlPolicyRepository, 1, TimeUnit.HOURS, authorizationDecisionCache);
+        Mockito.doReturn(Arrays.asList("principal == 1234")).when(mockedAccessControlPolicyRepository).getAccessControlPolicy(ACTION, RESOURCE);
+
+        assertTrue(accessControlPolicyEvaluator.isPermitted(owner, ACTION, RESOURCE));
+        assertTrue(accessControlPolicyEvaluator.isPermitted(owner, ACTION, RESOURCE));
+        assertFalse(accessControlPolicyEvaluator.isPermitted(stranger, ACTION, RESOURCE));
+        assertEquals(1L, authorizationDecisionCache.getStats().get("hit_count"));
+        assertEquals(2L, authorizationDecisionCache.getStats().get("miss_count"));
+
+        Mockito.doReturn(Arrays.asList("principal == 5678")).when(mockedAccessControlPolicyRepository).getAccessControlPolicy(ACTION, RESOURCE);
+        accessControlPolicyEvaluator.invalidate(ACTION, RESOURCE);
+        assertFalse(accessControlPolicyEvaluator.isPermitted(owner, ACTION, RESOURCE));
+        assertTrue(accessControlPolicyEvaluator.isPermitted(stranger, ACTION, RESOURCE));
+    }
+
+    @Test
+    public void testDecisionCacheInvalidatesOnlyChangedPermission() throws Exception {
+        AuthorizationDecisionCache authorizationDecisionCache = new AuthorizationDecisionCache(1, TimeUnit.HOURS, 10);
+        accessControlPolicyEvaluator = new AccessControlPolicyEvaluator(mockedAccessControlPolicyRepository, 1, TimeUnit.HOURS, authorizationDecisionCache);
+        Mockito.doReturn(Arrays.asList("principal == 1234")).when(mockedAccessControlPolicyRepository).getAccessControlPolicy(ACTION, RESOURCE);
+        Mockito.doReturn(Arrays.asList("principal == 1234")).when(mockedAccessControlPolicyRepository).getAccessControlPolicy("update_user", RESOURCE);
+
+        assertTrue(accessControlPolicyEvaluator.isPermitted(owner, ACTION, RESOURCE));
+        assertTrue(accessControlPolicyEvaluator.isPermitted(owner, "update_user", RESOURCE));
+        accessControlPolicyEvaluator.invalidate("update_user", RESOURCE);
+        assertTrue(accessControlPolicyEvaluator.isPermitted(owner, ACTION, RESOURCE));
+        assertTrue(accessControlPolicyEvaluator.isPermitted(owner, "update_user", RESOURCE));
+        assertEquals(1L, authorizationDecisionCache.getStats().get("hit_count"));
+
+        authorizationDecisionCache.invalidatePrincipal(owner.getPrincipal());
+        assertTrue(accessControlPolicyEvaluator.isPermitted(owner, ACTION, RESOURCE));
+        assertEquals(1L, authorizationDecisionCache.getStats().get("hit_count"));
+    }
+
+    @Test
+    public void testExpiredPolicyRemoved() throws Exception {
+        accessControlPolicyEvaluator = new AccessControlPolicyEvaluator(mockedAccessControlPolicyRepository, 0, TimeUnit.SECONDS);
+        Mockito.doReturn(Arrays.asList("principal == 1234")).when(mockedAccessControlPolicyRepository).getAccessControlPolicy(ACTION, RESOURCE);
+
+        assertTrue(accessControlPolicyEvaluator.isPermitted(owner, ACTION, RESOURCE));
+        assertTrue(accessControlPolicyEvaluator.isPermitted(owner, ACTION, RESOURCE));
+        Mockito.verify(mockedAccessControlPolicyRepository, Mockito.times(2)).getAccessControlPolicy(ACTION, RESOURCE);
+        assertEquals(1L, accessControlPolicyEvaluator.getStats().get("expired_count"));
+        assertEquals(1, accessControlPolicyEvaluator.getStats().get("size"));
+    }
+
+    @Test(expected = ValidationException.class)
+    public void testIsPermittedWithNullAction() throws Exception {
+        accessControlPolicyEvaluator.isPermitted(owner, null, RESOURCE);
+    }
+}
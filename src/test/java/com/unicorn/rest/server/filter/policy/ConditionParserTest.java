@@ -0,0 +1,82 @@
+package com.unicorn.rest.server.filter.policy;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.unicorn.rest.repository.exception.ValidationException;
+import com.unicorn.rest.server.filter.ActivitiesSecurityFilter.AuthorizationScheme;
+import com.unicorn.rest.server.filter.model.CustomerPrincipal;
+import com.unicorn.rest.server.filter.model.SubjectPrincipal;
+import com.unicorn.rest.server.filter.model.UserPrincipal;
+
+public class ConditionParserTest {
+
+    private final SubjectPrincipal bearerUser = new UserPrincipal(1234L, AuthorizationScheme.BEARER_AUTHENTICATION);
+    private final SubjectPrincipal basicUser = new UserPrincipal(5678L, AuthorizationScheme.BASIC_AUTHENTICATION);
+    private final SubjectPrincipal bearerCustomer = new CustomerPrincipal(1234L, AuthorizationScheme.BEARER_AUTHENTICATION);
+
+    @Test
+    public void testParseComparisonHappyCase() throws ValidationException {
+        PrincipalCondition principalCondition = ConditionParser.parse("principal == 1234");
+        assertTrue(principalCondition.evaluate(bearerUser));
+        assertFalse(principalCondition.evaluate(basicUser));
+
+        principalCondition = ConditionParser.parse("PRINCIPAL_TYPE != customer");
+        assertTrue(principalCondition.evaluate(bearerUser));
+        assertFalse(principalCondition.evaluate(bearerCustomer));
+
+        principalCondition = ConditionParser.parse("authentication_scheme in [basic_authentication]");
+        assertTrue(principalCondition.evaluate(basicUser));
+        assertFalse(principalCondition.evaluate(bearerUser));
+    }
+
+    @Test
+    public void testParseCompoundConditionHappyCase() throws ValidationException {
+        PrincipalCondition principalCondition = ConditionParser.parse(
+                "principal in [5678, 1234] and not (principal_type == customer) or false");
+        assertTrue(principalCondition.evaluate(bearerUser));
+        assertTrue(principalCondition.evaluate(basicUser));
+        assertFalse(principalCondition.evaluate(bearerCustomer));
+
+        assertTrue(ConditionParser.parse("true").evaluate(bearerCustomer));
+        assertFalse(ConditionParser.parse("not true or false").evaluate(bearerCustomer));
+    }
+
+    @Test
+    public void testParseOperatorPrecedence() throws ValidationException {
+        /*
+         * "and" binds tighter than "or"
+         */
+        PrincipalCondition principalCondition = ConditionParser.parse("true or principal == 1 and false");
+        assertTrue(principalCondition.evaluate(bearerUser));
+        principalCondition = ConditionParser.parse("(true or principal == 1) and false");
+        assertFalse(principalCondition.evaluate(bearerUser));
+    }
+
+    @Test(expected = ValidationException.class)
+    public void testParseBlankCondition() throws ValidationException {
+        ConditionParser.parse("  ");
+    }
+
+    @Test(expected = ValidationException.class)
+    public void testParseUnknownAttribute() throws ValidationException {
+        ConditionParser.parse("username == 1234");
+    }
+
+    @Test(expected = ValidationException.class)
+    public void testParseInvalidPrincipal() throws ValidationException {
+        ConditionParser.parse("principal == abc");
+    }
+
+    @Test(expected = ValidationException.class)
+    public void testParseUnbalancedParentheses() throws ValidationException {
+        ConditionParser.parse("(principal == 1234");
+    }
+
+    @Test(expected = ValidationException.class)
+    public void testParseTrailingCharacters() throws ValidationException {
+        ConditionParser.parse("principal == 1234 principal == 5678");
+    }
+}
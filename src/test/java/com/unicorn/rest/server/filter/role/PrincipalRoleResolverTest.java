@@ -0,0 +1,119 @@
+package com.unicorn.rest.server.filter.role;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.unicorn.rest.repository.table.PrincipalRoleTable;
+
+public class PrincipalRoleResolverTest {
+
+    private static final Long PRINCIPAL = 1234L;
+
+    private PrincipalRoleTable mockedPrincipalRoleTable;
+    private RoleRegistry roleRegistry;
+    private PrincipalRoleResolver principalRoleResolver;
+
+    @Before
+    public void setUp() {
+        mockedPrincipalRoleTable = Mockito.mock(PrincipalRoleTable.class);
+        roleRegistry = new RoleRegistry();
+        principalRoleResolver = new PrincipalRoleResolver(mockedPrincipalRoleTable, 
+                new RoleHierarchy(roleRegistry, RoleHierarchy.DEFAULT_ROLE_GROUPS, Arrays.asList("reviewer")), 1, TimeUnit.HOURS, 10);
+    }
+
+    @Test
+    public void testGetPrincipalRolesExpandsGroups() throws Exception {
+        Mockito.doReturn(Arrays.asList("Restaurant_Owner", "reviewer")).when(mockedPrincipalRoleTable).getRoles(PRINCIPAL);
+
+        PrincipalRoles principalRoles = principalRoleResolver.getPrincipalRoles(PRINCIPAL);
+        assertTrue(principalRoles.hasRole(principalRoleResolver.getRoleId("restaurant_owner")));
+        assertTrue(principalRoles.hasRole(principalRoleResolver.getRoleId("restaurant_manager")));
+        assertTrue(principalRoles.hasRole(principalRoleResolver.getRoleId("MENU_EDITOR")));
+        assertTrue(principalRoles.hasRole(principalRoleResolver.getRoleId("reviewer")));
+        assertFalse(principalRoles.hasRole(principalRoleResolver.getRoleId("administrator")));
+        assertFalse(principalRoles.hasRole(principalRoleResolver.getRoleId("not_exist")));
+    }
+
+    @Test
+    public void testGetPrincipalRolesCached() throws Exception {
+        Mockito.doReturn(Arrays.asList("menu_editor")).when(mockedPrincipalRoleTable).getRoles(PRINCIPAL);
+
+        principalRoleResolver.getPrincipalRoles(PRINCIPAL);
+        principalRoleResolver.getPrincipalRoles(PRINCIPAL);
+        Mockito.verify(mockedPrincipalRoleTable, Mockito.times(1)).getRoles(PRINCIPAL);
+
+        principalRoleResolver.invalidate(PRINCIPAL);
+        principalRoleResolver.getPrincipalRoles(PRINCIPAL);
+        Mockito.verify(mockedPrincipalRoleTable, Mockito.times(2)).getRoles(PRINCIPAL);
+    }
+
+    @Test
+    public void testGetPrincipalRolesIgnoresUnknownRoles() throws Exception {
+        Mockito.doReturn(Arrays.asList("garbage_role", "menu_editor")).when(mockedPrincipalRoleTable).getRoles(PRINCIPAL);
+
+        PrincipalRoles principalRoles = principalRoleResolver.getPrincipalRoles(PRINCIPAL);
+        assertTrue(principalRoles.hasRole(principalRoleResolver.getRoleId("menu_editor")));
+        assertEquals(RoleRegistry.UNKNOWN_ROLE_ID, principalRoleResolver.getRoleId("garbage_role"));
+    }
+
+    @Test
+    public void testRevokeRolesInvalidatesCachedRoles() throws Exception {
+        Mockito.doReturn(Arrays.asList("menu_editor")).when(mockedPrincipalRoleTable).getRoles(PRINCIPAL);
+        assertTrue(principalRoleResolver.getPrincipalRoles(PRINCIPAL).hasRole(principalRoleResolver.getRoleId("menu_editor")));
+
+        Mockito.doReturn(Collections.emptyList()).when(mockedPrincipalRoleTable).getRoles(PRINCIPAL);
+        principalRoleResolver.revokeRoles(PRINCIPAL, Arrays.asList("menu_editor"));
+        assertTrue(principalRoleResolver.getPrincipalRoles(PRINCIPAL).isEmpty());
+        Mockito.verify(mockedPrincipalRoleTable, Mockito.times(1)).revokeRoles(PRINCIPAL, Arrays.asList("menu_editor"));
+    }
+
+    @Test
+    public void testRolesLoadedBeforeRevokeNotCached() throws Exception {
+        Mockito.doAnswer(new Answer<List<String>>() {
+            @Override
+            public List<String> answer(InvocationOnMock invocation) throws Throwable {
+                principalRoleResolver.revokeRoles(PRINCIPAL, Arrays.asList("menu_editor"));
+                return Arrays.asList("menu_editor");
+            }
+        }).when(mockedPrincipalRoleTable).getRoles(PRINCIPAL);
+        principalRoleResolver.getPrincipalRoles(PRINCIPAL);
+
+        Mockito.doReturn(Collections.emptyList()).when(mockedPrincipalRoleTable).getRoles(PRINCIPAL);
+        assertTrue(principalRoleResolver.getPrincipalRoles(PRINCIPAL).isEmpty());
+        Mockito.verify(mockedPrincipalRoleTable, Mockito.times(2)).getRoles(PRINCIPAL);
+    }
+
+    @Test
+    public void testGetPrincipalRolesWithoutRole() throws Exception {
+        Mockito.doReturn(Collections.emptyList()).when(mockedPrincipalRoleTable).getRoles(PRINCIPAL);
+        assertTrue(principalRoleResolver.getPrincipalRoles(PRINCIPAL).isEmpty());
+    }
+
+    @Test
+    public void testRoleHierarchyWithCycle() {
+        Map<String, List<String>> roleGroups = new HashMap<>();
+        roleGroups.put("group_a", Arrays.asList("group_b", "role_a"));
+        roleGroups.put("group_b", Arrays.asList("group_a", "role_b"));
+        RoleHierarchy roleHierarchy = new RoleHierarchy(roleRegistry, roleGroups);
+
+        PrincipalRoles principalRoles = roleHierarchy.expand(Arrays.asList("group_b"));
+        assertTrue(principalRoles.hasRole(roleRegistry.getRoleId("group_a")));
+        assertTrue(principalRoles.hasRole(roleRegistry.getRoleId("role_a")));
+        assertTrue(principalRoles.hasRole(roleRegistry.getRoleId("role_b")));
+        assertEquals(RoleRegistry.UNKNOWN_ROLE_ID, roleRegistry.getRoleId("role_c"));
+    }
+}
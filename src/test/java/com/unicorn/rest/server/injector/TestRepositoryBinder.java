@@ -1,25 +1,81 @@
 package com.unicorn.rest.server.injector;
 
+import java.util.Collections;
+
 import org.glassfish.hk2.utilities.binding.AbstractBinder;
 import org.mockito.Mockito;
 
+import com.unicorn.rest.repository.AccessControlPolicyRepository;
 import com.unicorn.rest.repository.AuthorizationTokenRepository;
+import com.unicorn.rest.repository.AutocompleteRepository;
 import com.unicorn.rest.repository.CustomerRepository;
+import com.unicorn.rest.repository.ItemAvailabilityRepository;
+import com.unicorn.rest.repository.MenuImportRepository;
+import com.unicorn.rest.repository.MenuRepository;
+import com.unicorn.rest.repository.MenuSearchRepository;
+import com.unicorn.rest.repository.PopularityRepository;
+import com.unicorn.rest.repository.RestaurantLocationRepository;
+import com.unicorn.rest.repository.RestaurantRepository;
 import com.unicorn.rest.repository.UserRepository;
+import com.unicorn.rest.repository.impl.AccessControlPolicyRepositoryImpl;
 import com.unicorn.rest.repository.impl.AuthorizationTokenRepositoryImpl;
+import com.unicorn.rest.repository.impl.AutocompleteRepositoryImpl;
 import com.unicorn.rest.repository.impl.CustomerRepositoryImpl;
+import com.unicorn.rest.repository.impl.ItemAvailabilityRepositoryImpl;
+import com.unicorn.rest.repository.impl.MenuImportRepositoryImpl;
+import com.unicorn.rest.repository.impl.MenuRepositoryImpl;
+import com.unicorn.rest.repository.impl.MenuSearchRepositoryImpl;
+import com.unicorn.rest.repository.impl.PopularityRepositoryImpl;
+import com.unicorn.rest.repository.impl.RestaurantLocationRepositoryImpl;
+import com.unicorn.rest.repository.impl.RestaurantRepositoryImpl;
 import com.unicorn.rest.repository.impl.UserRepositoryImpl;
+import com.unicorn.rest.repository.impl.dynamodb.DynamoPrincipalRoleTable;
+import com.unicorn.rest.server.filter.AccessControlPolicyEvaluator;
+import com.unicorn.rest.server.filter.role.PrincipalRoleResolver;
+import com.unicorn.rest.server.limiter.ItemEventRateLimiter;
+import com.unicorn.rest.server.limiter.TokenBucketRateLimiter;
+import com.unicorn.rest.server.limiter.TokenRateLimiter;
 
 public class TestRepositoryBinder extends AbstractBinder {
 
     private AuthorizationTokenRepositoryImpl mockedTokenRepository = Mockito.mock(AuthorizationTokenRepositoryImpl.class);
     private UserRepositoryImpl mockedUserRepository = Mockito.mock(UserRepositoryImpl.class);
     private CustomerRepositoryImpl mockedCustomerRepository = Mockito.mock(CustomerRepositoryImpl.class);
+    private AccessControlPolicyRepositoryImpl mockedAccessControlPolicyRepository = Mockito.mock(AccessControlPolicyRepositoryImpl.class);
+    private RestaurantRepositoryImpl mockedRestaurantRepository = Mockito.mock(RestaurantRepositoryImpl.class);
+    private MenuRepositoryImpl mockedMenuRepository = Mockito.mock(MenuRepositoryImpl.class);
+    private MenuSearchRepositoryImpl mockedMenuSearchRepository = Mockito.mock(MenuSearchRepositoryImpl.class);
+    private RestaurantLocationRepositoryImpl mockedRestaurantLocationRepository = Mockito.mock(RestaurantLocationRepositoryImpl.class);
+    private AutocompleteRepositoryImpl mockedAutocompleteRepository = Mockito.mock(AutocompleteRepositoryImpl.class);
+    private ItemAvailabilityRepositoryImpl mockedItemAvailabilityRepository = Mockito.mock(ItemAvailabilityRepositoryImpl.class);
+    private MenuImportRepositoryImpl mockedMenuImportRepository = Mockito.mock(MenuImportRepositoryImpl.class);
+    private PopularityRepositoryImpl mockedPopularityRepository = Mockito.mock(PopularityRepositoryImpl.class);
+    private DynamoPrincipalRoleTable mockedPrincipalRoleTable = Mockito.mock(DynamoPrincipalRoleTable.class);
+    /*
+     * Generous limits, so that the tests sending many token requests from localhost do not get throttled
+     */
+    private TokenRateLimiter tokenRateLimiter = Mockito.spy(new TokenRateLimiter(new TokenBucketRateLimiter(10000, 10000, 1000), 
+            new TokenBucketRateLimiter(10000, 10000, 1000), null));
+    private ItemEventRateLimiter itemEventRateLimiter = new ItemEventRateLimiter(new TokenBucketRateLimiter(10000, 10000, 1000),
+            Collections.<String>emptySet());
 
     protected void configure() {
         bind(mockedTokenRepository).to(AuthorizationTokenRepository.class);
         bind(mockedUserRepository).to(UserRepository.class);
         bind(mockedCustomerRepository).to(CustomerRepository.class);
+        bind(mockedAccessControlPolicyRepository).to(AccessControlPolicyRepository.class);
+        bind(mockedRestaurantRepository).to(RestaurantRepository.class);
+        bind(mockedMenuRepository).to(MenuRepository.class);
+        bind(mockedMenuSearchRepository).to(MenuSearchRepository.class);
+        bind(mockedRestaurantLocationRepository).to(RestaurantLocationRepository.class);
+        bind(mockedAutocompleteRepository).to(AutocompleteRepository.class);
+        bind(mockedItemAvailabilityRepository).to(ItemAvailabilityRepository.class);
+        bind(mockedMenuImportRepository).to(MenuImportRepository.class);
+        bind(mockedPopularityRepository).to(PopularityRepository.class);
+        bind(new AccessControlPolicyEvaluator(mockedAccessControlPolicyRepository)).to(AccessControlPolicyEvaluator.class);
+        bind(new PrincipalRoleResolver(mockedPrincipalRoleTable)).to(PrincipalRoleResolver.class);
+        bind(tokenRateLimiter).to(TokenRateLimiter.class);
+        bind(itemEventRateLimiter).to(ItemEventRateLimiter.class);
     }
 
     public AuthorizationTokenRepositoryImpl getMockedTokenRepository() {
@@ -33,4 +89,48 @@ public class TestRepositoryBinder extends AbstractBinder {
     public CustomerRepositoryImpl getMockedCustomerRepository() {
         return mockedCustomerRepository;
     }
+
+    public AccessControlPolicyRepositoryImpl getMockedAccessControlPolicyRepository() {
+        return mockedAccessControlPolicyRepository;
+    }
+
+    public RestaurantRepositoryImpl getMockedRestaurantRepository() {
+        return mockedRestaurantRepository;
+    }
+
+    public MenuRepositoryImpl getMockedMenuRepository() {
+        return mockedMenuRepository;
+    }
+
+    public MenuSearchRepositoryImpl getMockedMenuSearchRepository() {
+        return mockedMenuSearchRepository;
+    }
+
+    public RestaurantLocationRepositoryImpl getMockedRestaurantLocationRepository() {
+        return mockedRestaurantLocationRepository;
+    }
+
+    public AutocompleteRepositoryImpl getMockedAutocompleteRepository() {
+        return mockedAutocompleteRepository;
+    }
+
+    public ItemAvailabilityRepositoryImpl getMockedItemAvailabilityRepository() {
+        return mockedItemAvailabilityRepository;
+    }
+
+    public MenuImportRepositoryImpl getMockedMenuImportRepository() {
+        return mockedMenuImportRepository;
+    }
+
+    public PopularityRepositoryImpl getMockedPopularityRepository() {
+        return mockedPopularityRepository;
+    }
+
+    public TokenRateLimiter getSpiedTokenRateLimiter() {
+        return tokenRateLimiter;
+    }
+
+    public DynamoPrincipalRoleTable getMockedPrincipalRoleTable() {
+        return mockedPrincipalRoleTable;
+    }
 }
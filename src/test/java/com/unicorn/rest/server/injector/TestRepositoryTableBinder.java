@@ -2,11 +2,17 @@ package com.unicorn.rest.server.injector;
 
 import org.mockito.Mockito;
 
+import com.unicorn.rest.repository.impl.dynamodb.DynamoAccessControlPolicyTable;
 import com.unicorn.rest.repository.impl.dynamodb.DynamoAuthorizationTokenTable;
 import com.unicorn.rest.repository.impl.dynamodb.DynamoCustomerProfileTable;
 import com.unicorn.rest.repository.impl.dynamodb.DynamoEmailAddressToPrincipalTable;
+import com.unicorn.rest.repository.impl.dynamodb.DynamoItemAvailabilityTable;
+import com.unicorn.rest.repository.impl.dynamodb.DynamoMenuTable;
 import com.unicorn.rest.repository.impl.dynamodb.DynamoMobilePhoneToPrincipalTable;
 import com.unicorn.rest.repository.impl.dynamodb.DynamoNameToPrincipalTable;
+import com.unicorn.rest.repository.impl.dynamodb.DynamoPopularityCounterTable;
+import com.unicorn.rest.repository.impl.dynamodb.DynamoRestaurantLocationTable;
+import com.unicorn.rest.repository.impl.dynamodb.DynamoRestaurantTable;
 import com.unicorn.rest.repository.impl.dynamodb.DynamoUserProfileTable;
 
 public class TestRepositoryTableBinder {
@@ -17,6 +23,12 @@ public class TestRepositoryTableBinder {
     private DynamoEmailAddressToPrincipalTable mockedDynamoEmailAddressToPrincipalTable = Mockito.mock(DynamoEmailAddressToPrincipalTable.class);
     private DynamoUserProfileTable mockedDynamoUserProfileTable = Mockito.mock(DynamoUserProfileTable.class);
     private DynamoCustomerProfileTable mockedDynamoCustomerProfileTable = Mockito.mock(DynamoCustomerProfileTable.class);
+    private DynamoAccessControlPolicyTable mockedDynamoAccessControlPolicyTable = Mockito.mock(DynamoAccessControlPolicyTable.class);
+    private DynamoRestaurantTable mockedDynamoRestaurantTable = Mockito.mock(DynamoRestaurantTable.class);
+    private DynamoMenuTable mockedDynamoMenuTable = Mockito.mock(DynamoMenuTable.class);
+    private DynamoRestaurantLocationTable mockedDynamoRestaurantLocationTable = Mockito.mock(DynamoRestaurantLocationTable.class);
+    private DynamoItemAvailabilityTable mockedDynamoItemAvailabilityTable = Mockito.mock(DynamoItemAvailabilityTable.class);
+    private DynamoPopularityCounterTable mockedDynamoPopularityCounterTable = Mockito.mock(DynamoPopularityCounterTable.class);
 
     public DynamoAuthorizationTokenTable getMockedDynamoAuthorizationTokenTable() {
         return mockedDynamoAuthorizationTokenTable;
@@ -41,4 +53,28 @@ public class TestRepositoryTableBinder {
     public DynamoCustomerProfileTable getMockedDynamoCustomerProfileTable() {
         return mockedDynamoCustomerProfileTable;
     }
+    
+    public DynamoAccessControlPolicyTable getMockedDynamoAccessControlPolicyTable() {
+        return mockedDynamoAccessControlPolicyTable;
+    }
+    
+    public DynamoRestaurantTable getMockedDynamoRestaurantTable() {
+        return mockedDynamoRestaurantTable;
+    }
+    
+    public DynamoMenuTable getMockedDynamoMenuTable() {
+        return mockedDynamoMenuTable;
+    }
+    
+    public DynamoRestaurantLocationTable getMockedDynamoRestaurantLocationTable() {
+        return mockedDynamoRestaurantLocationTable;
+    }
+    
+    public DynamoItemAvailabilityTable getMockedDynamoItemAvailabilityTable() {
+        return mockedDynamoItemAvailabilityTable;
+    }
+    
+    public DynamoPopularityCounterTable getMockedDynamoPopularityCounterTable() {
+        return mockedDynamoPopularityCounterTable;
+    }
 }
@@ -0,0 +1,113 @@
+package com.unicorn.rest.server.limiter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.unicorn.rest.server.limiter.AdaptiveConcurrencyLimiter.Permit;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    public void testShedWhenLimitReached() {
+        AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(2, 1, 10);
+        assertNotNull(concurrencyLimiter.tryAcquire(AdmissionPriority.TOKEN));
+        assertNotNull(concurrencyLimiter.tryAcquire(AdmissionPriority.AUTHENTICATED));
+        assertNull(concurrencyLimiter.tryAcquire(AdmissionPriority.REGISTRATION));
+        assertEquals(2, concurrencyLimiter.getInflight());
+    }
+
+    @Test
+    public void testReleaseGrantsWaitingRequest() throws Exception {
+        final AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(1, 1, 10);
+        Permit permit = concurrencyLimiter.tryAcquire(AdmissionPriority.AUTHENTICATED);
+        assertNotNull(permit);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Permit> waitingPermit = executor.submit(new Callable<Permit>() {
+                @Override
+                public Permit call() {
+                    return concurrencyLimiter.tryAcquire(AdmissionPriority.TOKEN);
+                }
+            });
+            Thread.sleep(20);
+            concurrencyLimiter.release(permit, false);
+            assertNotNull(waitingPermit.get(1, TimeUnit.SECONDS));
+            assertEquals(1, concurrencyLimiter.getInflight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testReleaseSamePermitTwice() {
+        AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(2, 1, 10);
+        Permit permit = concurrencyLimiter.tryAcquire(AdmissionPriority.TOKEN);
+        concurrencyLimiter.release(permit, false);
+        concurrencyLimiter.release(permit, false);
+        assertEquals(0, concurrencyLimiter.getInflight());
+    }
+
+    @Test
+    public void testLimitAdaptsToLatency() {
+        AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(4, 1, 100);
+        
+        /*
+         * Fully used limit with stable latency grows the limit
+         */
+        for (int i = 0; i < 20; i++) {
+            concurrencyLimiter.tryAcquire(AdmissionPriority.TOKEN);
+            concurrencyLimiter.tryAcquire(AdmissionPriority.TOKEN);
+            concurrencyLimiter.release(new Permit(AdmissionPriority.TOKEN, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(10)), false);
+        }
+        double grownLimit = concurrencyLimiter.getLimit();
+        assertTrue(grownLimit > 4);
+
+        /*
+         * Latency going far beyond no-load latency shrinks the limit
+         */
+        for (int i = 0; i < 20; i++) {
+            concurrencyLimiter.tryAcquire(AdmissionPriority.TOKEN);
+            concurrencyLimiter.release(new Permit(AdmissionPriority.TOKEN, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(100)), false);
+        }
+        assertTrue(concurrencyLimiter.getLimit() < grownLimit);
+    }
+
+    @Test
+    public void testNoLoadLatencyPerPriority() {
+        AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(10, 1, 100);
+        for (int i = 0; i < 20; i++) {
+            concurrencyLimiter.tryAcquire(AdmissionPriority.TOKEN);
+            concurrencyLimiter.release(new Permit(AdmissionPriority.TOKEN, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(5)), false);
+        }
+        double limit = concurrencyLimiter.getLimit();
+
+        /*
+         * The slower class is compared against its own baseline rather than that of the token requests
+         */
+        for (int i = 0; i < 20; i++) {
+            concurrencyLimiter.tryAcquire(AdmissionPriority.AUTHENTICATED);
+            concurrencyLimiter.release(new Permit(AdmissionPriority.AUTHENTICATED, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(100)), false);
+        }
+        assertEquals(limit, concurrencyLimiter.getLimit(), 0.001);
+        assertEquals(5L, concurrencyLimiter.getStats().get("no_load_rtt_in_mills_token"));
+        assertEquals(100L, concurrencyLimiter.getStats().get("no_load_rtt_in_mills_authenticated"));
+    }
+
+    @Test
+    public void testLimitBacksOffOnFailure() {
+        AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(10, 1, 100);
+        concurrencyLimiter.release(concurrencyLimiter.tryAcquire(AdmissionPriority.TOKEN), true);
+        assertEquals(9, concurrencyLimiter.getLimit(), 0.001);
+    }
+}
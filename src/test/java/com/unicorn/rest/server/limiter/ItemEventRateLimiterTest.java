@@ -0,0 +1,33 @@
+package com.unicorn.rest.server.limiter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+public class ItemEventRateLimiterTest {
+
+    @Test
+    public void testRateLimitedByClientAddress() {
+        ItemEventRateLimiter itemEventRateLimiter = new ItemEventRateLimiter(new TokenBucketRateLimiter(1, 2, 10),
+                Collections.<String>emptySet());
+        assertTrue(itemEventRateLimiter.tryAcquireForClient("203.0.113.7"));
+        assertTrue(itemEventRateLimiter.tryAcquireForClient("203.0.113.7"));
+        assertFalse(itemEventRateLimiter.tryAcquireForClient("203.0.113.7"));
+        assertTrue(itemEventRateLimiter.tryAcquireForClient("198.51.100.1"));
+        assertTrue(itemEventRateLimiter.tryAcquireForClient(null));
+        assertEquals(1L, itemEventRateLimiter.getStats().get("client_rejected_count"));
+    }
+
+    @Test
+    public void testForwardedForOnlyHonoredFromTrustedProxies() {
+        ItemEventRateLimiter itemEventRateLimiter = new ItemEventRateLimiter(new HashSet<>(Arrays.asList("10.0.0.1")));
+        assertEquals("203.0.113.7", itemEventRateLimiter.resolveClientAddress("198.51.100.1, 203.0.113.7", "10.0.0.1"));
+        assertEquals("203.0.113.8", itemEventRateLimiter.resolveClientAddress("198.51.100.1", "203.0.113.8"));
+    }
+}
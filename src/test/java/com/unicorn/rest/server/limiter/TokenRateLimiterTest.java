@@ -0,0 +1,120 @@
+package com.unicorn.rest.server.limiter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import com.unicorn.rest.repository.exception.RepositoryServerException;
+import com.unicorn.rest.repository.table.RateLimitCounterTable;
+
+public class TokenRateLimiterTest {
+
+    @Test
+    public void testTokenBucketBurstThenReject() {
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(1, 3, 10);
+        assertTrue(rateLimiter.tryAcquire("client"));
+        assertTrue(rateLimiter.tryAcquire("client"));
+        assertTrue(rateLimiter.tryAcquire("client"));
+        assertFalse(rateLimiter.tryAcquire("client"));
+        assertTrue(rateLimiter.tryAcquire("another_client"));
+        assertEquals(1, rateLimiter.getRejectedCount());
+    }
+
+    @Test
+    public void testTokenBucketRefill() throws InterruptedException {
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(6000, 1, 10);
+        assertTrue(rateLimiter.tryAcquire("client"));
+        assertFalse(rateLimiter.tryAcquire("client"));
+        Thread.sleep(20);
+        assertTrue(rateLimiter.tryAcquire("client"));
+    }
+
+    @Test
+    public void testTokenBucketReserveQueuesUp() {
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(60, 2, 10);
+        assertEquals(0, rateLimiter.reserveInNanos("import"));
+        assertEquals(0, rateLimiter.reserveInNanos("import"));
+        long firstWaitInNanos = rateLimiter.reserveInNanos("import");
+        long secondWaitInNanos = rateLimiter.reserveInNanos("import");
+        assertTrue(firstWaitInNanos > 0 && firstWaitInNanos <= TimeUnit.SECONDS.toNanos(1));
+        assertTrue(secondWaitInNanos > TimeUnit.SECONDS.toNanos(1) && secondWaitInNanos <= TimeUnit.SECONDS.toNanos(2));
+        assertFalse(rateLimiter.tryAcquire("import"));
+    }
+
+    @Test
+    public void testTokenBucketRejectsNewKeyWhenFull() {
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(1, 2, 2);
+        assertTrue(rateLimiter.tryAcquire("client"));
+        assertTrue(rateLimiter.tryAcquire("another_client"));
+        assertFalse(rateLimiter.tryAcquire("new_client"));
+        assertTrue(rateLimiter.tryAcquire("client"));
+        assertEquals(2, rateLimiter.size());
+        assertEquals(1, rateLimiter.getRejectedCount());
+    }
+
+    @Test
+    public void testTokenBucketReserveSharesOverflowWhenFull() {
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(60, 1, 1);
+        assertEquals(0, rateLimiter.reserveInNanos("import"));
+        assertEquals(0, rateLimiter.reserveInNanos("new_import"));
+        assertTrue(rateLimiter.reserveInNanos("another_import") > 0);
+        assertEquals(1, rateLimiter.size());
+    }
+
+    @Test
+    public void testLoginNameIsCaseInsensitive() {
+        TokenRateLimiter tokenRateLimiter = new TokenRateLimiter(new TokenBucketRateLimiter(1, 1, 10), 
+                new TokenBucketRateLimiter(1, 1, 10), null);
+        assertTrue(tokenRateLimiter.tryAcquireForLoginName("Unicorn"));
+        assertFalse(tokenRateLimiter.tryAcquireForLoginName("unicorn"));
+        assertTrue(tokenRateLimiter.tryAcquireForClient(null));
+    }
+
+    @Test
+    public void testSharedCounterOverLimit() throws Exception {
+        RateLimitCounterTable rateLimitCounterTable = Mockito.mock(RateLimitCounterTable.class);
+        Mockito.doReturn((long) TokenRateLimiter.SHARED_LOGIN_NAME_PERMITS_PER_WINDOW + 1).when(rateLimitCounterTable)
+            .incrementAndGetCount(Matchers.anyString(), Matchers.anyLong(), Matchers.anyLong());
+        TokenRateLimiter tokenRateLimiter = new TokenRateLimiter(rateLimitCounterTable);
+        assertFalse(tokenRateLimiter.tryAcquireForLoginName("unicorn"));
+    }
+
+    @Test
+    public void testSharedCounterFailsOpen() throws Exception {
+        RateLimitCounterTable rateLimitCounterTable = Mockito.mock(RateLimitCounterTable.class);
+        Mockito.doThrow(new RepositoryServerException("Repository Internal Server Error", null)).when(rateLimitCounterTable)
+            .incrementAndGetCount(Matchers.anyString(), Matchers.anyLong(), Matchers.anyLong());
+        TokenRateLimiter tokenRateLimiter = new TokenRateLimiter(rateLimitCounterTable);
+        assertTrue(tokenRateLimiter.tryAcquireForLoginName("unicorn"));
+        assertTrue(tokenRateLimiter.tryAcquireForLoginName("unicorn"));
+        assertEquals(2L, tokenRateLimiter.getStats().get("shared_failure_count"));
+    }
+
+    @Test
+    public void testForwardedForIgnoredFromUntrustedClient() {
+        TokenRateLimiter tokenRateLimiter = new TokenRateLimiter(null, new HashSet<>(Arrays.asList("10.0.0.1")));
+        assertEquals("203.0.113.7", tokenRateLimiter.resolveClientAddress("198.51.100.1", "203.0.113.7"));
+        assertEquals("203.0.113.7", tokenRateLimiter.resolveClientAddress(null, "203.0.113.7"));
+        assertEquals(null, tokenRateLimiter.resolveClientAddress("198.51.100.1", null));
+    }
+
+    @Test
+    public void testForwardedForFromTrustedProxies() {
+        TokenRateLimiter tokenRateLimiter = new TokenRateLimiter(null, new HashSet<>(Arrays.asList("10.0.0.1", "10.0.0.2")));
+        /*
+         * The entries before the one appended by the trusted proxies are provided by the client
+         */
+        assertEquals("203.0.113.7", tokenRateLimiter.resolveClientAddress("198.51.100.1, 203.0.113.7", "10.0.0.1"));
+        assertEquals("203.0.113.7", tokenRateLimiter.resolveClientAddress("198.51.100.1, 203.0.113.7, 10.0.0.2", "10.0.0.1"));
+        assertEquals("10.0.0.2", tokenRateLimiter.resolveClientAddress("10.0.0.2", "10.0.0.1"));
+        assertEquals("10.0.0.1", tokenRateLimiter.resolveClientAddress(" ", "10.0.0.1"));
+    }
+}
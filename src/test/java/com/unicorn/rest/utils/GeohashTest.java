@@ -0,0 +1,30 @@
+package com.unicorn.rest.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class GeohashTest {
+
+    @Test
+    public void testToBase32MatchesConventionalGeohash() {
+        assertEquals("c23nb", Geohash.toBase32(Geohash.encode(47.6062, -122.3321), 5));
+        assertEquals("u4pruydqqv", Geohash.toBase32(Geohash.encode(57.64911, 10.40744), 10));
+    }
+
+    @Test
+    public void testCellIsPrefixOfGeohash() {
+        long geohash = Geohash.encode(-33.8688, 151.2093);
+        for (int level = 0; level <= Geohash.BITS_PER_AXIS; level++) {
+            long cell = Geohash.interleave(Geohash.toLongitudeCell(151.2093, level), Geohash.toLatitudeCell(-33.8688, level));
+            assertEquals(cell, geohash >>> (2 * (Geohash.BITS_PER_AXIS - level)));
+        }
+    }
+
+    @Test
+    public void testEdgesFallIntoLastCell() {
+        assertEquals(Geohash.MAX_CELLS_PER_AXIS - 1, Geohash.toLatitudeCell(90.0, Geohash.BITS_PER_AXIS));
+        assertEquals(Geohash.MAX_CELLS_PER_AXIS - 1, Geohash.toLongitudeCell(180.0, Geohash.BITS_PER_AXIS));
+        assertEquals(0, Geohash.toLongitudeCell(-180.0, Geohash.BITS_PER_AXIS));
+    }
+}
@@ -0,0 +1,61 @@
+package com.unicorn.rest.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.function.Predicate;
+
+import org.junit.Test;
+
+public class LRUCacheTest {
+
+    @Test
+    public void testEvictLeastRecentlyUsed() {
+        LRUCache<String, Integer> lruCache = new LRUCache<>(3);
+        lruCache.put("a", 1);
+        lruCache.put("b", 2);
+        lruCache.put("c", 3);
+        assertEquals(Integer.valueOf(1), lruCache.get("a"));
+
+        lruCache.put("d", 4);
+        assertEquals(3, lruCache.size());
+        assertNull(lruCache.get("b"));
+        assertEquals(Integer.valueOf(1), lruCache.get("a"));
+        assertEquals(1L, lruCache.getEvictionCount());
+    }
+
+    @Test
+    public void testBoundedAcrossSegments() {
+        LRUCache<Integer, Integer> lruCache = new LRUCache<>(1000);
+        for (int i = 0; i < 100000; i++) {
+            lruCache.put(i, i);
+            /*
+             * The hot key stays cached however many cold keys pass through
+             */
+            assertEquals(Integer.valueOf(0), lruCache.get(0));
+        }
+        assertEquals(1000, lruCache.size());
+        assertEquals(100000 - 1000, lruCache.getEvictionCount());
+    }
+
+    @Test
+    public void testRemove() {
+        LRUCache<String, Integer> lruCache = new LRUCache<>(10);
+        lruCache.put("a", 1);
+        lruCache.put("b", 2);
+        lruCache.put("ab", 3);
+
+        assertFalse(lruCache.remove("a", 2));
+        assertTrue(lruCache.remove("a", 1));
+        assertEquals(1, lruCache.removeIf(new Predicate<String>() {
+            @Override
+            public boolean test(String key) {
+                return key.startsWith("a");
+            }
+        }));
+        assertEquals(Integer.valueOf(2), lruCache.remove("b"));
+        assertEquals(0, lruCache.size());
+    }
+}
@@ -0,0 +1,24 @@
+package com.unicorn.rest.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+public class TextTokenizerTest {
+
+    @Test
+    public void testTokenize() {
+        assertEquals(Arrays.asList("spicy", "dan", "dan", "noodles", "2"), TextTokenizer.tokenize("Spicy Dan-Dan NOODLES (2)"));
+        assertEquals(Arrays.asList("crème", "brûlée"), TextTokenizer.tokenize("Crème Brûlée!"));
+        assertEquals(Arrays.asList("麻婆豆腐"), TextTokenizer.tokenize(" 麻婆豆腐 "));
+    }
+
+    @Test
+    public void testTokenizeNothing() {
+        assertEquals(Collections.emptyList(), TextTokenizer.tokenize(null));
+        assertEquals(Collections.emptyList(), TextTokenizer.tokenize(" - !"));
+    }
+}